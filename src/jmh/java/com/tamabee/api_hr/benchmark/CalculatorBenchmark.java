@@ -0,0 +1,151 @@
+package com.tamabee.api_hr.benchmark;
+
+import com.tamabee.api_hr.benchmark.CalculatorBenchmarkData.Day;
+import com.tamabee.api_hr.benchmark.CalculatorBenchmarkData.EmployeeMonth;
+import com.tamabee.api_hr.dto.config.AllowanceConfig;
+import com.tamabee.api_hr.dto.config.BreakConfig;
+import com.tamabee.api_hr.dto.config.DeductionConfig;
+import com.tamabee.api_hr.dto.config.OvertimeConfig;
+import com.tamabee.api_hr.dto.config.PayrollConfig;
+import com.tamabee.api_hr.dto.config.RoundingConfig;
+import com.tamabee.api_hr.dto.config.WorkScheduleData;
+import com.tamabee.api_hr.enums.RoundingDirection;
+import com.tamabee.api_hr.enums.RoundingInterval;
+import com.tamabee.api_hr.service.calculator.LegalBreakRequirements;
+import com.tamabee.api_hr.service.calculator.LegalOvertimeRequirements;
+import com.tamabee.api_hr.service.calculator.impl.AllowanceCalculatorImpl;
+import com.tamabee.api_hr.service.calculator.impl.BreakCalculatorImpl;
+import com.tamabee.api_hr.service.calculator.impl.DeductionCalculatorImpl;
+import com.tamabee.api_hr.service.calculator.impl.OvertimeCalculatorImpl;
+import com.tamabee.api_hr.service.calculator.impl.PayrollCalculatorImpl;
+import com.tamabee.api_hr.service.calculator.impl.TimeRoundingCalculatorImpl;
+import com.tamabee.api_hr.service.calculator.impl.WorkingHoursCalculatorImpl;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark các calculator chấm công/tính lương trên dữ liệu một tháng sinh ngẫu nhiên (seed cố định).
+ * Mỗi lần gọi benchmark xử lý toàn bộ tháng của {@link #employees} nhân viên,
+ * nên throughput × employees = số nhân viên/giây; -prof gc cho allocation rate (gc.alloc.rate.norm).
+ *
+ * Chạy: ./mvnw -Pbenchmark test-compile exec:exec -Djmh.args="CalculatorBenchmark -prof gc"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CalculatorBenchmark {
+
+    private static final long SEED = 20251101L;
+
+    @Param({ "1", "100" })
+    public int employees;
+
+    private List<EmployeeMonth> dataset;
+
+    private OvertimeCalculatorImpl overtimeCalculator;
+    private BreakCalculatorImpl breakCalculator;
+    private WorkingHoursCalculatorImpl workingHoursCalculator;
+    private TimeRoundingCalculatorImpl timeRoundingCalculator;
+    private PayrollCalculatorImpl payrollCalculator;
+
+    private PayrollConfig payrollConfig;
+    private OvertimeConfig overtimeConfig;
+    private BreakConfig breakConfig;
+    private AllowanceConfig allowanceConfig;
+    private DeductionConfig deductionConfig;
+    private WorkScheduleData schedule;
+    private RoundingConfig checkInRounding;
+    private RoundingConfig checkOutRounding;
+
+    @Setup
+    public void setup() {
+        dataset = CalculatorBenchmarkData.generate(employees, SEED);
+
+        overtimeCalculator = new OvertimeCalculatorImpl(new LegalOvertimeRequirements());
+        breakCalculator = new BreakCalculatorImpl(new LegalBreakRequirements());
+        workingHoursCalculator = new WorkingHoursCalculatorImpl(breakCalculator);
+        timeRoundingCalculator = new TimeRoundingCalculatorImpl();
+        payrollCalculator = new PayrollCalculatorImpl(
+                overtimeCalculator, new AllowanceCalculatorImpl(), new DeductionCalculatorImpl());
+
+        payrollConfig = CalculatorBenchmarkData.payrollConfig();
+        overtimeConfig = CalculatorBenchmarkData.overtimeConfig();
+        breakConfig = CalculatorBenchmarkData.breakConfig();
+        allowanceConfig = CalculatorBenchmarkData.allowanceConfig();
+        deductionConfig = CalculatorBenchmarkData.deductionConfig();
+        schedule = CalculatorBenchmarkData.schedule();
+        checkInRounding = RoundingConfig.builder()
+                .interval(RoundingInterval.MINUTES_15).direction(RoundingDirection.UP).build();
+        checkOutRounding = RoundingConfig.builder()
+                .interval(RoundingInterval.MINUTES_15).direction(RoundingDirection.DOWN).build();
+    }
+
+    @Benchmark
+    public void overtime(Blackhole bh) {
+        for (EmployeeMonth month : dataset) {
+            bh.consume(overtimeCalculator.calculateOvertime(
+                    month.overtimeDetails(), overtimeConfig, month.salaryInfo().getHourlyRate()));
+        }
+    }
+
+    @Benchmark
+    public void workingHours(Blackhole bh) {
+        for (EmployeeMonth month : dataset) {
+            for (Day day : month.days()) {
+                if (!day.overnight()) {
+                    bh.consume(workingHoursCalculator.calculateWorkingHours(
+                            day.checkIn(), day.checkOut(), day.breaks(), breakConfig, schedule));
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public void overnightWorkingHours(Blackhole bh) {
+        for (EmployeeMonth month : dataset) {
+            for (Day day : month.days()) {
+                bh.consume(workingHoursCalculator.calculateOvernightWorkingHours(
+                        day.checkIn(), day.checkOut(), day.breaks(), breakConfig, schedule));
+            }
+        }
+    }
+
+    @Benchmark
+    public void breaks(Blackhole bh) {
+        for (EmployeeMonth month : dataset) {
+            for (Day day : month.days()) {
+                int actual = breakCalculator.calculateTotalBreakMinutes(day.breaks());
+                int gross = breakCalculator.calculateWorkingMinutesForOvernightShift(day.checkIn(), day.checkOut());
+                boolean night = breakCalculator.isNightShift(
+                        day.checkIn().toLocalTime(), day.checkOut().toLocalTime(), breakConfig);
+                int effective = breakCalculator.calculateEffectiveBreakMinutes(actual, breakConfig, gross / 60, night);
+                bh.consume(breakCalculator.calculateNetWorkingMinutes(gross, effective, breakConfig));
+            }
+        }
+    }
+
+    @Benchmark
+    public void roundTime(Blackhole bh) {
+        for (EmployeeMonth month : dataset) {
+            for (Day day : month.days()) {
+                bh.consume(timeRoundingCalculator.roundTime(day.checkIn(), checkInRounding));
+                bh.consume(timeRoundingCalculator.roundTime(day.checkOut(), checkOutRounding));
+            }
+        }
+    }
+
+    @Benchmark
+    public void payroll(Blackhole bh) {
+        for (EmployeeMonth month : dataset) {
+            bh.consume(payrollCalculator.calculatePayroll(
+                    month.salaryInfo(), month.attendance(), month.overtimeDetails(),
+                    payrollConfig, overtimeConfig, allowanceConfig, deductionConfig, breakConfig));
+        }
+    }
+}
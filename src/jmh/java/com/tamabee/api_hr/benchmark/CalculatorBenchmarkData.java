@@ -0,0 +1,237 @@
+package com.tamabee.api_hr.benchmark;
+
+import com.tamabee.api_hr.dto.config.AllowanceCondition;
+import com.tamabee.api_hr.dto.config.AllowanceConfig;
+import com.tamabee.api_hr.dto.config.AllowanceRule;
+import com.tamabee.api_hr.dto.config.BreakConfig;
+import com.tamabee.api_hr.dto.config.DeductionConfig;
+import com.tamabee.api_hr.dto.config.DeductionRule;
+import com.tamabee.api_hr.dto.config.OvertimeConfig;
+import com.tamabee.api_hr.dto.config.PayrollConfig;
+import com.tamabee.api_hr.dto.config.WorkScheduleData;
+import com.tamabee.api_hr.dto.result.AttendanceSummary;
+import com.tamabee.api_hr.dto.result.DailyOvertimeDetail;
+import com.tamabee.api_hr.dto.result.EmployeeSalaryInfo;
+import com.tamabee.api_hr.entity.attendance.BreakRecordEntity;
+import com.tamabee.api_hr.enums.AllowanceType;
+import com.tamabee.api_hr.enums.BreakType;
+import com.tamabee.api_hr.enums.DeductionType;
+import com.tamabee.api_hr.enums.SalaryType;
+
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Sinh dữ liệu chấm công một tháng cho benchmark calculator.
+ * Seed cố định để các lần chạy so sánh được với nhau.
+ *
+ * Mỗi nhân viên: ngày thường check-in 8:30-9:30, check-out 17:30-21:30, 1-2 lần giải lao;
+ * khoảng 10% ngày là ca đêm 22:00-06:00; thỉnh thoảng làm cuối tuần/ngày lễ.
+ */
+final class CalculatorBenchmarkData {
+
+    static final YearMonth PERIOD = YearMonth.of(2025, 11);
+
+    private static final LocalDate HOLIDAY = LocalDate.of(2025, 11, 3);
+
+    /**
+     * Một ngày chấm công
+     */
+    record Day(LocalDateTime checkIn, LocalDateTime checkOut, List<BreakRecordEntity> breaks, boolean overnight) {
+    }
+
+    /**
+     * Dữ liệu tháng của một nhân viên
+     */
+    record EmployeeMonth(
+            EmployeeSalaryInfo salaryInfo,
+            AttendanceSummary attendance,
+            List<Day> days,
+            List<DailyOvertimeDetail> overtimeDetails) {
+    }
+
+    private CalculatorBenchmarkData() {
+    }
+
+    static List<EmployeeMonth> generate(int employees, long seed) {
+        Random random = new Random(seed);
+        List<EmployeeMonth> result = new ArrayList<>(employees);
+        for (int i = 0; i < employees; i++) {
+            result.add(generateEmployee(random, i));
+        }
+        return result;
+    }
+
+    private static EmployeeMonth generateEmployee(Random random, long employeeId) {
+        List<Day> days = new ArrayList<>();
+        List<DailyOvertimeDetail> overtimeDetails = new ArrayList<>();
+        int workingMinutes = 0;
+        int lateCount = 0;
+        int lateMinutes = 0;
+        int earlyLeaveCount = 0;
+        int earlyLeaveMinutes = 0;
+        int breakMinutes = 0;
+        int overtimeMinutes = 0;
+
+        for (int d = 1; d <= PERIOD.lengthOfMonth(); d++) {
+            LocalDate date = PERIOD.atDay(d);
+            boolean weekend = date.getDayOfWeek() == DayOfWeek.SATURDAY || date.getDayOfWeek() == DayOfWeek.SUNDAY;
+            boolean holiday = date.equals(HOLIDAY);
+
+            // Cuối tuần/ngày lễ chỉ đi làm 15%, ngày thường vắng 5%
+            if ((weekend || holiday) ? random.nextInt(100) >= 15 : random.nextInt(100) < 5) {
+                continue;
+            }
+
+            boolean overnight = random.nextInt(100) < 10;
+            LocalDateTime checkIn;
+            LocalDateTime checkOut;
+            if (overnight) {
+                checkIn = date.atTime(21, 45).plusMinutes(random.nextInt(30));
+                checkOut = date.plusDays(1).atTime(5, 45).plusMinutes(random.nextInt(60));
+            } else {
+                checkIn = date.atTime(8, 30).plusMinutes(random.nextInt(61));
+                checkOut = date.atTime(17, 30).plusMinutes(random.nextInt(241));
+            }
+
+            List<BreakRecordEntity> breaks = new ArrayList<>();
+            LocalDateTime breakStart = checkIn.plusHours(3).plusMinutes(random.nextInt(60));
+            int breakCount = 1 + random.nextInt(2);
+            for (int b = 0; b < breakCount; b++) {
+                LocalDateTime breakEnd = breakStart.plusMinutes(15 + random.nextInt(46));
+                int minutes = (int) Duration.between(breakStart, breakEnd).toMinutes();
+                breaks.add(breakRecord(employeeId, date, b + 1, breakStart, breakEnd, minutes));
+                breakMinutes += minutes;
+                breakStart = breakEnd.plusHours(2);
+            }
+            days.add(new Day(checkIn, checkOut, breaks, overnight));
+
+            int minutes = (int) Duration.between(checkIn, checkOut).toMinutes();
+            workingMinutes += minutes;
+            int late = (int) Duration.between(date.atTime(9, 0), checkIn).toMinutes();
+            if (!overnight && late > 0) {
+                lateCount++;
+                lateMinutes += late;
+            }
+            if (!overnight && random.nextInt(100) < 5) {
+                int early = 10 + random.nextInt(50);
+                earlyLeaveCount++;
+                earlyLeaveMinutes += early;
+            }
+
+            int overtime = Math.max(0, minutes - 9 * 60);
+            int night = overnight ? Math.min(overtime, 7 * 60) : Math.max(0, minutes - 13 * 60);
+            overtimeMinutes += overtime;
+            overtimeDetails.add(DailyOvertimeDetail.builder()
+                    .date(date)
+                    .regularMinutes(overtime - Math.min(night, overtime))
+                    .nightMinutes(Math.min(night, overtime))
+                    .isHoliday(holiday)
+                    .isWeekend(weekend)
+                    .build());
+        }
+
+        int workingDays = days.size();
+        AttendanceSummary attendance = AttendanceSummary.builder()
+                .workingDays(workingDays)
+                .workingHours(workingMinutes / 60)
+                .numberOfShifts(workingDays)
+                .absenceDays(Math.max(0, 21 - workingDays))
+                .lateCount(lateCount)
+                .totalLateMinutes(lateMinutes)
+                .earlyLeaveCount(earlyLeaveCount)
+                .totalEarlyLeaveMinutes(earlyLeaveMinutes)
+                .totalOvertimeMinutes(overtimeMinutes)
+                .totalBreakMinutes(breakMinutes)
+                .build();
+
+        return new EmployeeMonth(salaryInfo(random), attendance, days, overtimeDetails);
+    }
+
+    private static EmployeeSalaryInfo salaryInfo(Random random) {
+        SalaryType[] types = SalaryType.values();
+        SalaryType type = types[random.nextInt(types.length)];
+        return EmployeeSalaryInfo.builder()
+                .salaryType(type)
+                .monthlySalary(BigDecimal.valueOf(220_000 + random.nextInt(200) * 1_000L))
+                .dailyRate(BigDecimal.valueOf(10_000 + random.nextInt(100) * 100L))
+                .hourlyRate(BigDecimal.valueOf(1_100 + random.nextInt(900)))
+                .shiftRate(BigDecimal.valueOf(9_000 + random.nextInt(60) * 100L))
+                .build();
+    }
+
+    private static BreakRecordEntity breakRecord(long employeeId, LocalDate date, int number,
+            LocalDateTime start, LocalDateTime end, int minutes) {
+        BreakRecordEntity entity = new BreakRecordEntity();
+        entity.setEmployeeId(employeeId);
+        entity.setWorkDate(date);
+        entity.setBreakNumber(number);
+        entity.setBreakStart(start);
+        entity.setBreakEnd(end);
+        entity.setActualBreakMinutes(minutes);
+        return entity;
+    }
+
+    // === Cấu hình công ty dùng chung ===
+
+    static PayrollConfig payrollConfig() {
+        return PayrollConfig.builder().build();
+    }
+
+    static OvertimeConfig overtimeConfig() {
+        return OvertimeConfig.builder().build();
+    }
+
+    static BreakConfig breakConfig() {
+        return BreakConfig.builder()
+                .breakType(BreakType.UNPAID)
+                .build();
+    }
+
+    static WorkScheduleData schedule() {
+        return WorkScheduleData.builder()
+                .defaultStartTime(LocalTime.of(9, 0))
+                .defaultEndTime(LocalTime.of(18, 0))
+                .defaultBreakMinutes(60)
+                .build();
+    }
+
+    static AllowanceConfig allowanceConfig() {
+        return AllowanceConfig.builder()
+                .allowances(List.of(
+                        AllowanceRule.builder().code("TRANSPORT").name("通勤手当")
+                                .type(AllowanceType.FIXED).amount(new BigDecimal("15000")).taxable(false).build(),
+                        AllowanceRule.builder().code("HOUSING").name("住宅手当")
+                                .type(AllowanceType.FIXED).amount(new BigDecimal("20000")).taxable(true).build(),
+                        AllowanceRule.builder().code("ATTENDANCE").name("皆勤手当")
+                                .type(AllowanceType.CONDITIONAL).amount(new BigDecimal("10000")).taxable(true)
+                                .condition(AllowanceCondition.builder()
+                                        .minWorkingDays(20).noAbsence(true).noLateArrival(true).build())
+                                .build()))
+                .build();
+    }
+
+    static DeductionConfig deductionConfig() {
+        return DeductionConfig.builder()
+                .enableLatePenalty(true)
+                .latePenaltyPerMinute(new BigDecimal("20"))
+                .enableEarlyLeavePenalty(true)
+                .earlyLeavePenaltyPerMinute(new BigDecimal("20"))
+                .deductions(List.of(
+                        DeductionRule.builder().code("HEALTH").name("健康保険")
+                                .type(DeductionType.PERCENTAGE).percentage(new BigDecimal("4.99")).order(1).build(),
+                        DeductionRule.builder().code("PENSION").name("厚生年金")
+                                .type(DeductionType.PERCENTAGE).percentage(new BigDecimal("9.15")).order(2).build(),
+                        DeductionRule.builder().code("UNION").name("組合費")
+                                .type(DeductionType.FIXED).amount(new BigDecimal("1500")).order(3).build()))
+                .build();
+    }
+}
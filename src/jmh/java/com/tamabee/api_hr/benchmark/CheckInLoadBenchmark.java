@@ -0,0 +1,208 @@
+package com.tamabee.api_hr.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tamabee.api_hr.datasource.TenantContext;
+import com.tamabee.api_hr.datasource.TenantProvisioningService;
+import com.tamabee.api_hr.dto.request.attendance.CheckInRequest;
+import com.tamabee.api_hr.service.company.interfaces.IAttendanceAggregateService;
+import com.tamabee.api_hr.service.company.interfaces.IAttendanceService;
+import com.tamabee.api_hr.service.company.interfaces.ICheckInGroupCommitService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongConsumer;
+
+/**
+ * Load test check-in giờ cao điểm (đầu ca 9:00) trên tenant Postgres local.
+ *
+ * Sinh N nhân viên ({@link TenantDataGenerator}), sau đó bắn check-in theo lịch open-loop ở tốc độ cố định
+ * (mặc định 5.000 punch/giây) qua một pool worker mô phỏng thread Tomcat. Latency tính từ thời điểm
+ * punch đáng lẽ được gửi theo lịch (không bị coordinated omission khi hệ thống chậm lại).
+ * Chạy lần lượt hai chế độ: DIRECT (AttendanceService.checkIn, 1 transaction/punch) và GROUP_COMMIT
+ * (gom theo batch, trả về sau khi batch commit); xóa chấm công hôm nay giữa hai lần.
+ * Kết quả (throughput, p50/p99/max, số lỗi) ghi ra file JSON.
+ *
+ * Chạy (cần Postgres local theo spring.datasource, tenant DB được tạo nếu chưa có):
+ * ./mvnw -Pbenchmark test -Dtest=CheckInLoadBenchmark -Dsurefire.failIfNoSpecifiedTests=false \
+ * -Dcheckin.loadtest=true [-Dcheckin.rate=5000 -Dcheckin.seconds=4 -Dcheckin.workers=200
+ * -Dcheckin.modes=DIRECT,GROUP_COMMIT -Dcheckin.tenant=checkinbench -Dcheckin.report=target/check-in-load.json]
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@EnabledIfSystemProperty(named = "checkin.loadtest", matches = "true")
+class CheckInLoadBenchmark {
+
+    private static final long SEED = 20260901L;
+    private static final long FIRST_EMPLOYEE_ID = 2L;
+
+    @Autowired
+    private TenantProvisioningService tenantProvisioningService;
+
+    @Autowired
+    private IAttendanceService attendanceService;
+
+    @Autowired
+    private ICheckInGroupCommitService checkInGroupCommitService;
+
+    @Autowired
+    private IAttendanceAggregateService attendanceAggregateService;
+
+    @Autowired
+    @Qualifier("tenantJdbcTemplate")
+    private JdbcTemplate tenantJdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    enum Mode {
+        DIRECT, GROUP_COMMIT
+    }
+
+    /**
+     * Kết quả một chế độ: throughput thực tế và phân phối latency (ms)
+     */
+    record ModeResult(Mode mode, int punches, int succeeded, int failed, long elapsedMillis,
+            double throughputPerSecond, double p50Millis, double p99Millis, double maxMillis) {
+    }
+
+    record Report(String generatedAt, String javaVersion, int availableProcessors, String tenant,
+            int targetRate, int seconds, int workers, List<ModeResult> results) {
+    }
+
+    @AfterEach
+    void tearDown() {
+        TenantContext.clear();
+    }
+
+    @Test
+    void run() throws Exception {
+        String tenant = System.getProperty("checkin.tenant", "checkinbench");
+        int rate = Integer.getInteger("checkin.rate", 5_000);
+        int seconds = Integer.getInteger("checkin.seconds", 4);
+        int workers = Integer.getInteger("checkin.workers", 200);
+        List<Mode> modes = Arrays.stream(System.getProperty("checkin.modes", "DIRECT,GROUP_COMMIT").split(","))
+                .map(String::trim)
+                .map(Mode::valueOf)
+                .toList();
+        File reportFile = new File(System.getProperty("checkin.report", "target/check-in-load.json"));
+
+        // Mỗi nhân viên check-in đúng một lần: số nhân viên = tổng số punch
+        int punches = rate * seconds;
+
+        tenantProvisioningService.provisionTenant(tenant);
+        TenantContext.setCurrentTenant(tenant);
+        new TenantDataGenerator(tenantJdbcTemplate, objectMapper, attendanceAggregateService).generate(
+                new TenantDataGenerator.Spec(punches, 1, YearMonth.now().minusMonths(1), SEED, tenant));
+
+        List<ModeResult> results = new ArrayList<>();
+        for (Mode mode : modes) {
+            resetToday();
+            LongConsumer checkIn = mode == Mode.DIRECT
+                    ? employeeId -> attendanceService.checkIn(employeeId, new CheckInRequest())
+                    : employeeId -> checkInGroupCommitService.checkIn(employeeId, new CheckInRequest());
+            results.add(runMode(mode, tenant, rate, punches, workers, checkIn));
+
+            writeReport(reportFile, new Report(LocalDateTime.now().toString(), System.getProperty("java.version"),
+                    Runtime.getRuntime().availableProcessors(), tenant, rate, seconds, workers, results));
+        }
+    }
+
+    /**
+     * Bắn {@code punches} check-in theo lịch cố định {@code rate}/giây, mỗi punch cho một nhân viên khác nhau
+     */
+    private ModeResult runMode(Mode mode, String tenant, int rate, int punches, int workers,
+            LongConsumer checkIn) throws InterruptedException {
+        long[] latencies = new long[punches];
+        AtomicInteger failed = new AtomicInteger();
+        AtomicLong lastCompletion = new AtomicLong();
+        CountDownLatch done = new CountDownLatch(punches);
+        long periodNanos = TimeUnit.SECONDS.toNanos(1) / rate;
+
+        ExecutorService pool = Executors.newFixedThreadPool(workers);
+        try {
+            long start = System.nanoTime();
+            for (int i = 0; i < punches; i++) {
+                long scheduledAt = start + i * periodNanos;
+                long wait;
+                while ((wait = scheduledAt - System.nanoTime()) > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+
+                int index = i;
+                long employeeId = FIRST_EMPLOYEE_ID + i;
+                pool.execute(() -> {
+                    TenantContext.setCurrentTenant(tenant);
+                    try {
+                        checkIn.accept(employeeId);
+                    } catch (RuntimeException e) {
+                        failed.incrementAndGet();
+                    } finally {
+                        TenantContext.clear();
+                        long now = System.nanoTime();
+                        latencies[index] = now - scheduledAt;
+                        lastCompletion.accumulateAndGet(now, Math::max);
+                        done.countDown();
+                    }
+                });
+            }
+            done.await();
+
+            long elapsedNanos = lastCompletion.get() - start;
+            long[] sorted = latencies.clone();
+            Arrays.sort(sorted);
+            return new ModeResult(mode, punches, punches - failed.get(), failed.get(),
+                    Duration.ofNanos(elapsedNanos).toMillis(),
+                    punches * 1e9 / elapsedNanos,
+                    toMillis(percentile(sorted, 0.50)),
+                    toMillis(percentile(sorted, 0.99)),
+                    toMillis(sorted[sorted.length - 1]));
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Xóa chấm công hôm nay để chế độ tiếp theo check-in lại từ đầu
+     */
+    private void resetToday() {
+        tenantJdbcTemplate.update("DELETE FROM punch_events WHERE punched_at >= CURRENT_DATE");
+        tenantJdbcTemplate.update("DELETE FROM break_records WHERE work_date = CURRENT_DATE");
+        tenantJdbcTemplate.update("DELETE FROM attendance_records WHERE work_date = CURRENT_DATE");
+    }
+
+    private static long percentile(long[] sorted, double quantile) {
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+
+    private static double toMillis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    private void writeReport(File file, Report report) throws IOException {
+        File parent = file.getAbsoluteFile().getParentFile();
+        if (parent != null) {
+            parent.mkdirs();
+        }
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(file, report);
+    }
+}
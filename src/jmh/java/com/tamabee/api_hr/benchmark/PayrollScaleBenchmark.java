@@ -0,0 +1,194 @@
+package com.tamabee.api_hr.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tamabee.api_hr.datasource.TenantContext;
+import com.tamabee.api_hr.datasource.TenantProvisioningService;
+import com.tamabee.api_hr.dto.request.payroll.PayrollPeriodRequest;
+import com.tamabee.api_hr.dto.request.report.ReportQuery;
+import com.tamabee.api_hr.service.company.interfaces.IAttendanceAggregateService;
+import com.tamabee.api_hr.service.company.interfaces.IPayrollPeriodService;
+import com.tamabee.api_hr.service.company.interfaces.IPayrollService;
+import com.tamabee.api_hr.service.company.interfaces.IReportService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Benchmark end-to-end tính lương/báo cáo trên tenant Postgres local với dữ liệu tổng hợp.
+ *
+ * Với mỗi quy mô nhân viên: sinh lại dữ liệu tenant ({@link TenantDataGenerator}), sau đó đo thời gian
+ * previewPayroll, PayrollPeriodService.calculatePayroll, finalizePayroll và từng loại báo cáo cho tháng
+ * cuối cùng. Mỗi thao tác chạy 1 lần warmup + N lần đo; kết quả ghi ra file JSON.
+ *
+ * Chạy (cần Postgres local theo spring.datasource, tenant DB được tạo nếu chưa có):
+ * ./mvnw -Pbenchmark test -Dtest=PayrollScaleBenchmark -Dsurefire.failIfNoSpecifiedTests=false \
+ * -Dscale.benchmark=true [-Dscale.sizes=100,1000,10000 -Dscale.months=3 -Dscale.iterations=3
+ * -Dscale.tenant=scalebench -Dscale.report=target/scale-benchmark.json]
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@EnabledIfSystemProperty(named = "scale.benchmark", matches = "true")
+class PayrollScaleBenchmark {
+
+    private static final YearMonth LAST_MONTH = YearMonth.of(2025, 10);
+    private static final long SEED = 20251101L;
+
+    @Autowired
+    private TenantProvisioningService tenantProvisioningService;
+
+    @Autowired
+    private IPayrollService payrollService;
+
+    @Autowired
+    private IPayrollPeriodService payrollPeriodService;
+
+    @Autowired
+    private IReportService reportService;
+
+    @Autowired
+    private IAttendanceAggregateService attendanceAggregateService;
+
+    @Autowired
+    @Qualifier("tenantJdbcTemplate")
+    private JdbcTemplate tenantJdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * Thống kê thời gian một thao tác (ms)
+     */
+    record OperationResult(String name, List<Long> samplesMillis, long minMillis, long medianMillis,
+            long maxMillis) {
+
+        static OperationResult of(String name, List<Long> samples) {
+            long[] sorted = samples.stream().mapToLong(Long::longValue).sorted().toArray();
+            return new OperationResult(name, samples, sorted[0], sorted[sorted.length / 2],
+                    sorted[sorted.length - 1]);
+        }
+    }
+
+    record ScaleResult(int employees, long generationMillis, Map<String, Integer> rows,
+            List<OperationResult> operations) {
+    }
+
+    record Report(String generatedAt, String javaVersion, int availableProcessors, long maxHeapBytes,
+            String tenant, String period, int months, int iterations, List<ScaleResult> results) {
+    }
+
+    @AfterEach
+    void tearDown() {
+        TenantContext.clear();
+    }
+
+    @Test
+    void run() throws IOException {
+        String tenant = System.getProperty("scale.tenant", "scalebench");
+        int months = Integer.getInteger("scale.months", 3);
+        int iterations = Integer.getInteger("scale.iterations", 3);
+        int[] sizes = Arrays.stream(System.getProperty("scale.sizes", "100,1000,10000").split(","))
+                .map(String::trim)
+                .mapToInt(Integer::parseInt)
+                .toArray();
+        File reportFile = new File(System.getProperty("scale.report", "target/scale-benchmark.json"));
+
+        tenantProvisioningService.provisionTenant(tenant);
+        TenantContext.setCurrentTenant(tenant);
+
+        TenantDataGenerator generator = new TenantDataGenerator(
+                tenantJdbcTemplate, objectMapper, attendanceAggregateService);
+        List<ScaleResult> results = new ArrayList<>();
+
+        for (int employees : sizes) {
+            TenantDataGenerator.Result data = generator.generate(
+                    new TenantDataGenerator.Spec(employees, months, LAST_MONTH, SEED, tenant));
+            results.add(new ScaleResult(employees, data.millis(), data.rows(),
+                    measureOperations(data.adminUserId(), iterations)));
+
+            // Ghi sau mỗi quy mô để không mất kết quả nếu quy mô lớn bị lỗi/timeout
+            writeReport(reportFile, new Report(LocalDateTime.now().toString(), System.getProperty("java.version"),
+                    Runtime.getRuntime().availableProcessors(), Runtime.getRuntime().maxMemory(),
+                    tenant, LAST_MONTH.toString(), months, iterations, results));
+        }
+    }
+
+    private List<OperationResult> measureOperations(long adminUserId, int iterations) {
+        List<OperationResult> operations = new ArrayList<>();
+        int year = LAST_MONTH.getYear();
+        int month = LAST_MONTH.getMonthValue();
+
+        operations.add(measure("previewPayroll", iterations, null, () -> payrollService.previewPayroll(LAST_MONTH)));
+
+        Long periodId = payrollPeriodService.createPayrollPeriod(PayrollPeriodRequest.builder()
+                .year(year)
+                .month(month)
+                .periodStart(LAST_MONTH.atDay(1))
+                .periodEnd(LAST_MONTH.atEndOfMonth())
+                .build(), adminUserId).getId();
+        operations.add(measure("payrollPeriod.calculatePayroll", iterations, null,
+                () -> payrollPeriodService.calculatePayroll(periodId)));
+
+        // finalize không chạy lại được trên kỳ đã finalize: xóa bản ghi trước mỗi lần đo (không tính giờ)
+        operations.add(measure("finalizePayroll", iterations,
+                () -> tenantJdbcTemplate.update("DELETE FROM payroll_records WHERE year = ? AND month = ?", year, month),
+                () -> payrollService.finalizePayroll(LAST_MONTH, adminUserId)));
+
+        ReportQuery query = ReportQuery.builder()
+                .startDate(LAST_MONTH.atDay(1))
+                .endDate(LAST_MONTH.atEndOfMonth())
+                .build();
+        Map<String, Runnable> reports = new LinkedHashMap<>();
+        reports.put("report.ATTENDANCE_SUMMARY", () -> reportService.generateAttendanceSummary(query));
+        reports.put("report.OVERTIME", () -> reportService.generateOvertimeReport(query));
+        reports.put("report.BREAK_COMPLIANCE", () -> reportService.generateBreakComplianceReport(query));
+        reports.put("report.PAYROLL_SUMMARY", () -> reportService.generatePayrollSummary(query));
+        reports.put("report.COST_ANALYSIS", () -> reportService.generateCostAnalysis(query));
+        reports.put("report.SHIFT_UTILIZATION", () -> reportService.generateShiftUtilization(query));
+        reports.forEach((name, report) -> operations.add(measure(name, iterations, null, report)));
+
+        return operations;
+    }
+
+    /**
+     * Chạy 1 lần warmup rồi đo {@code iterations} lần
+     *
+     * @param reset chạy trước mỗi lần (kể cả warmup), không tính thời gian; có thể null
+     */
+    private OperationResult measure(String name, int iterations, Runnable reset, Runnable operation) {
+        List<Long> samples = new ArrayList<>(iterations);
+        for (int i = 0; i <= iterations; i++) {
+            if (reset != null) {
+                reset.run();
+            }
+            long start = System.nanoTime();
+            operation.run();
+            long millis = Duration.ofNanos(System.nanoTime() - start).toMillis();
+            if (i > 0) {
+                samples.add(millis);
+            }
+        }
+        return OperationResult.of(name, samples);
+    }
+
+    private void writeReport(File file, Report report) throws IOException {
+        File parent = file.getAbsoluteFile().getParentFile();
+        if (parent != null) {
+            parent.mkdirs();
+        }
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(file, report);
+    }
+}
@@ -0,0 +1,88 @@
+package com.tamabee.api_hr.benchmark;
+
+import com.tamabee.api_hr.dto.response.payroll.PayrollRecordResponse;
+import com.tamabee.api_hr.entity.company.CompanyEntity;
+import com.tamabee.api_hr.entity.user.UserEntity;
+import com.tamabee.api_hr.entity.user.UserProfileEntity;
+import com.tamabee.api_hr.enums.SalaryType;
+import com.tamabee.api_hr.service.core.PayslipPdfGenerator;
+import com.tamabee.api_hr.service.core.PdfResourceRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark throughput tạo payslip PDF.
+ * Font được load một lần trong setup nên kết quả phản ánh chi phí layout/ghi PDF.
+ *
+ * Chạy: ./mvnw -Pbenchmark test-compile exec:exec -Djmh.args="PayslipPdfBenchmark -prof gc"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PayslipPdfBenchmark {
+
+    @Param({ "ja", "vi" })
+    public String locale;
+
+    private PayslipPdfGenerator generator;
+    private PayrollRecordResponse record;
+    private UserEntity employee;
+    private CompanyEntity company;
+
+    @Setup
+    public void setup() {
+        generator = new PayslipPdfGenerator(new PdfResourceRegistry());
+
+        company = new CompanyEntity();
+        company.setName("Tamabee株式会社");
+        company.setLocale("ja".equals(locale) ? "Asia/Tokyo" : "Asia/Ho_Chi_Minh");
+
+        UserProfileEntity profile = new UserProfileEntity();
+        profile.setName("山田 太郎");
+        employee = new UserEntity();
+        employee.setEmployeeCode("25000001");
+        employee.setProfile(profile);
+
+        record = PayrollRecordResponse.builder()
+                .employeeCode("25000001")
+                .employeeName("山田 太郎")
+                .year(2025)
+                .month(11)
+                .salaryType(SalaryType.MONTHLY)
+                .baseSalary(new BigDecimal("300000"))
+                .workingDays(21)
+                .regularOvertimeHours(12)
+                .nightOvertimeHours(2)
+                .holidayOvertimeHours(0)
+                .totalOvertimePay(new BigDecimal("28500"))
+                .allowanceDetails(List.of(
+                        PayrollRecordResponse.AllowanceItemResponse.builder()
+                                .code("TRANSPORT").name("通勤手当").amount(new BigDecimal("15000")).build(),
+                        PayrollRecordResponse.AllowanceItemResponse.builder()
+                                .code("HOUSING").name("住宅手当").amount(new BigDecimal("20000")).build()))
+                .totalAllowances(new BigDecimal("35000"))
+                .deductionDetails(List.of(
+                        PayrollRecordResponse.DeductionItemResponse.builder()
+                                .code("HEALTH").name("健康保険").amount(new BigDecimal("15000")).build(),
+                        PayrollRecordResponse.DeductionItemResponse.builder()
+                                .code("PENSION").name("厚生年金").amount(new BigDecimal("27450")).build()))
+                .totalDeductions(new BigDecimal("42450"))
+                .grossSalary(new BigDecimal("363500"))
+                .netSalary(new BigDecimal("321050"))
+                .build();
+
+        // Load font trước khi đo
+        generator.generate(record, employee, company);
+    }
+
+    @Benchmark
+    public byte[] generatePayslip() {
+        return generator.generate(record, employee, company);
+    }
+}
@@ -0,0 +1,487 @@
+package com.tamabee.api_hr.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tamabee.api_hr.dto.config.AttendanceConfig;
+import com.tamabee.api_hr.dto.config.WorkScheduleData;
+import com.tamabee.api_hr.enums.AllowanceType;
+import com.tamabee.api_hr.enums.AttendanceStatus;
+import com.tamabee.api_hr.enums.BreakType;
+import com.tamabee.api_hr.enums.DeductionType;
+import com.tamabee.api_hr.enums.HolidayType;
+import com.tamabee.api_hr.enums.LeaveStatus;
+import com.tamabee.api_hr.enums.LeaveType;
+import com.tamabee.api_hr.enums.SalaryType;
+import com.tamabee.api_hr.enums.ScheduleType;
+import com.tamabee.api_hr.enums.ShiftAssignmentStatus;
+import com.tamabee.api_hr.enums.UserRole;
+import com.tamabee.api_hr.enums.WorkMode;
+import com.tamabee.api_hr.service.company.interfaces.IAttendanceAggregateService;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Sinh dữ liệu tenant tổng hợp cho benchmark quy mô lớn.
+ *
+ * Xóa sạch dữ liệu nghiệp vụ của tenant hiện tại (TenantContext phải được set trước),
+ * sau đó insert bằng JDBC batch: nhân viên, lương, phụ cấp/khấu trừ, lịch làm việc, ca,
+ * ngày lễ, nghỉ phép, chấm công kèm giải lao/tăng ca cho M tháng kết thúc ở {@code lastMonth}.
+ * Partition tháng của attendance_records/break_records được tạo trước khi insert (không dồn vào
+ * partition default) và attendance_monthly_aggregates được dựng lại cho từng tháng sau khi insert.
+ * ID được gán tường minh (sau TRUNCATE ... RESTART IDENTITY) để liên kết break → attendance
+ * không cần đọc lại; sequence được đồng bộ ở cuối.
+ */
+public class TenantDataGenerator {
+
+    private static final int BATCH_SIZE = 1_000;
+
+    // Bảng bị xóa trước khi sinh dữ liệu (giữ nguyên bảng hệ thống như audit_logs)
+    private static final String[] TABLES = {
+            "break_records", "attendance_records", "shift_assignments", "shift_templates",
+            "work_schedule_assignments", "work_schedules", "leave_requests", "leave_balances", "holidays",
+            "employee_allowances", "employee_deductions", "employee_salaries", "payroll_items",
+            "payroll_periods", "payroll_records", "attendance_monthly_aggregates", "company_settings",
+            "user_profiles", "users"
+    };
+
+    private static final String PASSWORD_HASH = "$2a$10$7EqJtq98hPqEX7fNZaFWoOhi5BWX4Z8A0Q0p6gM1Y8I6h8k3oQ9xW";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final IAttendanceAggregateService attendanceAggregateService;
+
+    public TenantDataGenerator(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper,
+            IAttendanceAggregateService attendanceAggregateService) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.attendanceAggregateService = attendanceAggregateService;
+    }
+
+    /**
+     * Tham số sinh dữ liệu
+     *
+     * @param employees    số nhân viên (không tính admin)
+     * @param months       số tháng chấm công
+     * @param lastMonth    tháng cuối cùng có dữ liệu
+     * @param seed         seed cho Random (cùng seed → cùng dữ liệu)
+     * @param tenantDomain domain tenant (dùng cho email/tenant_domain của user)
+     */
+    public record Spec(int employees, int months, YearMonth lastMonth, long seed, String tenantDomain) {
+    }
+
+    /**
+     * Kết quả sinh dữ liệu
+     *
+     * @param adminUserId ID admin công ty (dùng làm finalizedBy/createdBy)
+     * @param rows        số dòng đã insert theo bảng
+     */
+    public record Result(long adminUserId, Map<String, Integer> rows, long millis) {
+    }
+
+    public Result generate(Spec spec) {
+        long start = System.nanoTime();
+        Random random = new Random(spec.seed());
+        Map<String, Integer> rows = new LinkedHashMap<>();
+
+        jdbcTemplate.execute("TRUNCATE TABLE " + String.join(", ", TABLES) + " RESTART IDENTITY");
+
+        YearMonth firstMonth = spec.lastMonth().minusMonths(spec.months() - 1L);
+        LocalDate from = firstMonth.atDay(1);
+        LocalDate to = spec.lastMonth().atEndOfMonth();
+
+        rows.put("company_settings", insertCompanySettings());
+        rows.put("users", insertUsers(spec, random));
+        rows.put("user_profiles", insertProfiles(spec));
+        rows.put("employee_salaries", insertSalaries(spec, random, from));
+        rows.put("employee_allowances", insertAllowances(spec, random, from));
+        rows.put("employee_deductions", insertDeductions(spec, from));
+        rows.put("work_schedules", insertWorkSchedules());
+        rows.put("work_schedule_assignments", insertScheduleAssignments(spec, from));
+        rows.put("shift_templates", insertShiftTemplates());
+
+        Set<LocalDate> holidays = holidays(from, to);
+        rows.put("holidays", insertHolidays(holidays));
+
+        Map<Long, Set<LocalDate>> leaveDays = new LinkedHashMap<>();
+        rows.put("leave_requests", insertLeaveRequests(spec, random, firstMonth, holidays, leaveDays));
+
+        createAttendancePartitions(firstMonth, spec.months());
+        int[] attendanceRows = insertAttendance(spec, random, from, to, holidays, leaveDays);
+        rows.put("attendance_records", attendanceRows[0]);
+        rows.put("break_records", attendanceRows[1]);
+        rows.put("shift_assignments", attendanceRows[2]);
+        rows.put("attendance_monthly_aggregates", rebuildAggregates(firstMonth, spec.lastMonth()));
+
+        syncSequences();
+        jdbcTemplate.execute("ANALYZE");
+
+        return new Result(1L, rows, Duration.ofNanos(System.nanoTime() - start).toMillis());
+    }
+
+    // === Company / users ===
+
+    private int insertCompanySettings() {
+        AttendanceConfig attendanceConfig = AttendanceConfig.builder().build();
+        return jdbcTemplate.update(
+                "INSERT INTO company_settings (attendance_config, payroll_config, overtime_config, allowance_config, "
+                        + "deduction_config, break_config, work_mode, default_work_start_time, default_work_end_time, "
+                        + "default_break_minutes) VALUES (?::jsonb, ?::jsonb, ?::jsonb, ?::jsonb, ?::jsonb, ?::jsonb, "
+                        + "?, ?, ?, ?)",
+                toJson(attendanceConfig),
+                toJson(CalculatorBenchmarkData.payrollConfig()),
+                toJson(CalculatorBenchmarkData.overtimeConfig()),
+                toJson(CalculatorBenchmarkData.allowanceConfig()),
+                toJson(CalculatorBenchmarkData.deductionConfig()),
+                toJson(CalculatorBenchmarkData.breakConfig()),
+                WorkMode.FLEXIBLE_SHIFT.name(),
+                Time.valueOf(LocalTime.of(9, 0)),
+                Time.valueOf(LocalTime.of(18, 0)),
+                60);
+    }
+
+    private int insertUsers(Spec spec, Random random) {
+        List<Object[]> batch = new ArrayList<>();
+        batch.add(new Object[] { 1L, "00000001", "admin@" + spec.tenantDomain() + ".local", PASSWORD_HASH,
+                UserRole.ADMIN_COMPANY.name(), spec.tenantDomain() });
+        for (long id = 2; id <= spec.employees() + 1L; id++) {
+            UserRole role = random.nextInt(100) < 5 ? UserRole.MANAGER_COMPANY : UserRole.EMPLOYEE_COMPANY;
+            batch.add(new Object[] { id, String.format("%08d", id), "emp" + id + "@" + spec.tenantDomain() + ".local",
+                    PASSWORD_HASH, role.name(), spec.tenantDomain() });
+        }
+        return batchInsert(
+                "INSERT INTO users (id, employee_code, email, password, role, status, locale, language, tenant_domain, "
+                        + "profile_completeness) VALUES (?, ?, ?, ?, ?, 'ACTIVE', 'Asia/Tokyo', 'ja', ?, 80)",
+                batch);
+    }
+
+    private int insertProfiles(Spec spec) {
+        List<Object[]> batch = new ArrayList<>();
+        for (long id = 1; id <= spec.employees() + 1L; id++) {
+            batch.add(new Object[] { id, "社員 " + id, "090" + String.format("%08d", id) });
+        }
+        return batchInsert("INSERT INTO user_profiles (user_id, name, phone) VALUES (?, ?, ?)", batch);
+    }
+
+    // === Salary / allowance / deduction ===
+
+    private int insertSalaries(Spec spec, Random random, LocalDate from) {
+        List<Object[]> batch = new ArrayList<>();
+        Date effectiveFrom = Date.valueOf(from.minusYears(1));
+        for (long id = 1; id <= spec.employees() + 1L; id++) {
+            int roll = random.nextInt(100);
+            SalaryType type = roll < 70 ? SalaryType.MONTHLY
+                    : roll < 85 ? SalaryType.HOURLY
+                            : roll < 95 ? SalaryType.DAILY : SalaryType.SHIFT_BASED;
+            batch.add(new Object[] { id, type.name(),
+                    BigDecimal.valueOf(220_000 + random.nextInt(200) * 1_000L),
+                    BigDecimal.valueOf(10_000 + random.nextInt(100) * 100L),
+                    BigDecimal.valueOf(1_100 + random.nextInt(900)),
+                    BigDecimal.valueOf(9_000 + random.nextInt(60) * 100L),
+                    effectiveFrom });
+        }
+        return batchInsert("INSERT INTO employee_salaries (employee_id, salary_type, monthly_salary, daily_rate, "
+                + "hourly_rate, shift_rate, effective_from) VALUES (?, ?, ?, ?, ?, ?, ?)", batch);
+    }
+
+    private int insertAllowances(Spec spec, Random random, LocalDate from) {
+        List<Object[]> batch = new ArrayList<>();
+        Date effectiveFrom = Date.valueOf(from.minusYears(1));
+        for (long id = 2; id <= spec.employees() + 1L; id++) {
+            batch.add(new Object[] { id, "TRANSPORT", "通勤手当", AllowanceType.FIXED.name(),
+                    BigDecimal.valueOf(5_000 + random.nextInt(20) * 500L), false, effectiveFrom });
+            if (random.nextBoolean()) {
+                batch.add(new Object[] { id, "HOUSING", "住宅手当", AllowanceType.FIXED.name(),
+                        new BigDecimal("20000"), true, effectiveFrom });
+            }
+        }
+        return batchInsert("INSERT INTO employee_allowances (employee_id, allowance_code, allowance_name, "
+                + "allowance_type, amount, taxable, effective_from) VALUES (?, ?, ?, ?, ?, ?, ?)", batch);
+    }
+
+    private int insertDeductions(Spec spec, LocalDate from) {
+        List<Object[]> batch = new ArrayList<>();
+        Date effectiveFrom = Date.valueOf(from.minusYears(1));
+        for (long id = 2; id <= spec.employees() + 1L; id++) {
+            batch.add(new Object[] { id, "RESIDENT_TAX", "住民税", DeductionType.FIXED.name(),
+                    new BigDecimal("12000"), null, effectiveFrom });
+        }
+        return batchInsert("INSERT INTO employee_deductions (employee_id, deduction_code, deduction_name, "
+                + "deduction_type, amount, percentage, effective_from) VALUES (?, ?, ?, ?, ?, ?, ?)", batch);
+    }
+
+    // === Schedule / shift ===
+
+    private int insertWorkSchedules() {
+        WorkScheduleData fixed = CalculatorBenchmarkData.schedule();
+        WorkScheduleData flexible = WorkScheduleData.builder()
+                .defaultStartTime(LocalTime.of(10, 0))
+                .defaultEndTime(LocalTime.of(19, 0))
+                .defaultBreakMinutes(60)
+                .build();
+        int count = jdbcTemplate.update("INSERT INTO work_schedules (id, name, type, is_default, schedule_data) "
+                + "VALUES (1, '標準勤務', ?, TRUE, ?::jsonb)", ScheduleType.FIXED.name(), toJson(fixed));
+        count += jdbcTemplate.update("INSERT INTO work_schedules (id, name, type, is_default, schedule_data) "
+                + "VALUES (2, 'フレックス', ?, FALSE, ?::jsonb)", ScheduleType.FLEXIBLE.name(), toJson(flexible));
+        return count;
+    }
+
+    private int insertScheduleAssignments(Spec spec, LocalDate from) {
+        List<Object[]> batch = new ArrayList<>();
+        Date effectiveFrom = Date.valueOf(from.minusYears(1));
+        for (long id = 2; id <= spec.employees() + 1L; id++) {
+            batch.add(new Object[] { id, id % 5 == 0 ? 2L : 1L, effectiveFrom });
+        }
+        return batchInsert("INSERT INTO work_schedule_assignments (employee_id, schedule_id, effective_from) "
+                + "VALUES (?, ?, ?)", batch);
+    }
+
+    private int insertShiftTemplates() {
+        int count = 0;
+        count += jdbcTemplate.update("INSERT INTO shift_templates (id, name, start_time, end_time, break_minutes, "
+                + "multiplier) VALUES (1, '早番', '07:00', '16:00', 60, 1.00)");
+        count += jdbcTemplate.update("INSERT INTO shift_templates (id, name, start_time, end_time, break_minutes, "
+                + "multiplier) VALUES (2, '遅番', '13:00', '22:00', 60, 1.00)");
+        count += jdbcTemplate.update("INSERT INTO shift_templates (id, name, start_time, end_time, break_minutes, "
+                + "multiplier) VALUES (3, '夜勤', '22:00', '06:00', 60, 1.25)");
+        return count;
+    }
+
+    // === Holiday / leave ===
+
+    /**
+     * Ngày lễ: ngày 3 và ngày 23 hàng tháng nếu rơi vào ngày thường
+     */
+    private Set<LocalDate> holidays(LocalDate from, LocalDate to) {
+        Set<LocalDate> result = new HashSet<>();
+        for (YearMonth month = YearMonth.from(from); !month.isAfter(YearMonth.from(to)); month = month.plusMonths(1)) {
+            for (int day : new int[] { 3, 23 }) {
+                LocalDate date = month.atDay(day);
+                if (!isWeekend(date)) {
+                    result.add(date);
+                }
+            }
+        }
+        return result;
+    }
+
+    private int insertHolidays(Set<LocalDate> holidays) {
+        List<Object[]> batch = new ArrayList<>();
+        for (LocalDate date : holidays) {
+            batch.add(new Object[] { Date.valueOf(date), "祝日 " + date, HolidayType.NATIONAL.name() });
+        }
+        return batchInsert("INSERT INTO holidays (date, name, type) VALUES (?, ?, ?)", batch);
+    }
+
+    /**
+     * Khoảng 30% nhân viên nghỉ 1-2 ngày mỗi tháng (đã duyệt)
+     */
+    private int insertLeaveRequests(Spec spec, Random random, YearMonth firstMonth, Set<LocalDate> holidays,
+            Map<Long, Set<LocalDate>> leaveDays) {
+        List<Object[]> batch = new ArrayList<>();
+        for (long id = 2; id <= spec.employees() + 1L; id++) {
+            for (int m = 0; m < spec.months(); m++) {
+                if (random.nextInt(100) >= 30) {
+                    continue;
+                }
+                YearMonth month = firstMonth.plusMonths(m);
+                LocalDate start = month.atDay(1 + random.nextInt(month.lengthOfMonth() - 1));
+                int days = 1 + random.nextInt(2);
+                LocalDate end = start.plusDays(days - 1L);
+                if (end.getMonth() != start.getMonth()) {
+                    end = start;
+                }
+                for (LocalDate d = start; !d.isAfter(end); d = d.plusDays(1)) {
+                    if (!isWeekend(d) && !holidays.contains(d)) {
+                        leaveDays.computeIfAbsent(id, k -> new HashSet<>()).add(d);
+                    }
+                }
+                LeaveType type = random.nextInt(100) < 70 ? LeaveType.ANNUAL : LeaveType.SICK;
+                batch.add(new Object[] { id, type.name(), Date.valueOf(start), Date.valueOf(end),
+                        (int) Duration.between(start.atStartOfDay(), end.plusDays(1).atStartOfDay()).toDays(),
+                        LeaveStatus.APPROVED.name(), 1L });
+            }
+        }
+        return batchInsert("INSERT INTO leave_requests (employee_id, leave_type, start_date, end_date, total_days, "
+                + "status, approved_by) VALUES (?, ?, ?, ?, ?, ?, ?)", batch);
+    }
+
+    // === Attendance ===
+
+    /**
+     * Chấm công ngày thường (vắng 3%, ca đêm ~10% với nhân viên làm ca), 1-2 lần giải lao mỗi ngày.
+     * Nhân viên có id chia hết cho 7 làm theo ca và có shift_assignments.
+     *
+     * @return [attendance_records, break_records, shift_assignments]
+     */
+    private int[] insertAttendance(Spec spec, Random random, LocalDate from, LocalDate to, Set<LocalDate> holidays,
+            Map<Long, Set<LocalDate>> leaveDays) {
+        List<Object[]> attendance = new ArrayList<>(BATCH_SIZE);
+        List<Object[]> breaks = new ArrayList<>(BATCH_SIZE * 2);
+        List<Object[]> shifts = new ArrayList<>(BATCH_SIZE);
+        int[] counts = new int[3];
+        long attendanceId = 0;
+
+        for (long employeeId = 2; employeeId <= spec.employees() + 1L; employeeId++) {
+            boolean shiftWorker = employeeId % 7 == 0;
+            Set<LocalDate> leave = leaveDays.getOrDefault(employeeId, Set.of());
+
+            for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+                boolean offDay = isWeekend(date) || holidays.contains(date);
+                // Ngày nghỉ: 5% đi làm (tăng ca ngày lễ/cuối tuần); ngày thường: vắng 3%
+                if (offDay ? random.nextInt(100) >= 5 : random.nextInt(100) < 3 || leave.contains(date)) {
+                    continue;
+                }
+
+                boolean overnight = shiftWorker && random.nextInt(100) < 30;
+                LocalDateTime checkIn;
+                LocalDateTime checkOut;
+                if (overnight) {
+                    checkIn = date.atTime(21, 45).plusMinutes(random.nextInt(30));
+                    checkOut = date.plusDays(1).atTime(5, 45).plusMinutes(random.nextInt(60));
+                } else {
+                    checkIn = date.atTime(8, 30).plusMinutes(random.nextInt(61));
+                    checkOut = date.atTime(17, 30).plusMinutes(random.nextInt(241));
+                }
+
+                attendanceId++;
+                int breakMinutes = 0;
+                LocalDateTime breakStart = checkIn.plusHours(3).plusMinutes(random.nextInt(60));
+                int breakCount = 1 + random.nextInt(2);
+                for (int b = 1; b <= breakCount; b++) {
+                    int minutes = b == 1 ? 45 + random.nextInt(31) : 10 + random.nextInt(11);
+                    LocalDateTime breakEnd = breakStart.plusMinutes(minutes);
+                    breaks.add(new Object[] { attendanceId, employeeId, Date.valueOf(date), b,
+                            Timestamp.valueOf(breakStart), Timestamp.valueOf(breakEnd), minutes, minutes });
+                    breakMinutes += minutes;
+                    breakStart = breakEnd.plusHours(2);
+                }
+
+                int gross = (int) Duration.between(checkIn, checkOut).toMinutes();
+                int working = Math.max(0, gross - breakMinutes);
+                int overtime = Math.max(0, working - 8 * 60);
+                int late = overnight ? 0 : Math.max(0, (int) Duration.between(date.atTime(9, 0), checkIn).toMinutes());
+                int earlyLeave = !overnight && random.nextInt(100) < 5 ? 10 + random.nextInt(50) : 0;
+                AttendanceStatus status = late > 0 ? AttendanceStatus.LATE : AttendanceStatus.PRESENT;
+
+                attendance.add(new Object[] { attendanceId, employeeId, Date.valueOf(date),
+                        Timestamp.valueOf(checkIn), Timestamp.valueOf(checkOut),
+                        Timestamp.valueOf(checkIn), Timestamp.valueOf(checkOut),
+                        working, overtime, late, earlyLeave, breakMinutes, breakMinutes,
+                        BreakType.UNPAID.name(), true, status.name() });
+
+                if (shiftWorker) {
+                    long template = overnight ? 3L : 1L + random.nextInt(2);
+                    shifts.add(new Object[] { employeeId, template, Date.valueOf(date),
+                            ShiftAssignmentStatus.COMPLETED.name() });
+                }
+
+                if (attendance.size() >= BATCH_SIZE) {
+                    counts[0] += flushAttendance(attendance);
+                    counts[1] += flushBreaks(breaks);
+                    counts[2] += flushShifts(shifts);
+                }
+            }
+        }
+
+        counts[0] += flushAttendance(attendance);
+        counts[1] += flushBreaks(breaks);
+        counts[2] += flushShifts(shifts);
+        return counts;
+    }
+
+    /**
+     * Tạo partition tháng cho khoảng dữ liệu (hàm của migration V2, bỏ qua partition đã có)
+     */
+    private void createAttendancePartitions(YearMonth firstMonth, int months) {
+        jdbcTemplate.queryForObject("SELECT create_attendance_partitions(?, ?)", Integer.class,
+                Date.valueOf(firstMonth.atDay(1)), months);
+    }
+
+    /**
+     * Dựng lại tổng hợp chấm công từng tháng (cùng câu SQL với job rebuild hằng đêm)
+     *
+     * @return tổng số dòng tổng hợp
+     */
+    private int rebuildAggregates(YearMonth firstMonth, YearMonth lastMonth) {
+        int count = 0;
+        for (YearMonth month = firstMonth; !month.isAfter(lastMonth); month = month.plusMonths(1)) {
+            count += attendanceAggregateService.rebuild(month);
+        }
+        return count;
+    }
+
+    private int flushAttendance(List<Object[]> batch) {
+        int count = batchInsert("INSERT INTO attendance_records (id, employee_id, work_date, original_check_in, "
+                + "original_check_out, rounded_check_in, rounded_check_out, working_minutes, overtime_minutes, "
+                + "late_minutes, early_leave_minutes, total_break_minutes, effective_break_minutes, break_type, "
+                + "break_compliant, status) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", batch);
+        batch.clear();
+        return count;
+    }
+
+    private int flushBreaks(List<Object[]> batch) {
+        int count = batchInsert("INSERT INTO break_records (attendance_record_id, employee_id, work_date, "
+                + "break_number, break_start, break_end, actual_break_minutes, effective_break_minutes) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?, ?)", batch);
+        batch.clear();
+        return count;
+    }
+
+    private int flushShifts(List<Object[]> batch) {
+        int count = batchInsert("INSERT INTO shift_assignments (employee_id, shift_template_id, work_date, status) "
+                + "VALUES (?, ?, ?, ?)", batch);
+        batch.clear();
+        return count;
+    }
+
+    // === Helpers ===
+
+    private int batchInsert(String sql, List<Object[]> rows) {
+        int count = 0;
+        for (int i = 0; i < rows.size(); i += BATCH_SIZE) {
+            List<Object[]> chunk = rows.subList(i, Math.min(i + BATCH_SIZE, rows.size()));
+            jdbcTemplate.batchUpdate(sql, chunk);
+            count += chunk.size();
+        }
+        return count;
+    }
+
+    /**
+     * Đồng bộ sequence BIGSERIAL sau khi insert ID tường minh
+     */
+    private void syncSequences() {
+        for (String table : new String[] { "users", "attendance_records", "work_schedules", "shift_templates" }) {
+            jdbcTemplate.execute("SELECT setval(pg_get_serial_sequence('" + table + "', 'id'), "
+                    + "COALESCE((SELECT MAX(id) FROM " + table + "), 0) + 1, false)");
+        }
+    }
+
+    private static boolean isWeekend(LocalDate date) {
+        return date.getDayOfWeek() == DayOfWeek.SATURDAY || date.getDayOfWeek() == DayOfWeek.SUNDAY;
+    }
+
+    private String toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Không serialize được cấu hình benchmark", e);
+        }
+    }
+}
@@ -103,6 +103,15 @@ public class DataSourceConfig {
         return routingDataSource;
     }
 
+    /**
+     * JdbcTemplate cho tenant database (qua TenantRoutingDataSource).
+     * Dùng cho các thao tác batch/bulk; tham gia cùng transaction JPA đang chạy.
+     */
+    @Bean(name = "tenantJdbcTemplate")
+    public JdbcTemplate tenantJdbcTemplate(DataSource dataSource) {
+        return new JdbcTemplate(dataSource);
+    }
+
     /**
      * TransactionTemplate cho master database.
      * Dùng để quản lý transaction thủ công trong register flow.
@@ -0,0 +1,36 @@
+package com.tamabee.api_hr.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Cấu hình các thread pool dùng cho xử lý song song (CPU-bound).
+ * Số worker được giới hạn để không chiếm hết CPU của các request khác.
+ */
+@Configuration
+public class ExecutorConfig {
+
+    @Value("${payslip.render.workers:0}")
+    private int payslipWorkers;
+
+    /**
+     * Thread pool render payslip PDF.
+     * Mặc định số worker = số CPU; khi queue đầy thì thread gọi tự render (CallerRuns).
+     */
+    @Bean(name = "payslipExecutor")
+    public ThreadPoolTaskExecutor payslipExecutor() {
+        int workers = payslipWorkers > 0 ? payslipWorkers : Runtime.getRuntime().availableProcessors();
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(workers);
+        executor.setMaxPoolSize(workers);
+        executor.setQueueCapacity(workers * 4);
+        executor.setThreadNamePrefix("payslip-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.initialize();
+        return executor;
+    }
+}
@@ -10,6 +10,7 @@ import com.tamabee.api_hr.dto.response.wallet.WalletTransactionResponse;
 import com.tamabee.api_hr.enums.RoleConstants;
 import com.tamabee.api_hr.enums.TransactionType;
 import com.tamabee.api_hr.dto.common.BaseResponse;
+import com.tamabee.api_hr.dto.common.CursorPage;
 import com.tamabee.api_hr.service.admin.interfaces.IWalletService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -115,6 +116,37 @@ public class AdminWalletController {
         return ResponseEntity.ok(BaseResponse.success(transactions));
     }
 
+    /**
+     * Lấy lịch sử giao dịch của company theo con trỏ (keyset), mới nhất trước
+     * GET /api/admin/wallets/{companyId}/transactions/scroll
+     * ADMIN_TAMABEE, MANAGER_TAMABEE, EMPLOYEE_TAMABEE có quyền đọc
+     *
+     * @param cursor       nextCursor của trang trước (bỏ trống cho trang đầu)
+     * @param includeTotal có đếm tổng số giao dịch hay không (mặc định không)
+     */
+    @GetMapping("/{companyId}/transactions/scroll")
+    @PreAuthorize(RoleConstants.HAS_ALL_TAMABEE_ACCESS)
+    public ResponseEntity<BaseResponse<CursorPage<WalletTransactionResponse>>> scrollTransactionsByCompanyId(
+            @PathVariable Long companyId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size,
+            @RequestParam(defaultValue = "false") boolean includeTotal,
+            @RequestParam(required = false) TransactionType transactionType,
+            @RequestParam(required = false) LocalDateTime fromDate,
+            @RequestParam(required = false) LocalDateTime toDate) {
+
+        TransactionFilterRequest filter = new TransactionFilterRequest();
+        filter.setTransactionType(transactionType);
+        filter.setFromDate(fromDate);
+        filter.setToDate(toDate);
+
+        Long walletId = walletService.getByCompanyId(companyId).getId();
+        CursorPage<WalletTransactionResponse> transactions = walletService.scrollTransactionsByWalletId(walletId,
+                filter, cursor, size, includeTotal);
+
+        return ResponseEntity.ok(BaseResponse.success(transactions));
+    }
+
     /**
      * Lấy thống kê tổng hợp wallet
      * GET /api/admin/wallets/statistics
@@ -2,28 +2,49 @@ package com.tamabee.api_hr.controller.company;
 
 import com.tamabee.api_hr.dto.request.attendance.AdjustAttendanceRequest;
 import com.tamabee.api_hr.dto.request.attendance.AttendanceQueryRequest;
+import com.tamabee.api_hr.dto.request.attendance.AttendanceRecalculationRequest;
+import com.tamabee.api_hr.dto.request.attendance.BatchPunchRequest;
+import com.tamabee.api_hr.dto.request.attendance.ResolveAnomalyRequest;
 import com.tamabee.api_hr.dto.response.attendance.AdjustmentRequestResponse;
+import com.tamabee.api_hr.dto.response.attendance.AttendanceAnomalyResponse;
+import com.tamabee.api_hr.dto.response.attendance.AttendanceAnomalyScanResult;
+import com.tamabee.api_hr.dto.response.attendance.AttendanceRecalculationJobResponse;
 import com.tamabee.api_hr.dto.response.attendance.AttendanceRecordResponse;
+import com.tamabee.api_hr.dto.response.attendance.PresenceBoardResponse;
+import com.tamabee.api_hr.dto.response.attendance.PunchIngestionResult;
 import com.tamabee.api_hr.entity.user.UserEntity;
+import com.tamabee.api_hr.enums.AnomalyStatus;
 import com.tamabee.api_hr.enums.AttendanceStatus;
+import com.tamabee.api_hr.enums.ErrorCode;
 import com.tamabee.api_hr.enums.RoleConstants;
+import com.tamabee.api_hr.exception.BadRequestException;
 import com.tamabee.api_hr.exception.NotFoundException;
 import com.tamabee.api_hr.dto.common.BaseResponse;
+import com.tamabee.api_hr.dto.common.CursorPage;
 import com.tamabee.api_hr.repository.user.UserRepository;
 import com.tamabee.api_hr.service.company.interfaces.IAttendanceAdjustmentService;
+import com.tamabee.api_hr.service.company.interfaces.IAttendanceAggregateService;
+import com.tamabee.api_hr.service.company.interfaces.IAttendanceAnomalyService;
+import com.tamabee.api_hr.service.company.interfaces.IAttendanceRecalculationService;
 import com.tamabee.api_hr.service.company.interfaces.IAttendanceService;
+import com.tamabee.api_hr.service.company.interfaces.IPresenceService;
+import com.tamabee.api_hr.service.company.interfaces.IPunchIngestionService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.time.LocalDate;
+import java.time.YearMonth;
 import java.util.List;
 
 /**
@@ -36,8 +57,15 @@ import java.util.List;
 @PreAuthorize(RoleConstants.HAS_COMPANY_ACCESS)
 public class CompanyAttendanceController {
 
+    private static final int MAX_REBUILD_MONTHS = 36;
+
     private final IAttendanceService attendanceService;
     private final IAttendanceAdjustmentService adjustmentService;
+    private final IPunchIngestionService punchIngestionService;
+    private final IAttendanceAggregateService attendanceAggregateService;
+    private final IPresenceService presenceService;
+    private final IAttendanceRecalculationService attendanceRecalculationService;
+    private final IAttendanceAnomalyService attendanceAnomalyService;
     private final UserRepository userRepository;
 
     /**
@@ -64,6 +92,53 @@ public class CompanyAttendanceController {
         return ResponseEntity.ok(BaseResponse.success(records, "Lấy danh sách chấm công thành công"));
     }
 
+    /**
+     * Lấy danh sách chấm công theo con trỏ (keyset), sắp xếp work_date giảm dần
+     * GET /api/company/attendance/scroll
+     *
+     * @param cursor       nextCursor của trang trước (bỏ trống cho trang đầu)
+     * @param includeTotal có đếm tổng số bản ghi hay không (mặc định không)
+     */
+    @GetMapping("/scroll")
+    public ResponseEntity<BaseResponse<CursorPage<AttendanceRecordResponse>>> scrollAttendanceRecords(
+            @RequestParam(required = false) LocalDate startDate,
+            @RequestParam(required = false) LocalDate endDate,
+            @RequestParam(required = false) AttendanceStatus status,
+            @RequestParam(required = false) Long employeeId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+        AttendanceQueryRequest request = AttendanceQueryRequest.builder()
+                .startDate(startDate)
+                .endDate(endDate)
+                .status(status)
+                .employeeId(employeeId)
+                .build();
+
+        CursorPage<AttendanceRecordResponse> records = attendanceService.scrollAttendanceRecords(request, cursor,
+                size, includeTotal);
+        return ResponseEntity.ok(BaseResponse.success(records, "Lấy danh sách chấm công thành công"));
+    }
+
+    /**
+     * Bảng hiện diện hôm nay: số nhân viên đang làm, đang giải lao, đã về, đi muộn
+     * GET /api/company/attendance/presence
+     */
+    @GetMapping("/presence")
+    public ResponseEntity<BaseResponse<PresenceBoardResponse>> getPresenceBoard() {
+        PresenceBoardResponse board = presenceService.getBoard();
+        return ResponseEntity.ok(BaseResponse.success(board, "Lấy bảng hiện diện thành công"));
+    }
+
+    /**
+     * Luồng SSE của bảng hiện diện: "snapshot" khi kết nối/nạp lại, "presence" cho mỗi thay đổi
+     * GET /api/company/attendance/presence/stream
+     */
+    @GetMapping(value = "/presence/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamPresence() {
+        return presenceService.subscribe();
+    }
+
     /**
      * Lấy chi tiết bản ghi chấm công theo ID
      * GET /api/company/attendance/{id}
@@ -98,9 +173,152 @@ public class CompanyAttendanceController {
         return ResponseEntity.ok(BaseResponse.success(record, "Điều chỉnh chấm công thành công"));
     }
 
+    /**
+     * Nhập punch hàng loạt từ kiosk/thiết bị (gửi lại sau khi mất kết nối).
+     * Punch trùng khóa idempotency được bỏ qua, punch không hợp lệ trả về trong danh sách bị từ chối.
+     * POST /api/company/attendance/punches/batch
+     */
+    @PostMapping("/punches/batch")
+    public ResponseEntity<BaseResponse<PunchIngestionResult>> ingestPunches(
+            @Valid @RequestBody BatchPunchRequest request) {
+        PunchIngestionResult result = punchIngestionService.ingest(request);
+        return ResponseEntity.ok(BaseResponse.success(result, "Nhập punch hàng loạt thành công"));
+    }
+
+    /**
+     * Dựng lại tổng hợp chấm công theo tháng từ bản ghi ngày (backfill dữ liệu cũ, tối đa 36 tháng mỗi lần)
+     * POST /api/company/attendance/aggregates/rebuild?from=2025-01&to=2025-12
+     */
+    @PostMapping("/aggregates/rebuild")
+    @PreAuthorize(RoleConstants.HAS_ADMIN_COMPANY)
+    public ResponseEntity<BaseResponse<Integer>> rebuildAggregates(
+            @RequestParam @DateTimeFormat(pattern = "yyyy-MM") YearMonth from,
+            @RequestParam @DateTimeFormat(pattern = "yyyy-MM") YearMonth to) {
+        if (from.isAfter(to) || from.plusMonths(MAX_REBUILD_MONTHS).isBefore(to.plusMonths(1))) {
+            throw new BadRequestException(
+                    String.format("Khoảng tháng không hợp lệ (tối đa %d tháng)", MAX_REBUILD_MONTHS),
+                    ErrorCode.INVALID_REQUEST);
+        }
+
+        // Mỗi tháng một transaction
+        int rebuilt = 0;
+        for (YearMonth period = from; !period.isAfter(to); period = period.plusMonths(1)) {
+            rebuilt += attendanceAggregateService.rebuild(period);
+        }
+        return ResponseEntity.ok(BaseResponse.success(rebuilt, "Dựng lại tổng hợp chấm công thành công"));
+    }
+
     /**
      * Lấy userId của user đang đăng nhập
      */
+    /**
+     * Tính lại bản ghi chấm công trong khoảng ngày theo cấu hình hiện tại (chạy nền, tối đa 366 ngày)
+     * POST /api/company/attendance/recalculations
+     */
+    @PostMapping("/recalculations")
+    @PreAuthorize(RoleConstants.HAS_ADMIN_COMPANY)
+    public ResponseEntity<BaseResponse<AttendanceRecalculationJobResponse>> startRecalculation(
+            @Valid @RequestBody AttendanceRecalculationRequest request) {
+        AttendanceRecalculationJobResponse job = attendanceRecalculationService.start(request, getCurrentUserId());
+        return ResponseEntity.ok(BaseResponse.success(job, "Đã tạo job tính lại chấm công"));
+    }
+
+    /**
+     * Lấy các job tính lại chấm công gần đây
+     * GET /api/company/attendance/recalculations
+     */
+    @GetMapping("/recalculations")
+    public ResponseEntity<BaseResponse<List<AttendanceRecalculationJobResponse>>> getRecalculations() {
+        List<AttendanceRecalculationJobResponse> jobs = attendanceRecalculationService.getRecentJobs();
+        return ResponseEntity.ok(BaseResponse.success(jobs, "Lấy danh sách job tính lại chấm công thành công"));
+    }
+
+    /**
+     * Lấy tiến độ job tính lại chấm công
+     * GET /api/company/attendance/recalculations/{jobId}
+     */
+    @GetMapping("/recalculations/{jobId}")
+    public ResponseEntity<BaseResponse<AttendanceRecalculationJobResponse>> getRecalculation(
+            @PathVariable Long jobId) {
+        AttendanceRecalculationJobResponse job = attendanceRecalculationService.getJob(jobId);
+        return ResponseEntity.ok(BaseResponse.success(job, "Lấy job tính lại chấm công thành công"));
+    }
+
+    /**
+     * Hủy job tính lại chấm công (dừng sau batch hiện tại, giữ checkpoint)
+     * POST /api/company/attendance/recalculations/{jobId}/cancel
+     */
+    @PostMapping("/recalculations/{jobId}/cancel")
+    @PreAuthorize(RoleConstants.HAS_ADMIN_COMPANY)
+    public ResponseEntity<BaseResponse<AttendanceRecalculationJobResponse>> cancelRecalculation(
+            @PathVariable Long jobId) {
+        AttendanceRecalculationJobResponse job = attendanceRecalculationService.cancel(jobId);
+        return ResponseEntity.ok(BaseResponse.success(job, "Đã hủy job tính lại chấm công"));
+    }
+
+    /**
+     * Chạy tiếp job tính lại chấm công bị lỗi hoặc đã hủy từ checkpoint
+     * POST /api/company/attendance/recalculations/{jobId}/resume
+     */
+    @PostMapping("/recalculations/{jobId}/resume")
+    @PreAuthorize(RoleConstants.HAS_ADMIN_COMPANY)
+    public ResponseEntity<BaseResponse<AttendanceRecalculationJobResponse>> resumeRecalculation(
+            @PathVariable Long jobId) {
+        AttendanceRecalculationJobResponse job = attendanceRecalculationService.resume(jobId);
+        return ResponseEntity.ok(BaseResponse.success(job, "Đã chạy tiếp job tính lại chấm công"));
+    }
+
+    /**
+     * Lấy hàng chờ duyệt bất thường chấm công (mặc định chưa xử lý), ngày làm việc mới nhất trước
+     * GET /api/company/attendance/anomalies
+     */
+    @GetMapping("/anomalies")
+    public ResponseEntity<BaseResponse<Page<AttendanceAnomalyResponse>>> getAnomalies(
+            @RequestParam(defaultValue = "OPEN") AnomalyStatus status,
+            @RequestParam(required = false) Long employeeId,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "workDate", "id"));
+        Page<AttendanceAnomalyResponse> anomalies = attendanceAnomalyService.getAnomalies(status, employeeId,
+                pageable);
+        return ResponseEntity.ok(BaseResponse.success(anomalies, "Lấy danh sách bất thường chấm công thành công"));
+    }
+
+    /**
+     * Chạy ngay lượt quét bất thường (tự động đóng bản ghi quên check-out theo cấu hình công ty)
+     * POST /api/company/attendance/anomalies/scan
+     */
+    @PostMapping("/anomalies/scan")
+    @PreAuthorize(RoleConstants.HAS_ADMIN_COMPANY)
+    public ResponseEntity<BaseResponse<AttendanceAnomalyScanResult>> scanAnomalies() {
+        AttendanceAnomalyScanResult result = attendanceAnomalyService.scan();
+        return ResponseEntity.ok(BaseResponse.success(result, "Quét bất thường chấm công thành công"));
+    }
+
+    /**
+     * Đánh dấu bất thường đã xử lý
+     * POST /api/company/attendance/anomalies/{id}/resolve
+     */
+    @PostMapping("/anomalies/{id}/resolve")
+    public ResponseEntity<BaseResponse<AttendanceAnomalyResponse>> resolveAnomaly(
+            @PathVariable Long id,
+            @Valid @RequestBody(required = false) ResolveAnomalyRequest request) {
+        AttendanceAnomalyResponse anomaly = attendanceAnomalyService.resolve(id, getCurrentUserId(), request);
+        return ResponseEntity.ok(BaseResponse.success(anomaly, "Đã xử lý bất thường chấm công"));
+    }
+
+    /**
+     * Bỏ qua bất thường (không đưa lại vào hàng chờ ở lượt quét sau)
+     * POST /api/company/attendance/anomalies/{id}/dismiss
+     */
+    @PostMapping("/anomalies/{id}/dismiss")
+    public ResponseEntity<BaseResponse<AttendanceAnomalyResponse>> dismissAnomaly(
+            @PathVariable Long id,
+            @Valid @RequestBody(required = false) ResolveAnomalyRequest request) {
+        AttendanceAnomalyResponse anomaly = attendanceAnomalyService.dismiss(id, getCurrentUserId(), request);
+        return ResponseEntity.ok(BaseResponse.success(anomaly, "Đã bỏ qua bất thường chấm công"));
+    }
+
     private Long getCurrentUserId() {
         var authentication = SecurityContextHolder.getContext().getAuthentication();
         String email = authentication.getName();
@@ -1,14 +1,22 @@
 package com.tamabee.api_hr.controller.company;
 
+import com.tamabee.api_hr.dto.request.payroll.BulkPaymentRequest;
+import com.tamabee.api_hr.dto.request.payroll.PayrollSimulationRequest;
+import com.tamabee.api_hr.dto.response.payroll.BulkPaymentResponse;
 import com.tamabee.api_hr.dto.response.payroll.PayrollPeriodSummaryResponse;
 import com.tamabee.api_hr.dto.response.payroll.PayrollPreviewResponse;
 import com.tamabee.api_hr.dto.response.payroll.PayrollRecordResponse;
+import com.tamabee.api_hr.dto.response.payroll.PayrollSimulationResponse;
+import com.tamabee.api_hr.dto.result.PayslipBatch;
 import com.tamabee.api_hr.entity.user.UserEntity;
 import com.tamabee.api_hr.enums.RoleConstants;
 import com.tamabee.api_hr.exception.NotFoundException;
 import com.tamabee.api_hr.dto.common.BaseResponse;
 import com.tamabee.api_hr.repository.user.UserRepository;
 import com.tamabee.api_hr.service.company.interfaces.IPayrollService;
+import com.tamabee.api_hr.service.company.interfaces.IPayrollSimulationService;
+import com.tamabee.api_hr.service.core.PayslipZipWriter;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
@@ -20,6 +28,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
@@ -37,7 +46,9 @@ import java.time.format.DateTimeFormatter;
 public class PayrollController {
 
     private final IPayrollService payrollService;
+    private final IPayrollSimulationService payrollSimulationService;
     private final UserRepository userRepository;
+    private final PayslipZipWriter payslipZipWriter;
 
     private static final DateTimeFormatter PERIOD_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM");
 
@@ -55,6 +66,20 @@ public class PayrollController {
         return ResponseEntity.ok(BaseResponse.success(preview, "Preview lương thành công"));
     }
 
+    /**
+     * Mô phỏng lương với cấu hình ứng viên (không lưu)
+     * POST /api/company/payroll/simulate?period=2025-01
+     */
+    @PostMapping("/simulate")
+    @PreAuthorize(RoleConstants.HAS_ADMIN_COMPANY)
+    public ResponseEntity<BaseResponse<PayrollSimulationResponse>> simulatePayroll(
+            @RequestParam String period,
+            @RequestBody PayrollSimulationRequest request) {
+        YearMonth yearMonth = YearMonth.parse(period, PERIOD_FORMATTER);
+        PayrollSimulationResponse response = payrollSimulationService.simulate(yearMonth, request);
+        return ResponseEntity.ok(BaseResponse.success(response, "Mô phỏng lương thành công"));
+    }
+
     /**
      * Finalize lương của công ty cho một kỳ
      * POST /api/company/payroll/finalize?period=2025-01
@@ -78,10 +103,24 @@ public class PayrollController {
      */
     @PostMapping("/pay")
     @PreAuthorize(RoleConstants.HAS_ADMIN_COMPANY)
-    public ResponseEntity<BaseResponse<Void>> markAsPaid(@RequestParam String period) {
+    public ResponseEntity<BaseResponse<Integer>> markAsPaid(@RequestParam String period) {
+        UserEntity currentUser = getCurrentUser();
         YearMonth yearMonth = YearMonth.parse(period, PERIOD_FORMATTER);
-        payrollService.markAsPaid(yearMonth);
-        return ResponseEntity.ok(BaseResponse.success(null, "Đánh dấu thanh toán thành công"));
+        int updated = payrollService.markAsPaid(yearMonth, currentUser.getId());
+        return ResponseEntity.ok(BaseResponse.success(updated, "Đánh dấu thanh toán thành công"));
+    }
+
+    /**
+     * Đánh dấu nhiều bản ghi lương đã thanh toán kèm mã tham chiếu
+     * POST /api/company/payroll/records/pay
+     */
+    @PostMapping("/records/pay")
+    @PreAuthorize(RoleConstants.HAS_ADMIN_COMPANY)
+    public ResponseEntity<BaseResponse<BulkPaymentResponse>> markRecordsAsPaid(
+            @Valid @RequestBody BulkPaymentRequest request) {
+        UserEntity currentUser = getCurrentUser();
+        BulkPaymentResponse response = payrollService.markRecordsAsPaid(request, currentUser.getId());
+        return ResponseEntity.ok(BaseResponse.success(response, "Đánh dấu thanh toán hàng loạt thành công"));
     }
 
     /**
@@ -223,6 +262,31 @@ public class PayrollController {
                 .body(pdfData);
     }
 
+    /**
+     * Download payslip PDF của tất cả nhân viên trong kỳ dưới dạng ZIP
+     * Dữ liệu được prefetch một lần, PDF render song song và stream vào ZIP
+     * GET /api/company/payroll/payslips/download?period=2025-01
+     */
+    @GetMapping("/payslips/download")
+    public ResponseEntity<StreamingResponseBody> downloadPayslips(@RequestParam String period) {
+        UserEntity currentUser = getCurrentUser();
+        YearMonth yearMonth = YearMonth.parse(period, PERIOD_FORMATTER);
+
+        // Prefetch trong request thread (có tenant context và transaction)
+        PayslipBatch batch = payrollService.preparePayslipBatch(yearMonth);
+
+        String payslipLabel = getPayslipLabel(currentUser.getLanguage());
+        String filename = String.format("%s_%s.zip", payslipLabel, period);
+        String encodedFilename = URLEncoder.encode(filename, StandardCharsets.UTF_8).replace("+", "%20");
+
+        StreamingResponseBody body = out -> payslipZipWriter.write(batch, payslipLabel, out);
+
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename*=UTF-8''" + encodedFilename)
+                .contentType(MediaType.parseMediaType("application/zip"))
+                .body(body);
+    }
+
     /**
      * Lấy label "payslip" theo ngôn ngữ
      */
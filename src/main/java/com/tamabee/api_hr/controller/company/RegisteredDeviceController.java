@@ -0,0 +1,65 @@
+package com.tamabee.api_hr.controller.company;
+
+import com.tamabee.api_hr.dto.common.BaseResponse;
+import com.tamabee.api_hr.dto.request.attendance.RegisterDeviceRequest;
+import com.tamabee.api_hr.dto.response.attendance.RegisteredDeviceResponse;
+import com.tamabee.api_hr.enums.RoleConstants;
+import com.tamabee.api_hr.service.company.interfaces.IDeviceRegistryService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Controller quản lý thiết bị chấm công đã đăng ký của công ty.
+ * ADMIN_COMPANY có quyền đăng ký và thu hồi thiết bị.
+ */
+@RestController
+@RequestMapping("/api/company/devices")
+@RequiredArgsConstructor
+@PreAuthorize(RoleConstants.HAS_ADMIN_COMPANY)
+public class RegisteredDeviceController {
+
+    private final IDeviceRegistryService deviceRegistryService;
+
+    /**
+     * Lấy danh sách thiết bị đang được đăng ký (phân trang)
+     * GET /api/company/devices
+     */
+    @GetMapping
+    public ResponseEntity<BaseResponse<Page<RegisteredDeviceResponse>>> getDevices(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size) {
+        Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "createdAt"));
+        Page<RegisteredDeviceResponse> devices = deviceRegistryService.getDevices(pageable);
+        return ResponseEntity.ok(BaseResponse.success(devices, "Lấy danh sách thiết bị thành công"));
+    }
+
+    /**
+     * Đăng ký thiết bị chấm công
+     * POST /api/company/devices
+     */
+    @PostMapping
+    public ResponseEntity<BaseResponse<RegisteredDeviceResponse>> registerDevice(
+            @Valid @RequestBody RegisterDeviceRequest request) {
+        RegisteredDeviceResponse device = deviceRegistryService.registerDevice(request);
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(BaseResponse.created(device, "Đăng ký thiết bị thành công"));
+    }
+
+    /**
+     * Thu hồi thiết bị
+     * DELETE /api/company/devices/{id}
+     */
+    @DeleteMapping("/{id}")
+    public ResponseEntity<BaseResponse<Void>> revokeDevice(@PathVariable Long id) {
+        deviceRegistryService.revokeDevice(id);
+        return ResponseEntity.ok(BaseResponse.success(null, "Thu hồi thiết bị thành công"));
+    }
+}
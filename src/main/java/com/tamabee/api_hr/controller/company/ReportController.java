@@ -1,5 +1,6 @@
 package com.tamabee.api_hr.controller.company;
 
+import com.tamabee.api_hr.dto.request.report.ReportJobRequest;
 import com.tamabee.api_hr.dto.request.report.ReportQuery;
 import com.tamabee.api_hr.dto.response.report.*;
 import com.tamabee.api_hr.enums.ContractType;
@@ -8,14 +9,21 @@ import com.tamabee.api_hr.enums.ReportType;
 import com.tamabee.api_hr.enums.RoleConstants;
 import com.tamabee.api_hr.enums.SalaryType;
 import com.tamabee.api_hr.dto.common.BaseResponse;
+import com.tamabee.api_hr.entity.user.UserEntity;
+import com.tamabee.api_hr.exception.NotFoundException;
 import com.tamabee.api_hr.repository.user.UserRepository;
+import com.tamabee.api_hr.service.company.interfaces.IReportJobService;
 import com.tamabee.api_hr.service.company.interfaces.IReportService;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDate;
@@ -33,6 +41,7 @@ import java.util.List;
 public class ReportController {
 
         private final IReportService reportService;
+        private final IReportJobService reportJobService;
         private final UserRepository userRepository;
 
         /**
@@ -150,7 +159,8 @@ public class ReportController {
         }
 
         /**
-         * Xuất báo cáo theo định dạng (CSV, PDF)
+         * Xuất báo cáo theo định dạng (CSV, PDF), giữ request đến khi tạo xong.
+         * Báo cáo lớn nên dùng POST /api/company/reports/jobs
          * GET /api/company/reports/export
          */
         @GetMapping("/export")
@@ -181,6 +191,41 @@ public class ReportController {
                                 .body(data);
         }
 
+        /**
+         * Tạo job xuất báo cáo chạy nền (CSV, PDF); yêu cầu giống nhau dùng chung job/file đã tạo
+         * POST /api/company/reports/jobs
+         */
+        @PostMapping("/jobs")
+        public ResponseEntity<BaseResponse<ReportJobResponse>> submitReportJob(
+                        @Valid @RequestBody ReportJobRequest request) {
+                ReportJobResponse job = reportJobService.submit(request, getCurrentUserId());
+                return ResponseEntity.ok(BaseResponse.success(job, "Đã tạo job xuất báo cáo"));
+        }
+
+        /**
+         * Lấy trạng thái job xuất báo cáo
+         * GET /api/company/reports/jobs/{jobId}
+         */
+        @GetMapping("/jobs/{jobId}")
+        public ResponseEntity<BaseResponse<ReportJobResponse>> getReportJob(@PathVariable Long jobId) {
+                ReportJobResponse job = reportJobService.getJob(jobId);
+                return ResponseEntity.ok(BaseResponse.success(job, "Lấy trạng thái job báo cáo thành công"));
+        }
+
+        /**
+         * Tải file báo cáo đã tạo (có Content-Length, hỗ trợ Range để tải tiếp)
+         * GET /api/company/reports/jobs/{jobId}/download
+         */
+        @GetMapping("/jobs/{jobId}/download")
+        public ResponseEntity<Resource> downloadReportJob(@PathVariable Long jobId) {
+                IReportJobService.ReportJobFile file = reportJobService.getFile(jobId);
+                return ResponseEntity.ok()
+                                .header(HttpHeaders.CONTENT_DISPOSITION,
+                                                "attachment; filename=\"" + file.fileName() + "\"")
+                                .header(HttpHeaders.CONTENT_TYPE, file.contentType())
+                                .body(new FileSystemResource(file.path()));
+        }
+
         /**
          * Build ReportQuery từ các parameters
          */
@@ -213,4 +258,15 @@ public class ReportController {
                 String extension = format == ExportFormat.PDF ? ".pdf" : ".csv";
                 return type.name().toLowerCase() + "_" + dateRange + extension;
         }
+
+        /**
+         * Lấy userId của user đang đăng nhập
+         */
+        private Long getCurrentUserId() {
+                var authentication = SecurityContextHolder.getContext().getAuthentication();
+                String email = authentication.getName();
+                UserEntity user = userRepository.findByEmailAndDeletedFalse(email)
+                                .orElseThrow(() -> NotFoundException.user(email));
+                return user.getId();
+        }
 }
@@ -0,0 +1,87 @@
+package com.tamabee.api_hr.controller.company;
+
+import com.tamabee.api_hr.dto.common.BaseResponse;
+import com.tamabee.api_hr.dto.request.attendance.WorkSiteRequest;
+import com.tamabee.api_hr.dto.response.attendance.WorkSiteResponse;
+import com.tamabee.api_hr.enums.RoleConstants;
+import com.tamabee.api_hr.service.company.interfaces.IWorkSiteService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Controller quản lý địa điểm làm việc (geo-fence chấm công) của công ty.
+ * ADMIN_COMPANY có quyền CRUD địa điểm.
+ */
+@RestController
+@RequestMapping("/api/company/work-sites")
+@RequiredArgsConstructor
+@PreAuthorize(RoleConstants.HAS_ADMIN_COMPANY)
+public class WorkSiteController {
+
+    private final IWorkSiteService workSiteService;
+
+    /**
+     * Lấy danh sách địa điểm làm việc (phân trang)
+     * GET /api/company/work-sites
+     */
+    @GetMapping
+    public ResponseEntity<BaseResponse<Page<WorkSiteResponse>>> getWorkSites(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size) {
+        Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.ASC, "name"));
+        Page<WorkSiteResponse> workSites = workSiteService.getWorkSites(pageable);
+        return ResponseEntity.ok(BaseResponse.success(workSites, "Lấy danh sách địa điểm làm việc thành công"));
+    }
+
+    /**
+     * Lấy chi tiết địa điểm làm việc theo ID
+     * GET /api/company/work-sites/{id}
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<BaseResponse<WorkSiteResponse>> getWorkSiteById(@PathVariable Long id) {
+        WorkSiteResponse workSite = workSiteService.getWorkSiteById(id);
+        return ResponseEntity.ok(BaseResponse.success(workSite, "Lấy thông tin địa điểm làm việc thành công"));
+    }
+
+    /**
+     * Tạo địa điểm làm việc mới
+     * POST /api/company/work-sites
+     */
+    @PostMapping
+    public ResponseEntity<BaseResponse<WorkSiteResponse>> createWorkSite(
+            @Valid @RequestBody WorkSiteRequest request) {
+        WorkSiteResponse workSite = workSiteService.createWorkSite(request);
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(BaseResponse.created(workSite, "Tạo địa điểm làm việc thành công"));
+    }
+
+    /**
+     * Cập nhật địa điểm làm việc
+     * PUT /api/company/work-sites/{id}
+     */
+    @PutMapping("/{id}")
+    public ResponseEntity<BaseResponse<WorkSiteResponse>> updateWorkSite(
+            @PathVariable Long id,
+            @Valid @RequestBody WorkSiteRequest request) {
+        WorkSiteResponse workSite = workSiteService.updateWorkSite(id, request);
+        return ResponseEntity.ok(BaseResponse.success(workSite, "Cập nhật địa điểm làm việc thành công"));
+    }
+
+    /**
+     * Xóa địa điểm làm việc
+     * DELETE /api/company/work-sites/{id}
+     */
+    @DeleteMapping("/{id}")
+    public ResponseEntity<BaseResponse<Void>> deleteWorkSite(@PathVariable Long id) {
+        workSiteService.deleteWorkSite(id);
+        return ResponseEntity.ok(BaseResponse.success(null, "Xóa địa điểm làm việc thành công"));
+    }
+}
@@ -13,6 +13,7 @@ import com.tamabee.api_hr.exception.NotFoundException;
 import com.tamabee.api_hr.dto.common.BaseResponse;
 import com.tamabee.api_hr.repository.user.UserRepository;
 import com.tamabee.api_hr.service.company.interfaces.IAttendanceService;
+import com.tamabee.api_hr.service.company.interfaces.ICheckInGroupCommitService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
@@ -39,6 +40,7 @@ import java.time.YearMonth;
 public class EmployeeAttendanceController {
 
     private final IAttendanceService attendanceService;
+    private final ICheckInGroupCommitService checkInGroupCommitService;
     private final UserRepository userRepository;
 
     /**
@@ -133,6 +135,7 @@ public class EmployeeAttendanceController {
     /**
      * Check-in cho nhân viên đang đăng nhập.
      * Áp dụng các validation và settings của công ty.
+     * Khi bật group commit, check-in được gom theo batch và trả về sau khi batch đã commit.
      * POST /api/employee/attendance/check-in
      */
     @PostMapping("/check-in")
@@ -143,8 +146,9 @@ public class EmployeeAttendanceController {
         if (request == null) {
             request = new CheckInRequest();
         }
-        AttendanceRecordResponse response = attendanceService.checkIn(
-                currentUser.getId(), request);
+        AttendanceRecordResponse response = checkInGroupCommitService.isEnabled()
+                ? checkInGroupCommitService.checkIn(currentUser.getId(), request)
+                : attendanceService.checkIn(currentUser.getId(), request);
         return ResponseEntity.ok(BaseResponse.success(response, "Check-in thành công"));
     }
 
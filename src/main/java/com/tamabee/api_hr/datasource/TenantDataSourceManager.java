@@ -123,6 +123,9 @@ public class TenantDataSourceManager {
         dataSource.setMaxLifetime(600000); // 10 minutes
         dataSource.setConnectionTimeout(30000); // 30 seconds
 
+        // Gộp INSERT trong JDBC batch thành câu nhiều dòng (nhập punch, audit log)
+        dataSource.addDataSourceProperty("reWriteBatchedInserts", "true");
+
         log.debug("Created DataSource for tenant: {} with URL: {}", tenantDomain, tenantDbUrl);
         return dataSource;
     }
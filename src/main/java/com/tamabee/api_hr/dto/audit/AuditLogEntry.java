@@ -0,0 +1,26 @@
+package com.tamabee.api_hr.dto.audit;
+
+import com.tamabee.api_hr.enums.AuditAction;
+import com.tamabee.api_hr.enums.AuditEntityType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Một audit log cần ghi, dùng cho ghi log hàng loạt.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AuditLogEntry {
+    private AuditEntityType entityType;
+    private Long entityId;
+    private AuditAction action;
+    private Long userId;
+    private String userName;
+    private Object beforeValue;
+    private Object afterValue;
+    private String description;
+}
@@ -0,0 +1,57 @@
+package com.tamabee.api_hr.dto.common;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Window;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Trang kết quả phân trang keyset (cursor).
+ * Truyền nextCursor vào request tiếp theo để lấy trang sau; không có số trang, không COUNT trừ khi yêu cầu.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPage<T> {
+
+    public static final int DEFAULT_SIZE = 50;
+    public static final int MAX_SIZE = 500;
+
+    private List<T> content;
+    private int size;
+    private boolean hasNext;
+    // null khi đã hết dữ liệu
+    private String nextCursor;
+    // Chỉ có khi request yêu cầu includeTotal
+    private Long totalElements;
+
+    /**
+     * Giới hạn kích thước trang trong [1, MAX_SIZE]
+     */
+    public static int clampSize(int size) {
+        return Math.max(1, Math.min(size, MAX_SIZE));
+    }
+
+    /**
+     * Build từ Window của Spring Data
+     *
+     * @param cursorOf con trỏ trỏ tới một dòng (dùng cho dòng cuối)
+     */
+    public static <E, T> CursorPage<T> of(Window<E> window, Function<E, String> cursorOf,
+            Function<List<E>, List<T>> mapper, Long totalElements) {
+        List<E> entities = window.getContent();
+        boolean hasNext = window.hasNext() && !entities.isEmpty();
+        return CursorPage.<T>builder()
+                .content(mapper.apply(entities))
+                .size(entities.size())
+                .hasNext(hasNext)
+                .nextCursor(hasNext ? cursorOf.apply(entities.get(entities.size() - 1)) : null)
+                .totalElements(totalElements)
+                .build();
+    }
+}
@@ -1,5 +1,6 @@
 package com.tamabee.api_hr.dto.config;
 
+import com.tamabee.api_hr.enums.AutoClosePolicy;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -75,4 +76,15 @@ public class AttendanceConfig {
 
     @Builder.Default
     private Boolean allowWebCheckIn = true;
+
+    // Tự động đóng bản ghi quên check-out/kết thúc giải lao (job hằng đêm)
+    @Builder.Default
+    private Boolean autoCloseEnabled = false;
+
+    @Builder.Default
+    private AutoClosePolicy autoClosePolicy = AutoClosePolicy.SCHEDULE_END;
+
+    // Số giờ tối đa của một ca, quá thời gian này bản ghi còn mở bị coi là quên check-out
+    @Builder.Default
+    private Integer maxShiftHours = 16;
 }
@@ -0,0 +1,31 @@
+package com.tamabee.api_hr.dto.config;
+
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Tọa độ địa lý (đỉnh đa giác của địa điểm làm việc)
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class GeoPoint {
+
+    // Vĩ độ
+    @NotNull(message = "Vĩ độ không được để trống")
+    @DecimalMin(value = "-90.0", message = "Vĩ độ phải từ -90 đến 90")
+    @DecimalMax(value = "90.0", message = "Vĩ độ phải từ -90 đến 90")
+    private Double latitude;
+
+    // Kinh độ
+    @NotNull(message = "Kinh độ không được để trống")
+    @DecimalMin(value = "-180.0", message = "Kinh độ phải từ -180 đến 180")
+    @DecimalMax(value = "180.0", message = "Kinh độ phải từ -180 đến 180")
+    private Double longitude;
+}
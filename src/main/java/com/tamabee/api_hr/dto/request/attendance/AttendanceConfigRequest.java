@@ -1,6 +1,7 @@
 package com.tamabee.api_hr.dto.request.attendance;
 
 import com.tamabee.api_hr.dto.config.RoundingConfig;
+import com.tamabee.api_hr.enums.AutoClosePolicy;
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import lombok.AllArgsConstructor;
@@ -56,4 +57,12 @@ public class AttendanceConfigRequest {
 
     private Boolean allowMobileCheckIn;
     private Boolean allowWebCheckIn;
+
+    // Tự động đóng bản ghi quên check-out
+    private Boolean autoCloseEnabled;
+    private AutoClosePolicy autoClosePolicy;
+
+    @Min(1)
+    @Max(24)
+    private Integer maxShiftHours;
 }
@@ -0,0 +1,19 @@
+package com.tamabee.api_hr.dto.request.attendance;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+import java.time.LocalDate;
+
+/**
+ * Request DTO để tính lại bản ghi chấm công trong khoảng ngày theo cấu hình hiện tại.
+ */
+@Data
+public class AttendanceRecalculationRequest {
+
+    @NotNull(message = "Ngày bắt đầu không được để trống")
+    private LocalDate fromDate;
+
+    @NotNull(message = "Ngày kết thúc không được để trống")
+    private LocalDate toDate;
+}
@@ -0,0 +1,18 @@
+package com.tamabee.api_hr.dto.request.attendance;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Request DTO cho nhập punch hàng loạt từ kiosk/thiết bị
+ */
+@Data
+public class BatchPunchRequest {
+
+    @Valid
+    @NotEmpty(message = "Danh sách punch không được trống")
+    private List<PunchEventRequest> events;
+}
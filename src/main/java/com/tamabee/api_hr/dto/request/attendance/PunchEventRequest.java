@@ -0,0 +1,44 @@
+package com.tamabee.api_hr.dto.request.attendance;
+
+import com.tamabee.api_hr.enums.PunchType;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Một punch event do kiosk/thiết bị ghi nhận (có thể gửi lại sau khi mất kết nối)
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PunchEventRequest {
+
+    // Khóa idempotency do thiết bị sinh, gửi lại cùng khóa sẽ không ghi nhận lần hai
+    @NotBlank(message = "Khóa idempotency không được trống")
+    @Size(max = 100, message = "Khóa idempotency tối đa 100 ký tự")
+    private String idempotencyKey;
+
+    @NotNull(message = "Nhân viên không được trống")
+    private Long employeeId;
+
+    @NotNull(message = "Loại punch không được trống")
+    private PunchType punchType;
+
+    // Thời điểm punch theo đồng hồ của thiết bị
+    @NotNull(message = "Thời điểm punch không được trống")
+    private LocalDateTime punchedAt;
+
+    // ID thiết bị (nếu yêu cầu đăng ký thiết bị)
+    private String deviceId;
+
+    // Vị trí punch (nếu yêu cầu geo-location)
+    private Double latitude;
+    private Double longitude;
+}
@@ -0,0 +1,19 @@
+package com.tamabee.api_hr.dto.request.attendance;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+/**
+ * Request DTO để đăng ký thiết bị chấm công.
+ */
+@Data
+public class RegisterDeviceRequest {
+
+    @NotBlank(message = "ID thiết bị không được để trống")
+    @Size(min = 8, max = 255, message = "ID thiết bị phải từ 8 đến 255 ký tự")
+    private String deviceId;
+
+    @Size(max = 255, message = "Tên thiết bị không được vượt quá 255 ký tự")
+    private String name;
+}
@@ -0,0 +1,14 @@
+package com.tamabee.api_hr.dto.request.attendance;
+
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+/**
+ * Request xử lý/bỏ qua bất thường chấm công
+ */
+@Data
+public class ResolveAnomalyRequest {
+
+    @Size(max = 500)
+    private String note;
+}
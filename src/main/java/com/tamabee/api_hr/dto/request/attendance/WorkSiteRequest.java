@@ -0,0 +1,48 @@
+package com.tamabee.api_hr.dto.request.attendance;
+
+import com.tamabee.api_hr.dto.config.GeoPoint;
+import com.tamabee.api_hr.enums.WorkSiteType;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Request DTO để tạo hoặc cập nhật địa điểm làm việc.
+ * CIRCLE cần latitude/longitude (radiusMeters tùy chọn), POLYGON cần ít nhất 3 đỉnh.
+ */
+@Data
+public class WorkSiteRequest {
+
+    @NotBlank(message = "Tên địa điểm không được để trống")
+    @Size(max = 255, message = "Tên địa điểm không được vượt quá 255 ký tự")
+    private String name;
+
+    @NotNull(message = "Loại vùng không được để trống")
+    private WorkSiteType type;
+
+    @DecimalMin(value = "-90.0", message = "Vĩ độ phải từ -90 đến 90")
+    @DecimalMax(value = "90.0", message = "Vĩ độ phải từ -90 đến 90")
+    private Double latitude;
+
+    @DecimalMin(value = "-180.0", message = "Kinh độ phải từ -180 đến 180")
+    @DecimalMax(value = "180.0", message = "Kinh độ phải từ -180 đến 180")
+    private Double longitude;
+
+    @Min(value = 1, message = "Bán kính phải lớn hơn 0")
+    @Max(value = 50000, message = "Bán kính không được vượt quá 50km")
+    private Integer radiusMeters;
+
+    @Valid
+    @Size(max = 1000, message = "Đa giác không được vượt quá 1000 đỉnh")
+    private List<GeoPoint> polygon;
+
+    private Boolean isActive;
+}
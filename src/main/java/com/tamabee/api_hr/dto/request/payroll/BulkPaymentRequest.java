@@ -0,0 +1,43 @@
+package com.tamabee.api_hr.dto.request.payroll;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Request DTO để đánh dấu nhiều bản ghi lương đã thanh toán kèm mã tham chiếu
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkPaymentRequest {
+
+    @NotEmpty(message = "Danh sách thanh toán không được để trống")
+    @Size(max = 10000, message = "Tối đa 10000 bản ghi mỗi lần")
+    @Valid
+    private List<Item> payments;
+
+    /**
+     * Một cặp (bản ghi lương, mã tham chiếu thanh toán)
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Item {
+
+        @NotNull(message = "ID bản ghi lương không được để trống")
+        private Long recordId;
+
+        @Size(max = 255, message = "Mã tham chiếu không được vượt quá 255 ký tự")
+        private String paymentReference;
+    }
+}
@@ -0,0 +1,29 @@
+package com.tamabee.api_hr.dto.request.payroll;
+
+import com.tamabee.api_hr.dto.config.AllowanceConfig;
+import com.tamabee.api_hr.dto.config.DeductionConfig;
+import com.tamabee.api_hr.dto.config.OvertimeConfig;
+import com.tamabee.api_hr.dto.config.PayrollConfig;
+import lombok.Data;
+
+/**
+ * Request mô phỏng lương với cấu hình ứng viên (không lưu).
+ * Cấu hình nào để null sẽ dùng cấu hình hiện tại của công ty.
+ */
+@Data
+public class PayrollSimulationRequest {
+
+    private PayrollConfig payrollConfig;
+
+    private OvertimeConfig overtimeConfig;
+
+    private AllowanceConfig allowanceConfig;
+
+    private DeductionConfig deductionConfig;
+
+    // Trả về chi tiết từng nhân viên (tắt để giảm payload khi kéo slider)
+    private Boolean includeEmployees = true;
+
+    // Bỏ qua cache, load lại dữ liệu kỳ từ DB
+    private Boolean refresh = false;
+}
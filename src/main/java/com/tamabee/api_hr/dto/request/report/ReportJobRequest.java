@@ -0,0 +1,33 @@
+package com.tamabee.api_hr.dto.request.report;
+
+import com.tamabee.api_hr.enums.ExportFormat;
+import com.tamabee.api_hr.enums.ReportType;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Request tạo job xuất báo cáo (CSV, PDF) chạy nền
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReportJobRequest {
+
+    @NotNull(message = "Loại báo cáo không được để trống")
+    private ReportType type;
+
+    @NotNull(message = "Định dạng xuất không được để trống")
+    private ExportFormat format;
+
+    @Valid
+    @NotNull(message = "Điều kiện báo cáo không được để trống")
+    private ReportQuery query;
+
+    // Ngôn ngữ của file (vi, ja, en), mặc định tiếng Việt
+    private String language;
+}
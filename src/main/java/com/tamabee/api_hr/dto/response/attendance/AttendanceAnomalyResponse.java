@@ -0,0 +1,30 @@
+package com.tamabee.api_hr.dto.response.attendance;
+
+import com.tamabee.api_hr.enums.AnomalyStatus;
+import com.tamabee.api_hr.enums.AttendanceAnomalyType;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Response DTO cho bất thường chấm công trong hàng chờ duyệt.
+ */
+@Data
+public class AttendanceAnomalyResponse {
+
+    private Long id;
+    private Long attendanceRecordId;
+    private Long employeeId;
+    private String employeeName;
+    private LocalDate workDate;
+    // 0 nếu là bất thường của cả bản ghi
+    private Integer breakNumber;
+    private AttendanceAnomalyType anomalyType;
+    private String detail;
+    private AnomalyStatus status;
+    private Long resolvedBy;
+    private LocalDateTime resolvedAt;
+    private String resolutionNote;
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,21 @@
+package com.tamabee.api_hr.dto.response.attendance;
+
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * Response DTO cho kết quả một lượt quét bất thường chấm công của tenant
+ */
+@Data
+@Builder
+public class AttendanceAnomalyScanResult {
+
+    // Số bản ghi đã quét (bản ghi còn mở + bản ghi trong khoảng ngày kiểm tra)
+    private int scannedRecords;
+    private int autoClosedRecords;
+    private int autoClosedBreaks;
+    // Bất thường mới được đưa vào hàng chờ duyệt
+    private int flaggedAnomalies;
+    // Bản ghi bị sửa đồng thời trong lúc quét, được để lại cho lượt sau
+    private int skippedRecords;
+}
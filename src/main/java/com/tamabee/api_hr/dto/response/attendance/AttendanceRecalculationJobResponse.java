@@ -0,0 +1,42 @@
+package com.tamabee.api_hr.dto.response.attendance;
+
+import com.tamabee.api_hr.enums.RecalculationStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Response cho job tính lại bản ghi chấm công (tiến độ cộng dồn từ các chunk)
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AttendanceRecalculationJobResponse {
+
+    private Long id;
+    private LocalDate fromDate;
+    private LocalDate toDate;
+    private RecalculationStatus status;
+    private Long requestedBy;
+
+    private int totalChunks;
+    private int completedChunks;
+    private int failedChunks;
+
+    // Số bản ghi đã đọc
+    private long processedRecords;
+    // Số bản ghi có kết quả thay đổi và đã ghi
+    private long updatedRecords;
+    // Bản ghi bị sửa đồng thời (check-out, điều chỉnh...) nên giữ kết quả của luồng đó
+    private long skippedRecords;
+
+    private String errorMessage;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private LocalDateTime createdAt;
+}
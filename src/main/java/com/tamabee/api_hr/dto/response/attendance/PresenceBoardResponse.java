@@ -0,0 +1,29 @@
+package com.tamabee.api_hr.dto.response.attendance;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Response cho bảng hiện diện trong ngày (số nhân viên theo trạng thái)
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PresenceBoardResponse {
+
+    private LocalDate workDate;
+
+    // Đang làm việc
+    private long checkedIn;
+    // Đang giải lao
+    private long onBreak;
+    // Đã check-out
+    private long checkedOut;
+    // Đã check-in muộn (bất kể trạng thái hiện tại)
+    private long late;
+}
@@ -0,0 +1,24 @@
+package com.tamabee.api_hr.dto.response.attendance;
+
+import com.tamabee.api_hr.enums.PresenceStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Sự kiện SSE khi trạng thái hiện diện của một nhân viên thay đổi
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PresenceEventResponse {
+
+    private Long employeeId;
+    // null = bản ghi chấm công trong ngày không còn
+    private PresenceStatus status;
+    private boolean late;
+    // Bộ đếm sau thay đổi
+    private PresenceBoardResponse board;
+}
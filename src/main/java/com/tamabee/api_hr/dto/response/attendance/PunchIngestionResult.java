@@ -0,0 +1,34 @@
+package com.tamabee.api_hr.dto.response.attendance;
+
+import com.tamabee.api_hr.enums.PunchType;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Response DTO cho kết quả nhập punch hàng loạt
+ */
+@Data
+@Builder
+public class PunchIngestionResult {
+
+    private int totalReceived;
+    private int appliedCount;
+    // Punch có khóa idempotency đã được nhập trước đó (hoặc lặp trong cùng request)
+    private int duplicateCount;
+    private int rejectedCount;
+    // Số bản ghi chấm công được tạo mới hoặc tính lại
+    private int affectedRecordCount;
+    private List<RejectedPunch> rejectedPunches;
+
+    @Data
+    @Builder
+    public static class RejectedPunch {
+        private String idempotencyKey;
+        private Long employeeId;
+        private PunchType punchType;
+        private String errorCode;
+        private String reason;
+    }
+}
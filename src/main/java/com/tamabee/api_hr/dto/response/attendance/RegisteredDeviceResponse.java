@@ -0,0 +1,19 @@
+package com.tamabee.api_hr.dto.response.attendance;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * Response DTO cho thiết bị chấm công đã đăng ký.
+ */
+@Data
+public class RegisteredDeviceResponse {
+
+    private Long id;
+    private String deviceId;
+    private String name;
+    private Boolean revoked;
+    private LocalDateTime revokedAt;
+    private LocalDateTime createdAt;
+}
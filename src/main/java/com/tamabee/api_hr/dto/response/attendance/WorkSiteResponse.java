@@ -0,0 +1,26 @@
+package com.tamabee.api_hr.dto.response.attendance;
+
+import com.tamabee.api_hr.dto.config.GeoPoint;
+import com.tamabee.api_hr.enums.WorkSiteType;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Response DTO cho địa điểm làm việc.
+ */
+@Data
+public class WorkSiteResponse {
+
+    private Long id;
+    private String name;
+    private WorkSiteType type;
+    private Double latitude;
+    private Double longitude;
+    private Integer radiusMeters;
+    private List<GeoPoint> polygon;
+    private Boolean isActive;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+}
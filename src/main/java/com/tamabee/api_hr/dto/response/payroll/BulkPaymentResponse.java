@@ -0,0 +1,27 @@
+package com.tamabee.api_hr.dto.response.payroll;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Response cho đánh dấu thanh toán hàng loạt
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkPaymentResponse {
+
+    // Số bản ghi yêu cầu
+    private Integer requested;
+
+    // Số bản ghi đã chuyển sang PAID
+    private Integer updated;
+
+    // Bản ghi bị bỏ qua (không tồn tại hoặc không ở trạng thái FINALIZED)
+    private List<Long> skippedRecordIds;
+}
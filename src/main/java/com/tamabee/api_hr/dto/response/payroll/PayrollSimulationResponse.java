@@ -0,0 +1,73 @@
+package com.tamabee.api_hr.dto.response.payroll;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Response mô phỏng lương: so sánh cấu hình hiện tại (baseline) với cấu hình ứng viên
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PayrollSimulationResponse {
+
+    private Integer year;
+    private Integer month;
+    private String period; // Format: "2025-01"
+
+    // Thời điểm load dữ liệu chấm công dùng để mô phỏng
+    private LocalDateTime datasetLoadedAt;
+
+    private Integer totalEmployees;
+
+    // Tổng theo cấu hình hiện tại
+    private Totals baseline;
+
+    // Tổng theo cấu hình ứng viên
+    private Totals simulated;
+
+    // Chênh lệch (simulated - baseline)
+    private Totals delta;
+
+    // Chi tiết từng nhân viên
+    private List<EmployeeSimulation> employees;
+
+    /**
+     * Tổng hợp các khoản lương
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Totals {
+        private BigDecimal baseSalary;
+        private BigDecimal overtimePay;
+        private BigDecimal allowances;
+        private BigDecimal deductions;
+        private BigDecimal grossSalary;
+        private BigDecimal netSalary;
+    }
+
+    /**
+     * Kết quả mô phỏng của một nhân viên
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class EmployeeSimulation {
+        private Long employeeId;
+        private String employeeName;
+        private String employeeCode;
+        private Totals baseline;
+        private Totals simulated;
+        private Totals delta;
+    }
+}
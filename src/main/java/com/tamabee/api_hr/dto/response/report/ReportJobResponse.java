@@ -0,0 +1,39 @@
+package com.tamabee.api_hr.dto.response.report;
+
+import com.tamabee.api_hr.enums.ExportFormat;
+import com.tamabee.api_hr.enums.ReportJobStatus;
+import com.tamabee.api_hr.enums.ReportType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Response cho job xuất báo cáo
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReportJobResponse {
+
+    private Long id;
+    private ReportType type;
+    private ExportFormat format;
+    private String language;
+    private ReportJobStatus status;
+    private Long requestedBy;
+
+    // Có khi status = COMPLETED
+    private String fileName;
+    private Long fileSize;
+
+    private String errorMessage;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    // Sau thời điểm này file bị xóa, yêu cầu giống nhau sẽ tạo job mới
+    private LocalDateTime expiresAt;
+    private LocalDateTime createdAt;
+}
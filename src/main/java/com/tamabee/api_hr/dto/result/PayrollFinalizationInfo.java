@@ -0,0 +1,20 @@
+package com.tamabee.api_hr.dto.result;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Thời điểm và người finalize của một bản ghi lương (lấy cùng một dòng).
+ * Được tạo trực tiếp từ câu truy vấn.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PayrollFinalizationInfo {
+
+    private LocalDateTime finalizedAt;
+    private Long finalizedBy;
+}
@@ -0,0 +1,94 @@
+package com.tamabee.api_hr.dto.result;
+
+import com.tamabee.api_hr.dto.config.*;
+import com.tamabee.api_hr.entity.attendance.BreakRecordEntity;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Dữ liệu chấm công + lương của một kỳ đã load sẵn trong bộ nhớ.
+ * Dùng để chạy mô phỏng (what-if) nhiều lần mà không truy vấn DB.
+ * Không được sửa đổi sau khi build (chia sẻ giữa các request).
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PayrollPeriodDataset {
+
+    // Kỳ lương
+    private YearMonth period;
+
+    // Thời điểm load dữ liệu
+    private LocalDateTime loadedAt;
+
+    // Cấu hình hiện tại tại thời điểm load (baseline)
+    private PayrollConfig payrollConfig;
+    private OvertimeConfig overtimeConfig;
+    private AllowanceConfig allowanceConfig;
+    private DeductionConfig deductionConfig;
+    private BreakConfig breakConfig;
+
+    // Dữ liệu từng nhân viên có thông tin lương
+    @Builder.Default
+    private List<EmployeeData> employees = new ArrayList<>();
+
+    /**
+     * Dữ liệu một nhân viên trong kỳ
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class EmployeeData {
+
+        private Long employeeId;
+        private String employeeName;
+        private String employeeCode;
+
+        // Thông tin lương có hiệu lực cuối kỳ
+        private EmployeeSalaryInfo salaryInfo;
+
+        // Tổng hợp chấm công (không phụ thuộc cấu hình lương)
+        private AttendanceSummary attendanceSummary;
+
+        // Các ngày có tăng ca (thứ tự giống previewPayroll: ngày mới nhất trước)
+        @Builder.Default
+        private List<OvertimeDay> overtimeDays = new ArrayList<>();
+
+        // Chi tiết tăng ca theo cấu hình baseline
+        @Builder.Default
+        private List<DailyOvertimeDetail> baselineDailyDetails = new ArrayList<>();
+
+        // Kết quả tính lương theo cấu hình baseline
+        private PayrollResult baselineResult;
+    }
+
+    /**
+     * Dữ liệu thô một ngày tăng ca, dùng để tính lại giờ đêm khi đổi khung giờ đêm
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class OvertimeDay {
+
+        private LocalDate date;
+        private Integer overtimeMinutes;
+        private LocalDateTime roundedCheckIn;
+        private LocalDateTime roundedCheckOut;
+        private Boolean holiday;
+        private Boolean weekend;
+
+        @Builder.Default
+        private List<BreakRecordEntity> breaks = new ArrayList<>();
+    }
+}
@@ -0,0 +1,34 @@
+package com.tamabee.api_hr.dto.result;
+
+import com.tamabee.api_hr.enums.PaymentStatus;
+import com.tamabee.api_hr.enums.PayrollStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Một dòng tổng hợp bản ghi lương của kỳ, nhóm theo
+ * (status, paymentStatus, notificationSent). Được tạo trực tiếp từ câu truy vấn GROUP BY.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PayrollStatusAggregate {
+
+    private PayrollStatus status;
+    private PaymentStatus paymentStatus;
+    private Boolean notificationSent;
+
+    // Số bản ghi trong nhóm
+    private Long recordCount;
+
+    // Tổng các khoản lương trong nhóm (null nếu tất cả đều null)
+    private BigDecimal totalBaseSalary;
+    private BigDecimal totalOvertimePay;
+    private BigDecimal totalAllowances;
+    private BigDecimal totalDeductions;
+    private BigDecimal totalGrossSalary;
+    private BigDecimal totalNetSalary;
+}
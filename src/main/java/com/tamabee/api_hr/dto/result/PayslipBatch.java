@@ -0,0 +1,50 @@
+package com.tamabee.api_hr.dto.result;
+
+import com.tamabee.api_hr.dto.response.payroll.PayrollRecordResponse;
+import com.tamabee.api_hr.entity.company.CompanyEntity;
+import com.tamabee.api_hr.entity.user.UserEntity;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Dữ liệu đã prefetch để tạo hàng loạt payslip của một kỳ lương.
+ * Toàn bộ dữ liệu được load trong transaction, việc render PDF không cần truy cập DB.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PayslipBatch {
+
+    // Kỳ lương
+    private YearMonth period;
+
+    // Công ty (dùng chung cho tất cả payslip)
+    private CompanyEntity company;
+
+    // Danh sách payslip cần render
+    @Builder.Default
+    private List<Item> items = new ArrayList<>();
+
+    /**
+     * Một payslip trong batch
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Item {
+
+        // Bản ghi lương đã convert sang response
+        private PayrollRecordResponse record;
+
+        // Nhân viên (profile được fetch eager)
+        private UserEntity employee;
+    }
+}
@@ -0,0 +1,26 @@
+package com.tamabee.api_hr.dto.result;
+
+import com.tamabee.api_hr.enums.ErrorCode;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Kết quả nhập một punch event
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PunchOutcome {
+
+    // Bản ghi chấm công mà punch được áp dụng vào (null nếu bị từ chối hoặc trùng)
+    private Long attendanceRecordId;
+
+    // Lý do từ chối (null nếu được áp dụng hoặc trùng)
+    private ErrorCode error;
+
+    // Khóa idempotency đã được nhập trước đó
+    private boolean duplicate;
+}
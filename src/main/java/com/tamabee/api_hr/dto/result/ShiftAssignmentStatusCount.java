@@ -0,0 +1,20 @@
+package com.tamabee.api_hr.dto.result;
+
+import com.tamabee.api_hr.enums.ShiftAssignmentStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Số phân ca trong khoảng ngày, nhóm theo (shiftTemplateId, status).
+ * Được tạo trực tiếp từ câu truy vấn GROUP BY.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ShiftAssignmentStatusCount {
+
+    private Long shiftTemplateId;
+    private ShiftAssignmentStatus status;
+    private Long assignmentCount;
+}
@@ -0,0 +1,19 @@
+package com.tamabee.api_hr.dto.result;
+
+import com.tamabee.api_hr.enums.SwapRequestStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Số yêu cầu đổi ca trong khoảng thời gian, nhóm theo status.
+ * Được tạo trực tiếp từ câu truy vấn GROUP BY.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SwapRequestStatusCount {
+
+    private SwapRequestStatus status;
+    private Long requestCount;
+}
@@ -0,0 +1,56 @@
+package com.tamabee.api_hr.entity.attendance;
+
+import com.tamabee.api_hr.entity.BaseEntity;
+import com.tamabee.api_hr.enums.AnomalyStatus;
+import com.tamabee.api_hr.enums.AttendanceAnomalyType;
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Entity lưu trữ bất thường chấm công chờ duyệt (quên check-out, giải lao chồng nhau...).
+ * Được tạo bởi job quét hằng đêm, admin/manager xử lý hoặc bỏ qua.
+ */
+@Data
+@EqualsAndHashCode(callSuper = true)
+@Entity
+@Table(name = "attendance_anomalies")
+public class AttendanceAnomalyEntity extends BaseEntity {
+
+    // Bản ghi chấm công có bất thường
+    @Column(nullable = false)
+    private Long attendanceRecordId;
+
+    @Column(nullable = false)
+    private Long employeeId;
+
+    @Column(nullable = false)
+    private LocalDate workDate;
+
+    // Số thứ tự lần giải lao, 0 nếu là bất thường của cả bản ghi
+    @Column(nullable = false)
+    private Integer breakNumber = 0;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private AttendanceAnomalyType anomalyType;
+
+    // Mô tả chi tiết (thời gian đã tự động đóng, khoảng chồng nhau...)
+    @Column(length = 500)
+    private String detail;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private AnomalyStatus status = AnomalyStatus.OPEN;
+
+    // Người xử lý/bỏ qua
+    private Long resolvedBy;
+
+    private LocalDateTime resolvedAt;
+
+    @Column(length = 500)
+    private String resolutionNote;
+}
@@ -0,0 +1,53 @@
+package com.tamabee.api_hr.entity.attendance;
+
+import com.tamabee.api_hr.entity.BaseEntity;
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+/**
+ * Entity tổng hợp chấm công của một nhân viên trong một tháng.
+ * Chỉ đọc qua JPA; được ghi bằng SQL trong AttendanceAggregateService (tính lại từ attendance_records).
+ */
+@Data
+@EqualsAndHashCode(callSuper = true)
+@Entity
+@Table(name = "attendance_monthly_aggregates", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_attendance_monthly_aggregates_employee_period",
+                columnNames = { "employee_id", "year", "month" })
+})
+public class AttendanceMonthlyAggregateEntity extends BaseEntity {
+
+    // ID nhân viên
+    @Column(nullable = false)
+    private Long employeeId;
+
+    // Kỳ tổng hợp
+    @Column(nullable = false)
+    private Integer year;
+
+    @Column(nullable = false)
+    private Integer month;
+
+    // === Số ngày ===
+    // Số bản ghi chấm công trong tháng
+    private Integer recordCount = 0;
+    private Integer presentDays = 0;
+    private Integer lateDays = 0;
+    private Integer absentDays = 0;
+    private Integer leaveDays = 0;
+    private Integer holidayDays = 0;
+
+    // === Đi muộn / về sớm ===
+    // Số ngày có phút đi muộn > 0
+    private Integer lateCount = 0;
+    private Integer totalLateMinutes = 0;
+    // Số ngày có phút về sớm > 0
+    private Integer earlyLeaveCount = 0;
+    private Integer totalEarlyLeaveMinutes = 0;
+
+    // === Tổng thời gian (phút) ===
+    private Integer totalWorkingMinutes = 0;
+    private Integer totalOvertimeMinutes = 0;
+    private Integer totalBreakMinutes = 0;
+}
@@ -20,8 +20,9 @@ import java.time.LocalDateTime;
 @Table(name = "attendance_records", indexes = {
         @Index(name = "idx_attendance_employee_id", columnList = "employeeId"),
         @Index(name = "idx_attendance_work_date", columnList = "workDate"),
-        @Index(name = "idx_attendance_employee_date", columnList = "employeeId, workDate"),
         @Index(name = "idx_attendance_status", columnList = "status")
+}, uniqueConstraints = {
+        @UniqueConstraint(name = "uk_attendance_records_employee_date", columnNames = { "employee_id", "work_date" })
 })
 public class AttendanceRecordEntity extends BaseEntity {
 
@@ -19,8 +19,10 @@ import java.time.LocalDateTime;
         @Index(name = "idx_break_records_attendance", columnList = "attendanceRecordId"),
         @Index(name = "idx_break_records_employee_id", columnList = "employeeId"),
         @Index(name = "idx_break_records_work_date", columnList = "workDate"),
-        @Index(name = "idx_break_records_employee_date", columnList = "employeeId, workDate"),
-        @Index(name = "idx_break_records_break_number", columnList = "attendanceRecordId, breakNumber")
+        @Index(name = "idx_break_records_employee_date", columnList = "employeeId, workDate")
+}, uniqueConstraints = {
+        @UniqueConstraint(name = "uk_break_records_attendance_number",
+                columnNames = { "attendance_record_id", "work_date", "break_number" })
 })
 public class BreakRecordEntity extends BaseEntity {
 
@@ -0,0 +1,33 @@
+package com.tamabee.api_hr.entity.attendance;
+
+import com.tamabee.api_hr.entity.BaseEntity;
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entity lưu trữ thiết bị được phép chấm công (khi công ty bật requireDeviceRegistration).
+ * Thu hồi giữ lại bản ghi làm lịch sử; đăng ký lại tạo bản ghi mới.
+ */
+@Data
+@EqualsAndHashCode(callSuper = true)
+@Entity
+@Table(name = "registered_devices")
+public class RegisteredDeviceEntity extends BaseEntity {
+
+    // ID thiết bị (UUID hoặc device fingerprint do app gửi lên)
+    @Column(nullable = false)
+    private String deviceId;
+
+    // Tên gợi nhớ (VD: "Kiosk cửa hàng Shibuya")
+    private String name;
+
+    // Đã thu hồi chưa
+    @Column(nullable = false)
+    private Boolean revoked = false;
+
+    // Thời điểm thu hồi
+    private LocalDateTime revokedAt;
+}
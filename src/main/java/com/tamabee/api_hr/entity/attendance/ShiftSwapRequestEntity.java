@@ -18,7 +18,8 @@ import java.time.LocalDateTime;
 @Table(name = "shift_swap_requests", indexes = {
         @Index(name = "idx_swap_request_requester_id", columnList = "requesterId"),
         @Index(name = "idx_swap_request_target_id", columnList = "targetEmployeeId"),
-        @Index(name = "idx_swap_request_status", columnList = "status")
+        @Index(name = "idx_swap_request_status", columnList = "status"),
+        @Index(name = "idx_swap_request_created_at", columnList = "createdAt")
 })
 public class ShiftSwapRequestEntity extends BaseEntity {
 
@@ -0,0 +1,52 @@
+package com.tamabee.api_hr.entity.attendance;
+
+import com.tamabee.api_hr.entity.BaseEntity;
+import com.tamabee.api_hr.enums.WorkSiteType;
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+/**
+ * Entity lưu trữ địa điểm làm việc (chi nhánh, cửa hàng) dùng cho geo-fence khi chấm công.
+ * Mỗi tenant DB có danh sách địa điểm riêng.
+ */
+@Data
+@EqualsAndHashCode(callSuper = true)
+@Entity
+@Table(name = "work_sites", indexes = {
+        @Index(name = "idx_work_sites_deleted", columnList = "deleted")
+})
+public class WorkSiteEntity extends BaseEntity {
+
+    // Soft delete flag
+    @Column(nullable = false)
+    private Boolean deleted = false;
+
+    // Tên địa điểm
+    @Column(nullable = false)
+    private String name;
+
+    // Loại vùng: CIRCLE (tâm + bán kính), POLYGON (đa giác)
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private WorkSiteType type;
+
+    // Tâm vùng tròn
+    private Double latitude;
+
+    private Double longitude;
+
+    // Bán kính (mét), null = dùng geoFenceRadiusMeters trong cấu hình chấm công
+    private Integer radiusMeters;
+
+    // Đỉnh đa giác (JSONB): [{"latitude": .., "longitude": ..}, ...]
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(columnDefinition = "jsonb")
+    private String polygon;
+
+    // Địa điểm đang được dùng để chấm công
+    @Column(nullable = false)
+    private Boolean isActive = true;
+}
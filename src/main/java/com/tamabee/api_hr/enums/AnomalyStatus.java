@@ -0,0 +1,10 @@
+package com.tamabee.api_hr.enums;
+
+/**
+ * Trạng thái xử lý bất thường chấm công
+ */
+public enum AnomalyStatus {
+    OPEN, // Chờ duyệt
+    RESOLVED, // Đã xử lý (đã điều chỉnh hoặc xác nhận đúng)
+    DISMISSED // Bỏ qua
+}
@@ -0,0 +1,14 @@
+package com.tamabee.api_hr.enums;
+
+/**
+ * Loại bất thường chấm công được đưa vào hàng chờ duyệt
+ */
+public enum AttendanceAnomalyType {
+    AUTO_CLOSED_CHECK_OUT, // Quên check-out, đã tự động check-out
+    AUTO_CLOSED_BREAK, // Quên kết thúc giải lao, đã tự động kết thúc
+    MISSING_CHECK_OUT, // Quên check-out (không bật tự động đóng)
+    MISSING_BREAK_END, // Quên kết thúc giải lao (không bật tự động đóng)
+    IMPOSSIBLE_DURATION, // Thời lượng ca/giải lao âm hoặc vượt quá 24 giờ
+    OVERLAPPING_BREAKS, // Các lần giải lao chồng lên nhau
+    BREAK_OUTSIDE_SHIFT // Giải lao nằm ngoài khoảng check-in/check-out
+}
@@ -6,6 +6,7 @@ package com.tamabee.api_hr.enums;
 public enum AuditEntityType {
     ATTENDANCE_RECORD, // Bản ghi chấm công
     PAYROLL_RECORD, // Bản ghi lương
+    PAYROLL_ITEM, // Chi tiết lương trong kỳ lương
     COMPANY_SETTINGS, // Cài đặt công ty
     WORK_SCHEDULE, // Lịch làm việc
     LEAVE_REQUEST, // Yêu cầu nghỉ phép
@@ -0,0 +1,9 @@
+package com.tamabee.api_hr.enums;
+
+/**
+ * Cách xác định giờ check-out khi tự động đóng bản ghi chấm công bị quên check-out
+ */
+public enum AutoClosePolicy {
+    SCHEDULE_END, // Giờ kết thúc theo lịch làm việc (không vượt quá số giờ tối đa của ca), đóng khi đã qua ngày
+    MAX_HOURS // Giờ check-in cộng số giờ tối đa của ca
+}
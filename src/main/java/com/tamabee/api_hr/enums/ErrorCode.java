@@ -18,6 +18,7 @@ public enum ErrorCode {
         CONFLICT("CONFLICT", "Xung đột dữ liệu"),
         INTERNAL_SERVER_ERROR("INTERNAL_SERVER_ERROR", "Lỗi hệ thống"),
         INVALID_ARGUMENT("INVALID_ARGUMENT", "Tham số không hợp lệ"),
+        INVALID_CURSOR("INVALID_CURSOR", "Con trỏ phân trang không hợp lệ"),
 
         // === AUTH ===
         UNAUTHORIZED("UNAUTHORIZED", "Chưa xác thực"),
@@ -133,6 +134,21 @@ public enum ErrorCode {
         INVALID_DEVICE("INVALID_DEVICE", "Thiết bị chưa được đăng ký"),
         OUTSIDE_GEOFENCE("OUTSIDE_GEOFENCE", "Vị trí nằm ngoài khu vực cho phép"),
         INVALID_ATTENDANCE_TIME("INVALID_ATTENDANCE_TIME", "Thời gian chấm công không hợp lệ"),
+        RECALCULATION_JOB_NOT_FOUND("RECALCULATION_JOB_NOT_FOUND", "Không tìm thấy job tính lại chấm công"),
+        RECALCULATION_ALREADY_RUNNING("RECALCULATION_ALREADY_RUNNING", "Đang có job tính lại chấm công chạy"),
+        RECALCULATION_NOT_RESUMABLE("RECALCULATION_NOT_RESUMABLE",
+                        "Chỉ chạy tiếp được job bị lỗi hoặc đã hủy"),
+        ATTENDANCE_ANOMALY_NOT_FOUND("ATTENDANCE_ANOMALY_NOT_FOUND", "Không tìm thấy bất thường chấm công"),
+        ATTENDANCE_ANOMALY_ALREADY_CLOSED("ATTENDANCE_ANOMALY_ALREADY_CLOSED",
+                        "Bất thường chấm công đã được xử lý hoặc bỏ qua"),
+
+        // === WORK SITE ===
+        WORK_SITE_NOT_FOUND("WORK_SITE_NOT_FOUND", "Không tìm thấy địa điểm làm việc"),
+        INVALID_WORK_SITE("INVALID_WORK_SITE", "Vùng địa lý của địa điểm làm việc không hợp lệ"),
+
+        // === REGISTERED DEVICE ===
+        DEVICE_NOT_FOUND("DEVICE_NOT_FOUND", "Không tìm thấy thiết bị"),
+        DEVICE_ALREADY_REGISTERED("DEVICE_ALREADY_REGISTERED", "Thiết bị đã được đăng ký"),
 
         // === ADJUSTMENT REQUEST ===
         ADJUSTMENT_NOT_FOUND("ADJUSTMENT_NOT_FOUND", "Không tìm thấy yêu cầu điều chỉnh"),
@@ -149,6 +165,11 @@ public enum ErrorCode {
         FILE_NOT_FOUND("FILE_NOT_FOUND", "Không tìm thấy file"),
         INVALID_FILE_TYPE("INVALID_FILE_TYPE", "Loại file không hợp lệ"),
 
+        // === REPORT ===
+        REPORT_JOB_NOT_FOUND("REPORT_JOB_NOT_FOUND", "Không tìm thấy job báo cáo"),
+        REPORT_JOB_NOT_READY("REPORT_JOB_NOT_READY", "Báo cáo chưa tạo xong"),
+        REPORT_FILE_EXPIRED("REPORT_FILE_EXPIRED", "File báo cáo đã hết hạn, vui lòng tạo lại"),
+
         // === EMAIL ===
         EMAIL_SEND_FAILED("EMAIL_SEND_FAILED", "Không thể gửi email"),
         EMAIL_TEMPLATE_NOT_FOUND("EMAIL_TEMPLATE_NOT_FOUND", "Không tìm thấy template email"),
@@ -0,0 +1,10 @@
+package com.tamabee.api_hr.enums;
+
+/**
+ * Trạng thái hiện diện trong ngày của nhân viên (bảng hiện diện)
+ */
+public enum PresenceStatus {
+    CHECKED_IN, // Đang làm việc
+    ON_BREAK, // Đang giải lao
+    CHECKED_OUT // Đã check-out
+}
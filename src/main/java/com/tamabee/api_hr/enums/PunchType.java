@@ -0,0 +1,12 @@
+package com.tamabee.api_hr.enums;
+
+/**
+ * Loại punch từ kiosk/thiết bị chấm công.
+ * Thứ tự khai báo là thứ tự áp dụng khi hai punch cùng thời điểm.
+ */
+public enum PunchType {
+    CHECK_IN, // Vào ca
+    BREAK_START, // Bắt đầu giải lao
+    BREAK_END, // Kết thúc giải lao
+    CHECK_OUT // Ra ca
+}
@@ -0,0 +1,12 @@
+package com.tamabee.api_hr.enums;
+
+/**
+ * Trạng thái job/chunk tính lại bản ghi chấm công
+ */
+public enum RecalculationStatus {
+    PENDING, // Chunk đang chờ worker nhận
+    RUNNING, // Đang chạy
+    COMPLETED, // Hoàn thành
+    FAILED, // Có lỗi (chạy tiếp được từ checkpoint)
+    CANCELLED // Đã hủy (chạy tiếp được từ checkpoint)
+}
@@ -0,0 +1,12 @@
+package com.tamabee.api_hr.enums;
+
+/**
+ * Trạng thái job tạo báo cáo
+ */
+public enum ReportJobStatus {
+    PENDING, // Đang chờ worker nhận
+    RUNNING, // Đang tạo file
+    COMPLETED, // File đã sẵn sàng để tải
+    FAILED, // Có lỗi
+    EXPIRED // File đã bị xóa sau thời gian lưu
+}
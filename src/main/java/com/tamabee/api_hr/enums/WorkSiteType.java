@@ -0,0 +1,9 @@
+package com.tamabee.api_hr.enums;
+
+/**
+ * Loại vùng địa lý của địa điểm làm việc
+ */
+public enum WorkSiteType {
+    CIRCLE, // Tâm + bán kính
+    POLYGON // Đa giác (danh sách đỉnh)
+}
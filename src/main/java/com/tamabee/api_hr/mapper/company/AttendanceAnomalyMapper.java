@@ -0,0 +1,37 @@
+package com.tamabee.api_hr.mapper.company;
+
+import com.tamabee.api_hr.dto.response.attendance.AttendanceAnomalyResponse;
+import com.tamabee.api_hr.entity.attendance.AttendanceAnomalyEntity;
+import org.springframework.stereotype.Component;
+
+/**
+ * Mapper chuyển đổi AttendanceAnomalyEntity sang DTO.
+ */
+@Component
+public class AttendanceAnomalyMapper {
+
+    /**
+     * Chuyển entity sang response
+     */
+    public AttendanceAnomalyResponse toResponse(AttendanceAnomalyEntity entity, String employeeName) {
+        if (entity == null) {
+            return null;
+        }
+
+        AttendanceAnomalyResponse response = new AttendanceAnomalyResponse();
+        response.setId(entity.getId());
+        response.setAttendanceRecordId(entity.getAttendanceRecordId());
+        response.setEmployeeId(entity.getEmployeeId());
+        response.setEmployeeName(employeeName);
+        response.setWorkDate(entity.getWorkDate());
+        response.setBreakNumber(entity.getBreakNumber());
+        response.setAnomalyType(entity.getAnomalyType());
+        response.setDetail(entity.getDetail());
+        response.setStatus(entity.getStatus());
+        response.setResolvedBy(entity.getResolvedBy());
+        response.setResolvedAt(entity.getResolvedAt());
+        response.setResolutionNote(entity.getResolutionNote());
+        response.setCreatedAt(entity.getCreatedAt());
+        return response;
+    }
+}
@@ -7,6 +7,7 @@ import com.tamabee.api_hr.dto.request.attendance.CheckInRequest;
 import com.tamabee.api_hr.dto.response.attendance.*;
 import com.tamabee.api_hr.dto.response.payroll.AppliedSettingsSnapshot;
 import com.tamabee.api_hr.dto.response.payroll.RoundingConfigSnapshot;
+import com.tamabee.api_hr.entity.attendance.AttendanceMonthlyAggregateEntity;
 import com.tamabee.api_hr.entity.attendance.AttendanceRecordEntity;
 import com.tamabee.api_hr.entity.attendance.BreakRecordEntity;
 import com.tamabee.api_hr.enums.AttendanceStatus;
@@ -285,4 +286,31 @@ public class AttendanceMapper {
                 .totalOvertimeHours(totalOvertimeMinutes / 60.0)
                 .build();
     }
+
+    /**
+     * Tạo AttendanceSummaryResponse từ dòng tổng hợp tháng (cùng kết quả với bản quét danh sách bản ghi)
+     */
+    public AttendanceSummaryResponse toSummaryResponse(
+            Long employeeId,
+            String employeeName,
+            YearMonth period,
+            AttendanceMonthlyAggregateEntity aggregate) {
+
+        return AttendanceSummaryResponse.builder()
+                .employeeId(employeeId)
+                .employeeName(employeeName)
+                .period(period)
+                .totalWorkingDays(aggregate.getRecordCount())
+                .presentDays(aggregate.getPresentDays())
+                .absentDays(aggregate.getAbsentDays())
+                .leaveDays(aggregate.getLeaveDays())
+                .holidayDays(aggregate.getHolidayDays())
+                .totalWorkingMinutes(aggregate.getTotalWorkingMinutes())
+                .totalOvertimeMinutes(aggregate.getTotalOvertimeMinutes())
+                .totalLateMinutes(aggregate.getTotalLateMinutes())
+                .totalEarlyLeaveMinutes(aggregate.getTotalEarlyLeaveMinutes())
+                .totalWorkingHours(aggregate.getTotalWorkingMinutes() / 60.0)
+                .totalOvertimeHours(aggregate.getTotalOvertimeMinutes() / 60.0)
+                .build();
+    }
 }
@@ -111,6 +111,15 @@ public class CompanySettingMapper {
         if (request.getAllowWebCheckIn() != null) {
             config.setAllowWebCheckIn(request.getAllowWebCheckIn());
         }
+        if (request.getAutoCloseEnabled() != null) {
+            config.setAutoCloseEnabled(request.getAutoCloseEnabled());
+        }
+        if (request.getAutoClosePolicy() != null) {
+            config.setAutoClosePolicy(request.getAutoClosePolicy());
+        }
+        if (request.getMaxShiftHours() != null) {
+            config.setMaxShiftHours(request.getMaxShiftHours());
+        }
 
         entity.setAttendanceConfig(serializeConfig(config));
     }
@@ -0,0 +1,45 @@
+package com.tamabee.api_hr.mapper.company;
+
+import com.tamabee.api_hr.dto.request.attendance.RegisterDeviceRequest;
+import com.tamabee.api_hr.dto.response.attendance.RegisteredDeviceResponse;
+import com.tamabee.api_hr.entity.attendance.RegisteredDeviceEntity;
+import org.springframework.stereotype.Component;
+
+/**
+ * Mapper chuyển đổi giữa RegisteredDeviceEntity và DTO.
+ */
+@Component
+public class RegisteredDeviceMapper {
+
+    /**
+     * Chuyển request đăng ký sang entity
+     */
+    public RegisteredDeviceEntity toEntity(RegisterDeviceRequest request) {
+        if (request == null) {
+            return null;
+        }
+
+        RegisteredDeviceEntity entity = new RegisteredDeviceEntity();
+        entity.setDeviceId(request.getDeviceId().trim());
+        entity.setName(request.getName());
+        return entity;
+    }
+
+    /**
+     * Chuyển entity sang response
+     */
+    public RegisteredDeviceResponse toResponse(RegisteredDeviceEntity entity) {
+        if (entity == null) {
+            return null;
+        }
+
+        RegisteredDeviceResponse response = new RegisteredDeviceResponse();
+        response.setId(entity.getId());
+        response.setDeviceId(entity.getDeviceId());
+        response.setName(entity.getName());
+        response.setRevoked(entity.getRevoked());
+        response.setRevokedAt(entity.getRevokedAt());
+        response.setCreatedAt(entity.getCreatedAt());
+        return response;
+    }
+}
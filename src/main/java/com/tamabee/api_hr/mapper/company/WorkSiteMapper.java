@@ -0,0 +1,122 @@
+package com.tamabee.api_hr.mapper.company;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tamabee.api_hr.dto.config.GeoPoint;
+import com.tamabee.api_hr.dto.request.attendance.WorkSiteRequest;
+import com.tamabee.api_hr.dto.response.attendance.WorkSiteResponse;
+import com.tamabee.api_hr.entity.attendance.WorkSiteEntity;
+import com.tamabee.api_hr.enums.WorkSiteType;
+import com.tamabee.api_hr.exception.InternalServerException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Mapper chuyển đổi giữa WorkSiteEntity và DTO.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class WorkSiteMapper {
+
+    private static final TypeReference<List<GeoPoint>> POLYGON_TYPE = new TypeReference<>() {
+    };
+
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Chuyển request sang entity mới
+     */
+    public WorkSiteEntity toEntity(WorkSiteRequest request) {
+        if (request == null) {
+            return null;
+        }
+
+        WorkSiteEntity entity = new WorkSiteEntity();
+        updateEntity(entity, request);
+        entity.setIsActive(request.getIsActive() != null ? request.getIsActive() : true);
+        return entity;
+    }
+
+    /**
+     * Cập nhật entity từ request (ghi đè vùng địa lý theo loại)
+     */
+    public void updateEntity(WorkSiteEntity entity, WorkSiteRequest request) {
+        if (entity == null || request == null) {
+            return;
+        }
+
+        entity.setName(request.getName());
+        entity.setType(request.getType());
+        if (request.getType() == WorkSiteType.CIRCLE) {
+            entity.setLatitude(request.getLatitude());
+            entity.setLongitude(request.getLongitude());
+            entity.setRadiusMeters(request.getRadiusMeters());
+            entity.setPolygon(null);
+        } else {
+            entity.setLatitude(null);
+            entity.setLongitude(null);
+            entity.setRadiusMeters(null);
+            entity.setPolygon(serializePolygon(request.getPolygon()));
+        }
+        if (request.getIsActive() != null) {
+            entity.setIsActive(request.getIsActive());
+        }
+    }
+
+    /**
+     * Chuyển entity sang response
+     */
+    public WorkSiteResponse toResponse(WorkSiteEntity entity) {
+        if (entity == null) {
+            return null;
+        }
+
+        WorkSiteResponse response = new WorkSiteResponse();
+        response.setId(entity.getId());
+        response.setName(entity.getName());
+        response.setType(entity.getType());
+        response.setLatitude(entity.getLatitude());
+        response.setLongitude(entity.getLongitude());
+        response.setRadiusMeters(entity.getRadiusMeters());
+        response.setPolygon(deserializePolygon(entity.getPolygon()));
+        response.setIsActive(entity.getIsActive());
+        response.setCreatedAt(entity.getCreatedAt());
+        response.setUpdatedAt(entity.getUpdatedAt());
+        return response;
+    }
+
+    /**
+     * Serialize danh sách đỉnh đa giác thành JSON string
+     */
+    private String serializePolygon(List<GeoPoint> polygon) {
+        if (polygon == null) {
+            return null;
+        }
+        try {
+            return objectMapper.writeValueAsString(polygon);
+        } catch (JsonProcessingException e) {
+            log.error("Lỗi serialize polygon: {}", e.getMessage());
+            throw new InternalServerException("Lỗi serialize polygon", e);
+        }
+    }
+
+    /**
+     * Deserialize JSON string thành danh sách đỉnh đa giác
+     */
+    public List<GeoPoint> deserializePolygon(String json) {
+        if (json == null || json.isEmpty()) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(json, POLYGON_TYPE);
+        } catch (JsonProcessingException e) {
+            log.error("Lỗi deserialize polygon: {}", e.getMessage());
+            throw new InternalServerException("Lỗi deserialize polygon", e);
+        }
+    }
+}
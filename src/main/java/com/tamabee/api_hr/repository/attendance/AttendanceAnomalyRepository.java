@@ -0,0 +1,26 @@
+package com.tamabee.api_hr.repository.attendance;
+
+import com.tamabee.api_hr.entity.attendance.AttendanceAnomalyEntity;
+import com.tamabee.api_hr.enums.AnomalyStatus;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository quản lý bất thường chấm công.
+ */
+@Repository
+public interface AttendanceAnomalyRepository extends JpaRepository<AttendanceAnomalyEntity, Long> {
+
+        /**
+         * Lấy danh sách bất thường theo trạng thái (phân trang)
+         */
+        Page<AttendanceAnomalyEntity> findByStatus(AnomalyStatus status, Pageable pageable);
+
+        /**
+         * Lấy danh sách bất thường của nhân viên theo trạng thái (phân trang)
+         */
+        Page<AttendanceAnomalyEntity> findByEmployeeIdAndStatus(Long employeeId, AnomalyStatus status,
+                        Pageable pageable);
+}
@@ -0,0 +1,20 @@
+package com.tamabee.api_hr.repository.attendance;
+
+import com.tamabee.api_hr.entity.attendance.AttendanceMonthlyAggregateEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+/**
+ * Repository đọc tổng hợp chấm công theo nhân viên-tháng.
+ */
+@Repository
+public interface AttendanceMonthlyAggregateRepository extends JpaRepository<AttendanceMonthlyAggregateEntity, Long> {
+
+        /**
+         * Tìm tổng hợp của nhân viên trong một tháng
+         */
+        Optional<AttendanceMonthlyAggregateEntity> findByEmployeeIdAndYearAndMonth(
+                        Long employeeId, Integer year, Integer month);
+}
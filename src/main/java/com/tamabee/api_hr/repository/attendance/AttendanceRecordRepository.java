@@ -5,6 +5,7 @@ import com.tamabee.api_hr.enums.AttendanceStatus;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -17,7 +18,8 @@ import java.util.Optional;
  * Repository quản lý bản ghi chấm công của nhân viên.
  */
 @Repository
-public interface AttendanceRecordRepository extends JpaRepository<AttendanceRecordEntity, Long> {
+public interface AttendanceRecordRepository
+                extends JpaRepository<AttendanceRecordEntity, Long>, JpaSpecificationExecutor<AttendanceRecordEntity> {
 
         /**
          * Tìm bản ghi chấm công của nhân viên theo ngày
@@ -36,6 +38,16 @@ public interface AttendanceRecordRepository extends JpaRepository<AttendanceReco
                         @Param("endDate") LocalDate endDate,
                         Pageable pageable);
 
+        /**
+         * Lấy tất cả chấm công trong khoảng thời gian (không phân trang, dùng cho tính toán hàng loạt)
+         */
+        @Query("SELECT a FROM AttendanceRecordEntity a " +
+                        "WHERE a.workDate BETWEEN :startDate AND :endDate " +
+                        "ORDER BY a.employeeId ASC, a.workDate DESC")
+        List<AttendanceRecordEntity> findAllByWorkDateBetween(
+                        @Param("startDate") LocalDate startDate,
+                        @Param("endDate") LocalDate endDate);
+
         /**
          * Lấy danh sách chấm công của nhân viên trong khoảng thời gian
          */
@@ -95,9 +107,4 @@ public interface AttendanceRecordRepository extends JpaRepository<AttendanceReco
                         @Param("employeeId") Long employeeId,
                         @Param("startDate") LocalDate startDate,
                         @Param("endDate") LocalDate endDate);
-
-        /**
-         * Kiểm tra nhân viên đã chấm công ngày hôm nay chưa
-         */
-        boolean existsByEmployeeIdAndWorkDate(Long employeeId, LocalDate workDate);
 }
@@ -0,0 +1,22 @@
+package com.tamabee.api_hr.repository.attendance;
+
+import com.tamabee.api_hr.entity.attendance.BreakRecordEntity;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Thao tác ghi giải lao cần chạy trong một lệnh SQL (giới hạn số lần và breakNumber tính cùng lúc insert).
+ */
+public interface BreakRecordInsertRepository {
+
+    /**
+     * Tạo lần giải lao tiếp theo của bản ghi chấm công: breakNumber = max + 1, chỉ insert khi số lần giải lao
+     * trong ngày còn dưới maxBreaksPerDay.
+     *
+     * @return bản ghi vừa tạo; rỗng nếu đã đủ số lần hoặc request đồng thời vừa tạo cùng breakNumber
+     */
+    Optional<BreakRecordEntity> insertNextBreak(Long attendanceRecordId, Long employeeId, LocalDate workDate,
+            LocalDateTime breakStart, String notes, int maxBreaksPerDay);
+}
@@ -0,0 +1,43 @@
+package com.tamabee.api_hr.repository.attendance;
+
+import com.tamabee.api_hr.entity.attendance.BreakRecordEntity;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.jdbc.core.BeanPropertyRowMapper;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Cài đặt {@link BreakRecordInsertRepository} bằng JDBC trên tenant DB
+ */
+@RequiredArgsConstructor
+public class BreakRecordInsertRepositoryImpl implements BreakRecordInsertRepository {
+
+    private static final String INSERT_BREAK_START_SQL = """
+            INSERT INTO break_records (attendance_record_id, employee_id, work_date, break_number,
+                break_start, notes, created_at, updated_at)
+            SELECT ?, ?, ?, COALESCE(MAX(break_number), 0) + 1, ?, ?, ?, ?
+            FROM break_records
+            WHERE attendance_record_id = ? AND work_date = ?
+            HAVING COUNT(*) < ?
+            ON CONFLICT (attendance_record_id, work_date, break_number) DO NOTHING
+            RETURNING *
+            """;
+
+    @Qualifier("tenantJdbcTemplate")
+    private final JdbcTemplate tenantJdbcTemplate;
+
+    @Override
+    public Optional<BreakRecordEntity> insertNextBreak(Long attendanceRecordId, Long employeeId, LocalDate workDate,
+            LocalDateTime breakStart, String notes, int maxBreaksPerDay) {
+        return tenantJdbcTemplate.query(INSERT_BREAK_START_SQL,
+                new BeanPropertyRowMapper<>(BreakRecordEntity.class),
+                attendanceRecordId, employeeId, workDate, breakStart, notes, breakStart, breakStart,
+                attendanceRecordId, workDate, maxBreaksPerDay)
+                .stream()
+                .findFirst();
+    }
+}
@@ -14,7 +14,7 @@ import java.util.Optional;
  * Repository quản lý bản ghi giờ giải lao của nhân viên.
  */
 @Repository
-public interface BreakRecordRepository extends JpaRepository<BreakRecordEntity, Long> {
+public interface BreakRecordRepository extends JpaRepository<BreakRecordEntity, Long>, BreakRecordInsertRepository {
 
         /**
          * Lấy danh sách bản ghi giải lao theo bản ghi chấm công
@@ -57,11 +57,6 @@ public interface BreakRecordRepository extends JpaRepository<BreakRecordEntity,
                         @Param("employeeId") Long employeeId,
                         @Param("workDate") LocalDate workDate);
 
-        /**
-         * Đếm số breaks của một attendance record
-         */
-        long countByAttendanceRecordId(Long attendanceRecordId);
-
         /**
          * Lấy breakNumber lớn nhất của một attendance record
          */
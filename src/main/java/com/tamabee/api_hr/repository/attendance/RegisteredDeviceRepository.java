@@ -0,0 +1,44 @@
+package com.tamabee.api_hr.repository.attendance;
+
+import com.tamabee.api_hr.entity.attendance.RegisteredDeviceEntity;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repository quản lý thiết bị chấm công đã đăng ký.
+ */
+@Repository
+public interface RegisteredDeviceRepository extends JpaRepository<RegisteredDeviceEntity, Long> {
+
+        /**
+         * Tìm thiết bị theo ID (chưa bị thu hồi)
+         */
+        Optional<RegisteredDeviceEntity> findByIdAndRevokedFalse(Long id);
+
+        /**
+         * Kiểm tra thiết bị đã được đăng ký (chưa thu hồi) chưa
+         */
+        boolean existsByDeviceIdAndRevokedFalse(String deviceId);
+
+        /**
+         * Kiểm tra công ty có thiết bị đã thu hồi không
+         */
+        boolean existsByRevokedTrue();
+
+        /**
+         * Lấy danh sách thiết bị chưa thu hồi (phân trang)
+         */
+        Page<RegisteredDeviceEntity> findByRevokedFalse(Pageable pageable);
+
+        /**
+         * Lấy ID của tất cả thiết bị chưa thu hồi (dùng để build bộ lọc thiết bị)
+         */
+        @Query("SELECT d.deviceId FROM RegisteredDeviceEntity d WHERE d.revoked = false")
+        List<String> findActiveDeviceIds();
+}
@@ -1,5 +1,6 @@
 package com.tamabee.api_hr.repository.attendance;
 
+import com.tamabee.api_hr.dto.result.ShiftAssignmentStatusCount;
 import com.tamabee.api_hr.entity.attendance.ShiftAssignmentEntity;
 import com.tamabee.api_hr.enums.ShiftAssignmentStatus;
 import org.springframework.data.domain.Page;
@@ -11,6 +12,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -96,4 +98,30 @@ public interface ShiftAssignmentRepository
         List<ShiftAssignmentEntity> findAvailableForSwap(
                         @Param("excludeEmployeeId") Long excludeEmployeeId,
                         @Param("workDate") LocalDate workDate);
+
+        /**
+         * Đếm phân ca trong khoảng ngày theo (shift template, status), không load entity
+         */
+        @Query("SELECT new com.tamabee.api_hr.dto.result.ShiftAssignmentStatusCount(" +
+                        "sa.shiftTemplateId, sa.status, COUNT(sa)) " +
+                        "FROM ShiftAssignmentEntity sa " +
+                        "WHERE sa.workDate BETWEEN :startDate AND :endDate " +
+                        "GROUP BY sa.shiftTemplateId, sa.status")
+        List<ShiftAssignmentStatusCount> countByWorkDateBetweenGroupByTemplateAndStatus(
+                        @Param("startDate") LocalDate startDate,
+                        @Param("endDate") LocalDate endDate);
+
+        /**
+         * Đếm phân ca của các shift template trong khoảng ngày theo (shift template, status), không load entity
+         */
+        @Query("SELECT new com.tamabee.api_hr.dto.result.ShiftAssignmentStatusCount(" +
+                        "sa.shiftTemplateId, sa.status, COUNT(sa)) " +
+                        "FROM ShiftAssignmentEntity sa " +
+                        "WHERE sa.workDate BETWEEN :startDate AND :endDate " +
+                        "AND sa.shiftTemplateId IN :shiftTemplateIds " +
+                        "GROUP BY sa.shiftTemplateId, sa.status")
+        List<ShiftAssignmentStatusCount> countByWorkDateBetweenAndTemplateIdsGroupByTemplateAndStatus(
+                        @Param("startDate") LocalDate startDate,
+                        @Param("endDate") LocalDate endDate,
+                        @Param("shiftTemplateIds") Collection<Long> shiftTemplateIds);
 }
@@ -1,5 +1,6 @@
 package com.tamabee.api_hr.repository.attendance;
 
+import com.tamabee.api_hr.dto.result.SwapRequestStatusCount;
 import com.tamabee.api_hr.entity.attendance.ShiftSwapRequestEntity;
 import com.tamabee.api_hr.enums.SwapRequestStatus;
 import org.springframework.data.domain.Page;
@@ -10,6 +11,8 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -82,4 +85,30 @@ public interface ShiftSwapRequestRepository
         boolean existsPendingSwapBetweenAssignments(
                         @Param("assignment1Id") Long assignment1Id,
                         @Param("assignment2Id") Long assignment2Id);
+
+        /**
+         * Đếm yêu cầu đổi ca tạo trong [from, to) theo status, không load entity
+         */
+        @Query("SELECT new com.tamabee.api_hr.dto.result.SwapRequestStatusCount(ssr.status, COUNT(ssr)) " +
+                        "FROM ShiftSwapRequestEntity ssr " +
+                        "WHERE ssr.createdAt >= :from AND ssr.createdAt < :to " +
+                        "GROUP BY ssr.status")
+        List<SwapRequestStatusCount> countByCreatedAtRangeGroupByStatus(
+                        @Param("from") LocalDateTime from,
+                        @Param("to") LocalDateTime to);
+
+        /**
+         * Đếm yêu cầu đổi ca tạo trong [from, to) theo status, chỉ tính yêu cầu có ca của người yêu cầu
+         * thuộc các shift template
+         */
+        @Query("SELECT new com.tamabee.api_hr.dto.result.SwapRequestStatusCount(ssr.status, COUNT(ssr)) " +
+                        "FROM ShiftSwapRequestEntity ssr " +
+                        "WHERE ssr.createdAt >= :from AND ssr.createdAt < :to " +
+                        "AND EXISTS (SELECT 1 FROM ShiftAssignmentEntity sa " +
+                        "WHERE sa.id = ssr.requesterAssignmentId AND sa.shiftTemplateId IN :shiftTemplateIds) " +
+                        "GROUP BY ssr.status")
+        List<SwapRequestStatusCount> countByCreatedAtRangeAndTemplateIdsGroupByStatus(
+                        @Param("from") LocalDateTime from,
+                        @Param("to") LocalDateTime to,
+                        @Param("shiftTemplateIds") Collection<Long> shiftTemplateIds);
 }
@@ -0,0 +1,37 @@
+package com.tamabee.api_hr.repository.attendance;
+
+import com.tamabee.api_hr.entity.attendance.WorkSiteEntity;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repository quản lý địa điểm làm việc.
+ */
+@Repository
+public interface WorkSiteRepository extends JpaRepository<WorkSiteEntity, Long> {
+
+        /**
+         * Tìm địa điểm theo ID (chưa bị xóa)
+         */
+        Optional<WorkSiteEntity> findByIdAndDeletedFalse(Long id);
+
+        /**
+         * Lấy danh sách địa điểm (phân trang)
+         */
+        Page<WorkSiteEntity> findByDeletedFalse(Pageable pageable);
+
+        /**
+         * Lấy tất cả địa điểm đang hoạt động (dùng để build geo-fence index)
+         */
+        List<WorkSiteEntity> findByDeletedFalseAndIsActiveTrue();
+
+        /**
+         * Kiểm tra công ty đã có địa điểm nào chưa (kể cả địa điểm tạm dừng)
+         */
+        boolean existsByDeletedFalse();
+}
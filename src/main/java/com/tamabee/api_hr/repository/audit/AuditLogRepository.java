@@ -6,6 +6,7 @@ import com.tamabee.api_hr.enums.AuditEntityType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -17,7 +18,8 @@ import java.util.List;
  * Repository cho AuditLogEntity.
  */
 @Repository
-public interface AuditLogRepository extends JpaRepository<AuditLogEntity, Long> {
+public interface AuditLogRepository
+                extends JpaRepository<AuditLogEntity, Long>, JpaSpecificationExecutor<AuditLogEntity> {
 
         // Tìm tất cả audit logs (phân trang)
         Page<AuditLogEntity> findAllByOrderByTimestampDesc(Pageable pageable);
@@ -29,6 +29,16 @@ public interface EmployeeSalaryRepository extends JpaRepository<EmployeeSalaryEn
                         @Param("employeeId") Long employeeId,
                         @Param("date") LocalDate date);
 
+        /**
+         * Lấy thông tin lương có hiệu lực tại ngày chỉ định của tất cả nhân viên
+         * Sắp xếp theo nhân viên, bản ghi mới nhất trước
+         */
+        @Query("SELECT s FROM EmployeeSalaryEntity s WHERE s.deleted = false " +
+                        "AND s.effectiveFrom <= :date " +
+                        "AND (s.effectiveTo IS NULL OR s.effectiveTo >= :date) " +
+                        "ORDER BY s.employeeId ASC, s.effectiveFrom DESC")
+        List<EmployeeSalaryEntity> findAllEffectiveSalaries(@Param("date") LocalDate date);
+
         /**
          * Tìm thông tin lương mới nhất của nhân viên
          */
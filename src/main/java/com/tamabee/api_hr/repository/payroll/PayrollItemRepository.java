@@ -5,11 +5,13 @@ import com.tamabee.api_hr.enums.PayrollItemStatus;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -42,6 +44,25 @@ public interface PayrollItemRepository extends JpaRepository<PayrollItemEntity,
          */
         Page<PayrollItemEntity> findByEmployeeId(Long employeeId, Pageable pageable);
 
+        /**
+         * Lấy ID payroll items của một period (không load entity)
+         */
+        @Query("SELECT pi.id FROM PayrollItemEntity pi WHERE pi.payrollPeriodId = :payrollPeriodId")
+        List<Long> findIdsByPayrollPeriodId(@Param("payrollPeriodId") Long payrollPeriodId);
+
+        /**
+         * Cập nhật status của tất cả payroll items trong period bằng một câu UPDATE
+         *
+         * @return số items được cập nhật
+         */
+        @Modifying(flushAutomatically = true, clearAutomatically = true)
+        @Query("UPDATE PayrollItemEntity pi SET pi.status = :status, pi.updatedAt = :updatedAt " +
+                        "WHERE pi.payrollPeriodId = :payrollPeriodId")
+        int updateStatusByPayrollPeriodId(
+                        @Param("payrollPeriodId") Long payrollPeriodId,
+                        @Param("status") PayrollItemStatus status,
+                        @Param("updatedAt") LocalDateTime updatedAt);
+
         /**
          * Lấy payroll items theo status
          */
@@ -1,5 +1,7 @@
 package com.tamabee.api_hr.repository.payroll;
 
+import com.tamabee.api_hr.dto.result.PayrollFinalizationInfo;
+import com.tamabee.api_hr.dto.result.PayrollStatusAggregate;
 import com.tamabee.api_hr.entity.payroll.PayrollRecordEntity;
 import com.tamabee.api_hr.enums.PayrollStatus;
 import org.springframework.data.domain.Page;
@@ -9,6 +11,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -39,6 +42,36 @@ public interface PayrollRecordRepository extends JpaRepository<PayrollRecordEnti
                         @Param("year") Integer year,
                         @Param("month") Integer month);
 
+        /**
+         * Tổng hợp bản ghi lương của kỳ theo trạng thái (không load entity).
+         * Mỗi dòng là một nhóm (status, paymentStatus, notificationSent).
+         */
+        @Query("SELECT new com.tamabee.api_hr.dto.result.PayrollStatusAggregate(" +
+                        "p.status, p.paymentStatus, p.notificationSent, COUNT(p), " +
+                        "SUM(p.baseSalary), SUM(p.totalOvertimePay), SUM(p.totalAllowances), " +
+                        "SUM(p.totalDeductions), SUM(p.grossSalary), SUM(p.netSalary)) " +
+                        "FROM PayrollRecordEntity p " +
+                        "WHERE p.year = :year AND p.month = :month " +
+                        "GROUP BY p.status, p.paymentStatus, p.notificationSent")
+        List<PayrollStatusAggregate> aggregateByYearAndMonth(
+                        @Param("year") Integer year,
+                        @Param("month") Integer month);
+
+        /**
+         * Lấy thông tin finalize sớm nhất của kỳ (finalizedAt và finalizedBy cùng một bản ghi).
+         * Truyền PageRequest.of(0, 1) để chỉ lấy một dòng.
+         */
+        @Query("SELECT new com.tamabee.api_hr.dto.result.PayrollFinalizationInfo(p.finalizedAt, p.finalizedBy) " +
+                        "FROM PayrollRecordEntity p " +
+                        "WHERE p.year = :year AND p.month = :month " +
+                        "AND p.status IN :statuses AND p.finalizedAt IS NOT NULL " +
+                        "ORDER BY p.finalizedAt ASC, p.id ASC")
+        List<PayrollFinalizationInfo> findEarliestFinalization(
+                        @Param("year") Integer year,
+                        @Param("month") Integer month,
+                        @Param("statuses") Collection<PayrollStatus> statuses,
+                        Pageable pageable);
+
         /**
          * Tìm bản ghi lương của nhân viên theo kỳ
          */
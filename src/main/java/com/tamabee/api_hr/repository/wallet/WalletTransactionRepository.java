@@ -5,6 +5,7 @@ import com.tamabee.api_hr.enums.TransactionType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -16,7 +17,8 @@ import java.time.LocalDateTime;
  * Repository cho quản lý lịch sử giao dịch ví
  */
 @Repository
-public interface WalletTransactionRepository extends JpaRepository<WalletTransactionEntity, Long> {
+public interface WalletTransactionRepository
+                extends JpaRepository<WalletTransactionEntity, Long>, JpaSpecificationExecutor<WalletTransactionEntity> {
 
         /**
          * Lấy danh sách transactions theo walletId (phân trang, sắp xếp theo createdAt
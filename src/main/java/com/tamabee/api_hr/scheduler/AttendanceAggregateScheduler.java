@@ -0,0 +1,76 @@
+package com.tamabee.api_hr.scheduler;
+
+import com.tamabee.api_hr.datasource.TenantContext;
+import com.tamabee.api_hr.datasource.TenantDataSourceManager;
+import com.tamabee.api_hr.service.company.interfaces.IAttendanceAggregateService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.YearMonth;
+
+/**
+ * Scheduled job đối soát tổng hợp chấm công theo tháng.
+ * Chạy vào 01:15 mỗi ngày, dựng lại tháng hiện tại và tháng trước cho từng tenant
+ * (bù cho dữ liệu bị sửa ngoài luồng ứng dụng, VD: SQL tay).
+ * Định kỳ làm mới lại các nhân viên-tháng có lần làm mới sau commit bị lỗi (mọi tháng, không chỉ hai tháng gần nhất).
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class AttendanceAggregateScheduler {
+
+    private final TenantDataSourceManager tenantDataSourceManager;
+    private final IAttendanceAggregateService attendanceAggregateService;
+
+    /**
+     * Dựng lại tổng hợp chấm công tháng hiện tại và tháng trước
+     * Chạy vào 01:15 mỗi ngày (cron: giây phút giờ ngày tháng thứ)
+     */
+    @Scheduled(cron = "0 15 1 * * *")
+    public void rebuildRecentAggregates() {
+        log.info("=== BẮT ĐẦU SCHEDULED JOB: Attendance Aggregate Rebuild ===");
+        YearMonth currentMonth = YearMonth.now();
+        int tenants = 0;
+        int failures = 0;
+
+        for (String tenantDomain : tenantDataSourceManager.getAllDataSources().keySet()) {
+            try {
+                TenantContext.setCurrentTenant(tenantDomain);
+                attendanceAggregateService.rebuild(currentMonth.minusMonths(1));
+                attendanceAggregateService.rebuild(currentMonth);
+                tenants++;
+            } catch (Exception e) {
+                failures++;
+                log.error("Lỗi dựng lại tổng hợp chấm công cho tenant {}: {}", tenantDomain, e.getMessage(), e);
+            } finally {
+                TenantContext.clear();
+            }
+        }
+
+        log.info("=== KẾT THÚC SCHEDULED JOB: Attendance Aggregate Rebuild - {} tenant, {} lỗi ===",
+                tenants, failures);
+    }
+
+    /**
+     * Làm mới lại tổng hợp chấm công trong hàng chờ (làm mới sau commit bị lỗi)
+     */
+    @Scheduled(fixedDelayString = "${attendance.aggregates.retry-interval-ms:300000}",
+            initialDelayString = "${attendance.aggregates.retry-interval-ms:300000}")
+    public void retryPendingRefreshes() {
+        for (String tenantDomain : tenantDataSourceManager.getAllDataSources().keySet()) {
+            try {
+                TenantContext.setCurrentTenant(tenantDomain);
+                int refreshed = attendanceAggregateService.retryPendingRefreshes();
+                if (refreshed > 0) {
+                    log.info("Đã làm mới lại {} tổng hợp chấm công cho tenant {}", refreshed, tenantDomain);
+                }
+            } catch (Exception e) {
+                log.error("Lỗi làm mới lại tổng hợp chấm công cho tenant {}: {}", tenantDomain, e.getMessage(), e);
+            } finally {
+                TenantContext.clear();
+            }
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.tamabee.api_hr.scheduler;
+
+import com.tamabee.api_hr.datasource.TenantContext;
+import com.tamabee.api_hr.datasource.TenantDataSourceManager;
+import com.tamabee.api_hr.service.company.interfaces.IAttendanceAnomalyService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Scheduled job tự động đóng bản ghi quên check-out/kết thúc giải lao và quét bất thường chấm công.
+ * Chạy vào 01:30 mỗi ngày cho từng tenant, trước khi admin xem lại dữ liệu tính lương.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class AttendanceAnomalyScheduler {
+
+    private final TenantDataSourceManager tenantDataSourceManager;
+    private final IAttendanceAnomalyService attendanceAnomalyService;
+
+    /**
+     * Quét bất thường chấm công cho tất cả tenant
+     * Chạy vào 01:30 mỗi ngày (cron: giây phút giờ ngày tháng thứ)
+     */
+    @Scheduled(cron = "0 30 1 * * *")
+    public void scanAnomalies() {
+        log.info("=== BẮT ĐẦU SCHEDULED JOB: Attendance Anomaly Scan ===");
+        int tenants = 0;
+        int failures = 0;
+
+        for (String tenantDomain : tenantDataSourceManager.getAllDataSources().keySet()) {
+            try {
+                TenantContext.setCurrentTenant(tenantDomain);
+                attendanceAnomalyService.scan();
+                tenants++;
+            } catch (Exception e) {
+                failures++;
+                log.error("Lỗi quét bất thường chấm công cho tenant {}: {}", tenantDomain, e.getMessage(), e);
+            } finally {
+                TenantContext.clear();
+            }
+        }
+
+        log.info("=== KẾT THÚC SCHEDULED JOB: Attendance Anomaly Scan - {} tenant, {} lỗi ===",
+                tenants, failures);
+    }
+}
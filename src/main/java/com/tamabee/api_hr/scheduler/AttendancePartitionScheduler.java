@@ -0,0 +1,63 @@
+package com.tamabee.api_hr.scheduler;
+
+import com.tamabee.api_hr.datasource.TenantContext;
+import com.tamabee.api_hr.datasource.TenantDataSourceManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Scheduled job tạo trước partition tháng cho attendance_records/break_records.
+ * Chạy vào 00:45 mỗi ngày, đảm bảo mỗi tenant luôn có partition cho tháng hiện tại
+ * và {@code attendance.partitions.months-ahead} tháng tới (hàm create_attendance_partitions, tenant V2).
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class AttendancePartitionScheduler {
+
+    private static final String CREATE_PARTITIONS_SQL = "SELECT create_attendance_partitions(CURRENT_DATE, ?)";
+
+    private final TenantDataSourceManager tenantDataSourceManager;
+
+    @Qualifier("tenantJdbcTemplate")
+    private final JdbcTemplate tenantJdbcTemplate;
+
+    @Value("${attendance.partitions.months-ahead:3}")
+    private int monthsAhead;
+
+    /**
+     * Tạo partition còn thiếu cho tháng hiện tại và các tháng tới
+     * Chạy vào 00:45 mỗi ngày (cron: giây phút giờ ngày tháng thứ)
+     */
+    @Scheduled(cron = "0 45 0 * * *")
+    public void createUpcomingPartitions() {
+        log.info("=== BẮT ĐẦU SCHEDULED JOB: Attendance Partition Maintenance ===");
+        int created = 0;
+        int failures = 0;
+
+        for (String tenantDomain : tenantDataSourceManager.getAllDataSources().keySet()) {
+            try {
+                TenantContext.setCurrentTenant(tenantDomain);
+                Integer count = tenantJdbcTemplate.queryForObject(CREATE_PARTITIONS_SQL, Integer.class,
+                        monthsAhead + 1);
+                if (count != null && count > 0) {
+                    log.info("Đã tạo {} partition chấm công cho tenant {}", count, tenantDomain);
+                    created += count;
+                }
+            } catch (Exception e) {
+                failures++;
+                log.error("Lỗi tạo partition chấm công cho tenant {}: {}", tenantDomain, e.getMessage(), e);
+            } finally {
+                TenantContext.clear();
+            }
+        }
+
+        log.info("=== KẾT THÚC SCHEDULED JOB: Attendance Partition Maintenance - {} partition, {} lỗi ===",
+                created, failures);
+    }
+}
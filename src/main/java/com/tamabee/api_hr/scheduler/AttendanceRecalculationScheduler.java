@@ -0,0 +1,44 @@
+package com.tamabee.api_hr.scheduler;
+
+import com.tamabee.api_hr.datasource.TenantContext;
+import com.tamabee.api_hr.datasource.TenantDataSourceManager;
+import com.tamabee.api_hr.service.company.interfaces.IAttendanceRecalculationService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Scheduled job chạy tiếp các job tính lại chấm công đang dở.
+ * Chạy định kỳ (mặc định mỗi phút) cho từng tenant: khởi động worker cho job đang chạy mà node này
+ * chưa xử lý, để job tiếp tục sau khi khởi động lại và nhận lại chunk của node đã dừng.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class AttendanceRecalculationScheduler {
+
+    private final TenantDataSourceManager tenantDataSourceManager;
+    private final IAttendanceRecalculationService attendanceRecalculationService;
+
+    /**
+     * Khởi động worker cho các job tính lại chấm công đang chạy
+     */
+    @Scheduled(fixedDelayString = "${attendance.recalculation.resume-interval-ms:60000}",
+            initialDelayString = "${attendance.recalculation.resume-interval-ms:60000}")
+    public void resumeRunningJobs() {
+        for (String tenantDomain : tenantDataSourceManager.getAllDataSources().keySet()) {
+            try {
+                TenantContext.setCurrentTenant(tenantDomain);
+                int resumed = attendanceRecalculationService.resumeRunningJobs();
+                if (resumed > 0) {
+                    log.info("Chạy tiếp {} job tính lại chấm công cho tenant {}", resumed, tenantDomain);
+                }
+            } catch (Exception e) {
+                log.error("Lỗi chạy tiếp job tính lại chấm công cho tenant {}: {}", tenantDomain, e.getMessage(), e);
+            } finally {
+                TenantContext.clear();
+            }
+        }
+    }
+}
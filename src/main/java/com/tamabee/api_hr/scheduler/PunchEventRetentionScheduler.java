@@ -0,0 +1,85 @@
+package com.tamabee.api_hr.scheduler;
+
+import com.tamabee.api_hr.datasource.TenantContext;
+import com.tamabee.api_hr.datasource.TenantDataSourceManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+/**
+ * Scheduled job dọn punch_events cũ (punch từ kiosk và check-in group commit).
+ * Khóa idempotency chỉ cần giữ trong khoảng thiết bị có thể gửi lại, nên các dòng quá
+ * {@code attendance.punch-events.retention-days} ngày được xóa theo từng batch (index created_at, tenant V13).
+ * Chạy vào 02:30 mỗi ngày.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PunchEventRetentionScheduler {
+
+    private static final String DELETE_EXPIRED_SQL = """
+            DELETE FROM punch_events
+            WHERE id IN (SELECT id FROM punch_events WHERE created_at < ? LIMIT ?)
+            """;
+
+    private final TenantDataSourceManager tenantDataSourceManager;
+
+    @Qualifier("tenantJdbcTemplate")
+    private final JdbcTemplate tenantJdbcTemplate;
+
+    @Value("${attendance.punch-events.retention-days:30}")
+    private int retentionDays;
+
+    @Value("${attendance.punch-events.delete-batch-size:5000}")
+    private int deleteBatchSize;
+
+    /**
+     * Xóa punch_events quá thời gian retention cho tất cả tenant
+     * Chạy vào 02:30 mỗi ngày (cron: giây phút giờ ngày tháng thứ)
+     */
+    @Scheduled(cron = "0 30 2 * * *")
+    public void deleteExpiredPunchEvents() {
+        log.info("=== BẮT ĐẦU SCHEDULED JOB: Punch Event Retention ===");
+        Timestamp cutoff = Timestamp.valueOf(LocalDateTime.now().minusDays(retentionDays));
+        long deleted = 0;
+        int failures = 0;
+
+        for (String tenantDomain : tenantDataSourceManager.getAllDataSources().keySet()) {
+            try {
+                TenantContext.setCurrentTenant(tenantDomain);
+                long count = deleteExpired(cutoff);
+                if (count > 0) {
+                    log.info("Đã xóa {} punch event cũ cho tenant {}", count, tenantDomain);
+                    deleted += count;
+                }
+            } catch (Exception e) {
+                failures++;
+                log.error("Lỗi dọn punch event cho tenant {}: {}", tenantDomain, e.getMessage(), e);
+            } finally {
+                TenantContext.clear();
+            }
+        }
+
+        log.info("=== KẾT THÚC SCHEDULED JOB: Punch Event Retention - {} dòng, {} lỗi ===", deleted, failures);
+    }
+
+    /**
+     * Xóa từng batch (mỗi batch một transaction ngắn) đến khi hết dòng quá hạn
+     */
+    private long deleteExpired(Timestamp cutoff) {
+        long total = 0;
+        int count;
+        do {
+            count = tenantJdbcTemplate.update(DELETE_EXPIRED_SQL, cutoff, deleteBatchSize);
+            total += count;
+        } while (count >= deleteBatchSize);
+        return total;
+    }
+}
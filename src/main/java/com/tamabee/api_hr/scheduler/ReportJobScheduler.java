@@ -0,0 +1,85 @@
+package com.tamabee.api_hr.scheduler;
+
+import com.tamabee.api_hr.datasource.TenantContext;
+import com.tamabee.api_hr.datasource.TenantDataSourceManager;
+import com.tamabee.api_hr.service.company.interfaces.IReportJobService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Scheduled job cho xuất báo cáo chạy nền.
+ * - Định kỳ (mặc định mỗi phút): khởi động worker cho job đang chờ mà node này chưa xử lý
+ * (sau khi khởi động lại hoặc node khác dừng giữa chừng)
+ * - Định kỳ (mặc định mỗi 30 giây): gửi heartbeat cho job đang chạy trên node này
+ * - Mỗi giờ: xóa file của các job đã hết hạn
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ReportJobScheduler {
+
+    private final TenantDataSourceManager tenantDataSourceManager;
+    private final IReportJobService reportJobService;
+
+    /**
+     * Khởi động worker cho các job báo cáo đang chờ
+     */
+    @Scheduled(fixedDelayString = "${report.jobs.resume-interval-ms:60000}",
+            initialDelayString = "${report.jobs.resume-interval-ms:60000}")
+    public void resumePendingJobs() {
+        for (String tenantDomain : tenantDataSourceManager.getAllDataSources().keySet()) {
+            try {
+                TenantContext.setCurrentTenant(tenantDomain);
+                int resumed = reportJobService.resumePendingJobs();
+                if (resumed > 0) {
+                    log.info("Chạy tiếp {} job báo cáo cho tenant {}", resumed, tenantDomain);
+                }
+            } catch (Exception e) {
+                log.error("Lỗi chạy tiếp job báo cáo cho tenant {}: {}", tenantDomain, e.getMessage(), e);
+            } finally {
+                TenantContext.clear();
+            }
+        }
+    }
+
+    /**
+     * Gửi heartbeat cho các job báo cáo đang chạy trên node này
+     */
+    @Scheduled(fixedDelayString = "${report.jobs.heartbeat-interval-ms:30000}",
+            initialDelayString = "${report.jobs.heartbeat-interval-ms:30000}")
+    public void heartbeatRunningJobs() {
+        for (String tenantDomain : tenantDataSourceManager.getAllDataSources().keySet()) {
+            try {
+                TenantContext.setCurrentTenant(tenantDomain);
+                reportJobService.heartbeatRunningJobs();
+            } catch (Exception e) {
+                log.error("Lỗi gửi heartbeat job báo cáo cho tenant {}: {}", tenantDomain, e.getMessage(), e);
+            } finally {
+                TenantContext.clear();
+            }
+        }
+    }
+
+    /**
+     * Xóa file báo cáo hết hạn
+     * Chạy vào phút 15 mỗi giờ
+     */
+    @Scheduled(cron = "0 15 * * * *")
+    public void expireCompletedJobs() {
+        log.info("=== BẮT ĐẦU SCHEDULED JOB: Report File Expiry ===");
+        int total = 0;
+        for (String tenantDomain : tenantDataSourceManager.getAllDataSources().keySet()) {
+            try {
+                TenantContext.setCurrentTenant(tenantDomain);
+                total += reportJobService.expireCompletedJobs();
+            } catch (Exception e) {
+                log.error("Lỗi xóa file báo cáo hết hạn cho tenant {}: {}", tenantDomain, e.getMessage(), e);
+            } finally {
+                TenantContext.clear();
+            }
+        }
+        log.info("=== KẾT THÚC SCHEDULED JOB: Report File Expiry - {} job hết hạn ===", total);
+    }
+}
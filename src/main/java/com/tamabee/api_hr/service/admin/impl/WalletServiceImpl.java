@@ -2,13 +2,21 @@ package com.tamabee.api_hr.service.admin.impl;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.tamabee.api_hr.dto.common.CursorPage;
 import com.tamabee.api_hr.dto.request.wallet.RefundRequest;
 import com.tamabee.api_hr.dto.request.wallet.TransactionFilterRequest;
 import com.tamabee.api_hr.dto.response.wallet.WalletOverviewResponse;
@@ -31,8 +39,10 @@ import com.tamabee.api_hr.repository.user.UserRepository;
 import com.tamabee.api_hr.repository.wallet.WalletRepository;
 import com.tamabee.api_hr.repository.wallet.WalletTransactionRepository;
 import com.tamabee.api_hr.service.admin.interfaces.IWalletService;
+import com.tamabee.api_hr.util.CursorCodec;
 import com.tamabee.api_hr.util.SecurityUtil;
 
+import jakarta.persistence.criteria.Predicate;
 import lombok.RequiredArgsConstructor;
 
 /**
@@ -52,6 +62,11 @@ public class WalletServiceImpl implements IWalletService {
     private final WalletTransactionMapper walletTransactionMapper;
     private final SecurityUtil securityUtil;
 
+    private static final String TRANSACTION_CURSOR_SCOPE = "wallet-transactions";
+
+    // Keyset: khớp index (wallet_id, created_at DESC, id DESC) của wallet_transactions
+    private static final Sort TRANSACTION_KEYSET_SORT = Sort.by(Sort.Direction.DESC, "createdAt", "id");
+
     // ==================== View Operations ====================
 
     @Override
@@ -269,6 +284,25 @@ public class WalletServiceImpl implements IWalletService {
         return transactions.map(walletTransactionMapper::toResponse);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<WalletTransactionResponse> scrollTransactionsByWalletId(Long walletId,
+            TransactionFilterRequest filter, String cursor, int size, boolean includeTotal) {
+        Specification<WalletTransactionEntity> spec = buildTransactionSpec(walletId, filter);
+        CursorCodec.Key key = CursorCodec.decode(TRANSACTION_CURSOR_SCOPE, cursor);
+        ScrollPosition position = key == null
+                ? ScrollPosition.keyset()
+                : ScrollPosition.forward(Map.of("createdAt", key.dateTimeValue(), "id", key.id()));
+
+        Window<WalletTransactionEntity> window = walletTransactionRepository.findBy(spec,
+                query -> query.sortBy(TRANSACTION_KEYSET_SORT).limit(CursorPage.clampSize(size)).scroll(position));
+        Long total = includeTotal ? walletTransactionRepository.count(spec) : null;
+
+        return CursorPage.of(window,
+                entity -> CursorCodec.encode(TRANSACTION_CURSOR_SCOPE, entity.getCreatedAt(), entity.getId()),
+                entities -> entities.stream().map(walletTransactionMapper::toResponse).toList(), total);
+    }
+
     @Override
     @Transactional(readOnly = true)
     public Page<WalletTransactionResponse> getTransactionsByCompanyId(Long companyId, TransactionFilterRequest filter,
@@ -352,6 +386,27 @@ public class WalletServiceImpl implements IWalletService {
         }
     }
 
+    /**
+     * Điều kiện lọc transactions của wallet cho phân trang keyset
+     */
+    private Specification<WalletTransactionEntity> buildTransactionSpec(Long walletId,
+            TransactionFilterRequest filter) {
+        return (root, criteriaQuery, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            predicates.add(cb.equal(root.get("walletId"), walletId));
+            if (filter != null && filter.getTransactionType() != null) {
+                predicates.add(cb.equal(root.get("transactionType"), filter.getTransactionType()));
+            }
+            if (filter != null && filter.getFromDate() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("createdAt"), filter.getFromDate()));
+            }
+            if (filter != null && filter.getToDate() != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("createdAt"), filter.getToDate()));
+            }
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
     /**
      * Query transactions theo companyId với filter
      */
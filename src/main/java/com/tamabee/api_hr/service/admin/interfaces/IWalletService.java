@@ -1,5 +1,6 @@
 package com.tamabee.api_hr.service.admin.interfaces;
 
+import com.tamabee.api_hr.dto.common.CursorPage;
 import com.tamabee.api_hr.dto.request.wallet.RefundRequest;
 import com.tamabee.api_hr.dto.request.wallet.TransactionFilterRequest;
 import com.tamabee.api_hr.dto.response.wallet.WalletOverviewResponse;
@@ -140,6 +141,19 @@ public interface IWalletService {
         Page<WalletTransactionResponse> getTransactionsByWalletId(Long walletId, TransactionFilterRequest filter,
                         Pageable pageable);
 
+        /**
+         * Lấy lịch sử giao dịch theo walletId, phân trang keyset (createdAt, id) giảm dần
+         *
+         * @param walletId     ID của wallet
+         * @param filter       filter theo transactionType và khoảng thời gian
+         * @param cursor       nextCursor của trang trước, null cho trang đầu
+         * @param size         số giao dịch mỗi trang
+         * @param includeTotal có đếm tổng số giao dịch hay không (thêm một lệnh COUNT)
+         * @return trang transactions kèm con trỏ trang sau
+         */
+        CursorPage<WalletTransactionResponse> scrollTransactionsByWalletId(Long walletId,
+                        TransactionFilterRequest filter, String cursor, int size, boolean includeTotal);
+
         /**
          * Lấy lịch sử giao dịch theo companyId (phân trang)
          *
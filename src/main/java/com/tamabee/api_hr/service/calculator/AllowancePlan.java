@@ -0,0 +1,282 @@
+package com.tamabee.api_hr.service.calculator;
+
+import com.tamabee.api_hr.dto.config.AllowanceCondition;
+import com.tamabee.api_hr.dto.config.AllowanceConfig;
+import com.tamabee.api_hr.dto.config.AllowanceRule;
+import com.tamabee.api_hr.dto.result.AllowanceItem;
+import com.tamabee.api_hr.dto.result.AllowanceResult;
+import com.tamabee.api_hr.dto.result.AttendanceSummary;
+import com.tamabee.api_hr.enums.AllowanceType;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Plan tính phụ cấp đã biên dịch từ AllowanceConfig.
+ *
+ * Khi biên dịch: bỏ rule không hợp lệ, chuyển điều kiện sang số nguyên/boolean, dựng sẵn item
+ * và tổng tiền cho trường hợp đủ mọi điều kiện. Khi tính cho một nhân viên chỉ cần kiểm tra các rule
+ * CONDITIONAL; nếu đủ hết thì dùng lại item/tổng đã dựng sẵn, chỉ tạo mới AllowanceResult.
+ *
+ * Item dùng chung giữa các nhân viên nên chỉ được đọc.
+ */
+public final class AllowancePlan {
+
+    // Không có điều kiện số ngày/giờ tối thiểu
+    private static final int NO_MINIMUM = Integer.MIN_VALUE;
+
+    private final AllowanceItem[] eligibleItems;
+    private final BigDecimal[] amounts;
+    private final boolean[] taxable;
+
+    // Rule có điều kiện (chỉ số trong eligibleItems) và điều kiện đã phân giải
+    private final int[] conditional;
+    private final int[] conditionalSlot;
+    private final int[] minWorkingDays;
+    private final int[] minWorkingHours;
+    private final boolean[] noAbsence;
+    private final boolean[] noLateArrival;
+    private final boolean[] noEarlyLeave;
+
+    // Fixed-point scale 4 cho từng khoản; chỉ dùng khi mọi khoản biểu diễn được và tổng không tràn số
+    private final long[] fixedAmounts;
+    private final boolean fixedPoint;
+
+    // Kết quả khi đủ mọi điều kiện
+    private final List<AllowanceItem> allEligibleItems;
+    private final BigDecimal allEligibleTotal;
+    private final BigDecimal allEligibleTaxable;
+    private final BigDecimal allEligibleNonTaxable;
+
+    private AllowancePlan(List<AllowanceRule> rules) {
+        int size = rules.size();
+        eligibleItems = new AllowanceItem[size];
+        amounts = new BigDecimal[size];
+        taxable = new boolean[size];
+        fixedAmounts = new long[size];
+
+        List<Integer> conditionalIndexes = new ArrayList<>();
+        FixedPointMoney.Sum allTotal = FixedPointMoney.Sum.zero();
+        FixedPointMoney.Sum taxableTotal = FixedPointMoney.Sum.zero();
+        FixedPointMoney.Sum nonTaxableTotal = FixedPointMoney.Sum.zero();
+        boolean representable = true;
+        long absoluteTotal = 0;
+
+        for (int i = 0; i < size; i++) {
+            AllowanceRule rule = rules.get(i);
+            eligibleItems[i] = AllowanceItem.builder()
+                    .code(rule.getCode())
+                    .name(rule.getName())
+                    .type(rule.getType())
+                    .amount(rule.getAmount())
+                    .taxable(rule.getTaxable())
+                    .build();
+            amounts[i] = rule.getAmount();
+            taxable[i] = Boolean.TRUE.equals(rule.getTaxable());
+
+            if (rule.getType() == AllowanceType.CONDITIONAL && rule.getCondition() != null) {
+                conditionalIndexes.add(i);
+            }
+
+            allTotal.add(rule.getAmount());
+            (taxable[i] ? taxableTotal : nonTaxableTotal).add(rule.getAmount());
+
+            if (representable) {
+                try {
+                    fixedAmounts[i] = FixedPointMoney.toFixed(rule.getAmount());
+                    absoluteTotal = Math.addExact(absoluteTotal, Math.abs(fixedAmounts[i]));
+                } catch (ArithmeticException e) {
+                    representable = false;
+                }
+            }
+        }
+        fixedPoint = representable;
+
+        int conditionalCount = conditionalIndexes.size();
+        conditional = new int[conditionalCount];
+        minWorkingDays = new int[conditionalCount];
+        minWorkingHours = new int[conditionalCount];
+        noAbsence = new boolean[conditionalCount];
+        noLateArrival = new boolean[conditionalCount];
+        noEarlyLeave = new boolean[conditionalCount];
+        conditionalSlot = new int[size];
+        Arrays.fill(conditionalSlot, -1);
+        for (int c = 0; c < conditionalCount; c++) {
+            int index = conditionalIndexes.get(c);
+            AllowanceCondition condition = rules.get(index).getCondition();
+            conditional[c] = index;
+            conditionalSlot[index] = c;
+            minWorkingDays[c] = condition.getMinWorkingDays() != null ? condition.getMinWorkingDays() : NO_MINIMUM;
+            minWorkingHours[c] = condition.getMinWorkingHours() != null ? condition.getMinWorkingHours() : NO_MINIMUM;
+            noAbsence[c] = Boolean.TRUE.equals(condition.getNoAbsence());
+            noLateArrival[c] = Boolean.TRUE.equals(condition.getNoLateArrival());
+            noEarlyLeave[c] = Boolean.TRUE.equals(condition.getNoEarlyLeave());
+        }
+
+        allEligibleItems = List.of(eligibleItems);
+        allEligibleTotal = allTotal.toBigDecimal();
+        allEligibleTaxable = taxableTotal.toBigDecimal();
+        allEligibleNonTaxable = nonTaxableTotal.toBigDecimal();
+    }
+
+    /**
+     * Biên dịch config (bỏ rule null hoặc không có số tiền, giữ nguyên thứ tự)
+     */
+    public static AllowancePlan compile(AllowanceConfig config) {
+        List<AllowanceRule> rules = new ArrayList<>();
+        if (config != null && config.getAllowances() != null) {
+            for (AllowanceRule rule : config.getAllowances()) {
+                if (rule != null && rule.getAmount() != null) {
+                    rules.add(rule);
+                }
+            }
+        }
+        return new AllowancePlan(rules);
+    }
+
+    /**
+     * Tính phụ cấp cho một nhân viên
+     */
+    public AllowanceResult evaluate(AttendanceSummary attendance) {
+        if (eligibleItems.length == 0) {
+            return AllowanceResult.builder().build();
+        }
+
+        boolean allEligible = true;
+        for (int c = 0; c < conditional.length; c++) {
+            if (!isEligible(c, attendance)) {
+                allEligible = false;
+                break;
+            }
+        }
+
+        if (allEligible) {
+            return AllowanceResult.builder()
+                    .items(allEligibleItems)
+                    .totalAllowances(allEligibleTotal)
+                    .taxableAllowances(allEligibleTaxable)
+                    .nonTaxableAllowances(allEligibleNonTaxable)
+                    .build();
+        }
+        return evaluatePartial(attendance);
+    }
+
+    /**
+     * Có rule không đủ điều kiện: dựng item riêng cho rule đó kèm lý do
+     */
+    private AllowanceResult evaluatePartial(AttendanceSummary attendance) {
+        List<AllowanceItem> items = new ArrayList<>(eligibleItems.length);
+        boolean[] eligible = new boolean[eligibleItems.length];
+        Arrays.fill(eligible, true);
+
+        for (int c = 0; c < conditional.length; c++) {
+            if (!isEligible(c, attendance)) {
+                eligible[conditional[c]] = false;
+            }
+        }
+
+        for (int i = 0; i < eligibleItems.length; i++) {
+            if (eligible[i]) {
+                items.add(eligibleItems[i]);
+            } else {
+                AllowanceItem source = eligibleItems[i];
+                items.add(AllowanceItem.builder()
+                        .code(source.getCode())
+                        .name(source.getName())
+                        .type(source.getType())
+                        .amount(BigDecimal.ZERO)
+                        .taxable(source.getTaxable())
+                        .ineligibleReason(ineligibleReason(conditionalSlot[i], attendance))
+                        .build());
+            }
+        }
+
+        return AllowanceResult.builder()
+                .items(items)
+                .totalAllowances(total(eligible, true, true))
+                .taxableAllowances(total(eligible, true, false))
+                .nonTaxableAllowances(total(eligible, false, true))
+                .build();
+    }
+
+    /**
+     * Tổng các khoản đủ điều kiện theo nhóm thuế (scale = scale lớn nhất, giống FixedPointMoney.Sum)
+     */
+    private BigDecimal total(boolean[] eligible, boolean includeTaxable, boolean includeNonTaxable) {
+        if (fixedPoint) {
+            long total = 0;
+            int scale = 0;
+            for (int i = 0; i < eligibleItems.length; i++) {
+                if (eligible[i] && (taxable[i] ? includeTaxable : includeNonTaxable)) {
+                    total += fixedAmounts[i];
+                    scale = Math.max(scale, amounts[i].scale());
+                }
+            }
+            return FixedPointMoney.toBigDecimal(total, scale);
+        }
+
+        BigDecimal total = BigDecimal.ZERO;
+        for (int i = 0; i < eligibleItems.length; i++) {
+            if (eligible[i] && (taxable[i] ? includeTaxable : includeNonTaxable)) {
+                total = total.add(amounts[i]);
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Kiểm tra điều kiện (không cấp phát)
+     */
+    private boolean isEligible(int c, AttendanceSummary attendance) {
+        if (attendance == null) {
+            return false;
+        }
+        return (minWorkingDays[c] == NO_MINIMUM || valueOf(attendance.getWorkingDays()) >= minWorkingDays[c])
+                && (minWorkingHours[c] == NO_MINIMUM || valueOf(attendance.getWorkingHours()) >= minWorkingHours[c])
+                && (!noAbsence[c] || valueOf(attendance.getAbsenceDays()) <= 0)
+                && (!noLateArrival[c] || valueOf(attendance.getLateCount()) <= 0)
+                && (!noEarlyLeave[c] || valueOf(attendance.getEarlyLeaveCount()) <= 0);
+    }
+
+    /**
+     * Lý do không đủ điều kiện (theo thứ tự kiểm tra), null nếu đủ điều kiện
+     */
+    private String ineligibleReason(int c, AttendanceSummary attendance) {
+        if (attendance == null) {
+            return "Không có dữ liệu chấm công";
+        }
+
+        int workingDays = valueOf(attendance.getWorkingDays());
+        if (minWorkingDays[c] != NO_MINIMUM && workingDays < minWorkingDays[c]) {
+            return String.format("Số ngày làm việc (%d) chưa đạt tối thiểu (%d)", workingDays, minWorkingDays[c]);
+        }
+
+        int workingHours = valueOf(attendance.getWorkingHours());
+        if (minWorkingHours[c] != NO_MINIMUM && workingHours < minWorkingHours[c]) {
+            return String.format("Số giờ làm việc (%d) chưa đạt tối thiểu (%d)", workingHours, minWorkingHours[c]);
+        }
+
+        int absenceDays = valueOf(attendance.getAbsenceDays());
+        if (noAbsence[c] && absenceDays > 0) {
+            return String.format("Có %d ngày vắng mặt", absenceDays);
+        }
+
+        int lateCount = valueOf(attendance.getLateCount());
+        if (noLateArrival[c] && lateCount > 0) {
+            return String.format("Có %d lần đi muộn", lateCount);
+        }
+
+        int earlyLeaveCount = valueOf(attendance.getEarlyLeaveCount());
+        if (noEarlyLeave[c] && earlyLeaveCount > 0) {
+            return String.format("Có %d lần về sớm", earlyLeaveCount);
+        }
+
+        return null;
+    }
+
+    private static int valueOf(Integer value) {
+        return value != null ? value : 0;
+    }
+}
@@ -0,0 +1,161 @@
+package com.tamabee.api_hr.service.calculator;
+
+import com.tamabee.api_hr.dto.config.DeductionConfig;
+import com.tamabee.api_hr.dto.config.DeductionRule;
+import com.tamabee.api_hr.dto.result.AttendanceSummary;
+import com.tamabee.api_hr.dto.result.DeductionItem;
+import com.tamabee.api_hr.dto.result.DeductionResult;
+import com.tamabee.api_hr.enums.DeductionType;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Plan tính khấu trừ đã biên dịch từ DeductionConfig.
+ *
+ * Khi biên dịch: sắp xếp rule theo order một lần, dựng sẵn item cho khoản FIXED và gộp tổng của chúng,
+ * bỏ các rule luôn bằng 0 (FIXED không dương, PERCENTAGE thiếu phần trăm).
+ * Khi tính cho một nhân viên chỉ còn phạt đi muộn/về sớm và các khoản PERCENTAGE theo lương gộp.
+ *
+ * Item FIXED dùng chung giữa các nhân viên nên chỉ được đọc.
+ */
+public final class DeductionPlan {
+
+    private static final long HUNDRED = 100L;
+
+    private final boolean latePenaltyEnabled;
+    private final BigDecimal latePenaltyPerMinute;
+    private final boolean earlyLeavePenaltyEnabled;
+    private final BigDecimal earlyLeavePenaltyPerMinute;
+
+    // Rule theo thứ tự áp dụng: item dựng sẵn (FIXED) hoặc null (PERCENTAGE, tính theo lương gộp)
+    private final DeductionItem[] fixedItems;
+    private final DeductionRule[] percentageRules;
+
+    // Tổng các khoản FIXED
+    private final BigDecimal fixedTotal;
+
+    private DeductionPlan(DeductionConfig config, List<DeductionRule> sortedRules) {
+        latePenaltyEnabled = Boolean.TRUE.equals(config.getEnableLatePenalty());
+        latePenaltyPerMinute = config.getLatePenaltyPerMinute();
+        earlyLeavePenaltyEnabled = Boolean.TRUE.equals(config.getEnableEarlyLeavePenalty());
+        earlyLeavePenaltyPerMinute = config.getEarlyLeavePenaltyPerMinute();
+
+        List<DeductionItem> items = new ArrayList<>();
+        List<DeductionRule> percentages = new ArrayList<>();
+        FixedPointMoney.Sum fixedSum = FixedPointMoney.Sum.zero();
+        for (DeductionRule rule : sortedRules) {
+            if (rule.getType() == DeductionType.FIXED) {
+                if (rule.getAmount() != null && rule.getAmount().signum() > 0) {
+                    items.add(DeductionItem.builder()
+                            .code(rule.getCode())
+                            .name(rule.getName())
+                            .type(rule.getType())
+                            .amount(rule.getAmount())
+                            .order(rule.getOrder())
+                            .build());
+                    percentages.add(null);
+                    fixedSum.add(rule.getAmount());
+                }
+            } else if (rule.getType() == DeductionType.PERCENTAGE && rule.getPercentage() != null) {
+                items.add(null);
+                percentages.add(rule);
+            }
+        }
+
+        fixedItems = items.toArray(new DeductionItem[0]);
+        percentageRules = percentages.toArray(new DeductionRule[0]);
+        fixedTotal = fixedSum.toBigDecimal();
+    }
+
+    /**
+     * Biên dịch config: bỏ rule null, sắp xếp ổn định theo order (không có order xếp cuối)
+     */
+    public static DeductionPlan compile(DeductionConfig config) {
+        List<DeductionRule> sortedRules = config.getDeductions() == null
+                ? List.of()
+                : config.getDeductions().stream()
+                        .filter(rule -> rule != null)
+                        .sorted(Comparator
+                                .comparingInt(rule -> rule.getOrder() != null ? rule.getOrder() : Integer.MAX_VALUE))
+                        .toList();
+        return new DeductionPlan(config, sortedRules);
+    }
+
+    /**
+     * Tính khấu trừ cho một nhân viên
+     */
+    public DeductionResult evaluate(AttendanceSummary attendance, BigDecimal grossSalary) {
+        List<DeductionItem> items = new ArrayList<>(fixedItems.length + 2);
+        FixedPointMoney.Sum total = FixedPointMoney.Sum.of(fixedTotal);
+        BigDecimal latePenalty = BigDecimal.ZERO;
+        BigDecimal earlyLeavePenalty = BigDecimal.ZERO;
+
+        // Phạt đi muộn = số phút đi muộn × rate/phút
+        if (latePenaltyEnabled && attendance != null
+                && latePenaltyPerMinute != null && attendance.getTotalLateMinutes() != null) {
+            latePenalty = FixedPointMoney.multiplyToWhole(
+                    latePenaltyPerMinute, attendance.getTotalLateMinutes(), RoundingMode.HALF_UP);
+            if (latePenalty.signum() > 0) {
+                items.add(penaltyItem("LATE_PENALTY", "Phạt đi muộn", latePenalty));
+                total.add(latePenalty);
+            }
+        }
+
+        // Phạt về sớm = số phút về sớm × rate/phút
+        if (earlyLeavePenaltyEnabled && attendance != null
+                && earlyLeavePenaltyPerMinute != null && attendance.getTotalEarlyLeaveMinutes() != null) {
+            earlyLeavePenalty = FixedPointMoney.multiplyToWhole(
+                    earlyLeavePenaltyPerMinute, attendance.getTotalEarlyLeaveMinutes(), RoundingMode.HALF_UP);
+            if (earlyLeavePenalty.signum() > 0) {
+                items.add(penaltyItem("EARLY_LEAVE_PENALTY", "Phạt về sớm", earlyLeavePenalty));
+                total.add(earlyLeavePenalty);
+            }
+        }
+
+        // Các rule theo thứ tự đã sắp xếp
+        for (int i = 0; i < fixedItems.length; i++) {
+            if (fixedItems[i] != null) {
+                items.add(fixedItems[i]);
+                continue;
+            }
+            if (grossSalary == null) {
+                continue;
+            }
+
+            DeductionRule rule = percentageRules[i];
+            BigDecimal amount = FixedPointMoney.multiplyDivideToWhole(
+                    grossSalary, rule.getPercentage(), HUNDRED, RoundingMode.HALF_UP);
+            if (amount.signum() > 0) {
+                items.add(DeductionItem.builder()
+                        .code(rule.getCode())
+                        .name(rule.getName())
+                        .type(rule.getType())
+                        .amount(amount)
+                        .order(rule.getOrder())
+                        .build());
+                total.add(amount);
+            }
+        }
+
+        return DeductionResult.builder()
+                .items(items)
+                .totalDeductions(total.toBigDecimal())
+                .latePenalty(latePenalty)
+                .earlyLeavePenalty(earlyLeavePenalty)
+                .build();
+    }
+
+    private static DeductionItem penaltyItem(String code, String name, BigDecimal amount) {
+        return DeductionItem.builder()
+                .code(code)
+                .name(name)
+                .type(DeductionType.FIXED)
+                .amount(amount)
+                .order(0)
+                .build();
+    }
+}
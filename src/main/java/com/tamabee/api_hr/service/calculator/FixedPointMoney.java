@@ -0,0 +1,286 @@
+package com.tamabee.api_hr.service.calculator;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Số tiền dạng fixed-point trên long, dùng nội bộ trong các calculator để tránh tạo
+ * nhiều BigDecimal trung gian khi tính lương hàng loạt.
+ *
+ * Giá trị được lưu dưới dạng long với scale cố định {@link #SCALE} (1 = 0.0001 đơn vị tiền).
+ * Các phép chia làm tròn giống hệt BigDecimal với cùng RoundingMode, nên kết quả trùng khớp
+ * với cách tính BigDecimal cũ. Calculator chuyển input sang long một lần, tính toàn bộ trên long
+ * và chỉ tạo BigDecimal cho kết quả (result/entity/response).
+ *
+ * Giá trị không biểu diễn chính xác được (scale > 4, scale âm, quá lớn) và phép tính tràn số đều ném
+ * ArithmeticException; caller bắt một lần và tính lại bằng các helper BigDecimal cùng công thức
+ * trong class này ({@link #perMinute(BigDecimal)}, {@link #multiplyToWhole(BigDecimal, BigDecimal, RoundingMode)}).
+ */
+public final class FixedPointMoney {
+
+    // Số chữ số thập phân nội bộ (đủ cho minute rate scale 4 hiện tại)
+    public static final int SCALE = 4;
+
+    // 1 đơn vị tiền ở dạng fixed-point
+    public static final long ONE = 10_000L;
+
+    // Tích hai giá trị scale 4 có scale 8
+    private static final long ONE_SQUARED = ONE * ONE;
+
+    private static final int MINUTES_PER_HOUR = 60;
+    private static final BigDecimal BIG_MINUTES_PER_HOUR = BigDecimal.valueOf(MINUTES_PER_HOUR);
+
+    // Giới hạn trị tuyệt đối của giá trị đầu vào (1e11 đơn vị tiền) để còn dư cho phép nhân
+    private static final long MAX_FIXED = 1_000_000_000_000_000L;
+
+    private static final long[] POW10 = {
+            1L, 10L, 100L, 1_000L, 10_000L, 100_000L, 1_000_000L, 10_000_000L, 100_000_000L,
+            1_000_000_000L, 10_000_000_000L, 100_000_000_000L, 1_000_000_000_000L,
+            10_000_000_000_000L, 100_000_000_000_000L, 1_000_000_000_000_000L
+    };
+
+    private FixedPointMoney() {
+    }
+
+    // ==================== Ranh giới BigDecimal <-> long ====================
+
+    /**
+     * Chuyển BigDecimal sang fixed-point scale 4
+     *
+     * @throws ArithmeticException nếu cần làm tròn, scale âm hoặc quá lớn
+     */
+    public static long toFixed(BigDecimal value) {
+        int shift = SCALE - value.scale();
+        // Scale âm (vd: 1E+3) cũng coi là không biểu diễn được để giữ đúng scale khi cộng
+        if (shift < 0 || shift > SCALE || value.precision() > 18) {
+            throw new ArithmeticException("Giá trị " + value + " không biểu diễn được ở fixed-point");
+        }
+        // Không dùng unscaledValue() (tạo BigInteger): scale 0 đọc thẳng long,
+        // scale 1..4 dịch dấu phẩy về scale 0 rồi đọc long
+        long unscaled = value.scale() == 0
+                ? value.longValue()
+                : value.scaleByPowerOfTen(value.scale()).longValue();
+        if (Math.abs(unscaled) > MAX_FIXED / POW10[shift]) {
+            throw new ArithmeticException("Giá trị " + value + " vượt giới hạn fixed-point");
+        }
+        return unscaled * POW10[shift];
+    }
+
+    /**
+     * Chuyển số nguyên đơn vị tiền (scale 0) sang fixed-point
+     */
+    public static long fromWhole(long whole) {
+        return Math.multiplyExact(whole, ONE);
+    }
+
+    /**
+     * Chuyển số nguyên đơn vị tiền (scale 0) sang BigDecimal scale 0
+     */
+    public static BigDecimal wholeToBigDecimal(long whole) {
+        return BigDecimal.valueOf(whole);
+    }
+
+    /**
+     * Chuyển fixed-point sang BigDecimal với scale chỉ định (0..4).
+     * Giá trị phải biểu diễn chính xác ở scale đó.
+     */
+    public static BigDecimal toBigDecimal(long fixed, int scale) {
+        long divisor = POW10[SCALE - scale];
+        if (fixed % divisor != 0) {
+            throw new ArithmeticException("Giá trị " + fixed + " không biểu diễn chính xác ở scale " + scale);
+        }
+        return BigDecimal.valueOf(fixed / divisor, scale);
+    }
+
+    // ==================== Phép tính trên long ====================
+
+    /**
+     * Chia hai số long với quy tắc làm tròn giống BigDecimal
+     *
+     * @param mode HALF_UP, UP, DOWN, CEILING hoặc FLOOR
+     */
+    public static long divide(long dividend, long divisor, RoundingMode mode) {
+        long quotient = dividend / divisor;
+        long remainder = dividend % divisor;
+        if (remainder == 0) {
+            return quotient;
+        }
+
+        // Dấu của thương thực (-1 hoặc 1)
+        long signum = ((dividend ^ divisor) >> 63) | 1;
+
+        return switch (mode) {
+            case DOWN -> quotient;
+            case UP -> quotient + signum;
+            case FLOOR -> signum < 0 ? quotient - 1 : quotient;
+            case CEILING -> signum > 0 ? quotient + 1 : quotient;
+            case HALF_UP -> Math.abs(remainder) >= Math.abs(divisor) - Math.abs(remainder)
+                    ? quotient + signum
+                    : quotient;
+            default -> throw new IllegalArgumentException("RoundingMode không hỗ trợ: " + mode);
+        };
+    }
+
+    /**
+     * Làm tròn fixed-point về số nguyên đơn vị tiền
+     */
+    public static long roundToWhole(long fixed, RoundingMode mode) {
+        return divide(fixed, ONE, mode);
+    }
+
+    /**
+     * Nhân có kiểm tra tràn số
+     */
+    public static long multiply(long a, long b) {
+        return Math.multiplyExact(a, b);
+    }
+
+    /**
+     * a × b (cùng scale 4) làm tròn về số nguyên đơn vị tiền
+     */
+    public static long multiplyToWhole(long a, long b, RoundingMode mode) {
+        return divide(multiply(a, b), ONE_SQUARED, mode);
+    }
+
+    /**
+     * Giá trị theo giờ → theo phút, làm tròn HALF_UP scale 4
+     */
+    public static long perMinute(long perHour) {
+        return divide(perHour, MINUTES_PER_HOUR, RoundingMode.HALF_UP);
+    }
+
+    // ==================== Công thức BigDecimal (fallback) ====================
+
+    /**
+     * Giá trị theo giờ → theo phút. Tương đương {@link #perMinute(long)}.
+     */
+    public static BigDecimal perMinute(BigDecimal perHour) {
+        return perHour.divide(BIG_MINUTES_PER_HOUR, SCALE, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * a × b làm tròn về đơn vị tiền nguyên. Tương đương {@link #multiplyToWhole(long, long, RoundingMode)}.
+     */
+    public static BigDecimal multiplyToWhole(BigDecimal a, BigDecimal b, RoundingMode mode) {
+        return a.multiply(b).setScale(0, mode);
+    }
+
+    // ==================== Helper một phép tính (tự fallback) ====================
+
+    /**
+     * value × count làm tròn về đơn vị tiền nguyên.
+     * Tương đương value.multiply(count).setScale(0, mode).
+     */
+    public static BigDecimal multiplyToWhole(BigDecimal value, long count, RoundingMode mode) {
+        try {
+            return wholeToBigDecimal(roundToWhole(multiply(toFixed(value), count), mode));
+        } catch (ArithmeticException e) {
+            return multiplyToWhole(value, BigDecimal.valueOf(count), mode);
+        }
+    }
+
+    /**
+     * value × count / divisor làm tròn về đơn vị tiền nguyên.
+     * Tương đương value.multiply(count).divide(divisor, 0, mode).
+     */
+    public static BigDecimal multiplyDivideToWhole(BigDecimal value, long count, long divisor, RoundingMode mode) {
+        try {
+            return wholeToBigDecimal(divide(multiply(toFixed(value), count), multiply(divisor, ONE), mode));
+        } catch (ArithmeticException e) {
+            // Tràn số (hoặc chia cho 0): để BigDecimal xử lý giống logic cũ
+            return value.multiply(BigDecimal.valueOf(count)).divide(BigDecimal.valueOf(divisor), 0, mode);
+        }
+    }
+
+    /**
+     * a × b / divisor làm tròn về đơn vị tiền nguyên.
+     * Tương đương a.multiply(b).divide(divisor, 0, mode).
+     */
+    public static BigDecimal multiplyDivideToWhole(BigDecimal a, BigDecimal b, long divisor, RoundingMode mode) {
+        try {
+            return wholeToBigDecimal(divide(multiply(toFixed(a), toFixed(b)), multiply(divisor, ONE_SQUARED), mode));
+        } catch (ArithmeticException e) {
+            return a.multiply(b).divide(BigDecimal.valueOf(divisor), 0, mode);
+        }
+    }
+
+    // ==================== Tổng ====================
+
+    /**
+     * Bộ cộng dồn số tiền: cộng trên long, giữ scale lớn nhất như chuỗi BigDecimal.add.
+     * Gặp giá trị không biểu diễn được hoặc tràn số thì chuyển sang BigDecimal cho phần còn lại.
+     * Không thread-safe, dùng cục bộ trong một lần tính.
+     */
+    public static final class Sum {
+
+        private long fixed;
+        private int scale;
+        // Khác null khi đã chuyển sang BigDecimal
+        private BigDecimal exact;
+
+        private Sum() {
+        }
+
+        /**
+         * Tổng bắt đầu từ 0 (giống BigDecimal.ZERO)
+         */
+        public static Sum zero() {
+            return new Sum();
+        }
+
+        /**
+         * Tổng bắt đầu từ initial (giữ nguyên scale của initial, null = 0)
+         */
+        public static Sum of(BigDecimal initial) {
+            Sum sum = new Sum();
+            if (initial != null) {
+                try {
+                    sum.fixed = toFixed(initial);
+                    sum.scale = initial.scale();
+                } catch (ArithmeticException e) {
+                    sum.exact = initial;
+                }
+            }
+            return sum;
+        }
+
+        /**
+         * Cộng value (bỏ qua null)
+         */
+        public Sum add(BigDecimal value) {
+            if (value == null) {
+                return this;
+            }
+            if (exact == null) {
+                try {
+                    fixed = Math.addExact(fixed, toFixed(value));
+                    scale = Math.max(scale, value.scale());
+                    return this;
+                } catch (ArithmeticException e) {
+                    exact = FixedPointMoney.toBigDecimal(fixed, scale);
+                }
+            }
+            exact = exact.add(value);
+            return this;
+        }
+
+        /**
+         * (this − other) làm tròn về đơn vị tiền nguyên.
+         * Tương đương this.subtract(other).setScale(0, mode).
+         */
+        public BigDecimal subtractToWhole(Sum other, RoundingMode mode) {
+            if (exact == null && other.exact == null) {
+                try {
+                    return wholeToBigDecimal(roundToWhole(Math.subtractExact(fixed, other.fixed), mode));
+                } catch (ArithmeticException e) {
+                    // Tràn số: dùng BigDecimal
+                }
+            }
+            return toBigDecimal().subtract(other.toBigDecimal()).setScale(0, mode);
+        }
+
+        public BigDecimal toBigDecimal() {
+            return exact != null ? exact : FixedPointMoney.toBigDecimal(fixed, scale);
+        }
+    }
+}
@@ -0,0 +1,251 @@
+package com.tamabee.api_hr.service.calculator;
+
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+/**
+ * Phép toán trên danh sách khoảng thời gian dạng epoch-minute (int), không cấp phát bộ nhớ.
+ *
+ * Một danh sách khoảng được lưu phẳng trong mảng int: [start0, end0, start1, end1, ...] kèm số khoảng
+ * {@code count}. Mỗi khoảng là nửa mở [start, end). Các phép union/intersect/subtract yêu cầu đầu vào
+ * đã chuẩn hóa ({@link #normalize}: sắp xếp theo start, không chồng lấn, không rỗng) và ghi kết quả
+ * đã chuẩn hóa vào mảng {@code out} do caller cấp (đủ lớn theo ghi chú từng hàm).
+ *
+ * Epoch-minute là số phút kể từ 1970-01-01T00:00 theo giờ địa phương (không có timezone),
+ * giây bị bỏ qua.
+ */
+public final class MinuteIntervals {
+
+    public static final int MINUTES_PER_DAY = 1440;
+
+    private MinuteIntervals() {
+    }
+
+    /**
+     * LocalDateTime → epoch-minute (bỏ giây)
+     */
+    public static int toEpochMinute(LocalDateTime time) {
+        return (int) time.toLocalDate().toEpochDay() * MINUTES_PER_DAY + time.getHour() * 60 + time.getMinute();
+    }
+
+    /**
+     * LocalTime → phút trong ngày (0..1439)
+     */
+    public static int minuteOfDay(LocalTime time) {
+        return time.getHour() * 60 + time.getMinute();
+    }
+
+    /**
+     * Sắp xếp theo start và gộp các khoảng chồng lấn/liền kề, bỏ khoảng rỗng (in-place).
+     * Dùng insertion sort vì danh sách thường rất ngắn (vài khoảng/ngày).
+     *
+     * @return số khoảng sau chuẩn hóa
+     */
+    public static int normalize(int[] intervals, int count) {
+        // Bỏ khoảng rỗng/ngược
+        int n = 0;
+        for (int i = 0; i < count; i++) {
+            int start = intervals[2 * i];
+            int end = intervals[2 * i + 1];
+            if (end > start) {
+                intervals[2 * n] = start;
+                intervals[2 * n + 1] = end;
+                n++;
+            }
+        }
+
+        // Insertion sort theo start
+        for (int i = 1; i < n; i++) {
+            int start = intervals[2 * i];
+            int end = intervals[2 * i + 1];
+            int j = i - 1;
+            while (j >= 0 && intervals[2 * j] > start) {
+                intervals[2 * j + 2] = intervals[2 * j];
+                intervals[2 * j + 3] = intervals[2 * j + 1];
+                j--;
+            }
+            intervals[2 * j + 2] = start;
+            intervals[2 * j + 3] = end;
+        }
+
+        // Gộp
+        int merged = 0;
+        for (int i = 0; i < n; i++) {
+            int start = intervals[2 * i];
+            int end = intervals[2 * i + 1];
+            if (merged > 0 && start <= intervals[2 * merged - 1]) {
+                intervals[2 * merged - 1] = Math.max(intervals[2 * merged - 1], end);
+            } else {
+                intervals[2 * merged] = start;
+                intervals[2 * merged + 1] = end;
+                merged++;
+            }
+        }
+        return merged;
+    }
+
+    /**
+     * Tổng độ dài (phút)
+     */
+    public static int length(int[] intervals, int count) {
+        int total = 0;
+        for (int i = 0; i < count; i++) {
+            total += intervals[2 * i + 1] - intervals[2 * i];
+        }
+        return total;
+    }
+
+    /**
+     * Hợp hai danh sách. {@code out} cần tối thiểu 2 × (aCount + bCount) phần tử.
+     */
+    public static int union(int[] a, int aCount, int[] b, int bCount, int[] out) {
+        int i = 0;
+        int j = 0;
+        int n = 0;
+        while (i < aCount || j < bCount) {
+            int start;
+            int end;
+            if (j >= bCount || (i < aCount && a[2 * i] <= b[2 * j])) {
+                start = a[2 * i];
+                end = a[2 * i + 1];
+                i++;
+            } else {
+                start = b[2 * j];
+                end = b[2 * j + 1];
+                j++;
+            }
+            if (n > 0 && start <= out[2 * n - 1]) {
+                out[2 * n - 1] = Math.max(out[2 * n - 1], end);
+            } else {
+                out[2 * n] = start;
+                out[2 * n + 1] = end;
+                n++;
+            }
+        }
+        return n;
+    }
+
+    /**
+     * Giao hai danh sách. {@code out} cần tối thiểu 2 × (aCount + bCount) phần tử.
+     */
+    public static int intersect(int[] a, int aCount, int[] b, int bCount, int[] out) {
+        int i = 0;
+        int j = 0;
+        int n = 0;
+        while (i < aCount && j < bCount) {
+            int start = Math.max(a[2 * i], b[2 * j]);
+            int end = Math.min(a[2 * i + 1], b[2 * j + 1]);
+            if (end > start) {
+                out[2 * n] = start;
+                out[2 * n + 1] = end;
+                n++;
+            }
+            if (a[2 * i + 1] < b[2 * j + 1]) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return n;
+    }
+
+    /**
+     * Độ dài phần giao (không ghi kết quả)
+     */
+    public static int intersectionLength(int[] a, int aCount, int[] b, int bCount) {
+        int i = 0;
+        int j = 0;
+        int total = 0;
+        while (i < aCount && j < bCount) {
+            int start = Math.max(a[2 * i], b[2 * j]);
+            int end = Math.min(a[2 * i + 1], b[2 * j + 1]);
+            if (end > start) {
+                total += end - start;
+            }
+            if (a[2 * i + 1] < b[2 * j + 1]) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return total;
+    }
+
+    /**
+     * a trừ b. {@code out} cần tối thiểu 2 × (aCount + bCount) phần tử.
+     */
+    public static int subtract(int[] a, int aCount, int[] b, int bCount, int[] out) {
+        int j = 0;
+        int n = 0;
+        for (int i = 0; i < aCount; i++) {
+            int start = a[2 * i];
+            int end = a[2 * i + 1];
+
+            // Bỏ qua các khoảng b kết thúc trước start
+            while (j < bCount && b[2 * j + 1] <= start) {
+                j++;
+            }
+
+            int k = j;
+            while (k < bCount && b[2 * k] < end) {
+                if (b[2 * k] > start) {
+                    out[2 * n] = start;
+                    out[2 * n + 1] = b[2 * k];
+                    n++;
+                }
+                start = Math.max(start, b[2 * k + 1]);
+                if (start >= end) {
+                    break;
+                }
+                k++;
+            }
+
+            if (start < end) {
+                out[2 * n] = start;
+                out[2 * n + 1] = end;
+                n++;
+            }
+        }
+        return n;
+    }
+
+    /**
+     * Sinh các khung giờ đêm phủ [from, to). Khung giờ đêm có thể qua nửa đêm (nightStart > nightEnd,
+     * ví dụ 22:00-05:00) hoặc nằm trong ngày. nightStart == nightEnd nghĩa là không có giờ đêm.
+     * {@code out} cần tối thiểu 2 × (số ngày của [from, to) + 2) phần tử, xem {@link #windowCapacity}.
+     *
+     * @return số khoảng (đã chuẩn hóa)
+     */
+    public static int dailyWindows(int from, int to, int windowStart, int windowEnd, int[] out) {
+        if (to <= from || windowStart == windowEnd) {
+            return 0;
+        }
+
+        int firstDay = Math.floorDiv(from, MINUTES_PER_DAY) - 1;
+        int lastDay = Math.floorDiv(to - 1, MINUTES_PER_DAY);
+        int n = 0;
+        for (int day = firstDay; day <= lastDay; day++) {
+            int base = day * MINUTES_PER_DAY;
+            int start = base + windowStart;
+            int end = windowStart < windowEnd ? base + windowEnd : base + MINUTES_PER_DAY + windowEnd;
+
+            // Cắt theo [from, to) để kết quả gọn
+            start = Math.max(start, from);
+            end = Math.min(end, to);
+            if (end > start) {
+                out[2 * n] = start;
+                out[2 * n + 1] = end;
+                n++;
+            }
+        }
+        return n;
+    }
+
+    /**
+     * Số phần tử mảng cần cho {@link #dailyWindows} trên [from, to)
+     */
+    public static int windowCapacity(int from, int to) {
+        int days = Math.max(0, Math.floorDiv(to - 1, MINUTES_PER_DAY) - Math.floorDiv(from, MINUTES_PER_DAY) + 1);
+        return 2 * (days + 2);
+    }
+}
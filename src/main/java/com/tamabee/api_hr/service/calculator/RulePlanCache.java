@@ -0,0 +1,52 @@
+package com.tamabee.api_hr.service.calculator;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Cache plan đã biên dịch theo instance config (so sánh identity, không gọi equals/hashCode của config).
+ *
+ * Config được deserialize một lần cho mỗi lượt tính lương rồi dùng chung cho mọi nhân viên,
+ * nên plan chỉ biên dịch một lần cho mỗi phiên bản settings được nạp.
+ * Config không được sửa sau khi đã đưa vào calculator.
+ */
+public final class RulePlanCache<C, P> {
+
+    private static final int MAX_ENTRIES = 64;
+
+    private final Function<C, P> compiler;
+    private final Map<C, P> plans = new IdentityHashMap<>();
+
+    // Fast path: config gần nhất (một lượt tính lương gọi liên tục với cùng config)
+    private volatile Entry<C, P> last;
+
+    private record Entry<C, P>(C config, P plan) {
+    }
+
+    public RulePlanCache(Function<C, P> compiler) {
+        this.compiler = compiler;
+    }
+
+    public P get(C config) {
+        Entry<C, P> entry = last;
+        if (entry != null && entry.config() == config) {
+            return entry.plan();
+        }
+
+        P plan;
+        synchronized (plans) {
+            plan = plans.get(config);
+            if (plan == null) {
+                // Giới hạn kích thước: config cũ của các lượt trước không còn được dùng
+                if (plans.size() >= MAX_ENTRIES) {
+                    plans.clear();
+                }
+                plan = compiler.apply(config);
+                plans.put(config, plan);
+            }
+        }
+        last = new Entry<>(config, plan);
+        return plan;
+    }
+}
@@ -0,0 +1,230 @@
+package com.tamabee.api_hr.service.calculator;
+
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+/**
+ * Bộ tính phút làm việc/giải lao/giờ đêm/tăng ca cho một ca bất kỳ (ca thường, qua đêm, nhiều ngày, ca tách)
+ * trong một lượt, dựa trên {@link MinuteIntervals}.
+ *
+ * Mỗi lần tính tạo một instance riêng (không thread-safe, không chia sẻ giữa các lần tính);
+ * buffer nội bộ được tái sử dụng trong phạm vi một instance:
+ *
+ * <pre>
+ * ShiftTimeline timeline = new ShiftTimeline()
+ *         .addWork(checkIn, checkOut)
+ *         .addBreak(breakStart, breakEnd)
+ *         .compute(nightStart, nightEnd, 480);
+ * int night = timeline.getNightWorkedMinutes();
+ * </pre>
+ */
+public final class ShiftTimeline {
+
+    /**
+     * Không áp dụng ngưỡng tăng ca
+     */
+    public static final int NO_OVERTIME_THRESHOLD = Integer.MAX_VALUE;
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private int[] work = new int[INITIAL_CAPACITY];
+    private int workCount;
+    private int[] breaks = new int[INITIAL_CAPACITY];
+    private int breakCount;
+
+    // Buffer trung gian
+    private int[] clippedBreaks = new int[INITIAL_CAPACITY];
+    private int[] worked = new int[INITIAL_CAPACITY];
+    private int[] windows = new int[INITIAL_CAPACITY];
+
+    // Kết quả
+    private int grossMinutes;
+    private int breakMinutes;
+    private int workedMinutes;
+    private int nightMinutes;
+    private int nightWorkedMinutes;
+    private int overtimeMinutes;
+    private int nightOvertimeMinutes;
+
+    public ShiftTimeline reset() {
+        workCount = 0;
+        breakCount = 0;
+        grossMinutes = 0;
+        breakMinutes = 0;
+        workedMinutes = 0;
+        nightMinutes = 0;
+        nightWorkedMinutes = 0;
+        overtimeMinutes = 0;
+        nightOvertimeMinutes = 0;
+        return this;
+    }
+
+    /**
+     * Thêm một đoạn làm việc. Nếu end trước start thì coi là qua đêm (end + 1 ngày).
+     * Bỏ qua nếu thiếu start/end.
+     */
+    public ShiftTimeline addWork(LocalDateTime start, LocalDateTime end) {
+        if (start == null || end == null) {
+            return this;
+        }
+        int from = MinuteIntervals.toEpochMinute(start);
+        return addWork(from, toEnd(from, end));
+    }
+
+    public ShiftTimeline addWork(int start, int end) {
+        work = ensureCapacity(work, workCount + 1);
+        work[2 * workCount] = start;
+        work[2 * workCount + 1] = end;
+        workCount++;
+        return this;
+    }
+
+    /**
+     * Thêm một lần giải lao. Nếu end trước start thì coi là qua đêm (end + 1 ngày).
+     * Bỏ qua nếu thiếu start/end (giải lao chưa kết thúc).
+     */
+    public ShiftTimeline addBreak(LocalDateTime start, LocalDateTime end) {
+        if (start == null || end == null) {
+            return this;
+        }
+        int from = MinuteIntervals.toEpochMinute(start);
+        return addBreak(from, toEnd(from, end));
+    }
+
+    public ShiftTimeline addBreak(int start, int end) {
+        breaks = ensureCapacity(breaks, breakCount + 1);
+        breaks[2 * breakCount] = start;
+        breaks[2 * breakCount + 1] = end;
+        breakCount++;
+        return this;
+    }
+
+    /**
+     * Tính toàn bộ kết quả.
+     *
+     * @param nightStart            bắt đầu giờ đêm (có thể sau nightEnd, ví dụ 22:00-05:00)
+     * @param nightEnd              kết thúc giờ đêm
+     * @param overtimeThreshold     số phút làm thực tế trước khi bắt đầu tính tăng ca
+     *                              ({@link #NO_OVERTIME_THRESHOLD} nếu không cần)
+     */
+    public ShiftTimeline compute(LocalTime nightStart, LocalTime nightEnd, int overtimeThreshold) {
+        workCount = MinuteIntervals.normalize(work, workCount);
+        breakCount = MinuteIntervals.normalize(breaks, breakCount);
+        grossMinutes = MinuteIntervals.length(work, workCount);
+
+        // Giải lao chỉ tính phần nằm trong ca, các lần chồng nhau không tính hai lần
+        int capacity = 2 * (workCount + breakCount);
+        clippedBreaks = ensureCapacity(clippedBreaks, capacity / 2);
+        int clippedCount = MinuteIntervals.intersect(breaks, breakCount, work, workCount, clippedBreaks);
+        breakMinutes = MinuteIntervals.length(clippedBreaks, clippedCount);
+
+        worked = ensureCapacity(worked, capacity / 2);
+        int workedCount = MinuteIntervals.subtract(work, workCount, clippedBreaks, clippedCount, worked);
+        workedMinutes = grossMinutes - breakMinutes;
+
+        // Khung giờ đêm phủ toàn bộ ca
+        int windowCount = 0;
+        if (workCount > 0 && nightStart != null && nightEnd != null) {
+            int from = work[0];
+            int to = work[2 * workCount - 1];
+            windows = ensureCapacity(windows, MinuteIntervals.windowCapacity(from, to) / 2);
+            windowCount = MinuteIntervals.dailyWindows(from, to,
+                    MinuteIntervals.minuteOfDay(nightStart), MinuteIntervals.minuteOfDay(nightEnd), windows);
+        }
+        nightMinutes = MinuteIntervals.intersectionLength(work, workCount, windows, windowCount);
+        nightWorkedMinutes = MinuteIntervals.intersectionLength(worked, workedCount, windows, windowCount);
+
+        // Tăng ca: phần làm thực tế sau overtimeThreshold phút đầu (theo thứ tự thời gian)
+        overtimeMinutes = 0;
+        nightOvertimeMinutes = 0;
+        if (overtimeThreshold >= 0 && workedMinutes > overtimeThreshold) {
+            overtimeMinutes = workedMinutes - overtimeThreshold;
+
+            // Tái sử dụng clippedBreaks cho danh sách đoạn tăng ca
+            int remaining = overtimeThreshold;
+            int overtimeCount = 0;
+            for (int i = 0; i < workedCount; i++) {
+                int start = worked[2 * i];
+                int end = worked[2 * i + 1];
+                int length = end - start;
+                if (remaining >= length) {
+                    remaining -= length;
+                    continue;
+                }
+                clippedBreaks[2 * overtimeCount] = start + remaining;
+                clippedBreaks[2 * overtimeCount + 1] = end;
+                overtimeCount++;
+                remaining = 0;
+            }
+            nightOvertimeMinutes = MinuteIntervals.intersectionLength(
+                    clippedBreaks, overtimeCount, windows, windowCount);
+        }
+        return this;
+    }
+
+    /**
+     * Tổng thời gian ca (hợp các đoạn làm việc, gồm cả giải lao)
+     */
+    public int getGrossMinutes() {
+        return grossMinutes;
+    }
+
+    /**
+     * Thời gian giải lao nằm trong ca
+     */
+    public int getBreakMinutes() {
+        return breakMinutes;
+    }
+
+    /**
+     * Thời gian làm thực tế = gross - giải lao
+     */
+    public int getWorkedMinutes() {
+        return workedMinutes;
+    }
+
+    /**
+     * Thời gian ca nằm trong giờ đêm (gồm cả giải lao)
+     */
+    public int getNightMinutes() {
+        return nightMinutes;
+    }
+
+    /**
+     * Thời gian làm thực tế nằm trong giờ đêm
+     */
+    public int getNightWorkedMinutes() {
+        return nightWorkedMinutes;
+    }
+
+    /**
+     * Thời gian làm thực tế vượt ngưỡng tăng ca
+     */
+    public int getOvertimeMinutes() {
+        return overtimeMinutes;
+    }
+
+    /**
+     * Phần tăng ca nằm trong giờ đêm
+     */
+    public int getNightOvertimeMinutes() {
+        return nightOvertimeMinutes;
+    }
+
+    private static int toEnd(int start, LocalDateTime end) {
+        int to = MinuteIntervals.toEpochMinute(end);
+        return to < start ? to + MinuteIntervals.MINUTES_PER_DAY : to;
+    }
+
+    /**
+     * Bảo đảm buffer chứa được {@code intervals} khoảng
+     */
+    private static int[] ensureCapacity(int[] buffer, int intervals) {
+        if (buffer.length >= 2 * intervals) {
+            return buffer;
+        }
+        int[] grown = new int[Math.max(2 * intervals, 2 * buffer.length)];
+        System.arraycopy(buffer, 0, grown, 0, buffer.length);
+        return grown;
+    }
+}
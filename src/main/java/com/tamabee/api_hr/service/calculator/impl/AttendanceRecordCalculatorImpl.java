@@ -0,0 +1,233 @@
+package com.tamabee.api_hr.service.calculator.impl;
+
+import com.tamabee.api_hr.dto.config.AttendanceConfig;
+import com.tamabee.api_hr.dto.config.BreakConfig;
+import com.tamabee.api_hr.dto.config.WorkScheduleData;
+import com.tamabee.api_hr.dto.response.schedule.WorkScheduleResponse;
+import com.tamabee.api_hr.entity.attendance.AttendanceRecordEntity;
+import com.tamabee.api_hr.entity.attendance.BreakRecordEntity;
+import com.tamabee.api_hr.enums.ScheduleType;
+import com.tamabee.api_hr.service.calculator.interfaces.IAttendanceRecordCalculator;
+import com.tamabee.api_hr.service.calculator.interfaces.IBreakCalculator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+/**
+ * Calculator tính toán bản ghi chấm công theo lịch làm việc.
+ * Dùng chung cho chấm công từng lần, điều chỉnh và nhập punch hàng loạt.
+ */
+@Component
+@RequiredArgsConstructor
+public class AttendanceRecordCalculatorImpl implements IAttendanceRecordCalculator {
+
+    private final IBreakCalculator breakCalculator;
+
+    @Override
+    public int calculateLateMinutes(LocalDateTime checkInTime, WorkScheduleResponse schedule,
+            AttendanceConfig config) {
+        LocalTime scheduleStartTime = getScheduleStartTime(schedule, checkInTime.toLocalDate());
+        if (scheduleStartTime == null) {
+            return 0;
+        }
+
+        // Thêm grace period
+        int graceMinutes = config.getLateGraceMinutes() != null ? config.getLateGraceMinutes() : 0;
+        LocalTime graceEndTime = scheduleStartTime.plusMinutes(graceMinutes);
+
+        LocalTime checkInLocalTime = checkInTime.toLocalTime();
+        if (checkInLocalTime.isAfter(graceEndTime)) {
+            return (int) ChronoUnit.MINUTES.between(scheduleStartTime, checkInLocalTime);
+        }
+
+        return 0;
+    }
+
+    @Override
+    public void calculateWorkingHours(AttendanceRecordEntity entity, List<BreakRecordEntity> breakRecords,
+            WorkScheduleResponse schedule, AttendanceConfig config, BreakConfig breakConfig) {
+        LocalDateTime checkIn = entity.getRoundedCheckIn();
+        LocalDateTime checkOut = entity.getRoundedCheckOut();
+
+        if (checkIn == null || checkOut == null) {
+            return;
+        }
+
+        // Tính tổng số phút làm việc (gross)
+        long totalMinutes = ChronoUnit.MINUTES.between(checkIn, checkOut);
+        if (totalMinutes < 0) {
+            totalMinutes = 0;
+        }
+
+        // Tính break minutes
+        int actualBreakMinutes = 0;
+        int effectiveBreakMinutes = 0;
+        boolean isNightShift = false;
+        int workingHours = (int) (totalMinutes / 60);
+
+        if (breakConfig != null && Boolean.TRUE.equals(breakConfig.getBreakEnabled())) {
+            if (Boolean.TRUE.equals(breakConfig.getBreakTrackingEnabled())
+                    && breakRecords != null && !breakRecords.isEmpty()) {
+                // Sử dụng actual break từ records
+                actualBreakMinutes = breakCalculator.calculateTotalBreakMinutes(breakRecords);
+            } else {
+                // Sử dụng default break từ schedule hoặc config
+                actualBreakMinutes = getBreakMinutes(schedule, entity.getWorkDate());
+            }
+
+            // Kiểm tra night shift
+            LocalTime shiftStart = getScheduleStartTime(schedule, entity.getWorkDate());
+            LocalTime shiftEnd = getScheduleEndTime(schedule, entity.getWorkDate());
+            isNightShift = breakCalculator.isNightShift(shiftStart, shiftEnd, breakConfig);
+
+            // Tính effective break (với min/max capping)
+            effectiveBreakMinutes = breakCalculator.calculateEffectiveBreakMinutes(
+                    actualBreakMinutes, breakConfig, workingHours, isNightShift);
+
+            // Lưu break info vào entity
+            entity.setTotalBreakMinutes(actualBreakMinutes);
+            entity.setEffectiveBreakMinutes(effectiveBreakMinutes);
+            entity.setBreakType(breakConfig.getBreakType());
+
+            // Kiểm tra break compliance
+            String locale = breakConfig.getLocale() != null ? breakConfig.getLocale() : "ja";
+            int legalMinimum = breakCalculator.getLegalMinimumBreak(locale, workingHours, isNightShift);
+            entity.setBreakCompliant(actualBreakMinutes >= legalMinimum);
+        } else {
+            // Không có break config hoặc break không được bật - sử dụng default
+            actualBreakMinutes = getBreakMinutes(schedule, entity.getWorkDate());
+            effectiveBreakMinutes = actualBreakMinutes;
+            entity.setTotalBreakMinutes(actualBreakMinutes);
+            entity.setEffectiveBreakMinutes(effectiveBreakMinutes);
+            entity.setBreakCompliant(true);
+        }
+
+        // Tính net working minutes (sau khi trừ break nếu unpaid)
+        int netWorkingMinutes;
+        if (breakConfig != null) {
+            netWorkingMinutes = breakCalculator.calculateNetWorkingMinutes(
+                    (int) totalMinutes, effectiveBreakMinutes, breakConfig);
+        } else {
+            // Không có break config - trừ break mặc định
+            netWorkingMinutes = (int) totalMinutes - effectiveBreakMinutes;
+            if (netWorkingMinutes < 0)
+                netWorkingMinutes = 0;
+        }
+        entity.setWorkingMinutes(netWorkingMinutes);
+
+        // Tính số phút về sớm
+        LocalTime scheduleEndTime = getScheduleEndTime(schedule, entity.getWorkDate());
+        if (scheduleEndTime != null && config != null) {
+            int graceMinutes = config.getEarlyLeaveGraceMinutes() != null ? config.getEarlyLeaveGraceMinutes() : 0;
+            LocalTime graceStartTime = scheduleEndTime.minusMinutes(graceMinutes);
+
+            LocalTime checkOutLocalTime = checkOut.toLocalTime();
+            if (checkOutLocalTime.isBefore(graceStartTime)) {
+                int earlyMinutes = (int) ChronoUnit.MINUTES.between(checkOutLocalTime, scheduleEndTime);
+                entity.setEarlyLeaveMinutes(earlyMinutes);
+            } else {
+                entity.setEarlyLeaveMinutes(0);
+            }
+        } else {
+            entity.setEarlyLeaveMinutes(0);
+        }
+
+        // Tính số phút tăng ca (làm việc vượt quá giờ chuẩn)
+        int standardMinutes = getStandardWorkingMinutes(schedule, entity.getWorkDate());
+        if (netWorkingMinutes > standardMinutes) {
+            entity.setOvertimeMinutes(netWorkingMinutes - standardMinutes);
+        } else {
+            entity.setOvertimeMinutes(0);
+        }
+    }
+
+    /**
+     * Lấy giờ bắt đầu làm việc từ schedule
+     */
+    private LocalTime getScheduleStartTime(WorkScheduleResponse schedule, LocalDate date) {
+        if (schedule == null || schedule.getScheduleData() == null) {
+            return LocalTime.of(9, 0); // Default
+        }
+
+        WorkScheduleData data = schedule.getScheduleData();
+
+        if (schedule.getType() == ScheduleType.FIXED) {
+            return data.getDefaultStartTime() != null ? data.getDefaultStartTime() : LocalTime.of(9, 0);
+        }
+
+        if (schedule.getType() == ScheduleType.FLEXIBLE && data.getDailySchedules() != null) {
+            String dayKey = date.getDayOfWeek().name();
+            WorkScheduleData.DailySchedule daily = data.getDailySchedules().get(dayKey);
+            if (daily != null && daily.getStartTime() != null) {
+                return daily.getStartTime();
+            }
+        }
+
+        return data.getDefaultStartTime() != null ? data.getDefaultStartTime() : LocalTime.of(9, 0);
+    }
+
+    @Override
+    public LocalTime getScheduleEndTime(WorkScheduleResponse schedule, LocalDate date) {
+        if (schedule == null || schedule.getScheduleData() == null) {
+            return LocalTime.of(18, 0); // Default
+        }
+
+        WorkScheduleData data = schedule.getScheduleData();
+
+        if (schedule.getType() == ScheduleType.FIXED) {
+            return data.getDefaultEndTime() != null ? data.getDefaultEndTime() : LocalTime.of(18, 0);
+        }
+
+        if (schedule.getType() == ScheduleType.FLEXIBLE && data.getDailySchedules() != null) {
+            String dayKey = date.getDayOfWeek().name();
+            WorkScheduleData.DailySchedule daily = data.getDailySchedules().get(dayKey);
+            if (daily != null && daily.getEndTime() != null) {
+                return daily.getEndTime();
+            }
+        }
+
+        return data.getDefaultEndTime() != null ? data.getDefaultEndTime() : LocalTime.of(18, 0);
+    }
+
+    /**
+     * Lấy số phút nghỉ từ schedule
+     */
+    private int getBreakMinutes(WorkScheduleResponse schedule, LocalDate date) {
+        if (schedule == null || schedule.getScheduleData() == null) {
+            return 60; // Default 1 hour
+        }
+
+        WorkScheduleData data = schedule.getScheduleData();
+
+        if (schedule.getType() == ScheduleType.FLEXIBLE && data.getDailySchedules() != null) {
+            String dayKey = date.getDayOfWeek().name();
+            WorkScheduleData.DailySchedule daily = data.getDailySchedules().get(dayKey);
+            if (daily != null && daily.getBreakMinutes() != null) {
+                return daily.getBreakMinutes();
+            }
+        }
+
+        return data.getDefaultBreakMinutes() != null ? data.getDefaultBreakMinutes() : 60;
+    }
+
+    /**
+     * Lấy số phút làm việc chuẩn trong ngày
+     */
+    private int getStandardWorkingMinutes(WorkScheduleResponse schedule, LocalDate date) {
+        LocalTime startTime = getScheduleStartTime(schedule, date);
+        LocalTime endTime = getScheduleEndTime(schedule, date);
+        int breakMinutes = getBreakMinutes(schedule, date);
+
+        if (startTime != null && endTime != null) {
+            int totalMinutes = (int) ChronoUnit.MINUTES.between(startTime, endTime);
+            return Math.max(0, totalMinutes - breakMinutes);
+        }
+
+        return 8 * 60; // Default 8 hours
+    }
+}
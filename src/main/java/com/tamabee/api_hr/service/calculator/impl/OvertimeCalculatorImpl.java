@@ -5,14 +5,15 @@ import com.tamabee.api_hr.dto.config.OvertimeMultipliers;
 import com.tamabee.api_hr.dto.result.DailyOvertimeDetail;
 import com.tamabee.api_hr.dto.result.OvertimeResult;
 import com.tamabee.api_hr.entity.attendance.BreakRecordEntity;
+import com.tamabee.api_hr.service.calculator.FixedPointMoney;
 import com.tamabee.api_hr.service.calculator.interfaces.IOvertimeCalculator;
 import com.tamabee.api_hr.service.calculator.LegalOvertimeRequirements;
+import com.tamabee.api_hr.service.calculator.ShiftTimeline;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
-import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.List;
@@ -105,20 +106,8 @@ public class OvertimeCalculatorImpl implements IOvertimeCalculator {
 
         // Tính tiền tăng ca
         BigDecimal safeHourlyRate = hourlyRate != null ? hourlyRate : BigDecimal.ZERO;
-        BigDecimal minuteRate = safeHourlyRate.divide(BigDecimal.valueOf(MINUTES_PER_HOUR), 4, RoundingMode.HALF_UP);
-
-        // Tính tiền tăng ca và làm tròn từng loại
-        BigDecimal regularPay = calculatePay(totalRegularMinutes, minuteRate, config.getRegularOvertimeRate())
-                .setScale(0, RoundingMode.HALF_UP);
-        BigDecimal nightPay = calculatePay(totalNightMinutes, minuteRate, config.getNightOvertimeRate())
-                .setScale(0, RoundingMode.HALF_UP);
-        BigDecimal holidayPay = calculatePay(totalHolidayMinutes, minuteRate, config.getHolidayOvertimeRate())
-                .setScale(0, RoundingMode.HALF_UP);
-        BigDecimal weekendPay = calculatePay(totalWeekendMinutes, minuteRate, config.getWeekendOvertimeRate())
-                .setScale(0, RoundingMode.HALF_UP);
-
-        // Tổng tiền = tổng các loại đã làm tròn (đảm bảo sum invariant)
-        BigDecimal totalPay = regularPay.add(nightPay).add(holidayPay).add(weekendPay);
+        OvertimePays pays = calculatePays(safeHourlyRate, config,
+                totalRegularMinutes, totalNightMinutes, totalHolidayMinutes, totalWeekendMinutes);
 
         return OvertimeResult.builder()
                 .regularOvertimeMinutes(totalRegularMinutes)
@@ -126,11 +115,11 @@ public class OvertimeCalculatorImpl implements IOvertimeCalculator {
                 .holidayOvertimeMinutes(totalHolidayMinutes)
                 .weekendOvertimeMinutes(totalWeekendMinutes)
                 .totalOvertimeMinutes(totalMinutes)
-                .regularOvertimeAmount(regularPay)
-                .nightOvertimeAmount(nightPay)
-                .holidayOvertimeAmount(holidayPay)
-                .weekendOvertimeAmount(weekendPay)
-                .totalOvertimeAmount(totalPay)
+                .regularOvertimeAmount(pays.regular())
+                .nightOvertimeAmount(pays.night())
+                .holidayOvertimeAmount(pays.holiday())
+                .weekendOvertimeAmount(pays.weekend())
+                .totalOvertimeAmount(pays.total())
                 .build();
     }
 
@@ -182,17 +171,69 @@ public class OvertimeCalculatorImpl implements IOvertimeCalculator {
     }
 
     /**
-     * Tính tiền tăng ca = số phút × rate/phút × multiplier
+     * Tiền tăng ca 4 loại (đã làm tròn HALF_UP về đơn vị tiền) và tổng của chúng
+     */
+    private record OvertimePays(BigDecimal regular, BigDecimal night, BigDecimal holiday, BigDecimal weekend,
+            BigDecimal total) {
+    }
+
+    /**
+     * Tính tiền tăng ca: rate/phút làm tròn scale 4, sau đó × phút × multiplier, làm tròn từng loại.
+     * Tính trên long, chỉ chuyển sang BigDecimal ở kết quả; input không biểu diễn được hoặc tràn số thì
+     * tính lại bằng BigDecimal cùng công thức.
+     */
+    private OvertimePays calculatePays(BigDecimal hourlyRate, OvertimeConfig config,
+            int regularMinutes, int nightMinutes, int holidayMinutes, int weekendMinutes) {
+        try {
+            long minuteRate = FixedPointMoney.perMinute(FixedPointMoney.toFixed(hourlyRate));
+            long regular = calculatePay(regularMinutes, minuteRate, config.getRegularOvertimeRate());
+            long night = calculatePay(nightMinutes, minuteRate, config.getNightOvertimeRate());
+            long holiday = calculatePay(holidayMinutes, minuteRate, config.getHolidayOvertimeRate());
+            long weekend = calculatePay(weekendMinutes, minuteRate, config.getWeekendOvertimeRate());
+
+            // Tổng tiền = tổng các loại đã làm tròn (đảm bảo sum invariant)
+            long total = Math.addExact(Math.addExact(regular, night), Math.addExact(holiday, weekend));
+            return new OvertimePays(
+                    FixedPointMoney.wholeToBigDecimal(regular),
+                    FixedPointMoney.wholeToBigDecimal(night),
+                    FixedPointMoney.wholeToBigDecimal(holiday),
+                    FixedPointMoney.wholeToBigDecimal(weekend),
+                    FixedPointMoney.wholeToBigDecimal(total));
+        } catch (ArithmeticException e) {
+            BigDecimal minuteRate = FixedPointMoney.perMinute(hourlyRate);
+            BigDecimal regular = calculatePay(regularMinutes, minuteRate, config.getRegularOvertimeRate());
+            BigDecimal night = calculatePay(nightMinutes, minuteRate, config.getNightOvertimeRate());
+            BigDecimal holiday = calculatePay(holidayMinutes, minuteRate, config.getHolidayOvertimeRate());
+            BigDecimal weekend = calculatePay(weekendMinutes, minuteRate, config.getWeekendOvertimeRate());
+            return new OvertimePays(regular, night, holiday, weekend,
+                    regular.add(night).add(holiday).add(weekend));
+        }
+    }
+
+    /**
+     * Tiền tăng ca = round(minuteRate × minutes × multiplier), đơn vị tiền nguyên
+     */
+    private long calculatePay(int minutes, long minuteRate, BigDecimal multiplier) {
+        if (minutes <= 0) {
+            return 0;
+        }
+
+        long multiplierFixed = multiplier != null ? FixedPointMoney.toFixed(multiplier) : FixedPointMoney.ONE;
+        return FixedPointMoney.multiplyToWhole(
+                FixedPointMoney.multiply(minuteRate, minutes), multiplierFixed, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * Bản BigDecimal của {@link #calculatePay(int, long, BigDecimal)}
      */
     private BigDecimal calculatePay(int minutes, BigDecimal minuteRate, BigDecimal multiplier) {
-        if (minutes <= 0 || minuteRate == null) {
+        if (minutes <= 0) {
             return BigDecimal.ZERO;
         }
 
         BigDecimal safeMultiplier = multiplier != null ? multiplier : BigDecimal.ONE;
-        return minuteRate
-                .multiply(BigDecimal.valueOf(minutes))
-                .multiply(safeMultiplier);
+        return FixedPointMoney.multiplyToWhole(
+                minuteRate.multiply(BigDecimal.valueOf(minutes)), safeMultiplier, RoundingMode.HALF_UP);
     }
 
     @Override
@@ -213,24 +254,17 @@ public class OvertimeCalculatorImpl implements IOvertimeCalculator {
                 ? config.getNightEndTime()
                 : LocalTime.of(5, 0);
 
-        // Tính tổng số phút làm trong giờ đêm
-        int totalNightMinutes = calculateNightMinutesInRange(checkIn, checkOut, nightStart, nightEnd);
-
-        // Trừ break minutes nằm trong giờ đêm
-        if (breakRecords != null && !breakRecords.isEmpty()) {
+        // Giờ đêm của (ca - giải lao): giải lao được cắt theo ca và gộp nếu chồng nhau
+        ShiftTimeline timeline = new ShiftTimeline().addWork(checkIn, checkOut);
+        if (breakRecords != null) {
             for (BreakRecordEntity breakRecord : breakRecords) {
-                if (breakRecord != null && breakRecord.getBreakStart() != null && breakRecord.getBreakEnd() != null) {
-                    int breakNightMinutes = calculateNightMinutesInRange(
-                            breakRecord.getBreakStart(),
-                            breakRecord.getBreakEnd(),
-                            nightStart,
-                            nightEnd);
-                    totalNightMinutes -= breakNightMinutes;
+                if (breakRecord != null) {
+                    timeline.addBreak(breakRecord.getBreakStart(), breakRecord.getBreakEnd());
                 }
             }
         }
-
-        return Math.max(0, totalNightMinutes);
+        return timeline.compute(nightStart, nightEnd, ShiftTimeline.NO_OVERTIME_THRESHOLD)
+                .getNightWorkedMinutes();
     }
 
     @Override
@@ -265,79 +299,4 @@ public class OvertimeCalculatorImpl implements IOvertimeCalculator {
         }
         return multiplier.compareTo(minimum) >= 0;
     }
-
-    /**
-     * Tính số phút làm trong khoảng giờ đêm
-     */
-    private int calculateNightMinutesInRange(
-            LocalDateTime start,
-            LocalDateTime end,
-            LocalTime nightStart,
-            LocalTime nightEnd) {
-
-        if (start == null || end == null) {
-            return 0;
-        }
-
-        // Xử lý trường hợp overnight (qua đêm)
-        LocalDateTime adjustedEnd = end;
-        if (end.isBefore(start)) {
-            adjustedEnd = end.plusDays(1);
-        }
-
-        int totalNightMinutes = 0;
-        LocalDateTime current = start;
-
-        while (current.isBefore(adjustedEnd)) {
-            LocalTime currentTime = current.toLocalTime();
-            LocalDateTime nextMidnight = current.toLocalDate().plusDays(1).atStartOfDay();
-            LocalDateTime endOfDay = adjustedEnd.isBefore(nextMidnight) ? adjustedEnd : nextMidnight;
-
-            // Tính night minutes trong ngày hiện tại
-            if (nightStart.isAfter(nightEnd)) {
-                // Night hours qua đêm (22:00 - 05:00)
-                // Phần 1: 22:00 - 24:00
-                if (currentTime.isBefore(LocalTime.MIDNIGHT) || currentTime.equals(LocalTime.MIDNIGHT)) {
-                    LocalTime dayEnd = endOfDay.toLocalTime();
-                    if (dayEnd.equals(LocalTime.MIDNIGHT)) {
-                        dayEnd = LocalTime.MAX;
-                    }
-
-                    if (currentTime.isBefore(nightStart) && dayEnd.isAfter(nightStart)) {
-                        // Overlap với 22:00-24:00
-                        LocalTime overlapStart = nightStart;
-                        LocalTime overlapEnd = dayEnd.isAfter(LocalTime.MAX) ? LocalTime.MAX : dayEnd;
-                        totalNightMinutes += (int) Duration.between(overlapStart, overlapEnd).toMinutes();
-                    } else if (!currentTime.isBefore(nightStart)) {
-                        // Đang trong khoảng 22:00-24:00
-                        LocalTime overlapEnd = dayEnd.isAfter(LocalTime.MAX) ? LocalTime.MAX : dayEnd;
-                        totalNightMinutes += (int) Duration.between(currentTime, overlapEnd).toMinutes();
-                    }
-                }
-
-                // Phần 2: 00:00 - 05:00
-                if (currentTime.isBefore(nightEnd)) {
-                    LocalTime dayEnd = endOfDay.toLocalTime();
-                    LocalTime overlapEnd = dayEnd.isBefore(nightEnd) ? dayEnd : nightEnd;
-                    if (overlapEnd.isAfter(currentTime)) {
-                        totalNightMinutes += (int) Duration.between(currentTime, overlapEnd).toMinutes();
-                    }
-                }
-            } else {
-                // Night hours trong ngày (hiếm gặp)
-                LocalTime dayEnd = endOfDay.toLocalTime();
-                if (currentTime.isBefore(nightEnd) && dayEnd.isAfter(nightStart)) {
-                    LocalTime overlapStart = currentTime.isAfter(nightStart) ? currentTime : nightStart;
-                    LocalTime overlapEnd = dayEnd.isBefore(nightEnd) ? dayEnd : nightEnd;
-                    if (overlapEnd.isAfter(overlapStart)) {
-                        totalNightMinutes += (int) Duration.between(overlapStart, overlapEnd).toMinutes();
-                    }
-                }
-            }
-
-            current = nextMidnight;
-        }
-
-        return Math.max(0, totalNightMinutes);
-    }
 }
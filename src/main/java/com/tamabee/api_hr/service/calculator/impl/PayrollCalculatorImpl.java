@@ -4,6 +4,7 @@ import com.tamabee.api_hr.dto.config.*;
 import com.tamabee.api_hr.dto.result.*;
 import com.tamabee.api_hr.enums.BreakType;
 import com.tamabee.api_hr.enums.SalaryType;
+import com.tamabee.api_hr.service.calculator.FixedPointMoney;
 import com.tamabee.api_hr.service.calculator.interfaces.IAllowanceCalculator;
 import com.tamabee.api_hr.service.calculator.interfaces.IDeductionCalculator;
 import com.tamabee.api_hr.service.calculator.interfaces.IOvertimeCalculator;
@@ -28,8 +29,6 @@ public class PayrollCalculatorImpl implements IPayrollCalculator {
     private final IAllowanceCalculator allowanceCalculator;
     private final IDeductionCalculator deductionCalculator;
 
-    private static final int MINUTES_PER_HOUR = 60;
-
     @Override
     public PayrollResult calculatePayroll(
             EmployeeSalaryInfo salaryInfo,
@@ -78,15 +77,18 @@ public class PayrollCalculatorImpl implements IPayrollCalculator {
                 attendance != null ? attendance.getTotalBreakMinutes() : null,
                 hourlyRate, breakConfig);
 
-        // 6. Tính lương gộp
-        BigDecimal grossSalary = calculateGrossSalary(baseSalary, totalOvertimePay, totalAllowances);
+        // 6. Tính lương gộp (cộng trên long, giữ tổng để tính lương thực nhận)
+        FixedPointMoney.Sum gross = FixedPointMoney.Sum.of(baseSalary).add(totalOvertimePay).add(totalAllowances);
+        BigDecimal grossSalary = gross.toBigDecimal();
 
         // 7. Tính khấu trừ (bao gồm penalties)
         DeductionResult deductionResult = calculateDeductions(deductionConfig, attendance, grossSalary);
-        BigDecimal totalDeductions = deductionResult.getTotalDeductions().add(breakDeductionAmount);
+        FixedPointMoney.Sum deductions = FixedPointMoney.Sum.of(deductionResult.getTotalDeductions())
+                .add(breakDeductionAmount);
+        BigDecimal totalDeductions = deductions.toBigDecimal();
 
         // 8. Tính lương thực nhận
-        BigDecimal netSalary = calculateNetSalary(grossSalary, totalDeductions, payrollConfig);
+        BigDecimal netSalary = gross.subtractToWhole(deductions, getSalaryRoundingMode(payrollConfig));
 
         return PayrollResult.builder()
                 .salaryType(salaryInfo.getSalaryType())
@@ -158,11 +160,15 @@ public class PayrollCalculatorImpl implements IPayrollCalculator {
             return BigDecimal.ZERO;
         }
 
-        // Break deduction = (break minutes / 60) * hourly rate
-        BigDecimal breakHours = BigDecimal.valueOf(totalBreakMinutes)
-                .divide(BigDecimal.valueOf(MINUTES_PER_HOUR), 4, RoundingMode.HALF_UP);
-
-        return breakHours.multiply(hourlyRate).setScale(0, RoundingMode.HALF_UP);
+        // Break deduction = (break minutes / 60) * hourly rate, breakHours làm tròn scale 4
+        try {
+            long breakHours = FixedPointMoney.perMinute(FixedPointMoney.fromWhole(totalBreakMinutes));
+            return FixedPointMoney.wholeToBigDecimal(FixedPointMoney.multiplyToWhole(
+                    breakHours, FixedPointMoney.toFixed(hourlyRate), RoundingMode.HALF_UP));
+        } catch (ArithmeticException e) {
+            BigDecimal breakHours = FixedPointMoney.perMinute(BigDecimal.valueOf(totalBreakMinutes));
+            return FixedPointMoney.multiplyToWhole(breakHours, hourlyRate, RoundingMode.HALF_UP);
+        }
     }
 
     @Override
@@ -188,17 +194,7 @@ public class PayrollCalculatorImpl implements IPayrollCalculator {
             BigDecimal overtimePay,
             BigDecimal totalAllowances) {
 
-        BigDecimal gross = baseSalary != null ? baseSalary : BigDecimal.ZERO;
-
-        if (overtimePay != null) {
-            gross = gross.add(overtimePay);
-        }
-
-        if (totalAllowances != null) {
-            gross = gross.add(totalAllowances);
-        }
-
-        return gross;
+        return FixedPointMoney.Sum.of(baseSalary).add(overtimePay).add(totalAllowances).toBigDecimal();
     }
 
     @Override
@@ -207,13 +203,8 @@ public class PayrollCalculatorImpl implements IPayrollCalculator {
             BigDecimal totalDeductions,
             PayrollConfig payrollConfig) {
 
-        BigDecimal net = grossSalary != null ? grossSalary : BigDecimal.ZERO;
-
-        if (totalDeductions != null) {
-            net = net.subtract(totalDeductions);
-        }
-
-        return roundSalary(net, payrollConfig);
+        return FixedPointMoney.Sum.of(grossSalary)
+                .subtractToWhole(FixedPointMoney.Sum.of(totalDeductions), getSalaryRoundingMode(payrollConfig));
     }
 
     @Override
@@ -277,9 +268,8 @@ public class PayrollCalculatorImpl implements IPayrollCalculator {
                 && attendance.getTotalLateMinutes() != null
                 && attendance.getTotalLateMinutes() > 0) {
 
-            BigDecimal latePenalty = deductionConfig.getLatePenaltyPerMinute()
-                    .multiply(BigDecimal.valueOf(attendance.getTotalLateMinutes()))
-                    .setScale(0, RoundingMode.HALF_UP);
+            BigDecimal latePenalty = FixedPointMoney.multiplyToWhole(
+                    deductionConfig.getLatePenaltyPerMinute(), attendance.getTotalLateMinutes(), RoundingMode.HALF_UP);
             totalPenalty = totalPenalty.add(latePenalty);
         }
 
@@ -289,9 +279,9 @@ public class PayrollCalculatorImpl implements IPayrollCalculator {
                 && attendance.getTotalEarlyLeaveMinutes() != null
                 && attendance.getTotalEarlyLeaveMinutes() > 0) {
 
-            BigDecimal earlyLeavePenalty = deductionConfig.getEarlyLeavePenaltyPerMinute()
-                    .multiply(BigDecimal.valueOf(attendance.getTotalEarlyLeaveMinutes()))
-                    .setScale(0, RoundingMode.HALF_UP);
+            BigDecimal earlyLeavePenalty = FixedPointMoney.multiplyToWhole(
+                    deductionConfig.getEarlyLeavePenaltyPerMinute(), attendance.getTotalEarlyLeaveMinutes(),
+                    RoundingMode.HALF_UP);
             totalPenalty = totalPenalty.add(earlyLeavePenalty);
         }
 
@@ -323,9 +313,8 @@ public class PayrollCalculatorImpl implements IPayrollCalculator {
                 : 22;
 
         // Prorate: monthlySalary × (actualDays / standardDays)
-        return salaryInfo.getMonthlySalary()
-                .multiply(BigDecimal.valueOf(attendance.getWorkingDays()))
-                .divide(BigDecimal.valueOf(standardDays), 0, RoundingMode.HALF_UP);
+        return FixedPointMoney.multiplyDivideToWhole(
+                salaryInfo.getMonthlySalary(), attendance.getWorkingDays(), standardDays, RoundingMode.HALF_UP);
     }
 
     /**
@@ -343,9 +332,8 @@ public class PayrollCalculatorImpl implements IPayrollCalculator {
             return BigDecimal.ZERO;
         }
 
-        return salaryInfo.getDailyRate()
-                .multiply(BigDecimal.valueOf(attendance.getWorkingDays()))
-                .setScale(0, RoundingMode.HALF_UP);
+        return FixedPointMoney.multiplyToWhole(
+                salaryInfo.getDailyRate(), attendance.getWorkingDays(), RoundingMode.HALF_UP);
     }
 
     /**
@@ -363,9 +351,8 @@ public class PayrollCalculatorImpl implements IPayrollCalculator {
             return BigDecimal.ZERO;
         }
 
-        return salaryInfo.getHourlyRate()
-                .multiply(BigDecimal.valueOf(attendance.getWorkingHours()))
-                .setScale(0, RoundingMode.HALF_UP);
+        return FixedPointMoney.multiplyToWhole(
+                salaryInfo.getHourlyRate(), attendance.getWorkingHours(), RoundingMode.HALF_UP);
     }
 
     /**
@@ -383,27 +370,22 @@ public class PayrollCalculatorImpl implements IPayrollCalculator {
             return BigDecimal.ZERO;
         }
 
-        return salaryInfo.getShiftRate()
-                .multiply(BigDecimal.valueOf(attendance.getNumberOfShifts()))
-                .setScale(0, RoundingMode.HALF_UP);
+        return FixedPointMoney.multiplyToWhole(
+                salaryInfo.getShiftRate(), attendance.getNumberOfShifts(), RoundingMode.HALF_UP);
     }
 
     /**
-     * Làm tròn lương theo cấu hình
+     * RoundingMode tương ứng cấu hình làm tròn lương
      */
-    private BigDecimal roundSalary(BigDecimal salary, PayrollConfig config) {
-        if (salary == null) {
-            return BigDecimal.ZERO;
-        }
-
+    private RoundingMode getSalaryRoundingMode(PayrollConfig config) {
         if (config == null || config.getSalaryRounding() == null) {
-            return salary.setScale(0, RoundingMode.HALF_UP);
+            return RoundingMode.HALF_UP;
         }
 
         return switch (config.getSalaryRounding()) {
-            case UP -> salary.setScale(0, RoundingMode.CEILING);
-            case DOWN -> salary.setScale(0, RoundingMode.FLOOR);
-            case NEAREST -> salary.setScale(0, RoundingMode.HALF_UP);
+            case UP -> RoundingMode.CEILING;
+            case DOWN -> RoundingMode.FLOOR;
+            case NEAREST -> RoundingMode.HALF_UP;
         };
     }
 }
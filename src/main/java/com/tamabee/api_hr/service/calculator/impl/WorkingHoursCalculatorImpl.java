@@ -5,12 +5,13 @@ import com.tamabee.api_hr.dto.config.WorkScheduleData;
 import com.tamabee.api_hr.dto.result.WorkingHoursResult;
 import com.tamabee.api_hr.entity.attendance.BreakRecordEntity;
 import com.tamabee.api_hr.enums.BreakType;
+import com.tamabee.api_hr.service.calculator.MinuteIntervals;
+import com.tamabee.api_hr.service.calculator.ShiftTimeline;
 import com.tamabee.api_hr.service.calculator.interfaces.IBreakCalculator;
 import com.tamabee.api_hr.service.calculator.interfaces.IWorkingHoursCalculator;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
-import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.List;
@@ -44,69 +45,11 @@ public class WorkingHoursCalculatorImpl implements IWorkingHoursCalculator {
             return calculateOvernightWorkingHours(checkIn, checkOut, breakRecords, breakConfig, schedule);
         }
 
-        // Tính gross working minutes
-        int grossMinutes = (int) Duration.between(checkIn, checkOut).toMinutes();
-        if (grossMinutes < 0) {
-            grossMinutes = 0;
-        }
-
-        // Tính working hours (giờ)
-        int workingHours = grossMinutes / 60;
-
-        // Kiểm tra night shift
+        // Tính trên epoch-minute (checkOut trước checkIn → gross = 0)
         boolean isNightShift = breakConfig != null &&
                 breakCalculator.isNightShift(checkIn.toLocalTime(), checkOut.toLocalTime(), breakConfig);
-
-        // Tính break minutes
-        int totalBreakMinutes = breakCalculator.calculateTotalBreakMinutes(breakRecords);
-
-        // Nếu không có break records và break tracking disabled, sử dụng default
-        if (totalBreakMinutes == 0 && breakConfig != null &&
-                !Boolean.TRUE.equals(breakConfig.getBreakTrackingEnabled())) {
-            if (isNightShift && breakConfig.getNightShiftDefaultBreakMinutes() != null) {
-                totalBreakMinutes = breakConfig.getNightShiftDefaultBreakMinutes();
-            } else if (breakConfig.getDefaultBreakMinutes() != null) {
-                totalBreakMinutes = breakConfig.getDefaultBreakMinutes();
-            }
-        }
-
-        // Tính effective break minutes
-        int effectiveBreakMinutes = breakConfig != null
-                ? breakCalculator.calculateEffectiveBreakMinutes(
-                        totalBreakMinutes, breakConfig, workingHours, isNightShift)
-                : totalBreakMinutes;
-
-        // Kiểm tra break compliance
-        boolean breakCompliant = checkBreakCompliance(
-                totalBreakMinutes, breakConfig, workingHours, isNightShift);
-
-        // Tính net working minutes
-        int netMinutes = breakConfig != null
-                ? breakCalculator.calculateNetWorkingMinutes(grossMinutes, effectiveBreakMinutes, breakConfig)
-                : grossMinutes;
-
-        // Tính night minutes và regular minutes
-        int nightMinutes = 0;
-        int regularMinutes = netMinutes;
-        if (breakConfig != null) {
-            nightMinutes = calculateNightMinutes(checkIn, checkOut, breakConfig);
-            regularMinutes = Math.max(0, netMinutes - nightMinutes);
-        }
-
-        BreakType breakType = breakConfig != null ? breakConfig.getBreakType() : null;
-
-        return WorkingHoursResult.builder()
-                .grossWorkingMinutes(grossMinutes)
-                .netWorkingMinutes(netMinutes)
-                .totalBreakMinutes(totalBreakMinutes)
-                .effectiveBreakMinutes(effectiveBreakMinutes)
-                .breakType(breakType)
-                .breakCompliant(breakCompliant)
-                .isNightShift(isNightShift)
-                .isOvernightShift(isOvernight)
-                .nightMinutes(nightMinutes)
-                .regularMinutes(regularMinutes)
-                .build();
+        return calculate(MinuteIntervals.toEpochMinute(checkIn), MinuteIntervals.toEpochMinute(checkOut),
+                breakRecords, breakConfig, isNightShift, isOvernight);
     }
 
     @Override
@@ -123,29 +66,42 @@ public class WorkingHoursCalculatorImpl implements IWorkingHoursCalculator {
 
         // Với overnight shift, checkOut có thể là ngày hôm sau
         // Nếu checkOut trước checkIn về mặt thời gian, cộng thêm 1 ngày
-        LocalDateTime adjustedCheckOut = checkOut;
+        int start = MinuteIntervals.toEpochMinute(checkIn);
+        int end = MinuteIntervals.toEpochMinute(checkOut);
         if (checkOut.isBefore(checkIn)) {
-            adjustedCheckOut = checkOut.plusDays(1);
+            end += MinuteIntervals.MINUTES_PER_DAY;
         }
 
-        // Tính gross working minutes
-        int grossMinutes = (int) Duration.between(checkIn, adjustedCheckOut).toMinutes();
-        if (grossMinutes < 0) {
-            grossMinutes = 0;
-        }
+        // Overnight shift luôn là night shift
+        return calculate(start, end, breakRecords, breakConfig, true, true);
+    }
 
-        int workingHours = grossMinutes / 60;
+    /**
+     * Tính giờ làm của ca [start, end) (epoch-minute).
+     * Giải lao có giờ bắt đầu/kết thúc lấy từ timeline (cắt theo ca, gộp nếu chồng nhau, cùng nguồn với
+     * night minutes); giải lao không có giờ (fixed break tự tạo) lấy actualBreakMinutes.
+     */
+    private WorkingHoursResult calculate(
+            int start,
+            int end,
+            List<BreakRecordEntity> breakRecords,
+            BreakConfig breakConfig,
+            boolean isNightShift,
+            boolean isOvernight) {
 
-        // Overnight shift luôn là night shift
-        boolean isNightShift = true;
+        ShiftTimeline timeline = buildTimeline(start, end, breakRecords, breakConfig);
+        int grossMinutes = timeline.getGrossMinutes();
+
+        // Tính working hours (giờ)
+        int workingHours = grossMinutes / 60;
 
         // Tính break minutes
-        int totalBreakMinutes = breakCalculator.calculateTotalBreakMinutes(breakRecords);
+        int totalBreakMinutes = timeline.getBreakMinutes() + calculateUntimedBreakMinutes(breakRecords);
 
         // Nếu không có break records và break tracking disabled, sử dụng default
         if (totalBreakMinutes == 0 && breakConfig != null &&
                 !Boolean.TRUE.equals(breakConfig.getBreakTrackingEnabled())) {
-            if (breakConfig.getNightShiftDefaultBreakMinutes() != null) {
+            if (isNightShift && breakConfig.getNightShiftDefaultBreakMinutes() != null) {
                 totalBreakMinutes = breakConfig.getNightShiftDefaultBreakMinutes();
             } else if (breakConfig.getDefaultBreakMinutes() != null) {
                 totalBreakMinutes = breakConfig.getDefaultBreakMinutes();
@@ -167,11 +123,11 @@ public class WorkingHoursCalculatorImpl implements IWorkingHoursCalculator {
                 ? breakCalculator.calculateNetWorkingMinutes(grossMinutes, effectiveBreakMinutes, breakConfig)
                 : grossMinutes;
 
-        // Tính night minutes cho overnight shift
+        // Tính night minutes và regular minutes
         int nightMinutes = 0;
         int regularMinutes = netMinutes;
         if (breakConfig != null) {
-            nightMinutes = calculateNightMinutesForOvernight(checkIn, adjustedCheckOut, breakConfig);
+            nightMinutes = timeline.getNightWorkedMinutes();
             regularMinutes = Math.max(0, netMinutes - nightMinutes);
         }
 
@@ -185,12 +141,32 @@ public class WorkingHoursCalculatorImpl implements IWorkingHoursCalculator {
                 .breakType(breakType)
                 .breakCompliant(breakCompliant)
                 .isNightShift(isNightShift)
-                .isOvernightShift(true)
+                .isOvernightShift(isOvernight)
                 .nightMinutes(nightMinutes)
                 .regularMinutes(regularMinutes)
                 .build();
     }
 
+    /**
+     * Tổng actualBreakMinutes của các lần giải lao không có giờ bắt đầu/kết thúc (không nằm trong timeline)
+     */
+    private int calculateUntimedBreakMinutes(List<BreakRecordEntity> breakRecords) {
+        if (breakRecords == null) {
+            return 0;
+        }
+        int total = 0;
+        for (BreakRecordEntity breakRecord : breakRecords) {
+            if (breakRecord != null && !isTimed(breakRecord) && breakRecord.getActualBreakMinutes() != null) {
+                total += breakRecord.getActualBreakMinutes();
+            }
+        }
+        return total;
+    }
+
+    private static boolean isTimed(BreakRecordEntity breakRecord) {
+        return breakRecord.getBreakStart() != null && breakRecord.getBreakEnd() != null;
+    }
+
     @Override
     public boolean isOvernightShift(LocalTime startTime, LocalTime endTime) {
         if (startTime == null || endTime == null) {
@@ -243,99 +219,34 @@ public class WorkingHoursCalculatorImpl implements IWorkingHoursCalculator {
     }
 
     /**
-     * Tính số phút làm trong giờ đêm (22:00-05:00)
+     * Dựng timeline ca [start, end) kèm các lần giải lao có giờ bắt đầu/kết thúc,
+     * giờ đêm theo config (mặc định 22:00-05:00)
      */
-    private int calculateNightMinutes(
-            LocalDateTime checkIn,
-            LocalDateTime checkOut,
+    private ShiftTimeline buildTimeline(
+            int start,
+            int end,
+            List<BreakRecordEntity> breakRecords,
             BreakConfig config) {
 
-        LocalTime nightStart = config.getNightShiftStartTime() != null
-                ? config.getNightShiftStartTime()
-                : LocalTime.of(22, 0);
-        LocalTime nightEnd = config.getNightShiftEndTime() != null
-                ? config.getNightShiftEndTime()
-                : LocalTime.of(5, 0);
-
-        LocalTime startTime = checkIn.toLocalTime();
-        LocalTime endTime = checkOut.toLocalTime();
-
-        // Trường hợp đơn giản: shift trong ngày
-        if (!isOvernightShift(startTime, endTime)) {
-            // Kiểm tra overlap với night hours
-            if (nightStart.isAfter(nightEnd)) {
-                // Night hours qua đêm (22:00 - 05:00)
-                // Shift trong ngày chỉ có thể overlap với phần 22:00-24:00 hoặc 00:00-05:00
-                int nightMinutes = 0;
-
-                // Overlap với 22:00-24:00
-                if (endTime.isAfter(nightStart)) {
-                    LocalTime overlapStart = startTime.isAfter(nightStart) ? startTime : nightStart;
-                    LocalTime overlapEnd = endTime;
-                    nightMinutes += (int) Duration.between(overlapStart, overlapEnd).toMinutes();
-                }
-
-                // Overlap với 00:00-05:00
-                if (startTime.isBefore(nightEnd)) {
-                    LocalTime overlapStart = startTime;
-                    LocalTime overlapEnd = endTime.isBefore(nightEnd) ? endTime : nightEnd;
-                    nightMinutes += (int) Duration.between(overlapStart, overlapEnd).toMinutes();
+        ShiftTimeline timeline = new ShiftTimeline().addWork(start, end);
+        if (breakRecords != null) {
+            for (BreakRecordEntity breakRecord : breakRecords) {
+                if (breakRecord != null && isTimed(breakRecord)) {
+                    timeline.addBreak(breakRecord.getBreakStart(), breakRecord.getBreakEnd());
                 }
-
-                return Math.max(0, nightMinutes);
-            }
-        }
-
-        return 0;
-    }
-
-    /**
-     * Tính số phút làm trong giờ đêm cho overnight shift
-     */
-    private int calculateNightMinutesForOvernight(
-            LocalDateTime checkIn,
-            LocalDateTime checkOut,
-            BreakConfig config) {
-
-        LocalTime nightStart = config.getNightShiftStartTime() != null
-                ? config.getNightShiftStartTime()
-                : LocalTime.of(22, 0);
-        LocalTime nightEnd = config.getNightShiftEndTime() != null
-                ? config.getNightShiftEndTime()
-                : LocalTime.of(5, 0);
-
-        int nightMinutes = 0;
-
-        // Overnight shift: ví dụ 17:00 ngày 1 đến 07:00 ngày 2
-        // Night hours: 22:00 - 05:00
-
-        LocalTime startTime = checkIn.toLocalTime();
-        LocalTime endTime = checkOut.toLocalTime();
-
-        // Phần 1: Từ checkIn đến 24:00 ngày 1
-        // Tính overlap với 22:00-24:00
-        if (startTime.isBefore(LocalTime.MIDNIGHT) || startTime.equals(LocalTime.MIDNIGHT)) {
-            if (startTime.isBefore(nightStart)) {
-                // Bắt đầu trước 22:00, tính từ 22:00 đến 24:00
-                nightMinutes += (int) Duration.between(nightStart, LocalTime.MAX).toMinutes() + 1;
-            } else {
-                // Bắt đầu sau 22:00, tính từ startTime đến 24:00
-                nightMinutes += (int) Duration.between(startTime, LocalTime.MAX).toMinutes() + 1;
             }
         }
 
-        // Phần 2: Từ 00:00 đến checkOut ngày 2
-        // Tính overlap với 00:00-05:00
-        if (endTime.isAfter(LocalTime.MIDNIGHT) || endTime.equals(LocalTime.MIDNIGHT)) {
-            if (endTime.isAfter(nightEnd)) {
-                // Kết thúc sau 05:00, tính từ 00:00 đến 05:00
-                nightMinutes += (int) Duration.between(LocalTime.MIDNIGHT, nightEnd).toMinutes();
-            } else {
-                // Kết thúc trước 05:00, tính từ 00:00 đến endTime
-                nightMinutes += (int) Duration.between(LocalTime.MIDNIGHT, endTime).toMinutes();
-            }
+        LocalTime nightStart = null;
+        LocalTime nightEnd = null;
+        if (config != null) {
+            nightStart = config.getNightShiftStartTime() != null
+                    ? config.getNightShiftStartTime()
+                    : LocalTime.of(22, 0);
+            nightEnd = config.getNightShiftEndTime() != null
+                    ? config.getNightShiftEndTime()
+                    : LocalTime.of(5, 0);
         }
-
-        return Math.max(0, nightMinutes);
+        return timeline.compute(nightStart, nightEnd, ShiftTimeline.NO_OVERTIME_THRESHOLD);
     }
 }
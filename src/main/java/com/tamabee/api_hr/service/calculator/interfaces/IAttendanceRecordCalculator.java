@@ -0,0 +1,50 @@
+package com.tamabee.api_hr.service.calculator.interfaces;
+
+import com.tamabee.api_hr.dto.config.AttendanceConfig;
+import com.tamabee.api_hr.dto.config.BreakConfig;
+import com.tamabee.api_hr.dto.response.schedule.WorkScheduleResponse;
+import com.tamabee.api_hr.entity.attendance.AttendanceRecordEntity;
+import com.tamabee.api_hr.entity.attendance.BreakRecordEntity;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+
+/**
+ * Interface cho việc tính toán các chỉ số của một bản ghi chấm công
+ * (đi muộn, giờ làm việc, giải lao, về sớm, tăng ca)
+ */
+public interface IAttendanceRecordCalculator {
+
+    /**
+     * Tính số phút đi muộn
+     *
+     * @param checkInTime Thời gian check-in (đã làm tròn)
+     * @param schedule    Lịch làm việc hiệu lực
+     * @param config      Cấu hình chấm công (grace period)
+     * @return Số phút đi muộn, 0 nếu trong grace period
+     */
+    int calculateLateMinutes(LocalDateTime checkInTime, WorkScheduleResponse schedule, AttendanceConfig config);
+
+    /**
+     * Tính giờ làm việc, giải lao, về sớm và tăng ca rồi ghi vào entity.
+     * Không làm gì nếu bản ghi chưa có đủ check-in/check-out đã làm tròn.
+     *
+     * @param entity       Bản ghi chấm công
+     * @param breakRecords Các bản ghi giải lao của bản ghi chấm công
+     * @param schedule     Lịch làm việc hiệu lực
+     * @param config       Cấu hình chấm công
+     * @param breakConfig  Cấu hình giải lao (có thể null)
+     */
+    void calculateWorkingHours(AttendanceRecordEntity entity, List<BreakRecordEntity> breakRecords,
+            WorkScheduleResponse schedule, AttendanceConfig config, BreakConfig breakConfig);
+
+    /**
+     * Lấy giờ kết thúc làm việc theo lịch của ngày (mặc định 18:00)
+     *
+     * @param schedule Lịch làm việc hiệu lực (có thể null)
+     * @param date     Ngày làm việc
+     */
+    LocalTime getScheduleEndTime(WorkScheduleResponse schedule, LocalDate date);
+}
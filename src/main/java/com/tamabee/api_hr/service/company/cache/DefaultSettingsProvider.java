@@ -1,6 +1,7 @@
 package com.tamabee.api_hr.service.company.cache;
 
 import com.tamabee.api_hr.dto.config.*;
+import com.tamabee.api_hr.enums.AutoClosePolicy;
 import com.tamabee.api_hr.enums.BreakType;
 import com.tamabee.api_hr.enums.SalaryType;
 import lombok.extern.slf4j.Slf4j;
@@ -38,6 +39,9 @@ public class DefaultSettingsProvider {
                 .geoFenceRadiusMeters(100)
                 .allowMobileCheckIn(true)
                 .allowWebCheckIn(true)
+                .autoCloseEnabled(false)
+                .autoClosePolicy(AutoClosePolicy.SCHEDULE_END)
+                .maxShiftHours(16)
                 .build();
     }
 
@@ -171,6 +175,18 @@ public class DefaultSettingsProvider {
             config.setAllowWebCheckIn(defaults.getAllowWebCheckIn());
             hasNullFields = true;
         }
+        if (config.getAutoCloseEnabled() == null) {
+            config.setAutoCloseEnabled(defaults.getAutoCloseEnabled());
+            hasNullFields = true;
+        }
+        if (config.getAutoClosePolicy() == null) {
+            config.setAutoClosePolicy(defaults.getAutoClosePolicy());
+            hasNullFields = true;
+        }
+        if (config.getMaxShiftHours() == null) {
+            config.setMaxShiftHours(defaults.getMaxShiftHours());
+            hasNullFields = true;
+        }
 
         if (hasNullFields) {
             log.debug("Đã merge AttendanceConfig với default values cho companyId: {}", companyId);
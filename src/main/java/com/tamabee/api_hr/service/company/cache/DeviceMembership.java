@@ -0,0 +1,130 @@
+package com.tamabee.api_hr.service.company.cache;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Tập thiết bị đã đăng ký của một tenant, dùng cho kiểm tra thiết bị khi chấm công.
+ *
+ * Bloom filter trả lời nhanh các thiết bị chắc chắn chưa đăng ký (chỉ băm một lần, không chạm
+ * vào HashSet); khi bloom filter báo "có thể có" thì HashSet xác nhận nên không bao giờ sai.
+ * Bất biến sau khi build, dùng chung giữa các request.
+ */
+public final class DeviceMembership {
+
+    // ~1% false positive với 10 bit/phần tử và 7 hàm băm
+    private static final int BITS_PER_DEVICE = 10;
+    private static final int HASH_FUNCTIONS = 7;
+
+    private static final DeviceMembership EMPTY = new DeviceMembership(Set.of(), new long[1], 64, false);
+    private static final DeviceMembership ALL_REVOKED = new DeviceMembership(Set.of(), new long[1], 64, true);
+
+    private final Set<String> deviceIds;
+    private final long[] bits;
+    private final int bitCount;
+    private final boolean everRegistered;
+
+    private DeviceMembership(Set<String> deviceIds, long[] bits, int bitCount, boolean everRegistered) {
+        this.deviceIds = deviceIds;
+        this.bits = bits;
+        this.bitCount = bitCount;
+        this.everRegistered = everRegistered;
+    }
+
+    /**
+     * Build từ danh sách ID thiết bị (bỏ qua null/rỗng), không có thiết bị đã thu hồi
+     */
+    public static DeviceMembership of(Collection<String> deviceIds) {
+        return of(deviceIds, false);
+    }
+
+    /**
+     * Build từ danh sách ID thiết bị chưa thu hồi (bỏ qua null/rỗng)
+     *
+     * @param hasRevokedDevices công ty có thiết bị đã thu hồi
+     */
+    public static DeviceMembership of(Collection<String> deviceIds, boolean hasRevokedDevices) {
+        Set<String> set = new HashSet<>();
+        for (String deviceId : deviceIds) {
+            if (deviceId != null && !deviceId.isBlank()) {
+                set.add(deviceId);
+            }
+        }
+        if (set.isEmpty()) {
+            return hasRevokedDevices ? ALL_REVOKED : EMPTY;
+        }
+
+        int bitCount = Math.max(64, set.size() * BITS_PER_DEVICE);
+        long[] bits = new long[(bitCount + 63) / 64];
+        bitCount = bits.length * 64;
+        for (String deviceId : set) {
+            long hash = hash64(deviceId);
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 0; i < HASH_FUNCTIONS; i++) {
+                int bit = Math.floorMod(h1 + i * h2, bitCount);
+                bits[bit >>> 6] |= 1L << bit;
+            }
+        }
+        return new DeviceMembership(Set.copyOf(set), bits, bitCount, true);
+    }
+
+    /**
+     * Không có thiết bị nào đang được đăng ký (chưa thu hồi)
+     */
+    public boolean isEmpty() {
+        return deviceIds.isEmpty();
+    }
+
+    /**
+     * Công ty đã từng đăng ký thiết bị (kể cả khi tất cả đã bị thu hồi).
+     * Phân biệt "chưa dùng đăng ký thiết bị" với "mọi thiết bị đã bị thu hồi".
+     */
+    public boolean isEverRegistered() {
+        return everRegistered;
+    }
+
+    public int size() {
+        return deviceIds.size();
+    }
+
+    /**
+     * Thiết bị đã được đăng ký (chưa thu hồi)
+     */
+    public boolean contains(String deviceId) {
+        if (deviceId == null || deviceIds.isEmpty()) {
+            return false;
+        }
+        return mightContain(deviceId) && deviceIds.contains(deviceId);
+    }
+
+    /**
+     * Kiểm tra bloom filter: false = chắc chắn chưa đăng ký
+     */
+    boolean mightContain(String deviceId) {
+        long hash = hash64(deviceId);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 0; i < HASH_FUNCTIONS; i++) {
+            int bit = Math.floorMod(h1 + i * h2, bitCount);
+            if ((bits[bit >>> 6] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // FNV-1a 64 bit + bước trộn cuối của SplitMix64 để hai nửa 32 bit độc lập
+    private static long hash64(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,48 @@
+package com.tamabee.api_hr.service.company.cache;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * Cache tập thiết bị đã đăng ký theo tenant cho luồng check-in/check-out.
+ *
+ * Invalidate khi DeviceRegistryService đăng ký/thu hồi thiết bị. Lưu trữ qua {@link VersionedTenantCache}:
+ * lần build bắt đầu trước khi đăng ký/thu hồi được commit không ghi đè lại tập cũ.
+ */
+@Slf4j
+@Component
+public class DeviceMembershipCache {
+
+    @Value("${attendance.device-cache.ttl-seconds:600}")
+    private long ttlSeconds;
+
+    private VersionedTenantCache<Void, DeviceMembership> memberships;
+
+    @PostConstruct
+    void init() {
+        memberships = new VersionedTenantCache<>(Duration.ofSeconds(ttlSeconds));
+    }
+
+    /**
+     * Lấy tập thiết bị của tenant, build nếu chưa có hoặc đã hết hạn
+     */
+    public DeviceMembership get(String tenantDomain, Supplier<DeviceMembership> loader) {
+        return memberships.get(tenantDomain, () -> {
+            DeviceMembership membership = loader.get();
+            log.debug("Build tập thiết bị cho tenant {}: {} thiết bị", tenantDomain, membership.size());
+            return membership;
+        });
+    }
+
+    /**
+     * Xóa tập thiết bị của tenant (khi đăng ký/thu hồi thiết bị)
+     */
+    public void invalidate(String tenantDomain) {
+        memberships.invalidateTenant(tenantDomain);
+    }
+}
@@ -0,0 +1,274 @@
+package com.tamabee.api_hr.service.company.cache;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Chỉ mục không gian (grid) cho geo-fence của các địa điểm làm việc trong một tenant.
+ *
+ * Mỗi vùng (tròn hoặc đa giác) được tính sẵn bounding box và đăng ký vào các ô lưới
+ * {@link #CELL_DEGREES} độ mà bounding box phủ lên. Tra cứu một điểm chỉ đọc một ô và kiểm tra
+ * các vùng trong ô đó (bounding box trước, hình học chính xác sau), nên thời gian gần như không đổi
+ * theo số địa điểm. Vùng quá lớn (phủ hơn {@link #MAX_CELLS_PER_FENCE} ô) được giữ trong danh sách
+ * riêng và luôn được kiểm tra theo bounding box.
+ *
+ * Bất biến sau khi build, dùng chung giữa các request. Không xử lý vùng vắt qua kinh tuyến 180.
+ */
+public final class GeoFenceIndex {
+
+    // Kích thước ô lưới (~1,1km theo vĩ độ)
+    static final double CELL_DEGREES = 0.01;
+
+    static final int MAX_CELLS_PER_FENCE = 4_096;
+
+    private static final double EARTH_RADIUS_METERS = 6_371_000;
+    // Cùng bán kính với Haversine để bounding box luôn bao trọn vùng tròn
+    private static final double METERS_PER_DEGREE_LAT = Math.toRadians(1) * EARTH_RADIUS_METERS;
+    private static final long LNG_CELLS = (long) Math.ceil(360 / CELL_DEGREES) + 1;
+
+    private static final GeoFenceIndex EMPTY = new GeoFenceIndex(Map.of(), new Fence[0], 0, false);
+    private static final GeoFenceIndex NONE_ACTIVE = new GeoFenceIndex(Map.of(), new Fence[0], 0, true);
+
+    private final Map<Long, Fence[]> cells;
+    private final Fence[] largeFences;
+    private final int size;
+    private final boolean sitesConfigured;
+
+    private GeoFenceIndex(Map<Long, Fence[]> cells, Fence[] largeFences, int size, boolean sitesConfigured) {
+        this.cells = cells;
+        this.largeFences = largeFences;
+        this.size = size;
+        this.sitesConfigured = sitesConfigured;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Không có vùng nào để kiểm tra
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Công ty đã cấu hình địa điểm làm việc (kể cả khi tất cả đang tạm dừng).
+     * Phân biệt "chưa dùng geo-fence" với "có địa điểm nhưng không địa điểm nào hoạt động".
+     */
+    public boolean hasSitesConfigured() {
+        return sitesConfigured;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Tìm địa điểm chứa điểm (lat, lng)
+     *
+     * @return ID địa điểm đầu tiên chứa điểm, null nếu không có
+     */
+    public Long findSiteId(double latitude, double longitude) {
+        Fence[] candidates = cells.get(cellKey(cellIndex(latitude + 90), cellIndex(longitude + 180)));
+        if (candidates != null) {
+            for (Fence fence : candidates) {
+                if (fence.contains(latitude, longitude)) {
+                    return fence.siteId;
+                }
+            }
+        }
+        for (Fence fence : largeFences) {
+            if (fence.contains(latitude, longitude)) {
+                return fence.siteId;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Khoảng cách Haversine giữa hai điểm (mét)
+     */
+    public static double distanceMeters(double lat1, double lng1, double lat2, double lng2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLng = Math.toRadians(lng2 - lng1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                        * Math.sin(dLng / 2) * Math.sin(dLng / 2);
+        return 2 * EARTH_RADIUS_METERS * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    private static long cellIndex(double shiftedDegrees) {
+        return (long) Math.floor(shiftedDegrees / CELL_DEGREES);
+    }
+
+    private static long cellKey(long latIndex, long lngIndex) {
+        return latIndex * LNG_CELLS + lngIndex;
+    }
+
+    /**
+     * Một vùng đã compile: bounding box + hình học chính xác
+     */
+    private abstract static class Fence {
+        final Long siteId;
+        final double minLat;
+        final double maxLat;
+        final double minLng;
+        final double maxLng;
+
+        Fence(Long siteId, double minLat, double maxLat, double minLng, double maxLng) {
+            this.siteId = siteId;
+            this.minLat = Math.max(-90, minLat);
+            this.maxLat = Math.min(90, maxLat);
+            this.minLng = Math.max(-180, minLng);
+            this.maxLng = Math.min(180, maxLng);
+        }
+
+        final boolean contains(double latitude, double longitude) {
+            return latitude >= minLat && latitude <= maxLat
+                    && longitude >= minLng && longitude <= maxLng
+                    && containsExact(latitude, longitude);
+        }
+
+        abstract boolean containsExact(double latitude, double longitude);
+    }
+
+    private static final class CircleFence extends Fence {
+        private final double latitude;
+        private final double longitude;
+        private final double radiusMeters;
+
+        CircleFence(Long siteId, double latitude, double longitude, double radiusMeters) {
+            super(siteId,
+                    latitude - radiusMeters / METERS_PER_DEGREE_LAT,
+                    latitude + radiusMeters / METERS_PER_DEGREE_LAT,
+                    longitude - lngDelta(latitude, radiusMeters),
+                    longitude + lngDelta(latitude, radiusMeters));
+            this.latitude = latitude;
+            this.longitude = longitude;
+            this.radiusMeters = radiusMeters;
+        }
+
+        // Độ lệch kinh độ của bán kính, tính ở vĩ độ xa xích đạo nhất của vùng
+        private static double lngDelta(double latitude, double radiusMeters) {
+            double farthestLat = Math.min(90, Math.abs(latitude) + radiusMeters / METERS_PER_DEGREE_LAT);
+            double metersPerDegree = METERS_PER_DEGREE_LAT * Math.cos(Math.toRadians(farthestLat));
+            return metersPerDegree < 1 ? 180 : radiusMeters / metersPerDegree;
+        }
+
+        @Override
+        boolean containsExact(double lat, double lng) {
+            return distanceMeters(latitude, longitude, lat, lng) <= radiusMeters;
+        }
+    }
+
+    private static final class PolygonFence extends Fence {
+        private final double[] lats;
+        private final double[] lngs;
+
+        PolygonFence(Long siteId, double[] lats, double[] lngs) {
+            super(siteId, min(lats), max(lats), min(lngs), max(lngs));
+            this.lats = lats;
+            this.lngs = lngs;
+        }
+
+        // Ray casting trên mặt phẳng (lng, lat), đủ chính xác cho vùng cỡ cửa hàng/chi nhánh
+        @Override
+        boolean containsExact(double lat, double lng) {
+            boolean inside = false;
+            for (int i = 0, j = lats.length - 1; i < lats.length; j = i++) {
+                if ((lats[i] > lat) != (lats[j] > lat)
+                        && lng < (lngs[j] - lngs[i]) * (lat - lats[i]) / (lats[j] - lats[i]) + lngs[i]) {
+                    inside = !inside;
+                }
+            }
+            return inside;
+        }
+
+        private static double min(double[] values) {
+            double min = Double.POSITIVE_INFINITY;
+            for (double value : values) {
+                min = Math.min(min, value);
+            }
+            return min;
+        }
+
+        private static double max(double[] values) {
+            double max = Double.NEGATIVE_INFINITY;
+            for (double value : values) {
+                max = Math.max(max, value);
+            }
+            return max;
+        }
+    }
+
+    /**
+     * Builder: thêm các vùng rồi build thành chỉ mục bất biến
+     */
+    public static final class Builder {
+        private final List<Fence> fences = new ArrayList<>();
+        private boolean sitesConfigured;
+
+        private Builder() {
+        }
+
+        /**
+         * Đánh dấu công ty có địa điểm làm việc, kể cả khi không vùng nào được thêm
+         * (địa điểm tạm dừng hoặc hình học không hợp lệ)
+         */
+        public Builder sitesConfigured(boolean sitesConfigured) {
+            this.sitesConfigured = sitesConfigured;
+            return this;
+        }
+
+        /**
+         * Thêm vùng tròn
+         */
+        public Builder addCircle(Long siteId, double latitude, double longitude, double radiusMeters) {
+            fences.add(new CircleFence(siteId, latitude, longitude, radiusMeters));
+            return this;
+        }
+
+        /**
+         * Thêm vùng đa giác (ít nhất 3 đỉnh, không cần lặp lại đỉnh đầu)
+         */
+        public Builder addPolygon(Long siteId, double[] latitudes, double[] longitudes) {
+            if (latitudes.length < 3 || latitudes.length != longitudes.length) {
+                throw new IllegalArgumentException("Đa giác cần ít nhất 3 đỉnh");
+            }
+            fences.add(new PolygonFence(siteId, latitudes.clone(), longitudes.clone()));
+            return this;
+        }
+
+        public GeoFenceIndex build() {
+            if (fences.isEmpty()) {
+                return sitesConfigured ? NONE_ACTIVE : EMPTY;
+            }
+
+            Map<Long, List<Fence>> grid = new HashMap<>();
+            List<Fence> large = new ArrayList<>();
+            for (Fence fence : fences) {
+                long minLatIndex = cellIndex(fence.minLat + 90);
+                long maxLatIndex = cellIndex(fence.maxLat + 90);
+                long minLngIndex = cellIndex(fence.minLng + 180);
+                long maxLngIndex = cellIndex(fence.maxLng + 180);
+                long cellCount = (maxLatIndex - minLatIndex + 1) * (maxLngIndex - minLngIndex + 1);
+                if (cellCount > MAX_CELLS_PER_FENCE) {
+                    large.add(fence);
+                    continue;
+                }
+                for (long latIndex = minLatIndex; latIndex <= maxLatIndex; latIndex++) {
+                    for (long lngIndex = minLngIndex; lngIndex <= maxLngIndex; lngIndex++) {
+                        grid.computeIfAbsent(cellKey(latIndex, lngIndex), key -> new ArrayList<>(2)).add(fence);
+                    }
+                }
+            }
+
+            Map<Long, Fence[]> cells = new HashMap<>(grid.size() * 2);
+            grid.forEach((key, cellFences) -> cells.put(key, cellFences.toArray(new Fence[0])));
+            return new GeoFenceIndex(cells, large.toArray(new Fence[0]), fences.size(), true);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.tamabee.api_hr.service.company.cache;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * Cache chỉ mục geo-fence theo tenant cho luồng check-in/check-out.
+ *
+ * Chỉ mục được build một lần từ các địa điểm làm việc đang hoạt động, theo bán kính mặc định
+ * (geoFenceRadiusMeters) do caller truyền vào; bán kính mặc định đổi thì dùng khóa mới.
+ * Invalidate khi WorkSiteService ghi địa điểm. Lưu trữ qua {@link VersionedTenantCache}.
+ */
+@Slf4j
+@Component
+public class GeoFenceIndexCache {
+
+    @Value("${attendance.geofence-cache.ttl-seconds:600}")
+    private long ttlSeconds;
+
+    private VersionedTenantCache<Integer, GeoFenceIndex> indexes;
+
+    @PostConstruct
+    void init() {
+        indexes = new VersionedTenantCache<>(Duration.ofSeconds(ttlSeconds));
+    }
+
+    /**
+     * Lấy chỉ mục của tenant theo bán kính mặc định, build nếu chưa có hoặc đã hết hạn
+     */
+    public GeoFenceIndex get(String tenantDomain, int defaultRadiusMeters, Supplier<GeoFenceIndex> loader) {
+        return indexes.get(tenantDomain, defaultRadiusMeters, radius -> {
+            GeoFenceIndex index = loader.get();
+            log.debug("Build geo-fence index cho tenant {}: {} địa điểm", tenantDomain, index.size());
+            return index;
+        });
+    }
+
+    /**
+     * Xóa chỉ mục của tenant (khi tạo/sửa/xóa địa điểm)
+     */
+    public void invalidate(String tenantDomain) {
+        indexes.invalidateTenant(tenantDomain);
+    }
+}
@@ -0,0 +1,66 @@
+package com.tamabee.api_hr.service.company.cache;
+
+import com.tamabee.api_hr.dto.result.PayrollPeriodDataset;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.YearMonth;
+import java.util.function.Supplier;
+
+/**
+ * Cache dữ liệu kỳ lương trong bộ nhớ theo (tenant, kỳ).
+ * Dùng cho mô phỏng lương: lần đầu load từ DB, các lần sau (slider UI) đọc từ bộ nhớ.
+ * Hết hạn theo TTL hoặc khi bị invalidate: finalize lương, điều chỉnh/tính lại chấm công
+ * (qua IPayrollSimulationService.evictDataset), đổi cấu hình (invalidateTenant).
+ * Nhiều request cùng thiếu một kỳ chờ chung một lần load.
+ */
+@Slf4j
+@Component
+public class PayrollPeriodDatasetCache {
+
+    @Value("${payroll.simulation.dataset-ttl-seconds:300}")
+    private long ttlSeconds;
+
+    @Value("${payroll.simulation.max-datasets:50}")
+    private int maxDatasets;
+
+    private VersionedTenantCache<YearMonth, PayrollPeriodDataset> datasets;
+
+    @PostConstruct
+    void init() {
+        datasets = new VersionedTenantCache<>(Duration.ofSeconds(ttlSeconds), maxDatasets);
+    }
+
+    /**
+     * Lấy dataset từ cache, load mới nếu chưa có hoặc đã hết hạn
+     *
+     * @param tenantDomain tenant hiện tại
+     * @param period       kỳ lương
+     * @param loader       hàm load dataset từ DB
+     */
+    public PayrollPeriodDataset get(String tenantDomain, YearMonth period, Supplier<PayrollPeriodDataset> loader) {
+        return datasets.get(tenantDomain, period, key -> {
+            PayrollPeriodDataset loaded = loader.get();
+            log.debug("Loaded payroll dataset {}:{} ({} nhân viên)",
+                    tenantDomain, period, loaded.getEmployees().size());
+            return loaded;
+        });
+    }
+
+    /**
+     * Xóa dataset của một kỳ (ngay và sau commit)
+     */
+    public void invalidate(String tenantDomain, YearMonth period) {
+        datasets.invalidate(tenantDomain, period);
+    }
+
+    /**
+     * Xóa tất cả dataset của một tenant (khi đổi cấu hình)
+     */
+    public void invalidateTenant(String tenantDomain) {
+        datasets.invalidateTenant(tenantDomain);
+    }
+}
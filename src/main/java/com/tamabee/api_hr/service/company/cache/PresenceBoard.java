@@ -0,0 +1,92 @@
+package com.tamabee.api_hr.service.company.cache;
+
+import com.tamabee.api_hr.enums.PresenceStatus;
+
+import java.time.LocalDate;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bảng hiện diện trong một ngày của một tenant: trạng thái từng nhân viên đã check-in và bộ đếm theo trạng thái.
+ *
+ * Bộ đếm là LongAdder (đếm phân mảnh) nên check-in đồng thời đầu ca không tranh chấp một biến đếm chung,
+ * đọc tổng chỉ cộng các mảnh. Chuyển trạng thái của một nhân viên và điều chỉnh bộ đếm tương ứng chạy trong
+ * compute của ConcurrentHashMap nên tuần tự theo nhân viên; counts() đọc trong lúc có chuyển trạng thái
+ * có thể lệch 1 trong thoáng chốc.
+ */
+public final class PresenceBoard {
+
+    private record Presence(PresenceStatus status, boolean late) {
+    }
+
+    /**
+     * Số nhân viên theo trạng thái; late tính trên mọi nhân viên đã check-in muộn trong ngày
+     */
+    public record Counts(long checkedIn, long onBreak, long checkedOut, long late) {
+    }
+
+    private final LocalDate workDate;
+    private final Map<Long, Presence> employees = new ConcurrentHashMap<>();
+    private final Map<PresenceStatus, LongAdder> statusCounters = new EnumMap<>(PresenceStatus.class);
+    private final LongAdder lateCounter = new LongAdder();
+
+    public PresenceBoard(LocalDate workDate) {
+        this.workDate = workDate;
+        for (PresenceStatus status : PresenceStatus.values()) {
+            statusCounters.put(status, new LongAdder());
+        }
+    }
+
+    public LocalDate getWorkDate() {
+        return workDate;
+    }
+
+    /**
+     * Cập nhật trạng thái của nhân viên
+     *
+     * @param status null = nhân viên không còn bản ghi chấm công trong ngày
+     * @return true nếu trạng thái thay đổi
+     */
+    public boolean apply(Long employeeId, PresenceStatus status, boolean late) {
+        boolean[] changed = new boolean[1];
+        employees.compute(employeeId, (id, current) -> {
+            Presence next = status != null ? new Presence(status, late) : null;
+            if (Objects.equals(current, next)) {
+                return current;
+            }
+            if (current != null) {
+                statusCounters.get(current.status()).decrement();
+                if (current.late()) {
+                    lateCounter.decrement();
+                }
+            }
+            if (next != null) {
+                statusCounters.get(next.status()).increment();
+                if (next.late()) {
+                    lateCounter.increment();
+                }
+            }
+            changed[0] = true;
+            return next;
+        });
+        return changed[0];
+    }
+
+    public Counts counts() {
+        return new Counts(
+                statusCounters.get(PresenceStatus.CHECKED_IN).sum(),
+                statusCounters.get(PresenceStatus.ON_BREAK).sum(),
+                statusCounters.get(PresenceStatus.CHECKED_OUT).sum(),
+                lateCounter.sum());
+    }
+
+    /**
+     * Số nhân viên đã check-in trong ngày
+     */
+    public int size() {
+        return employees.size();
+    }
+}
@@ -0,0 +1,198 @@
+package com.tamabee.api_hr.service.company.cache;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Cache trong bộ nhớ theo tenant, dùng chung cho các cache đọc nhiều/ghi ít (lịch làm việc, geo-fence,
+ * thiết bị, dữ liệu kỳ lương).
+ *
+ * - Mỗi giá trị hết hạn sau TTL (giới hạn độ trễ khi dữ liệu bị sửa từ nơi khác: node khác, SQL tay).
+ * - Single-flight: các request cùng thiếu một khóa chờ chung một lần load thay vì cùng truy vấn DB.
+ * - Mỗi tenant có version, tăng ở mỗi lần invalidate. Kết quả load chỉ được lưu nếu không có invalidate
+ * nào xảy ra trong lúc load, nên lần load bắt đầu trước khi thay đổi được commit không ghi đè lại bản cũ.
+ * - Invalidate chạy ngay và chạy lại sau commit (request đọc dữ liệu cũ trong lúc transaction chưa commit
+ * không giữ lại bản cũ).
+ *
+ * Giá trị không được null (bọc bằng Optional nếu cần) và được dùng chung giữa các request nên chỉ được đọc.
+ */
+public final class VersionedTenantCache<K, V> {
+
+    // Khóa của cache chỉ có một giá trị mỗi tenant
+    private static final Object SINGLE_VALUE = new Object();
+
+    private final long ttlNanos;
+    private final int maxEntries;
+    private final Map<String, TenantEntries<V>> tenants = new ConcurrentHashMap<>();
+
+    private record Entry<V>(V value, long loadedAtNanos) {
+    }
+
+    private static final class TenantEntries<V> {
+        private final Map<Object, Entry<V>> values = new ConcurrentHashMap<>();
+        private final Map<Object, CompletableFuture<V>> loading = new ConcurrentHashMap<>();
+        // Chỉ đổi trong synchronized (this)
+        private long version;
+    }
+
+    /**
+     * @param ttl thời gian sống của mỗi giá trị
+     */
+    public VersionedTenantCache(Duration ttl) {
+        this(ttl, 0);
+    }
+
+    /**
+     * @param ttl        thời gian sống của mỗi giá trị
+     * @param maxEntries số giá trị tối đa (tất cả tenant), 0 = không giới hạn. Khi đầy: bỏ giá trị hết hạn,
+     *                   vẫn đầy thì xóa hết
+     */
+    public VersionedTenantCache(Duration ttl, int maxEntries) {
+        this.ttlNanos = ttl.toNanos();
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Lấy giá trị theo khóa, load nếu chưa có hoặc đã hết hạn
+     */
+    public V get(String tenantDomain, K key, Function<? super K, ? extends V> loader) {
+        return getOrLoad(tenantDomain, key, () -> loader.apply(key));
+    }
+
+    /**
+     * Lấy giá trị duy nhất của tenant, load nếu chưa có hoặc đã hết hạn
+     */
+    public V get(String tenantDomain, Supplier<? extends V> loader) {
+        return getOrLoad(tenantDomain, SINGLE_VALUE, loader);
+    }
+
+    /**
+     * Xóa một khóa của tenant
+     */
+    public void invalidate(String tenantDomain, K key) {
+        if (tenantDomain == null) {
+            return;
+        }
+        runNowAndAfterCommit(() -> {
+            TenantEntries<V> tenant = tenants.get(tenantDomain);
+            if (tenant != null) {
+                synchronized (tenant) {
+                    tenant.version++;
+                    tenant.values.remove(key);
+                    // Request sau không chờ lần load đã bắt đầu trước khi invalidate
+                    tenant.loading.remove(key);
+                }
+            }
+        });
+    }
+
+    /**
+     * Xóa toàn bộ giá trị của tenant
+     */
+    public void invalidateTenant(String tenantDomain) {
+        if (tenantDomain == null) {
+            return;
+        }
+        runNowAndAfterCommit(() -> {
+            TenantEntries<V> tenant = tenants.remove(tenantDomain);
+            if (tenant != null) {
+                synchronized (tenant) {
+                    tenant.version++;
+                }
+            }
+        });
+    }
+
+    private V getOrLoad(String tenantDomain, Object key, Supplier<? extends V> loader) {
+        TenantEntries<V> tenant = tenants.computeIfAbsent(tenantDomain, domain -> new TenantEntries<>());
+        Entry<V> entry = tenant.values.get(key);
+        if (entry != null && !isExpired(entry)) {
+            return entry.value();
+        }
+
+        CompletableFuture<V> future = new CompletableFuture<>();
+        CompletableFuture<V> inFlight;
+        long version;
+        synchronized (tenant) {
+            inFlight = tenant.loading.putIfAbsent(key, future);
+            version = tenant.version;
+        }
+        if (inFlight != null) {
+            return await(inFlight);
+        }
+
+        // Load ngoài lock: không chặn request đọc khóa khác trong lúc truy vấn DB
+        try {
+            V value = loader.get();
+            synchronized (tenant) {
+                if (tenant.version == version) {
+                    tenant.values.put(key, new Entry<>(value, System.nanoTime()));
+                }
+            }
+            future.complete(value);
+            evictIfFull();
+            return value;
+        } catch (RuntimeException | Error e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            tenant.loading.remove(key, future);
+        }
+    }
+
+    private V await(CompletableFuture<V> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+
+    private boolean isExpired(Entry<V> entry) {
+        return System.nanoTime() - entry.loadedAtNanos() > ttlNanos;
+    }
+
+    private void evictIfFull() {
+        if (maxEntries <= 0 || size() <= maxEntries) {
+            return;
+        }
+        tenants.values().forEach(tenant -> tenant.values.values().removeIf(this::isExpired));
+        if (size() > maxEntries) {
+            tenants.values().forEach(tenant -> tenant.values.clear());
+        }
+    }
+
+    private int size() {
+        int size = 0;
+        for (TenantEntries<V> tenant : tenants.values()) {
+            size += tenant.values.size();
+        }
+        return size;
+    }
+
+    private static void runNowAndAfterCommit(Runnable invalidation) {
+        invalidation.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidation.run();
+                }
+            });
+        }
+    }
+}
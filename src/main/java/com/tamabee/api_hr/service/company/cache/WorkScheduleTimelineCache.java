@@ -0,0 +1,109 @@
+package com.tamabee.api_hr.service.company.cache;
+
+import com.tamabee.api_hr.dto.response.schedule.WorkScheduleResponse;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Cache lịch làm việc hiệu lực theo tenant cho luồng check-in/check-out.
+ *
+ * Mỗi tenant giữ: timeline assignment của từng nhân viên (khoảng ngày → scheduleId),
+ * lịch đã parse theo id và lịch mặc định. Resolve lịch cho (nhân viên, ngày) chỉ đọc bộ nhớ.
+ * Response lịch được dùng chung giữa các request nên chỉ được đọc.
+ *
+ * Invalidate khi WorkScheduleService/ScheduleSelectionService ghi assignment hoặc lịch.
+ * Lưu trữ qua {@link VersionedTenantCache}: lần load bắt đầu trước invalidate không ghi đè lại bản cũ.
+ */
+@Component
+public class WorkScheduleTimelineCache {
+
+    @Value("${attendance.schedule-cache.ttl-seconds:600}")
+    private long ttlSeconds;
+
+    private VersionedTenantCache<Long, EmployeeTimeline> timelines;
+    private VersionedTenantCache<Long, Optional<WorkScheduleResponse>> schedules;
+    private VersionedTenantCache<Void, Optional<WorkScheduleResponse>> defaultSchedule;
+
+    @PostConstruct
+    void init() {
+        Duration ttl = Duration.ofSeconds(ttlSeconds);
+        timelines = new VersionedTenantCache<>(ttl);
+        schedules = new VersionedTenantCache<>(ttl);
+        defaultSchedule = new VersionedTenantCache<>(ttl);
+    }
+
+    /**
+     * Khoảng hiệu lực của một assignment (effectiveTo null = không giới hạn)
+     */
+    public record AssignmentInterval(LocalDate effectiveFrom, LocalDate effectiveTo, Long scheduleId) {
+
+        boolean covers(LocalDate date) {
+            return !effectiveFrom.isAfter(date) && (effectiveTo == null || !effectiveTo.isBefore(date));
+        }
+    }
+
+    /**
+     * Timeline assignment của một nhân viên, sắp xếp theo effectiveFrom giảm dần
+     */
+    public record EmployeeTimeline(List<AssignmentInterval> intervals) {
+
+        /**
+         * scheduleId của assignment mới nhất còn hiệu lực tại ngày, null nếu không có
+         */
+        public Long resolve(LocalDate date) {
+            for (AssignmentInterval interval : intervals) {
+                if (interval.covers(date)) {
+                    return interval.scheduleId();
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Lấy timeline của nhân viên, load nếu chưa có
+     */
+    public EmployeeTimeline getTimeline(String tenantDomain, Long employeeId,
+            Function<Long, EmployeeTimeline> loader) {
+        return timelines.get(tenantDomain, employeeId, loader);
+    }
+
+    /**
+     * Lấy lịch theo id (null nếu không tồn tại/đã xóa), load nếu chưa có
+     */
+    public WorkScheduleResponse getSchedule(String tenantDomain, Long scheduleId,
+            Function<Long, WorkScheduleResponse> loader) {
+        return schedules.get(tenantDomain, scheduleId, id -> Optional.ofNullable(loader.apply(id))).orElse(null);
+    }
+
+    /**
+     * Lấy lịch mặc định (null nếu không có), load nếu chưa có
+     */
+    public WorkScheduleResponse getDefaultSchedule(String tenantDomain, Supplier<WorkScheduleResponse> loader) {
+        return defaultSchedule.get(tenantDomain, () -> Optional.ofNullable(loader.get())).orElse(null);
+    }
+
+    /**
+     * Xóa timeline của một nhân viên (khi thêm/xóa assignment)
+     */
+    public void invalidateEmployee(String tenantDomain, Long employeeId) {
+        timelines.invalidate(tenantDomain, employeeId);
+    }
+
+    /**
+     * Xóa toàn bộ cache của tenant (khi tạo/sửa/xóa lịch, đổi lịch mặc định)
+     */
+    public void invalidateTenant(String tenantDomain) {
+        timelines.invalidateTenant(tenantDomain);
+        schedules.invalidateTenant(tenantDomain);
+        defaultSchedule.invalidateTenant(tenantDomain);
+    }
+}
@@ -0,0 +1,404 @@
+package com.tamabee.api_hr.service.company.impl;
+
+import com.tamabee.api_hr.entity.attendance.AttendanceMonthlyAggregateEntity;
+import com.tamabee.api_hr.entity.attendance.AttendanceRecordEntity;
+import com.tamabee.api_hr.enums.AttendanceStatus;
+import com.tamabee.api_hr.service.company.interfaces.IAttendanceAggregateService;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+/**
+ * Service implementation duy trì tổng hợp chấm công theo nhân viên-tháng.
+ *
+ * Làm mới không chạy trong transaction ghi chấm công: các nhân viên-tháng cần làm mới được gom theo
+ * transaction và tính lại sau commit trong một transaction ngắn riêng, nên check-in/check-out không giữ
+ * khóa dòng tổng hợp. Mỗi lần làm mới đọc lại các bản ghi ngày của tháng (tối đa ~31 dòng mỗi nhân viên)
+ * thay vì cộng dồn chênh lệch, nên kết quả luôn khớp dữ liệu ngày kể cả khi điều chỉnh sửa trạng thái/thời gian.
+ * Dòng tổng hợp được khóa FOR UPDATE trước khi đọc bản ghi ngày (câu đọc chạy sau khi có khóa nên thấy dữ liệu
+ * mà transaction trước đã commit), do đó hai lần làm mới cùng nhân viên-tháng không ghi đè kết quả của nhau.
+ * Làm mới lỗi được đưa vào hàng chờ attendance_aggregate_refresh_queue (dữ liệu ngày đã commit) và được làm mới
+ * lại định kỳ, kể cả với tháng cũ mà rebuild hằng đêm không chạy tới.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AttendanceAggregateServiceImpl implements IAttendanceAggregateService {
+
+    // Khóa resource giữ danh sách cần làm mới của transaction hiện tại
+    private static final Object PENDING_REFRESH_KEY = new Object();
+
+    // Cột tổng hợp, cùng thứ tự với AGGREGATE_SELECT
+    private static final List<String> AGGREGATE_COLUMNS = List.of(
+            "record_count", "present_days", "late_days", "absent_days", "leave_days", "holiday_days",
+            "late_count", "total_late_minutes", "early_leave_count", "total_early_leave_minutes",
+            "total_working_minutes", "total_overtime_minutes", "total_break_minutes");
+
+    // Biểu thức tổng hợp trên attendance_records r (rebuild), cùng kết quả với accumulate
+    private static final String AGGREGATE_SELECT = """
+            COUNT(r.id),
+            COUNT(*) FILTER (WHERE r.status = 'PRESENT'),
+            COUNT(*) FILTER (WHERE r.status = 'LATE'),
+            COUNT(*) FILTER (WHERE r.status = 'ABSENT'),
+            COUNT(*) FILTER (WHERE r.status = 'LEAVE'),
+            COUNT(*) FILTER (WHERE r.status = 'HOLIDAY'),
+            COUNT(*) FILTER (WHERE r.late_minutes > 0),
+            COALESCE(SUM(r.late_minutes), 0),
+            COUNT(*) FILTER (WHERE r.early_leave_minutes > 0),
+            COALESCE(SUM(r.early_leave_minutes), 0),
+            COALESCE(SUM(r.working_minutes), 0),
+            COALESCE(SUM(r.overtime_minutes), 0),
+            COALESCE(SUM(r.total_break_minutes), 0)""";
+
+    private static final String ENSURE_ROWS_SQL = """
+            INSERT INTO attendance_monthly_aggregates (employee_id, year, month)
+            SELECT e.employee_id, ?, ? FROM unnest(?::bigint[]) AS e(employee_id)
+            ORDER BY e.employee_id
+            ON CONFLICT (employee_id, year, month) DO NOTHING
+            """;
+
+    private static final String LOCK_ROWS_SQL = """
+            SELECT id FROM attendance_monthly_aggregates
+            WHERE year = ? AND month = ? AND employee_id = ANY(?)
+            ORDER BY employee_id
+            FOR UPDATE
+            """;
+
+    private static final String SELECT_DAILY_SQL = """
+            SELECT r.employee_id, r.status, r.late_minutes, r.early_leave_minutes,
+                   r.working_minutes, r.overtime_minutes, r.total_break_minutes
+            FROM attendance_records r
+            WHERE r.employee_id = ANY(?) AND r.work_date BETWEEN ? AND ?
+            """;
+
+    private static final String UPDATE_AGGREGATE_SQL = """
+            UPDATE attendance_monthly_aggregates
+            SET %s, updated_at = CURRENT_TIMESTAMP
+            WHERE employee_id = ? AND year = ? AND month = ?
+            """.formatted(AGGREGATE_COLUMNS.stream().map(column -> column + " = ?")
+            .collect(Collectors.joining(", ")));
+
+    private static final String REBUILD_SQL = """
+            INSERT INTO attendance_monthly_aggregates (employee_id, year, month, %s)
+            SELECT r.employee_id, ?, ?, %s
+            FROM attendance_records r
+            WHERE r.work_date BETWEEN ? AND ?
+            GROUP BY r.employee_id
+            ON CONFLICT (employee_id, year, month) DO UPDATE
+            SET %s, updated_at = CURRENT_TIMESTAMP
+            """.formatted(
+            String.join(", ", AGGREGATE_COLUMNS),
+            AGGREGATE_SELECT,
+            AGGREGATE_COLUMNS.stream().map(column -> column + " = EXCLUDED." + column)
+                    .collect(Collectors.joining(", ")));
+
+    private static final String DELETE_ORPHANS_SQL = """
+            DELETE FROM attendance_monthly_aggregates a
+            WHERE a.year = ? AND a.month = ?
+              AND NOT EXISTS (SELECT 1 FROM attendance_records r
+                              WHERE r.employee_id = a.employee_id AND r.work_date BETWEEN ? AND ?)
+            """;
+
+    private static final String MARK_PENDING_SQL = """
+            INSERT INTO attendance_aggregate_refresh_queue (employee_id, year, month)
+            SELECT e.employee_id, ?, ? FROM unnest(?::bigint[]) AS e(employee_id)
+            ON CONFLICT (employee_id, year, month) DO UPDATE SET marked_at = CURRENT_TIMESTAMP
+            """;
+
+    private static final String SELECT_PENDING_SQL = """
+            SELECT employee_id, year, month, marked_at FROM attendance_aggregate_refresh_queue
+            ORDER BY year, month, employee_id
+            LIMIT ?
+            """;
+
+    // Chỉ xóa dòng chưa bị đánh dấu lại sau khi đọc hàng chờ
+    private static final String DELETE_PENDING_SQL = """
+            DELETE FROM attendance_aggregate_refresh_queue
+            WHERE year = ? AND month = ? AND employee_id = ANY(?) AND marked_at <= ?
+            """;
+
+    // Rebuild tính lại cả tháng: bỏ các dòng được đánh dấu trước khi transaction rebuild bắt đầu
+    private static final String CLEAR_PENDING_SQL = """
+            DELETE FROM attendance_aggregate_refresh_queue
+            WHERE year = ? AND month = ? AND marked_at < CURRENT_TIMESTAMP
+            """;
+
+    @Qualifier("tenantJdbcTemplate")
+    private final JdbcTemplate tenantJdbcTemplate;
+
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${attendance.aggregates.retry-batch-size:1000}")
+    private int retryBatchSize;
+
+    // Transaction riêng cho làm mới sau commit
+    private TransactionTemplate refreshTransaction;
+
+    @PostConstruct
+    void init() {
+        refreshTransaction = new TransactionTemplate(transactionManager);
+        refreshTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @Override
+    public void refresh(Long employeeId, LocalDate workDate) {
+        refresh(List.of(employeeId), YearMonth.from(workDate));
+    }
+
+    @Override
+    public void refresh(Collection<Long> employeeIds, YearMonth period) {
+        List<Long> ids = employeeIds.stream().filter(Objects::nonNull).toList();
+        if (ids.isEmpty()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            refreshNow(ids, period);
+            return;
+        }
+        PendingRefresh pending = (PendingRefresh) TransactionSynchronizationManager.getResource(PENDING_REFRESH_KEY);
+        if (pending == null) {
+            pending = new PendingRefresh();
+            TransactionSynchronizationManager.bindResource(PENDING_REFRESH_KEY, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        pending.add(ids, period);
+    }
+
+    @Override
+    public int retryPendingRefreshes() {
+        Map<YearMonth, Map<Long, Timestamp>> pendingByPeriod = new TreeMap<>();
+        tenantJdbcTemplate.query(SELECT_PENDING_SQL, rs -> {
+            pendingByPeriod.computeIfAbsent(YearMonth.of(rs.getInt("year"), rs.getInt("month")),
+                    key -> new TreeMap<>()).put(rs.getLong("employee_id"), rs.getTimestamp("marked_at"));
+        }, retryBatchSize);
+
+        int refreshed = 0;
+        for (Map.Entry<YearMonth, Map<Long, Timestamp>> entry : pendingByPeriod.entrySet()) {
+            YearMonth period = entry.getKey();
+            Map<Long, Timestamp> pending = entry.getValue();
+            try {
+                refreshNow(pending.keySet(), period);
+            } catch (RuntimeException e) {
+                log.warn("Làm mới lại tổng hợp chấm công {} của {} nhân viên thất bại: {}",
+                        period, pending.size(), e.getMessage());
+                continue;
+            }
+            Long[] ids = pending.keySet().toArray(Long[]::new);
+            Timestamp lastMarkedAt = Collections.max(pending.values());
+            tenantJdbcTemplate.update(connection -> {
+                PreparedStatement ps = connection.prepareStatement(DELETE_PENDING_SQL);
+                ps.setInt(1, period.getYear());
+                ps.setInt(2, period.getMonthValue());
+                ps.setArray(3, connection.createArrayOf("bigint", ids));
+                ps.setTimestamp(4, lastMarkedAt);
+                return ps;
+            });
+            refreshed += ids.length;
+        }
+        return refreshed;
+    }
+
+    /**
+     * Cộng một bản ghi ngày vào dòng tổng hợp (cùng kết quả với AGGREGATE_SELECT)
+     */
+    public static void accumulate(AttendanceMonthlyAggregateEntity aggregate, AttendanceRecordEntity record) {
+        aggregate.setRecordCount(aggregate.getRecordCount() + 1);
+        if (record.getStatus() != null) {
+            switch (record.getStatus()) {
+                case PRESENT -> aggregate.setPresentDays(aggregate.getPresentDays() + 1);
+                case LATE -> aggregate.setLateDays(aggregate.getLateDays() + 1);
+                case ABSENT -> aggregate.setAbsentDays(aggregate.getAbsentDays() + 1);
+                case LEAVE -> aggregate.setLeaveDays(aggregate.getLeaveDays() + 1);
+                case HOLIDAY -> aggregate.setHolidayDays(aggregate.getHolidayDays() + 1);
+            }
+        }
+        int lateMinutes = valueOf(record.getLateMinutes());
+        if (lateMinutes > 0) {
+            aggregate.setLateCount(aggregate.getLateCount() + 1);
+        }
+        aggregate.setTotalLateMinutes(aggregate.getTotalLateMinutes() + lateMinutes);
+        int earlyLeaveMinutes = valueOf(record.getEarlyLeaveMinutes());
+        if (earlyLeaveMinutes > 0) {
+            aggregate.setEarlyLeaveCount(aggregate.getEarlyLeaveCount() + 1);
+        }
+        aggregate.setTotalEarlyLeaveMinutes(aggregate.getTotalEarlyLeaveMinutes() + earlyLeaveMinutes);
+        aggregate.setTotalWorkingMinutes(aggregate.getTotalWorkingMinutes() + valueOf(record.getWorkingMinutes()));
+        aggregate.setTotalOvertimeMinutes(aggregate.getTotalOvertimeMinutes() + valueOf(record.getOvertimeMinutes()));
+        aggregate.setTotalBreakMinutes(aggregate.getTotalBreakMinutes() + valueOf(record.getTotalBreakMinutes()));
+    }
+
+    /**
+     * Tính lại tổng hợp của các nhân viên trong một tháng, trong transaction riêng
+     */
+    private void refreshNow(Collection<Long> employeeIds, YearMonth period) {
+        // Bỏ trùng và sắp xếp để các transaction khóa theo cùng thứ tự
+        Long[] ids = employeeIds.stream().distinct().sorted().toArray(Long[]::new);
+        int year = period.getYear();
+        int month = period.getMonthValue();
+
+        refreshTransaction.executeWithoutResult(status -> {
+            tenantJdbcTemplate.update(connection -> {
+                PreparedStatement ps = connection.prepareStatement(ENSURE_ROWS_SQL);
+                ps.setInt(1, year);
+                ps.setInt(2, month);
+                ps.setArray(3, connection.createArrayOf("bigint", ids));
+                return ps;
+            });
+            tenantJdbcTemplate.query(connection -> {
+                PreparedStatement ps = connection.prepareStatement(LOCK_ROWS_SQL);
+                ps.setInt(1, year);
+                ps.setInt(2, month);
+                ps.setArray(3, connection.createArrayOf("bigint", ids));
+                return ps;
+            }, (rs, rowNum) -> rs.getLong(1));
+
+            Map<Long, AttendanceMonthlyAggregateEntity> aggregates = new LinkedHashMap<>();
+            for (Long id : ids) {
+                aggregates.put(id, new AttendanceMonthlyAggregateEntity());
+            }
+            tenantJdbcTemplate.query(connection -> {
+                PreparedStatement ps = connection.prepareStatement(SELECT_DAILY_SQL);
+                ps.setArray(1, connection.createArrayOf("bigint", ids));
+                ps.setDate(2, Date.valueOf(period.atDay(1)));
+                ps.setDate(3, Date.valueOf(period.atEndOfMonth()));
+                return ps;
+            }, (rs, rowNum) -> toDailyRecord(rs)).forEach(record ->
+                    accumulate(aggregates.get(record.getEmployeeId()), record));
+
+            tenantJdbcTemplate.batchUpdate(UPDATE_AGGREGATE_SQL, aggregates.entrySet(), aggregates.size(),
+                    (ps, entry) -> {
+                        AttendanceMonthlyAggregateEntity aggregate = entry.getValue();
+                        int index = 1;
+                        ps.setInt(index++, aggregate.getRecordCount());
+                        ps.setInt(index++, aggregate.getPresentDays());
+                        ps.setInt(index++, aggregate.getLateDays());
+                        ps.setInt(index++, aggregate.getAbsentDays());
+                        ps.setInt(index++, aggregate.getLeaveDays());
+                        ps.setInt(index++, aggregate.getHolidayDays());
+                        ps.setInt(index++, aggregate.getLateCount());
+                        ps.setInt(index++, aggregate.getTotalLateMinutes());
+                        ps.setInt(index++, aggregate.getEarlyLeaveCount());
+                        ps.setInt(index++, aggregate.getTotalEarlyLeaveMinutes());
+                        ps.setInt(index++, aggregate.getTotalWorkingMinutes());
+                        ps.setInt(index++, aggregate.getTotalOvertimeMinutes());
+                        ps.setInt(index++, aggregate.getTotalBreakMinutes());
+                        ps.setLong(index++, entry.getKey());
+                        ps.setInt(index++, year);
+                        ps.setInt(index, month);
+                    });
+        });
+    }
+
+    /**
+     * Đưa các nhân viên-tháng làm mới lỗi vào hàng chờ, trong transaction riêng
+     */
+    private void markPending(Collection<Long> employeeIds, YearMonth period) {
+        Long[] ids = employeeIds.stream().distinct().sorted().toArray(Long[]::new);
+        refreshTransaction.executeWithoutResult(status -> tenantJdbcTemplate.update(connection -> {
+            PreparedStatement ps = connection.prepareStatement(MARK_PENDING_SQL);
+            ps.setInt(1, period.getYear());
+            ps.setInt(2, period.getMonthValue());
+            ps.setArray(3, connection.createArrayOf("bigint", ids));
+            return ps;
+        }));
+    }
+
+    /**
+     * Bản ghi ngày chỉ gồm các cột tổng hợp
+     */
+    private static AttendanceRecordEntity toDailyRecord(ResultSet rs) throws SQLException {
+        AttendanceRecordEntity record = new AttendanceRecordEntity();
+        record.setEmployeeId(rs.getLong("employee_id"));
+        String status = rs.getString("status");
+        record.setStatus(status != null ? AttendanceStatus.valueOf(status) : null);
+        record.setLateMinutes((Integer) rs.getObject("late_minutes"));
+        record.setEarlyLeaveMinutes((Integer) rs.getObject("early_leave_minutes"));
+        record.setWorkingMinutes((Integer) rs.getObject("working_minutes"));
+        record.setOvertimeMinutes((Integer) rs.getObject("overtime_minutes"));
+        record.setTotalBreakMinutes((Integer) rs.getObject("total_break_minutes"));
+        return record;
+    }
+
+    private static int valueOf(Integer value) {
+        return value != null ? value : 0;
+    }
+
+    /**
+     * Các nhân viên-tháng cần làm mới của một transaction, chạy sau commit
+     */
+    private final class PendingRefresh implements TransactionSynchronization {
+        private final Map<YearMonth, Set<Long>> employeesByPeriod = new TreeMap<>();
+
+        private void add(Collection<Long> employeeIds, YearMonth period) {
+            employeesByPeriod.computeIfAbsent(period, key -> new TreeSet<>()).addAll(employeeIds);
+        }
+
+        @Override
+        public void afterCommit() {
+            employeesByPeriod.forEach((period, employeeIds) -> {
+                try {
+                    refreshNow(employeeIds, period);
+                } catch (RuntimeException e) {
+                    log.warn("Không làm mới được tổng hợp chấm công {} của {} nhân viên, đưa vào hàng chờ: {}",
+                            period, employeeIds.size(), e.getMessage());
+                    try {
+                        markPending(employeeIds, period);
+                    } catch (RuntimeException markError) {
+                        log.error("Không đưa được tổng hợp chấm công {} của {} nhân viên vào hàng chờ: {}",
+                                period, employeeIds.size(), markError.getMessage(), markError);
+                    }
+                }
+            });
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(PENDING_REFRESH_KEY);
+        }
+    }
+
+    @Override
+    @Transactional
+    public int rebuild(YearMonth period) {
+        Date startDate = Date.valueOf(period.atDay(1));
+        Date endDate = Date.valueOf(period.atEndOfMonth());
+
+        int upserted = tenantJdbcTemplate.update(REBUILD_SQL,
+                period.getYear(), period.getMonthValue(), startDate, endDate);
+        int deleted = tenantJdbcTemplate.update(DELETE_ORPHANS_SQL,
+                period.getYear(), period.getMonthValue(), startDate, endDate);
+        tenantJdbcTemplate.update(CLEAR_PENDING_SQL, period.getYear(), period.getMonthValue());
+
+        log.info("Dựng lại tổng hợp chấm công {}: {} nhân viên, xóa {} dòng không còn dữ liệu",
+                period, upserted, deleted);
+        return upserted;
+    }
+}
@@ -0,0 +1,504 @@
+package com.tamabee.api_hr.service.company.impl;
+
+import com.tamabee.api_hr.dto.config.AttendanceConfig;
+import com.tamabee.api_hr.dto.config.BreakConfig;
+import com.tamabee.api_hr.dto.response.schedule.WorkScheduleResponse;
+import com.tamabee.api_hr.entity.attendance.AttendanceRecordEntity;
+import com.tamabee.api_hr.entity.attendance.BreakRecordEntity;
+import com.tamabee.api_hr.enums.AttendanceAnomalyType;
+import com.tamabee.api_hr.enums.AutoClosePolicy;
+import com.tamabee.api_hr.service.calculator.interfaces.IAttendanceRecordCalculator;
+import com.tamabee.api_hr.service.calculator.interfaces.ITimeRoundingCalculator;
+import com.tamabee.api_hr.service.company.interfaces.IWorkScheduleService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.BeanPropertyRowMapper;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static com.tamabee.api_hr.service.company.impl.AttendanceBatchSupport.clampBreakMinutes;
+import static com.tamabee.api_hr.service.company.impl.AttendanceBatchSupport.setBoolean;
+import static com.tamabee.api_hr.service.company.impl.AttendanceBatchSupport.setInteger;
+import static com.tamabee.api_hr.service.company.impl.AttendanceBatchSupport.setTimestamp;
+
+/**
+ * Xử lý từng batch của lượt quét bất thường chấm công hằng đêm; mỗi method public là một transaction ngắn.
+ *
+ * Batch đọc bản ghi theo keyset (work_date, id), không khóa. Bản ghi quên check-out được đóng theo cấu hình
+ * công ty (giờ kết thúc lịch làm việc hoặc số giờ tối đa của ca), lần giải lao chưa kết thúc được đóng trong
+ * giới hạn giải lao, rồi bản ghi được kiểm tra bất thường (thời lượng không hợp lệ, giải lao chồng nhau hoặc
+ * nằm ngoài ca). Bản ghi thay đổi được ghi bằng JDBC batch kèm điều kiện updated_at chưa đổi kể từ lúc đọc:
+ * bản ghi vừa được check-out/điều chỉnh được để lại cho lượt sau. Bất thường đã có (kể cả đã bỏ qua) không
+ * được thêm lại.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AttendanceAnomalyScanProcessor {
+
+    private static final int DEFAULT_MAX_SHIFT_HOURS = 16;
+    private static final int DEFAULT_BREAK_MINUTES = 60;
+
+    // Thời lượng ca/giải lao vượt quá giá trị này là không thể xảy ra
+    private static final long MAX_POSSIBLE_MINUTES = 24 * 60;
+
+    private static final DateTimeFormatter DETAIL_TIME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+
+    private final IWorkScheduleService workScheduleService;
+    private final ITimeRoundingCalculator timeRoundingCalculator;
+    private final IAttendanceRecordCalculator attendanceRecordCalculator;
+    private final AttendanceBatchSupport attendanceBatchSupport;
+
+    @Qualifier("tenantJdbcTemplate")
+    private final JdbcTemplate tenantJdbcTemplate;
+
+    @Value("${attendance.anomaly-scan.batch-size:500}")
+    private int batchSize;
+
+    @Value("${attendance.anomaly-scan.lock-timeout-ms:2000}")
+    private long lockTimeoutMs;
+
+    /**
+     * Vị trí keyset của lượt quét: batch tiếp theo đọc các bản ghi sau (workDate, recordId)
+     */
+    public record Cursor(LocalDate workDate, long recordId) {
+
+        // Bắt đầu từ ngày workDate (id luôn dương)
+        public static Cursor startOf(LocalDate workDate) {
+            return new Cursor(workDate, 0L);
+        }
+    }
+
+    /**
+     * Thời điểm và cấu hình của lượt quét, đọc một lần cho mọi batch
+     */
+    public record ScanContext(LocalDateTime now, AttendanceConfig config, BreakConfig breakConfig) {
+    }
+
+    /**
+     * Kết quả một batch
+     *
+     * @param next vị trí của batch tiếp theo, null nếu đã quét hết
+     */
+    public record BatchResult(Cursor next, int scannedRecords, int autoClosedRecords, int autoClosedBreaks,
+            int flaggedAnomalies, int skippedRecords) {
+    }
+
+    // Bất thường phát hiện trong batch, chờ ghi
+    private record Anomaly(AttendanceRecordEntity record, int breakNumber, AttendanceAnomalyType type,
+            String detail) {
+    }
+
+    private static final String SELECT_OPEN_RECORDS_SQL = """
+            SELECT * FROM attendance_records
+            WHERE original_check_out IS NULL AND original_check_in IS NOT NULL
+              AND work_date <= ? AND (work_date, id) > (?, ?)
+            ORDER BY work_date, id
+            LIMIT ?
+            """;
+
+    private static final String SELECT_CLOSED_RECORDS_SQL = """
+            SELECT * FROM attendance_records
+            WHERE original_check_out IS NOT NULL AND original_check_in IS NOT NULL
+              AND work_date <= ? AND (work_date, id) > (?, ?)
+            ORDER BY work_date, id
+            LIMIT ?
+            """;
+
+    private static final String UPDATE_RECORD_SQL = """
+            UPDATE attendance_records
+            SET original_check_out = ?, rounded_check_out = ?,
+                working_minutes = ?, overtime_minutes = ?, early_leave_minutes = ?,
+                total_break_minutes = ?, effective_break_minutes = ?, break_type = ?, break_compliant = ?,
+                updated_at = ?
+            WHERE id = ? AND work_date = ? AND updated_at = ?
+            """;
+
+    private static final String UPDATE_BREAK_SQL = """
+            UPDATE break_records
+            SET break_end = ?, actual_break_minutes = ?, effective_break_minutes = ?, updated_at = ?
+            WHERE id = ? AND work_date = ? AND updated_at = ? AND break_end IS NULL
+            """;
+
+    private static final String INSERT_ANOMALY_SQL = """
+            INSERT INTO attendance_anomalies
+                (attendance_record_id, employee_id, work_date, break_number, anomaly_type, detail,
+                 created_at, updated_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?)
+            ON CONFLICT (attendance_record_id, work_date, break_number, anomaly_type) DO NOTHING
+            """;
+
+    /**
+     * Quét một batch bản ghi chưa check-out (mọi ngày đến hôm nay): tự động đóng hoặc đánh dấu quên check-out
+     */
+    @Transactional
+    public BatchResult processOpenRecords(Cursor after, ScanContext context) {
+        return process(SELECT_OPEN_RECORDS_SQL, after, context);
+    }
+
+    /**
+     * Quét một batch bản ghi đã check-out từ vị trí after đến hôm nay: đóng giải lao bị quên và kiểm tra bất thường
+     */
+    @Transactional
+    public BatchResult processClosedRecords(Cursor after, ScanContext context) {
+        return process(SELECT_CLOSED_RECORDS_SQL, after, context);
+    }
+
+    private BatchResult process(String sql, Cursor after, ScanContext context) {
+        tenantJdbcTemplate.execute("SET LOCAL lock_timeout = " + lockTimeoutMs);
+
+        List<AttendanceRecordEntity> records = tenantJdbcTemplate.query(sql,
+                new BeanPropertyRowMapper<>(AttendanceRecordEntity.class),
+                Date.valueOf(context.now().toLocalDate()), Date.valueOf(after.workDate()), after.recordId(),
+                batchSize);
+        if (records.isEmpty()) {
+            return new BatchResult(null, 0, 0, 0, 0, 0);
+        }
+
+        Map<Long, List<BreakRecordEntity>> breaksByRecord = attendanceBatchSupport.loadBreaks(records);
+        List<AttendanceRecordEntity> changed = new ArrayList<>();
+        Set<Long> closedRecordIds = new HashSet<>();
+        Map<Long, List<BreakRecordEntity>> closedBreaks = new HashMap<>();
+        Map<Long, List<Anomaly>> anomaliesByRecord = new HashMap<>();
+
+        for (AttendanceRecordEntity record : records) {
+            List<BreakRecordEntity> breaks = breaksByRecord.getOrDefault(record.getId(), List.of());
+            List<Anomaly> anomalies = new ArrayList<>();
+
+            boolean checkOutClosed = record.getOriginalCheckOut() == null
+                    && closeCheckOut(record, context, anomalies);
+            List<BreakRecordEntity> breaksClosed = record.getOriginalCheckOut() != null
+                    ? closeBreaks(record, breaks, context, anomalies)
+                    : List.of();
+            if (checkOutClosed || !breaksClosed.isEmpty()) {
+                recalculate(record, breaks, context);
+                changed.add(record);
+                closedBreaks.put(record.getId(), breaksClosed);
+                if (checkOutClosed) {
+                    closedRecordIds.add(record.getId());
+                }
+            }
+            if (record.getOriginalCheckOut() != null) {
+                detectAnomalies(record, breaks, anomalies);
+            }
+            if (!anomalies.isEmpty()) {
+                anomaliesByRecord.put(record.getId(), anomalies);
+            }
+        }
+
+        List<AttendanceRecordEntity> written = write(changed);
+        List<BreakRecordEntity> breaksToWrite = new ArrayList<>();
+        Set<Long> skippedIds = new HashSet<>();
+        changed.forEach(record -> skippedIds.add(record.getId()));
+        for (AttendanceRecordEntity record : written) {
+            skippedIds.remove(record.getId());
+            breaksToWrite.addAll(closedBreaks.getOrDefault(record.getId(), List.of()));
+        }
+        int breaksWritten = writeBreaks(breaksToWrite);
+
+        // Bản ghi bị sửa đồng thời được kiểm tra lại ở lượt sau
+        List<Anomaly> anomalies = new ArrayList<>();
+        anomaliesByRecord.forEach((recordId, recordAnomalies) -> {
+            if (!skippedIds.contains(recordId)) {
+                anomalies.addAll(recordAnomalies);
+            }
+        });
+        int flagged = writeAnomalies(anomalies);
+
+        attendanceBatchSupport.refreshAggregates(written);
+        attendanceBatchSupport.refreshPresence(written);
+
+        int autoClosed = (int) written.stream().filter(record -> closedRecordIds.contains(record.getId())).count();
+        AttendanceRecordEntity last = records.get(records.size() - 1);
+        Cursor next = records.size() < batchSize ? null : new Cursor(last.getWorkDate(), last.getId());
+        return new BatchResult(next, records.size(), autoClosed, breaksWritten, flagged, skippedIds.size());
+    }
+
+    // ==================== Auto-close ====================
+
+    /**
+     * Tự động check-out bản ghi quên check-out nếu công ty bật và đã đến giờ đóng (SCHEDULE_END: bản ghi của
+     * ngày trước hôm nay hoặc đã mở quá số giờ tối đa của ca); nếu không bật, đánh dấu bản ghi đã mở quá số giờ
+     * tối đa của ca
+     *
+     * @return true nếu bản ghi đã được đóng
+     */
+    private boolean closeCheckOut(AttendanceRecordEntity record, ScanContext context, List<Anomaly> anomalies) {
+        AttendanceConfig config = context.config();
+        LocalDateTime checkIn = record.getOriginalCheckIn();
+        int maxShiftHours = config.getMaxShiftHours() != null ? config.getMaxShiftHours() : DEFAULT_MAX_SHIFT_HOURS;
+        LocalDateTime deadline = checkIn.plusHours(maxShiftHours);
+
+        if (!Boolean.TRUE.equals(config.getAutoCloseEnabled())) {
+            if (!deadline.isAfter(context.now())) {
+                anomalies.add(new Anomaly(record, 0, AttendanceAnomalyType.MISSING_CHECK_OUT,
+                        String.format("Chưa check-out sau %d giờ kể từ check-in lúc %s",
+                                maxShiftHours, checkIn.format(DETAIL_TIME_FORMAT))));
+            }
+            return false;
+        }
+
+        AutoClosePolicy policy = config.getAutoClosePolicy() != null
+                ? config.getAutoClosePolicy()
+                : AutoClosePolicy.SCHEDULE_END;
+        if (policy == AutoClosePolicy.SCHEDULE_END && deadline.isAfter(context.now())
+                && !record.getWorkDate().isBefore(context.now().toLocalDate())) {
+            // Ca hôm nay còn trong số giờ tối đa: nhân viên có thể đang tăng ca sau giờ kết thúc lịch
+            return false;
+        }
+        LocalDateTime closeAt = policy == AutoClosePolicy.MAX_HOURS ? deadline : scheduleEnd(record, deadline);
+        if (closeAt.isAfter(context.now())) {
+            return false;
+        }
+
+        record.setOriginalCheckOut(closeAt);
+        record.setRoundedCheckOut(closeAt);
+        if (Boolean.TRUE.equals(config.getEnableRounding()) && config.getCheckOutRounding() != null) {
+            record.setRoundedCheckOut(timeRoundingCalculator.roundTime(closeAt, config.getCheckOutRounding()));
+        }
+        anomalies.add(new Anomaly(record, 0, AttendanceAnomalyType.AUTO_CLOSED_CHECK_OUT,
+                String.format("Tự động check-out lúc %s (%s)", closeAt.format(DETAIL_TIME_FORMAT), policy)));
+        return true;
+    }
+
+    /**
+     * Giờ kết thúc theo lịch làm việc của ngày, không muộn hơn deadline (check-in + số giờ tối đa của ca)
+     */
+    private LocalDateTime scheduleEnd(AttendanceRecordEntity record, LocalDateTime deadline) {
+        WorkScheduleResponse schedule = workScheduleService.getEffectiveSchedule(
+                record.getEmployeeId(), record.getWorkDate());
+        LocalDateTime end = record.getWorkDate().atTime(
+                attendanceRecordCalculator.getScheduleEndTime(schedule, record.getWorkDate()));
+        if (!end.isAfter(record.getOriginalCheckIn())) {
+            // Ca qua đêm hoặc check-in sau giờ kết thúc: giờ kết thúc thuộc ngày hôm sau
+            end = end.plusDays(1);
+        }
+        return end.isBefore(deadline) ? end : deadline;
+    }
+
+    /**
+     * Đóng các lần giải lao chưa kết thúc của bản ghi đã check-out: kết thúc sau thời gian giải lao tối đa
+     * (hoặc mặc định), không muộn hơn giờ check-out
+     *
+     * @return các lần giải lao đã đóng
+     */
+    private List<BreakRecordEntity> closeBreaks(AttendanceRecordEntity record, List<BreakRecordEntity> breaks,
+            ScanContext context, List<Anomaly> anomalies) {
+        List<BreakRecordEntity> closed = new ArrayList<>();
+        for (BreakRecordEntity breakRecord : breaks) {
+            if (breakRecord.getBreakStart() == null || breakRecord.getBreakEnd() != null) {
+                continue;
+            }
+            if (!Boolean.TRUE.equals(context.config().getAutoCloseEnabled())) {
+                anomalies.add(new Anomaly(record, breakRecord.getBreakNumber(), AttendanceAnomalyType.MISSING_BREAK_END,
+                        String.format("Chưa kết thúc giải lao bắt đầu lúc %s",
+                                breakRecord.getBreakStart().format(DETAIL_TIME_FORMAT))));
+                continue;
+            }
+
+            LocalDateTime breakEnd = breakRecord.getBreakStart().plusMinutes(breakLimitMinutes(context));
+            if (breakEnd.isAfter(record.getOriginalCheckOut())) {
+                breakEnd = record.getOriginalCheckOut();
+            }
+            if (breakEnd.isBefore(breakRecord.getBreakStart())) {
+                breakEnd = breakRecord.getBreakStart();
+            }
+            int actualMinutes = (int) ChronoUnit.MINUTES.between(breakRecord.getBreakStart(), breakEnd);
+            breakRecord.setBreakEnd(breakEnd);
+            breakRecord.setActualBreakMinutes(actualMinutes);
+            breakRecord.setEffectiveBreakMinutes(clampBreakMinutes(actualMinutes, context.breakConfig()));
+            closed.add(breakRecord);
+            anomalies.add(new Anomaly(record, breakRecord.getBreakNumber(), AttendanceAnomalyType.AUTO_CLOSED_BREAK,
+                    String.format("Tự động kết thúc giải lao lúc %s", breakEnd.format(DETAIL_TIME_FORMAT))));
+        }
+        return closed;
+    }
+
+    private int breakLimitMinutes(ScanContext context) {
+        if (context.breakConfig() != null && context.breakConfig().getMaximumBreakMinutes() != null) {
+            return context.breakConfig().getMaximumBreakMinutes();
+        }
+        Integer defaultBreak = context.config().getDefaultBreakMinutes();
+        return defaultBreak != null ? defaultBreak : DEFAULT_BREAK_MINUTES;
+    }
+
+    /**
+     * Tính lại giờ làm/giải lao/về sớm/tăng ca sau khi đóng check-out hoặc giải lao (cùng quy tắc với check-out)
+     */
+    private void recalculate(AttendanceRecordEntity record, List<BreakRecordEntity> breaks, ScanContext context) {
+        WorkScheduleResponse schedule = workScheduleService.getEffectiveSchedule(
+                record.getEmployeeId(), record.getWorkDate());
+        if (schedule != null) {
+            attendanceRecordCalculator.calculateWorkingHours(record, breaks, schedule, context.config(),
+                    context.breakConfig());
+            return;
+        }
+        int totalBreakMinutes = breaks.stream()
+                .filter(b -> b.getActualBreakMinutes() != null)
+                .mapToInt(BreakRecordEntity::getActualBreakMinutes)
+                .sum();
+        record.setTotalBreakMinutes(totalBreakMinutes);
+        record.setEffectiveBreakMinutes(totalBreakMinutes);
+    }
+
+    // ==================== Anomaly detection ====================
+
+    /**
+     * Kiểm tra bản ghi đã check-out: thời lượng ca/giải lao không hợp lệ, giải lao nằm ngoài ca, giải lao chồng nhau
+     */
+    private void detectAnomalies(AttendanceRecordEntity record, List<BreakRecordEntity> breaks,
+            List<Anomaly> anomalies) {
+        LocalDateTime checkIn = record.getOriginalCheckIn();
+        LocalDateTime checkOut = record.getOriginalCheckOut();
+        long shiftMinutes = ChronoUnit.MINUTES.between(checkIn, checkOut);
+        if (shiftMinutes < 0 || shiftMinutes > MAX_POSSIBLE_MINUTES) {
+            anomalies.add(new Anomaly(record, 0, AttendanceAnomalyType.IMPOSSIBLE_DURATION,
+                    String.format("Thời lượng ca %d phút (%s - %s)", shiftMinutes,
+                            checkIn.format(DETAIL_TIME_FORMAT), checkOut.format(DETAIL_TIME_FORMAT))));
+        }
+
+        List<BreakRecordEntity> ended = breaks.stream()
+                .filter(b -> b.getBreakStart() != null && b.getBreakEnd() != null)
+                .sorted(Comparator.comparing(BreakRecordEntity::getBreakStart))
+                .toList();
+        BreakRecordEntity latestEnding = null;
+        for (BreakRecordEntity breakRecord : ended) {
+            LocalDateTime start = breakRecord.getBreakStart();
+            LocalDateTime end = breakRecord.getBreakEnd();
+            long breakMinutes = ChronoUnit.MINUTES.between(start, end);
+            if (breakMinutes < 0 || breakMinutes > MAX_POSSIBLE_MINUTES) {
+                anomalies.add(new Anomaly(record, breakRecord.getBreakNumber(),
+                        AttendanceAnomalyType.IMPOSSIBLE_DURATION,
+                        String.format("Thời lượng giải lao %d phút (%s - %s)", breakMinutes,
+                                start.format(DETAIL_TIME_FORMAT), end.format(DETAIL_TIME_FORMAT))));
+            }
+            if (start.isBefore(checkIn) || end.isAfter(checkOut)) {
+                anomalies.add(new Anomaly(record, breakRecord.getBreakNumber(),
+                        AttendanceAnomalyType.BREAK_OUTSIDE_SHIFT,
+                        String.format("Giải lao %s - %s nằm ngoài ca %s - %s",
+                                start.format(DETAIL_TIME_FORMAT), end.format(DETAIL_TIME_FORMAT),
+                                checkIn.format(DETAIL_TIME_FORMAT), checkOut.format(DETAIL_TIME_FORMAT))));
+            }
+            if (latestEnding != null && start.isBefore(latestEnding.getBreakEnd())) {
+                anomalies.add(new Anomaly(record, breakRecord.getBreakNumber(),
+                        AttendanceAnomalyType.OVERLAPPING_BREAKS,
+                        String.format("Giải lao lần %d (%s - %s) chồng với lần %d (%s - %s)",
+                                breakRecord.getBreakNumber(), start.format(DETAIL_TIME_FORMAT),
+                                end.format(DETAIL_TIME_FORMAT), latestEnding.getBreakNumber(),
+                                latestEnding.getBreakStart().format(DETAIL_TIME_FORMAT),
+                                latestEnding.getBreakEnd().format(DETAIL_TIME_FORMAT))));
+            }
+            if (latestEnding == null || end.isAfter(latestEnding.getBreakEnd())) {
+                latestEnding = breakRecord;
+            }
+        }
+    }
+
+    /**
+     * Ghi các bản ghi đã đóng bằng JDBC batch, chỉ khi updated_at chưa đổi kể từ lúc đọc
+     *
+     * @return các bản ghi đã ghi (bản ghi bị sửa đồng thời được bỏ qua)
+     */
+    private List<AttendanceRecordEntity> write(List<AttendanceRecordEntity> records) {
+        if (records.isEmpty()) {
+            return List.of();
+        }
+        LocalDateTime now = LocalDateTime.now();
+        int[][] counts = tenantJdbcTemplate.batchUpdate(UPDATE_RECORD_SQL, records, records.size(), (ps, r) -> {
+            setTimestamp(ps, 1, r.getOriginalCheckOut());
+            setTimestamp(ps, 2, r.getRoundedCheckOut());
+            setInteger(ps, 3, r.getWorkingMinutes());
+            setInteger(ps, 4, r.getOvertimeMinutes());
+            setInteger(ps, 5, r.getEarlyLeaveMinutes());
+            setInteger(ps, 6, r.getTotalBreakMinutes());
+            setInteger(ps, 7, r.getEffectiveBreakMinutes());
+            ps.setString(8, r.getBreakType() != null ? r.getBreakType().name() : null);
+            setBoolean(ps, 9, r.getBreakCompliant());
+            ps.setTimestamp(10, Timestamp.valueOf(now));
+            ps.setLong(11, r.getId());
+            ps.setDate(12, Date.valueOf(r.getWorkDate()));
+            ps.setTimestamp(13, Timestamp.valueOf(r.getUpdatedAt()));
+        });
+
+        List<AttendanceRecordEntity> written = new ArrayList<>();
+        for (int i = 0; i < records.size(); i++) {
+            if (counts[0][i] > 0) {
+                written.add(records.get(i));
+            }
+        }
+        return written;
+    }
+
+    /**
+     * Ghi các lần giải lao đã đóng bằng JDBC batch
+     *
+     * @return số lần giải lao đã ghi
+     */
+    private int writeBreaks(List<BreakRecordEntity> breaks) {
+        if (breaks.isEmpty()) {
+            return 0;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        int[][] counts = tenantJdbcTemplate.batchUpdate(UPDATE_BREAK_SQL, breaks, breaks.size(), (ps, b) -> {
+            ps.setTimestamp(1, Timestamp.valueOf(b.getBreakEnd()));
+            setInteger(ps, 2, b.getActualBreakMinutes());
+            setInteger(ps, 3, b.getEffectiveBreakMinutes());
+            ps.setTimestamp(4, Timestamp.valueOf(now));
+            ps.setLong(5, b.getId());
+            ps.setDate(6, Date.valueOf(b.getWorkDate()));
+            ps.setTimestamp(7, Timestamp.valueOf(b.getUpdatedAt()));
+        });
+        return countWritten(counts);
+    }
+
+    /**
+     * Thêm bất thường vào hàng chờ bằng JDBC batch, bỏ qua bất thường đã có
+     *
+     * @return số bất thường mới
+     */
+    private int writeAnomalies(List<Anomaly> anomalies) {
+        if (anomalies.isEmpty()) {
+            return 0;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        int[][] counts = tenantJdbcTemplate.batchUpdate(INSERT_ANOMALY_SQL, anomalies, anomalies.size(),
+                (ps, a) -> {
+                    ps.setLong(1, a.record().getId());
+                    ps.setLong(2, a.record().getEmployeeId());
+                    ps.setDate(3, Date.valueOf(a.record().getWorkDate()));
+                    ps.setInt(4, a.breakNumber());
+                    ps.setString(5, a.type().name());
+                    ps.setString(6, a.detail());
+                    ps.setTimestamp(7, now);
+                    ps.setTimestamp(8, now);
+                });
+        return countWritten(counts);
+    }
+
+    private static int countWritten(int[][] counts) {
+        int written = 0;
+        for (int count : counts[0]) {
+            if (count > 0) {
+                written++;
+            }
+        }
+        return written;
+    }
+}
@@ -0,0 +1,156 @@
+package com.tamabee.api_hr.service.company.impl;
+
+import com.tamabee.api_hr.dto.request.attendance.ResolveAnomalyRequest;
+import com.tamabee.api_hr.dto.response.attendance.AttendanceAnomalyResponse;
+import com.tamabee.api_hr.dto.response.attendance.AttendanceAnomalyScanResult;
+import com.tamabee.api_hr.entity.attendance.AttendanceAnomalyEntity;
+import com.tamabee.api_hr.entity.user.UserEntity;
+import com.tamabee.api_hr.enums.AnomalyStatus;
+import com.tamabee.api_hr.enums.ErrorCode;
+import com.tamabee.api_hr.exception.ConflictException;
+import com.tamabee.api_hr.exception.NotFoundException;
+import com.tamabee.api_hr.mapper.company.AttendanceAnomalyMapper;
+import com.tamabee.api_hr.repository.attendance.AttendanceAnomalyRepository;
+import com.tamabee.api_hr.repository.user.UserRepository;
+import com.tamabee.api_hr.service.company.impl.AttendanceAnomalyScanProcessor.BatchResult;
+import com.tamabee.api_hr.service.company.impl.AttendanceAnomalyScanProcessor.Cursor;
+import com.tamabee.api_hr.service.company.impl.AttendanceAnomalyScanProcessor.ScanContext;
+import com.tamabee.api_hr.service.company.interfaces.IAttendanceAnomalyService;
+import com.tamabee.api_hr.service.company.interfaces.ICompanySettingsService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiFunction;
+
+/**
+ * Implementation của IAttendanceAnomalyService.
+ * Lượt quét gồm hai pha theo keyset: bản ghi chưa check-out (mọi ngày, dùng partial index) rồi bản ghi
+ * đã check-out trong lookback-days ngày gần nhất (giải lao bị quên, bất thường sau điều chỉnh).
+ * Lượt quét chạy lại an toàn: bản ghi đã đóng không còn được chọn, bất thường đã có không bị thêm lại.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AttendanceAnomalyServiceImpl implements IAttendanceAnomalyService {
+
+    private final AttendanceAnomalyScanProcessor scanProcessor;
+    private final ICompanySettingsService companySettingsService;
+    private final AttendanceAnomalyRepository attendanceAnomalyRepository;
+    private final AttendanceAnomalyMapper attendanceAnomalyMapper;
+    private final UserRepository userRepository;
+
+    @Value("${attendance.anomaly-scan.lookback-days:7}")
+    private int lookbackDays;
+
+    // Bản ghi chưa check-out được quét từ ngày này (tương đương toàn bộ dữ liệu)
+    private static final LocalDate OPEN_RECORDS_FROM = LocalDate.of(2000, 1, 1);
+
+    @Override
+    public AttendanceAnomalyScanResult scan() {
+        ScanContext context = new ScanContext(LocalDateTime.now(), companySettingsService.getAttendanceConfig(),
+                companySettingsService.getBreakConfig());
+        AttendanceAnomalyScanResult result = AttendanceAnomalyScanResult.builder().build();
+
+        runPass("bản ghi chưa check-out", Cursor.startOf(OPEN_RECORDS_FROM), context,
+                scanProcessor::processOpenRecords, result);
+        runPass("bản ghi đã check-out", Cursor.startOf(context.now().toLocalDate().minusDays(lookbackDays)),
+                context, scanProcessor::processClosedRecords, result);
+
+        log.info("Quét bất thường chấm công: {} bản ghi, tự động check-out {}, tự động kết thúc giải lao {}, "
+                + "{} bất thường mới, {} bản ghi bỏ qua", result.getScannedRecords(), result.getAutoClosedRecords(),
+                result.getAutoClosedBreaks(), result.getFlaggedAnomalies(), result.getSkippedRecords());
+        return result;
+    }
+
+    /**
+     * Chạy một pha đến hết. Batch bị lock timeout/deadlock với chấm công đang chạy đã rollback;
+     * pha dừng tại đó và phần còn lại được quét ở lượt sau.
+     */
+    private void runPass(String name, Cursor start, ScanContext context,
+            BiFunction<Cursor, ScanContext, BatchResult> processor, AttendanceAnomalyScanResult result) {
+        Cursor cursor = start;
+        while (cursor != null) {
+            BatchResult batch;
+            try {
+                batch = processor.apply(cursor, context);
+            } catch (ConcurrencyFailureException e) {
+                log.warn("Dừng quét {} tại ({}, {}): {}", name, cursor.workDate(), cursor.recordId(), e.getMessage());
+                return;
+            }
+            result.setScannedRecords(result.getScannedRecords() + batch.scannedRecords());
+            result.setAutoClosedRecords(result.getAutoClosedRecords() + batch.autoClosedRecords());
+            result.setAutoClosedBreaks(result.getAutoClosedBreaks() + batch.autoClosedBreaks());
+            result.setFlaggedAnomalies(result.getFlaggedAnomalies() + batch.flaggedAnomalies());
+            result.setSkippedRecords(result.getSkippedRecords() + batch.skippedRecords());
+            cursor = batch.next();
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<AttendanceAnomalyResponse> getAnomalies(AnomalyStatus status, Long employeeId, Pageable pageable) {
+        Page<AttendanceAnomalyEntity> page = employeeId != null
+                ? attendanceAnomalyRepository.findByEmployeeIdAndStatus(employeeId, status, pageable)
+                : attendanceAnomalyRepository.findByStatus(status, pageable);
+
+        // Lấy tên nhân viên một lần cho cả trang
+        List<Long> employeeIds = page.getContent().stream()
+                .map(AttendanceAnomalyEntity::getEmployeeId).distinct().toList();
+        Map<Long, String> names = new HashMap<>();
+        for (UserEntity user : userRepository.findAllById(employeeIds)) {
+            names.put(user.getId(), user.getProfile() != null ? user.getProfile().getName() : user.getEmail());
+        }
+        List<AttendanceAnomalyResponse> content = page.getContent().stream()
+                .map(entity -> attendanceAnomalyMapper.toResponse(entity,
+                        names.getOrDefault(entity.getEmployeeId(), "Unknown")))
+                .toList();
+        return new PageImpl<>(content, pageable, page.getTotalElements());
+    }
+
+    @Override
+    @Transactional
+    public AttendanceAnomalyResponse resolve(Long anomalyId, Long resolvedBy, ResolveAnomalyRequest request) {
+        return close(anomalyId, AnomalyStatus.RESOLVED, resolvedBy, request);
+    }
+
+    @Override
+    @Transactional
+    public AttendanceAnomalyResponse dismiss(Long anomalyId, Long resolvedBy, ResolveAnomalyRequest request) {
+        return close(anomalyId, AnomalyStatus.DISMISSED, resolvedBy, request);
+    }
+
+    private AttendanceAnomalyResponse close(Long anomalyId, AnomalyStatus status, Long resolvedBy,
+            ResolveAnomalyRequest request) {
+        AttendanceAnomalyEntity entity = attendanceAnomalyRepository.findById(anomalyId)
+                .orElseThrow(() -> new NotFoundException(
+                        "Không tìm thấy bất thường chấm công với id: " + anomalyId,
+                        ErrorCode.ATTENDANCE_ANOMALY_NOT_FOUND));
+        if (entity.getStatus() != AnomalyStatus.OPEN) {
+            throw new ConflictException(ErrorCode.ATTENDANCE_ANOMALY_ALREADY_CLOSED);
+        }
+
+        entity.setStatus(status);
+        entity.setResolvedBy(resolvedBy);
+        entity.setResolvedAt(LocalDateTime.now());
+        entity.setResolutionNote(request != null ? request.getNote() : null);
+        entity = attendanceAnomalyRepository.save(entity);
+        log.info("Bất thường chấm công {} chuyển sang {} bởi {}", anomalyId, status, resolvedBy);
+
+        String employeeName = userRepository.findById(entity.getEmployeeId())
+                .map(user -> user.getProfile() != null ? user.getProfile().getName() : user.getEmail())
+                .orElse("Unknown");
+        return attendanceAnomalyMapper.toResponse(entity, employeeName);
+    }
+}
@@ -0,0 +1,164 @@
+package com.tamabee.api_hr.service.company.impl;
+
+import com.tamabee.api_hr.dto.config.BreakConfig;
+import com.tamabee.api_hr.entity.attendance.AttendanceRecordEntity;
+import com.tamabee.api_hr.entity.attendance.BreakRecordEntity;
+import com.tamabee.api_hr.service.company.interfaces.IAttendanceAggregateService;
+import com.tamabee.api_hr.service.company.interfaces.IPresenceService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.jdbc.core.BeanPropertyRowMapper;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Phần dùng chung của các xử lý hàng loạt trên attendance_records bằng JDBC
+ * (tính lại chấm công theo cấu hình, quét bất thường hằng đêm): đọc giải lao theo batch, tính lại thời gian
+ * giải lao hiệu lực, làm mới tổng hợp tháng/bảng hiện diện cho bản ghi đã ghi và gán tham số có thể null.
+ */
+@Service
+@RequiredArgsConstructor
+public class AttendanceBatchSupport {
+
+    private static final String SELECT_BREAKS_SQL = """
+            SELECT * FROM break_records
+            WHERE attendance_record_id = ANY(?) AND work_date BETWEEN ? AND ?
+            ORDER BY attendance_record_id, break_number
+            """;
+
+    private final IAttendanceAggregateService attendanceAggregateService;
+    private final IPresenceService presenceService;
+
+    @Qualifier("tenantJdbcTemplate")
+    private final JdbcTemplate tenantJdbcTemplate;
+
+    /**
+     * Đọc giải lao của các bản ghi (đã sắp xếp theo work_date) trong một lượt
+     *
+     * @return giải lao theo ID bản ghi, mỗi danh sách theo thứ tự break_number
+     */
+    public Map<Long, List<BreakRecordEntity>> loadBreaks(List<AttendanceRecordEntity> records) {
+        Long[] recordIds = records.stream().map(AttendanceRecordEntity::getId).toArray(Long[]::new);
+        LocalDate startDate = records.get(0).getWorkDate();
+        LocalDate endDate = records.get(records.size() - 1).getWorkDate();
+
+        Map<Long, List<BreakRecordEntity>> breaksByRecord = new HashMap<>();
+        tenantJdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(SELECT_BREAKS_SQL);
+            ps.setArray(1, connection.createArrayOf("bigint", recordIds));
+            ps.setDate(2, Date.valueOf(startDate));
+            ps.setDate(3, Date.valueOf(endDate));
+            return ps;
+        }, new BeanPropertyRowMapper<>(BreakRecordEntity.class)).forEach(breakRecord -> breaksByRecord
+                .computeIfAbsent(breakRecord.getAttendanceRecordId(), id -> new ArrayList<>())
+                .add(breakRecord));
+        return breaksByRecord;
+    }
+
+    /**
+     * Áp dụng lại min/max cho từng lần giải lao đã kết thúc
+     *
+     * @return các lần giải lao có thời gian hiệu lực thay đổi
+     */
+    public static List<BreakRecordEntity> recalculateBreaks(List<BreakRecordEntity> breaks, BreakConfig breakConfig) {
+        List<BreakRecordEntity> changed = new ArrayList<>();
+        for (BreakRecordEntity breakRecord : breaks) {
+            if (breakRecord.getActualBreakMinutes() == null || breakRecord.getBreakEnd() == null) {
+                continue;
+            }
+            int effectiveMinutes = clampBreakMinutes(breakRecord.getActualBreakMinutes(), breakConfig);
+            if (!Objects.equals(breakRecord.getEffectiveBreakMinutes(), effectiveMinutes)) {
+                breakRecord.setEffectiveBreakMinutes(effectiveMinutes);
+                changed.add(breakRecord);
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Áp dụng min/max cho thời gian giải lao (giống kết thúc giải lao từng lần)
+     */
+    public static int clampBreakMinutes(int actualMinutes, BreakConfig breakConfig) {
+        int effectiveMinutes = actualMinutes;
+        if (breakConfig != null) {
+            Integer minBreak = breakConfig.getMinimumBreakMinutes();
+            Integer maxBreak = breakConfig.getMaximumBreakMinutes();
+            if (minBreak != null && effectiveMinutes < minBreak) {
+                effectiveMinutes = minBreak;
+            }
+            if (maxBreak != null && effectiveMinutes > maxBreak) {
+                effectiveMinutes = maxBreak;
+            }
+        }
+        return effectiveMinutes;
+    }
+
+    /**
+     * Tính lại tổng hợp tháng cho các bản ghi đã ghi, một lượt SQL mỗi tháng
+     */
+    public void refreshAggregates(List<AttendanceRecordEntity> records) {
+        Map<YearMonth, Set<Long>> employeesByPeriod = new TreeMap<>();
+        for (AttendanceRecordEntity record : records) {
+            employeesByPeriod.computeIfAbsent(YearMonth.from(record.getWorkDate()), period -> new HashSet<>())
+                    .add(record.getEmployeeId());
+        }
+        employeesByPeriod.forEach((period, employeeIds) -> attendanceAggregateService.refresh(employeeIds, period));
+    }
+
+    /**
+     * Cập nhật bảng hiện diện cho các bản ghi hôm nay đã ghi
+     */
+    public void refreshPresence(List<AttendanceRecordEntity> records) {
+        LocalDate today = LocalDate.now();
+        Set<Long> employeeIds = new HashSet<>();
+        for (AttendanceRecordEntity record : records) {
+            if (today.equals(record.getWorkDate())) {
+                employeeIds.add(record.getEmployeeId());
+            }
+        }
+        presenceService.refresh(employeeIds, today);
+    }
+
+    // ==================== Tham số JDBC ====================
+
+    public static void setTimestamp(PreparedStatement ps, int index, LocalDateTime value) throws SQLException {
+        if (value != null) {
+            ps.setTimestamp(index, Timestamp.valueOf(value));
+        } else {
+            ps.setNull(index, Types.TIMESTAMP);
+        }
+    }
+
+    public static void setInteger(PreparedStatement ps, int index, Integer value) throws SQLException {
+        if (value != null) {
+            ps.setInt(index, value);
+        } else {
+            ps.setNull(index, Types.INTEGER);
+        }
+    }
+
+    public static void setBoolean(PreparedStatement ps, int index, Boolean value) throws SQLException {
+        if (value != null) {
+            ps.setBoolean(index, value);
+        } else {
+            ps.setNull(index, Types.BOOLEAN);
+        }
+    }
+}
@@ -0,0 +1,339 @@
+package com.tamabee.api_hr.service.company.impl;
+
+import com.tamabee.api_hr.dto.config.AttendanceConfig;
+import com.tamabee.api_hr.dto.config.BreakConfig;
+import com.tamabee.api_hr.dto.config.RoundingConfig;
+import com.tamabee.api_hr.dto.response.schedule.WorkScheduleResponse;
+import com.tamabee.api_hr.entity.attendance.AttendanceRecordEntity;
+import com.tamabee.api_hr.entity.attendance.BreakRecordEntity;
+import com.tamabee.api_hr.enums.ErrorCode;
+import com.tamabee.api_hr.enums.RecalculationStatus;
+import com.tamabee.api_hr.exception.ConflictException;
+import com.tamabee.api_hr.service.calculator.interfaces.IAttendanceRecordCalculator;
+import com.tamabee.api_hr.service.calculator.interfaces.ITimeRoundingCalculator;
+import com.tamabee.api_hr.service.company.interfaces.IWorkScheduleService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.BeanPropertyRowMapper;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.tamabee.api_hr.service.company.impl.AttendanceBatchSupport.recalculateBreaks;
+import static com.tamabee.api_hr.service.company.impl.AttendanceBatchSupport.setBoolean;
+import static com.tamabee.api_hr.service.company.impl.AttendanceBatchSupport.setInteger;
+import static com.tamabee.api_hr.service.company.impl.AttendanceBatchSupport.setTimestamp;
+
+/**
+ * Xử lý từng bước của job tính lại chấm công; mỗi method public là một transaction ngắn.
+ *
+ * Một batch đọc bản ghi theo keyset (work_date, id) trong khoảng ngày của chunk, không khóa,
+ * tính lại trên bộ nhớ theo cấu hình hiện tại và chỉ ghi bản ghi có kết quả thay đổi. Câu UPDATE
+ * kèm điều kiện updated_at chưa đổi kể từ lúc đọc: bản ghi vừa được check-out/điều chỉnh (đã tính
+ * theo cấu hình hiện tại) được giữ nguyên thay vì bị ghi đè. lock_timeout ngắn giúp batch không xếp
+ * hàng sau chấm công đang giữ khóa (batch được thử lại sau). Checkpoint của chunk ghi trong cùng
+ * transaction nên chạy tiếp sau sự cố không bỏ sót hay tính lặp batch nào.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AttendanceRecalculationBatchProcessor {
+
+    private final IWorkScheduleService workScheduleService;
+    private final ITimeRoundingCalculator timeRoundingCalculator;
+    private final IAttendanceRecordCalculator attendanceRecordCalculator;
+    private final AttendanceBatchSupport attendanceBatchSupport;
+
+    @Qualifier("tenantJdbcTemplate")
+    private final JdbcTemplate tenantJdbcTemplate;
+
+    @Value("${attendance.recalculation.batch-size:500}")
+    private int batchSize;
+
+    @Value("${attendance.recalculation.lock-timeout-ms:2000}")
+    private long lockTimeoutMs;
+
+    /**
+     * Chunk đang được worker xử lý
+     *
+     * @param attempt      số lần chunk được nhận, dùng làm token: checkpoint của worker đã mất chunk bị từ chối
+     * @param lastWorkDate checkpoint, null nếu chưa xử lý batch nào
+     */
+    public record Chunk(Long id, Long jobId, LocalDate chunkFrom, LocalDate chunkTo, int attempt,
+            LocalDate lastWorkDate, Long lastRecordId) {
+    }
+
+    private static final String CLAIM_CHUNK_SQL = """
+            UPDATE attendance_recalculation_chunks c
+            SET status = 'RUNNING', attempts = c.attempts + 1, heartbeat_at = ?, updated_at = ?
+            WHERE c.id = (
+                SELECT id FROM attendance_recalculation_chunks
+                WHERE job_id = ? AND (status = 'PENDING' OR (status = 'RUNNING' AND heartbeat_at < ?))
+                ORDER BY chunk_from
+                LIMIT 1
+                FOR UPDATE SKIP LOCKED)
+              AND EXISTS (SELECT 1 FROM attendance_recalculation_jobs j
+                          WHERE j.id = c.job_id AND j.status = 'RUNNING')
+            RETURNING c.id, c.job_id, c.chunk_from, c.chunk_to, c.attempts, c.last_work_date, c.last_record_id
+            """;
+
+    private static final String JOB_STATUS_SQL = "SELECT status FROM attendance_recalculation_jobs WHERE id = ?";
+
+    private static final String SELECT_RECORDS_SQL = """
+            SELECT * FROM attendance_records
+            WHERE work_date BETWEEN ? AND ? AND (work_date, id) > (?, ?)
+            ORDER BY work_date, id
+            LIMIT ?
+            """;
+
+    private static final String UPDATE_RECORD_SQL = """
+            UPDATE attendance_records
+            SET rounded_check_in = ?, rounded_check_out = ?,
+                working_minutes = ?, overtime_minutes = ?, late_minutes = ?, early_leave_minutes = ?,
+                total_break_minutes = ?, effective_break_minutes = ?, break_type = ?, break_compliant = ?,
+                updated_at = ?
+            WHERE id = ? AND work_date = ? AND updated_at = ?
+            """;
+
+    private static final String UPDATE_BREAK_SQL = """
+            UPDATE break_records
+            SET effective_break_minutes = ?, updated_at = ?
+            WHERE id = ? AND work_date = ? AND updated_at = ?
+            """;
+
+    private static final String CHECKPOINT_SQL = """
+            UPDATE attendance_recalculation_chunks
+            SET last_work_date = ?, last_record_id = ?,
+                processed_records = processed_records + ?, updated_records = updated_records + ?,
+                skipped_records = skipped_records + ?,
+                status = ?, heartbeat_at = ?, finished_at = ?, updated_at = ?
+            WHERE id = ? AND attempts = ? AND status = 'RUNNING'
+            """;
+
+    private static final String RELEASE_CHUNK_SQL = """
+            UPDATE attendance_recalculation_chunks
+            SET status = ?, error_message = ?, heartbeat_at = NULL, updated_at = ?
+            WHERE id = ? AND attempts = ? AND status = 'RUNNING'
+            """;
+
+    private static final String FINISH_JOB_SQL = """
+            UPDATE attendance_recalculation_jobs j
+            SET status = CASE WHEN f.error_message IS NULL THEN 'COMPLETED' ELSE 'FAILED' END,
+                error_message = f.error_message, finished_at = ?, updated_at = ?
+            FROM (SELECT (SELECT c.error_message FROM attendance_recalculation_chunks c
+                          WHERE c.job_id = ? AND c.status = 'FAILED'
+                          ORDER BY c.chunk_from LIMIT 1) AS error_message) f
+            WHERE j.id = ? AND j.status = 'RUNNING'
+              AND NOT EXISTS (SELECT 1 FROM attendance_recalculation_chunks c
+                              WHERE c.job_id = j.id AND c.status IN ('PENDING', 'RUNNING'))
+            RETURNING j.status
+            """;
+
+    /**
+     * Nhận chunk tiếp theo của job: chunk đang chờ, hoặc chunk RUNNING mà worker giữ nó đã ngừng
+     * gửi heartbeat trước staleBefore (node chết giữa chừng)
+     *
+     * @return null nếu job không còn chunk nào để nhận hoặc không còn chạy
+     */
+    @Transactional
+    public Chunk claimChunk(Long jobId, LocalDateTime staleBefore) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Chunk> claimed = tenantJdbcTemplate.query(CLAIM_CHUNK_SQL, (rs, rowNum) -> new Chunk(
+                rs.getLong("id"),
+                rs.getLong("job_id"),
+                rs.getDate("chunk_from").toLocalDate(),
+                rs.getDate("chunk_to").toLocalDate(),
+                rs.getInt("attempts"),
+                rs.getDate("last_work_date") != null ? rs.getDate("last_work_date").toLocalDate() : null,
+                rs.getObject("last_record_id") != null ? rs.getLong("last_record_id") : null),
+                Timestamp.valueOf(now), Timestamp.valueOf(now), jobId, Timestamp.valueOf(staleBefore));
+        return claimed.isEmpty() ? null : claimed.get(0);
+    }
+
+    /**
+     * Tính lại một batch của chunk và ghi checkpoint
+     *
+     * @return chunk với checkpoint mới, null nếu chunk đã xong hoặc job đã bị hủy (chunk được trả lại)
+     * @throws ConflictException nếu chunk đã bị worker khác nhận lại (batch bị rollback)
+     */
+    @Transactional
+    public Chunk processBatch(Chunk chunk, AttendanceConfig config, BreakConfig breakConfig) {
+        String jobStatus = tenantJdbcTemplate.queryForObject(JOB_STATUS_SQL, String.class, chunk.jobId());
+        if (!RecalculationStatus.RUNNING.name().equals(jobStatus)) {
+            release(chunk, RecalculationStatus.PENDING, null);
+            return null;
+        }
+        tenantJdbcTemplate.execute("SET LOCAL lock_timeout = " + lockTimeoutMs);
+
+        LocalDate afterDate = chunk.lastWorkDate() != null ? chunk.lastWorkDate() : chunk.chunkFrom();
+        long afterId = chunk.lastRecordId() != null ? chunk.lastRecordId() : 0L;
+        List<AttendanceRecordEntity> records = tenantJdbcTemplate.query(SELECT_RECORDS_SQL,
+                new BeanPropertyRowMapper<>(AttendanceRecordEntity.class),
+                Date.valueOf(chunk.chunkFrom()), Date.valueOf(chunk.chunkTo()), Date.valueOf(afterDate), afterId,
+                batchSize);
+
+        List<AttendanceRecordEntity> changed = new ArrayList<>();
+        Map<Long, List<BreakRecordEntity>> changedBreaks = new HashMap<>();
+        if (!records.isEmpty()) {
+            Map<Long, List<BreakRecordEntity>> breaksByRecord = attendanceBatchSupport.loadBreaks(records);
+            for (AttendanceRecordEntity record : records) {
+                List<BreakRecordEntity> breaks = breaksByRecord.getOrDefault(record.getId(), List.of());
+                List<Object> before = calculatedValues(record);
+                List<BreakRecordEntity> breaksChanged = recalculateBreaks(breaks, breakConfig);
+                recalculate(record, breaks, config, breakConfig);
+                if (!before.equals(calculatedValues(record)) || !breaksChanged.isEmpty()) {
+                    changed.add(record);
+                    changedBreaks.put(record.getId(), breaksChanged);
+                }
+            }
+        }
+
+        List<AttendanceRecordEntity> written = write(changed, changedBreaks);
+        attendanceBatchSupport.refreshAggregates(written);
+        attendanceBatchSupport.refreshPresence(written);
+
+        boolean finished = records.size() < batchSize;
+        AttendanceRecordEntity last = records.isEmpty() ? null : records.get(records.size() - 1);
+        LocalDate lastWorkDate = last != null ? last.getWorkDate() : chunk.lastWorkDate();
+        Long lastRecordId = last != null ? last.getId() : chunk.lastRecordId();
+
+        LocalDateTime now = LocalDateTime.now();
+        int checkpointed = tenantJdbcTemplate.update(CHECKPOINT_SQL,
+                lastWorkDate != null ? Date.valueOf(lastWorkDate) : null, lastRecordId,
+                records.size(), written.size(), changed.size() - written.size(),
+                (finished ? RecalculationStatus.COMPLETED : RecalculationStatus.RUNNING).name(),
+                Timestamp.valueOf(now), finished ? Timestamp.valueOf(now) : null, Timestamp.valueOf(now),
+                chunk.id(), chunk.attempt());
+        if (checkpointed == 0) {
+            throw new ConflictException(
+                    String.format("Chunk %d đã được worker khác nhận lại", chunk.id()), ErrorCode.CONFLICT);
+        }
+
+        return finished ? null
+                : new Chunk(chunk.id(), chunk.jobId(), chunk.chunkFrom(), chunk.chunkTo(), chunk.attempt(),
+                        lastWorkDate, lastRecordId);
+    }
+
+    /**
+     * Trả chunk về hàng chờ (tắt ứng dụng, job bị hủy) hoặc đánh dấu lỗi; giữ nguyên checkpoint
+     */
+    @Transactional
+    public void release(Chunk chunk, RecalculationStatus status, String errorMessage) {
+        tenantJdbcTemplate.update(RELEASE_CHUNK_SQL, status.name(), errorMessage,
+                Timestamp.valueOf(LocalDateTime.now()), chunk.id(), chunk.attempt());
+    }
+
+    /**
+     * Kết thúc job khi không còn chunk đang chờ/đang chạy
+     *
+     * @return trạng thái cuối của job, null nếu job chưa xong (hoặc worker khác đã kết thúc)
+     */
+    @Transactional
+    public RecalculationStatus finishJob(Long jobId) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<String> statuses = tenantJdbcTemplate.queryForList(FINISH_JOB_SQL, String.class, now, now, jobId, jobId);
+        return statuses.isEmpty() ? null : RecalculationStatus.valueOf(statuses.get(0));
+    }
+
+    // ==================== Recalculate ====================
+
+    /**
+     * Tính lại thời gian làm tròn, đi muộn, giờ làm/giải lao/về sớm/tăng ca theo cấu hình hiện tại
+     * (cùng quy tắc với điều chỉnh chấm công)
+     */
+    private void recalculate(AttendanceRecordEntity record, List<BreakRecordEntity> breaks,
+            AttendanceConfig config, BreakConfig breakConfig) {
+        record.setRoundedCheckIn(round(record.getOriginalCheckIn(), config.getCheckInRounding(), config));
+        record.setRoundedCheckOut(round(record.getOriginalCheckOut(), config.getCheckOutRounding(), config));
+
+        WorkScheduleResponse schedule = workScheduleService.getEffectiveSchedule(
+                record.getEmployeeId(), record.getWorkDate());
+        if (schedule == null) {
+            return;
+        }
+        if (record.getRoundedCheckIn() != null) {
+            record.setLateMinutes(attendanceRecordCalculator.calculateLateMinutes(
+                    record.getRoundedCheckIn(), schedule, config));
+        }
+        if (record.getRoundedCheckOut() != null) {
+            attendanceRecordCalculator.calculateWorkingHours(record, breaks, schedule, config, breakConfig);
+        }
+    }
+
+    private LocalDateTime round(LocalDateTime time, RoundingConfig rounding, AttendanceConfig config) {
+        if (time != null && Boolean.TRUE.equals(config.getEnableRounding()) && rounding != null) {
+            return timeRoundingCalculator.roundTime(time, rounding);
+        }
+        return time;
+    }
+
+    // Các cột được tính lại, để chỉ ghi bản ghi có thay đổi
+    private static List<Object> calculatedValues(AttendanceRecordEntity record) {
+        return Arrays.asList(record.getRoundedCheckIn(), record.getRoundedCheckOut(),
+                record.getWorkingMinutes(), record.getOvertimeMinutes(), record.getLateMinutes(),
+                record.getEarlyLeaveMinutes(), record.getTotalBreakMinutes(), record.getEffectiveBreakMinutes(),
+                record.getBreakType(), record.getBreakCompliant());
+    }
+
+    /**
+     * Ghi các bản ghi thay đổi bằng JDBC batch, chỉ khi updated_at chưa đổi kể từ lúc đọc
+     *
+     * @return các bản ghi đã ghi (bản ghi bị sửa đồng thời được bỏ qua)
+     */
+    private List<AttendanceRecordEntity> write(List<AttendanceRecordEntity> records,
+            Map<Long, List<BreakRecordEntity>> breaksByRecord) {
+        if (records.isEmpty()) {
+            return List.of();
+        }
+        LocalDateTime now = LocalDateTime.now();
+        int[][] counts = tenantJdbcTemplate.batchUpdate(UPDATE_RECORD_SQL, records, records.size(), (ps, r) -> {
+            setTimestamp(ps, 1, r.getRoundedCheckIn());
+            setTimestamp(ps, 2, r.getRoundedCheckOut());
+            setInteger(ps, 3, r.getWorkingMinutes());
+            setInteger(ps, 4, r.getOvertimeMinutes());
+            setInteger(ps, 5, r.getLateMinutes());
+            setInteger(ps, 6, r.getEarlyLeaveMinutes());
+            setInteger(ps, 7, r.getTotalBreakMinutes());
+            setInteger(ps, 8, r.getEffectiveBreakMinutes());
+            ps.setString(9, r.getBreakType() != null ? r.getBreakType().name() : null);
+            setBoolean(ps, 10, r.getBreakCompliant());
+            ps.setTimestamp(11, Timestamp.valueOf(now));
+            ps.setLong(12, r.getId());
+            ps.setDate(13, Date.valueOf(r.getWorkDate()));
+            ps.setTimestamp(14, Timestamp.valueOf(r.getUpdatedAt()));
+        });
+
+        List<AttendanceRecordEntity> written = new ArrayList<>();
+        List<BreakRecordEntity> breaks = new ArrayList<>();
+        for (int i = 0; i < records.size(); i++) {
+            if (counts[0][i] > 0) {
+                AttendanceRecordEntity record = records.get(i);
+                written.add(record);
+                breaks.addAll(breaksByRecord.getOrDefault(record.getId(), List.of()));
+            }
+        }
+
+        if (!breaks.isEmpty()) {
+            tenantJdbcTemplate.batchUpdate(UPDATE_BREAK_SQL, breaks, breaks.size(), (ps, b) -> {
+                setInteger(ps, 1, b.getEffectiveBreakMinutes());
+                ps.setTimestamp(2, Timestamp.valueOf(now));
+                ps.setLong(3, b.getId());
+                ps.setDate(4, Date.valueOf(b.getWorkDate()));
+                ps.setTimestamp(5, Timestamp.valueOf(b.getUpdatedAt()));
+            });
+        }
+        return written;
+    }
+}
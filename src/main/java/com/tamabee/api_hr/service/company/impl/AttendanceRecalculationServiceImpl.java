@@ -0,0 +1,390 @@
+package com.tamabee.api_hr.service.company.impl;
+
+import com.tamabee.api_hr.datasource.TenantContext;
+import com.tamabee.api_hr.dto.config.AttendanceConfig;
+import com.tamabee.api_hr.dto.config.BreakConfig;
+import com.tamabee.api_hr.dto.request.attendance.AttendanceRecalculationRequest;
+import com.tamabee.api_hr.dto.response.attendance.AttendanceRecalculationJobResponse;
+import com.tamabee.api_hr.enums.ErrorCode;
+import com.tamabee.api_hr.enums.RecalculationStatus;
+import com.tamabee.api_hr.exception.BadRequestException;
+import com.tamabee.api_hr.exception.ConflictException;
+import com.tamabee.api_hr.exception.NotFoundException;
+import com.tamabee.api_hr.service.company.impl.AttendanceRecalculationBatchProcessor.Chunk;
+import com.tamabee.api_hr.service.company.interfaces.IAttendanceRecalculationService;
+import com.tamabee.api_hr.service.company.interfaces.ICompanySettingsService;
+import com.tamabee.api_hr.service.company.interfaces.IPayrollSimulationService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Service implementation tính lại hàng loạt bản ghi chấm công.
+ *
+ * Khoảng ngày được chia thành các chunk {@code chunk-days} ngày (attendance_recalculation_chunks).
+ * Mỗi worker nhận một chunk bằng FOR UPDATE SKIP LOCKED rồi xử lý từng batch keyset qua
+ * {@link AttendanceRecalculationBatchProcessor} (mỗi batch một transaction ngắn, checkpoint cùng transaction),
+ * nên nhiều worker/nhiều node chạy song song mà không xử lý trùng. Worker gửi heartbeat qua checkpoint;
+ * chunk của node chết được nhận lại sau {@code stale-seconds}. Batch gặp lock timeout/deadlock với
+ * chấm công hằng ngày được thử lại, lỗi khác đánh dấu chunk FAILED để chạy tiếp bằng resume.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AttendanceRecalculationServiceImpl implements IAttendanceRecalculationService {
+
+    private static final int MAX_RECALCULATION_DAYS = 366;
+    private static final int RECENT_JOBS_LIMIT = 20;
+    private static final long RETRY_BACKOFF_MS = 500;
+
+    private final AttendanceRecalculationBatchProcessor batchProcessor;
+    private final ICompanySettingsService companySettingsService;
+    private final IPayrollSimulationService payrollSimulationService;
+
+    @Qualifier("tenantJdbcTemplate")
+    private final JdbcTemplate tenantJdbcTemplate;
+
+    @Value("${attendance.recalculation.workers:2}")
+    private int workers;
+
+    @Value("${attendance.recalculation.chunk-days:7}")
+    private int chunkDays;
+
+    @Value("${attendance.recalculation.stale-seconds:300}")
+    private long staleSeconds;
+
+    @Value("${attendance.recalculation.max-batch-attempts:5}")
+    private int maxBatchAttempts;
+
+    // Số worker đang chạy trên node này theo tenant:jobId
+    private final Map<String, AtomicInteger> activeWorkers = new ConcurrentHashMap<>();
+    private ExecutorService workerExecutor;
+    private volatile boolean stopping;
+
+    private static final String INSERT_JOB_SQL = """
+            INSERT INTO attendance_recalculation_jobs (from_date, to_date, status, requested_by, started_at)
+            VALUES (?, ?, 'RUNNING', ?, ?)
+            RETURNING id
+            """;
+
+    private static final String INSERT_CHUNKS_SQL = """
+            INSERT INTO attendance_recalculation_chunks (job_id, chunk_from, chunk_to)
+            SELECT ?, d::date, LEAST(d::date + ? - 1, ?)
+            FROM generate_series(?::date, ?::date, make_interval(days => ?)) AS d
+            """;
+
+    // Tiến độ cộng dồn từ các chunk: worker không ghi chung một dòng job
+    private static final String SELECT_JOBS_SQL = """
+            SELECT j.id, j.from_date, j.to_date, j.status, j.requested_by, j.error_message,
+                   j.started_at, j.finished_at, j.created_at,
+                   COUNT(c.id) AS total_chunks,
+                   COUNT(c.id) FILTER (WHERE c.status = 'COMPLETED') AS completed_chunks,
+                   COUNT(c.id) FILTER (WHERE c.status = 'FAILED') AS failed_chunks,
+                   COALESCE(SUM(c.processed_records), 0) AS processed_records,
+                   COALESCE(SUM(c.updated_records), 0) AS updated_records,
+                   COALESCE(SUM(c.skipped_records), 0) AS skipped_records
+            FROM attendance_recalculation_jobs j
+            LEFT JOIN attendance_recalculation_chunks c ON c.job_id = j.id
+            %s
+            GROUP BY j.id
+            ORDER BY j.id DESC
+            LIMIT ?
+            """;
+
+    private static final String SELECT_JOB_SQL = SELECT_JOBS_SQL.formatted("WHERE j.id = ?");
+
+    private static final String SELECT_RECENT_JOBS_SQL = SELECT_JOBS_SQL.formatted("");
+
+    private static final String SELECT_RUNNING_JOB_IDS_SQL =
+            "SELECT id FROM attendance_recalculation_jobs WHERE status = 'RUNNING' ORDER BY id";
+
+    private static final String CANCEL_JOB_SQL = """
+            UPDATE attendance_recalculation_jobs
+            SET status = 'CANCELLED', finished_at = ?, updated_at = ?
+            WHERE id = ? AND status = 'RUNNING'
+            """;
+
+    private static final String RESUME_JOB_SQL = """
+            UPDATE attendance_recalculation_jobs
+            SET status = 'RUNNING', error_message = NULL, finished_at = NULL, updated_at = ?
+            WHERE id = ? AND status IN ('FAILED', 'CANCELLED')
+            """;
+
+    // Chunk RUNNING của job đã hủy có thể thuộc worker đã chết: đưa về hàng chờ, worker còn sống
+    // bị từ chối ở checkpoint kế tiếp
+    private static final String RESUME_CHUNKS_SQL = """
+            UPDATE attendance_recalculation_chunks
+            SET status = 'PENDING', error_message = NULL, heartbeat_at = NULL, updated_at = ?
+            WHERE job_id = ? AND status IN ('FAILED', 'RUNNING')
+            """;
+
+    private static final RowMapper<AttendanceRecalculationJobResponse> JOB_ROW_MAPPER = (rs, rowNum) -> {
+        Timestamp startedAt = rs.getTimestamp("started_at");
+        Timestamp finishedAt = rs.getTimestamp("finished_at");
+        return AttendanceRecalculationJobResponse.builder()
+                .id(rs.getLong("id"))
+                .fromDate(rs.getDate("from_date").toLocalDate())
+                .toDate(rs.getDate("to_date").toLocalDate())
+                .status(RecalculationStatus.valueOf(rs.getString("status")))
+                .requestedBy(rs.getObject("requested_by") != null ? rs.getLong("requested_by") : null)
+                .totalChunks(rs.getInt("total_chunks"))
+                .completedChunks(rs.getInt("completed_chunks"))
+                .failedChunks(rs.getInt("failed_chunks"))
+                .processedRecords(rs.getLong("processed_records"))
+                .updatedRecords(rs.getLong("updated_records"))
+                .skippedRecords(rs.getLong("skipped_records"))
+                .errorMessage(rs.getString("error_message"))
+                .startedAt(startedAt != null ? startedAt.toLocalDateTime() : null)
+                .finishedAt(finishedAt != null ? finishedAt.toLocalDateTime() : null)
+                .createdAt(rs.getTimestamp("created_at").toLocalDateTime())
+                .build();
+    };
+
+    @PostConstruct
+    void start() {
+        AtomicInteger threadCount = new AtomicInteger();
+        workerExecutor = Executors.newFixedThreadPool(Math.max(1, workers), runnable -> {
+            Thread thread = new Thread(runnable, "attendance-recalc-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void stop() {
+        // Worker trả chunk về hàng chờ sau batch hiện tại, node khác/lần khởi động sau chạy tiếp
+        stopping = true;
+        workerExecutor.shutdown();
+        try {
+            workerExecutor.awaitTermination(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // ==================== Job ====================
+
+    @Override
+    @Transactional
+    public AttendanceRecalculationJobResponse start(AttendanceRecalculationRequest request, Long requestedBy) {
+        if (request.getFromDate().isAfter(request.getToDate())
+                || ChronoUnit.DAYS.between(request.getFromDate(), request.getToDate()) >= MAX_RECALCULATION_DAYS) {
+            throw new BadRequestException(
+                    String.format("Khoảng ngày không hợp lệ (tối đa %d ngày)", MAX_RECALCULATION_DAYS),
+                    ErrorCode.INVALID_REQUEST);
+        }
+
+        Long jobId;
+        try {
+            jobId = tenantJdbcTemplate.queryForObject(INSERT_JOB_SQL, Long.class,
+                    Date.valueOf(request.getFromDate()), Date.valueOf(request.getToDate()), requestedBy,
+                    Timestamp.valueOf(LocalDateTime.now()));
+        } catch (DuplicateKeyException e) {
+            throw new ConflictException(ErrorCode.RECALCULATION_ALREADY_RUNNING);
+        }
+        int chunkSize = Math.max(1, chunkDays);
+        int chunks = tenantJdbcTemplate.update(INSERT_CHUNKS_SQL, jobId, chunkSize,
+                Date.valueOf(request.getToDate()), Date.valueOf(request.getFromDate()),
+                Date.valueOf(request.getToDate()), chunkSize);
+
+        log.info("Tạo job tính lại chấm công {} ({} - {}, {} chunk) bởi {}",
+                jobId, request.getFromDate(), request.getToDate(), chunks, requestedBy);
+        dispatchAfterCommit(TenantContext.getCurrentTenant(), jobId);
+        return getJob(jobId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public AttendanceRecalculationJobResponse getJob(Long jobId) {
+        return tenantJdbcTemplate.query(SELECT_JOB_SQL, JOB_ROW_MAPPER, jobId, 1).stream()
+                .findFirst()
+                .orElseThrow(() -> new NotFoundException(
+                        "Không tìm thấy job tính lại chấm công với id: " + jobId,
+                        ErrorCode.RECALCULATION_JOB_NOT_FOUND));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<AttendanceRecalculationJobResponse> getRecentJobs() {
+        return tenantJdbcTemplate.query(SELECT_RECENT_JOBS_SQL, JOB_ROW_MAPPER, RECENT_JOBS_LIMIT);
+    }
+
+    @Override
+    @Transactional
+    public AttendanceRecalculationJobResponse cancel(Long jobId) {
+        AttendanceRecalculationJobResponse job = getJob(jobId);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        if (tenantJdbcTemplate.update(CANCEL_JOB_SQL, now, now, jobId) > 0) {
+            log.info("Hủy job tính lại chấm công {}", jobId);
+            return getJob(jobId);
+        }
+        return job;
+    }
+
+    @Override
+    @Transactional
+    public AttendanceRecalculationJobResponse resume(Long jobId) {
+        getJob(jobId);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        try {
+            if (tenantJdbcTemplate.update(RESUME_JOB_SQL, now, jobId) == 0) {
+                throw new BadRequestException(ErrorCode.RECALCULATION_NOT_RESUMABLE);
+            }
+        } catch (DuplicateKeyException e) {
+            throw new ConflictException(ErrorCode.RECALCULATION_ALREADY_RUNNING);
+        }
+        tenantJdbcTemplate.update(RESUME_CHUNKS_SQL, now, jobId);
+
+        log.info("Chạy tiếp job tính lại chấm công {}", jobId);
+        dispatchAfterCommit(TenantContext.getCurrentTenant(), jobId);
+        return getJob(jobId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public int resumeRunningJobs() {
+        String tenantDomain = TenantContext.getCurrentTenant();
+        int resumed = 0;
+        for (Long jobId : tenantJdbcTemplate.queryForList(SELECT_RUNNING_JOB_IDS_SQL, Long.class)) {
+            if (!activeWorkers.containsKey(workerKey(tenantDomain, jobId))) {
+                dispatch(tenantDomain, jobId);
+                resumed++;
+            }
+        }
+        return resumed;
+    }
+
+    // ==================== Workers ====================
+
+    private void dispatchAfterCommit(String tenantDomain, Long jobId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    dispatch(tenantDomain, jobId);
+                }
+            });
+        } else {
+            dispatch(tenantDomain, jobId);
+        }
+    }
+
+    /**
+     * Khởi động worker cho job trên node này (tối đa {@code workers}); worker không nhận được chunk thì
+     * kết thúc job nếu mọi chunk đã xong
+     */
+    private void dispatch(String tenantDomain, Long jobId) {
+        String key = workerKey(tenantDomain, jobId);
+        for (int i = 0; i < Math.max(1, workers); i++) {
+            activeWorkers.computeIfAbsent(key, k -> new AtomicInteger()).incrementAndGet();
+            try {
+                workerExecutor.execute(() -> runWorker(tenantDomain, jobId, key));
+            } catch (RejectedExecutionException e) {
+                // Đang tắt ứng dụng: job được chạy tiếp sau khi khởi động lại
+                releaseWorker(key);
+                break;
+            }
+        }
+    }
+
+    private void runWorker(String tenantDomain, Long jobId, String key) {
+        try {
+            TenantContext.setCurrentTenant(tenantDomain);
+            Chunk chunk;
+            while (!stopping && (chunk = batchProcessor.claimChunk(jobId, staleBefore())) != null) {
+                // Đọc cấu hình cho mỗi chunk: chunk sau dùng cấu hình mới nhất
+                try {
+                    processChunk(chunk, companySettingsService.getAttendanceConfig(),
+                            companySettingsService.getBreakConfig());
+                } finally {
+                    // Các batch đã commit đổi dữ liệu chấm công của kỳ, kể cả khi chunk dừng giữa chừng
+                    payrollSimulationService.evictDatasets(chunk.chunkFrom(), chunk.chunkTo());
+                }
+            }
+            if (!stopping) {
+                RecalculationStatus status = batchProcessor.finishJob(jobId);
+                if (status != null) {
+                    log.info("Job tính lại chấm công {} của tenant {} kết thúc: {}", jobId, tenantDomain, status);
+                }
+            }
+        } catch (Exception e) {
+            // Chunk đang giữ (nếu có) được nhận lại sau khi hết hạn heartbeat
+            log.error("Lỗi worker tính lại chấm công job {} tenant {}: {}", jobId, tenantDomain, e.getMessage(), e);
+        } finally {
+            TenantContext.clear();
+            releaseWorker(key);
+        }
+    }
+
+    private void processChunk(Chunk chunk, AttendanceConfig config, BreakConfig breakConfig) {
+        Chunk current = chunk;
+        int failures = 0;
+        while (current != null) {
+            if (stopping) {
+                batchProcessor.release(current, RecalculationStatus.PENDING, null);
+                return;
+            }
+            try {
+                current = batchProcessor.processBatch(current, config, breakConfig);
+                failures = 0;
+            } catch (ConflictException e) {
+                log.warn("{}, bỏ qua", e.getMessage());
+                return;
+            } catch (ConcurrencyFailureException e) {
+                // Lock timeout/deadlock với chấm công đang chạy: batch đã rollback, thử lại sau
+                if (++failures >= maxBatchAttempts) {
+                    batchProcessor.release(current, RecalculationStatus.FAILED, e.getMessage());
+                    return;
+                }
+                try {
+                    Thread.sleep(RETRY_BACKOFF_MS * failures);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    batchProcessor.release(current, RecalculationStatus.PENDING, null);
+                    return;
+                }
+            } catch (RuntimeException e) {
+                log.error("Lỗi tính lại chunk {} ({} - {}): {}",
+                        current.id(), current.chunkFrom(), current.chunkTo(), e.getMessage(), e);
+                batchProcessor.release(current, RecalculationStatus.FAILED, e.getMessage());
+                return;
+            }
+        }
+    }
+
+    private void releaseWorker(String key) {
+        activeWorkers.computeIfPresent(key, (k, count) -> count.decrementAndGet() == 0 ? null : count);
+    }
+
+    private LocalDateTime staleBefore() {
+        return LocalDateTime.now().minusSeconds(staleSeconds);
+    }
+
+    private static String workerKey(String tenantDomain, Long jobId) {
+        return tenantDomain + ":" + jobId;
+    }
+}
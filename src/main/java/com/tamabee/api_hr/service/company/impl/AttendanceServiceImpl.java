@@ -1,8 +1,8 @@
 package com.tamabee.api_hr.service.company.impl;
 
+import com.tamabee.api_hr.dto.common.CursorPage;
 import com.tamabee.api_hr.dto.config.AttendanceConfig;
 import com.tamabee.api_hr.dto.config.BreakConfig;
-import com.tamabee.api_hr.dto.config.WorkScheduleData;
 import com.tamabee.api_hr.dto.request.attendance.AdjustAttendanceRequest;
 import com.tamabee.api_hr.dto.request.attendance.AttendanceQueryRequest;
 import com.tamabee.api_hr.dto.request.attendance.CheckInRequest;
@@ -12,6 +12,7 @@ import com.tamabee.api_hr.dto.response.attendance.AttendanceRecordResponse;
 import com.tamabee.api_hr.dto.response.attendance.AttendanceSummaryResponse;
 import com.tamabee.api_hr.dto.response.attendance.ShiftInfoResponse;
 import com.tamabee.api_hr.dto.response.schedule.WorkScheduleResponse;
+import com.tamabee.api_hr.entity.attendance.AttendanceMonthlyAggregateEntity;
 import com.tamabee.api_hr.entity.attendance.AttendanceRecordEntity;
 import com.tamabee.api_hr.entity.attendance.BreakRecordEntity;
 import com.tamabee.api_hr.entity.attendance.ShiftAssignmentEntity;
@@ -19,36 +20,53 @@ import com.tamabee.api_hr.entity.attendance.ShiftTemplateEntity;
 import com.tamabee.api_hr.entity.user.UserEntity;
 import com.tamabee.api_hr.enums.AttendanceStatus;
 import com.tamabee.api_hr.enums.ErrorCode;
-import com.tamabee.api_hr.enums.ScheduleType;
 import com.tamabee.api_hr.exception.BadRequestException;
 import com.tamabee.api_hr.exception.ConflictException;
 import com.tamabee.api_hr.exception.NotFoundException;
 import com.tamabee.api_hr.mapper.company.AttendanceMapper;
+import com.tamabee.api_hr.repository.attendance.AttendanceMonthlyAggregateRepository;
 import com.tamabee.api_hr.repository.attendance.AttendanceRecordRepository;
 import com.tamabee.api_hr.repository.attendance.BreakRecordRepository;
 import com.tamabee.api_hr.repository.attendance.ShiftAssignmentRepository;
 import com.tamabee.api_hr.repository.attendance.ShiftTemplateRepository;
 import com.tamabee.api_hr.repository.user.UserRepository;
-import com.tamabee.api_hr.service.calculator.interfaces.IBreakCalculator;
+import com.tamabee.api_hr.service.calculator.interfaces.IAttendanceRecordCalculator;
 import com.tamabee.api_hr.service.calculator.interfaces.ITimeRoundingCalculator;
+import com.tamabee.api_hr.service.company.cache.DeviceMembership;
+import com.tamabee.api_hr.service.company.cache.GeoFenceIndex;
+import com.tamabee.api_hr.service.company.interfaces.IAttendanceAggregateService;
 import com.tamabee.api_hr.service.company.interfaces.IAttendanceService;
 import com.tamabee.api_hr.service.company.interfaces.ICompanySettingsService;
+import com.tamabee.api_hr.service.company.interfaces.IDeviceRegistryService;
+import com.tamabee.api_hr.service.company.interfaces.IPayrollSimulationService;
+import com.tamabee.api_hr.service.company.interfaces.IPresenceService;
 import com.tamabee.api_hr.service.company.interfaces.IWorkScheduleService;
+import com.tamabee.api_hr.service.company.interfaces.IWorkSiteService;
+import com.tamabee.api_hr.util.CursorCodec;
+import jakarta.persistence.criteria.Predicate;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.BeanPropertyRowMapper;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.LocalTime;
 import java.time.YearMonth;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -69,8 +87,32 @@ public class AttendanceServiceImpl implements IAttendanceService {
     private final ICompanySettingsService companySettingsService;
     private final IWorkScheduleService workScheduleService;
     private final ITimeRoundingCalculator timeRoundingCalculator;
-    private final IBreakCalculator breakCalculator;
+    private final IAttendanceRecordCalculator attendanceRecordCalculator;
     private final AttendanceMapper attendanceMapper;
+    private final IWorkSiteService workSiteService;
+    private final IDeviceRegistryService deviceRegistryService;
+    private final IAttendanceAggregateService attendanceAggregateService;
+    private final IPresenceService presenceService;
+    private final IPayrollSimulationService payrollSimulationService;
+    private final AttendanceMonthlyAggregateRepository attendanceMonthlyAggregateRepository;
+
+    @Qualifier("tenantJdbcTemplate")
+    private final JdbcTemplate tenantJdbcTemplate;
+
+    // Check-in: insert một lệnh, trùng (employee_id, work_date) → không có dòng trả về
+    private static final String INSERT_CHECK_IN_SQL = """
+            INSERT INTO attendance_records (employee_id, work_date, original_check_in, rounded_check_in,
+                late_minutes, status, check_in_device_id, check_in_latitude, check_in_longitude,
+                created_at, updated_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            ON CONFLICT (employee_id, work_date) DO NOTHING
+            RETURNING *
+            """;
+
+    private static final String ATTENDANCE_CURSOR_SCOPE = "attendance";
+
+    // Keyset: khớp index (work_date, id) của attendance_records
+    private static final Sort ATTENDANCE_KEYSET_SORT = Sort.by(Sort.Direction.DESC, "workDate", "id");
 
     // ==================== Check-in/Check-out ====================
 
@@ -80,12 +122,6 @@ public class AttendanceServiceImpl implements IAttendanceService {
         LocalDate today = LocalDate.now();
         LocalDateTime now = LocalDateTime.now();
 
-        // Kiểm tra đã check-in chưa
-        // AttendanceRecord không có soft delete
-        if (attendanceRecordRepository.existsByEmployeeIdAndWorkDate(employeeId, today)) {
-            throw new ConflictException("Đã check-in hôm nay", ErrorCode.ALREADY_CHECKED_IN);
-        }
-
         AttendanceConfig config = companySettingsService.getAttendanceConfig();
 
         // Validate device nếu yêu cầu
@@ -97,38 +133,37 @@ public class AttendanceServiceImpl implements IAttendanceService {
 
         // Validate location nếu yêu cầu
         if (Boolean.TRUE.equals(config.getRequireGeoLocation())) {
-            if (!validateLocation(request.getLatitude(), request.getLongitude())) {
+            if (!validateLocation(request.getLatitude(), request.getLongitude(), config)) {
                 throw new BadRequestException("Vị trí nằm ngoài khu vực cho phép", ErrorCode.OUTSIDE_GEOFENCE);
             }
         }
 
-        // Tạo bản ghi chấm công
-        AttendanceRecordEntity entity = new AttendanceRecordEntity();
-        entity.setEmployeeId(employeeId);
-        entity.setWorkDate(today);
-        entity.setOriginalCheckIn(now);
-        entity.setStatus(AttendanceStatus.PRESENT);
-
-        // Lưu device và location info
-        entity.setCheckInDeviceId(request.getDeviceId());
-        entity.setCheckInLatitude(request.getLatitude());
-        entity.setCheckInLongitude(request.getLongitude());
-
         // Áp dụng làm tròn nếu được bật
         LocalDateTime roundedCheckIn = now;
         if (Boolean.TRUE.equals(config.getEnableRounding()) && config.getCheckInRounding() != null) {
             roundedCheckIn = timeRoundingCalculator.roundTime(now, config.getCheckInRounding());
         }
-        entity.setRoundedCheckIn(roundedCheckIn);
 
         // Tính số phút đi muộn
+        int lateMinutes = 0;
         WorkScheduleResponse schedule = workScheduleService.getEffectiveSchedule(employeeId, today);
         if (schedule != null) {
-            int lateMinutes = calculateLateMinutes(roundedCheckIn, schedule, config);
-            entity.setLateMinutes(lateMinutes);
+            lateMinutes = attendanceRecordCalculator.calculateLateMinutes(roundedCheckIn, schedule, config);
         }
 
-        entity = attendanceRecordRepository.save(entity);
+        // Tạo bản ghi chấm công (kèm device và location info)
+        // Không kiểm tra trước: unique (employee_id, work_date) quyết định, double-tap không tạo 2 bản ghi
+        // AttendanceRecord không có soft delete
+        List<AttendanceRecordEntity> inserted = tenantJdbcTemplate.query(INSERT_CHECK_IN_SQL,
+                new BeanPropertyRowMapper<>(AttendanceRecordEntity.class),
+                employeeId, today, now, roundedCheckIn, lateMinutes, AttendanceStatus.PRESENT.name(),
+                request.getDeviceId(), request.getLatitude(), request.getLongitude(), now, now);
+        if (inserted.isEmpty()) {
+            throw new ConflictException("Đã check-in hôm nay", ErrorCode.ALREADY_CHECKED_IN);
+        }
+        AttendanceRecordEntity entity = inserted.get(0);
+        attendanceAggregateService.refresh(employeeId, today);
+        presenceService.refresh(employeeId, today);
         log.info("Nhân viên {} đã check-in lúc {}", employeeId, now);
 
         return attendanceMapper.toResponse(entity, getEmployeeName(employeeId));
@@ -164,7 +199,7 @@ public class AttendanceServiceImpl implements IAttendanceService {
 
         // Validate location nếu yêu cầu
         if (Boolean.TRUE.equals(config.getRequireGeoLocation())) {
-            if (!validateLocation(request.getLatitude(), request.getLongitude())) {
+            if (!validateLocation(request.getLatitude(), request.getLongitude(), config)) {
                 throw new BadRequestException("Vị trí nằm ngoài khu vực cho phép", ErrorCode.OUTSIDE_GEOFENCE);
             }
         }
@@ -189,6 +224,8 @@ public class AttendanceServiceImpl implements IAttendanceService {
         }
 
         entity = attendanceRecordRepository.save(entity);
+        attendanceAggregateService.refresh(employeeId, today);
+        presenceService.refresh(employeeId, today);
         log.info("Nhân viên {} đã check-out lúc {}", employeeId, now);
 
         return attendanceMapper.toResponse(entity, getEmployeeName(employeeId));
@@ -248,7 +285,7 @@ public class AttendanceServiceImpl implements IAttendanceService {
         if (schedule != null) {
             // Tính lại late minutes
             if (entity.getRoundedCheckIn() != null) {
-                int lateMinutes = calculateLateMinutes(entity.getRoundedCheckIn(), schedule, config);
+                int lateMinutes = attendanceRecordCalculator.calculateLateMinutes(entity.getRoundedCheckIn(), schedule, config);
                 entity.setLateMinutes(lateMinutes);
             }
             // Tính lại working hours và early leave
@@ -263,6 +300,10 @@ public class AttendanceServiceImpl implements IAttendanceService {
         entity.setAdjustedAt(LocalDateTime.now());
 
         entity = attendanceRecordRepository.save(entity);
+        attendanceAggregateService.refresh(entity.getEmployeeId(), entity.getWorkDate());
+        presenceService.refresh(entity.getEmployeeId(), entity.getWorkDate());
+        // Mô phỏng lương của kỳ không còn dùng dữ liệu chấm công cũ
+        payrollSimulationService.evictDataset(YearMonth.from(entity.getWorkDate()));
         log.info("Bản ghi chấm công {} đã được điều chỉnh bởi {}", recordId, adjustedBy);
 
         return attendanceMapper.toResponse(entity, getEmployeeName(entity.getEmployeeId()));
@@ -379,10 +420,40 @@ public class AttendanceServiceImpl implements IAttendanceService {
     @Transactional(readOnly = true)
     public Page<AttendanceRecordResponse> getAttendanceRecords(
             AttendanceQueryRequest request, Pageable pageable) {
-        // Mặc định lấy tháng hiện tại nếu không có date filter
+        DateRange range = resolveDateRange(request);
+        return attendanceRecordRepository.findByWorkDateBetween(range.start(), range.end(), pageable)
+                .map(entity -> attendanceMapper.toResponse(entity, getEmployeeName(entity.getEmployeeId())));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<AttendanceRecordResponse> scrollAttendanceRecords(
+            AttendanceQueryRequest request, String cursor, int size, boolean includeTotal) {
+        Specification<AttendanceRecordEntity> spec = buildAttendanceSpec(resolveDateRange(request), request);
+        CursorCodec.Key key = CursorCodec.decode(ATTENDANCE_CURSOR_SCOPE, cursor);
+        ScrollPosition position = key == null
+                ? ScrollPosition.keyset()
+                : ScrollPosition.forward(Map.of("workDate", key.dateValue(), "id", key.id()));
+
+        // AttendanceRecord không có soft delete
+        Window<AttendanceRecordEntity> window = attendanceRecordRepository.findBy(spec,
+                query -> query.sortBy(ATTENDANCE_KEYSET_SORT).limit(CursorPage.clampSize(size)).scroll(position));
+        Long total = includeTotal ? attendanceRecordRepository.count(spec) : null;
+
+        return CursorPage.of(window,
+                entity -> CursorCodec.encode(ATTENDANCE_CURSOR_SCOPE, entity.getWorkDate(), entity.getId()),
+                this::toResponsesWithNames, total);
+    }
+
+    private record DateRange(LocalDate start, LocalDate end) {
+    }
+
+    /**
+     * Khoảng ngày lọc: mặc định tháng hiện tại nếu không có date filter, thiếu một đầu thì lấy theo tháng
+     */
+    private static DateRange resolveDateRange(AttendanceQueryRequest request) {
         LocalDate startDate = request.getStartDate();
         LocalDate endDate = request.getEndDate();
-
         if (startDate == null && endDate == null) {
             YearMonth currentMonth = YearMonth.now();
             startDate = currentMonth.atDay(1);
@@ -392,9 +463,36 @@ public class AttendanceServiceImpl implements IAttendanceService {
         } else if (endDate == null) {
             endDate = YearMonth.from(startDate).atEndOfMonth();
         }
+        return new DateRange(startDate, endDate);
+    }
 
-        return attendanceRecordRepository.findByWorkDateBetween(startDate, endDate, pageable)
-                .map(entity -> attendanceMapper.toResponse(entity, getEmployeeName(entity.getEmployeeId())));
+    private Specification<AttendanceRecordEntity> buildAttendanceSpec(DateRange range, AttendanceQueryRequest request) {
+        return (root, criteriaQuery, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            predicates.add(cb.between(root.get("workDate"), range.start(), range.end()));
+            if (request.getEmployeeId() != null) {
+                predicates.add(cb.equal(root.get("employeeId"), request.getEmployeeId()));
+            }
+            if (request.getStatus() != null) {
+                predicates.add(cb.equal(root.get("status"), request.getStatus()));
+            }
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
+    /**
+     * Map danh sách bản ghi sang response, lấy tên nhân viên một lần cho cả trang
+     */
+    private List<AttendanceRecordResponse> toResponsesWithNames(List<AttendanceRecordEntity> entities) {
+        List<Long> employeeIds = entities.stream().map(AttendanceRecordEntity::getEmployeeId).distinct().toList();
+        Map<Long, String> names = new HashMap<>();
+        for (UserEntity user : userRepository.findAllById(employeeIds)) {
+            names.put(user.getId(), user.getProfile() != null ? user.getProfile().getName() : user.getEmail());
+        }
+        return entities.stream()
+                .map(entity -> attendanceMapper.toResponse(entity,
+                        names.getOrDefault(entity.getEmployeeId(), "Unknown")))
+                .toList();
     }
 
     @Override
@@ -425,13 +523,17 @@ public class AttendanceServiceImpl implements IAttendanceService {
     @Override
     @Transactional(readOnly = true)
     public AttendanceSummaryResponse getAttendanceSummary(Long employeeId, YearMonth period) {
-        LocalDate startDate = period.atDay(1);
-        LocalDate endDate = period.atEndOfMonth();
+        String employeeName = getEmployeeName(employeeId);
 
-        List<AttendanceRecordEntity> records = attendanceRecordRepository
-                .findByEmployeeIdAndWorkDateBetween(employeeId, startDate, endDate);
+        // Đọc một dòng tổng hợp; tháng chưa được tổng hợp (chưa backfill) thì quét bản ghi ngày
+        Optional<AttendanceMonthlyAggregateEntity> aggregate = attendanceMonthlyAggregateRepository
+                .findByEmployeeIdAndYearAndMonth(employeeId, period.getYear(), period.getMonthValue());
+        if (aggregate.isPresent()) {
+            return attendanceMapper.toSummaryResponse(employeeId, employeeName, period, aggregate.get());
+        }
 
-        String employeeName = getEmployeeName(employeeId);
+        List<AttendanceRecordEntity> records = attendanceRecordRepository
+                .findByEmployeeIdAndWorkDateBetween(employeeId, period.atDay(1), period.atEndOfMonth());
         return attendanceMapper.toSummaryResponse(employeeId, employeeName, period, records);
     }
 
@@ -440,18 +542,23 @@ public class AttendanceServiceImpl implements IAttendanceService {
     @Override
     public boolean validateDevice(String deviceId) {
         // Validate device ID không rỗng
-        // Trong tương lai có thể mở rộng để kiểm tra device đã đăng ký trong bảng
-        // registered_devices
         if (deviceId == null || deviceId.isBlank()) {
             return false;
         }
 
-        // Device ID hợp lệ nếu có độ dài tối thiểu (UUID hoặc device fingerprint)
-        return deviceId.length() >= 8;
+        // Kiểm tra trên tập thiết bị đã cache, không truy vấn DB trên luồng chấm công
+        DeviceMembership membership = deviceRegistryService.getDeviceMembership();
+        if (membership.isEmpty()) {
+            // Công ty chưa từng đăng ký thiết bị nào: device ID hợp lệ nếu có độ dài tối thiểu
+            // (UUID hoặc device fingerprint)
+            // Đã đăng ký nhưng mọi thiết bị đều bị thu hồi: từ chối
+            return !membership.isEverRegistered() && deviceId.length() >= 8;
+        }
+        return membership.contains(deviceId);
     }
 
     @Override
-    public boolean validateLocation(Double latitude, Double longitude) {
+    public boolean validateLocation(Double latitude, Double longitude, AttendanceConfig config) {
         if (latitude == null || longitude == null) {
             return false;
         }
@@ -461,12 +568,15 @@ public class AttendanceServiceImpl implements IAttendanceService {
             return false;
         }
 
-        // Geo-fence validation: Kiểm tra vị trí nằm trong bán kính cho phép của công ty
-        // Hiện tại chấp nhận tất cả vị trí hợp lệ vì chưa có latitude/longitude trong
-        // CompanyEntity
-        // Khi mở rộng: lấy company location từ DB và tính khoảng cách bằng Haversine
-        // formula
-        return true;
+        // Geo-fence validation: vị trí phải nằm trong một địa điểm làm việc đang hoạt động
+        // Tra cứu qua chỉ mục grid cache theo tenant, không truy vấn DB mỗi lần chấm công
+        // Công ty chưa đăng ký địa điểm nào: chấp nhận mọi vị trí hợp lệ như trước
+        // Có địa điểm nhưng không địa điểm nào hoạt động: từ chối
+        GeoFenceIndex index = workSiteService.getGeoFenceIndex(config.getGeoFenceRadiusMeters());
+        if (index.isEmpty()) {
+            return !index.hasSitesConfigured();
+        }
+        return index.findSiteId(latitude, longitude) != null;
     }
 
     // ==================== Private Helper Methods ====================
@@ -490,221 +600,21 @@ public class AttendanceServiceImpl implements IAttendanceService {
                 .orElse("Unknown");
     }
 
-    /**
-     * Tính số phút đi muộn
-     */
-    private int calculateLateMinutes(LocalDateTime checkInTime, WorkScheduleResponse schedule,
-            AttendanceConfig config) {
-        LocalTime scheduleStartTime = getScheduleStartTime(schedule, checkInTime.toLocalDate());
-        if (scheduleStartTime == null) {
-            return 0;
-        }
-
-        // Thêm grace period
-        int graceMinutes = config.getLateGraceMinutes() != null ? config.getLateGraceMinutes() : 0;
-        LocalTime graceEndTime = scheduleStartTime.plusMinutes(graceMinutes);
-
-        LocalTime checkInLocalTime = checkInTime.toLocalTime();
-        if (checkInLocalTime.isAfter(graceEndTime)) {
-            return (int) ChronoUnit.MINUTES.between(scheduleStartTime, checkInLocalTime);
-        }
-
-        return 0;
-    }
-
     /**
      * Tính toán giờ làm việc, tăng ca, và về sớm
      * Tích hợp break calculation theo break policy
      */
     private void calculateWorkingHours(AttendanceRecordEntity entity, WorkScheduleResponse schedule,
             AttendanceConfig config) {
-        LocalDateTime checkIn = entity.getRoundedCheckIn();
-        LocalDateTime checkOut = entity.getRoundedCheckOut();
-
-        if (checkIn == null || checkOut == null) {
-            return;
-        }
-
-        // Lấy break config
         BreakConfig breakConfig = companySettingsService.getBreakConfig();
 
-        // Tính tổng số phút làm việc (gross)
-        long totalMinutes = ChronoUnit.MINUTES.between(checkIn, checkOut);
-        if (totalMinutes < 0) {
-            totalMinutes = 0;
-        }
-
-        // Tính break minutes
-        int actualBreakMinutes = 0;
-        int effectiveBreakMinutes = 0;
-        boolean isNightShift = false;
-        int workingHours = (int) (totalMinutes / 60);
-
-        if (breakConfig != null && Boolean.TRUE.equals(breakConfig.getBreakEnabled())) {
-            // Lấy break records nếu có tracking
-            // BreakRecord không có soft delete
-            List<BreakRecordEntity> breakRecords = breakRecordRepository
-                    .findByAttendanceRecordId(entity.getId());
-
-            if (Boolean.TRUE.equals(breakConfig.getBreakTrackingEnabled()) && !breakRecords.isEmpty()) {
-                // Sử dụng actual break từ records
-                actualBreakMinutes = breakCalculator.calculateTotalBreakMinutes(breakRecords);
-            } else {
-                // Sử dụng default break từ schedule hoặc config
-                actualBreakMinutes = getBreakMinutes(schedule, entity.getWorkDate());
-            }
-
-            // Kiểm tra night shift
-            LocalTime shiftStart = getScheduleStartTime(schedule, entity.getWorkDate());
-            LocalTime shiftEnd = getScheduleEndTime(schedule, entity.getWorkDate());
-            isNightShift = breakCalculator.isNightShift(shiftStart, shiftEnd, breakConfig);
-
-            // Tính effective break (với min/max capping)
-            effectiveBreakMinutes = breakCalculator.calculateEffectiveBreakMinutes(
-                    actualBreakMinutes, breakConfig, workingHours, isNightShift);
-
-            // Lưu break info vào entity
-            entity.setTotalBreakMinutes(actualBreakMinutes);
-            entity.setEffectiveBreakMinutes(effectiveBreakMinutes);
-            entity.setBreakType(breakConfig.getBreakType());
-
-            // Kiểm tra break compliance
-            String locale = breakConfig.getLocale() != null ? breakConfig.getLocale() : "ja";
-            int legalMinimum = breakCalculator.getLegalMinimumBreak(locale, workingHours, isNightShift);
-            entity.setBreakCompliant(actualBreakMinutes >= legalMinimum);
-        } else {
-            // Không có break config hoặc break không được bật - sử dụng default
-            actualBreakMinutes = getBreakMinutes(schedule, entity.getWorkDate());
-            effectiveBreakMinutes = actualBreakMinutes;
-            entity.setTotalBreakMinutes(actualBreakMinutes);
-            entity.setEffectiveBreakMinutes(effectiveBreakMinutes);
-            entity.setBreakCompliant(true);
-        }
-
-        // Tính net working minutes (sau khi trừ break nếu unpaid)
-        int netWorkingMinutes;
-        if (breakConfig != null) {
-            netWorkingMinutes = breakCalculator.calculateNetWorkingMinutes(
-                    (int) totalMinutes, effectiveBreakMinutes, breakConfig);
-        } else {
-            // Không có break config - trừ break mặc định
-            netWorkingMinutes = (int) totalMinutes - effectiveBreakMinutes;
-            if (netWorkingMinutes < 0)
-                netWorkingMinutes = 0;
-        }
-        entity.setWorkingMinutes(netWorkingMinutes);
-
-        // Tính số phút về sớm
-        LocalTime scheduleEndTime = getScheduleEndTime(schedule, entity.getWorkDate());
-        if (scheduleEndTime != null && config != null) {
-            int graceMinutes = config.getEarlyLeaveGraceMinutes() != null ? config.getEarlyLeaveGraceMinutes() : 0;
-            LocalTime graceStartTime = scheduleEndTime.minusMinutes(graceMinutes);
-
-            LocalTime checkOutLocalTime = checkOut.toLocalTime();
-            if (checkOutLocalTime.isBefore(graceStartTime)) {
-                int earlyMinutes = (int) ChronoUnit.MINUTES.between(checkOutLocalTime, scheduleEndTime);
-                entity.setEarlyLeaveMinutes(earlyMinutes);
-            } else {
-                entity.setEarlyLeaveMinutes(0);
-            }
-        } else {
-            entity.setEarlyLeaveMinutes(0);
-        }
-
-        // Tính số phút tăng ca (làm việc vượt quá giờ chuẩn)
-        int standardMinutes = getStandardWorkingMinutes(schedule, entity.getWorkDate());
-        if (netWorkingMinutes > standardMinutes) {
-            entity.setOvertimeMinutes(netWorkingMinutes - standardMinutes);
-        } else {
-            entity.setOvertimeMinutes(0);
-        }
-    }
-
-    /**
-     * Lấy giờ bắt đầu làm việc từ schedule
-     */
-    private LocalTime getScheduleStartTime(WorkScheduleResponse schedule, LocalDate date) {
-        if (schedule == null || schedule.getScheduleData() == null) {
-            return LocalTime.of(9, 0); // Default
-        }
-
-        WorkScheduleData data = schedule.getScheduleData();
-
-        if (schedule.getType() == ScheduleType.FIXED) {
-            return data.getDefaultStartTime() != null ? data.getDefaultStartTime() : LocalTime.of(9, 0);
-        }
-
-        if (schedule.getType() == ScheduleType.FLEXIBLE && data.getDailySchedules() != null) {
-            String dayKey = date.getDayOfWeek().name();
-            WorkScheduleData.DailySchedule daily = data.getDailySchedules().get(dayKey);
-            if (daily != null && daily.getStartTime() != null) {
-                return daily.getStartTime();
-            }
-        }
-
-        return data.getDefaultStartTime() != null ? data.getDefaultStartTime() : LocalTime.of(9, 0);
-    }
-
-    /**
-     * Lấy giờ kết thúc làm việc từ schedule
-     */
-    private LocalTime getScheduleEndTime(WorkScheduleResponse schedule, LocalDate date) {
-        if (schedule == null || schedule.getScheduleData() == null) {
-            return LocalTime.of(18, 0); // Default
-        }
-
-        WorkScheduleData data = schedule.getScheduleData();
-
-        if (schedule.getType() == ScheduleType.FIXED) {
-            return data.getDefaultEndTime() != null ? data.getDefaultEndTime() : LocalTime.of(18, 0);
-        }
-
-        if (schedule.getType() == ScheduleType.FLEXIBLE && data.getDailySchedules() != null) {
-            String dayKey = date.getDayOfWeek().name();
-            WorkScheduleData.DailySchedule daily = data.getDailySchedules().get(dayKey);
-            if (daily != null && daily.getEndTime() != null) {
-                return daily.getEndTime();
-            }
-        }
-
-        return data.getDefaultEndTime() != null ? data.getDefaultEndTime() : LocalTime.of(18, 0);
-    }
-
-    /**
-     * Lấy số phút nghỉ từ schedule
-     */
-    private int getBreakMinutes(WorkScheduleResponse schedule, LocalDate date) {
-        if (schedule == null || schedule.getScheduleData() == null) {
-            return 60; // Default 1 hour
-        }
-
-        WorkScheduleData data = schedule.getScheduleData();
-
-        if (schedule.getType() == ScheduleType.FLEXIBLE && data.getDailySchedules() != null) {
-            String dayKey = date.getDayOfWeek().name();
-            WorkScheduleData.DailySchedule daily = data.getDailySchedules().get(dayKey);
-            if (daily != null && daily.getBreakMinutes() != null) {
-                return daily.getBreakMinutes();
-            }
-        }
-
-        return data.getDefaultBreakMinutes() != null ? data.getDefaultBreakMinutes() : 60;
-    }
-
-    /**
-     * Lấy số phút làm việc chuẩn trong ngày
-     */
-    private int getStandardWorkingMinutes(WorkScheduleResponse schedule, LocalDate date) {
-        LocalTime startTime = getScheduleStartTime(schedule, date);
-        LocalTime endTime = getScheduleEndTime(schedule, date);
-        int breakMinutes = getBreakMinutes(schedule, date);
-
-        if (startTime != null && endTime != null) {
-            int totalMinutes = (int) ChronoUnit.MINUTES.between(startTime, endTime);
-            return Math.max(0, totalMinutes - breakMinutes);
-        }
+        // Chỉ cần break records khi break được bật
+        // BreakRecord không có soft delete
+        List<BreakRecordEntity> breakRecords = breakConfig != null && Boolean.TRUE.equals(breakConfig.getBreakEnabled())
+                ? breakRecordRepository.findByAttendanceRecordId(entity.getId())
+                : List.of();
 
-        return 8 * 60; // Default 8 hours
+        attendanceRecordCalculator.calculateWorkingHours(entity, breakRecords, schedule, config, breakConfig);
     }
 
     // ==================== Break Management ====================
@@ -758,34 +668,27 @@ public class AttendanceServiceImpl implements IAttendanceService {
                     ErrorCode.BREAK_ALREADY_ACTIVE);
         }
 
-        // Kiểm tra số lần break trong ngày
-        // BreakRecord không có soft delete
-        long breakCount = breakRecordRepository.countByAttendanceRecordId(attendance.getId());
-
         Integer maxBreaks = breakConfig.getMaxBreaksPerDay() != null
                 ? breakConfig.getMaxBreaksPerDay()
                 : 3;
 
-        if (breakCount >= maxBreaks) {
+        // Tạo break record mới: kiểm tra số lần break và lấy break number tiếp theo trong cùng lệnh insert
+        // BreakRecord không có soft delete
+        Optional<BreakRecordEntity> inserted = breakRecordRepository.insertNextBreak(
+                attendance.getId(), employeeId, today, now, request != null ? request.getNotes() : null, maxBreaks);
+        if (inserted.isEmpty()) {
+            // Không insert được: hoặc request đồng thời vừa tạo break (trùng break number), hoặc đã đủ số lần
+            if (breakRecordRepository.findActiveBreakByEmployeeIdAndWorkDate(employeeId, today).isPresent()) {
+                throw new ConflictException(
+                        "There is already an active break",
+                        ErrorCode.BREAK_ALREADY_ACTIVE);
+            }
             throw new BadRequestException(
                     String.format("Maximum breaks per day (%d) reached", maxBreaks),
                     ErrorCode.MAX_BREAKS_REACHED);
         }
-
-        // Lấy break number tiếp theo
-        Integer maxBreakNumber = breakRecordRepository.findMaxBreakNumberByAttendanceRecordId(attendance.getId());
-        int nextBreakNumber = (maxBreakNumber != null ? maxBreakNumber : 0) + 1;
-
-        // Tạo break record mới
-        BreakRecordEntity breakRecord = new BreakRecordEntity();
-        breakRecord.setAttendanceRecordId(attendance.getId());
-        breakRecord.setEmployeeId(employeeId);
-        breakRecord.setWorkDate(today);
-        breakRecord.setBreakNumber(nextBreakNumber);
-        breakRecord.setBreakStart(now);
-        breakRecord.setNotes(request != null ? request.getNotes() : null);
-
-        breakRecordRepository.save(breakRecord);
+        int nextBreakNumber = inserted.get().getBreakNumber();
+        presenceService.refresh(employeeId, today);
 
         log.info("Break started for employee: {} at {}, break number: {}", employeeId, now, nextBreakNumber);
 
@@ -871,6 +774,8 @@ public class AttendanceServiceImpl implements IAttendanceService {
         // Cập nhật tổng break minutes trong attendance
         updateTotalBreakMinutes(attendance);
         attendanceRecordRepository.save(attendance);
+        attendanceAggregateService.refresh(attendance.getEmployeeId(), attendance.getWorkDate());
+        presenceService.refresh(attendance.getEmployeeId(), attendance.getWorkDate());
 
         return buildFullResponse(attendance);
     }
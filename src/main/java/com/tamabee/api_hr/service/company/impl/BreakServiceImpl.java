@@ -15,8 +15,10 @@ import com.tamabee.api_hr.repository.attendance.BreakRecordRepository;
 import com.tamabee.api_hr.repository.user.UserRepository;
 import com.tamabee.api_hr.service.calculator.interfaces.IBreakCalculator;
 import com.tamabee.api_hr.service.calculator.LegalBreakRequirements;
+import com.tamabee.api_hr.service.company.interfaces.IAttendanceAggregateService;
 import com.tamabee.api_hr.service.company.interfaces.IBreakService;
 import com.tamabee.api_hr.service.company.interfaces.ICompanySettingsService;
+import com.tamabee.api_hr.service.company.interfaces.IPresenceService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -44,6 +46,8 @@ public class BreakServiceImpl implements IBreakService {
     private final ICompanySettingsService companySettingsService;
     private final IBreakCalculator breakCalculator;
     private final LegalBreakRequirements legalBreakRequirements;
+    private final IAttendanceAggregateService attendanceAggregateService;
+    private final IPresenceService presenceService;
 
     // ==================== Break Recording ====================
 
@@ -92,34 +96,27 @@ public class BreakServiceImpl implements IBreakService {
             throw new BadRequestException("Đã có giờ giải lao đang diễn ra", ErrorCode.BREAK_ALREADY_ACTIVE);
         }
 
-        // Kiểm tra số lần break đã đạt giới hạn chưa
+        // Kiểm tra break mới không overlap với các completed breaks
+        validateNoOverlappingBreaks(attendance.getId(), now);
+
+        // Tạo bản ghi break mới: giới hạn số lần break và breakNumber = max + 1 tính trong cùng lệnh insert
         // BreakRecord không có soft delete
         int maxBreaksPerDay = config.getMaxBreaksPerDay() != null
                 ? config.getMaxBreaksPerDay()
                 : 3;
-        long currentBreakCount = breakRecordRepository.countByAttendanceRecordId(attendance.getId());
-        if (currentBreakCount >= maxBreaksPerDay) {
+        Optional<BreakRecordEntity> inserted = breakRecordRepository.insertNextBreak(
+                attendance.getId(), employeeId, today, now, request != null ? request.getNotes() : null,
+                maxBreaksPerDay);
+        if (inserted.isEmpty()) {
+            // Không insert được: hoặc request đồng thời vừa tạo break (trùng breakNumber), hoặc đã đủ số lần
+            if (breakRecordRepository.findActiveBreakByEmployeeIdAndWorkDate(employeeId, today).isPresent()) {
+                throw new BadRequestException("Đã có giờ giải lao đang diễn ra", ErrorCode.BREAK_ALREADY_ACTIVE);
+            }
             throw new BadRequestException("Đã đạt số lần giải lao tối đa trong ngày", ErrorCode.MAX_BREAKS_REACHED);
         }
-
-        // Kiểm tra break mới không overlap với các completed breaks
-        validateNoOverlappingBreaks(attendance.getId(), now);
-
-        // Lấy breakNumber tiếp theo = max + 1
-        Integer maxBreakNumber = breakRecordRepository.findMaxBreakNumberByAttendanceRecordId(attendance.getId());
-        int nextBreakNumber = (maxBreakNumber != null ? maxBreakNumber : 0) + 1;
-
-        // Tạo bản ghi break mới
-        BreakRecordEntity breakRecord = new BreakRecordEntity();
-        breakRecord.setAttendanceRecordId(attendance.getId());
-        breakRecord.setEmployeeId(employeeId);
-        breakRecord.setWorkDate(today);
-        breakRecord.setBreakStart(now);
-        breakRecord.setBreakNumber(nextBreakNumber);
-        breakRecord.setNotes(request != null ? request.getNotes() : null);
-
-        breakRecord = breakRecordRepository.save(breakRecord);
-        log.info("Nhân viên {} bắt đầu giải lao #{} lúc {}", employeeId, nextBreakNumber, now);
+        BreakRecordEntity breakRecord = inserted.get();
+        presenceService.refresh(employeeId, today);
+        log.info("Nhân viên {} bắt đầu giải lao #{} lúc {}", employeeId, breakRecord.getBreakNumber(), now);
 
         return toResponse(breakRecord);
     }
@@ -493,6 +490,8 @@ public class BreakServiceImpl implements IBreakService {
         attendance.setBreakCompliant(effectiveBreak >= minimumRequired);
 
         attendanceRecordRepository.save(attendance);
+        attendanceAggregateService.refresh(attendance.getEmployeeId(), attendance.getWorkDate());
+        presenceService.refresh(attendance.getEmployeeId(), attendance.getWorkDate());
     }
 
     /**
@@ -0,0 +1,312 @@
+package com.tamabee.api_hr.service.company.impl;
+
+import com.tamabee.api_hr.datasource.TenantContext;
+import com.tamabee.api_hr.dto.request.attendance.CheckInRequest;
+import com.tamabee.api_hr.dto.request.attendance.PunchEventRequest;
+import com.tamabee.api_hr.dto.response.attendance.AttendanceRecordResponse;
+import com.tamabee.api_hr.dto.result.PunchOutcome;
+import com.tamabee.api_hr.entity.attendance.AttendanceRecordEntity;
+import com.tamabee.api_hr.enums.ErrorCode;
+import com.tamabee.api_hr.enums.PunchType;
+import com.tamabee.api_hr.exception.BadRequestException;
+import com.tamabee.api_hr.exception.ConflictException;
+import com.tamabee.api_hr.exception.InternalServerException;
+import com.tamabee.api_hr.exception.NotFoundException;
+import com.tamabee.api_hr.mapper.company.AttendanceMapper;
+import com.tamabee.api_hr.repository.attendance.AttendanceRecordRepository;
+import com.tamabee.api_hr.repository.user.UserRepository;
+import com.tamabee.api_hr.service.company.interfaces.ICheckInGroupCommitService;
+import com.tamabee.api_hr.service.company.interfaces.IPunchIngestionService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Service implementation check-in theo chế độ group commit cho giờ cao điểm đầu ca.
+ *
+ * Mỗi tenant có một hàng đợi trong bộ nhớ. Check-in được đưa vào hàng đợi, sau flush-interval-ms
+ * (hoặc ngay khi hàng đợi đủ max-batch-size) toàn bộ check-in đang chờ (tối đa max-batch-size) được ghi trong một transaction qua
+ * {@link IPunchIngestionService#ingestEvents}: một lần đọc, một lần claim và JDBC batch insert thay vì
+ * exists + lookup + insert riêng cho từng nhân viên. Mỗi tenant chỉ có một lượt flush chạy tại một thời điểm;
+ * check-in đến trong lúc flush được gom vào lượt kế tiếp.
+ *
+ * Độ bền: flush trước khi ack. Request chỉ nhận response thành công sau khi transaction chứa check-in
+ * đã commit, nên response thành công có cùng độ bền với check-in trực tiếp; hàng đợi chỉ giữ check-in
+ * chưa được xác nhận. Nếu tiến trình dừng đột ngột, các check-in đang chờ bị mất cùng với request
+ * của chúng (client nhận lỗi kết nối và gửi lại). Khi tắt ứng dụng bình thường, hàng đợi được flush hết.
+ * Hết ack-timeout-ms mà chưa commit thì trả lỗi; check-in đó vẫn có thể được ghi sau, gửi lại sẽ nhận
+ * ALREADY_CHECKED_IN.
+ *
+ * Nếu cả batch lỗi (lỗi DB), transaction rollback và mọi check-in trong batch nhận lỗi; check-in không hợp lệ
+ * (đã check-in, sai thiết bị...) chỉ bị từ chối riêng lẻ.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CheckInGroupCommitServiceImpl implements ICheckInGroupCommitService {
+
+    private final IPunchIngestionService punchIngestionService;
+    private final AttendanceRecordRepository attendanceRecordRepository;
+    private final UserRepository userRepository;
+    private final AttendanceMapper attendanceMapper;
+
+    @Value("${attendance.check-in.group-commit.enabled:false}")
+    private boolean enabled;
+
+    @Value("${attendance.check-in.group-commit.flush-interval-ms:5}")
+    private long flushIntervalMs;
+
+    @Value("${attendance.check-in.group-commit.max-batch-size:500}")
+    private int maxBatchSize;
+
+    @Value("${attendance.check-in.group-commit.ack-timeout-ms:10000}")
+    private long ackTimeoutMs;
+
+    @Value("${attendance.check-in.group-commit.flush-threads:4}")
+    private int flushThreads;
+
+    private final Map<String, TenantQueue> queues = new ConcurrentHashMap<>();
+    private volatile boolean stopping;
+    private ScheduledExecutorService flushExecutor;
+
+    /**
+     * Check-in đang chờ commit
+     */
+    private record PendingCheckIn(PunchEventRequest event, CompletableFuture<Long> recordId) {
+    }
+
+    /**
+     * Hàng đợi của một tenant
+     */
+    private static final class TenantQueue {
+        private final String tenantDomain;
+        private final LinkedBlockingQueue<PendingCheckIn> pending = new LinkedBlockingQueue<>();
+        // Đã có lượt flush được lên lịch hoặc đang chạy
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        // Mỗi tenant chỉ có một lượt ghi tại một thời điểm (flush theo timer hoặc khi hàng đợi đầy)
+        private final ReentrantLock flushLock = new ReentrantLock();
+
+        private TenantQueue(String tenantDomain) {
+            this.tenantDomain = tenantDomain;
+        }
+    }
+
+    @PostConstruct
+    void start() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(Math.max(1, flushThreads), runnable -> {
+            Thread thread = new Thread(runnable, "check-in-group-commit-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        // Lượt flush chưa đến hạn không giữ việc tắt ứng dụng: stop() tự flush phần còn lại
+        executor.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+        flushExecutor = executor;
+    }
+
+    @PreDestroy
+    void stop() {
+        stopping = true;
+        flushExecutor.shutdown();
+        try {
+            flushExecutor.awaitTermination(ackTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // Check-in đến sau lượt flush cuối được commit trên thread tắt ứng dụng
+        for (TenantQueue queue : queues.values()) {
+            while (!queue.pending.isEmpty()) {
+                flushBatch(queue);
+            }
+        }
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public AttendanceRecordResponse checkIn(Long employeeId, CheckInRequest request) {
+        String tenantDomain = TenantContext.getCurrentTenant();
+        if (tenantDomain == null) {
+            throw new BadRequestException("Không xác định được tenant", ErrorCode.INVALID_TENANT_DOMAIN);
+        }
+        if (stopping) {
+            throw new InternalServerException("Hệ thống đang tắt, vui lòng thử lại", ErrorCode.INTERNAL_SERVER_ERROR);
+        }
+
+        PunchEventRequest event = PunchEventRequest.builder()
+                .idempotencyKey("check-in:" + UUID.randomUUID())
+                .employeeId(employeeId)
+                .punchType(PunchType.CHECK_IN)
+                .punchedAt(LocalDateTime.now())
+                .deviceId(request.getDeviceId())
+                .latitude(request.getLatitude())
+                .longitude(request.getLongitude())
+                .build();
+        PendingCheckIn pending = new PendingCheckIn(event, new CompletableFuture<>());
+
+        TenantQueue queue = queues.computeIfAbsent(tenantDomain, TenantQueue::new);
+        queue.pending.add(pending);
+        if (queue.pending.size() >= maxBatchSize) {
+            flushNow(queue);
+        } else {
+            schedule(queue, flushIntervalMs);
+        }
+
+        Long recordId = awaitCommit(pending);
+        AttendanceRecordEntity entity = attendanceRecordRepository.findById(recordId)
+                .orElseThrow(() -> new NotFoundException(
+                        "Không tìm thấy bản ghi chấm công", ErrorCode.ATTENDANCE_RECORD_NOT_FOUND));
+        return attendanceMapper.toResponse(entity, getEmployeeName(employeeId));
+    }
+
+    // ==================== Flush ====================
+
+    private void schedule(TenantQueue queue, long delayMs) {
+        if (stopping || !queue.scheduled.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            flushExecutor.schedule(() -> flush(queue), delayMs, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            // Đang tắt: stop() sẽ flush phần còn lại
+            queue.scheduled.set(false);
+        }
+    }
+
+    /**
+     * Hàng đợi đã đủ một batch: ghi ngay thay vì chờ hết flush-interval-ms
+     */
+    private void flushNow(TenantQueue queue) {
+        if (stopping) {
+            return;
+        }
+        try {
+            flushExecutor.execute(() -> flushFull(queue));
+        } catch (RejectedExecutionException e) {
+            // Đang tắt: stop() sẽ flush phần còn lại
+        }
+    }
+
+    private void flushFull(TenantQueue queue) {
+        // Lượt khác đang ghi: nó kiểm tra lại hàng đợi sau khi xong
+        if (!queue.flushLock.tryLock()) {
+            return;
+        }
+        try {
+            while (queue.pending.size() >= maxBatchSize) {
+                flushBatch(queue);
+            }
+        } finally {
+            queue.flushLock.unlock();
+        }
+        // Check-in đến trong lúc ghi (lượt của chúng không lấy được lock)
+        if (queue.pending.size() >= maxBatchSize) {
+            flushNow(queue);
+        }
+    }
+
+    private void flush(TenantQueue queue) {
+        queue.flushLock.lock();
+        try {
+            flushBatch(queue);
+        } finally {
+            queue.flushLock.unlock();
+            queue.scheduled.set(false);
+            // Check-in đến trong lúc commit: flush ngay, không chờ thêm
+            if (!queue.pending.isEmpty()) {
+                schedule(queue, 0);
+            }
+        }
+    }
+
+    /**
+     * Commit một batch check-in của tenant trong một transaction và trả kết quả cho từng request
+     */
+    private void flushBatch(TenantQueue queue) {
+        List<PendingCheckIn> batch = new ArrayList<>(Math.min(queue.pending.size(), maxBatchSize));
+        queue.pending.drainTo(batch, maxBatchSize);
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        List<PunchEventRequest> events = batch.stream().map(PendingCheckIn::event).toList();
+        TenantContext.setCurrentTenant(queue.tenantDomain);
+        try {
+            Map<String, PunchOutcome> outcomes = punchIngestionService.ingestEvents(events);
+            for (PendingCheckIn pending : batch) {
+                PunchOutcome outcome = outcomes.get(pending.event().getIdempotencyKey());
+                if (outcome.getAttendanceRecordId() != null) {
+                    pending.recordId().complete(outcome.getAttendanceRecordId());
+                } else {
+                    // Khóa sinh ngẫu nhiên nên không trùng; không có lỗi thì coi như đã check-in
+                    ErrorCode error = outcome.getError() != null ? outcome.getError() : ErrorCode.ALREADY_CHECKED_IN;
+                    pending.recordId().completeExceptionally(toException(error));
+                }
+            }
+        } catch (RuntimeException e) {
+            log.error("Group commit check-in thất bại cho tenant {} ({} check-in)",
+                    queue.tenantDomain, batch.size(), e);
+            InternalServerException failure = new InternalServerException("Không thể ghi nhận check-in", e);
+            batch.forEach(pending -> pending.recordId().completeExceptionally(failure));
+        } finally {
+            TenantContext.clear();
+        }
+    }
+
+    private Long awaitCommit(PendingCheckIn pending) {
+        try {
+            return pending.recordId().get(ackTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new InternalServerException("Không thể ghi nhận check-in", e.getCause());
+        } catch (TimeoutException e) {
+            throw new InternalServerException("Hết thời gian chờ ghi nhận check-in", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InternalServerException("Không thể ghi nhận check-in", e);
+        }
+    }
+
+    /**
+     * Lỗi giống check-in trực tiếp
+     */
+    private static RuntimeException toException(ErrorCode error) {
+        return switch (error) {
+            case ALREADY_CHECKED_IN -> new ConflictException("Đã check-in hôm nay", error);
+            case USER_NOT_FOUND -> new NotFoundException(error.getMessage(), error);
+            default -> new BadRequestException(error.getMessage(), error);
+        };
+    }
+
+    private String getEmployeeName(Long employeeId) {
+        return userRepository.findById(employeeId)
+                .map(user -> user.getProfile() != null ? user.getProfile().getName() : user.getEmail())
+                .orElse("Unknown");
+    }
+}
@@ -2,6 +2,7 @@ package com.tamabee.api_hr.service.company.impl;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tamabee.api_hr.datasource.TenantContext;
 import com.tamabee.api_hr.dto.config.*;
 import com.tamabee.api_hr.dto.request.attendance.AttendanceConfigRequest;
 import com.tamabee.api_hr.dto.request.attendance.BreakConfigRequest;
@@ -24,6 +25,7 @@ import com.tamabee.api_hr.repository.company.CompanySettingsRepository;
 import com.tamabee.api_hr.repository.attendance.WorkModeChangeLogRepository;
 import com.tamabee.api_hr.repository.attendance.WorkScheduleRepository;
 import com.tamabee.api_hr.service.company.cache.CompanySettingsCache;
+import com.tamabee.api_hr.service.company.cache.PayrollPeriodDatasetCache;
 import com.tamabee.api_hr.service.calculator.LegalBreakRequirements;
 import com.tamabee.api_hr.service.calculator.LegalOvertimeRequirements;
 import com.tamabee.api_hr.service.company.interfaces.ICompanySettingsService;
@@ -53,6 +55,7 @@ public class CompanySettingsServiceImpl implements ICompanySettingsService {
     private final LegalBreakRequirements legalBreakRequirements;
     private final LegalOvertimeRequirements legalOvertimeRequirements;
     private final ObjectProvider<CompanySettingsCache> settingsCacheProvider;
+    private final PayrollPeriodDatasetCache payrollPeriodDatasetCache;
 
     /**
      * Lấy cache instance, trả về null nếu không có request context
@@ -67,13 +70,18 @@ public class CompanySettingsServiceImpl implements ICompanySettingsService {
     }
 
     /**
-     * Invalidate cache nếu có
+     * Invalidate cache nếu có.
+     * Dataset mô phỏng lương giữ cấu hình baseline nên cũng phải xóa khi đổi cấu hình.
      */
     private void invalidateCacheIfAvailable() {
         CompanySettingsCache cache = getCache();
         if (cache != null) {
             cache.invalidate();
         }
+        String tenantDomain = TenantContext.getCurrentTenant();
+        if (tenantDomain != null) {
+            payrollPeriodDatasetCache.invalidateTenant(tenantDomain);
+        }
     }
 
     @Override
@@ -621,6 +629,15 @@ public class CompanySettingsServiceImpl implements ICompanySettingsService {
         if (request.getAllowWebCheckIn() != null) {
             config.setAllowWebCheckIn(request.getAllowWebCheckIn());
         }
+        if (request.getAutoCloseEnabled() != null) {
+            config.setAutoCloseEnabled(request.getAutoCloseEnabled());
+        }
+        if (request.getAutoClosePolicy() != null) {
+            config.setAutoClosePolicy(request.getAutoClosePolicy());
+        }
+        if (request.getMaxShiftHours() != null) {
+            config.setMaxShiftHours(request.getMaxShiftHours());
+        }
     }
 
     /**
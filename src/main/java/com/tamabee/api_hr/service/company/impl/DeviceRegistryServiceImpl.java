@@ -0,0 +1,101 @@
+package com.tamabee.api_hr.service.company.impl;
+
+import com.tamabee.api_hr.datasource.TenantContext;
+import com.tamabee.api_hr.dto.request.attendance.RegisterDeviceRequest;
+import com.tamabee.api_hr.dto.response.attendance.RegisteredDeviceResponse;
+import com.tamabee.api_hr.entity.attendance.RegisteredDeviceEntity;
+import com.tamabee.api_hr.enums.ErrorCode;
+import com.tamabee.api_hr.exception.ConflictException;
+import com.tamabee.api_hr.exception.NotFoundException;
+import com.tamabee.api_hr.mapper.company.RegisteredDeviceMapper;
+import com.tamabee.api_hr.repository.attendance.RegisteredDeviceRepository;
+import com.tamabee.api_hr.service.company.cache.DeviceMembership;
+import com.tamabee.api_hr.service.company.cache.DeviceMembershipCache;
+import com.tamabee.api_hr.service.company.interfaces.IDeviceRegistryService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Service implementation quản lý thiết bị chấm công đã đăng ký.
+ * Đăng ký/thu hồi thiết bị sẽ invalidate tập thiết bị của tenant.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DeviceRegistryServiceImpl implements IDeviceRegistryService {
+
+    private final RegisteredDeviceRepository registeredDeviceRepository;
+    private final RegisteredDeviceMapper registeredDeviceMapper;
+    private final DeviceMembershipCache deviceMembershipCache;
+
+    // ==================== CRUD Operations ====================
+
+    @Override
+    @Transactional
+    public RegisteredDeviceResponse registerDevice(RegisterDeviceRequest request) {
+        RegisteredDeviceEntity entity = registeredDeviceMapper.toEntity(request);
+        // Unique index (device_id WHERE revoked = FALSE) vẫn chặn khi hai request đăng ký song song
+        if (registeredDeviceRepository.existsByDeviceIdAndRevokedFalse(entity.getDeviceId())) {
+            throw new ConflictException("Thiết bị đã được đăng ký", ErrorCode.DEVICE_ALREADY_REGISTERED);
+        }
+
+        entity = registeredDeviceRepository.save(entity);
+        deviceMembershipCache.invalidate(TenantContext.getCurrentTenant());
+
+        log.info("Đã đăng ký thiết bị {} ({})", entity.getId(), entity.getDeviceId());
+        return registeredDeviceMapper.toResponse(entity);
+    }
+
+    @Override
+    @Transactional
+    public void revokeDevice(Long deviceRecordId) {
+        RegisteredDeviceEntity entity = registeredDeviceRepository.findByIdAndRevokedFalse(deviceRecordId)
+                .orElseThrow(() -> new NotFoundException(
+                        "Không tìm thấy thiết bị",
+                        ErrorCode.DEVICE_NOT_FOUND));
+
+        entity.setRevoked(true);
+        entity.setRevokedAt(LocalDateTime.now());
+        registeredDeviceRepository.save(entity);
+        deviceMembershipCache.invalidate(TenantContext.getCurrentTenant());
+
+        log.info("Đã thu hồi thiết bị {} ({})", deviceRecordId, entity.getDeviceId());
+    }
+
+    // ==================== Query Operations ====================
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<RegisteredDeviceResponse> getDevices(Pageable pageable) {
+        return registeredDeviceRepository.findByRevokedFalse(pageable)
+                .map(registeredDeviceMapper::toResponse);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public DeviceMembership getDeviceMembership() {
+        String tenantDomain = TenantContext.getCurrentTenant();
+        if (tenantDomain == null) {
+            return buildMembership();
+        }
+        return deviceMembershipCache.get(tenantDomain, this::buildMembership);
+    }
+
+    // ==================== Private Helper Methods ====================
+
+    /**
+     * Build tập thiết bị chưa thu hồi, kèm trạng thái đã từng đăng ký thiết bị
+     */
+    private DeviceMembership buildMembership() {
+        List<String> deviceIds = registeredDeviceRepository.findActiveDeviceIds();
+        return DeviceMembership.of(deviceIds,
+                deviceIds.isEmpty() && registeredDeviceRepository.existsByRevokedTrue());
+    }
+}
@@ -0,0 +1,168 @@
+package com.tamabee.api_hr.service.company.impl;
+
+import com.tamabee.api_hr.dto.config.BreakConfig;
+import com.tamabee.api_hr.dto.config.OvertimeConfig;
+import com.tamabee.api_hr.dto.result.AttendanceSummary;
+import com.tamabee.api_hr.dto.result.DailyOvertimeDetail;
+import com.tamabee.api_hr.dto.result.PayrollPeriodDataset;
+import com.tamabee.api_hr.entity.attendance.AttendanceRecordEntity;
+import com.tamabee.api_hr.entity.attendance.BreakRecordEntity;
+import com.tamabee.api_hr.enums.AttendanceStatus;
+import com.tamabee.api_hr.service.calculator.interfaces.IBreakCalculator;
+import com.tamabee.api_hr.service.calculator.interfaces.IOvertimeCalculator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Tổng hợp chấm công làm đầu vào tính lương, dùng chung cho tính lương thật (PayrollServiceImpl)
+ * và mô phỏng lương (PayrollSimulationServiceImpl) để hai bên luôn cho cùng kết quả.
+ * Nguồn giải lao/ngày lễ do caller truyền vào (truy vấn từng bản ghi hoặc dữ liệu kỳ đã load sẵn).
+ */
+@Service
+@RequiredArgsConstructor
+public class PayrollAttendanceSupport {
+
+    private final IBreakCalculator breakCalculator;
+    private final IOvertimeCalculator overtimeCalculator;
+
+    /**
+     * Tổng hợp chấm công từ danh sách bản ghi.
+     * Giải lao lấy tổng từ tất cả các lần giải lao của bản ghi, không có thì dùng giải lao mặc định.
+     *
+     * @param breaksByAttendance giải lao theo ID bản ghi chấm công
+     */
+    public AttendanceSummary buildAttendanceSummary(
+            List<AttendanceRecordEntity> records,
+            Function<Long, List<BreakRecordEntity>> breaksByAttendance,
+            BreakConfig breakConfig) {
+        int workingDays = 0;
+        int workingMinutes = 0;
+        int absenceDays = 0;
+        int lateCount = 0;
+        int totalLateMinutes = 0;
+        int earlyLeaveCount = 0;
+        int totalEarlyLeaveMinutes = 0;
+        int totalOvertimeMinutes = 0;
+        int totalBreakMinutes = 0;
+
+        for (AttendanceRecordEntity record : records) {
+            if (record.getStatus() == AttendanceStatus.PRESENT) {
+                workingDays++;
+                workingMinutes += nullToZero(record.getWorkingMinutes());
+                totalOvertimeMinutes += nullToZero(record.getOvertimeMinutes());
+
+                List<BreakRecordEntity> breaks = breaksByAttendance.apply(record.getId());
+                if (!breaks.isEmpty()) {
+                    totalBreakMinutes += breakCalculator.calculateTotalBreakMinutes(breaks);
+                } else if (breakConfig != null && breakConfig.getDefaultBreakMinutes() != null) {
+                    totalBreakMinutes += breakConfig.getDefaultBreakMinutes();
+                }
+
+                if (record.getLateMinutes() != null && record.getLateMinutes() > 0) {
+                    lateCount++;
+                    totalLateMinutes += record.getLateMinutes();
+                }
+
+                if (record.getEarlyLeaveMinutes() != null && record.getEarlyLeaveMinutes() > 0) {
+                    earlyLeaveCount++;
+                    totalEarlyLeaveMinutes += record.getEarlyLeaveMinutes();
+                }
+            } else if (record.getStatus() == AttendanceStatus.ABSENT) {
+                absenceDays++;
+            }
+        }
+
+        return AttendanceSummary.builder()
+                .workingDays(workingDays)
+                .workingHours(workingMinutes / 60)
+                .absenceDays(absenceDays)
+                .lateCount(lateCount)
+                .totalLateMinutes(totalLateMinutes)
+                .earlyLeaveCount(earlyLeaveCount)
+                .totalEarlyLeaveMinutes(totalEarlyLeaveMinutes)
+                .totalOvertimeMinutes(totalOvertimeMinutes)
+                .totalBreakMinutes(totalBreakMinutes)
+                .build();
+    }
+
+    /**
+     * Trích các ngày có tăng ca cùng dữ liệu thô cần để tính giờ đêm
+     *
+     * @param breaksByEmployeeDate giải lao theo (nhân viên, ngày), chỉ gọi cho ngày có đủ check-in/check-out
+     * @param isHoliday            ngày lễ của công ty
+     */
+    public List<PayrollPeriodDataset.OvertimeDay> buildOvertimeDays(
+            List<AttendanceRecordEntity> records,
+            BiFunction<Long, LocalDate, List<BreakRecordEntity>> breaksByEmployeeDate,
+            Predicate<LocalDate> isHoliday) {
+        List<PayrollPeriodDataset.OvertimeDay> days = new ArrayList<>();
+
+        for (AttendanceRecordEntity record : records) {
+            if (record.getOvertimeMinutes() == null || record.getOvertimeMinutes() <= 0) {
+                continue;
+            }
+            LocalDate date = record.getWorkDate();
+            boolean isWeekend = date.getDayOfWeek() == DayOfWeek.SATURDAY
+                    || date.getDayOfWeek() == DayOfWeek.SUNDAY;
+            List<BreakRecordEntity> breaks = record.getRoundedCheckIn() != null && record.getRoundedCheckOut() != null
+                    ? breaksByEmployeeDate.apply(record.getEmployeeId(), date)
+                    : List.of();
+
+            days.add(PayrollPeriodDataset.OvertimeDay.builder()
+                    .date(date)
+                    .overtimeMinutes(record.getOvertimeMinutes())
+                    .roundedCheckIn(record.getRoundedCheckIn())
+                    .roundedCheckOut(record.getRoundedCheckOut())
+                    .holiday(isHoliday.test(date))
+                    .weekend(isWeekend)
+                    .breaks(breaks)
+                    .build());
+        }
+
+        return days;
+    }
+
+    /**
+     * Tạo daily overtime details với night minutes theo cấu hình tăng ca (null = không tính giờ đêm)
+     */
+    public List<DailyOvertimeDetail> buildDailyDetails(
+            List<PayrollPeriodDataset.OvertimeDay> overtimeDays, OvertimeConfig overtimeConfig) {
+        List<DailyOvertimeDetail> details = new ArrayList<>(overtimeDays.size());
+
+        for (PayrollPeriodDataset.OvertimeDay day : overtimeDays) {
+            int nightMinutes = 0;
+            int regularMinutes = day.getOvertimeMinutes();
+
+            if (overtimeConfig != null && day.getRoundedCheckIn() != null && day.getRoundedCheckOut() != null) {
+                nightMinutes = overtimeCalculator.calculateNightMinutes(
+                        day.getRoundedCheckIn(), day.getRoundedCheckOut(), day.getBreaks(), overtimeConfig);
+
+                // Night minutes không vượt quá overtime minutes
+                nightMinutes = Math.min(nightMinutes, day.getOvertimeMinutes());
+                regularMinutes = day.getOvertimeMinutes() - nightMinutes;
+            }
+
+            details.add(DailyOvertimeDetail.builder()
+                    .date(day.getDate())
+                    .regularMinutes(regularMinutes)
+                    .nightMinutes(nightMinutes)
+                    .isHoliday(day.getHoliday())
+                    .isWeekend(day.getWeekend())
+                    .build());
+        }
+
+        return details;
+    }
+
+    private static int nullToZero(Integer value) {
+        return value != null ? value : 0;
+    }
+}
@@ -2,6 +2,7 @@ package com.tamabee.api_hr.service.company.impl;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tamabee.api_hr.dto.audit.AuditLogEntry;
 import com.tamabee.api_hr.dto.request.wallet.PaymentRequest;
 import com.tamabee.api_hr.dto.request.payroll.PayrollAdjustmentRequest;
 import com.tamabee.api_hr.dto.request.payroll.PayrollPeriodRequest;
@@ -20,6 +21,7 @@ import com.tamabee.api_hr.repository.attendance.AttendanceRecordRepository;
 import com.tamabee.api_hr.repository.payroll.*;
 import com.tamabee.api_hr.repository.user.UserRepository;
 import com.tamabee.api_hr.service.company.interfaces.IPayrollPeriodService;
+import com.tamabee.api_hr.service.core.interfaces.IAuditLogService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
@@ -52,6 +54,7 @@ public class PayrollPeriodServiceImpl implements IPayrollPeriodService {
     private final AttendanceRecordRepository attendanceRepository;
     private final PayrollPeriodMapper mapper;
     private final ObjectMapper objectMapper;
+    private final IAuditLogService auditLogService;
 
     // Số ngày làm việc tiêu chuẩn trong tháng (dùng cho tính lương MONTHLY)
     private static final int STANDARD_WORKING_DAYS = 22;
@@ -283,24 +286,40 @@ public class PayrollPeriodServiceImpl implements IPayrollPeriodService {
                     ErrorCode.PAYROLL_INVALID_STATUS_TRANSITION);
         }
 
+        LocalDateTime now = LocalDateTime.now();
         period.setStatus(PayrollPeriodStatus.APPROVED);
         period.setApprovedBy(approverId);
-        period.setApprovedAt(LocalDateTime.now());
+        period.setApprovedAt(now);
         period = periodRepository.save(period);
 
-        // Cập nhật status của tất cả items thành CONFIRMED
+        // Cập nhật status của tất cả items thành CONFIRMED bằng một câu UPDATE
         // PayrollItem không có soft delete
-        List<PayrollItemEntity> items = itemRepository.findByPayrollPeriodId(periodId);
-        for (PayrollItemEntity item : items) {
-            item.setStatus(PayrollItemStatus.CONFIRMED);
-        }
-        itemRepository.saveAll(items);
+        List<Long> itemIds = itemRepository.findIdsByPayrollPeriodId(periodId);
+        int confirmed = itemRepository.updateStatusByPayrollPeriodId(periodId, PayrollItemStatus.CONFIRMED, now);
 
         Set<Long> userIds = new HashSet<>();
         userIds.add(period.getCreatedBy());
         userIds.add(approverId);
         Map<Long, UserEntity> userMap = getUserMap(new ArrayList<>(userIds));
 
+        // Ghi audit cho từng item trong một batch
+        String approverName = getUserName(userMap.get(approverId));
+        List<AuditLogEntry> auditEntries = new ArrayList<>(itemIds.size());
+        for (Long itemId : itemIds) {
+            auditEntries.add(AuditLogEntry.builder()
+                    .entityType(AuditEntityType.PAYROLL_ITEM)
+                    .entityId(itemId)
+                    .action(AuditAction.APPROVE)
+                    .userId(approverId)
+                    .userName(approverName)
+                    .afterValue(Map.of("status", PayrollItemStatus.CONFIRMED))
+                    .description("Duyệt kỳ lương " + periodId)
+                    .build());
+        }
+        auditLogService.logChanges(auditEntries);
+
+        log.info("Đã duyệt kỳ lương {}: {} items", periodId, confirmed);
+
         return mapper.toResponse(period, userMap);
     }
 
@@ -355,6 +374,16 @@ public class PayrollPeriodServiceImpl implements IPayrollPeriodService {
                 .collect(Collectors.toMap(UserEntity::getId, Function.identity()));
     }
 
+    /**
+     * Lấy tên hiển thị của user (dùng cho audit log)
+     */
+    private String getUserName(UserEntity user) {
+        if (user == null) {
+            return "Unknown";
+        }
+        return user.getProfile() != null ? user.getProfile().getName() : user.getEmail();
+    }
+
     /**
      * Tính lương cho một nhân viên
      */
@@ -1,13 +1,16 @@
 package com.tamabee.api_hr.service.company.impl;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tamabee.api_hr.datasource.TenantContext;
+import com.tamabee.api_hr.dto.audit.AuditLogEntry;
 import com.tamabee.api_hr.dto.config.*;
+import com.tamabee.api_hr.dto.request.payroll.BulkPaymentRequest;
+import com.tamabee.api_hr.dto.response.payroll.BulkPaymentResponse;
 import com.tamabee.api_hr.dto.response.payroll.PayrollPeriodSummaryResponse;
 import com.tamabee.api_hr.dto.response.payroll.PayrollPreviewResponse;
 import com.tamabee.api_hr.dto.response.payroll.PayrollRecordResponse;
 import com.tamabee.api_hr.dto.result.*;
 import com.tamabee.api_hr.entity.attendance.AttendanceRecordEntity;
-import com.tamabee.api_hr.entity.attendance.BreakRecordEntity;
 import com.tamabee.api_hr.entity.company.CompanyEntity;
 import com.tamabee.api_hr.entity.payroll.PayrollRecordEntity;
 import com.tamabee.api_hr.entity.user.UserEntity;
@@ -22,28 +25,33 @@ import com.tamabee.api_hr.repository.leave.HolidayRepository;
 import com.tamabee.api_hr.repository.payroll.EmployeeSalaryRepository;
 import com.tamabee.api_hr.repository.payroll.PayrollRecordRepository;
 import com.tamabee.api_hr.repository.user.UserRepository;
-import com.tamabee.api_hr.service.calculator.interfaces.IBreakCalculator;
-import com.tamabee.api_hr.service.calculator.interfaces.IOvertimeCalculator;
 import com.tamabee.api_hr.service.calculator.interfaces.IPayrollCalculator;
 import com.tamabee.api_hr.service.company.interfaces.ICompanySettingsService;
 import com.tamabee.api_hr.service.company.interfaces.IPayrollService;
+import com.tamabee.api_hr.service.company.interfaces.IPayrollSimulationService;
+import com.tamabee.api_hr.service.core.interfaces.IAuditLogService;
 import com.tamabee.api_hr.service.core.interfaces.INotificationEmailService;
 import com.tamabee.api_hr.service.core.PayslipPdfGenerator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
 import java.math.RoundingMode;
-import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.YearMonth;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Service implementation quản lý tính lương và thanh toán.
@@ -63,12 +71,33 @@ public class PayrollServiceImpl implements IPayrollService {
     private final CompanyRepository companyRepository;
     private final ICompanySettingsService companySettingsService;
     private final IPayrollCalculator payrollCalculator;
-    private final IBreakCalculator breakCalculator;
-    private final IOvertimeCalculator overtimeCalculator;
+    private final PayrollAttendanceSupport payrollAttendanceSupport;
     private final PayrollMapper payrollMapper;
     private final ObjectMapper objectMapper;
     private final INotificationEmailService notificationEmailService;
     private final PayslipPdfGenerator payslipPdfGenerator;
+    private final IAuditLogService auditLogService;
+    private final IPayrollSimulationService payrollSimulationService;
+
+    @Qualifier("tenantJdbcTemplate")
+    private final JdbcTemplate tenantJdbcTemplate;
+
+    // Chuyển trạng thái cả kỳ, trả về đúng các bản ghi đã cập nhật để ghi audit
+    private static final String PERIOD_MARK_PAID_SQL = """
+            UPDATE payroll_records
+            SET status = ?, payment_status = ?, paid_at = ?, updated_at = ?
+            WHERE year = ? AND month = ? AND status = ?
+            RETURNING id
+            """;
+
+    private static final String BULK_MARK_PAID_SQL = """
+            UPDATE payroll_records p
+            SET status = ?, payment_status = ?, paid_at = ?, updated_at = ?,
+                payment_reference = COALESCE(v.reference, p.payment_reference)
+            FROM unnest(?::bigint[], ?::varchar[]) AS v(id, reference)
+            WHERE p.id = v.id AND p.status = ?
+            RETURNING p.id
+            """;
 
     // ==================== Preview & Finalize ====================
 
@@ -192,34 +221,77 @@ public class PayrollServiceImpl implements IPayrollService {
         }
 
         log.info("Đã finalize {} bản ghi lương kỳ {}", savedRecords.size(), period);
+        payrollSimulationService.evictDataset(period);
 
-        return buildPeriodSummary(period, savedRecords);
+        // Query tổng hợp tự flush các bản ghi vừa lưu trong transaction
+        return buildPeriodSummary(period);
     }
 
     // ==================== Payment Processing ====================
 
     @Override
     @Transactional
-    public void markAsPaid(YearMonth period) {
+    public int markAsPaid(YearMonth period, Long paidBy) {
         log.info("Đánh dấu đã thanh toán lương kỳ {}", period);
 
-        List<PayrollRecordEntity> records = payrollRecordRepository
-                .findByYearAndMonthAndStatus(
-                        period.getYear(), period.getMonthValue(), PayrollStatus.FINALIZED);
+        // Chuyển trạng thái cả kỳ bằng một câu UPDATE, audit đúng các bản ghi câu lệnh đã cập nhật
+        Timestamp paidAt = Timestamp.valueOf(LocalDateTime.now());
+        List<Long> recordIds = tenantJdbcTemplate.query(PERIOD_MARK_PAID_SQL, (rs, rowNum) -> rs.getLong(1),
+                PayrollStatus.PAID.name(), PaymentStatus.PAID.name(), paidAt, paidAt,
+                period.getYear(), period.getMonthValue(), PayrollStatus.FINALIZED.name());
 
-        if (records.isEmpty()) {
+        if (recordIds.isEmpty()) {
             throw new BadRequestException("Không có bản ghi lương để thanh toán", ErrorCode.PAYROLL_NOT_FINALIZED);
         }
 
-        LocalDateTime now = LocalDateTime.now();
-        for (PayrollRecordEntity record : records) {
-            record.setStatus(PayrollStatus.PAID);
-            record.setPaymentStatus(PaymentStatus.PAID);
-            record.setPaidAt(now);
-            payrollRecordRepository.save(record);
+        logPaymentAudit(recordIds, null, paidBy, "Thanh toán lương kỳ " + formatPeriod(period));
+
+        log.info("Đã đánh dấu thanh toán {} bản ghi lương", recordIds.size());
+        return recordIds.size();
+    }
+
+    @Override
+    @Transactional
+    public BulkPaymentResponse markRecordsAsPaid(BulkPaymentRequest request, Long paidBy) {
+        List<BulkPaymentRequest.Item> payments = request.getPayments();
+
+        // Gộp trùng recordId (giữ mã tham chiếu cuối cùng)
+        Map<Long, String> references = new LinkedHashMap<>();
+        for (BulkPaymentRequest.Item item : payments) {
+            references.put(item.getRecordId(), item.getPaymentReference());
         }
 
-        log.info("Đã đánh dấu thanh toán {} bản ghi lương", records.size());
+        Long[] ids = references.keySet().toArray(new Long[0]);
+        String[] refs = references.values().toArray(new String[0]);
+        Timestamp paidAt = Timestamp.valueOf(LocalDateTime.now());
+
+        // Một câu UPDATE cho toàn bộ danh sách, chỉ cập nhật bản ghi đang FINALIZED
+        List<Long> updatedIds = tenantJdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(BULK_MARK_PAID_SQL);
+            ps.setString(1, PayrollStatus.PAID.name());
+            ps.setString(2, PaymentStatus.PAID.name());
+            ps.setTimestamp(3, paidAt);
+            ps.setTimestamp(4, paidAt);
+            ps.setArray(5, connection.createArrayOf("bigint", ids));
+            ps.setArray(6, connection.createArrayOf("varchar", refs));
+            ps.setString(7, PayrollStatus.FINALIZED.name());
+            return ps;
+        }, (rs, rowNum) -> rs.getLong(1));
+
+        Set<Long> updatedSet = new HashSet<>(updatedIds);
+        List<Long> skipped = references.keySet().stream()
+                .filter(id -> !updatedSet.contains(id))
+                .collect(Collectors.toList());
+
+        logPaymentAudit(updatedIds, references, paidBy, "Thanh toán lương hàng loạt");
+
+        log.info("Đã đánh dấu thanh toán {}/{} bản ghi lương", updatedIds.size(), references.size());
+
+        return BulkPaymentResponse.builder()
+                .requested(references.size())
+                .updated(updatedIds.size())
+                .skippedRecordIds(skipped)
+                .build();
     }
 
     @Override
@@ -308,10 +380,7 @@ public class PayrollServiceImpl implements IPayrollService {
     @Override
     @Transactional(readOnly = true)
     public PayrollPeriodSummaryResponse getPayrollPeriodSummary(YearMonth period) {
-        List<PayrollRecordEntity> records = payrollRecordRepository
-                .findAllByYearAndMonth(period.getYear(), period.getMonthValue());
-
-        return buildPeriodSummary(period, records);
+        return buildPeriodSummary(period);
     }
 
     @Override
@@ -398,11 +467,7 @@ public class PayrollServiceImpl implements IPayrollService {
                 .orElseThrow(() -> NotFoundException.user(record.getEmployeeId()));
 
         // Lấy thông tin công ty từ tenant context
-        CompanyEntity company = companyRepository.findAll()
-                .stream()
-                .filter(c -> !c.getDeleted())
-                .findFirst()
-                .orElse(null);
+        CompanyEntity company = getCurrentCompany();
 
         // Convert to response
         String employeeName = employee.getProfile() != null ? employee.getProfile().getName() : "";
@@ -412,6 +477,48 @@ public class PayrollServiceImpl implements IPayrollService {
         return payslipPdfGenerator.generate(response, employee, company);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public PayslipBatch preparePayslipBatch(YearMonth period) {
+        log.info("Prefetch dữ liệu payslip hàng loạt kỳ {}", period);
+
+        List<PayrollRecordEntity> records = payrollRecordRepository
+                .findAllByYearAndMonth(period.getYear(), period.getMonthValue());
+
+        if (records.isEmpty()) {
+            throw new NotFoundException("Không có bản ghi lương để tạo payslip", ErrorCode.PAYROLL_NOT_FOUND);
+        }
+
+        // Load tất cả nhân viên trong một query (profile fetch eager)
+        List<Long> employeeIds = records.stream()
+                .map(PayrollRecordEntity::getEmployeeId)
+                .distinct()
+                .toList();
+        Map<Long, UserEntity> employees = userRepository.findAllById(employeeIds).stream()
+                .filter(u -> !Boolean.TRUE.equals(u.getDeleted()))
+                .collect(Collectors.toMap(UserEntity::getId, Function.identity()));
+
+        List<PayslipBatch.Item> items = new ArrayList<>(records.size());
+        for (PayrollRecordEntity record : records) {
+            UserEntity employee = employees.get(record.getEmployeeId());
+            if (employee == null) {
+                log.warn("Bỏ qua payslip {}: không tìm thấy nhân viên {}", record.getId(), record.getEmployeeId());
+                continue;
+            }
+            String employeeName = employee.getProfile() != null ? employee.getProfile().getName() : "";
+            items.add(PayslipBatch.Item.builder()
+                    .record(payrollMapper.toResponse(record, employeeName, employee.getEmployeeCode()))
+                    .employee(employee)
+                    .build());
+        }
+
+        return PayslipBatch.builder()
+                .period(period)
+                .company(getCurrentCompany())
+                .items(items)
+                .build();
+    }
+
     // ==================== Private Helper Methods ====================
 
     /**
@@ -538,59 +645,8 @@ public class PayrollServiceImpl implements IPayrollService {
      */
     private AttendanceSummary buildAttendanceSummaryWithBreak(
             List<AttendanceRecordEntity> records, BreakConfig breakConfig) {
-        int workingDays = 0;
-        int workingMinutes = 0;
-        int absenceDays = 0;
-        int lateCount = 0;
-        int totalLateMinutes = 0;
-        int earlyLeaveCount = 0;
-        int totalEarlyLeaveMinutes = 0;
-        int totalOvertimeMinutes = 0;
-        int totalBreakMinutes = 0;
-
-        for (AttendanceRecordEntity record : records) {
-            if (record.getStatus() == AttendanceStatus.PRESENT) {
-                workingDays++;
-                workingMinutes += nullToZeroInt(record.getWorkingMinutes());
-                totalOvertimeMinutes += nullToZeroInt(record.getOvertimeMinutes());
-
-                // Tính tổng break minutes từ tất cả break sessions (multiple breaks support)
-                List<BreakRecordEntity> breakRecords = breakRecordRepository
-                        .findByAttendanceRecordId(record.getId());
-
-                if (!breakRecords.isEmpty()) {
-                    // Sử dụng breakCalculator để tính tổng từ tất cả break sessions
-                    totalBreakMinutes += breakCalculator.calculateTotalBreakMinutes(breakRecords);
-                } else if (breakConfig != null && breakConfig.getDefaultBreakMinutes() != null) {
-                    // Sử dụng default break nếu không có break records
-                    totalBreakMinutes += breakConfig.getDefaultBreakMinutes();
-                }
-
-                if (record.getLateMinutes() != null && record.getLateMinutes() > 0) {
-                    lateCount++;
-                    totalLateMinutes += record.getLateMinutes();
-                }
-
-                if (record.getEarlyLeaveMinutes() != null && record.getEarlyLeaveMinutes() > 0) {
-                    earlyLeaveCount++;
-                    totalEarlyLeaveMinutes += record.getEarlyLeaveMinutes();
-                }
-            } else if (record.getStatus() == AttendanceStatus.ABSENT) {
-                absenceDays++;
-            }
-        }
-
-        return AttendanceSummary.builder()
-                .workingDays(workingDays)
-                .workingHours(workingMinutes / 60)
-                .absenceDays(absenceDays)
-                .lateCount(lateCount)
-                .totalLateMinutes(totalLateMinutes)
-                .earlyLeaveCount(earlyLeaveCount)
-                .totalEarlyLeaveMinutes(totalEarlyLeaveMinutes)
-                .totalOvertimeMinutes(totalOvertimeMinutes)
-                .totalBreakMinutes(totalBreakMinutes)
-                .build();
+        return payrollAttendanceSupport.buildAttendanceSummary(
+                records, breakRecordRepository::findByAttendanceRecordId, breakConfig);
     }
 
     /**
@@ -607,46 +663,14 @@ public class PayrollServiceImpl implements IPayrollService {
             List<AttendanceRecordEntity> records,
             OvertimeConfig overtimeConfig,
             Long employeeId) {
-        List<DailyOvertimeDetail> details = new ArrayList<>();
-
-        for (AttendanceRecordEntity record : records) {
-            if (record.getOvertimeMinutes() != null && record.getOvertimeMinutes() > 0) {
-                LocalDate date = record.getWorkDate();
-                boolean isWeekend = date.getDayOfWeek() == DayOfWeek.SATURDAY
-                        || date.getDayOfWeek() == DayOfWeek.SUNDAY;
-
-                int nightMinutes = 0;
-                int regularMinutes = record.getOvertimeMinutes();
-
-                // Tính night minutes nếu có overtime config và check-in/check-out
-                if (overtimeConfig != null && record.getRoundedCheckIn() != null
-                        && record.getRoundedCheckOut() != null && employeeId != null) {
-                    // Lấy break records cho ngày này
-                    List<BreakRecordEntity> breakRecords = breakRecordRepository
-                            .findByEmployeeIdAndWorkDate(employeeId, date);
-
-                    nightMinutes = overtimeCalculator.calculateNightMinutes(
-                            record.getRoundedCheckIn(),
-                            record.getRoundedCheckOut(),
-                            breakRecords,
-                            overtimeConfig);
-
-                    // Night minutes không vượt quá overtime minutes
-                    nightMinutes = Math.min(nightMinutes, record.getOvertimeMinutes());
-                    regularMinutes = record.getOvertimeMinutes() - nightMinutes;
-                }
-
-                details.add(DailyOvertimeDetail.builder()
-                        .date(date)
-                        .regularMinutes(regularMinutes)
-                        .nightMinutes(nightMinutes)
-                        .isHoliday(isHoliday(date))
-                        .isWeekend(isWeekend)
-                        .build());
-            }
-        }
-
-        return details;
+        // Chỉ tính night minutes khi có overtime config và nhân viên
+        OvertimeConfig nightConfig = employeeId != null ? overtimeConfig : null;
+        List<PayrollPeriodDataset.OvertimeDay> overtimeDays = payrollAttendanceSupport.buildOvertimeDays(records,
+                (id, date) -> nightConfig != null
+                        ? breakRecordRepository.findByEmployeeIdAndWorkDate(employeeId, date)
+                        : List.of(),
+                this::isHoliday);
+        return payrollAttendanceSupport.buildDailyDetails(overtimeDays, nightConfig);
     }
 
     /**
@@ -856,10 +880,11 @@ public class PayrollServiceImpl implements IPayrollService {
     }
 
     /**
-     * Build period summary từ danh sách records
+     * Build period summary bằng truy vấn tổng hợp (GROUP BY trạng thái), không load từng bản ghi
      */
-    private PayrollPeriodSummaryResponse buildPeriodSummary(
-            YearMonth period, List<PayrollRecordEntity> records) {
+    private PayrollPeriodSummaryResponse buildPeriodSummary(YearMonth period) {
+        List<PayrollStatusAggregate> groups = payrollRecordRepository
+                .aggregateByYearAndMonth(period.getYear(), period.getMonthValue());
 
         BigDecimal totalBaseSalary = BigDecimal.ZERO;
         BigDecimal totalOvertimePay = BigDecimal.ZERO;
@@ -870,50 +895,65 @@ public class PayrollServiceImpl implements IPayrollService {
         BigDecimal totalPaid = BigDecimal.ZERO;
         BigDecimal totalPending = BigDecimal.ZERO;
 
+        int totalEmployees = 0;
         int paidEmployees = 0;
         int pendingEmployees = 0;
         int failedEmployees = 0;
         int notificationsSent = 0;
         int notificationsPending = 0;
 
-        PayrollStatus overallStatus = PayrollStatus.DRAFT;
-        LocalDateTime finalizedAt = null;
-        Long finalizedBy = null;
-
-        for (PayrollRecordEntity record : records) {
-            totalBaseSalary = totalBaseSalary.add(nullToZero(record.getBaseSalary()));
-            totalOvertimePay = totalOvertimePay.add(nullToZero(record.getTotalOvertimePay()));
-            totalAllowances = totalAllowances.add(nullToZero(record.getTotalAllowances()));
-            totalDeductions = totalDeductions.add(nullToZero(record.getTotalDeductions()));
-            totalGrossSalary = totalGrossSalary.add(nullToZero(record.getGrossSalary()));
-            totalNetSalary = totalNetSalary.add(nullToZero(record.getNetSalary()));
-
-            if (record.getPaymentStatus() == PaymentStatus.PAID) {
-                paidEmployees++;
-                totalPaid = totalPaid.add(nullToZero(record.getNetSalary()));
-            } else if (record.getPaymentStatus() == PaymentStatus.FAILED) {
-                failedEmployees++;
+        boolean hasFinalized = false;
+        boolean hasPaid = false;
+
+        for (PayrollStatusAggregate group : groups) {
+            int count = group.getRecordCount().intValue();
+            totalEmployees += count;
+
+            totalBaseSalary = totalBaseSalary.add(nullToZero(group.getTotalBaseSalary()));
+            totalOvertimePay = totalOvertimePay.add(nullToZero(group.getTotalOvertimePay()));
+            totalAllowances = totalAllowances.add(nullToZero(group.getTotalAllowances()));
+            totalDeductions = totalDeductions.add(nullToZero(group.getTotalDeductions()));
+            totalGrossSalary = totalGrossSalary.add(nullToZero(group.getTotalGrossSalary()));
+            totalNetSalary = totalNetSalary.add(nullToZero(group.getTotalNetSalary()));
+
+            if (group.getPaymentStatus() == PaymentStatus.PAID) {
+                paidEmployees += count;
+                totalPaid = totalPaid.add(nullToZero(group.getTotalNetSalary()));
+            } else if (group.getPaymentStatus() == PaymentStatus.FAILED) {
+                failedEmployees += count;
             } else {
-                pendingEmployees++;
-                totalPending = totalPending.add(nullToZero(record.getNetSalary()));
+                pendingEmployees += count;
+                totalPending = totalPending.add(nullToZero(group.getTotalNetSalary()));
             }
 
-            if (Boolean.TRUE.equals(record.getNotificationSent())) {
-                notificationsSent++;
+            if (Boolean.TRUE.equals(group.getNotificationSent())) {
+                notificationsSent += count;
             } else {
-                notificationsPending++;
+                notificationsPending += count;
             }
 
-            // Lấy thông tin finalization từ record đầu tiên có
-            if (record.getStatus() == PayrollStatus.FINALIZED || record.getStatus() == PayrollStatus.PAID) {
-                overallStatus = record.getStatus();
-                if (finalizedAt == null) {
-                    finalizedAt = record.getFinalizedAt();
-                    finalizedBy = record.getFinalizedBy();
-                }
+            hasFinalized |= group.getStatus() == PayrollStatus.FINALIZED;
+            hasPaid |= group.getStatus() == PayrollStatus.PAID;
+        }
+
+        // Thông tin finalize lấy từ lần finalize sớm nhất (thời điểm và người finalize cùng một bản ghi)
+        LocalDateTime finalizedAt = null;
+        Long finalizedBy = null;
+        if (hasFinalized || hasPaid) {
+            List<PayrollFinalizationInfo> earliest = payrollRecordRepository.findEarliestFinalization(
+                    period.getYear(), period.getMonthValue(),
+                    List.of(PayrollStatus.FINALIZED, PayrollStatus.PAID), PageRequest.of(0, 1));
+            if (!earliest.isEmpty()) {
+                finalizedAt = earliest.get(0).getFinalizedAt();
+                finalizedBy = earliest.get(0).getFinalizedBy();
             }
         }
 
+        // Kỳ chỉ được coi là PAID khi không còn bản ghi FINALIZED chưa thanh toán
+        PayrollStatus overallStatus = hasFinalized
+                ? PayrollStatus.FINALIZED
+                : hasPaid ? PayrollStatus.PAID : PayrollStatus.DRAFT;
+
         String finalizedByName = finalizedBy != null ? getEmployeeName(finalizedBy) : null;
 
         return PayrollPeriodSummaryResponse.builder()
@@ -924,7 +964,7 @@ public class PayrollServiceImpl implements IPayrollService {
                 .finalizedAt(finalizedAt)
                 .finalizedBy(finalizedBy)
                 .finalizedByName(finalizedByName)
-                .totalEmployees(records.size())
+                .totalEmployees(totalEmployees)
                 .paidEmployees(paidEmployees)
                 .pendingEmployees(pendingEmployees)
                 .failedEmployees(failedEmployees)
@@ -941,6 +981,34 @@ public class PayrollServiceImpl implements IPayrollService {
                 .build();
     }
 
+    /**
+     * Ghi audit thanh toán cho các bản ghi đã cập nhật (một batch)
+     */
+    private void logPaymentAudit(List<Long> recordIds, Map<Long, String> references,
+            Long paidBy, String description) {
+        String userName = paidBy != null ? getEmployeeName(paidBy) : "Unknown";
+        List<AuditLogEntry> entries = new ArrayList<>(recordIds.size());
+        for (Long recordId : recordIds) {
+            Map<String, Object> after = new HashMap<>();
+            after.put("status", PayrollStatus.PAID);
+            after.put("paymentStatus", PaymentStatus.PAID);
+            if (references != null && references.get(recordId) != null) {
+                after.put("paymentReference", references.get(recordId));
+            }
+            entries.add(AuditLogEntry.builder()
+                    .entityType(AuditEntityType.PAYROLL_RECORD)
+                    .entityId(recordId)
+                    .action(AuditAction.PAYMENT)
+                    .userId(paidBy)
+                    .userName(userName)
+                    .beforeValue(Map.of("status", PayrollStatus.FINALIZED))
+                    .afterValue(after)
+                    .description(description)
+                    .build());
+        }
+        auditLogService.logChanges(entries);
+    }
+
     /**
      * Build allowance item responses
      */
@@ -976,6 +1044,17 @@ public class PayrollServiceImpl implements IPayrollService {
                 .toList();
     }
 
+    /**
+     * Lấy công ty của tenant hiện tại
+     */
+    private CompanyEntity getCurrentCompany() {
+        String tenantDomain = TenantContext.getCurrentTenant();
+        if (tenantDomain == null) {
+            return null;
+        }
+        return companyRepository.findByTenantDomainAndDeletedFalse(tenantDomain).orElse(null);
+    }
+
     /**
      * Tìm bản ghi lương theo ID
      */
@@ -1025,13 +1104,6 @@ public class PayrollServiceImpl implements IPayrollService {
         return value != null ? value : BigDecimal.ZERO;
     }
 
-    /**
-     * Null-safe Integer
-     */
-    private int nullToZeroInt(Integer value) {
-        return value != null ? value : 0;
-    }
-
     /**
      * Kiểm tra ngày có phải ngày nghỉ lễ không
      */
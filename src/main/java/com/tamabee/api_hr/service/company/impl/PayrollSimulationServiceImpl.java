@@ -0,0 +1,327 @@
+package com.tamabee.api_hr.service.company.impl;
+
+import com.tamabee.api_hr.datasource.TenantContext;
+import com.tamabee.api_hr.dto.config.*;
+import com.tamabee.api_hr.dto.request.payroll.PayrollSimulationRequest;
+import com.tamabee.api_hr.dto.response.payroll.PayrollSimulationResponse;
+import com.tamabee.api_hr.dto.result.*;
+import com.tamabee.api_hr.entity.attendance.AttendanceRecordEntity;
+import com.tamabee.api_hr.entity.attendance.BreakRecordEntity;
+import com.tamabee.api_hr.entity.leave.HolidayEntity;
+import com.tamabee.api_hr.entity.payroll.EmployeeSalaryEntity;
+import com.tamabee.api_hr.entity.user.UserEntity;
+import com.tamabee.api_hr.repository.attendance.AttendanceRecordRepository;
+import com.tamabee.api_hr.repository.attendance.BreakRecordRepository;
+import com.tamabee.api_hr.repository.leave.HolidayRepository;
+import com.tamabee.api_hr.repository.payroll.EmployeeSalaryRepository;
+import com.tamabee.api_hr.repository.user.UserRepository;
+import com.tamabee.api_hr.service.calculator.interfaces.IPayrollCalculator;
+import com.tamabee.api_hr.service.company.cache.PayrollPeriodDatasetCache;
+import com.tamabee.api_hr.service.company.interfaces.ICompanySettingsService;
+import com.tamabee.api_hr.service.company.interfaces.IPayrollSimulationService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Service mô phỏng lương (what-if).
+ * Dữ liệu kỳ (lương, chấm công, giải lao, ngày lễ) được load một lần bằng truy vấn hàng loạt
+ * và cache trong bộ nhớ; mỗi lần mô phỏng chỉ chạy lại các calculator với cấu hình ứng viên.
+ * Tổng hợp chấm công dùng chung PayrollAttendanceSupport với PayrollServiceImpl để kết quả baseline khớp preview.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PayrollSimulationServiceImpl implements IPayrollSimulationService {
+
+    private final UserRepository userRepository;
+    private final EmployeeSalaryRepository employeeSalaryRepository;
+    private final AttendanceRecordRepository attendanceRecordRepository;
+    private final BreakRecordRepository breakRecordRepository;
+    private final HolidayRepository holidayRepository;
+    private final ICompanySettingsService companySettingsService;
+    private final IPayrollCalculator payrollCalculator;
+    private final PayrollAttendanceSupport payrollAttendanceSupport;
+    private final PayrollPeriodDatasetCache datasetCache;
+
+    @Override
+    @Transactional(readOnly = true)
+    public PayrollSimulationResponse simulate(YearMonth period, PayrollSimulationRequest request) {
+        long start = System.currentTimeMillis();
+        String tenantDomain = TenantContext.getCurrentTenant();
+
+        if (Boolean.TRUE.equals(request.getRefresh())) {
+            datasetCache.invalidate(tenantDomain, period);
+        }
+        PayrollPeriodDataset dataset = datasetCache.get(tenantDomain, period, () -> loadDataset(period));
+
+        // Cấu hình nào không truyền thì dùng cấu hình hiện tại
+        PayrollConfig payrollConfig = request.getPayrollConfig() != null
+                ? request.getPayrollConfig()
+                : dataset.getPayrollConfig();
+        OvertimeConfig overtimeConfig = request.getOvertimeConfig() != null
+                ? request.getOvertimeConfig()
+                : dataset.getOvertimeConfig();
+        AllowanceConfig allowanceConfig = request.getAllowanceConfig() != null
+                ? request.getAllowanceConfig()
+                : dataset.getAllowanceConfig();
+        DeductionConfig deductionConfig = request.getDeductionConfig() != null
+                ? request.getDeductionConfig()
+                : dataset.getDeductionConfig();
+
+        // Chỉ tính lại giờ đêm khi khung giờ đêm thay đổi
+        boolean nightWindowChanged = !sameNightWindow(overtimeConfig, dataset.getOvertimeConfig());
+        boolean includeEmployees = !Boolean.FALSE.equals(request.getIncludeEmployees());
+
+        TotalsAccumulator baselineTotals = new TotalsAccumulator();
+        TotalsAccumulator simulatedTotals = new TotalsAccumulator();
+        List<PayrollSimulationResponse.EmployeeSimulation> employees = includeEmployees
+                ? new ArrayList<>(dataset.getEmployees().size())
+                : null;
+
+        for (PayrollPeriodDataset.EmployeeData employee : dataset.getEmployees()) {
+            List<DailyOvertimeDetail> dailyDetails = nightWindowChanged
+                    ? payrollAttendanceSupport.buildDailyDetails(employee.getOvertimeDays(), overtimeConfig)
+                    : employee.getBaselineDailyDetails();
+
+            PayrollResult simulated = payrollCalculator.calculatePayroll(
+                    employee.getSalaryInfo(), employee.getAttendanceSummary(), dailyDetails,
+                    payrollConfig, overtimeConfig, allowanceConfig, deductionConfig);
+            PayrollResult baseline = employee.getBaselineResult();
+
+            baselineTotals.add(baseline);
+            simulatedTotals.add(simulated);
+
+            if (includeEmployees) {
+                PayrollSimulationResponse.Totals baselineItem = toTotals(baseline);
+                PayrollSimulationResponse.Totals simulatedItem = toTotals(simulated);
+                employees.add(PayrollSimulationResponse.EmployeeSimulation.builder()
+                        .employeeId(employee.getEmployeeId())
+                        .employeeName(employee.getEmployeeName())
+                        .employeeCode(employee.getEmployeeCode())
+                        .baseline(baselineItem)
+                        .simulated(simulatedItem)
+                        .delta(subtract(simulatedItem, baselineItem))
+                        .build());
+            }
+        }
+
+        PayrollSimulationResponse.Totals baselineSum = baselineTotals.toTotals();
+        PayrollSimulationResponse.Totals simulatedSum = simulatedTotals.toTotals();
+
+        log.debug("Mô phỏng lương kỳ {} cho {} nhân viên trong {} ms",
+                period, dataset.getEmployees().size(), System.currentTimeMillis() - start);
+
+        return PayrollSimulationResponse.builder()
+                .year(period.getYear())
+                .month(period.getMonthValue())
+                .period(String.format("%d-%02d", period.getYear(), period.getMonthValue()))
+                .datasetLoadedAt(dataset.getLoadedAt())
+                .totalEmployees(dataset.getEmployees().size())
+                .baseline(baselineSum)
+                .simulated(simulatedSum)
+                .delta(subtract(simulatedSum, baselineSum))
+                .employees(employees)
+                .build();
+    }
+
+    @Override
+    public void evictDataset(YearMonth period) {
+        datasetCache.invalidate(TenantContext.getCurrentTenant(), period);
+    }
+
+    @Override
+    public void evictDatasets(LocalDate fromDate, LocalDate toDate) {
+        String tenantDomain = TenantContext.getCurrentTenant();
+        for (YearMonth period = YearMonth.from(fromDate); !period.isAfter(YearMonth.from(toDate));
+                period = period.plusMonths(1)) {
+            datasetCache.invalidate(tenantDomain, period);
+        }
+    }
+
+    // ==================== Load dataset ====================
+
+    /**
+     * Load toàn bộ dữ liệu kỳ bằng một số truy vấn cố định (không phụ thuộc số nhân viên)
+     */
+    private PayrollPeriodDataset loadDataset(YearMonth period) {
+        long start = System.currentTimeMillis();
+        LocalDate startDate = period.atDay(1);
+        LocalDate endDate = period.atEndOfMonth();
+
+        PayrollConfig payrollConfig = companySettingsService.getPayrollConfig();
+        OvertimeConfig overtimeConfig = companySettingsService.getOvertimeConfig();
+        AllowanceConfig allowanceConfig = companySettingsService.getAllowanceConfig();
+        DeductionConfig deductionConfig = companySettingsService.getDeductionConfig();
+        BreakConfig breakConfig = companySettingsService.getBreakConfig();
+
+        List<UserEntity> users = userRepository.findByDeletedFalse();
+
+        // Lương có hiệu lực cuối kỳ: lấy bản ghi mới nhất của mỗi nhân viên
+        Map<Long, EmployeeSalaryEntity> salaries = new HashMap<>();
+        for (EmployeeSalaryEntity salary : employeeSalaryRepository.findAllEffectiveSalaries(endDate)) {
+            salaries.putIfAbsent(salary.getEmployeeId(), salary);
+        }
+
+        // Chấm công theo nhân viên (giữ thứ tự ngày mới nhất trước như previewPayroll)
+        Map<Long, List<AttendanceRecordEntity>> attendanceByEmployee = attendanceRecordRepository
+                .findAllByWorkDateBetween(startDate, endDate).stream()
+                .collect(Collectors.groupingBy(AttendanceRecordEntity::getEmployeeId));
+
+        // Giải lao theo bản ghi chấm công và theo (nhân viên, ngày)
+        List<BreakRecordEntity> breakRecords = breakRecordRepository.findByWorkDateBetween(startDate, endDate);
+        Map<Long, List<BreakRecordEntity>> breaksByAttendance = new HashMap<>();
+        Map<String, List<BreakRecordEntity>> breaksByEmployeeDate = new HashMap<>();
+        for (BreakRecordEntity breakRecord : breakRecords) {
+            if (breakRecord.getAttendanceRecordId() != null) {
+                breaksByAttendance.computeIfAbsent(breakRecord.getAttendanceRecordId(), k -> new ArrayList<>())
+                        .add(breakRecord);
+            }
+            breaksByEmployeeDate.computeIfAbsent(
+                    employeeDateKey(breakRecord.getEmployeeId(), breakRecord.getWorkDate()),
+                    k -> new ArrayList<>()).add(breakRecord);
+        }
+
+        Set<LocalDate> holidays = holidayRepository.findByDateBetween(startDate, endDate).stream()
+                .map(HolidayEntity::getDate)
+                .collect(Collectors.toSet());
+
+        List<PayrollPeriodDataset.EmployeeData> employees = new ArrayList<>();
+        for (UserEntity user : users) {
+            EmployeeSalaryEntity salary = salaries.get(user.getId());
+            if (salary == null) {
+                continue;
+            }
+
+            EmployeeSalaryInfo salaryInfo = EmployeeSalaryInfo.builder()
+                    .salaryType(salary.getSalaryType())
+                    .monthlySalary(salary.getMonthlySalary())
+                    .dailyRate(salary.getDailyRate())
+                    .hourlyRate(salary.getHourlyRate())
+                    .build();
+
+            List<AttendanceRecordEntity> records = attendanceByEmployee.getOrDefault(user.getId(), List.of());
+            AttendanceSummary summary = payrollAttendanceSupport.buildAttendanceSummary(records,
+                    id -> breaksByAttendance.getOrDefault(id, List.of()), breakConfig);
+            List<PayrollPeriodDataset.OvertimeDay> overtimeDays = payrollAttendanceSupport.buildOvertimeDays(records,
+                    (employeeId, date) -> breaksByEmployeeDate.getOrDefault(employeeDateKey(employeeId, date),
+                            List.of()),
+                    holidays::contains);
+            List<DailyOvertimeDetail> baselineDetails =
+                    payrollAttendanceSupport.buildDailyDetails(overtimeDays, overtimeConfig);
+
+            PayrollResult baselineResult = payrollCalculator.calculatePayroll(
+                    salaryInfo, summary, baselineDetails,
+                    payrollConfig, overtimeConfig, allowanceConfig, deductionConfig);
+
+            employees.add(PayrollPeriodDataset.EmployeeData.builder()
+                    .employeeId(user.getId())
+                    .employeeName(user.getProfile() != null ? user.getProfile().getName() : user.getEmail())
+                    .employeeCode(user.getEmployeeCode())
+                    .salaryInfo(salaryInfo)
+                    .attendanceSummary(summary)
+                    .overtimeDays(overtimeDays)
+                    .baselineDailyDetails(baselineDetails)
+                    .baselineResult(baselineResult)
+                    .build());
+        }
+
+        log.info("Đã load dữ liệu mô phỏng lương kỳ {}: {} nhân viên, {} bản ghi giải lao trong {} ms",
+                period, employees.size(), breakRecords.size(), System.currentTimeMillis() - start);
+
+        return PayrollPeriodDataset.builder()
+                .period(period)
+                .loadedAt(LocalDateTime.now())
+                .payrollConfig(payrollConfig)
+                .overtimeConfig(overtimeConfig)
+                .allowanceConfig(allowanceConfig)
+                .deductionConfig(deductionConfig)
+                .breakConfig(breakConfig)
+                .employees(employees)
+                .build();
+    }
+
+    // ==================== Helpers ====================
+
+    private boolean sameNightWindow(OvertimeConfig candidate, OvertimeConfig baseline) {
+        if (candidate == baseline) {
+            return true;
+        }
+        if (candidate == null || baseline == null) {
+            return false;
+        }
+        return Objects.equals(candidate.getNightStartTime(), baseline.getNightStartTime())
+                && Objects.equals(candidate.getNightEndTime(), baseline.getNightEndTime());
+    }
+
+    private PayrollSimulationResponse.Totals toTotals(PayrollResult result) {
+        return PayrollSimulationResponse.Totals.builder()
+                .baseSalary(nullToZero(result.getBaseSalary()))
+                .overtimePay(nullToZero(result.getTotalOvertimePay()))
+                .allowances(nullToZero(result.getTotalAllowances()))
+                .deductions(nullToZero(result.getTotalDeductions()))
+                .grossSalary(nullToZero(result.getGrossSalary()))
+                .netSalary(nullToZero(result.getNetSalary()))
+                .build();
+    }
+
+    private PayrollSimulationResponse.Totals subtract(
+            PayrollSimulationResponse.Totals a, PayrollSimulationResponse.Totals b) {
+        return PayrollSimulationResponse.Totals.builder()
+                .baseSalary(a.getBaseSalary().subtract(b.getBaseSalary()))
+                .overtimePay(a.getOvertimePay().subtract(b.getOvertimePay()))
+                .allowances(a.getAllowances().subtract(b.getAllowances()))
+                .deductions(a.getDeductions().subtract(b.getDeductions()))
+                .grossSalary(a.getGrossSalary().subtract(b.getGrossSalary()))
+                .netSalary(a.getNetSalary().subtract(b.getNetSalary()))
+                .build();
+    }
+
+    private String employeeDateKey(Long employeeId, LocalDate date) {
+        return employeeId + ":" + date;
+    }
+
+    private BigDecimal nullToZero(BigDecimal value) {
+        return value != null ? value : BigDecimal.ZERO;
+    }
+
+    /**
+     * Cộng dồn tổng các khoản lương
+     */
+    private class TotalsAccumulator {
+        private BigDecimal baseSalary = BigDecimal.ZERO;
+        private BigDecimal overtimePay = BigDecimal.ZERO;
+        private BigDecimal allowances = BigDecimal.ZERO;
+        private BigDecimal deductions = BigDecimal.ZERO;
+        private BigDecimal grossSalary = BigDecimal.ZERO;
+        private BigDecimal netSalary = BigDecimal.ZERO;
+
+        void add(PayrollResult result) {
+            baseSalary = baseSalary.add(nullToZero(result.getBaseSalary()));
+            overtimePay = overtimePay.add(nullToZero(result.getTotalOvertimePay()));
+            allowances = allowances.add(nullToZero(result.getTotalAllowances()));
+            deductions = deductions.add(nullToZero(result.getTotalDeductions()));
+            grossSalary = grossSalary.add(nullToZero(result.getGrossSalary()));
+            netSalary = netSalary.add(nullToZero(result.getNetSalary()));
+        }
+
+        PayrollSimulationResponse.Totals toTotals() {
+            return PayrollSimulationResponse.Totals.builder()
+                    .baseSalary(baseSalary)
+                    .overtimePay(overtimePay)
+                    .allowances(allowances)
+                    .deductions(deductions)
+                    .grossSalary(grossSalary)
+                    .netSalary(netSalary)
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,381 @@
+package com.tamabee.api_hr.service.company.impl;
+
+import com.tamabee.api_hr.datasource.TenantContext;
+import com.tamabee.api_hr.dto.response.attendance.PresenceBoardResponse;
+import com.tamabee.api_hr.dto.response.attendance.PresenceEventResponse;
+import com.tamabee.api_hr.enums.PresenceStatus;
+import com.tamabee.api_hr.service.company.cache.PresenceBoard;
+import com.tamabee.api_hr.service.company.interfaces.IPresenceService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Service implementation bảng hiện diện trong ngày.
+ *
+ * Mỗi tenant có một {@link PresenceBoard} cho hôm nay, nạp từ attendance_records/break_records khi có người
+ * xem lần đầu, sau đó được cập nhật bởi các thao tác ghi chấm công (check-in/out, giải lao, điều chỉnh,
+ * nhập punch): thao tác ghi đọc trạng thái mới của nhân viên trong transaction, áp dụng vào bảng sau commit
+ * và đẩy sự kiện tới các dashboard đang kết nối. Tenant chưa có ai xem thì refresh không truy vấn gì.
+ *
+ * Gửi SSE (kể cả heartbeat) chạy trên thread fan-out riêng để client chậm không giữ request chấm công hay
+ * thread scheduler. Bảng chỉ thấy thao tác ghi trên node này; heartbeat nạp lại bảng sau ttl-seconds (và khi
+ * sang ngày mới) để bù thay đổi từ node khác hoặc SQL tay, rồi gửi lại "snapshot". Bảng của tenant không còn
+ * kết nối SSE và không được đọc trong idle-eviction-seconds bị bỏ khỏi bộ nhớ.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PresenceServiceImpl implements IPresenceService {
+
+    static final String SNAPSHOT_EVENT = "snapshot";
+    static final String PRESENCE_EVENT = "presence";
+
+    // Trạng thái của nhân viên đã check-in trong ngày; break đang mở = đang giải lao
+    private static final String SELECT_PRESENCE_SQL = """
+            SELECT r.employee_id,
+                r.original_check_out IS NOT NULL AS checked_out,
+                COALESCE(r.late_minutes, 0) > 0 AS late,
+                EXISTS (SELECT 1 FROM break_records b
+                    WHERE b.attendance_record_id = r.id AND b.work_date = r.work_date
+                      AND b.break_start IS NOT NULL AND b.break_end IS NULL) AS on_break
+            FROM attendance_records r
+            WHERE r.work_date = ? AND r.original_check_in IS NOT NULL
+            """;
+
+    private static final String SELECT_EMPLOYEES_PRESENCE_SQL = SELECT_PRESENCE_SQL
+            + "  AND r.employee_id = ANY(?)\n";
+
+    @Qualifier("tenantJdbcTemplate")
+    private final JdbcTemplate tenantJdbcTemplate;
+
+    @Value("${attendance.presence.ttl-seconds:300}")
+    private long ttlSeconds;
+
+    @Value("${attendance.presence.emitter-timeout-ms:1800000}")
+    private long emitterTimeoutMs;
+
+    @Value("${attendance.presence.idle-eviction-seconds:900}")
+    private long idleEvictionSeconds;
+
+    private final Map<String, TenantPresence> tenants = new ConcurrentHashMap<>();
+    private ExecutorService fanOutExecutor;
+
+    private record Presence(PresenceStatus status, boolean late) {
+    }
+
+    /**
+     * Bảng và các kết nối SSE của một tenant
+     */
+    private static final class TenantPresence {
+        private final List<SseEmitter> emitters = new CopyOnWriteArrayList<>();
+        private volatile PresenceBoard board;
+        private volatile long loadedAtNanos;
+        // Lần cuối có người đọc bảng hoặc còn kết nối SSE
+        private volatile long lastAccessNanos = System.nanoTime();
+        // Heartbeat đã xếp hàng trên thread fan-out nhưng chưa chạy
+        private final AtomicBoolean heartbeatPending = new AtomicBoolean();
+    }
+
+    @PostConstruct
+    void start() {
+        fanOutExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "presence-fan-out");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void stop() {
+        fanOutExecutor.shutdown();
+        for (TenantPresence tenant : tenants.values()) {
+            tenant.emitters.forEach(SseEmitter::complete);
+        }
+    }
+
+    // ==================== Board ====================
+
+    @Override
+    @Transactional(readOnly = true)
+    public PresenceBoardResponse getBoard() {
+        TenantPresence tenant = access(TenantContext.getCurrentTenant());
+        return toResponse(currentBoard(tenant));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public SseEmitter subscribe() {
+        String tenantDomain = TenantContext.getCurrentTenant();
+        TenantPresence tenant = access(tenantDomain);
+        PresenceBoard board = currentBoard(tenant);
+
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMs);
+        emitter.onCompletion(() -> tenant.emitters.remove(emitter));
+        emitter.onTimeout(() -> tenant.emitters.remove(emitter));
+        emitter.onError(error -> tenant.emitters.remove(emitter));
+        tenant.emitters.add(emitter);
+
+        // Gửi trước khi trả về: SseEmitter giữ lại sự kiện tới khi response được khởi tạo
+        send(tenant, emitter, snapshotEvent(board));
+        log.debug("Dashboard kết nối bảng hiện diện tenant {}: {} kết nối", tenantDomain, tenant.emitters.size());
+        return emitter;
+    }
+
+    /**
+     * Lấy (hoặc tạo) trạng thái của tenant và đánh dấu vừa được đọc; cập nhật trong compute để không
+     * bị heartbeat bỏ giữa chừng
+     */
+    private TenantPresence access(String tenantDomain) {
+        return tenants.compute(tenantDomain, (key, tenant) -> {
+            TenantPresence current = tenant != null ? tenant : new TenantPresence();
+            current.lastAccessNanos = System.nanoTime();
+            return current;
+        });
+    }
+
+    /**
+     * Bảng hôm nay của tenant, nạp lại nếu chưa có, đã sang ngày mới hoặc hết hạn
+     */
+    private PresenceBoard currentBoard(TenantPresence tenant) {
+        PresenceBoard board = tenant.board;
+        if (board != null && !isStale(tenant, board)) {
+            return board;
+        }
+        synchronized (tenant) {
+            board = tenant.board;
+            if (board == null || isStale(tenant, board)) {
+                board = loadBoard(LocalDate.now());
+                tenant.board = board;
+                tenant.loadedAtNanos = System.nanoTime();
+            }
+            return board;
+        }
+    }
+
+    private boolean isStale(TenantPresence tenant, PresenceBoard board) {
+        return !board.getWorkDate().equals(LocalDate.now())
+                || System.nanoTime() - tenant.loadedAtNanos > TimeUnit.SECONDS.toNanos(ttlSeconds);
+    }
+
+    private PresenceBoard loadBoard(LocalDate workDate) {
+        PresenceBoard board = new PresenceBoard(workDate);
+        tenantJdbcTemplate.query(SELECT_PRESENCE_SQL, rs -> {
+            Presence presence = toPresence(rs);
+            board.apply(rs.getLong("employee_id"), presence.status(), presence.late());
+        }, workDate);
+        return board;
+    }
+
+    // ==================== Refresh ====================
+
+    @Override
+    public void refresh(Long employeeId, LocalDate workDate) {
+        refresh(List.of(employeeId), workDate);
+    }
+
+    @Override
+    public void refresh(Collection<Long> employeeIds, LocalDate workDate) {
+        if (employeeIds.isEmpty() || !LocalDate.now().equals(workDate)) {
+            return;
+        }
+        TenantPresence tenant = tenants.get(TenantContext.getCurrentTenant());
+        if (tenant == null || tenant.board == null) {
+            // Chưa ai xem bảng: lần nạp đầu tiên đọc thẳng từ DB
+            return;
+        }
+
+        Long[] ids = employeeIds.stream().filter(Objects::nonNull).distinct().toArray(Long[]::new);
+        // Đọc sau khi commit: thấy thay đổi JPA chưa flush và không giữ kết quả của transaction bị rollback
+        Runnable reload = () -> applyChanges(tenant, workDate, loadStates(ids, workDate));
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    reload.run();
+                }
+            });
+        } else {
+            reload.run();
+        }
+    }
+
+    /**
+     * Đọc trạng thái hiện tại của các nhân viên (không có bản ghi = null)
+     */
+    private Map<Long, Presence> loadStates(Long[] ids, LocalDate workDate) {
+        Map<Long, Presence> states = new LinkedHashMap<>();
+        for (Long id : ids) {
+            states.put(id, null);
+        }
+        tenantJdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(SELECT_EMPLOYEES_PRESENCE_SQL);
+            ps.setDate(1, Date.valueOf(workDate));
+            ps.setArray(2, connection.createArrayOf("bigint", ids));
+            return ps;
+        }, rs -> {
+            states.put(rs.getLong("employee_id"), toPresence(rs));
+        });
+        return states;
+    }
+
+    private void applyChanges(TenantPresence tenant, LocalDate workDate, Map<Long, Presence> states) {
+        PresenceBoard board = tenant.board;
+        if (board == null || !board.getWorkDate().equals(workDate)) {
+            return;
+        }
+        List<PresenceEventResponse> events = new ArrayList<>();
+        states.forEach((employeeId, presence) -> {
+            PresenceStatus status = presence != null ? presence.status() : null;
+            boolean late = presence != null && presence.late();
+            if (board.apply(employeeId, status, late)) {
+                events.add(PresenceEventResponse.builder()
+                        .employeeId(employeeId)
+                        .status(status)
+                        .late(late)
+                        .board(toResponse(board))
+                        .build());
+            }
+        });
+        if (events.isEmpty() || tenant.emitters.isEmpty()) {
+            return;
+        }
+        try {
+            fanOutExecutor.execute(() -> {
+                for (PresenceEventResponse event : events) {
+                    broadcast(tenant, () -> SseEmitter.event().name(PRESENCE_EVENT)
+                            .data(event, MediaType.APPLICATION_JSON));
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Đang tắt ứng dụng
+            log.debug("Bỏ qua sự kiện hiện diện khi đang tắt ứng dụng");
+        }
+    }
+
+    // ==================== Heartbeat ====================
+
+    /**
+     * Giữ kết nối SSE qua proxy và nạp lại bảng đã hết hạn/sang ngày mới của các tenant đang có người xem.
+     * Việc gửi và nạp lại chạy trên thread fan-out; tenant không còn ai xem quá lâu thì bỏ bảng.
+     */
+    @Scheduled(fixedDelayString = "${attendance.presence.heartbeat-ms:25000}")
+    public void heartbeat() {
+        long now = System.nanoTime();
+        long idleNanos = TimeUnit.SECONDS.toNanos(idleEvictionSeconds);
+        for (Map.Entry<String, TenantPresence> entry : tenants.entrySet()) {
+            String tenantDomain = entry.getKey();
+            TenantPresence tenant = entry.getValue();
+            if (tenant.emitters.isEmpty()) {
+                tenants.computeIfPresent(tenantDomain, (key, current) ->
+                        current.emitters.isEmpty() && now - current.lastAccessNanos > idleNanos ? null : current);
+                continue;
+            }
+            tenant.lastAccessNanos = now;
+            // Heartbeat trước chưa gửi xong (client chậm): không xếp thêm
+            if (!tenant.heartbeatPending.compareAndSet(false, true)) {
+                continue;
+            }
+            try {
+                fanOutExecutor.execute(() -> {
+                    tenant.heartbeatPending.set(false);
+                    sendHeartbeat(tenantDomain, tenant);
+                });
+            } catch (RejectedExecutionException e) {
+                // Đang tắt ứng dụng
+                tenant.heartbeatPending.set(false);
+                return;
+            }
+        }
+    }
+
+    private void sendHeartbeat(String tenantDomain, TenantPresence tenant) {
+        PresenceBoard board = tenant.board;
+        if (board != null && !isStale(tenant, board)) {
+            broadcast(tenant, () -> SseEmitter.event().comment("ping"));
+            return;
+        }
+        try {
+            TenantContext.setCurrentTenant(tenantDomain);
+            PresenceBoard reloaded = currentBoard(tenant);
+            broadcast(tenant, () -> snapshotEvent(reloaded));
+        } catch (Exception e) {
+            log.error("Lỗi nạp lại bảng hiện diện cho tenant {}: {}", tenantDomain, e.getMessage(), e);
+        } finally {
+            TenantContext.clear();
+        }
+    }
+
+    // ==================== Helpers ====================
+
+    // SseEventBuilder không dùng lại được sau khi gửi nên mỗi kết nối build một lần
+    private void broadcast(TenantPresence tenant, Supplier<SseEmitter.SseEventBuilder> event) {
+        for (SseEmitter emitter : tenant.emitters) {
+            send(tenant, emitter, event.get());
+        }
+    }
+
+    private void send(TenantPresence tenant, SseEmitter emitter, SseEmitter.SseEventBuilder event) {
+        try {
+            emitter.send(event);
+        } catch (IOException | IllegalStateException e) {
+            // Client đã ngắt kết nối hoặc emitter đã hết hạn
+            tenant.emitters.remove(emitter);
+            emitter.completeWithError(e);
+        }
+    }
+
+    private static SseEmitter.SseEventBuilder snapshotEvent(PresenceBoard board) {
+        return SseEmitter.event().name(SNAPSHOT_EVENT).data(toResponse(board), MediaType.APPLICATION_JSON);
+    }
+
+    private static Presence toPresence(ResultSet rs) throws SQLException {
+        PresenceStatus status = rs.getBoolean("checked_out") ? PresenceStatus.CHECKED_OUT
+                : rs.getBoolean("on_break") ? PresenceStatus.ON_BREAK
+                        : PresenceStatus.CHECKED_IN;
+        return new Presence(status, rs.getBoolean("late"));
+    }
+
+    private static PresenceBoardResponse toResponse(PresenceBoard board) {
+        PresenceBoard.Counts counts = board.counts();
+        return PresenceBoardResponse.builder()
+                .workDate(board.getWorkDate())
+                .checkedIn(counts.checkedIn())
+                .onBreak(counts.onBreak())
+                .checkedOut(counts.checkedOut())
+                .late(counts.late())
+                .build();
+    }
+}
@@ -0,0 +1,1008 @@
+package com.tamabee.api_hr.service.company.impl;
+
+import com.tamabee.api_hr.dto.config.AttendanceConfig;
+import com.tamabee.api_hr.dto.config.BreakConfig;
+import com.tamabee.api_hr.dto.request.attendance.BatchPunchRequest;
+import com.tamabee.api_hr.dto.request.attendance.PunchEventRequest;
+import com.tamabee.api_hr.dto.response.attendance.PunchIngestionResult;
+import com.tamabee.api_hr.dto.response.schedule.WorkScheduleResponse;
+import com.tamabee.api_hr.dto.result.PunchOutcome;
+import com.tamabee.api_hr.entity.attendance.AttendanceRecordEntity;
+import com.tamabee.api_hr.entity.attendance.BreakRecordEntity;
+import com.tamabee.api_hr.entity.user.UserEntity;
+import com.tamabee.api_hr.enums.AttendanceStatus;
+import com.tamabee.api_hr.enums.ErrorCode;
+import com.tamabee.api_hr.enums.PunchType;
+import com.tamabee.api_hr.exception.BadRequestException;
+import com.tamabee.api_hr.exception.ConflictException;
+import com.tamabee.api_hr.repository.user.UserRepository;
+import com.tamabee.api_hr.service.calculator.interfaces.IAttendanceRecordCalculator;
+import com.tamabee.api_hr.service.calculator.interfaces.ITimeRoundingCalculator;
+import com.tamabee.api_hr.service.company.interfaces.IAttendanceAggregateService;
+import com.tamabee.api_hr.service.company.interfaces.IAttendanceService;
+import com.tamabee.api_hr.service.company.interfaces.ICompanySettingsService;
+import com.tamabee.api_hr.service.company.interfaces.IPresenceService;
+import com.tamabee.api_hr.service.company.interfaces.IPunchIngestionService;
+import com.tamabee.api_hr.service.company.interfaces.IWorkScheduleService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.BeanPropertyRowMapper;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Service implementation nhập punch hàng loạt từ kiosk/thiết bị chấm công.
+ *
+ * Luồng xử lý trong một transaction:
+ * 1. Giữ chỗ khóa idempotency bằng một câu INSERT ... ON CONFLICT DO NOTHING RETURNING,
+ * khóa đã có (lần gửi trước, kể cả đang được request khác xử lý) bị bỏ qua
+ * 2. Đọc một lần các bản ghi chấm công/giải lao liên quan (khóa FOR UPDATE)
+ * 3. Áp dụng punch theo thứ tự thời gian cho từng nhân viên trên bộ nhớ,
+ * cùng quy tắc với check-in/check-out/giải lao từng lần
+ * 4. Tính lại mỗi bản ghi bị ảnh hưởng một lần và ghi bằng JDBC batch; bản ghi mới trùng ngày với
+ * check-in trực tiếp vừa commit được bỏ qua (ON CONFLICT DO NOTHING) và punch của ngày đó áp dụng lại
+ * lên bản ghi đã có
+ * 5. Tính lại tổng hợp tháng của các nhân viên bị ảnh hưởng
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PunchIngestionServiceImpl implements IPunchIngestionService {
+
+    // Cho phép đồng hồ thiết bị lệch so với server
+    private static final long MAX_CLOCK_SKEW_MINUTES = 5;
+
+    private final UserRepository userRepository;
+    private final ICompanySettingsService companySettingsService;
+    private final IWorkScheduleService workScheduleService;
+    private final IAttendanceService attendanceService;
+    private final ITimeRoundingCalculator timeRoundingCalculator;
+    private final IAttendanceRecordCalculator attendanceRecordCalculator;
+    private final IAttendanceAggregateService attendanceAggregateService;
+    private final IPresenceService presenceService;
+
+    @Qualifier("tenantJdbcTemplate")
+    private final JdbcTemplate tenantJdbcTemplate;
+
+    @Value("${attendance.punch-ingestion.max-events:10000}")
+    private int maxEvents;
+
+    private static final String CLAIM_EVENTS_SQL = """
+            INSERT INTO punch_events (idempotency_key, employee_id, punch_type, punched_at,
+                                      device_id, latitude, longitude)
+            SELECT * FROM unnest(?::varchar[], ?::bigint[], ?::varchar[], ?::timestamp[],
+                                 ?::varchar[], ?::float8[], ?::float8[])
+            ON CONFLICT (idempotency_key) DO NOTHING
+            RETURNING idempotency_key
+            """;
+
+    private static final String RECORD_OUTCOMES_SQL = """
+            UPDATE punch_events p
+            SET attendance_record_id = v.record_id, error_code = v.error_code
+            FROM unnest(?::varchar[], ?::bigint[], ?::varchar[]) AS v(idempotency_key, record_id, error_code)
+            WHERE p.idempotency_key = v.idempotency_key
+            """;
+
+    private static final String SELECT_RECORDS_SQL = """
+            SELECT * FROM attendance_records
+            WHERE employee_id = ANY(?) AND work_date BETWEEN ? AND ?
+            FOR UPDATE
+            """;
+
+    private static final String SELECT_BREAKS_SQL = """
+            SELECT * FROM break_records
+            WHERE attendance_record_id = ANY(?) AND work_date BETWEEN ? AND ?
+            ORDER BY attendance_record_id, break_number
+            """;
+
+    private static final String NEXT_RECORD_IDS_SQL =
+            "SELECT nextval('attendance_records_id_seq') FROM generate_series(1, ?)";
+
+    // Check-in trực tiếp có thể tạo bản ghi cùng ngày trong lúc batch đang xử lý:
+    // dòng trùng bị bỏ qua (không làm hỏng cả batch), RETURNING cho biết dòng nào đã được ghi
+    private static final String INSERT_RECORDS_SQL = """
+            INSERT INTO attendance_records (id, employee_id, work_date,
+                original_check_in, original_check_out, rounded_check_in, rounded_check_out,
+                working_minutes, overtime_minutes, late_minutes, early_leave_minutes,
+                total_break_minutes, effective_break_minutes, break_type, break_compliant, status,
+                check_in_device_id, check_out_device_id, check_in_latitude, check_in_longitude,
+                check_out_latitude, check_out_longitude, created_at, updated_at)
+            SELECT v.*, ?::timestamp, ?::timestamp
+            FROM unnest(?::bigint[], ?::bigint[], ?::date[],
+                        ?::timestamp[], ?::timestamp[], ?::timestamp[], ?::timestamp[],
+                        ?::integer[], ?::integer[], ?::integer[], ?::integer[],
+                        ?::integer[], ?::integer[], ?::varchar[], ?::boolean[], ?::varchar[],
+                        ?::varchar[], ?::varchar[], ?::float8[], ?::float8[],
+                        ?::float8[], ?::float8[]) AS v
+            ON CONFLICT (employee_id, work_date) DO NOTHING
+            RETURNING id
+            """;
+
+    private static final String SELECT_CONFLICTING_RECORDS_SQL = """
+            SELECT r.* FROM attendance_records r
+            JOIN unnest(?::bigint[], ?::date[]) AS v(employee_id, work_date)
+              ON r.employee_id = v.employee_id AND r.work_date = v.work_date
+            FOR UPDATE OF r
+            """;
+
+    private static final String UPDATE_RECORD_SQL = """
+            UPDATE attendance_records
+            SET original_check_out = ?, rounded_check_out = ?,
+                working_minutes = ?, overtime_minutes = ?, late_minutes = ?, early_leave_minutes = ?,
+                total_break_minutes = ?, effective_break_minutes = ?, break_type = ?, break_compliant = ?,
+                check_out_device_id = ?, check_out_latitude = ?, check_out_longitude = ?, updated_at = ?
+            WHERE id = ? AND work_date = ?
+            """;
+
+    private static final String INSERT_BREAK_SQL = """
+            INSERT INTO break_records (attendance_record_id, employee_id, work_date, break_number,
+                break_start, break_end, actual_break_minutes, effective_break_minutes, created_at, updated_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private static final String UPDATE_BREAK_SQL = """
+            UPDATE break_records
+            SET break_end = ?, actual_break_minutes = ?, effective_break_minutes = ?, updated_at = ?
+            WHERE id = ? AND work_date = ?
+            """;
+
+    /**
+     * Trạng thái một ngày làm việc của nhân viên trong lúc áp dụng punch
+     */
+    private static final class DayState {
+        private final AttendanceRecordEntity record;
+        private final List<BreakRecordEntity> breaks;
+        private final boolean created;
+        private final List<BreakRecordEntity> endedBreaks = new ArrayList<>();
+        private boolean touched;
+
+        private DayState(AttendanceRecordEntity record, List<BreakRecordEntity> breaks, boolean created) {
+            this.record = record;
+            this.breaks = breaks;
+            this.created = created;
+        }
+
+        private boolean isCheckedInBy(LocalDateTime time) {
+            return record.getOriginalCheckIn() != null && !record.getOriginalCheckIn().isAfter(time);
+        }
+
+        private BreakRecordEntity activeBreak() {
+            for (BreakRecordEntity breakRecord : breaks) {
+                if (breakRecord.getBreakEnd() == null) {
+                    return breakRecord;
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Kết quả xử lý một lượt punch
+     *
+     * @param rejectedEvents punch bị từ chối theo thứ tự áp dụng
+     */
+    private record Batch(int received, int accepted, Map<String, Long> recordIds, Map<String, ErrorCode> errors,
+            List<PunchEventRequest> rejectedEvents, int affectedRecords) {
+    }
+
+    @Override
+    @Transactional
+    public PunchIngestionResult ingest(BatchPunchRequest request) {
+        List<PunchEventRequest> events = request.getEvents();
+        if (events.size() > maxEvents) {
+            throw new BadRequestException(
+                    String.format("Tối đa %d punch mỗi lần gửi", maxEvents), ErrorCode.INVALID_REQUEST);
+        }
+
+        Batch batch = process(events);
+
+        List<PunchIngestionResult.RejectedPunch> rejected = batch.rejectedEvents().stream()
+                .map(event -> {
+                    ErrorCode error = batch.errors().get(event.getIdempotencyKey());
+                    return PunchIngestionResult.RejectedPunch.builder()
+                            .idempotencyKey(event.getIdempotencyKey())
+                            .employeeId(event.getEmployeeId())
+                            .punchType(event.getPunchType())
+                            .errorCode(error.getCode())
+                            .reason(error.getMessage())
+                            .build();
+                })
+                .toList();
+
+        return PunchIngestionResult.builder()
+                .totalReceived(batch.received())
+                .appliedCount(batch.recordIds().size())
+                .duplicateCount(batch.received() - batch.accepted())
+                .rejectedCount(rejected.size())
+                .affectedRecordCount(batch.affectedRecords())
+                .rejectedPunches(rejected)
+                .build();
+    }
+
+    @Override
+    @Transactional
+    public Map<String, PunchOutcome> ingestEvents(List<PunchEventRequest> events) {
+        Batch batch = process(events);
+
+        Map<String, PunchOutcome> outcomes = new HashMap<>();
+        for (PunchEventRequest event : events) {
+            String key = event.getIdempotencyKey();
+            Long recordId = batch.recordIds().get(key);
+            ErrorCode error = batch.errors().get(key);
+            outcomes.put(key, PunchOutcome.builder()
+                    .attendanceRecordId(recordId)
+                    .error(error)
+                    .duplicate(recordId == null && error == null)
+                    .build());
+        }
+        return outcomes;
+    }
+
+    private Batch process(List<PunchEventRequest> events) {
+        // Gộp trùng khóa trong cùng lượt (giữ punch đầu tiên)
+        Map<String, PunchEventRequest> byKey = new LinkedHashMap<>();
+        for (PunchEventRequest event : events) {
+            byKey.putIfAbsent(event.getIdempotencyKey(), event);
+        }
+
+        Set<String> claimed = claimEvents(byKey.values());
+        List<PunchEventRequest> accepted = byKey.values().stream()
+                .filter(event -> claimed.contains(event.getIdempotencyKey()))
+                .toList();
+
+        Map<String, Long> recordIdsByKey = new HashMap<>();
+        Map<String, ErrorCode> errorsByKey = new HashMap<>();
+        List<PunchEventRequest> rejectedEvents = new ArrayList<>();
+        List<DayState> touched = new ArrayList<>();
+
+        if (!accepted.isEmpty()) {
+            AttendanceConfig config = companySettingsService.getAttendanceConfig();
+            BreakConfig breakConfig = companySettingsService.getBreakConfig();
+            Map<Long, TreeMap<LocalDate, DayState>> days = loadDays(accepted);
+            Set<Long> activeEmployeeIds = loadActiveEmployeeIds(days.keySet());
+
+            // Áp dụng theo thứ tự thời gian; punch cùng thời điểm theo thứ tự PunchType
+            List<PunchEventRequest> ordered = new ArrayList<>(accepted);
+            ordered.sort(Comparator.comparing(PunchEventRequest::getEmployeeId)
+                    .thenComparing(PunchEventRequest::getPunchedAt)
+                    .thenComparing(PunchEventRequest::getPunchType)
+                    .thenComparing(PunchEventRequest::getIdempotencyKey));
+
+            LocalDateTime latestAllowed = LocalDateTime.now().plusMinutes(MAX_CLOCK_SKEW_MINUTES);
+            Map<String, DayState> stateByKey = new LinkedHashMap<>();
+
+            for (PunchEventRequest event : ordered) {
+                TreeMap<LocalDate, DayState> employeeDays = days.get(event.getEmployeeId());
+                ErrorCode error;
+                DayState state = null;
+                if (!activeEmployeeIds.contains(event.getEmployeeId())) {
+                    error = ErrorCode.USER_NOT_FOUND;
+                } else if (event.getPunchedAt().isAfter(latestAllowed)) {
+                    error = ErrorCode.INVALID_ATTENDANCE_TIME;
+                } else {
+                    error = validateDeviceAndLocation(event, config);
+                    if (error == null) {
+                        state = event.getPunchType() == PunchType.CHECK_IN
+                                ? employeeDays.get(event.getPunchedAt().toLocalDate())
+                                : findOpenDay(employeeDays, event.getPunchedAt());
+                        error = apply(event, employeeDays, state, config, breakConfig);
+                        if (error == null && state == null) {
+                            state = employeeDays.get(event.getPunchedAt().toLocalDate());
+                        }
+                    }
+                }
+
+                if (error != null) {
+                    errorsByKey.put(event.getIdempotencyKey(), error);
+                    rejectedEvents.add(event);
+                    continue;
+                }
+
+                if (!state.touched) {
+                    state.touched = true;
+                    touched.add(state);
+                }
+                stateByKey.put(event.getIdempotencyKey(), state);
+            }
+
+            recalculate(touched, config, breakConfig);
+            List<DayState> conflicted = insertCreatedRecords(touched);
+            if (!conflicted.isEmpty()) {
+                touched.removeAll(conflicted);
+                List<DayState> merged = reapplyConflicts(conflicted, stateByKey, byKey, days,
+                        errorsByKey, rejectedEvents, config, breakConfig);
+                recalculate(merged, config, breakConfig);
+                touched.addAll(merged);
+            }
+            writeStates(touched);
+            refreshAggregates(touched);
+            refreshPresence(touched);
+
+            // Id bản ghi mới chỉ có sau khi ghi
+            stateByKey.forEach((key, state) -> recordIdsByKey.put(key, state.record.getId()));
+        }
+
+        recordOutcomes(recordIdsByKey, errorsByKey);
+
+        log.info("Nhập {} punch: {} áp dụng, {} trùng, {} bị từ chối, {} bản ghi chấm công được tính lại",
+                events.size(), recordIdsByKey.size(), events.size() - accepted.size(), rejectedEvents.size(),
+                touched.size());
+
+        return new Batch(events.size(), accepted.size(), recordIdsByKey, errorsByKey, rejectedEvents,
+                touched.size());
+    }
+
+    /**
+     * Tính lại tổng hợp tháng cho các bản ghi bị ảnh hưởng, một lượt SQL mỗi tháng
+     */
+    private void refreshAggregates(List<DayState> touched) {
+        Map<YearMonth, Set<Long>> employeesByPeriod = new TreeMap<>();
+        for (DayState state : touched) {
+            employeesByPeriod.computeIfAbsent(YearMonth.from(state.record.getWorkDate()), period -> new HashSet<>())
+                    .add(state.record.getEmployeeId());
+        }
+        employeesByPeriod.forEach((period, employeeIds) -> attendanceAggregateService.refresh(employeeIds, period));
+    }
+
+    /**
+     * Cập nhật bảng hiện diện cho các nhân viên có bản ghi hôm nay bị ảnh hưởng
+     */
+    private void refreshPresence(List<DayState> touched) {
+        LocalDate today = LocalDate.now();
+        Set<Long> employeeIds = new HashSet<>();
+        for (DayState state : touched) {
+            if (today.equals(state.record.getWorkDate())) {
+                employeeIds.add(state.record.getEmployeeId());
+            }
+        }
+        presenceService.refresh(employeeIds, today);
+    }
+
+    // ==================== Apply ====================
+
+    /**
+     * Áp dụng một punch vào trạng thái ngày làm việc, trả về lỗi nếu punch không hợp lệ
+     */
+    private ErrorCode apply(PunchEventRequest event, TreeMap<LocalDate, DayState> employeeDays, DayState state,
+            AttendanceConfig config, BreakConfig breakConfig) {
+        LocalDateTime time = event.getPunchedAt();
+
+        switch (event.getPunchType()) {
+            case CHECK_IN -> {
+                // Mỗi ngày chỉ có một bản ghi chấm công
+                if (state != null) {
+                    return ErrorCode.ALREADY_CHECKED_IN;
+                }
+                AttendanceRecordEntity record = new AttendanceRecordEntity();
+                record.setEmployeeId(event.getEmployeeId());
+                record.setWorkDate(time.toLocalDate());
+                record.setOriginalCheckIn(time);
+                record.setRoundedCheckIn(roundCheckIn(time, config));
+                record.setStatus(AttendanceStatus.PRESENT);
+                record.setCheckInDeviceId(event.getDeviceId());
+                record.setCheckInLatitude(event.getLatitude());
+                record.setCheckInLongitude(event.getLongitude());
+                employeeDays.put(record.getWorkDate(), new DayState(record, new ArrayList<>(), true));
+                return null;
+            }
+            case CHECK_OUT -> {
+                if (state == null) {
+                    return ErrorCode.NOT_CHECKED_IN;
+                }
+                AttendanceRecordEntity record = state.record;
+                if (record.getOriginalCheckOut() != null) {
+                    return ErrorCode.ALREADY_CHECKED_OUT;
+                }
+                record.setOriginalCheckOut(time);
+                record.setRoundedCheckOut(roundCheckOut(time, config));
+                record.setCheckOutDeviceId(event.getDeviceId());
+                record.setCheckOutLatitude(event.getLatitude());
+                record.setCheckOutLongitude(event.getLongitude());
+                return null;
+            }
+            case BREAK_START -> {
+                if (breakConfig == null || !Boolean.TRUE.equals(breakConfig.getBreakEnabled())) {
+                    return ErrorCode.INVALID_BREAK_CONFIG;
+                }
+                if (state == null) {
+                    return ErrorCode.NOT_CHECKED_IN;
+                }
+                if (state.record.getOriginalCheckOut() != null) {
+                    return ErrorCode.ALREADY_CHECKED_OUT;
+                }
+                if (state.activeBreak() != null) {
+                    return ErrorCode.BREAK_ALREADY_ACTIVE;
+                }
+                int maxBreaks = breakConfig.getMaxBreaksPerDay() != null ? breakConfig.getMaxBreaksPerDay() : 3;
+                if (state.breaks.size() >= maxBreaks) {
+                    return ErrorCode.MAX_BREAKS_REACHED;
+                }
+
+                int nextBreakNumber = 1;
+                for (BreakRecordEntity breakRecord : state.breaks) {
+                    nextBreakNumber = Math.max(nextBreakNumber, breakRecord.getBreakNumber() + 1);
+                }
+                BreakRecordEntity breakRecord = new BreakRecordEntity();
+                breakRecord.setEmployeeId(event.getEmployeeId());
+                breakRecord.setWorkDate(state.record.getWorkDate());
+                breakRecord.setBreakNumber(nextBreakNumber);
+                breakRecord.setBreakStart(time);
+                state.breaks.add(breakRecord);
+                return null;
+            }
+            case BREAK_END -> {
+                if (state == null) {
+                    return ErrorCode.NOT_CHECKED_IN;
+                }
+                BreakRecordEntity breakRecord = state.activeBreak();
+                if (breakRecord == null || breakRecord.getBreakStart().isAfter(time)) {
+                    return ErrorCode.NO_ACTIVE_BREAK;
+                }
+                breakRecord.setBreakEnd(time);
+
+                int actualMinutes = (int) ChronoUnit.MINUTES.between(breakRecord.getBreakStart(), time);
+                breakRecord.setActualBreakMinutes(actualMinutes);
+                breakRecord.setEffectiveBreakMinutes(clampBreakMinutes(actualMinutes, breakConfig));
+                if (breakRecord.getId() != null) {
+                    state.endedBreaks.add(breakRecord);
+                }
+                return null;
+            }
+            default -> {
+                return ErrorCode.INVALID_REQUEST;
+            }
+        }
+    }
+
+    /**
+     * Tìm ngày làm việc đang mở tại thời điểm punch: bản ghi hôm đó đã check-in,
+     * hoặc bản ghi hôm trước chưa check-out (ca qua đêm)
+     */
+    private DayState findOpenDay(TreeMap<LocalDate, DayState> employeeDays, LocalDateTime time) {
+        DayState today = employeeDays.get(time.toLocalDate());
+        if (today != null && today.isCheckedInBy(time)) {
+            return today;
+        }
+        DayState previous = employeeDays.get(time.toLocalDate().minusDays(1));
+        if (previous != null && previous.isCheckedInBy(time) && previous.record.getOriginalCheckOut() == null) {
+            return previous;
+        }
+        return null;
+    }
+
+    /**
+     * Bản ghi mới của batch trùng (nhân viên, ngày) với bản ghi vừa được tạo bởi check-in trực tiếp
+     * hoặc batch khác: đọc lại bản ghi đã có (khóa FOR UPDATE) và áp dụng lại các punch của ngày đó lên nó.
+     * Check-in của batch bị từ chối (ALREADY_CHECKED_IN), các punch còn lại áp dụng như bình thường.
+     *
+     * @return trạng thái ngày đã áp dụng lại có ít nhất một punch hợp lệ
+     */
+    private List<DayState> reapplyConflicts(List<DayState> conflicted, Map<String, DayState> stateByKey,
+            Map<String, PunchEventRequest> byKey, Map<Long, TreeMap<LocalDate, DayState>> days,
+            Map<String, ErrorCode> errorsByKey, List<PunchEventRequest> rejectedEvents,
+            AttendanceConfig config, BreakConfig breakConfig) {
+        Map<Long, Map<LocalDate, DayState>> existing = loadConflictingDays(conflicted);
+
+        List<DayState> merged = new ArrayList<>();
+        for (DayState state : conflicted) {
+            AttendanceRecordEntity record = state.record;
+            DayState current = existing.getOrDefault(record.getEmployeeId(), Map.of()).get(record.getWorkDate());
+            if (current == null) {
+                // Bản ghi gây trùng đã bị xóa ngay sau đó: rollback để thiết bị gửi lại
+                throw new ConflictException("Bản ghi chấm công thay đổi trong lúc nhập punch, vui lòng gửi lại",
+                        ErrorCode.CONFLICT);
+            }
+            TreeMap<LocalDate, DayState> employeeDays = days.get(record.getEmployeeId());
+            employeeDays.put(record.getWorkDate(), current);
+
+            // Các punch đã gắn với ngày này, theo thứ tự áp dụng
+            List<String> keys = stateByKey.entrySet().stream()
+                    .filter(entry -> entry.getValue() == state)
+                    .map(Map.Entry::getKey)
+                    .toList();
+            for (String key : keys) {
+                PunchEventRequest event = byKey.get(key);
+                ErrorCode error = event.getPunchType() == PunchType.CHECK_IN
+                        ? ErrorCode.ALREADY_CHECKED_IN
+                        : apply(event, employeeDays, current, config, breakConfig);
+                if (error != null) {
+                    stateByKey.remove(key);
+                    errorsByKey.put(key, error);
+                    rejectedEvents.add(event);
+                    continue;
+                }
+                if (!current.touched) {
+                    current.touched = true;
+                    merged.add(current);
+                }
+                stateByKey.put(key, current);
+            }
+        }
+        return merged;
+    }
+
+    private ErrorCode validateDeviceAndLocation(PunchEventRequest event, AttendanceConfig config) {
+        if (event.getPunchType() != PunchType.CHECK_IN
+                && event.getPunchType() != PunchType.CHECK_OUT) {
+            return null;
+        }
+        if (Boolean.TRUE.equals(config.getRequireDeviceRegistration())
+                && !attendanceService.validateDevice(event.getDeviceId())) {
+            return ErrorCode.INVALID_DEVICE;
+        }
+        if (Boolean.TRUE.equals(config.getRequireGeoLocation())
+                && !attendanceService.validateLocation(event.getLatitude(), event.getLongitude(), config)) {
+            return ErrorCode.OUTSIDE_GEOFENCE;
+        }
+        return null;
+    }
+
+    private LocalDateTime roundCheckIn(LocalDateTime time, AttendanceConfig config) {
+        if (Boolean.TRUE.equals(config.getEnableRounding()) && config.getCheckInRounding() != null) {
+            return timeRoundingCalculator.roundTime(time, config.getCheckInRounding());
+        }
+        return time;
+    }
+
+    private LocalDateTime roundCheckOut(LocalDateTime time, AttendanceConfig config) {
+        if (Boolean.TRUE.equals(config.getEnableRounding()) && config.getCheckOutRounding() != null) {
+            return timeRoundingCalculator.roundTime(time, config.getCheckOutRounding());
+        }
+        return time;
+    }
+
+    /**
+     * Áp dụng min/max cho thời gian giải lao (giống kết thúc giải lao từng lần)
+     */
+    private int clampBreakMinutes(int actualMinutes, BreakConfig breakConfig) {
+        int effectiveMinutes = actualMinutes;
+        if (breakConfig != null) {
+            Integer minBreak = breakConfig.getMinimumBreakMinutes();
+            Integer maxBreak = breakConfig.getMaximumBreakMinutes();
+            if (minBreak != null && effectiveMinutes < minBreak) {
+                effectiveMinutes = minBreak;
+            }
+            if (maxBreak != null && effectiveMinutes > maxBreak) {
+                effectiveMinutes = maxBreak;
+            }
+        }
+        return effectiveMinutes;
+    }
+
+    // ==================== Recalculate ====================
+
+    /**
+     * Tính lại mỗi bản ghi bị ảnh hưởng một lần sau khi đã áp dụng hết punch
+     */
+    private void recalculate(List<DayState> states, AttendanceConfig config, BreakConfig breakConfig) {
+        for (DayState state : states) {
+            AttendanceRecordEntity record = state.record;
+            WorkScheduleResponse schedule = workScheduleService.getEffectiveSchedule(
+                    record.getEmployeeId(), record.getWorkDate());
+
+            if (state.created && schedule != null) {
+                record.setLateMinutes(attendanceRecordCalculator.calculateLateMinutes(
+                        record.getRoundedCheckIn(), schedule, config));
+            }
+
+            if (record.getRoundedCheckOut() != null) {
+                if (schedule != null) {
+                    attendanceRecordCalculator.calculateWorkingHours(
+                            record, state.breaks, schedule, config, breakConfig);
+                }
+            } else if (!state.breaks.isEmpty()) {
+                // Chưa check-out: chỉ cập nhật tổng giải lao thực tế
+                int totalBreakMinutes = state.breaks.stream()
+                        .filter(b -> b.getActualBreakMinutes() != null)
+                        .mapToInt(BreakRecordEntity::getActualBreakMinutes)
+                        .sum();
+                record.setTotalBreakMinutes(totalBreakMinutes);
+                record.setEffectiveBreakMinutes(totalBreakMinutes);
+            }
+        }
+    }
+
+    // ==================== JDBC ====================
+
+    /**
+     * Giữ chỗ khóa idempotency, trả về các khóa chưa từng được nhập
+     */
+    private Set<String> claimEvents(Collection<PunchEventRequest> events) {
+        int size = events.size();
+        String[] keys = new String[size];
+        Long[] employeeIds = new Long[size];
+        String[] types = new String[size];
+        Timestamp[] punchedAts = new Timestamp[size];
+        String[] deviceIds = new String[size];
+        Double[] latitudes = new Double[size];
+        Double[] longitudes = new Double[size];
+
+        int i = 0;
+        for (PunchEventRequest event : events) {
+            keys[i] = event.getIdempotencyKey();
+            employeeIds[i] = event.getEmployeeId();
+            types[i] = event.getPunchType().name();
+            punchedAts[i] = Timestamp.valueOf(event.getPunchedAt());
+            deviceIds[i] = event.getDeviceId();
+            latitudes[i] = event.getLatitude();
+            longitudes[i] = event.getLongitude();
+            i++;
+        }
+
+        List<String> claimed = tenantJdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(CLAIM_EVENTS_SQL);
+            ps.setArray(1, connection.createArrayOf("varchar", keys));
+            ps.setArray(2, connection.createArrayOf("bigint", employeeIds));
+            ps.setArray(3, connection.createArrayOf("varchar", types));
+            ps.setArray(4, connection.createArrayOf("timestamp", punchedAts));
+            ps.setArray(5, connection.createArrayOf("varchar", deviceIds));
+            ps.setArray(6, connection.createArrayOf("float8", latitudes));
+            ps.setArray(7, connection.createArrayOf("float8", longitudes));
+            return ps;
+        }, (rs, rowNum) -> rs.getString(1));
+        return new HashSet<>(claimed);
+    }
+
+    /**
+     * Đọc bản ghi chấm công và giải lao của các nhân viên trong khoảng ngày của batch
+     * (lùi một ngày cho ca qua đêm), khóa bản ghi để tránh ghi đè với chấm công từng lần
+     */
+    private Map<Long, TreeMap<LocalDate, DayState>> loadDays(List<PunchEventRequest> events) {
+        Map<Long, TreeMap<LocalDate, DayState>> days = new HashMap<>();
+        LocalDate from = null;
+        LocalDate to = null;
+        for (PunchEventRequest event : events) {
+            days.computeIfAbsent(event.getEmployeeId(), id -> new TreeMap<>());
+            LocalDate date = event.getPunchedAt().toLocalDate();
+            from = from == null || date.isBefore(from) ? date : from;
+            to = to == null || date.isAfter(to) ? date : to;
+        }
+
+        Long[] employeeIds = days.keySet().toArray(new Long[0]);
+        LocalDate startDate = from.minusDays(1);
+        LocalDate endDate = to;
+        List<AttendanceRecordEntity> records = tenantJdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(SELECT_RECORDS_SQL);
+            ps.setArray(1, connection.createArrayOf("bigint", employeeIds));
+            ps.setDate(2, Date.valueOf(startDate));
+            ps.setDate(3, Date.valueOf(endDate));
+            return ps;
+        }, new BeanPropertyRowMapper<>(AttendanceRecordEntity.class));
+
+        if (records.isEmpty()) {
+            return days;
+        }
+
+        Map<Long, List<BreakRecordEntity>> breaksByRecord = loadBreaks(records, startDate, endDate);
+
+        for (AttendanceRecordEntity record : records) {
+            List<BreakRecordEntity> breaks = breaksByRecord.getOrDefault(record.getId(), new ArrayList<>());
+            days.get(record.getEmployeeId()).put(record.getWorkDate(), new DayState(record, breaks, false));
+        }
+        return days;
+    }
+
+    /**
+     * Đọc lại (khóa FOR UPDATE) bản ghi đã có cho các ngày bị trùng khi ghi bản ghi mới
+     */
+    private Map<Long, Map<LocalDate, DayState>> loadConflictingDays(List<DayState> conflicted) {
+        Long[] employeeIds = new Long[conflicted.size()];
+        Date[] workDates = new Date[conflicted.size()];
+        LocalDate from = null;
+        LocalDate to = null;
+        for (int i = 0; i < conflicted.size(); i++) {
+            AttendanceRecordEntity record = conflicted.get(i).record;
+            employeeIds[i] = record.getEmployeeId();
+            workDates[i] = Date.valueOf(record.getWorkDate());
+            from = from == null || record.getWorkDate().isBefore(from) ? record.getWorkDate() : from;
+            to = to == null || record.getWorkDate().isAfter(to) ? record.getWorkDate() : to;
+        }
+
+        List<AttendanceRecordEntity> records = tenantJdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(SELECT_CONFLICTING_RECORDS_SQL);
+            ps.setArray(1, connection.createArrayOf("bigint", employeeIds));
+            ps.setArray(2, connection.createArrayOf("date", workDates));
+            return ps;
+        }, new BeanPropertyRowMapper<>(AttendanceRecordEntity.class));
+
+        Map<Long, List<BreakRecordEntity>> breaksByRecord = loadBreaks(records, from, to);
+        Map<Long, Map<LocalDate, DayState>> days = new HashMap<>();
+        for (AttendanceRecordEntity record : records) {
+            List<BreakRecordEntity> breaks = breaksByRecord.getOrDefault(record.getId(), new ArrayList<>());
+            days.computeIfAbsent(record.getEmployeeId(), id -> new HashMap<>())
+                    .put(record.getWorkDate(), new DayState(record, breaks, false));
+        }
+        return days;
+    }
+
+    /**
+     * Đọc giải lao của các bản ghi chấm công, nhóm theo bản ghi
+     */
+    private Map<Long, List<BreakRecordEntity>> loadBreaks(List<AttendanceRecordEntity> records,
+            LocalDate from, LocalDate to) {
+        Map<Long, List<BreakRecordEntity>> breaksByRecord = new HashMap<>();
+        if (records.isEmpty()) {
+            return breaksByRecord;
+        }
+        Long[] recordIds = records.stream().map(AttendanceRecordEntity::getId).toArray(Long[]::new);
+        tenantJdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(SELECT_BREAKS_SQL);
+            ps.setArray(1, connection.createArrayOf("bigint", recordIds));
+            ps.setDate(2, Date.valueOf(from));
+            ps.setDate(3, Date.valueOf(to));
+            return ps;
+        }, new BeanPropertyRowMapper<>(BreakRecordEntity.class)).forEach(breakRecord -> breaksByRecord
+                .computeIfAbsent(breakRecord.getAttendanceRecordId(), id -> new ArrayList<>())
+                .add(breakRecord));
+        return breaksByRecord;
+    }
+
+    private Set<Long> loadActiveEmployeeIds(Set<Long> employeeIds) {
+        Set<Long> active = new HashSet<>();
+        for (UserEntity user : userRepository.findAllById(employeeIds)) {
+            if (!Boolean.TRUE.equals(user.getDeleted())) {
+                active.add(user.getId());
+            }
+        }
+        return active;
+    }
+
+    /**
+     * Ghi các bản ghi mới trong một câu INSERT ... ON CONFLICT DO NOTHING. Id lấy từ sequence trước
+     * để gắn giải lao trong cùng lượt ghi.
+     *
+     * @return trạng thái có bản ghi không được ghi vì (nhân viên, ngày) đã có bản ghi
+     */
+    private List<DayState> insertCreatedRecords(List<DayState> states) {
+        List<DayState> created = states.stream().filter(state -> state.created).toList();
+        if (created.isEmpty()) {
+            return List.of();
+        }
+
+        List<Long> ids = tenantJdbcTemplate.queryForList(NEXT_RECORD_IDS_SQL, Long.class, created.size());
+        int size = created.size();
+        Long[] recordIds = new Long[size];
+        Long[] employeeIds = new Long[size];
+        Date[] workDates = new Date[size];
+        Timestamp[] originalCheckIns = new Timestamp[size];
+        Timestamp[] originalCheckOuts = new Timestamp[size];
+        Timestamp[] roundedCheckIns = new Timestamp[size];
+        Timestamp[] roundedCheckOuts = new Timestamp[size];
+        Integer[] workingMinutes = new Integer[size];
+        Integer[] overtimeMinutes = new Integer[size];
+        Integer[] lateMinutes = new Integer[size];
+        Integer[] earlyLeaveMinutes = new Integer[size];
+        Integer[] totalBreakMinutes = new Integer[size];
+        Integer[] effectiveBreakMinutes = new Integer[size];
+        String[] breakTypes = new String[size];
+        Boolean[] breakCompliant = new Boolean[size];
+        String[] statuses = new String[size];
+        String[] checkInDeviceIds = new String[size];
+        String[] checkOutDeviceIds = new String[size];
+        Double[] checkInLatitudes = new Double[size];
+        Double[] checkInLongitudes = new Double[size];
+        Double[] checkOutLatitudes = new Double[size];
+        Double[] checkOutLongitudes = new Double[size];
+
+        for (int i = 0; i < size; i++) {
+            AttendanceRecordEntity r = created.get(i).record;
+            r.setId(ids.get(i));
+            recordIds[i] = r.getId();
+            employeeIds[i] = r.getEmployeeId();
+            workDates[i] = Date.valueOf(r.getWorkDate());
+            originalCheckIns[i] = toTimestamp(r.getOriginalCheckIn());
+            originalCheckOuts[i] = toTimestamp(r.getOriginalCheckOut());
+            roundedCheckIns[i] = toTimestamp(r.getRoundedCheckIn());
+            roundedCheckOuts[i] = toTimestamp(r.getRoundedCheckOut());
+            workingMinutes[i] = r.getWorkingMinutes();
+            overtimeMinutes[i] = r.getOvertimeMinutes();
+            lateMinutes[i] = r.getLateMinutes();
+            earlyLeaveMinutes[i] = r.getEarlyLeaveMinutes();
+            totalBreakMinutes[i] = r.getTotalBreakMinutes();
+            effectiveBreakMinutes[i] = r.getEffectiveBreakMinutes();
+            breakTypes[i] = r.getBreakType() != null ? r.getBreakType().name() : null;
+            breakCompliant[i] = r.getBreakCompliant();
+            statuses[i] = r.getStatus().name();
+            checkInDeviceIds[i] = r.getCheckInDeviceId();
+            checkOutDeviceIds[i] = r.getCheckOutDeviceId();
+            checkInLatitudes[i] = r.getCheckInLatitude();
+            checkInLongitudes[i] = r.getCheckInLongitude();
+            checkOutLatitudes[i] = r.getCheckOutLatitude();
+            checkOutLongitudes[i] = r.getCheckOutLongitude();
+        }
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        Set<Long> inserted = new HashSet<>(tenantJdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(INSERT_RECORDS_SQL);
+            ps.setTimestamp(1, now);
+            ps.setTimestamp(2, now);
+            ps.setArray(3, connection.createArrayOf("bigint", recordIds));
+            ps.setArray(4, connection.createArrayOf("bigint", employeeIds));
+            ps.setArray(5, connection.createArrayOf("date", workDates));
+            ps.setArray(6, connection.createArrayOf("timestamp", originalCheckIns));
+            ps.setArray(7, connection.createArrayOf("timestamp", originalCheckOuts));
+            ps.setArray(8, connection.createArrayOf("timestamp", roundedCheckIns));
+            ps.setArray(9, connection.createArrayOf("timestamp", roundedCheckOuts));
+            ps.setArray(10, connection.createArrayOf("integer", workingMinutes));
+            ps.setArray(11, connection.createArrayOf("integer", overtimeMinutes));
+            ps.setArray(12, connection.createArrayOf("integer", lateMinutes));
+            ps.setArray(13, connection.createArrayOf("integer", earlyLeaveMinutes));
+            ps.setArray(14, connection.createArrayOf("integer", totalBreakMinutes));
+            ps.setArray(15, connection.createArrayOf("integer", effectiveBreakMinutes));
+            ps.setArray(16, connection.createArrayOf("varchar", breakTypes));
+            ps.setArray(17, connection.createArrayOf("boolean", breakCompliant));
+            ps.setArray(18, connection.createArrayOf("varchar", statuses));
+            ps.setArray(19, connection.createArrayOf("varchar", checkInDeviceIds));
+            ps.setArray(20, connection.createArrayOf("varchar", checkOutDeviceIds));
+            ps.setArray(21, connection.createArrayOf("float8", checkInLatitudes));
+            ps.setArray(22, connection.createArrayOf("float8", checkInLongitudes));
+            ps.setArray(23, connection.createArrayOf("float8", checkOutLatitudes));
+            ps.setArray(24, connection.createArrayOf("float8", checkOutLongitudes));
+            return ps;
+        }, (rs, rowNum) -> rs.getLong(1)));
+
+        return created.stream()
+                .filter(state -> !inserted.contains(state.record.getId()))
+                .toList();
+    }
+
+    /**
+     * Ghi thay đổi của các bản ghi đã có và giải lao bằng JDBC batch (bản ghi mới đã được ghi trước đó)
+     */
+    private void writeStates(List<DayState> states) {
+        LocalDateTime now = LocalDateTime.now();
+        List<DayState> updated = states.stream().filter(state -> !state.created).toList();
+
+        if (!updated.isEmpty()) {
+            tenantJdbcTemplate.batchUpdate(UPDATE_RECORD_SQL, updated, updated.size(), (ps, state) -> {
+                AttendanceRecordEntity r = state.record;
+                setTimestamp(ps, 1, r.getOriginalCheckOut());
+                setTimestamp(ps, 2, r.getRoundedCheckOut());
+                setInteger(ps, 3, r.getWorkingMinutes());
+                setInteger(ps, 4, r.getOvertimeMinutes());
+                setInteger(ps, 5, r.getLateMinutes());
+                setInteger(ps, 6, r.getEarlyLeaveMinutes());
+                setInteger(ps, 7, r.getTotalBreakMinutes());
+                setInteger(ps, 8, r.getEffectiveBreakMinutes());
+                ps.setString(9, r.getBreakType() != null ? r.getBreakType().name() : null);
+                setBoolean(ps, 10, r.getBreakCompliant());
+                ps.setString(11, r.getCheckOutDeviceId());
+                setDouble(ps, 12, r.getCheckOutLatitude());
+                setDouble(ps, 13, r.getCheckOutLongitude());
+                ps.setTimestamp(14, Timestamp.valueOf(now));
+                ps.setLong(15, r.getId());
+                ps.setDate(16, Date.valueOf(r.getWorkDate()));
+            });
+        }
+
+        List<BreakRecordEntity> newBreaks = new ArrayList<>();
+        List<BreakRecordEntity> endedBreaks = new ArrayList<>();
+        for (DayState state : states) {
+            for (BreakRecordEntity breakRecord : state.breaks) {
+                if (breakRecord.getId() == null) {
+                    breakRecord.setAttendanceRecordId(state.record.getId());
+                    newBreaks.add(breakRecord);
+                }
+            }
+            endedBreaks.addAll(state.endedBreaks);
+        }
+
+        if (!newBreaks.isEmpty()) {
+            tenantJdbcTemplate.batchUpdate(INSERT_BREAK_SQL, newBreaks, newBreaks.size(), (ps, b) -> {
+                ps.setLong(1, b.getAttendanceRecordId());
+                ps.setLong(2, b.getEmployeeId());
+                ps.setDate(3, Date.valueOf(b.getWorkDate()));
+                ps.setInt(4, b.getBreakNumber());
+                setTimestamp(ps, 5, b.getBreakStart());
+                setTimestamp(ps, 6, b.getBreakEnd());
+                setInteger(ps, 7, b.getActualBreakMinutes());
+                setInteger(ps, 8, b.getEffectiveBreakMinutes());
+                ps.setTimestamp(9, Timestamp.valueOf(now));
+                ps.setTimestamp(10, Timestamp.valueOf(now));
+            });
+        }
+
+        if (!endedBreaks.isEmpty()) {
+            tenantJdbcTemplate.batchUpdate(UPDATE_BREAK_SQL, endedBreaks, endedBreaks.size(), (ps, b) -> {
+                setTimestamp(ps, 1, b.getBreakEnd());
+                setInteger(ps, 2, b.getActualBreakMinutes());
+                setInteger(ps, 3, b.getEffectiveBreakMinutes());
+                ps.setTimestamp(4, Timestamp.valueOf(now));
+                ps.setLong(5, b.getId());
+                ps.setDate(6, Date.valueOf(b.getWorkDate()));
+            });
+        }
+    }
+
+    /**
+     * Lưu kết quả của từng punch (bản ghi chấm công hoặc mã lỗi) trong một câu UPDATE
+     */
+    private void recordOutcomes(Map<String, Long> recordIdsByKey, Map<String, ErrorCode> errorsByKey) {
+        int size = recordIdsByKey.size() + errorsByKey.size();
+        if (size == 0) {
+            return;
+        }
+        String[] keys = new String[size];
+        Long[] recordIds = new Long[size];
+        String[] errorCodes = new String[size];
+
+        int i = 0;
+        for (Map.Entry<String, Long> entry : recordIdsByKey.entrySet()) {
+            keys[i] = entry.getKey();
+            recordIds[i] = entry.getValue();
+            i++;
+        }
+        for (Map.Entry<String, ErrorCode> entry : errorsByKey.entrySet()) {
+            keys[i] = entry.getKey();
+            errorCodes[i] = entry.getValue().getCode();
+            i++;
+        }
+
+        tenantJdbcTemplate.update(connection -> {
+            PreparedStatement ps = connection.prepareStatement(RECORD_OUTCOMES_SQL);
+            ps.setArray(1, connection.createArrayOf("varchar", keys));
+            ps.setArray(2, connection.createArrayOf("bigint", recordIds));
+            ps.setArray(3, connection.createArrayOf("varchar", errorCodes));
+            return ps;
+        });
+    }
+
+    private static Timestamp toTimestamp(LocalDateTime value) {
+        return value != null ? Timestamp.valueOf(value) : null;
+    }
+
+    private static void setTimestamp(PreparedStatement ps, int index, LocalDateTime value) throws SQLException {
+        if (value != null) {
+            ps.setTimestamp(index, Timestamp.valueOf(value));
+        } else {
+            ps.setNull(index, Types.TIMESTAMP);
+        }
+    }
+
+    private static void setInteger(PreparedStatement ps, int index, Integer value) throws SQLException {
+        if (value != null) {
+            ps.setInt(index, value);
+        } else {
+            ps.setNull(index, Types.INTEGER);
+        }
+    }
+
+    private static void setDouble(PreparedStatement ps, int index, Double value) throws SQLException {
+        if (value != null) {
+            ps.setDouble(index, value);
+        } else {
+            ps.setNull(index, Types.DOUBLE);
+        }
+    }
+
+    private static void setBoolean(PreparedStatement ps, int index, Boolean value) throws SQLException {
+        if (value != null) {
+            ps.setBoolean(index, value);
+        } else {
+            ps.setNull(index, Types.BOOLEAN);
+        }
+    }
+}
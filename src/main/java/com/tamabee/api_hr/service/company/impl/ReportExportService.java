@@ -5,7 +5,9 @@ import com.lowagie.text.pdf.PdfPCell;
 import com.lowagie.text.pdf.PdfPTable;
 import com.lowagie.text.pdf.PdfWriter;
 import com.tamabee.api_hr.dto.response.report.*;
+import com.tamabee.api_hr.service.core.PdfResourceRegistry;
 import com.tamabee.api_hr.util.ReportLabels;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.csv.CSVFormat;
 import org.apache.commons.csv.CSVPrinter;
@@ -23,10 +25,14 @@ import java.time.format.DateTimeFormatter;
  */
 @Slf4j
 @Service
+@RequiredArgsConstructor
 public class ReportExportService {
 
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("dd/MM/yyyy");
 
+    // Font dùng chung, không tạo lại cho mỗi lần export
+    private final PdfResourceRegistry pdfResourceRegistry;
+
     // ==================== Attendance Summary ====================
 
     public byte[] exportAttendanceSummaryToCsv(AttendanceSummaryReport report, String language) throws IOException {
@@ -67,7 +73,7 @@ public class ReportExportService {
         String[] headers = ReportLabels.getHeaders(ReportLabels.ATTENDANCE_HEADERS, language);
         PdfPTable table = createTable(headers);
 
-        Font dataFont = FontFactory.getFont(FontFactory.HELVETICA, 8);
+        Font dataFont = pdfResourceRegistry.getReportFont(false, 8);
         for (EmployeeAttendanceSummary emp : report.getEmployeeSummaries()) {
             addCell(table, emp.getEmployeeCode(), dataFont);
             addCell(table, emp.getEmployeeName(), dataFont);
@@ -126,7 +132,7 @@ public class ReportExportService {
         String[] headers = ReportLabels.getHeaders(ReportLabels.OVERTIME_HEADERS, language);
         PdfPTable table = createTable(headers);
 
-        Font dataFont = FontFactory.getFont(FontFactory.HELVETICA, 9);
+        Font dataFont = pdfResourceRegistry.getReportFont(false, 9);
         for (EmployeeOvertimeSummary emp : report.getEmployeeSummaries()) {
             addCell(table, emp.getEmployeeCode(), dataFont);
             addCell(table, emp.getEmployeeName(), dataFont);
@@ -181,7 +187,7 @@ public class ReportExportService {
         String[] headers = ReportLabels.getHeaders(ReportLabels.BREAK_HEADERS, language);
         PdfPTable table = createTable(headers);
 
-        Font dataFont = FontFactory.getFont(FontFactory.HELVETICA, 9);
+        Font dataFont = pdfResourceRegistry.getReportFont(false, 9);
         for (EmployeeBreakSummary emp : report.getEmployeeSummaries()) {
             addCell(table, emp.getEmployeeCode(), dataFont);
             addCell(table, emp.getEmployeeName(), dataFont);
@@ -237,7 +243,7 @@ public class ReportExportService {
         String[] headers = ReportLabels.getHeaders(ReportLabels.PAYROLL_HEADERS, language);
         PdfPTable table = createTable(headers);
 
-        Font dataFont = FontFactory.getFont(FontFactory.HELVETICA, 8);
+        Font dataFont = pdfResourceRegistry.getReportFont(false, 8);
         for (EmployeePayrollSummary emp : report.getEmployeeSummaries()) {
             addCell(table, emp.getEmployeeCode(), dataFont);
             addCell(table, emp.getEmployeeName(), dataFont);
@@ -297,7 +303,7 @@ public class ReportExportService {
         String[] headers = ReportLabels.getHeaders(ReportLabels.SHIFT_HEADERS, language);
         PdfPTable table = createTable(headers);
 
-        Font dataFont = FontFactory.getFont(FontFactory.HELVETICA, 9);
+        Font dataFont = pdfResourceRegistry.getReportFont(false, 9);
         for (ShiftTemplateSummary shift : report.getShiftSummaries()) {
             addCell(table, shift.getShiftName(), dataFont);
             addCell(table, shift.getStartTime() != null ? shift.getStartTime().toString() : "", dataFont);
@@ -372,12 +378,12 @@ public class ReportExportService {
 
         // Bảng theo loại lương
         document.add(new Paragraph(ReportLabels.get(ReportLabels.BY_SALARY_TYPE_LABEL, language),
-                FontFactory.getFont(FontFactory.HELVETICA_BOLD, 11)));
+                pdfResourceRegistry.getReportFont(true, 11)));
         document.add(new Paragraph(" "));
 
         String[] headers = ReportLabels.getHeaders(ReportLabels.COST_HEADERS, language);
         PdfPTable salaryTable = createTable(headers);
-        Font dataFont = FontFactory.getFont(FontFactory.HELVETICA, 9);
+        Font dataFont = pdfResourceRegistry.getReportFont(false, 9);
 
         for (CostBySalaryType cost : report.getCostBySalaryType()) {
             addCell(salaryTable, cost.getSalaryType() != null ? cost.getSalaryType().name() : "", dataFont);
@@ -393,7 +399,7 @@ public class ReportExportService {
 
         // Bảng theo loại hợp đồng
         document.add(new Paragraph(ReportLabels.get(ReportLabels.BY_CONTRACT_TYPE_LABEL, language),
-                FontFactory.getFont(FontFactory.HELVETICA_BOLD, 11)));
+                pdfResourceRegistry.getReportFont(true, 11)));
         document.add(new Paragraph(" "));
 
         PdfPTable contractTable = createTable(headers);
@@ -415,7 +421,7 @@ public class ReportExportService {
     // ==================== Helper Methods ====================
 
     private void addTitle(Document document, String title) throws DocumentException {
-        Font titleFont = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 16);
+        Font titleFont = pdfResourceRegistry.getReportFont(true, 16);
         Paragraph titlePara = new Paragraph(title, titleFont);
         titlePara.setAlignment(Element.ALIGN_CENTER);
         document.add(titlePara);
@@ -424,7 +430,7 @@ public class ReportExportService {
 
     private void addPeriodInfo(Document document, String startDate, String endDate, String language)
             throws DocumentException {
-        Font infoFont = FontFactory.getFont(FontFactory.HELVETICA, 10);
+        Font infoFont = pdfResourceRegistry.getReportFont(false, 10);
         String periodLabel = ReportLabels.get(ReportLabels.PERIOD_LABEL, language);
         Paragraph periodPara = new Paragraph(String.format("%s: %s - %s", periodLabel, startDate, endDate), infoFont);
         periodPara.setAlignment(Element.ALIGN_CENTER);
@@ -432,7 +438,7 @@ public class ReportExportService {
     }
 
     private void addSummaryLine(Document document, String text) throws DocumentException {
-        Font summaryFont = FontFactory.getFont(FontFactory.HELVETICA, 10);
+        Font summaryFont = pdfResourceRegistry.getReportFont(false, 10);
         Paragraph summaryPara = new Paragraph(text, summaryFont);
         summaryPara.setAlignment(Element.ALIGN_CENTER);
         document.add(summaryPara);
@@ -442,7 +448,7 @@ public class ReportExportService {
         PdfPTable table = new PdfPTable(headers.length);
         table.setWidthPercentage(100);
 
-        Font headerFont = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 8);
+        Font headerFont = pdfResourceRegistry.getReportFont(true, 8);
         for (String header : headers) {
             PdfPCell cell = new PdfPCell(new Phrase(header, headerFont));
             cell.setHorizontalAlignment(Element.ALIGN_CENTER);
@@ -0,0 +1,493 @@
+package com.tamabee.api_hr.service.company.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tamabee.api_hr.datasource.TenantContext;
+import com.tamabee.api_hr.dto.request.report.ReportJobRequest;
+import com.tamabee.api_hr.dto.request.report.ReportQuery;
+import com.tamabee.api_hr.dto.response.report.ReportJobResponse;
+import com.tamabee.api_hr.enums.ErrorCode;
+import com.tamabee.api_hr.enums.ExportFormat;
+import com.tamabee.api_hr.enums.ReportJobStatus;
+import com.tamabee.api_hr.enums.ReportType;
+import com.tamabee.api_hr.exception.BadRequestException;
+import com.tamabee.api_hr.exception.NotFoundException;
+import com.tamabee.api_hr.service.company.interfaces.IReportJobService;
+import com.tamabee.api_hr.service.company.interfaces.IReportService;
+import com.tamabee.api_hr.util.ReportRequestKey;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Service implementation xuất báo cáo chạy nền.
+ *
+ * Job được lưu trong report_jobs; worker nhận job PENDING bằng UPDATE có điều kiện (mỗi job chỉ một worker),
+ * tạo file qua {@link IReportService#exportReport} và ghi ra {@code storage-path/{tenant}/{id}.{csv|pdf}}
+ * (ghi file tạm rồi đổi tên, người tải không thấy file dở). Yêu cầu giống nhau được gộp theo request_key:
+ * job đang chờ/chạy dùng chung nhờ unique index một phần, file đã tạo được dùng lại đến hết
+ * {@code result-ttl-seconds} rồi bị xóa.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ReportJobServiceImpl implements IReportJobService {
+
+    private static final DateTimeFormatter FILE_DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyyMMdd");
+    private static final int MAX_ERROR_MESSAGE_LENGTH = 1000;
+
+    private final IReportService reportService;
+    private final ObjectMapper objectMapper;
+
+    @Qualifier("tenantJdbcTemplate")
+    private final JdbcTemplate tenantJdbcTemplate;
+
+    @Value("${report.jobs.storage-path:reports}")
+    private String storagePath;
+
+    @Value("${report.jobs.workers:2}")
+    private int workers;
+
+    @Value("${report.jobs.result-ttl-seconds:900}")
+    private long resultTtlSeconds;
+
+    @Value("${report.jobs.stale-seconds:180}")
+    private long staleSeconds;
+
+    @Value("${report.jobs.max-attempts:3}")
+    private int maxAttempts;
+
+    // Job đã giao cho worker trên node này theo tenant:jobId
+    private final Set<String> activeJobs = ConcurrentHashMap.newKeySet();
+    // Job đang chạy trên node này: tenant -> (jobId -> lần thử), dùng để gửi heartbeat
+    private final Map<String, Map<Long, Integer>> runningJobs = new ConcurrentHashMap<>();
+    private ExecutorService workerExecutor;
+    private volatile boolean stopping;
+
+    private static final String JOB_COLUMNS = """
+            id, report_type, export_format, language, status, requested_by, file_name, file_size,
+            error_message, started_at, finished_at, expires_at, created_at
+            """;
+
+    private static final String SELECT_JOB_SQL = "SELECT " + JOB_COLUMNS + " FROM report_jobs WHERE id = ?";
+
+    // Job đang chờ/chạy, hoặc đã xong và còn hạn, của cùng yêu cầu
+    private static final String SELECT_REUSABLE_JOB_SQL = "SELECT " + JOB_COLUMNS + """
+            FROM report_jobs
+            WHERE request_key = ?
+              AND (status IN ('PENDING', 'RUNNING') OR (status = 'COMPLETED' AND expires_at > ?))
+            ORDER BY id DESC
+            LIMIT 1
+            """;
+
+    // Yêu cầu giống nhau được tạo đồng thời: chỉ một dòng được insert, dòng còn lại đọc lại job đó
+    private static final String INSERT_JOB_SQL = """
+            INSERT INTO report_jobs (request_key, report_type, export_format, language, query_json, requested_by)
+            VALUES (?, ?, ?, ?, ?, ?)
+            ON CONFLICT (request_key) WHERE status IN ('PENDING', 'RUNNING') DO NOTHING
+            RETURNING id
+            """;
+
+    private static final String CLAIM_JOB_SQL = """
+            UPDATE report_jobs
+            SET status = 'RUNNING', attempts = attempts + 1, started_at = ?, heartbeat_at = ?, updated_at = ?
+            WHERE id = ? AND status = 'PENDING'
+            RETURNING report_type, export_format, language, query_json, attempts
+            """;
+
+    private static final String COMPLETE_JOB_SQL = """
+            UPDATE report_jobs
+            SET status = 'COMPLETED', file_name = ?, file_size = ?, finished_at = ?, expires_at = ?, updated_at = ?
+            WHERE id = ? AND status = 'RUNNING' AND attempts = ?
+            """;
+
+    private static final String FAIL_JOB_SQL = """
+            UPDATE report_jobs
+            SET status = 'FAILED', error_message = ?, finished_at = ?, updated_at = ?
+            WHERE id = ? AND status = 'RUNNING' AND attempts = ?
+            """;
+
+    private static final String SELECT_PENDING_JOB_IDS_SQL =
+            "SELECT id FROM report_jobs WHERE status = 'PENDING' ORDER BY id";
+
+    private static final String HEARTBEAT_JOB_SQL = """
+            UPDATE report_jobs
+            SET heartbeat_at = ?
+            WHERE id = ? AND status = 'RUNNING' AND attempts = ?
+            """;
+
+    // Job RUNNING không gửi heartbeat sau stale-seconds: node đã dừng giữa chừng
+    private static final String RESET_STALE_JOBS_SQL = """
+            UPDATE report_jobs
+            SET status = CASE WHEN attempts >= ? THEN 'FAILED' ELSE 'PENDING' END,
+                error_message = CASE WHEN attempts >= ? THEN 'Quá số lần thử tạo báo cáo' ELSE error_message END,
+                finished_at = CASE WHEN attempts >= ? THEN ? ELSE finished_at END,
+                updated_at = ?
+            WHERE status = 'RUNNING' AND COALESCE(heartbeat_at, started_at) < ?
+            """;
+
+    private static final String EXPIRE_JOBS_SQL = """
+            UPDATE report_jobs
+            SET status = 'EXPIRED', updated_at = ?
+            WHERE status = 'COMPLETED' AND expires_at <= ?
+            RETURNING id, export_format
+            """;
+
+    /**
+     * Job worker đã nhận
+     *
+     * @param attempt số lần job được nhận, dùng làm token: kết quả của worker đã mất job (job bị đưa lại hàng chờ
+     *                vì không có heartbeat quá stale-seconds rồi được nhận lại) bị bỏ qua
+     */
+    private record ClaimedJob(ReportType type, ExportFormat format, String language, String queryJson,
+            int attempt) {
+    }
+
+    private static final RowMapper<ReportJobResponse> JOB_ROW_MAPPER = (rs, rowNum) -> {
+        Timestamp startedAt = rs.getTimestamp("started_at");
+        Timestamp finishedAt = rs.getTimestamp("finished_at");
+        Timestamp expiresAt = rs.getTimestamp("expires_at");
+        return ReportJobResponse.builder()
+                .id(rs.getLong("id"))
+                .type(ReportType.valueOf(rs.getString("report_type")))
+                .format(ExportFormat.valueOf(rs.getString("export_format")))
+                .language(rs.getString("language"))
+                .status(ReportJobStatus.valueOf(rs.getString("status")))
+                .requestedBy(rs.getObject("requested_by") != null ? rs.getLong("requested_by") : null)
+                .fileName(rs.getString("file_name"))
+                .fileSize(rs.getObject("file_size") != null ? rs.getLong("file_size") : null)
+                .errorMessage(rs.getString("error_message"))
+                .startedAt(startedAt != null ? startedAt.toLocalDateTime() : null)
+                .finishedAt(finishedAt != null ? finishedAt.toLocalDateTime() : null)
+                .expiresAt(expiresAt != null ? expiresAt.toLocalDateTime() : null)
+                .createdAt(rs.getTimestamp("created_at").toLocalDateTime())
+                .build();
+    };
+
+    private static final RowMapper<ClaimedJob> CLAIMED_JOB_ROW_MAPPER = (rs, rowNum) -> new ClaimedJob(
+            ReportType.valueOf(rs.getString("report_type")),
+            ExportFormat.valueOf(rs.getString("export_format")),
+            rs.getString("language"),
+            rs.getString("query_json"),
+            rs.getInt("attempts"));
+
+    @PostConstruct
+    void start() {
+        AtomicInteger threadCount = new AtomicInteger();
+        workerExecutor = Executors.newFixedThreadPool(Math.max(1, workers), runnable -> {
+            Thread thread = new Thread(runnable, "report-job-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void stop() {
+        // Job chưa nhận vẫn PENDING, job đang chạy dở hết heartbeat và được chạy lại sau stale-seconds
+        stopping = true;
+        workerExecutor.shutdown();
+        try {
+            workerExecutor.awaitTermination(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // ==================== Job ====================
+
+    @Override
+    @Transactional
+    public ReportJobResponse submit(ReportJobRequest request, Long requestedBy) {
+        ReportQuery query = ReportRequestKey.normalizeQuery(request.getQuery());
+        if (query.getStartDate().isAfter(query.getEndDate())) {
+            throw new BadRequestException("Ngày bắt đầu phải trước hoặc bằng ngày kết thúc",
+                    ErrorCode.INVALID_REQUEST);
+        }
+
+        String tenantDomain = TenantContext.getCurrentTenant();
+        String language = ReportRequestKey.normalizeLanguage(request.getLanguage());
+        String requestKey = ReportRequestKey.of(tenantDomain, request.getType(), request.getFormat(), language,
+                query);
+
+        Optional<ReportJobResponse> existing = findReusableJob(tenantDomain, requestKey);
+        if (existing.isPresent()) {
+            log.debug("Dùng lại job báo cáo {} cho yêu cầu giống nhau", existing.get().getId());
+            return existing.get();
+        }
+
+        List<Long> inserted = tenantJdbcTemplate.queryForList(INSERT_JOB_SQL, Long.class,
+                requestKey, request.getType().name(), request.getFormat().name(), language, toJson(query),
+                requestedBy);
+        if (inserted.isEmpty()) {
+            return findReusableJob(tenantDomain, requestKey)
+                    .orElseThrow(() -> new IllegalStateException("Không đọc được job báo cáo vừa tạo đồng thời"));
+        }
+
+        Long jobId = inserted.get(0);
+        log.info("Tạo job báo cáo {} ({} {}, {} - {}) bởi {}", jobId, request.getType(), request.getFormat(),
+                query.getStartDate(), query.getEndDate(), requestedBy);
+        dispatchAfterCommit(tenantDomain, jobId);
+        return getJob(jobId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ReportJobResponse getJob(Long jobId) {
+        return tenantJdbcTemplate.query(SELECT_JOB_SQL, JOB_ROW_MAPPER, jobId).stream()
+                .findFirst()
+                .orElseThrow(() -> new NotFoundException(
+                        "Không tìm thấy job báo cáo với id: " + jobId,
+                        ErrorCode.REPORT_JOB_NOT_FOUND));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ReportJobFile getFile(Long jobId) {
+        ReportJobResponse job = getJob(jobId);
+        if (job.getStatus() == ReportJobStatus.EXPIRED || (job.getStatus() == ReportJobStatus.COMPLETED
+                && !job.getExpiresAt().isAfter(LocalDateTime.now()))) {
+            throw new NotFoundException(ErrorCode.REPORT_FILE_EXPIRED);
+        }
+        if (job.getStatus() == ReportJobStatus.FAILED) {
+            throw new BadRequestException("Tạo báo cáo thất bại: " + job.getErrorMessage(),
+                    ErrorCode.REPORT_JOB_NOT_READY);
+        }
+        if (job.getStatus() != ReportJobStatus.COMPLETED) {
+            throw new BadRequestException(ErrorCode.REPORT_JOB_NOT_READY);
+        }
+
+        Path path = resolveFile(TenantContext.getCurrentTenant(), jobId, job.getFormat());
+        if (!Files.isRegularFile(path)) {
+            throw new NotFoundException(ErrorCode.REPORT_FILE_EXPIRED);
+        }
+        return new ReportJobFile(path, job.getFileName(), contentType(job.getFormat()));
+    }
+
+    @Override
+    @Transactional
+    public int resumePendingJobs() {
+        String tenantDomain = TenantContext.getCurrentTenant();
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        int reset = tenantJdbcTemplate.update(RESET_STALE_JOBS_SQL, maxAttempts, maxAttempts, maxAttempts, now, now,
+                Timestamp.valueOf(LocalDateTime.now().minusSeconds(staleSeconds)));
+        if (reset > 0) {
+            log.warn("Đưa lại {} job báo cáo không có heartbeat quá {} giây của tenant {}", reset, staleSeconds,
+                    tenantDomain);
+        }
+
+        int resumed = 0;
+        for (Long jobId : tenantJdbcTemplate.queryForList(SELECT_PENDING_JOB_IDS_SQL, Long.class)) {
+            if (!activeJobs.contains(jobKey(tenantDomain, jobId))) {
+                dispatchAfterCommit(tenantDomain, jobId);
+                resumed++;
+            }
+        }
+        return resumed;
+    }
+
+    @Override
+    public int heartbeatRunningJobs() {
+        Map<Long, Integer> running = runningJobs.get(TenantContext.getCurrentTenant());
+        if (running == null || running.isEmpty()) {
+            return 0;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> args = running.entrySet().stream()
+                .map(entry -> new Object[] {now, entry.getKey(), entry.getValue()})
+                .toList();
+        return Arrays.stream(tenantJdbcTemplate.batchUpdate(HEARTBEAT_JOB_SQL, args)).sum();
+    }
+
+    @Override
+    @Transactional
+    public int expireCompletedJobs() {
+        String tenantDomain = TenantContext.getCurrentTenant();
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Path> files = tenantJdbcTemplate.query(EXPIRE_JOBS_SQL,
+                (rs, rowNum) -> resolveFile(tenantDomain, rs.getLong("id"),
+                        ExportFormat.valueOf(rs.getString("export_format"))),
+                now, now);
+        for (Path file : files) {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                log.warn("Không xóa được file báo cáo hết hạn {}: {}", file, e.getMessage());
+            }
+        }
+        return files.size();
+    }
+
+    private Optional<ReportJobResponse> findReusableJob(String tenantDomain, String requestKey) {
+        return tenantJdbcTemplate.query(SELECT_REUSABLE_JOB_SQL, JOB_ROW_MAPPER, requestKey,
+                        Timestamp.valueOf(LocalDateTime.now())).stream()
+                .findFirst()
+                // File đã bị xóa khỏi đĩa thì tạo lại
+                .filter(job -> job.getStatus() != ReportJobStatus.COMPLETED
+                        || Files.isRegularFile(resolveFile(tenantDomain, job.getId(), job.getFormat())));
+    }
+
+    // ==================== Workers ====================
+
+    private void dispatchAfterCommit(String tenantDomain, Long jobId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    dispatch(tenantDomain, jobId);
+                }
+            });
+        } else {
+            dispatch(tenantDomain, jobId);
+        }
+    }
+
+    private void dispatch(String tenantDomain, Long jobId) {
+        String key = jobKey(tenantDomain, jobId);
+        if (!activeJobs.add(key)) {
+            return;
+        }
+        try {
+            workerExecutor.execute(() -> runJob(tenantDomain, jobId, key));
+        } catch (RejectedExecutionException e) {
+            // Đang tắt ứng dụng: job vẫn PENDING, được chạy sau khi khởi động lại
+            activeJobs.remove(key);
+        }
+    }
+
+    private void runJob(String tenantDomain, Long jobId, String key) {
+        if (stopping) {
+            activeJobs.remove(key);
+            return;
+        }
+        try {
+            TenantContext.setCurrentTenant(tenantDomain);
+            Timestamp startedAt = Timestamp.valueOf(LocalDateTime.now());
+            List<ClaimedJob> claimed = tenantJdbcTemplate.query(CLAIM_JOB_SQL, CLAIMED_JOB_ROW_MAPPER,
+                    startedAt, startedAt, startedAt, jobId);
+            if (claimed.isEmpty()) {
+                // Worker khác đã nhận
+                return;
+            }
+            ClaimedJob job = claimed.get(0);
+            runningJobs.computeIfAbsent(tenantDomain, tenant -> new ConcurrentHashMap<>()).put(jobId, job.attempt());
+
+            try {
+                ReportQuery query = objectMapper.readValue(job.queryJson(), ReportQuery.class);
+                byte[] data = reportService.exportReport(job.type(), query, job.format(), job.language());
+                writeFile(resolveFile(tenantDomain, jobId, job.format()), data);
+
+                LocalDateTime finishedAt = LocalDateTime.now();
+                int completed = tenantJdbcTemplate.update(COMPLETE_JOB_SQL,
+                        buildFileName(job.type(), query, job.format()), (long) data.length,
+                        Timestamp.valueOf(finishedAt), Timestamp.valueOf(finishedAt.plusSeconds(resultTtlSeconds)),
+                        Timestamp.valueOf(finishedAt), jobId, job.attempt());
+                if (completed == 0) {
+                    log.warn("Job báo cáo {} của tenant {} đã được đưa lại hàng chờ, bỏ qua kết quả lần thử {}",
+                            jobId, tenantDomain, job.attempt());
+                    return;
+                }
+                log.info("Job báo cáo {} của tenant {} hoàn thành ({} bytes)", jobId, tenantDomain, data.length);
+            } catch (Exception e) {
+                log.error("Lỗi tạo báo cáo job {} tenant {}: {}", jobId, tenantDomain, e.getMessage(), e);
+                Timestamp finishedAt = Timestamp.valueOf(LocalDateTime.now());
+                tenantJdbcTemplate.update(FAIL_JOB_SQL, truncate(rootMessage(e)), finishedAt, finishedAt, jobId,
+                        job.attempt());
+            }
+        } catch (Exception e) {
+            // Job đang giữ (nếu có) không còn heartbeat, được chạy lại sau stale-seconds
+            log.error("Lỗi worker báo cáo job {} tenant {}: {}", jobId, tenantDomain, e.getMessage(), e);
+        } finally {
+            Map<Long, Integer> running = runningJobs.get(tenantDomain);
+            if (running != null) {
+                running.remove(jobId);
+            }
+            TenantContext.clear();
+            activeJobs.remove(key);
+        }
+    }
+
+    /**
+     * Ghi file tạm trong cùng thư mục rồi đổi tên, người tải không đọc được file đang ghi dở
+     */
+    private void writeFile(Path target, byte[] data) throws IOException {
+        Files.createDirectories(target.getParent());
+        Path temp = Files.createTempFile(target.getParent(), target.getFileName().toString(), ".tmp");
+        try {
+            Files.write(temp, data);
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private Path resolveFile(String tenantDomain, Long jobId, ExportFormat format) {
+        return Paths.get(storagePath, tenantDomain, jobId + extension(format));
+    }
+
+    private String toJson(ReportQuery query) {
+        try {
+            return objectMapper.writeValueAsString(query);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Không thể lưu điều kiện báo cáo", e);
+        }
+    }
+
+    private static String buildFileName(ReportType type, ReportQuery query, ExportFormat format) {
+        return type.name().toLowerCase() + "_" + query.getStartDate().format(FILE_DATE_FORMATTER) + "-"
+                + query.getEndDate().format(FILE_DATE_FORMATTER) + extension(format);
+    }
+
+    private static String extension(ExportFormat format) {
+        return format == ExportFormat.PDF ? ".pdf" : ".csv";
+    }
+
+    private static String contentType(ExportFormat format) {
+        return format == ExportFormat.PDF ? MediaType.APPLICATION_PDF_VALUE : "text/csv; charset=UTF-8";
+    }
+
+    private static String rootMessage(Throwable e) {
+        Throwable root = e;
+        while (root.getCause() != null && root.getCause() != root) {
+            root = root.getCause();
+        }
+        return root.getMessage() != null ? root.getMessage() : root.getClass().getSimpleName();
+    }
+
+    private static String truncate(String message) {
+        return message.length() > MAX_ERROR_MESSAGE_LENGTH ? message.substring(0, MAX_ERROR_MESSAGE_LENGTH) : message;
+    }
+
+    private static String jobKey(String tenantDomain, Long jobId) {
+        return tenantDomain + ":" + jobId;
+    }
+}
@@ -2,10 +2,8 @@ package com.tamabee.api_hr.service.company.impl;
 
 import com.tamabee.api_hr.dto.request.report.ReportQuery;
 import com.tamabee.api_hr.dto.response.report.*;
-import com.tamabee.api_hr.entity.attendance.AttendanceRecordEntity;
-import com.tamabee.api_hr.entity.attendance.BreakRecordEntity;
-import com.tamabee.api_hr.entity.attendance.ShiftAssignmentEntity;
-import com.tamabee.api_hr.entity.attendance.ShiftSwapRequestEntity;
+import com.tamabee.api_hr.dto.result.ShiftAssignmentStatusCount;
+import com.tamabee.api_hr.dto.result.SwapRequestStatusCount;
 import com.tamabee.api_hr.entity.attendance.ShiftTemplateEntity;
 import com.tamabee.api_hr.entity.payroll.PayrollItemEntity;
 import com.tamabee.api_hr.entity.payroll.PayrollPeriodEntity;
@@ -19,12 +17,22 @@ import com.tamabee.api_hr.repository.user.UserRepository;
 import com.tamabee.api_hr.service.company.interfaces.IReportService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -36,8 +44,6 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class ReportServiceImpl implements IReportService {
 
-        private final AttendanceRecordRepository attendanceRecordRepository;
-        private final BreakRecordRepository breakRecordRepository;
         private final UserRepository userRepository;
         private final ShiftAssignmentRepository shiftAssignmentRepository;
         private final ShiftSwapRequestRepository shiftSwapRequestRepository;
@@ -47,6 +53,9 @@ public class ReportServiceImpl implements IReportService {
         private final EmploymentContractRepository employmentContractRepository;
         private final ReportExportService reportExportService;
 
+        @Qualifier("tenantJdbcTemplate")
+        private final JdbcTemplate tenantJdbcTemplate;
+
         @Override
         @Transactional(readOnly = true)
         public AttendanceSummaryReport generateAttendanceSummary(ReportQuery query) {
@@ -68,9 +77,13 @@ public class ReportServiceImpl implements IReportService {
                 int totalLateCount = 0;
                 int totalEarlyLeaveCount = 0;
 
+                // Tổng hợp của mọi nhân viên trong một truy vấn
+                int totalWorkingDays = calculateWorkingDays(startDate, endDate);
+                Map<Long, AttendanceTotals> totalsByEmployee = loadAttendanceTotals(employees, startDate, endDate);
+
                 for (UserEntity employee : employees) {
-                        EmployeeAttendanceSummary summary = calculateEmployeeAttendanceSummary(
-                                        employee, startDate, endDate);
+                        EmployeeAttendanceSummary summary = buildEmployeeAttendanceSummary(employee, totalWorkingDays,
+                                        totalsByEmployee.getOrDefault(employee.getId(), AttendanceTotals.EMPTY));
                         employeeSummaries.add(summary);
 
                         totalPresentDays += summary.getPresentDays();
@@ -79,8 +92,6 @@ public class ReportServiceImpl implements IReportService {
                         totalEarlyLeaveCount += summary.getEarlyLeaveCount();
                 }
 
-                // Tính số ngày làm việc trong khoảng thời gian
-                int totalWorkingDays = calculateWorkingDays(startDate, endDate);
                 int totalExpectedDays = totalWorkingDays * employees.size();
 
                 // Tính tỷ lệ
@@ -129,9 +140,12 @@ public class ReportServiceImpl implements IReportService {
                 BigDecimal totalWeekendPay = BigDecimal.ZERO;
                 int employeesWithOvertime = 0;
 
+                // Tổng hợp của mọi nhân viên trong một truy vấn
+                Map<Long, OvertimeTotals> totalsByEmployee = loadOvertimeTotals(employees, startDate, endDate);
+
                 for (UserEntity employee : employees) {
-                        EmployeeOvertimeSummary summary = calculateEmployeeOvertimeSummary(
-                                        employee, startDate, endDate);
+                        EmployeeOvertimeSummary summary = buildEmployeeOvertimeSummary(employee,
+                                        totalsByEmployee.getOrDefault(employee.getId(), OvertimeTotals.EMPTY));
 
                         if (summary.getTotalOvertimeMinutes() > 0) {
                                 employeeSummaries.add(summary);
@@ -202,9 +216,12 @@ public class ReportServiceImpl implements IReportService {
                 int totalCompliant = 0;
                 int totalNonCompliant = 0;
 
+                // Tổng hợp của mọi nhân viên trong một truy vấn
+                Map<Long, BreakTotals> totalsByEmployee = loadBreakTotals(employees, startDate, endDate);
+
                 for (UserEntity employee : employees) {
-                        EmployeeBreakSummary summary = calculateEmployeeBreakSummary(
-                                        employee, startDate, endDate);
+                        EmployeeBreakSummary summary = buildEmployeeBreakSummary(employee,
+                                        totalsByEmployee.getOrDefault(employee.getId(), BreakTotals.EMPTY));
                         employeeSummaries.add(summary);
 
                         totalBreakCount += summary.getTotalBreakCount();
@@ -591,65 +608,56 @@ public class ReportServiceImpl implements IReportService {
                         return buildEmptyShiftUtilizationReport(startDate, endDate);
                 }
 
-                // Lấy tất cả shift assignments trong khoảng thời gian
-                List<ShiftAssignmentEntity> allAssignments = new ArrayList<>();
-                for (LocalDate date = startDate; !date.isAfter(endDate); date = date.plusDays(1)) {
-                        List<ShiftAssignmentEntity> dailyAssignments = shiftAssignmentRepository
-                                        .findByWorkDate(date);
-                        allAssignments.addAll(dailyAssignments);
-                }
-
-                // Filter theo shiftTemplateIds nếu có
-                if (query.getShiftTemplateIds() != null && !query.getShiftTemplateIds().isEmpty()) {
-                        Set<Long> shiftTemplateIdSet = new HashSet<>(query.getShiftTemplateIds());
-                        allAssignments = allAssignments.stream()
-                                        .filter(a -> shiftTemplateIdSet.contains(a.getShiftTemplateId()))
-                                        .collect(Collectors.toList());
-                }
-
-                // Tính tổng quan
-                int totalAssignments = allAssignments.size();
-                int completedShifts = 0;
-                int cancelledShifts = 0;
-                int swappedShifts = 0;
-
-                for (ShiftAssignmentEntity assignment : allAssignments) {
-                        switch (assignment.getStatus()) {
-                                case COMPLETED:
-                                        completedShifts++;
-                                        break;
-                                case CANCELLED:
-                                        cancelledShifts++;
-                                        break;
-                                case SWAPPED:
-                                        swappedShifts++;
-                                        break;
-                                default:
-                                        break;
-                        }
+                // Đếm phân ca và yêu cầu đổi ca bằng truy vấn theo khoảng (lọc shift template trong SQL)
+                boolean filterTemplates = query.getShiftTemplateIds() != null
+                                && !query.getShiftTemplateIds().isEmpty();
+                List<ShiftAssignmentStatusCount> assignmentCounts = filterTemplates
+                                ? shiftAssignmentRepository.countByWorkDateBetweenAndTemplateIdsGroupByTemplateAndStatus(
+                                                startDate, endDate, query.getShiftTemplateIds())
+                                : shiftAssignmentRepository.countByWorkDateBetweenGroupByTemplateAndStatus(
+                                                startDate, endDate);
+                LocalDateTime swapFrom = startDate.atStartOfDay();
+                LocalDateTime swapTo = endDate.plusDays(1).atStartOfDay();
+                List<SwapRequestStatusCount> swapCounts = filterTemplates
+                                ? shiftSwapRequestRepository.countByCreatedAtRangeAndTemplateIdsGroupByStatus(
+                                                swapFrom, swapTo, query.getShiftTemplateIds())
+                                : shiftSwapRequestRepository.countByCreatedAtRangeGroupByStatus(swapFrom, swapTo);
+
+                // Tính tổng quan và số liệu theo ca trong một lượt
+                ShiftCounts overall = ShiftCounts.EMPTY;
+                Map<Long, ShiftCounts> countsByTemplate = new HashMap<>();
+
+                for (ShiftAssignmentStatusCount row : assignmentCounts) {
+                        int count = row.getAssignmentCount().intValue();
+                        overall = overall.plus(row.getStatus(), count);
+                        countsByTemplate.merge(row.getShiftTemplateId(),
+                                        ShiftCounts.EMPTY.plus(row.getStatus(), count), ShiftCounts::plus);
                 }
+                int totalAssignments = overall.total();
+                int completedShifts = overall.completed();
 
                 double shiftCompletionRate = totalAssignments > 0
                                 ? (double) completedShifts / totalAssignments * 100
                                 : 0.0;
 
                 // Thống kê swap requests
-                List<ShiftSwapRequestEntity> swapRequests = getSwapRequestsInDateRange(startDate, endDate);
-                int totalSwapRequests = swapRequests.size();
+                int totalSwapRequests = 0;
                 int approvedSwaps = 0;
                 int rejectedSwaps = 0;
                 int pendingSwaps = 0;
 
-                for (ShiftSwapRequestEntity request : swapRequests) {
-                        switch (request.getStatus()) {
+                for (SwapRequestStatusCount row : swapCounts) {
+                        int count = row.getRequestCount().intValue();
+                        totalSwapRequests += count;
+                        switch (row.getStatus()) {
                                 case APPROVED:
-                                        approvedSwaps++;
+                                        approvedSwaps += count;
                                         break;
                                 case REJECTED:
-                                        rejectedSwaps++;
+                                        rejectedSwaps += count;
                                         break;
                                 case PENDING:
-                                        pendingSwaps++;
+                                        pendingSwaps += count;
                                         break;
                         }
                 }
@@ -659,34 +667,11 @@ public class ReportServiceImpl implements IReportService {
                                 : 0.0;
 
                 // Chi tiết theo ca
-                Map<Long, List<ShiftAssignmentEntity>> assignmentsByTemplate = allAssignments.stream()
-                                .collect(Collectors.groupingBy(ShiftAssignmentEntity::getShiftTemplateId));
-
                 List<ShiftTemplateSummary> shiftSummaries = new ArrayList<>();
                 for (ShiftTemplateEntity template : shiftTemplates) {
-                        List<ShiftAssignmentEntity> templateAssignments = assignmentsByTemplate
-                                        .getOrDefault(template.getId(), Collections.emptyList());
-
-                        int templateTotal = templateAssignments.size();
-                        int templateCompleted = 0;
-                        int templateCancelled = 0;
-                        int templateSwapped = 0;
-
-                        for (ShiftAssignmentEntity assignment : templateAssignments) {
-                                switch (assignment.getStatus()) {
-                                        case COMPLETED:
-                                                templateCompleted++;
-                                                break;
-                                        case CANCELLED:
-                                                templateCancelled++;
-                                                break;
-                                        case SWAPPED:
-                                                templateSwapped++;
-                                                break;
-                                        default:
-                                                break;
-                                }
-                        }
+                        ShiftCounts counts = countsByTemplate.getOrDefault(template.getId(), ShiftCounts.EMPTY);
+                        int templateTotal = counts.total();
+                        int templateCompleted = counts.completed();
 
                         double utilizationRate = totalAssignments > 0
                                         ? (double) templateTotal / totalAssignments * 100
@@ -702,8 +687,8 @@ public class ReportServiceImpl implements IReportService {
                                         .endTime(template.getEndTime())
                                         .totalAssignments(templateTotal)
                                         .completedAssignments(templateCompleted)
-                                        .cancelledAssignments(templateCancelled)
-                                        .swappedAssignments(templateSwapped)
+                                        .cancelledAssignments(counts.cancelled())
+                                        .swappedAssignments(counts.swapped())
                                         .utilizationRate(Math.round(utilizationRate * 100.0) / 100.0)
                                         .completionRate(Math.round(completionRate * 100.0) / 100.0)
                                         .build());
@@ -714,8 +699,8 @@ public class ReportServiceImpl implements IReportService {
                                 .endDate(endDate)
                                 .totalShiftAssignments(totalAssignments)
                                 .completedShifts(completedShifts)
-                                .cancelledShifts(cancelledShifts)
-                                .swappedShifts(swappedShifts)
+                                .cancelledShifts(overall.cancelled())
+                                .swappedShifts(overall.swapped())
                                 .shiftCompletionRate(Math.round(shiftCompletionRate * 100.0) / 100.0)
                                 .totalSwapRequests(totalSwapRequests)
                                 .approvedSwaps(approvedSwaps)
@@ -726,23 +711,8 @@ public class ReportServiceImpl implements IReportService {
                                 .build();
         }
 
-        /**
-         * Lấy swap requests trong khoảng thời gian
-         */
-        private List<ShiftSwapRequestEntity> getSwapRequestsInDateRange(
-                        LocalDate startDate, LocalDate endDate) {
-                List<ShiftSwapRequestEntity> allRequests = shiftSwapRequestRepository
-                                .findAll();
-
-                return allRequests.stream()
-                                .filter(r -> {
-                                        LocalDate createdDate = r.getCreatedAt().toLocalDate();
-                                        return !createdDate.isBefore(startDate) && !createdDate.isAfter(endDate);
-                                })
-                                .collect(Collectors.toList());
-        }
-
         @Override
+        @Transactional(readOnly = true)
         public byte[] exportReport(ReportType type, ReportQuery query, ExportFormat format,
                         String language) {
                 log.info("Exporting report type: {} in format: {} with language: {}",
@@ -841,100 +811,263 @@ public class ReportServiceImpl implements IReportService {
                 return workingDays;
         }
 
+        // ==================== Set-based Aggregation ====================
+
         /**
-         * Tính tổng hợp chấm công của một nhân viên
+         * Tổng hợp chấm công của một nhân viên trong kỳ
          */
-        private EmployeeAttendanceSummary calculateEmployeeAttendanceSummary(
-                        UserEntity employee, LocalDate startDate, LocalDate endDate) {
-
-                List<AttendanceRecordEntity> records = attendanceRecordRepository
-                                .findByEmployeeIdAndWorkDateBetween(employee.getId(), startDate, endDate);
-
-                int presentDays = 0;
-                int lateCount = 0;
-                int totalLateMinutes = 0;
-                int earlyLeaveCount = 0;
-                int totalEarlyLeaveMinutes = 0;
-                int totalWorkingMinutes = 0;
-
-                for (AttendanceRecordEntity record : records) {
-                        if (record.getStatus() == AttendanceStatus.PRESENT ||
-                                        record.getStatus() == AttendanceStatus.LATE) {
-                                presentDays++;
-                        }
-
-                        if (record.getLateMinutes() != null && record.getLateMinutes() > 0) {
-                                lateCount++;
-                                totalLateMinutes += record.getLateMinutes();
-                        }
+        private record AttendanceTotals(int presentDays, int lateCount, int totalLateMinutes, int earlyLeaveCount,
+                        int totalEarlyLeaveMinutes, int totalWorkingMinutes) {
+                static final AttendanceTotals EMPTY = new AttendanceTotals(0, 0, 0, 0, 0, 0);
+        }
 
-                        if (record.getEarlyLeaveMinutes() != null && record.getEarlyLeaveMinutes() > 0) {
-                                earlyLeaveCount++;
-                                totalEarlyLeaveMinutes += record.getEarlyLeaveMinutes();
-                        }
+        /**
+         * Số phân ca trong kỳ (của một ca hoặc tất cả các ca) theo trạng thái
+         */
+        private record ShiftCounts(int total, int completed, int cancelled, int swapped) {
+                static final ShiftCounts EMPTY = new ShiftCounts(0, 0, 0, 0);
+
+                ShiftCounts plus(ShiftAssignmentStatus status, int count) {
+                        return new ShiftCounts(total + count,
+                                        completed + (status == ShiftAssignmentStatus.COMPLETED ? count : 0),
+                                        cancelled + (status == ShiftAssignmentStatus.CANCELLED ? count : 0),
+                                        swapped + (status == ShiftAssignmentStatus.SWAPPED ? count : 0));
+                }
 
-                        if (record.getWorkingMinutes() != null) {
-                                totalWorkingMinutes += record.getWorkingMinutes();
-                        }
+                ShiftCounts plus(ShiftCounts other) {
+                        return new ShiftCounts(total + other.total, completed + other.completed,
+                                        cancelled + other.cancelled, swapped + other.swapped);
                 }
+        }
 
-                int totalWorkingDays = calculateWorkingDays(startDate, endDate);
-                int absentDays = totalWorkingDays - presentDays;
-                int avgWorkingMinutes = presentDays > 0 ? totalWorkingMinutes / presentDays : 0;
+        /**
+         * Tổng số phút tăng ca của một nhân viên trong kỳ (ngày thường / cuối tuần)
+         */
+        private record OvertimeTotals(int regularMinutes, int weekendMinutes) {
+                static final OvertimeTotals EMPTY = new OvertimeTotals(0, 0);
+        }
 
-                String employeeName = employee.getProfile() != null
+        /**
+         * Tổng hợp giải lao của một nhân viên trong kỳ, tính trên các ngày có giải lao
+         */
+        private record BreakTotals(int daysWithBreaks, int breakCount, int breakMinutes, int compliantCount,
+                        int nonCompliantCount) {
+                static final BreakTotals EMPTY = new BreakTotals(0, 0, 0, 0, 0);
+        }
+
+        // Tháng nằm trọn trong kỳ đọc từ dòng tổng hợp tháng; phần lẻ đầu/cuối kỳ và tháng chưa có dòng
+        // tổng hợp được gộp từ bản ghi ngày. Tham số: employeeIds, fromIndex, toIndex (index = year * 12 + month - 1),
+        // employeeIds, startDate, endDate, fromIndex, toIndex
+        private static final String ATTENDANCE_TOTALS_SQL = """
+                        SELECT employee_id,
+                               SUM(present_days) AS present_days,
+                               SUM(late_count) AS late_count,
+                               SUM(total_late_minutes) AS total_late_minutes,
+                               SUM(early_leave_count) AS early_leave_count,
+                               SUM(total_early_leave_minutes) AS total_early_leave_minutes,
+                               SUM(total_working_minutes) AS total_working_minutes
+                        FROM (
+                            SELECT a.employee_id,
+                                   a.present_days + a.late_days AS present_days,
+                                   a.late_count, a.total_late_minutes,
+                                   a.early_leave_count, a.total_early_leave_minutes,
+                                   a.total_working_minutes
+                            FROM attendance_monthly_aggregates a
+                            WHERE a.employee_id = ANY(?) AND (a.year * 12 + a.month - 1) BETWEEN ? AND ?
+                            UNION ALL
+                            SELECT r.employee_id,
+                                   COUNT(*) FILTER (WHERE r.status IN ('PRESENT', 'LATE')),
+                                   COUNT(*) FILTER (WHERE r.late_minutes > 0),
+                                   COALESCE(SUM(r.late_minutes) FILTER (WHERE r.late_minutes > 0), 0),
+                                   COUNT(*) FILTER (WHERE r.early_leave_minutes > 0),
+                                   COALESCE(SUM(r.early_leave_minutes) FILTER (WHERE r.early_leave_minutes > 0), 0),
+                                   COALESCE(SUM(r.working_minutes), 0)
+                            FROM attendance_records r
+                            WHERE r.employee_id = ANY(?) AND r.work_date BETWEEN ? AND ?
+                              AND NOT EXISTS (
+                                  SELECT 1 FROM attendance_monthly_aggregates a
+                                  WHERE a.employee_id = r.employee_id
+                                    AND a.year = EXTRACT(YEAR FROM r.work_date)
+                                    AND a.month = EXTRACT(MONTH FROM r.work_date)
+                                    AND (a.year * 12 + a.month - 1) BETWEEN ? AND ?)
+                            GROUP BY r.employee_id
+                        ) t
+                        GROUP BY employee_id
+                        """;
+
+        // Tăng ca thứ 7/CN tính là cuối tuần (ISODOW 6, 7)
+        private static final String OVERTIME_TOTALS_SQL = """
+                        SELECT employee_id,
+                               COALESCE(SUM(overtime_minutes) FILTER (WHERE EXTRACT(ISODOW FROM work_date) < 6), 0)
+                                   AS regular_minutes,
+                               COALESCE(SUM(overtime_minutes) FILTER (WHERE EXTRACT(ISODOW FROM work_date) >= 6), 0)
+                                   AS weekend_minutes
+                        FROM attendance_records
+                        WHERE employee_id = ANY(?) AND work_date BETWEEN ? AND ? AND overtime_minutes > 0
+                        GROUP BY employee_id
+                        """;
+
+        // Mỗi ngày có giải lao tính một lần: số lần/số phút giải lao gộp theo bản ghi chấm công trước,
+        // tuân thủ lấy từ break_compliant của bản ghi
+        private static final String BREAK_TOTALS_SQL = """
+                        SELECT r.employee_id,
+                               COUNT(*) AS days_with_breaks,
+                               SUM(b.break_count) AS break_count,
+                               SUM(b.break_minutes) AS break_minutes,
+                               COUNT(*) FILTER (WHERE r.break_compliant) AS compliant_count,
+                               COUNT(*) FILTER (WHERE NOT r.break_compliant) AS non_compliant_count
+                        FROM attendance_records r
+                        JOIN (
+                            SELECT attendance_record_id, work_date,
+                                   COUNT(*) AS break_count,
+                                   COALESCE(SUM(actual_break_minutes), 0) AS break_minutes
+                            FROM break_records
+                            WHERE employee_id = ANY(?) AND work_date BETWEEN ? AND ?
+                            GROUP BY attendance_record_id, work_date
+                        ) b ON b.attendance_record_id = r.id AND b.work_date = r.work_date
+                        WHERE r.employee_id = ANY(?) AND r.work_date BETWEEN ? AND ?
+                        GROUP BY r.employee_id
+                        """;
+
+        /**
+         * Tổng hợp chấm công theo nhân viên trong [startDate, endDate]
+         */
+        private Map<Long, AttendanceTotals> loadAttendanceTotals(
+                        List<UserEntity> employees, LocalDate startDate, LocalDate endDate) {
+                YearMonth firstFullMonth = startDate.getDayOfMonth() == 1
+                                ? YearMonth.from(startDate)
+                                : YearMonth.from(startDate).plusMonths(1);
+                YearMonth lastFullMonth = endDate.equals(YearMonth.from(endDate).atEndOfMonth())
+                                ? YearMonth.from(endDate)
+                                : YearMonth.from(endDate).minusMonths(1);
+                // Kỳ không chứa tháng trọn vẹn: khoảng index rỗng, mọi ngày đọc từ bản ghi ngày
+                int fromIndex = periodIndex(firstFullMonth);
+                int toIndex = periodIndex(lastFullMonth);
+
+                Map<Long, AttendanceTotals> result = new HashMap<>();
+                tenantJdbcTemplate.query(connection -> {
+                        PreparedStatement ps = connection.prepareStatement(ATTENDANCE_TOTALS_SQL);
+                        Array employeeIds = employeeIdArray(connection, employees);
+                        ps.setArray(1, employeeIds);
+                        ps.setInt(2, fromIndex);
+                        ps.setInt(3, toIndex);
+                        ps.setArray(4, employeeIds);
+                        ps.setDate(5, Date.valueOf(startDate));
+                        ps.setDate(6, Date.valueOf(endDate));
+                        ps.setInt(7, fromIndex);
+                        ps.setInt(8, toIndex);
+                        return ps;
+                }, (ResultSet rs) -> {
+                        result.put(rs.getLong("employee_id"), new AttendanceTotals(
+                                        rs.getInt("present_days"),
+                                        rs.getInt("late_count"),
+                                        rs.getInt("total_late_minutes"),
+                                        rs.getInt("early_leave_count"),
+                                        rs.getInt("total_early_leave_minutes"),
+                                        rs.getInt("total_working_minutes")));
+                });
+                return result;
+        }
+
+        /**
+         * Tổng số phút tăng ca theo nhân viên trong [startDate, endDate]
+         */
+        private Map<Long, OvertimeTotals> loadOvertimeTotals(
+                        List<UserEntity> employees, LocalDate startDate, LocalDate endDate) {
+                Map<Long, OvertimeTotals> result = new HashMap<>();
+                tenantJdbcTemplate.query(connection -> {
+                        PreparedStatement ps = connection.prepareStatement(OVERTIME_TOTALS_SQL);
+                        ps.setArray(1, employeeIdArray(connection, employees));
+                        ps.setDate(2, Date.valueOf(startDate));
+                        ps.setDate(3, Date.valueOf(endDate));
+                        return ps;
+                }, (ResultSet rs) -> {
+                        result.put(rs.getLong("employee_id"), new OvertimeTotals(
+                                        rs.getInt("regular_minutes"),
+                                        rs.getInt("weekend_minutes")));
+                });
+                return result;
+        }
+
+        /**
+         * Tổng hợp giải lao theo nhân viên trong [startDate, endDate]
+         */
+        private Map<Long, BreakTotals> loadBreakTotals(
+                        List<UserEntity> employees, LocalDate startDate, LocalDate endDate) {
+                Map<Long, BreakTotals> result = new HashMap<>();
+                tenantJdbcTemplate.query(connection -> {
+                        PreparedStatement ps = connection.prepareStatement(BREAK_TOTALS_SQL);
+                        Array employeeIds = employeeIdArray(connection, employees);
+                        ps.setArray(1, employeeIds);
+                        ps.setDate(2, Date.valueOf(startDate));
+                        ps.setDate(3, Date.valueOf(endDate));
+                        ps.setArray(4, employeeIds);
+                        ps.setDate(5, Date.valueOf(startDate));
+                        ps.setDate(6, Date.valueOf(endDate));
+                        return ps;
+                }, (ResultSet rs) -> {
+                        result.put(rs.getLong("employee_id"), new BreakTotals(
+                                        rs.getInt("days_with_breaks"),
+                                        rs.getInt("break_count"),
+                                        rs.getInt("break_minutes"),
+                                        rs.getInt("compliant_count"),
+                                        rs.getInt("non_compliant_count")));
+                });
+                return result;
+        }
+
+        private static Array employeeIdArray(Connection connection, List<UserEntity> employees) throws SQLException {
+                return connection.createArrayOf("bigint", employees.stream().map(UserEntity::getId).toArray());
+        }
+
+        private static int periodIndex(YearMonth period) {
+                return period.getYear() * 12 + period.getMonthValue() - 1;
+        }
+
+        private static String employeeName(UserEntity employee) {
+                return employee.getProfile() != null
                                 ? employee.getProfile().getName()
                                 : employee.getEmail();
+        }
+
+        /**
+         * Dựng tổng hợp chấm công của một nhân viên từ kết quả truy vấn gộp
+         */
+        private EmployeeAttendanceSummary buildEmployeeAttendanceSummary(
+                        UserEntity employee, int totalWorkingDays, AttendanceTotals totals) {
+                int presentDays = totals.presentDays();
+                int absentDays = totalWorkingDays - presentDays;
+                int avgWorkingMinutes = presentDays > 0 ? totals.totalWorkingMinutes() / presentDays : 0;
 
                 return EmployeeAttendanceSummary.builder()
                                 .employeeId(employee.getId())
                                 .employeeCode(employee.getEmployeeCode())
-                                .employeeName(employeeName)
+                                .employeeName(employeeName(employee))
                                 .totalWorkingDays(totalWorkingDays)
                                 .presentDays(presentDays)
                                 .absentDays(Math.max(0, absentDays))
-                                .lateCount(lateCount)
-                                .totalLateMinutes(totalLateMinutes)
-                                .earlyLeaveCount(earlyLeaveCount)
-                                .totalEarlyLeaveMinutes(totalEarlyLeaveMinutes)
-                                .totalWorkingMinutes(totalWorkingMinutes)
+                                .lateCount(totals.lateCount())
+                                .totalLateMinutes(totals.totalLateMinutes())
+                                .earlyLeaveCount(totals.earlyLeaveCount())
+                                .totalEarlyLeaveMinutes(totals.totalEarlyLeaveMinutes())
+                                .totalWorkingMinutes(totals.totalWorkingMinutes())
                                 .averageWorkingMinutesPerDay(avgWorkingMinutes)
                                 .build();
         }
 
         /**
-         * Tính tổng hợp overtime của một nhân viên
+         * Dựng tổng hợp overtime của một nhân viên từ kết quả truy vấn gộp
          */
-        private EmployeeOvertimeSummary calculateEmployeeOvertimeSummary(
-                        UserEntity employee, LocalDate startDate, LocalDate endDate) {
-
-                List<AttendanceRecordEntity> records = attendanceRecordRepository
-                                .findByEmployeeIdAndWorkDateBetween(employee.getId(), startDate, endDate);
-
-                int regularOT = 0, nightOT = 0, holidayOT = 0, weekendOT = 0;
-
-                for (AttendanceRecordEntity record : records) {
-                        if (record.getOvertimeMinutes() != null && record.getOvertimeMinutes() > 0) {
-                                // Phân loại overtime dựa vào ngày trong tuần
-                                int dayOfWeek = record.getWorkDate().getDayOfWeek().getValue();
-                                if (dayOfWeek == 6 || dayOfWeek == 7) {
-                                        weekendOT += record.getOvertimeMinutes();
-                                } else {
-                                        regularOT += record.getOvertimeMinutes();
-                                }
-                        }
-                }
-
+        private EmployeeOvertimeSummary buildEmployeeOvertimeSummary(UserEntity employee, OvertimeTotals totals) {
+                int regularOT = totals.regularMinutes();
+                int weekendOT = totals.weekendMinutes();
+                int nightOT = 0, holidayOT = 0;
                 int totalOT = regularOT + nightOT + holidayOT + weekendOT;
 
-                String employeeName = employee.getProfile() != null
-                                ? employee.getProfile().getName()
-                                : employee.getEmail();
-
                 return EmployeeOvertimeSummary.builder()
                                 .employeeId(employee.getId())
                                 .employeeCode(employee.getEmployeeCode())
-                                .employeeName(employeeName)
+                                .employeeName(employeeName(employee))
                                 .regularOvertimeMinutes(regularOT)
                                 .nightOvertimeMinutes(nightOT)
                                 .holidayOvertimeMinutes(holidayOT)
@@ -949,58 +1082,22 @@ public class ReportServiceImpl implements IReportService {
         }
 
         /**
-         * Tính tổng hợp break của một nhân viên
+         * Dựng tổng hợp break của một nhân viên từ kết quả truy vấn gộp
          */
-        private EmployeeBreakSummary calculateEmployeeBreakSummary(
-                        UserEntity employee, LocalDate startDate, LocalDate endDate) {
-
-                List<AttendanceRecordEntity> attendanceRecords = attendanceRecordRepository
-                                .findByEmployeeIdAndWorkDateBetween(employee.getId(), startDate, endDate);
-
-                int totalBreakCount = 0;
-                int totalBreakMinutes = 0;
-                int compliantCount = 0;
-                int nonCompliantCount = 0;
-                int daysWithBreaks = 0;
-
-                for (AttendanceRecordEntity attendance : attendanceRecords) {
-                        List<BreakRecordEntity> breaks = breakRecordRepository
-                                        .findByAttendanceRecordId(attendance.getId());
-
-                        if (!breaks.isEmpty()) {
-                                daysWithBreaks++;
-                                totalBreakCount += breaks.size();
-
-                                for (BreakRecordEntity br : breaks) {
-                                        if (br.getActualBreakMinutes() != null) {
-                                                totalBreakMinutes += br.getActualBreakMinutes();
-                                        }
-                                }
-
-                                // Kiểm tra compliance dựa vào attendance record
-                                if (attendance.getBreakCompliant() != null && attendance.getBreakCompliant()) {
-                                        compliantCount++;
-                                } else if (attendance.getBreakCompliant() != null) {
-                                        nonCompliantCount++;
-                                }
-                        }
-                }
-
-                int avgBreakMinutes = daysWithBreaks > 0 ? totalBreakMinutes / daysWithBreaks : 0;
+        private EmployeeBreakSummary buildEmployeeBreakSummary(UserEntity employee, BreakTotals totals) {
+                int compliantCount = totals.compliantCount();
+                int nonCompliantCount = totals.nonCompliantCount();
+                int avgBreakMinutes = totals.daysWithBreaks() > 0 ? totals.breakMinutes() / totals.daysWithBreaks() : 0;
                 double complianceRate = (compliantCount + nonCompliantCount) > 0
                                 ? (double) compliantCount / (compliantCount + nonCompliantCount) * 100
                                 : 100.0;
 
-                String employeeName = employee.getProfile() != null
-                                ? employee.getProfile().getName()
-                                : employee.getEmail();
-
                 return EmployeeBreakSummary.builder()
                                 .employeeId(employee.getId())
                                 .employeeCode(employee.getEmployeeCode())
-                                .employeeName(employeeName)
-                                .totalBreakCount(totalBreakCount)
-                                .totalBreakMinutes(totalBreakMinutes)
+                                .employeeName(employeeName(employee))
+                                .totalBreakCount(totals.breakCount())
+                                .totalBreakMinutes(totals.breakMinutes())
                                 .averageBreakMinutesPerDay(avgBreakMinutes)
                                 .compliantBreakCount(compliantCount)
                                 .nonCompliantBreakCount(nonCompliantCount)
@@ -1,5 +1,6 @@
 package com.tamabee.api_hr.service.company.impl;
 
+import com.tamabee.api_hr.datasource.TenantContext;
 import com.tamabee.api_hr.dto.request.schedule.SelectScheduleRequest;
 import com.tamabee.api_hr.dto.response.schedule.ScheduleSelectionResponse;
 import com.tamabee.api_hr.dto.response.schedule.WorkScheduleResponse;
@@ -17,6 +18,7 @@ import com.tamabee.api_hr.repository.attendance.ScheduleSelectionRepository;
 import com.tamabee.api_hr.repository.user.UserRepository;
 import com.tamabee.api_hr.repository.attendance.WorkScheduleAssignmentRepository;
 import com.tamabee.api_hr.repository.attendance.WorkScheduleRepository;
+import com.tamabee.api_hr.service.company.cache.WorkScheduleTimelineCache;
 import com.tamabee.api_hr.service.company.interfaces.IScheduleSelectionService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -49,6 +51,7 @@ public class ScheduleSelectionServiceImpl implements IScheduleSelectionService {
         private final UserRepository userRepository;
         private final ScheduleSelectionMapper selectionMapper;
         private final WorkScheduleMapper workScheduleMapper;
+        private final WorkScheduleTimelineCache timelineCache;
 
         // ==================== Employee Operations ====================
 
@@ -285,6 +288,7 @@ public class ScheduleSelectionServiceImpl implements IScheduleSelectionService {
                 assignment.setEffectiveTo(selection.getEffectiveTo());
 
                 assignmentRepository.save(assignment);
+                timelineCache.invalidateEmployee(TenantContext.getCurrentTenant(), selection.getEmployeeId());
                 log.info("Đã tạo assignment cho nhân viên {} với lịch {}",
                                 selection.getEmployeeId(), selection.getScheduleId());
         }
@@ -1,5 +1,6 @@
 package com.tamabee.api_hr.service.company.impl;
 
+import com.tamabee.api_hr.datasource.TenantContext;
 import com.tamabee.api_hr.dto.config.BreakPeriod;
 import com.tamabee.api_hr.dto.config.WorkScheduleData;
 import com.tamabee.api_hr.dto.request.schedule.AssignScheduleRequest;
@@ -19,6 +20,9 @@ import com.tamabee.api_hr.mapper.company.WorkScheduleMapper;
 import com.tamabee.api_hr.repository.user.UserRepository;
 import com.tamabee.api_hr.repository.attendance.WorkScheduleAssignmentRepository;
 import com.tamabee.api_hr.repository.attendance.WorkScheduleRepository;
+import com.tamabee.api_hr.service.company.cache.WorkScheduleTimelineCache;
+import com.tamabee.api_hr.service.company.cache.WorkScheduleTimelineCache.AssignmentInterval;
+import com.tamabee.api_hr.service.company.cache.WorkScheduleTimelineCache.EmployeeTimeline;
 import com.tamabee.api_hr.service.company.interfaces.IWorkScheduleService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -46,6 +50,7 @@ public class WorkScheduleServiceImpl implements IWorkScheduleService {
     private final WorkScheduleAssignmentRepository assignmentRepository;
     private final UserRepository userRepository;
     private final WorkScheduleMapper workScheduleMapper;
+    private final WorkScheduleTimelineCache timelineCache;
 
     // ==================== CRUD Operations ====================
 
@@ -69,6 +74,7 @@ public class WorkScheduleServiceImpl implements IWorkScheduleService {
         }
 
         entity = workScheduleRepository.save(entity);
+        timelineCache.invalidateTenant(TenantContext.getCurrentTenant());
         log.info("Đã tạo lịch làm việc: {}", entity.getName());
 
         return workScheduleMapper.toResponse(entity);
@@ -99,6 +105,7 @@ public class WorkScheduleServiceImpl implements IWorkScheduleService {
 
         workScheduleMapper.updateEntity(entity, request);
         entity = workScheduleRepository.save(entity);
+        timelineCache.invalidateTenant(TenantContext.getCurrentTenant());
         log.info("Đã cập nhật lịch làm việc: {}", scheduleId);
 
         return workScheduleMapper.toResponse(entity);
@@ -118,6 +125,7 @@ public class WorkScheduleServiceImpl implements IWorkScheduleService {
 
         entity.setDeleted(true);
         workScheduleRepository.save(entity);
+        timelineCache.invalidateTenant(TenantContext.getCurrentTenant());
         log.info("Đã xóa lịch làm việc: {}", scheduleId);
     }
 
@@ -150,21 +158,19 @@ public class WorkScheduleServiceImpl implements IWorkScheduleService {
     @Override
     @Transactional(readOnly = true)
     public WorkScheduleResponse getEffectiveSchedule(Long employeeId, LocalDate date) {
-        // Tìm assignment hiệu lực của nhân viên
-        List<WorkScheduleAssignmentEntity> assignments = assignmentRepository
-                .findByEmployeeIdAndEffectiveDate(employeeId, date);
+        String tenantDomain = TenantContext.getCurrentTenant();
+        if (tenantDomain == null) {
+            return loadEffectiveSchedule(employeeId, date);
+        }
 
-        if (!assignments.isEmpty()) {
-            // Lấy assignment mới nhất (đã sort theo effectiveFrom DESC)
-            Long scheduleId = assignments.get(0).getScheduleId();
-            return workScheduleRepository.findByIdAndDeletedFalse(scheduleId)
-                    .map(workScheduleMapper::toResponse)
-                    .orElse(null);
+        // Resolve từ timeline trong bộ nhớ (cache theo tenant)
+        EmployeeTimeline timeline = timelineCache.getTimeline(tenantDomain, employeeId, this::loadTimeline);
+        Long scheduleId = timeline.resolve(date);
+        if (scheduleId != null) {
+            return timelineCache.getSchedule(tenantDomain, scheduleId, this::loadSchedule);
         }
 
-        return workScheduleRepository.findDefault()
-                .map(workScheduleMapper::toResponse)
-                .orElse(null);
+        return timelineCache.getDefaultSchedule(tenantDomain, this::loadDefaultSchedule);
     }
 
     // ==================== Assignment Operations ====================
@@ -203,6 +209,7 @@ public class WorkScheduleServiceImpl implements IWorkScheduleService {
         assignment.setEffectiveTo(effectiveTo);
 
         assignment = assignmentRepository.save(assignment);
+        timelineCache.invalidateEmployee(TenantContext.getCurrentTenant(), employeeId);
         log.info("Đã gán lịch {} cho nhân viên {}", scheduleId, employeeId);
 
         String employeeName = employee.getProfile() != null ? employee.getProfile().getName() : employee.getEmail();
@@ -242,6 +249,7 @@ public class WorkScheduleServiceImpl implements IWorkScheduleService {
 
         // WorkScheduleAssignment không có soft delete - xóa thẳng
         assignmentRepository.delete(assignment);
+        timelineCache.invalidateEmployee(TenantContext.getCurrentTenant(), assignment.getEmployeeId());
         log.info("Đã xóa assignment: {}", assignmentId);
     }
 
@@ -287,6 +295,55 @@ public class WorkScheduleServiceImpl implements IWorkScheduleService {
                 .orElseThrow(() -> new NotFoundException("Không tìm thấy lịch làm việc", ErrorCode.SCHEDULE_NOT_FOUND));
     }
 
+    /**
+     * Resolve lịch hiệu lực trực tiếp từ DB (không có tenant context để cache)
+     */
+    private WorkScheduleResponse loadEffectiveSchedule(Long employeeId, LocalDate date) {
+        // Tìm assignment hiệu lực của nhân viên
+        List<WorkScheduleAssignmentEntity> assignments = assignmentRepository
+                .findByEmployeeIdAndEffectiveDate(employeeId, date);
+
+        if (!assignments.isEmpty()) {
+            // Lấy assignment mới nhất (đã sort theo effectiveFrom DESC)
+            return loadSchedule(assignments.get(0).getScheduleId());
+        }
+
+        return loadDefaultSchedule();
+    }
+
+    /**
+     * Load toàn bộ assignment của nhân viên thành timeline (effectiveFrom DESC)
+     */
+    private EmployeeTimeline loadTimeline(Long employeeId) {
+        List<AssignmentInterval> intervals = assignmentRepository.findByEmployeeIdAndEffectiveDateRange(
+                employeeId,
+                LocalDate.of(1900, 1, 1),
+                LocalDate.of(9999, 12, 31))
+                .stream()
+                .map(assignment -> new AssignmentInterval(
+                        assignment.getEffectiveFrom(), assignment.getEffectiveTo(), assignment.getScheduleId()))
+                .toList();
+        return new EmployeeTimeline(intervals);
+    }
+
+    /**
+     * Load lịch theo id (đã parse scheduleData), null nếu không tồn tại
+     */
+    private WorkScheduleResponse loadSchedule(Long scheduleId) {
+        return workScheduleRepository.findByIdAndDeletedFalse(scheduleId)
+                .map(workScheduleMapper::toResponse)
+                .orElse(null);
+    }
+
+    /**
+     * Load lịch mặc định, null nếu không có
+     */
+    private WorkScheduleResponse loadDefaultSchedule() {
+        return workScheduleRepository.findDefault()
+                .map(workScheduleMapper::toResponse)
+                .orElse(null);
+    }
+
     /**
      * Bỏ đánh dấu default của tất cả lịch
      */
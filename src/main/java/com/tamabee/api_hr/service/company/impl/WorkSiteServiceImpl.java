@@ -0,0 +1,164 @@
+package com.tamabee.api_hr.service.company.impl;
+
+import com.tamabee.api_hr.datasource.TenantContext;
+import com.tamabee.api_hr.dto.config.GeoPoint;
+import com.tamabee.api_hr.dto.request.attendance.WorkSiteRequest;
+import com.tamabee.api_hr.dto.response.attendance.WorkSiteResponse;
+import com.tamabee.api_hr.entity.attendance.WorkSiteEntity;
+import com.tamabee.api_hr.enums.ErrorCode;
+import com.tamabee.api_hr.enums.WorkSiteType;
+import com.tamabee.api_hr.exception.BadRequestException;
+import com.tamabee.api_hr.exception.NotFoundException;
+import com.tamabee.api_hr.mapper.company.WorkSiteMapper;
+import com.tamabee.api_hr.repository.attendance.WorkSiteRepository;
+import com.tamabee.api_hr.service.company.cache.GeoFenceIndex;
+import com.tamabee.api_hr.service.company.cache.GeoFenceIndexCache;
+import com.tamabee.api_hr.service.company.interfaces.IWorkSiteService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Service implementation quản lý địa điểm làm việc.
+ * Ghi địa điểm sẽ invalidate chỉ mục geo-fence của tenant.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class WorkSiteServiceImpl implements IWorkSiteService {
+
+    private static final int DEFAULT_RADIUS_METERS = 100;
+
+    private final WorkSiteRepository workSiteRepository;
+    private final WorkSiteMapper workSiteMapper;
+    private final GeoFenceIndexCache geoFenceIndexCache;
+
+    // ==================== CRUD Operations ====================
+
+    @Override
+    @Transactional
+    public WorkSiteResponse createWorkSite(WorkSiteRequest request) {
+        validateGeometry(request);
+
+        WorkSiteEntity entity = workSiteMapper.toEntity(request);
+        entity = workSiteRepository.save(entity);
+        geoFenceIndexCache.invalidate(TenantContext.getCurrentTenant());
+
+        log.info("Đã tạo địa điểm làm việc {} ({})", entity.getId(), entity.getName());
+        return workSiteMapper.toResponse(entity);
+    }
+
+    @Override
+    @Transactional
+    public WorkSiteResponse updateWorkSite(Long workSiteId, WorkSiteRequest request) {
+        WorkSiteEntity entity = findWorkSite(workSiteId);
+        validateGeometry(request);
+
+        workSiteMapper.updateEntity(entity, request);
+        entity = workSiteRepository.save(entity);
+        geoFenceIndexCache.invalidate(TenantContext.getCurrentTenant());
+
+        log.info("Đã cập nhật địa điểm làm việc {}", workSiteId);
+        return workSiteMapper.toResponse(entity);
+    }
+
+    @Override
+    @Transactional
+    public void deleteWorkSite(Long workSiteId) {
+        WorkSiteEntity entity = findWorkSite(workSiteId);
+        entity.setDeleted(true);
+        workSiteRepository.save(entity);
+        geoFenceIndexCache.invalidate(TenantContext.getCurrentTenant());
+
+        log.info("Đã xóa địa điểm làm việc {}", workSiteId);
+    }
+
+    // ==================== Query Operations ====================
+
+    @Override
+    @Transactional(readOnly = true)
+    public WorkSiteResponse getWorkSiteById(Long workSiteId) {
+        return workSiteMapper.toResponse(findWorkSite(workSiteId));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<WorkSiteResponse> getWorkSites(Pageable pageable) {
+        return workSiteRepository.findByDeletedFalse(pageable)
+                .map(workSiteMapper::toResponse);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public GeoFenceIndex getGeoFenceIndex(Integer defaultRadiusMeters) {
+        int defaultRadius = defaultRadiusMeters != null ? defaultRadiusMeters : DEFAULT_RADIUS_METERS;
+
+        String tenantDomain = TenantContext.getCurrentTenant();
+        if (tenantDomain == null) {
+            return buildIndex(defaultRadius);
+        }
+        return geoFenceIndexCache.get(tenantDomain, defaultRadius, () -> buildIndex(defaultRadius));
+    }
+
+    // ==================== Private Helper Methods ====================
+
+    /**
+     * Build chỉ mục từ các địa điểm đang hoạt động
+     */
+    private GeoFenceIndex buildIndex(int defaultRadius) {
+        GeoFenceIndex.Builder builder = GeoFenceIndex.builder()
+                .sitesConfigured(workSiteRepository.existsByDeletedFalse());
+        for (WorkSiteEntity site : workSiteRepository.findByDeletedFalseAndIsActiveTrue()) {
+            if (site.getType() == WorkSiteType.CIRCLE) {
+                if (site.getLatitude() == null || site.getLongitude() == null) {
+                    log.warn("Bỏ qua địa điểm {}: thiếu tọa độ tâm", site.getId());
+                    continue;
+                }
+                int radius = site.getRadiusMeters() != null ? site.getRadiusMeters() : defaultRadius;
+                builder.addCircle(site.getId(), site.getLatitude(), site.getLongitude(), radius);
+            } else {
+                List<GeoPoint> polygon = workSiteMapper.deserializePolygon(site.getPolygon());
+                if (polygon == null || polygon.size() < 3) {
+                    log.warn("Bỏ qua địa điểm {}: đa giác không hợp lệ", site.getId());
+                    continue;
+                }
+                double[] latitudes = new double[polygon.size()];
+                double[] longitudes = new double[polygon.size()];
+                for (int i = 0; i < polygon.size(); i++) {
+                    latitudes[i] = polygon.get(i).getLatitude();
+                    longitudes[i] = polygon.get(i).getLongitude();
+                }
+                builder.addPolygon(site.getId(), latitudes, longitudes);
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Kiểm tra vùng địa lý đủ thông tin theo loại
+     */
+    private void validateGeometry(WorkSiteRequest request) {
+        if (request.getType() == WorkSiteType.CIRCLE) {
+            if (request.getLatitude() == null || request.getLongitude() == null) {
+                throw new BadRequestException("Vùng tròn cần tọa độ tâm", ErrorCode.INVALID_WORK_SITE);
+            }
+        } else if (request.getPolygon() == null || request.getPolygon().size() < 3) {
+            throw new BadRequestException("Đa giác cần ít nhất 3 đỉnh", ErrorCode.INVALID_WORK_SITE);
+        }
+    }
+
+    /**
+     * Tìm địa điểm theo ID
+     */
+    private WorkSiteEntity findWorkSite(Long workSiteId) {
+        return workSiteRepository.findByIdAndDeletedFalse(workSiteId)
+                .orElseThrow(() -> new NotFoundException(
+                        "Không tìm thấy địa điểm làm việc",
+                        ErrorCode.WORK_SITE_NOT_FOUND));
+    }
+}
@@ -0,0 +1,43 @@
+package com.tamabee.api_hr.service.company.interfaces;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Collection;
+
+/**
+ * Service duy trì bảng tổng hợp chấm công theo nhân viên-tháng (attendance_monthly_aggregates).
+ * Được gọi trong transaction ghi attendance_records; việc tính lại chạy sau khi transaction đó commit.
+ */
+public interface IAttendanceAggregateService {
+
+    /**
+     * Tính lại tổng hợp tháng chứa ngày làm việc của nhân viên (sau commit nếu đang trong transaction)
+     *
+     * @param employeeId ID nhân viên
+     * @param workDate   ngày làm việc vừa thay đổi
+     */
+    void refresh(Long employeeId, LocalDate workDate);
+
+    /**
+     * Tính lại tổng hợp của nhiều nhân viên trong một tháng (một lượt SQL, sau commit nếu đang trong transaction)
+     *
+     * @param employeeIds danh sách ID nhân viên
+     * @param period      kỳ tổng hợp
+     */
+    void refresh(Collection<Long> employeeIds, YearMonth period);
+
+    /**
+     * Làm mới lại các nhân viên-tháng có lần làm mới sau commit bị lỗi (hàng chờ, tối đa một batch mỗi lần gọi)
+     *
+     * @return số nhân viên-tháng đã làm mới và xóa khỏi hàng chờ
+     */
+    int retryPendingRefreshes();
+
+    /**
+     * Dựng lại toàn bộ tổng hợp của một tháng từ attendance_records (backfill/đối soát)
+     *
+     * @param period kỳ tổng hợp
+     * @return số nhân viên có dữ liệu trong tháng
+     */
+    int rebuild(YearMonth period);
+}
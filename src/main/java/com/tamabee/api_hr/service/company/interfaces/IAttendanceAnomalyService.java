@@ -0,0 +1,38 @@
+package com.tamabee.api_hr.service.company.interfaces;
+
+import com.tamabee.api_hr.dto.request.attendance.ResolveAnomalyRequest;
+import com.tamabee.api_hr.dto.response.attendance.AttendanceAnomalyResponse;
+import com.tamabee.api_hr.dto.response.attendance.AttendanceAnomalyScanResult;
+import com.tamabee.api_hr.enums.AnomalyStatus;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+/**
+ * Service tự động đóng bản ghi quên check-out/kết thúc giải lao và quản lý hàng chờ duyệt
+ * bất thường chấm công.
+ */
+public interface IAttendanceAnomalyService {
+
+    /**
+     * Quét bản ghi chấm công của tenant hiện tại: tự động đóng bản ghi còn mở theo cấu hình công ty
+     * và đưa bất thường vào hàng chờ duyệt (mỗi batch một transaction)
+     */
+    AttendanceAnomalyScanResult scan();
+
+    /**
+     * Lấy danh sách bất thường theo trạng thái (phân trang)
+     *
+     * @param employeeId lọc theo nhân viên (null: tất cả)
+     */
+    Page<AttendanceAnomalyResponse> getAnomalies(AnomalyStatus status, Long employeeId, Pageable pageable);
+
+    /**
+     * Đánh dấu bất thường đã xử lý (đã điều chỉnh hoặc xác nhận đúng)
+     */
+    AttendanceAnomalyResponse resolve(Long anomalyId, Long resolvedBy, ResolveAnomalyRequest request);
+
+    /**
+     * Bỏ qua bất thường; lượt quét sau không đưa lại bất thường này vào hàng chờ
+     */
+    AttendanceAnomalyResponse dismiss(Long anomalyId, Long resolvedBy, ResolveAnomalyRequest request);
+}
@@ -0,0 +1,50 @@
+package com.tamabee.api_hr.service.company.interfaces;
+
+import com.tamabee.api_hr.dto.request.attendance.AttendanceRecalculationRequest;
+import com.tamabee.api_hr.dto.response.attendance.AttendanceRecalculationJobResponse;
+
+import java.util.List;
+
+/**
+ * Service tính lại hàng loạt bản ghi chấm công theo cấu hình hiện tại (sau khi đổi làm tròn,
+ * grace period, quy tắc giải lao). Job chạy nền, song song theo chunk ngày và chạy tiếp được
+ * từ checkpoint sau khi lỗi/hủy/khởi động lại.
+ */
+public interface IAttendanceRecalculationService {
+
+    /**
+     * Tạo job cho khoảng ngày và bắt đầu chạy sau khi commit
+     *
+     * @param request     khoảng ngày cần tính lại
+     * @param requestedBy ID người yêu cầu
+     */
+    AttendanceRecalculationJobResponse start(AttendanceRecalculationRequest request, Long requestedBy);
+
+    /**
+     * Lấy job kèm tiến độ
+     */
+    AttendanceRecalculationJobResponse getJob(Long jobId);
+
+    /**
+     * Lấy các job gần đây (mới nhất trước)
+     */
+    List<AttendanceRecalculationJobResponse> getRecentJobs();
+
+    /**
+     * Hủy job đang chạy; các worker dừng sau batch hiện tại, checkpoint được giữ lại
+     */
+    AttendanceRecalculationJobResponse cancel(Long jobId);
+
+    /**
+     * Chạy tiếp job bị lỗi hoặc đã hủy từ checkpoint của từng chunk
+     */
+    AttendanceRecalculationJobResponse resume(Long jobId);
+
+    /**
+     * Khởi động worker cho các job đang chạy của tenant hiện tại mà node này chưa xử lý
+     * (sau khi khởi động lại, hoặc node khác dừng giữa chừng)
+     *
+     * @return số job được khởi động worker
+     */
+    int resumeRunningJobs();
+}
@@ -1,6 +1,8 @@
 package com.tamabee.api_hr.service.company.interfaces;
 
+import com.tamabee.api_hr.dto.config.AttendanceConfig;
 import com.tamabee.api_hr.dto.request.attendance.AdjustAttendanceRequest;
+import com.tamabee.api_hr.dto.common.CursorPage;
 import com.tamabee.api_hr.dto.request.attendance.AttendanceQueryRequest;
 import com.tamabee.api_hr.dto.request.attendance.CheckInRequest;
 import com.tamabee.api_hr.dto.request.attendance.CheckOutRequest;
@@ -112,6 +114,18 @@ public interface IAttendanceService {
         Page<AttendanceRecordResponse> getAttendanceRecords(AttendanceQueryRequest request,
                         Pageable pageable);
 
+        /**
+         * Lấy danh sách chấm công của công ty theo keyset (workDate, id) giảm dần.
+         * Thời gian mỗi trang không phụ thuộc độ sâu; dùng cho infinite scroll và export.
+         *
+         * @param request      điều kiện lọc (mặc định tháng hiện tại như getAttendanceRecords)
+         * @param cursor       nextCursor của trang trước, null cho trang đầu
+         * @param size         số bản ghi mỗi trang
+         * @param includeTotal có đếm tổng số bản ghi hay không (thêm một lệnh COUNT)
+         */
+        CursorPage<AttendanceRecordResponse> scrollAttendanceRecords(AttendanceQueryRequest request,
+                        String cursor, int size, boolean includeTotal);
+
         /**
          * Lấy danh sách chấm công của nhân viên (phân trang)
          *
@@ -157,7 +171,8 @@ public interface IAttendanceService {
          *
          * @param latitude  vĩ độ
          * @param longitude kinh độ
+         * @param config    cấu hình chấm công caller đã đọc (bán kính geo-fence mặc định)
          * @return true nếu vị trí hợp lệ hoặc công ty không yêu cầu geo-location
          */
-        boolean validateLocation(Double latitude, Double longitude);
+        boolean validateLocation(Double latitude, Double longitude, AttendanceConfig config);
 }
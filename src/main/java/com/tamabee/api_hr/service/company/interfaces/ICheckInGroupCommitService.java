@@ -0,0 +1,21 @@
+package com.tamabee.api_hr.service.company.interfaces;
+
+import com.tamabee.api_hr.dto.request.attendance.CheckInRequest;
+import com.tamabee.api_hr.dto.response.attendance.AttendanceRecordResponse;
+
+/**
+ * Service check-in theo chế độ group commit (gom check-in của tenant thành batch)
+ */
+public interface ICheckInGroupCommitService {
+
+    /**
+     * Chế độ group commit có được bật không (attendance.check-in.group-commit.enabled)
+     */
+    boolean isEnabled();
+
+    /**
+     * Check-in qua hàng đợi của tenant hiện tại.
+     * Chỉ trả về sau khi batch chứa check-in đã commit vào DB.
+     */
+    AttendanceRecordResponse checkIn(Long employeeId, CheckInRequest request);
+}
@@ -0,0 +1,47 @@
+package com.tamabee.api_hr.service.company.interfaces;
+
+import com.tamabee.api_hr.dto.request.attendance.RegisterDeviceRequest;
+import com.tamabee.api_hr.dto.response.attendance.RegisteredDeviceResponse;
+import com.tamabee.api_hr.service.company.cache.DeviceMembership;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+/**
+ * Service quản lý thiết bị chấm công đã đăng ký (kiosk, điện thoại) của công ty.
+ */
+public interface IDeviceRegistryService {
+
+    // ==================== CRUD Operations ====================
+
+    /**
+     * Đăng ký thiết bị chấm công
+     *
+     * @param request thông tin thiết bị
+     * @return thiết bị đã đăng ký
+     */
+    RegisteredDeviceResponse registerDevice(RegisterDeviceRequest request);
+
+    /**
+     * Thu hồi thiết bị (thiết bị không còn được chấm công)
+     *
+     * @param deviceRecordId ID bản ghi thiết bị
+     */
+    void revokeDevice(Long deviceRecordId);
+
+    // ==================== Query Operations ====================
+
+    /**
+     * Lấy danh sách thiết bị đang được đăng ký (phân trang)
+     *
+     * @param pageable thông tin phân trang
+     * @return danh sách thiết bị
+     */
+    Page<RegisteredDeviceResponse> getDevices(Pageable pageable);
+
+    /**
+     * Lấy tập thiết bị đang được đăng ký (cache theo tenant)
+     *
+     * @return tập thiết bị, rỗng nếu công ty chưa đăng ký thiết bị nào
+     */
+    DeviceMembership getDeviceMembership();
+}
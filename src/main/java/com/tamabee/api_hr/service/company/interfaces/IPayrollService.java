@@ -1,8 +1,11 @@
 package com.tamabee.api_hr.service.company.interfaces;
 
+import com.tamabee.api_hr.dto.request.payroll.BulkPaymentRequest;
+import com.tamabee.api_hr.dto.response.payroll.BulkPaymentResponse;
 import com.tamabee.api_hr.dto.response.payroll.PayrollPeriodSummaryResponse;
 import com.tamabee.api_hr.dto.response.payroll.PayrollPreviewResponse;
 import com.tamabee.api_hr.dto.response.payroll.PayrollRecordResponse;
+import com.tamabee.api_hr.dto.result.PayslipBatch;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
@@ -50,8 +53,19 @@ public interface IPayrollService {
      * Đánh dấu tất cả bản ghi lương của công ty trong kỳ là đã thanh toán
      *
      * @param period kỳ lương (tháng)
+     * @param paidBy ID người thực hiện
+     * @return số bản ghi đã cập nhật
      */
-    void markAsPaid(YearMonth period);
+    int markAsPaid(YearMonth period, Long paidBy);
+
+    /**
+     * Đánh dấu nhiều bản ghi lương đã thanh toán kèm mã tham chiếu (một câu UPDATE)
+     *
+     * @param request danh sách (recordId, paymentReference)
+     * @param paidBy  ID người thực hiện
+     * @return số bản ghi đã cập nhật và các bản ghi bị bỏ qua
+     */
+    BulkPaymentResponse markRecordsAsPaid(BulkPaymentRequest request, Long paidBy);
 
     /**
      * Đánh dấu một bản ghi lương là đã thanh toán
@@ -155,4 +169,14 @@ public interface IPayrollService {
      * @return nội dung file PDF dưới dạng byte array
      */
     byte[] generatePayslip(Long payrollRecordId);
+
+    /**
+     * Prefetch dữ liệu để tạo payslip hàng loạt cho tất cả nhân viên trong kỳ.
+     * Company và nhân viên được load một lần, kết quả dùng để render ngoài transaction.
+     *
+     * @param period kỳ lương (tháng)
+     * @return batch payslip đã prefetch
+     * @throws com.tamabee.api_hr.exception.NotFoundException nếu kỳ không có bản ghi lương
+     */
+    PayslipBatch preparePayslipBatch(YearMonth period);
 }
@@ -0,0 +1,36 @@
+package com.tamabee.api_hr.service.company.interfaces;
+
+import com.tamabee.api_hr.dto.request.payroll.PayrollSimulationRequest;
+import com.tamabee.api_hr.dto.response.payroll.PayrollSimulationResponse;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+
+/**
+ * Service interface cho mô phỏng lương (what-if)
+ */
+public interface IPayrollSimulationService {
+
+    /**
+     * Mô phỏng lương của kỳ với cấu hình ứng viên, so sánh với cấu hình hiện tại.
+     * Không lưu dữ liệu, dùng dữ liệu chấm công đã cache trong bộ nhớ.
+     *
+     * @param period  kỳ lương
+     * @param request cấu hình ứng viên
+     * @return tổng và chênh lệch theo công ty/từng nhân viên
+     */
+    PayrollSimulationResponse simulate(YearMonth period, PayrollSimulationRequest request);
+
+    /**
+     * Xóa dữ liệu kỳ đã cache của tenant hiện tại (ngay và sau commit).
+     * Gọi khi dữ liệu của kỳ thay đổi: finalize lương, điều chỉnh chấm công.
+     *
+     * @param period kỳ lương
+     */
+    void evictDataset(YearMonth period);
+
+    /**
+     * Xóa dữ liệu đã cache của các kỳ chứa khoảng ngày (tính lại chấm công hàng loạt)
+     */
+    void evictDatasets(LocalDate fromDate, LocalDate toDate);
+}
@@ -0,0 +1,39 @@
+package com.tamabee.api_hr.service.company.interfaces;
+
+import com.tamabee.api_hr.dto.response.attendance.PresenceBoardResponse;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.LocalDate;
+import java.util.Collection;
+
+/**
+ * Service bảng hiện diện trong ngày (đang làm, đang giải lao, đã về, đi muộn) giữ trong bộ nhớ theo tenant
+ * và đẩy thay đổi tới dashboard qua Server-Sent Events.
+ */
+public interface IPresenceService {
+
+    /**
+     * Lấy bảng hiện diện hôm nay của tenant hiện tại
+     */
+    PresenceBoardResponse getBoard();
+
+    /**
+     * Mở luồng SSE cho tenant hiện tại: gửi "snapshot" ngay khi kết nối (và mỗi khi bảng được nạp lại),
+     * sau đó "presence" cho từng thay đổi
+     */
+    SseEmitter subscribe();
+
+    /**
+     * Cập nhật trạng thái của nhân viên sau khi chấm công/giải lao thay đổi.
+     * Gọi trong transaction ghi; trạng thái được đọc và áp dụng vào bảng sau khi commit.
+     *
+     * @param employeeId ID nhân viên
+     * @param workDate   ngày làm việc vừa thay đổi (chỉ hôm nay ảnh hưởng tới bảng)
+     */
+    void refresh(Long employeeId, LocalDate workDate);
+
+    /**
+     * Cập nhật trạng thái của nhiều nhân viên trong một ngày (một lượt SQL)
+     */
+    void refresh(Collection<Long> employeeIds, LocalDate workDate);
+}
@@ -0,0 +1,29 @@
+package com.tamabee.api_hr.service.company.interfaces;
+
+import com.tamabee.api_hr.dto.request.attendance.BatchPunchRequest;
+import com.tamabee.api_hr.dto.request.attendance.PunchEventRequest;
+import com.tamabee.api_hr.dto.response.attendance.PunchIngestionResult;
+import com.tamabee.api_hr.dto.result.PunchOutcome;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Service nhập punch hàng loạt từ kiosk/thiết bị chấm công
+ */
+public interface IPunchIngestionService {
+
+    /**
+     * Nhập danh sách punch event: áp dụng theo thứ tự thời gian cho từng nhân viên,
+     * tính lại mỗi bản ghi chấm công bị ảnh hưởng một lần.
+     * Punch có khóa idempotency đã nhập trước đó được bỏ qua, punch không hợp lệ bị từ chối
+     * mà không làm hỏng các punch còn lại.
+     */
+    PunchIngestionResult ingest(BatchPunchRequest request);
+
+    /**
+     * Nhập một lượt punch không giới hạn số lượng và trả về kết quả theo khóa idempotency
+     * (dùng cho group commit check-in, mỗi punch có request chờ kết quả riêng)
+     */
+    Map<String, PunchOutcome> ingestEvents(List<PunchEventRequest> events);
+}
@@ -0,0 +1,60 @@
+package com.tamabee.api_hr.service.company.interfaces;
+
+import com.tamabee.api_hr.dto.request.report.ReportJobRequest;
+import com.tamabee.api_hr.dto.response.report.ReportJobResponse;
+
+import java.nio.file.Path;
+
+/**
+ * Service xuất báo cáo chạy nền: tạo job, ghi file CSV/PDF ra đĩa và phục vụ tải file đã tạo.
+ * Yêu cầu giống nhau (cùng tenant, loại, định dạng, điều kiện lọc, ngôn ngữ) dùng chung một job.
+ */
+public interface IReportJobService {
+
+    /**
+     * File báo cáo đã tạo xong
+     */
+    record ReportJobFile(Path path, String fileName, String contentType) {
+    }
+
+    /**
+     * Tạo job xuất báo cáo (chạy sau khi commit), hoặc trả về job đang chạy/kết quả còn hạn của
+     * yêu cầu giống nhau
+     *
+     * @param request     loại báo cáo, định dạng, điều kiện lọc, ngôn ngữ
+     * @param requestedBy ID người yêu cầu
+     */
+    ReportJobResponse submit(ReportJobRequest request, Long requestedBy);
+
+    /**
+     * Lấy trạng thái job
+     */
+    ReportJobResponse getJob(Long jobId);
+
+    /**
+     * Lấy file của job đã hoàn thành
+     */
+    ReportJobFile getFile(Long jobId);
+
+    /**
+     * Khởi động worker cho các job đang chờ của tenant hiện tại mà node này chưa xử lý; job đang chạy
+     * không gửi heartbeat quá stale-seconds (node dừng giữa chừng) được đưa lại hàng chờ
+     *
+     * @return số job được khởi động worker
+     */
+    int resumePendingJobs();
+
+    /**
+     * Cập nhật heartbeat cho các job của tenant hiện tại đang chạy trên node này
+     *
+     * @return số job được cập nhật
+     */
+    int heartbeatRunningJobs();
+
+    /**
+     * Xóa file của các job đã hết hạn
+     *
+     * @return số job hết hạn
+     */
+    int expireCompletedJobs();
+}
@@ -0,0 +1,66 @@
+package com.tamabee.api_hr.service.company.interfaces;
+
+import com.tamabee.api_hr.dto.request.attendance.WorkSiteRequest;
+import com.tamabee.api_hr.dto.response.attendance.WorkSiteResponse;
+import com.tamabee.api_hr.service.company.cache.GeoFenceIndex;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+/**
+ * Service quản lý địa điểm làm việc (chi nhánh, cửa hàng) dùng cho geo-fence khi chấm công.
+ */
+public interface IWorkSiteService {
+
+    // ==================== CRUD Operations ====================
+
+    /**
+     * Tạo địa điểm làm việc mới
+     *
+     * @param request thông tin địa điểm
+     * @return địa điểm đã tạo
+     */
+    WorkSiteResponse createWorkSite(WorkSiteRequest request);
+
+    /**
+     * Cập nhật địa điểm làm việc
+     *
+     * @param workSiteId ID địa điểm
+     * @param request    thông tin cập nhật
+     * @return địa điểm đã cập nhật
+     */
+    WorkSiteResponse updateWorkSite(Long workSiteId, WorkSiteRequest request);
+
+    /**
+     * Xóa địa điểm làm việc (soft delete)
+     *
+     * @param workSiteId ID địa điểm
+     */
+    void deleteWorkSite(Long workSiteId);
+
+    // ==================== Query Operations ====================
+
+    /**
+     * Lấy chi tiết địa điểm theo ID
+     *
+     * @param workSiteId ID địa điểm
+     * @return thông tin địa điểm
+     */
+    WorkSiteResponse getWorkSiteById(Long workSiteId);
+
+    /**
+     * Lấy danh sách địa điểm (phân trang)
+     *
+     * @param pageable thông tin phân trang
+     * @return danh sách địa điểm
+     */
+    Page<WorkSiteResponse> getWorkSites(Pageable pageable);
+
+    /**
+     * Lấy chỉ mục geo-fence của các địa điểm đang hoạt động (cache theo tenant)
+     *
+     * @param defaultRadiusMeters bán kính cho địa điểm hình tròn không đặt bán kính
+     *                            (geoFenceRadiusMeters trong cấu hình chấm công, null = 100m)
+     * @return chỉ mục, rỗng nếu công ty chưa đăng ký địa điểm nào
+     */
+    GeoFenceIndex getGeoFenceIndex(Integer defaultRadiusMeters);
+}
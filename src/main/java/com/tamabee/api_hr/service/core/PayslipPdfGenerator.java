@@ -5,6 +5,7 @@ import com.lowagie.text.pdf.*;
 import com.tamabee.api_hr.dto.response.payroll.PayrollRecordResponse;
 import com.tamabee.api_hr.entity.company.CompanyEntity;
 import com.tamabee.api_hr.entity.user.UserEntity;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
@@ -20,24 +21,29 @@ import java.time.chrono.JapaneseDate;
  */
 @Slf4j
 @Service
+@RequiredArgsConstructor
 public class PayslipPdfGenerator {
 
     private static final Color HEADER_BG = new Color(128, 128, 128);
     private static final Color BORDER_COLOR = new Color(200, 200, 200);
 
+    // Labels dùng chung theo locale (immutable)
+    private static final Labels JA_LABELS = new Labels("対象期間", "差引支給額", "円", "社員番号",
+            "勤怠", "支給", "控除", "その他",
+            "出勤日数", "残業時間", "基本給", "手当", "残業手当",
+            "合計", "控除", "銀行振込額", "備考");
+    private static final Labels VI_LABELS = new Labels("Kỳ lương", "Lương thực nhận", "VNĐ", "Mã NV",
+            "Chấm công", "Thu nhập", "Khấu trừ", "Khác",
+            "Ngày công", "Giờ tăng ca", "Lương cơ bản", "Phụ cấp", "Lương tăng ca",
+            "Tổng", "Khấu trừ", "Chuyển khoản", "Ghi chú");
+
+    private final PdfResourceRegistry pdfResourceRegistry;
+
     public byte[] generate(PayrollRecordResponse record, UserEntity employee, CompanyEntity company) {
-        log.info("Tạo PDF payslip cho nhân viên: {}", employee.getEmployeeCode());
+        log.debug("Tạo PDF payslip cho nhân viên: {}", employee.getEmployeeCode());
 
-        ByteArrayOutputStream baos = new ByteArrayOutputStream();
-        String locale = "ja"; // default
-        if (company != null) {
-            String companyLocale = company.getLocale();
-            if (companyLocale != null) {
-                if (companyLocale.contains("Ho_Chi_Minh") || companyLocale.contains("Vietnam")) {
-                    locale = "vi";
-                }
-            }
-        }
+        ByteArrayOutputStream baos = new ByteArrayOutputStream(16 * 1024);
+        String locale = resolveLocale(company);
 
         try {
             Document document = new Document(PageSize.A4, 40, 40, 50, 40);
@@ -46,11 +52,10 @@ public class PayslipPdfGenerator {
 
             PdfContentByte cb = writer.getDirectContent();
 
-            // Load font
-            String fontPath = getClass().getClassLoader().getResource("fonts/NotoSansCJKjp-Regular.otf").getPath();
-            BaseFont bfCJK = BaseFont.createFont(fontPath, BaseFont.IDENTITY_H, BaseFont.EMBEDDED);
-            BaseFont bfLatin = BaseFont.createFont(BaseFont.HELVETICA, BaseFont.CP1252, BaseFont.NOT_EMBEDDED);
-            BaseFont bfLatinBold = BaseFont.createFont(BaseFont.HELVETICA_BOLD, BaseFont.CP1252, BaseFont.NOT_EMBEDDED);
+            // Font dùng chung từ registry (đã parse sẵn)
+            BaseFont bfCJK = pdfResourceRegistry.getCjkFont();
+            BaseFont bfLatin = pdfResourceRegistry.getLatinFont();
+            BaseFont bfLatinBold = pdfResourceRegistry.getLatinBoldFont();
 
             Labels labels = getLabels(locale);
 
@@ -253,10 +258,24 @@ public class PayslipPdfGenerator {
             throw new RuntimeException("Không thể tạo PDF: " + e.getMessage(), e);
         }
 
-        log.info("PDF tạo thành công, size: {} bytes", baos.size());
+        log.debug("PDF tạo thành công, size: {} bytes", baos.size());
         return baos.toByteArray();
     }
 
+    /**
+     * Xác định ngôn ngữ payslip từ locale (timezone) của công ty, mặc định tiếng Nhật
+     */
+    private String resolveLocale(CompanyEntity company) {
+        if (company != null) {
+            String companyLocale = company.getLocale();
+            if (companyLocale != null
+                    && (companyLocale.contains("Ho_Chi_Minh") || companyLocale.contains("Vietnam"))) {
+                return "vi";
+            }
+        }
+        return "ja";
+    }
+
     /**
      * Vẽ hình chữ nhật bo góc (chỉ stroke)
      */
@@ -360,17 +379,7 @@ public class PayslipPdfGenerator {
     }
 
     private Labels getLabels(String locale) {
-        if ("ja".equals(locale)) {
-            return new Labels("対象期間", "差引支給額", "円", "社員番号",
-                    "勤怠", "支給", "控除", "その他",
-                    "出勤日数", "残業時間", "基本給", "手当", "残業手当",
-                    "合計", "控除", "銀行振込額", "備考");
-        } else {
-            return new Labels("Kỳ lương", "Lương thực nhận", "VNĐ", "Mã NV",
-                    "Chấm công", "Thu nhập", "Khấu trừ", "Khác",
-                    "Ngày công", "Giờ tăng ca", "Lương cơ bản", "Phụ cấp", "Lương tăng ca",
-                    "Tổng", "Khấu trừ", "Chuyển khoản", "Ghi chú");
-        }
+        return "ja".equals(locale) ? JA_LABELS : VI_LABELS;
     }
 
     private static class Labels {
@@ -0,0 +1,120 @@
+package com.tamabee.api_hr.service.core;
+
+import com.tamabee.api_hr.dto.result.PayslipBatch;
+import com.tamabee.api_hr.exception.InternalServerException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Future;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Service render hàng loạt payslip song song và ghi trực tiếp vào ZIP stream.
+ * Mỗi PDF được ghi ngay khi render xong, số PDF đang render/chờ ghi bị giới hạn
+ * để bộ nhớ không tăng theo số nhân viên.
+ */
+@Slf4j
+@Service
+public class PayslipZipWriter {
+
+    private final PayslipPdfGenerator payslipPdfGenerator;
+    private final ThreadPoolTaskExecutor payslipExecutor;
+
+    public PayslipZipWriter(PayslipPdfGenerator payslipPdfGenerator,
+            @Qualifier("payslipExecutor") ThreadPoolTaskExecutor payslipExecutor) {
+        this.payslipPdfGenerator = payslipPdfGenerator;
+        this.payslipExecutor = payslipExecutor;
+    }
+
+    /**
+     * Render tất cả payslip trong batch và ghi vào ZIP
+     *
+     * @param batch        dữ liệu đã prefetch
+     * @param payslipLabel tiền tố tên file (theo ngôn ngữ người tải)
+     * @param out          output stream (response body)
+     */
+    public void write(PayslipBatch batch, String payslipLabel, OutputStream out) throws IOException {
+        List<PayslipBatch.Item> items = batch.getItems();
+        int maxInFlight = Math.max(1, payslipExecutor.getMaxPoolSize() * 2);
+        CompletionService<RenderedPayslip> completionService =
+                new ExecutorCompletionService<>(payslipExecutor.getThreadPoolExecutor());
+        List<Future<RenderedPayslip>> futures = new ArrayList<>();
+        Set<String> usedNames = new HashSet<>();
+
+        long start = System.currentTimeMillis();
+        // Luôn đóng ZIP (kể cả khi render lỗi giữa chừng) để kết thúc archive và giải phóng Deflater
+        try (ZipOutputStream zip = new ZipOutputStream(out)) {
+            int submitted = 0;
+            int written = 0;
+            while (written < items.size()) {
+                // Giữ tối đa maxInFlight payslip đang render
+                while (submitted < items.size() && submitted - written < maxInFlight) {
+                    PayslipBatch.Item item = items.get(submitted++);
+                    futures.add(completionService.submit(() -> render(batch, item, payslipLabel)));
+                }
+
+                RenderedPayslip rendered = completionService.take().get();
+                zip.putNextEntry(new ZipEntry(uniqueName(rendered.fileName(), usedNames)));
+                zip.write(rendered.content());
+                zip.closeEntry();
+                written++;
+            }
+            zip.finish();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            cancelAll(futures);
+            throw new InternalServerException("Tạo payslip hàng loạt bị gián đoạn", e);
+        } catch (ExecutionException e) {
+            cancelAll(futures);
+            throw new InternalServerException("Không thể tạo payslip: " + e.getCause().getMessage(), e.getCause());
+        } catch (IOException e) {
+            // Client ngắt kết nối giữa chừng
+            cancelAll(futures);
+            throw e;
+        }
+
+        log.info("Đã tạo {} payslip kỳ {} trong {} ms", items.size(), batch.getPeriod(),
+                System.currentTimeMillis() - start);
+    }
+
+    private RenderedPayslip render(PayslipBatch batch, PayslipBatch.Item item, String payslipLabel) {
+        byte[] pdf = payslipPdfGenerator.generate(item.getRecord(), item.getEmployee(), batch.getCompany());
+        String fileName = String.format("%s_%s_%d-%02d.pdf",
+                payslipLabel,
+                item.getRecord().getEmployeeCode(),
+                item.getRecord().getYear(),
+                item.getRecord().getMonth());
+        return new RenderedPayslip(fileName, pdf);
+    }
+
+    /**
+     * Tránh trùng tên entry trong ZIP (ví dụ nhân viên chưa có mã)
+     */
+    private String uniqueName(String fileName, Set<String> usedNames) {
+        String name = fileName;
+        int suffix = 1;
+        while (!usedNames.add(name)) {
+            name = fileName.replace(".pdf", "_" + (suffix++) + ".pdf");
+        }
+        return name;
+    }
+
+    private void cancelAll(List<Future<RenderedPayslip>> futures) {
+        futures.forEach(f -> f.cancel(true));
+    }
+
+    private record RenderedPayslip(String fileName, byte[] content) {
+    }
+}
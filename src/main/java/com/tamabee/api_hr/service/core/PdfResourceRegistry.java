@@ -0,0 +1,124 @@
+package com.tamabee.api_hr.service.core;
+
+import com.lowagie.text.Font;
+import com.lowagie.text.pdf.BaseFont;
+import com.tamabee.api_hr.exception.InternalServerException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.InputStream;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registry dùng chung cho font PDF (thread-safe).
+ * Font được load và parse một lần (lazy), sau đó dùng lại cho mọi payslip/báo cáo.
+ * BaseFont và Font chỉ được đọc khi render nên có thể chia sẻ giữa các thread.
+ */
+@Slf4j
+@Component
+public class PdfResourceRegistry {
+
+    static final String CJK_FONT_RESOURCE = "fonts/NotoSansCJKjp-Regular.otf";
+
+    private volatile BaseFont cjkFont;
+    private volatile BaseFont latinFont;
+    private volatile BaseFont latinBoldFont;
+
+    // Cache Font cho báo cáo theo (bold, size)
+    private final Map<String, Font> reportFonts = new ConcurrentHashMap<>();
+
+    /**
+     * Font CJK (tiếng Nhật/tiếng Việt).
+     * Không có fallback: Helvetica không có glyph tiếng Nhật/tiếng Việt nên PDF sẽ ra chữ trống.
+     *
+     * @throws InternalServerException nếu không có file font trong classpath
+     */
+    public BaseFont getCjkFont() {
+        BaseFont font = cjkFont;
+        if (font == null) {
+            synchronized (this) {
+                font = cjkFont;
+                if (font == null) {
+                    font = loadCjkFont();
+                    cjkFont = font;
+                }
+            }
+        }
+        return font;
+    }
+
+    /**
+     * Font Helvetica (dùng cho số)
+     */
+    public BaseFont getLatinFont() {
+        BaseFont font = latinFont;
+        if (font == null) {
+            synchronized (this) {
+                font = latinFont;
+                if (font == null) {
+                    font = createBuiltInFont(BaseFont.HELVETICA);
+                    latinFont = font;
+                }
+            }
+        }
+        return font;
+    }
+
+    /**
+     * Font Helvetica Bold (dùng cho tổng tiền)
+     */
+    public BaseFont getLatinBoldFont() {
+        BaseFont font = latinBoldFont;
+        if (font == null) {
+            synchronized (this) {
+                font = latinBoldFont;
+                if (font == null) {
+                    font = createBuiltInFont(BaseFont.HELVETICA_BOLD);
+                    latinBoldFont = font;
+                }
+            }
+        }
+        return font;
+    }
+
+    /**
+     * Font cho bảng/tiêu đề báo cáo
+     *
+     * @param bold true nếu dùng Helvetica Bold
+     * @param size cỡ chữ
+     */
+    public Font getReportFont(boolean bold, float size) {
+        String key = (bold ? "B" : "N") + size;
+        return reportFonts.computeIfAbsent(key,
+                k -> new Font(bold ? getLatinBoldFont() : getLatinFont(), size));
+    }
+
+    private BaseFont loadCjkFont() {
+        // Đọc bytes từ classpath để chạy được cả khi đóng gói trong jar
+        try (InputStream in = getClass().getClassLoader().getResourceAsStream(CJK_FONT_RESOURCE)) {
+            if (in == null) {
+                log.error("Không tìm thấy font {} trong classpath, không thể tạo PDF", CJK_FONT_RESOURCE);
+                throw new InternalServerException("Không tìm thấy font PDF: " + CJK_FONT_RESOURCE);
+            }
+            byte[] fontBytes = in.readAllBytes();
+            long start = System.currentTimeMillis();
+            BaseFont font = BaseFont.createFont("NotoSansCJKjp-Regular.otf", BaseFont.IDENTITY_H,
+                    BaseFont.EMBEDDED, true, fontBytes, null);
+            log.info("Đã load font {} trong {} ms", CJK_FONT_RESOURCE, System.currentTimeMillis() - start);
+            return font;
+        } catch (InternalServerException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new InternalServerException("Không thể load font PDF: " + e.getMessage(), e);
+        }
+    }
+
+    private BaseFont createBuiltInFont(String name) {
+        try {
+            return BaseFont.createFont(name, BaseFont.CP1252, BaseFont.NOT_EMBEDDED);
+        } catch (Exception e) {
+            throw new InternalServerException("Không thể load font PDF: " + e.getMessage(), e);
+        }
+    }
+}
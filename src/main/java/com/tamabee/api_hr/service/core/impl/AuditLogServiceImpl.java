@@ -2,7 +2,9 @@ package com.tamabee.api_hr.service.core.impl;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tamabee.api_hr.dto.audit.AuditLogEntry;
 import com.tamabee.api_hr.dto.audit.AuditLogQueryRequest;
+import com.tamabee.api_hr.dto.common.CursorPage;
 import com.tamabee.api_hr.dto.response.audit.AuditLogResponse;
 import com.tamabee.api_hr.entity.audit.AuditLogEntity;
 import com.tamabee.api_hr.enums.AuditAction;
@@ -11,16 +13,28 @@ import com.tamabee.api_hr.enums.ErrorCode;
 import com.tamabee.api_hr.exception.NotFoundException;
 import com.tamabee.api_hr.repository.audit.AuditLogRepository;
 import com.tamabee.api_hr.service.core.interfaces.IAuditLogService;
+import com.tamabee.api_hr.util.CursorCodec;
+import jakarta.persistence.criteria.Predicate;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.sql.Timestamp;
+import java.sql.Types;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 /**
@@ -35,6 +49,22 @@ public class AuditLogServiceImpl implements IAuditLogService {
     private final AuditLogRepository auditLogRepository;
     private final ObjectMapper objectMapper;
 
+    @Qualifier("tenantJdbcTemplate")
+    private final JdbcTemplate tenantJdbcTemplate;
+
+    private static final int AUDIT_BATCH_SIZE = 500;
+
+    private static final String AUDIT_CURSOR_SCOPE = "audit";
+
+    // Keyset: khớp index (timestamp DESC, id DESC) của audit_logs
+    private static final Sort AUDIT_KEYSET_SORT = Sort.by(Sort.Direction.DESC, "timestamp", "id");
+
+    private static final String INSERT_AUDIT_LOG_SQL = """
+            INSERT INTO audit_logs (entity_type, entity_id, action, user_id, user_name, timestamp,
+                before_value, after_value, description, created_at, updated_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
     @Override
     @Async
     @Transactional
@@ -148,6 +178,46 @@ public class AuditLogServiceImpl implements IAuditLogService {
         }
     }
 
+    @Override
+    @Transactional
+    public void logChanges(List<AuditLogEntry> entries) {
+        if (entries == null || entries.isEmpty()) {
+            return;
+        }
+
+        // audit_logs.entity_id/user_id là NOT NULL: bỏ qua entry thiếu (giống logChange, audit lỗi
+        // không làm hỏng transaction nghiệp vụ)
+        List<AuditLogEntry> validEntries = new ArrayList<>(entries.size());
+        for (AuditLogEntry entry : entries) {
+            if (entry.getEntityId() == null || entry.getUserId() == null) {
+                log.warn("Skip audit log without entityId/userId: entityType={}, entityId={}, action={}",
+                        entry.getEntityType(), entry.getEntityId(), entry.getAction());
+                continue;
+            }
+            validEntries.add(entry);
+        }
+        if (validEntries.isEmpty()) {
+            return;
+        }
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        tenantJdbcTemplate.batchUpdate(INSERT_AUDIT_LOG_SQL, validEntries, AUDIT_BATCH_SIZE, (ps, entry) -> {
+            ps.setString(1, entry.getEntityType().name());
+            ps.setObject(2, entry.getEntityId(), Types.BIGINT);
+            ps.setString(3, entry.getAction().name());
+            ps.setObject(4, entry.getUserId(), Types.BIGINT);
+            ps.setString(5, entry.getUserName());
+            ps.setTimestamp(6, now);
+            ps.setString(7, serializeToJson(entry.getBeforeValue()));
+            ps.setString(8, serializeToJson(entry.getAfterValue()));
+            ps.setString(9, entry.getDescription());
+            ps.setTimestamp(10, now);
+            ps.setTimestamp(11, now);
+        });
+
+        log.debug("Audit logs created: {} entries", validEntries.size());
+    }
+
     @Override
     @Transactional(readOnly = true)
     public AuditLogResponse getAuditLogById(Long id) {
@@ -175,6 +245,47 @@ public class AuditLogServiceImpl implements IAuditLogService {
                 pageable).map(this::toResponse);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<AuditLogResponse> scrollAuditLogs(AuditLogQueryRequest request, String cursor, int size,
+            boolean includeTotal) {
+        Specification<AuditLogEntity> spec = buildAuditLogSpec(request);
+        CursorCodec.Key key = CursorCodec.decode(AUDIT_CURSOR_SCOPE, cursor);
+        ScrollPosition position = key == null
+                ? ScrollPosition.keyset()
+                : ScrollPosition.forward(Map.of("timestamp", key.dateTimeValue(), "id", key.id()));
+
+        Window<AuditLogEntity> window = auditLogRepository.findBy(spec,
+                query -> query.sortBy(AUDIT_KEYSET_SORT).limit(CursorPage.clampSize(size)).scroll(position));
+        Long total = includeTotal ? auditLogRepository.count(spec) : null;
+
+        return CursorPage.of(window,
+                entity -> CursorCodec.encode(AUDIT_CURSOR_SCOPE, entity.getTimestamp(), entity.getId()),
+                entities -> entities.stream().map(this::toResponse).toList(), total);
+    }
+
+    private Specification<AuditLogEntity> buildAuditLogSpec(AuditLogQueryRequest request) {
+        return (root, criteriaQuery, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            if (request.getEntityType() != null) {
+                predicates.add(cb.equal(root.get("entityType"), request.getEntityType()));
+            }
+            if (request.getAction() != null) {
+                predicates.add(cb.equal(root.get("action"), request.getAction()));
+            }
+            if (request.getUserId() != null) {
+                predicates.add(cb.equal(root.get("userId"), request.getUserId()));
+            }
+            if (request.getStartTime() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("timestamp"), request.getStartTime()));
+            }
+            if (request.getEndTime() != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("timestamp"), request.getEndTime()));
+            }
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
     @Override
     @Transactional(readOnly = true)
     public List<AuditLogResponse> getEntityHistory(AuditEntityType entityType, Long entityId) {
@@ -1,6 +1,8 @@
 package com.tamabee.api_hr.service.core.interfaces;
 
+import com.tamabee.api_hr.dto.audit.AuditLogEntry;
 import com.tamabee.api_hr.dto.audit.AuditLogQueryRequest;
+import com.tamabee.api_hr.dto.common.CursorPage;
 import com.tamabee.api_hr.dto.response.audit.AuditLogResponse;
 import com.tamabee.api_hr.enums.AuditAction;
 import com.tamabee.api_hr.enums.AuditEntityType;
@@ -78,6 +80,11 @@ public interface IAuditLogService {
             AuditAction action, Long userId, String userName,
             Object beforeValue, Object afterValue, String description);
 
+    /**
+     * Ghi nhiều audit log trong một batch JDBC (đồng bộ, cùng transaction với thay đổi).
+     */
+    void logChanges(List<AuditLogEntry> entries);
+
     /**
      * Lấy audit log theo ID.
      */
@@ -93,6 +100,13 @@ public interface IAuditLogService {
      */
     Page<AuditLogResponse> getAuditLogs(Long companyId, AuditLogQueryRequest request, Pageable pageable);
 
+    /**
+     * Lấy danh sách audit logs với filter theo keyset (timestamp, id) giảm dần.
+     * cursor = nextCursor của trang trước (null cho trang đầu); includeTotal thêm một lệnh COUNT.
+     */
+    CursorPage<AuditLogResponse> scrollAuditLogs(AuditLogQueryRequest request, String cursor, int size,
+            boolean includeTotal);
+
     /**
      * Lấy lịch sử thay đổi của một entity cụ thể.
      */
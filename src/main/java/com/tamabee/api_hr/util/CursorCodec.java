@@ -0,0 +1,80 @@
+package com.tamabee.api_hr.util;
+
+import com.tamabee.api_hr.enums.ErrorCode;
+import com.tamabee.api_hr.exception.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Mã hóa/giải mã con trỏ phân trang keyset.
+ *
+ * Con trỏ chứa khóa sắp xếp (ngày/thời điểm) và id của dòng cuối trang trước, kèm phạm vi (scope) của danh sách
+ * để con trỏ của danh sách này không dùng được cho danh sách khác. Client chỉ gửi lại nguyên chuỗi.
+ */
+public final class CursorCodec {
+
+    private static final String SEPARATOR = "|";
+
+    private CursorCodec() {
+    }
+
+    /**
+     * Khóa của dòng cuối trang trước
+     *
+     * @param value khóa sắp xếp dạng ISO (LocalDate/LocalDateTime.toString())
+     */
+    public record Key(String value, long id) {
+
+        public LocalDate dateValue() {
+            try {
+                return LocalDate.parse(value);
+            } catch (DateTimeParseException e) {
+                throw invalid();
+            }
+        }
+
+        public LocalDateTime dateTimeValue() {
+            try {
+                return LocalDateTime.parse(value);
+            } catch (DateTimeParseException e) {
+                throw invalid();
+            }
+        }
+    }
+
+    public static String encode(String scope, Object sortValue, Long id) {
+        String raw = scope + SEPARATOR + sortValue + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Giải mã con trỏ
+     *
+     * @return null nếu cursor rỗng (trang đầu)
+     * @throws BadRequestException nếu cursor sai định dạng hoặc thuộc danh sách khác
+     */
+    public static Key decode(String scope, String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", -1);
+            if (parts.length != 3 || !parts[0].equals(scope) || parts[1].isEmpty()) {
+                throw invalid();
+            }
+            return new Key(parts[1], Long.parseLong(parts[2]));
+        } catch (IllegalArgumentException e) {
+            // Base64 hoặc id sai định dạng (NumberFormatException là IllegalArgumentException)
+            throw invalid();
+        }
+    }
+
+    private static BadRequestException invalid() {
+        return new BadRequestException("Con trỏ phân trang không hợp lệ", ErrorCode.INVALID_CURSOR);
+    }
+}
@@ -0,0 +1,86 @@
+package com.tamabee.api_hr.util;
+
+import com.tamabee.api_hr.dto.request.report.ReportQuery;
+import com.tamabee.api_hr.enums.ExportFormat;
+import com.tamabee.api_hr.enums.ReportType;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Khóa của yêu cầu xuất báo cáo, dùng để gộp các yêu cầu giống nhau vào cùng một job.
+ *
+ * Hai yêu cầu cùng tenant, loại báo cáo, định dạng, ngôn ngữ và điều kiện lọc cho cùng khóa bất kể thứ tự
+ * hay phần tử trùng trong các danh sách lọc; danh sách rỗng được coi như không lọc.
+ */
+public final class ReportRequestKey {
+
+    public static final String DEFAULT_LANGUAGE = "vi";
+
+    private static final String SEPARATOR = "|";
+
+    private ReportRequestKey() {
+    }
+
+    /**
+     * Chuẩn hóa ngôn ngữ: rỗng thì dùng tiếng Việt
+     */
+    public static String normalizeLanguage(String language) {
+        return language == null || language.isBlank()
+                ? DEFAULT_LANGUAGE
+                : language.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Chuẩn hóa điều kiện lọc: sắp xếp, bỏ trùng, danh sách rỗng thành null
+     */
+    public static ReportQuery normalizeQuery(ReportQuery query) {
+        return ReportQuery.builder()
+                .startDate(query.getStartDate())
+                .endDate(query.getEndDate())
+                .employeeIds(normalize(query.getEmployeeIds()))
+                .departmentIds(normalize(query.getDepartmentIds()))
+                .contractTypes(normalize(query.getContractTypes()))
+                .salaryTypes(normalize(query.getSalaryTypes()))
+                .shiftTemplateIds(normalize(query.getShiftTemplateIds()))
+                .build();
+    }
+
+    /**
+     * Tính khóa (SHA-256 dạng hex)
+     *
+     * @param query điều kiện lọc đã chuẩn hóa bằng {@link #normalizeQuery(ReportQuery)}
+     */
+    public static String of(String tenantDomain, ReportType type, ExportFormat format, String language,
+            ReportQuery query) {
+        String raw = String.join(SEPARATOR,
+                String.valueOf(tenantDomain), type.name(), format.name(), normalizeLanguage(language),
+                String.valueOf(query.getStartDate()), String.valueOf(query.getEndDate()),
+                String.valueOf(query.getEmployeeIds()), String.valueOf(query.getDepartmentIds()),
+                String.valueOf(query.getContractTypes()), String.valueOf(query.getSalaryTypes()),
+                String.valueOf(query.getShiftTemplateIds()));
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(raw.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 không khả dụng", e);
+        }
+    }
+
+    private static <T extends Comparable<T>> List<T> normalize(List<T> values) {
+        if (values == null) {
+            return null;
+        }
+        List<T> result = values.stream()
+                .filter(value -> value != null)
+                .distinct()
+                .sorted(Comparator.naturalOrder())
+                .toList();
+        return result.isEmpty() ? null : result;
+    }
+}
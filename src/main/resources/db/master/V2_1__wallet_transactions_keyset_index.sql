@@ -0,0 +1,7 @@
+-- =====================================================
+-- INDEX PHÂN TRANG KEYSET CHO LỊCH SỬ GIAO DỊCH VÍ
+-- Lịch sử giao dịch của một ví sắp xếp theo (created_at, id) giảm dần, trang sau bắt đầu từ khóa cuối.
+-- =====================================================
+
+CREATE INDEX IF NOT EXISTS idx_wallet_transactions_wallet_created
+    ON wallet_transactions(wallet_id, created_at DESC, id DESC);
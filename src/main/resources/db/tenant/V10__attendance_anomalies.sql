@@ -0,0 +1,30 @@
+-- =====================================================
+-- QUÉT BẤT THƯỜNG CHẤM CÔNG HẰNG ĐÊM
+-- Tự động đóng bản ghi/giải lao bị quên và đưa bất thường vào hàng chờ duyệt.
+-- =====================================================
+
+-- Bản ghi quên check-out (job tự động đóng hằng đêm)
+CREATE INDEX idx_attendance_records_open ON attendance_records(work_date, id)
+    WHERE original_check_out IS NULL AND original_check_in IS NOT NULL;
+
+-- Hàng chờ duyệt bất thường chấm công (job quét hằng đêm). break_number = 0 là bất thường của cả bản ghi;
+-- unique để quét lại không tạo trùng và bất thường đã bỏ qua không xuất hiện lại.
+CREATE TABLE attendance_anomalies (
+    id BIGSERIAL PRIMARY KEY,
+    attendance_record_id BIGINT NOT NULL,
+    employee_id BIGINT NOT NULL,
+    work_date DATE NOT NULL,
+    break_number INTEGER NOT NULL DEFAULT 0,
+    anomaly_type VARCHAR(30) NOT NULL,
+    detail VARCHAR(500),
+    status VARCHAR(20) NOT NULL DEFAULT 'OPEN',
+    resolved_by BIGINT,
+    resolved_at TIMESTAMP,
+    resolution_note VARCHAR(500),
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT uk_attendance_anomalies_record_type UNIQUE (attendance_record_id, work_date, break_number, anomaly_type)
+);
+
+CREATE INDEX idx_attendance_anomalies_status_date ON attendance_anomalies(status, work_date DESC);
+CREATE INDEX idx_attendance_anomalies_employee_date ON attendance_anomalies(employee_id, work_date);
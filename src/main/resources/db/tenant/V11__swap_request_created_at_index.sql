@@ -0,0 +1,6 @@
+-- =====================================================
+-- INDEX BÁO CÁO SỬ DỤNG CA
+-- Báo cáo đếm yêu cầu đổi ca theo khoảng created_at của kỳ báo cáo.
+-- =====================================================
+
+CREATE INDEX IF NOT EXISTS idx_swap_request_created_at ON shift_swap_requests(created_at);
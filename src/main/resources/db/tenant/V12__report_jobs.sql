@@ -0,0 +1,31 @@
+-- =====================================================
+-- XUẤT BÁO CÁO
+-- =====================================================
+
+-- Job xuất báo cáo chạy nền; file lưu trên đĩa tại {report.jobs.storage-path}/{tenant}/{id}.{csv|pdf}.
+-- request_key = SHA-256 của (tenant, loại, định dạng, ngôn ngữ, điều kiện lọc đã chuẩn hóa)
+CREATE TABLE report_jobs (
+    id BIGSERIAL PRIMARY KEY,
+    request_key VARCHAR(64) NOT NULL,
+    report_type VARCHAR(30) NOT NULL,
+    export_format VARCHAR(10) NOT NULL,
+    language VARCHAR(10) NOT NULL,
+    query_json TEXT NOT NULL,
+    status VARCHAR(20) NOT NULL DEFAULT 'PENDING',
+    file_name VARCHAR(255),
+    file_size BIGINT,
+    attempts INTEGER NOT NULL DEFAULT 0,
+    error_message TEXT,
+    requested_by BIGINT,
+    started_at TIMESTAMP,
+    finished_at TIMESTAMP,
+    expires_at TIMESTAMP,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Yêu cầu giống nhau đang chờ/chạy dùng chung một job
+CREATE UNIQUE INDEX uk_report_jobs_request_active ON report_jobs(request_key)
+    WHERE status IN ('PENDING', 'RUNNING');
+CREATE INDEX idx_report_jobs_request_key ON report_jobs(request_key, id DESC);
+CREATE INDEX idx_report_jobs_status_expires ON report_jobs(status, expires_at);
@@ -0,0 +1,7 @@
+-- =====================================================
+-- INDEX DỌN PUNCH EVENT CŨ
+-- PunchEventRetentionScheduler xóa punch_events quá attendance.punch-events.retention-days theo created_at
+-- (khóa idempotency chỉ cần trong khoảng thiết bị có thể gửi lại).
+-- =====================================================
+
+CREATE INDEX IF NOT EXISTS idx_punch_events_created_at ON punch_events(created_at);
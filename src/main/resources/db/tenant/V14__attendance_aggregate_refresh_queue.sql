@@ -0,0 +1,16 @@
+-- =====================================================
+-- HÀNG CHỜ LÀM MỚI TỔNG HỢP CHẤM CÔNG
+-- Nhân viên-tháng có lần làm mới sau commit bị lỗi được ghi lại ở đây và làm mới lại định kỳ
+-- (AttendanceAggregateScheduler), kể cả các tháng cũ mà rebuild hằng đêm không chạy tới.
+-- marked_at được cập nhật mỗi lần đánh dấu lại: chỉ xóa dòng không bị đánh dấu sau lượt làm mới.
+-- =====================================================
+
+CREATE TABLE attendance_aggregate_refresh_queue (
+    employee_id BIGINT NOT NULL,
+    year INTEGER NOT NULL,
+    month INTEGER NOT NULL,
+    marked_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (employee_id, year, month)
+);
+
+CREATE INDEX idx_attendance_aggregate_refresh_queue_period ON attendance_aggregate_refresh_queue(year, month);
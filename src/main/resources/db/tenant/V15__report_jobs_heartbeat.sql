@@ -0,0 +1,9 @@
+-- =====================================================
+-- HEARTBEAT CHO JOB XUẤT BÁO CÁO
+-- Worker cập nhật heartbeat_at định kỳ khi job đang chạy; job RUNNING chỉ được đưa lại hàng chờ khi
+-- không có heartbeat quá report.jobs.stale-seconds (node dừng giữa chừng), không tính theo started_at.
+-- =====================================================
+
+ALTER TABLE report_jobs ADD COLUMN heartbeat_at TIMESTAMP;
+
+UPDATE report_jobs SET heartbeat_at = started_at WHERE status = 'RUNNING';
@@ -0,0 +1,128 @@
+-- =====================================================
+-- PARTITION THEO THÁNG CHO attendance_records / break_records
+-- Partition: <bảng>_YYYYMM cho [ngày 1 của tháng, ngày 1 tháng sau), <bảng>_default cho phần còn lại.
+-- Query có điều kiện work_date theo tháng (bảng lương, báo cáo, tổng hợp) chỉ quét một partition.
+-- =====================================================
+
+-- Tạo partition tháng cho cả hai bảng, bắt đầu từ tháng chứa p_from, trong p_months tháng.
+-- Bỏ qua partition đã có; nếu partition default đã chứa dòng của tháng thì chuyển các dòng đó sang
+-- partition mới trước khi attach. Trả về số partition đã tạo.
+-- Gọi bởi AttendancePartitionScheduler hằng ngày để luôn có sẵn partition cho các tháng tới.
+CREATE OR REPLACE FUNCTION create_attendance_partitions(p_from DATE, p_months INTEGER)
+RETURNS INTEGER AS $$
+DECLARE
+    v_month DATE := date_trunc('month', p_from)::DATE;
+    v_next DATE;
+    v_table TEXT;
+    v_partition TEXT;
+    v_has_rows BOOLEAN;
+    v_created INTEGER := 0;
+BEGIN
+    -- Nhiều node chạy scheduler cùng lúc: tuần tự hóa để không CREATE TABLE trùng
+    PERFORM pg_advisory_xact_lock(hashtext('create_attendance_partitions'));
+
+    FOR i IN 1 .. p_months LOOP
+        v_next := (v_month + INTERVAL '1 month')::DATE;
+        FOREACH v_table IN ARRAY ARRAY['attendance_records', 'break_records'] LOOP
+            v_partition := v_table || '_' || to_char(v_month, 'YYYYMM');
+            CONTINUE WHEN to_regclass(v_partition) IS NOT NULL;
+
+            EXECUTE format('SELECT EXISTS (SELECT 1 FROM %I WHERE work_date >= %L AND work_date < %L)',
+                    v_table || '_default', v_month, v_next) INTO v_has_rows;
+            IF v_has_rows THEN
+                EXECUTE format('CREATE TABLE %I (LIKE %I INCLUDING DEFAULTS)', v_partition, v_table);
+                EXECUTE format('WITH moved AS (DELETE FROM %I WHERE work_date >= %L AND work_date < %L RETURNING *) '
+                        'INSERT INTO %I SELECT * FROM moved',
+                        v_table || '_default', v_month, v_next, v_partition);
+                EXECUTE format('ALTER TABLE %I ATTACH PARTITION %I FOR VALUES FROM (%L) TO (%L)',
+                        v_table, v_partition, v_month, v_next);
+            ELSE
+                EXECUTE format('CREATE TABLE %I PARTITION OF %I FOR VALUES FROM (%L) TO (%L)',
+                        v_partition, v_table, v_month, v_next);
+            END IF;
+            v_created := v_created + 1;
+        END LOOP;
+        v_month := v_next;
+    END LOOP;
+
+    RETURN v_created;
+END;
+$$ LANGUAGE plpgsql;
+
+-- V1 tạo attendance_records/break_records là bảng thường (giữ nguyên vì đã được áp dụng trên các tenant).
+-- Đổi tên bảng cũ, tạo bảng partition cùng cấu trúc, tạo partition cho toàn bộ khoảng work_date
+-- đang có, chép dữ liệu, tạo lại khóa/index của V1 rồi xóa bảng cũ. Khóa chính đổi thành (id, work_date)
+-- vì khóa của bảng partition phải chứa cột partition. Sequence id giữ nguyên.
+DO $$
+DECLARE
+    v_sql TEXT;
+    v_min DATE;
+    v_max DATE;
+BEGIN
+    ALTER SEQUENCE attendance_records_id_seq OWNED BY NONE;
+    ALTER SEQUENCE break_records_id_seq OWNED BY NONE;
+    ALTER TABLE attendance_records RENAME TO attendance_records_legacy;
+    ALTER TABLE break_records RENAME TO break_records_legacy;
+
+    -- Giải phóng tên khóa/index để tạo lại trên bảng mới
+    FOR v_sql IN
+        SELECT format('ALTER TABLE %s DROP CONSTRAINT %I', conrelid::regclass, conname)
+        FROM pg_constraint
+        WHERE conrelid IN ('attendance_records_legacy'::regclass, 'break_records_legacy'::regclass)
+          AND contype IN ('p', 'u')
+    LOOP
+        EXECUTE v_sql;
+    END LOOP;
+    FOR v_sql IN
+        SELECT format('DROP INDEX %I', indexname)
+        FROM pg_indexes
+        WHERE schemaname = current_schema()
+          AND tablename IN ('attendance_records_legacy', 'break_records_legacy')
+    LOOP
+        EXECUTE v_sql;
+    END LOOP;
+
+    CREATE TABLE attendance_records (LIKE attendance_records_legacy INCLUDING DEFAULTS)
+        PARTITION BY RANGE (work_date);
+    CREATE TABLE attendance_records_default PARTITION OF attendance_records DEFAULT;
+    CREATE TABLE break_records (LIKE break_records_legacy INCLUDING DEFAULTS)
+        PARTITION BY RANGE (work_date);
+    CREATE TABLE break_records_default PARTITION OF break_records DEFAULT;
+
+    SELECT MIN(work_date), MAX(work_date) INTO v_min, v_max
+    FROM (SELECT work_date FROM attendance_records_legacy
+          UNION ALL
+          SELECT work_date FROM break_records_legacy) d;
+    IF v_min IS NOT NULL THEN
+        PERFORM create_attendance_partitions(v_min,
+                ((EXTRACT(YEAR FROM v_max) - EXTRACT(YEAR FROM v_min)) * 12
+                        + EXTRACT(MONTH FROM v_max) - EXTRACT(MONTH FROM v_min))::INTEGER + 1);
+    END IF;
+
+    INSERT INTO attendance_records SELECT * FROM attendance_records_legacy;
+    INSERT INTO break_records SELECT * FROM break_records_legacy;
+
+    ALTER TABLE attendance_records
+        ADD CONSTRAINT attendance_records_pkey PRIMARY KEY (id, work_date);
+    CREATE INDEX idx_attendance_records_employee_id ON attendance_records(employee_id);
+    CREATE INDEX idx_attendance_records_work_date ON attendance_records(work_date);
+    CREATE INDEX idx_attendance_records_status ON attendance_records(status);
+    CREATE INDEX idx_attendance_records_employee_date ON attendance_records(employee_id, work_date);
+
+    ALTER TABLE break_records
+        ADD CONSTRAINT break_records_pkey PRIMARY KEY (id, work_date);
+    CREATE INDEX idx_break_records_attendance_id ON break_records(attendance_record_id);
+    CREATE INDEX idx_break_records_employee_id ON break_records(employee_id);
+    CREATE INDEX idx_break_records_work_date ON break_records(work_date);
+    CREATE INDEX idx_break_records_employee_date ON break_records(employee_id, work_date);
+
+    ALTER SEQUENCE attendance_records_id_seq OWNED BY attendance_records.id;
+    ALTER SEQUENCE break_records_id_seq OWNED BY break_records.id;
+
+    DROP TABLE attendance_records_legacy;
+    DROP TABLE break_records_legacy;
+END;
+$$;
+
+-- Partition cho tháng hiện tại và 3 tháng tới; scheduler duy trì phần tiếp theo
+SELECT create_attendance_partitions(CURRENT_DATE, 4);
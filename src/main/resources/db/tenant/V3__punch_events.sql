@@ -0,0 +1,21 @@
+-- =====================================================
+-- PUNCH EVENT TỪ KIOSK/THIẾT BỊ
+-- Nhập hàng loạt, idempotency theo idempotency_key (INSERT ... ON CONFLICT DO NOTHING RETURNING).
+-- Mỗi punch lưu kết quả: bản ghi chấm công được áp dụng hoặc mã lỗi.
+-- =====================================================
+
+CREATE TABLE punch_events (
+    id BIGSERIAL PRIMARY KEY,
+    idempotency_key VARCHAR(100) NOT NULL UNIQUE,
+    employee_id BIGINT NOT NULL,
+    punch_type VARCHAR(20) NOT NULL,
+    punched_at TIMESTAMP NOT NULL,
+    device_id VARCHAR(255),
+    latitude DOUBLE PRECISION,
+    longitude DOUBLE PRECISION,
+    attendance_record_id BIGINT,
+    error_code VARCHAR(100),
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX idx_punch_events_employee_punched_at ON punch_events(employee_id, punched_at);
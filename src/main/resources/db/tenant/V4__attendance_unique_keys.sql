@@ -0,0 +1,56 @@
+-- =====================================================
+-- KHÓA DUY NHẤT CHO CHECK-IN / BẮT ĐẦU GIẢI LAO
+-- Check-in và bắt đầu giải lao dùng INSERT ... ON CONFLICT DO NOTHING thay cho kiểm tra tồn tại trước khi ghi,
+-- nên bấm hai lần/gửi đồng thời không tạo bản ghi trùng.
+-- Khóa của bảng partition phải chứa cột partition (work_date).
+-- =====================================================
+
+-- Bản ghi chấm công trùng (nhân viên, ngày) không tự gộp được (giờ vào/ra, giải lao, điều chỉnh khác nhau):
+-- dừng migration để xử lý tay trước
+DO $$
+DECLARE
+    v_duplicates BIGINT;
+    v_sample TEXT;
+BEGIN
+    SELECT count(*), string_agg(format('employee_id=%s work_date=%s', employee_id, work_date), ', ')
+    INTO v_duplicates, v_sample
+    FROM (SELECT employee_id, work_date
+          FROM attendance_records
+          GROUP BY employee_id, work_date
+          HAVING count(*) > 1
+          ORDER BY employee_id, work_date
+          LIMIT 20) d;
+
+    IF v_duplicates > 0 THEN
+        RAISE EXCEPTION 'attendance_records có bản ghi trùng (employee_id, work_date), ví dụ: %. '
+                'Gộp hoặc xóa bản ghi trùng rồi chạy lại migration', v_sample;
+    END IF;
+END;
+$$;
+
+-- Giải lao trùng số thứ tự trong một bản ghi: đánh số lại theo thứ tự bắt đầu (chỉ các bản ghi có trùng)
+UPDATE break_records b
+SET break_number = n.new_number
+FROM (SELECT id, work_date,
+             row_number() OVER (PARTITION BY attendance_record_id, work_date
+                                ORDER BY break_number, break_start NULLS LAST, id) AS new_number
+      FROM break_records
+      WHERE (attendance_record_id, work_date) IN (
+          SELECT attendance_record_id, work_date
+          FROM break_records
+          GROUP BY attendance_record_id, work_date, break_number
+          HAVING count(*) > 1)) n
+WHERE b.id = n.id
+  AND b.work_date = n.work_date
+  AND b.break_number <> n.new_number;
+
+-- Mỗi nhân viên tối đa một bản ghi mỗi ngày
+ALTER TABLE attendance_records
+    ADD CONSTRAINT uk_attendance_records_employee_date UNIQUE (employee_id, work_date);
+
+-- Số thứ tự giải lao duy nhất trong bản ghi chấm công
+ALTER TABLE break_records
+    ADD CONSTRAINT uk_break_records_attendance_number UNIQUE (attendance_record_id, work_date, break_number);
+
+-- Khóa duy nhất phía trên đã phủ (employee_id, work_date)
+DROP INDEX IF EXISTS idx_attendance_records_employee_date;
@@ -0,0 +1,23 @@
+-- =====================================================
+-- ĐỊA ĐIỂM LÀM VIỆC (GEO-FENCE)
+-- Địa điểm hình tròn (tâm + bán kính, null = bán kính mặc định trong cấu hình chấm công)
+-- hoặc đa giác (polygon JSONB). Check-in/check-out hợp lệ khi nằm trong một địa điểm đang hoạt động.
+-- =====================================================
+
+CREATE TABLE work_sites (
+    id BIGSERIAL PRIMARY KEY,
+    name VARCHAR(255) NOT NULL,
+    type VARCHAR(20) NOT NULL,
+    latitude DOUBLE PRECISION,
+    longitude DOUBLE PRECISION,
+    radius_meters INTEGER,
+    polygon JSONB,
+    is_active BOOLEAN NOT NULL DEFAULT TRUE,
+    deleted BOOLEAN NOT NULL DEFAULT FALSE,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    created_by VARCHAR(50),
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_by VARCHAR(50)
+);
+
+CREATE INDEX idx_work_sites_deleted ON work_sites(deleted);
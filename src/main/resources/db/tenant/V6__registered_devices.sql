@@ -0,0 +1,19 @@
+-- =====================================================
+-- THIẾT BỊ ĐÃ ĐĂNG KÝ
+-- Khi công ty bật chế độ thiết bị, chỉ thiết bị đã đăng ký và chưa thu hồi được chấm công.
+-- =====================================================
+
+CREATE TABLE registered_devices (
+    id BIGSERIAL PRIMARY KEY,
+    device_id VARCHAR(255) NOT NULL,
+    name VARCHAR(255),
+    revoked BOOLEAN NOT NULL DEFAULT FALSE,
+    revoked_at TIMESTAMP,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    created_by VARCHAR(50),
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_by VARCHAR(50)
+);
+
+-- Mỗi thiết bị chỉ có một bản đăng ký còn hiệu lực (bản đã thu hồi được giữ lại làm lịch sử)
+CREATE UNIQUE INDEX uk_registered_devices_device_id ON registered_devices(device_id) WHERE revoked = FALSE;
@@ -0,0 +1,30 @@
+-- =====================================================
+-- TỔNG HỢP CHẤM CÔNG THEO NHÂN VIÊN-THÁNG
+-- Tính lại sau khi các lần ghi attendance_records (check-in/out, kết thúc giải lao, điều chỉnh) commit
+-- và rebuild hằng đêm. Dữ liệu cũ được dựng qua POST /api/company/attendance/aggregates/rebuild.
+-- =====================================================
+
+CREATE TABLE attendance_monthly_aggregates (
+    id BIGSERIAL PRIMARY KEY,
+    employee_id BIGINT NOT NULL,
+    year INTEGER NOT NULL,
+    month INTEGER NOT NULL,
+    record_count INTEGER NOT NULL DEFAULT 0,
+    present_days INTEGER NOT NULL DEFAULT 0,
+    late_days INTEGER NOT NULL DEFAULT 0,
+    absent_days INTEGER NOT NULL DEFAULT 0,
+    leave_days INTEGER NOT NULL DEFAULT 0,
+    holiday_days INTEGER NOT NULL DEFAULT 0,
+    late_count INTEGER NOT NULL DEFAULT 0,
+    total_late_minutes INTEGER NOT NULL DEFAULT 0,
+    early_leave_count INTEGER NOT NULL DEFAULT 0,
+    total_early_leave_minutes INTEGER NOT NULL DEFAULT 0,
+    total_working_minutes INTEGER NOT NULL DEFAULT 0,
+    total_overtime_minutes INTEGER NOT NULL DEFAULT 0,
+    total_break_minutes INTEGER NOT NULL DEFAULT 0,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT uk_attendance_monthly_aggregates_employee_period UNIQUE (employee_id, year, month)
+);
+
+CREATE INDEX idx_attendance_monthly_aggregates_period ON attendance_monthly_aggregates(year, month);
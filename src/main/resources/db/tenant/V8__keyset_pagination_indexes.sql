@@ -0,0 +1,12 @@
+-- =====================================================
+-- INDEX PHÂN TRANG KEYSET
+-- Danh sách chấm công và audit log sắp xếp theo (ngày, id); thêm id vào index để trang sau
+-- bắt đầu thẳng từ khóa cuối thay vì OFFSET. Index cũ cùng tên được thay thế.
+-- =====================================================
+
+-- (work_date, id): sắp xếp/phân trang keyset theo ngày, cũng dùng cho lọc theo khoảng ngày
+DROP INDEX IF EXISTS idx_attendance_records_work_date;
+CREATE INDEX idx_attendance_records_work_date ON attendance_records(work_date, id);
+
+DROP INDEX IF EXISTS idx_audit_timestamp_desc;
+CREATE INDEX idx_audit_timestamp_desc ON audit_logs(timestamp DESC, id DESC);
@@ -0,0 +1,44 @@
+-- =====================================================
+-- JOB TÍNH LẠI CHẤM CÔNG
+-- Tính lại bản ghi chấm công theo cấu hình hiện tại (sau khi đổi làm tròn/grace/giải lao).
+-- Khoảng ngày được chia thành các chunk xử lý song song; tiến độ ghi theo chunk để chạy tiếp được.
+-- =====================================================
+
+CREATE TABLE attendance_recalculation_jobs (
+    id BIGSERIAL PRIMARY KEY,
+    from_date DATE NOT NULL,
+    to_date DATE NOT NULL,
+    status VARCHAR(20) NOT NULL DEFAULT 'RUNNING',
+    requested_by BIGINT,
+    error_message TEXT,
+    started_at TIMESTAMP,
+    finished_at TIMESTAMP,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Mỗi tenant chỉ có một job đang chạy
+CREATE UNIQUE INDEX uk_attendance_recalculation_jobs_running ON attendance_recalculation_jobs((status))
+    WHERE status = 'RUNNING';
+
+-- Checkpoint (last_work_date, last_record_id) được ghi cùng transaction với mỗi batch
+CREATE TABLE attendance_recalculation_chunks (
+    id BIGSERIAL PRIMARY KEY,
+    job_id BIGINT NOT NULL REFERENCES attendance_recalculation_jobs(id) ON DELETE CASCADE,
+    chunk_from DATE NOT NULL,
+    chunk_to DATE NOT NULL,
+    status VARCHAR(20) NOT NULL DEFAULT 'PENDING',
+    last_work_date DATE,
+    last_record_id BIGINT,
+    processed_records INTEGER NOT NULL DEFAULT 0,
+    updated_records INTEGER NOT NULL DEFAULT 0,
+    skipped_records INTEGER NOT NULL DEFAULT 0,
+    attempts INTEGER NOT NULL DEFAULT 0,
+    error_message TEXT,
+    heartbeat_at TIMESTAMP,
+    finished_at TIMESTAMP,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX idx_attendance_recalculation_chunks_job_status ON attendance_recalculation_chunks(job_id, status);
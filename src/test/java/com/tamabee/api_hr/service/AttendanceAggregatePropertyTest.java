@@ -0,0 +1,449 @@
+package com.tamabee.api_hr.service;
+
+import com.tamabee.api_hr.dto.response.attendance.AttendanceSummaryResponse;
+import com.tamabee.api_hr.entity.attendance.AttendanceMonthlyAggregateEntity;
+import com.tamabee.api_hr.entity.attendance.AttendanceRecordEntity;
+import com.tamabee.api_hr.enums.AttendanceStatus;
+import com.tamabee.api_hr.mapper.company.AttendanceMapper;
+import com.tamabee.api_hr.service.company.impl.AttendanceAggregateServiceImpl;
+import net.jqwik.api.*;
+import net.jqwik.api.constraints.*;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.lang.reflect.Proxy;
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.*;
+import java.util.function.Predicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Property-based tests cho tổng hợp chấm công theo nhân viên-tháng.
+ *
+ * Property: Dòng tổng hợp luôn khớp với việc tính lại từ bản ghi ngày
+ * - For any chuỗi ghi bản ghi ngày (mỗi lần ghi một transaction), sau khi commit dòng tổng hợp SHALL bằng
+ * kết quả tính từ bản ghi ngày của tháng (cùng kết quả với bản quét danh sách bản ghi của AttendanceMapper)
+ * - Làm mới SHALL chỉ chạy sau commit (một lượt mỗi tháng), transaction rollback SHALL không làm mới
+ * - Làm mới sau commit bị lỗi SHALL được đưa vào hàng chờ, lượt làm mới lại SHALL đưa tổng hợp về đúng
+ * và xóa hàng chờ
+ */
+class AttendanceAggregatePropertyTest {
+
+    private static final LocalDate FIRST_DAY = LocalDate.of(2025, 1, 1);
+    // Hai tháng: 01/2025 và 02/2025
+    private static final int DAYS = 59;
+
+    private final AttendanceMapper attendanceMapper = new AttendanceMapper();
+
+    /**
+     * Property 1: sau mỗi transaction đã commit, tổng hợp khớp với tính lại từ bản ghi ngày
+     */
+    @Property(tries = 100)
+    void aggregates_shouldMatchRecomputationFromDailyRecords(
+            @ForAll @IntRange(min = 1, max = 60) int writes,
+            @ForAll Random random) {
+
+        FakeTenantDatabase database = new FakeTenantDatabase();
+        AttendanceAggregateServiceImpl service = createService(database);
+
+        for (int i = 0; i < writes; i++) {
+            Long employeeId = 1L + random.nextInt(5);
+            LocalDate workDate = FIRST_DAY.plusDays(random.nextInt(DAYS));
+            AttendanceRecordEntity record = randomRecord(employeeId, workDate, random);
+            boolean commit = random.nextInt(5) > 0;
+
+            inTransaction(commit, () -> {
+                if (commit) {
+                    database.upsert(record);
+                }
+                service.refresh(employeeId, workDate);
+                // Chưa commit: chưa đụng tới bảng tổng hợp
+                assertThat(database.statements).isEmpty();
+            });
+            if (!commit) {
+                assertThat(database.statements).isEmpty();
+            }
+            database.statements.clear();
+        }
+
+        for (AttendanceMonthlyAggregateEntity aggregate : database.aggregates.values()) {
+            YearMonth period = YearMonth.of(aggregate.getYear(), aggregate.getMonth());
+            List<AttendanceRecordEntity> records = database.records.stream()
+                    .filter(r -> r.getEmployeeId().equals(aggregate.getEmployeeId())
+                            && YearMonth.from(r.getWorkDate()).equals(period))
+                    .toList();
+
+            AttendanceSummaryResponse fromAggregate = attendanceMapper.toSummaryResponse(
+                    aggregate.getEmployeeId(), null, period, aggregate);
+            AttendanceSummaryResponse fromRecords = attendanceMapper.toSummaryResponse(
+                    aggregate.getEmployeeId(), null, period, records);
+            assertThat(fromAggregate).isEqualTo(fromRecords);
+
+            assertThat(aggregate.getLateDays())
+                    .isEqualTo(count(records, r -> r.getStatus() == AttendanceStatus.LATE));
+            assertThat(aggregate.getLateCount())
+                    .isEqualTo(count(records, r -> r.getLateMinutes() != null && r.getLateMinutes() > 0));
+            assertThat(aggregate.getEarlyLeaveCount())
+                    .isEqualTo(count(records, r -> r.getEarlyLeaveMinutes() != null && r.getEarlyLeaveMinutes() > 0));
+            assertThat(aggregate.getTotalBreakMinutes())
+                    .isEqualTo(records.stream().mapToInt(r -> Objects.requireNonNullElse(r.getTotalBreakMinutes(), 0)).sum());
+        }
+
+        // Mọi nhân viên-tháng có bản ghi đều có dòng tổng hợp
+        database.records.forEach(r -> assertThat(database.aggregates)
+                .containsKey(FakeTenantDatabase.key(r.getEmployeeId(), YearMonth.from(r.getWorkDate()))));
+    }
+
+    /**
+     * Property 2: nhiều lần gọi trong một transaction được gom thành một lượt làm mới mỗi tháng sau commit
+     */
+    @Property(tries = 50)
+    void refreshes_shouldRunOncePerPeriodAfterCommit(
+            @ForAll @Size(min = 1, max = 30) List<@LongRange(min = 1, max = 20) Long> employeeIds,
+            @ForAll Random random) {
+
+        FakeTenantDatabase database = new FakeTenantDatabase();
+        AttendanceAggregateServiceImpl service = createService(database);
+
+        Set<YearMonth> periods = new HashSet<>();
+        Set<String> keys = new HashSet<>();
+        inTransaction(true, () -> {
+            for (Long employeeId : employeeIds) {
+                LocalDate workDate = FIRST_DAY.plusDays(random.nextInt(DAYS));
+                periods.add(YearMonth.from(workDate));
+                keys.add(FakeTenantDatabase.key(employeeId, YearMonth.from(workDate)));
+                service.refresh(employeeId, workDate);
+            }
+            assertThat(database.statements).isEmpty();
+        });
+
+        assertThat(database.statements.stream().filter(sql -> sql.contains("INSERT INTO attendance_monthly_aggregates")))
+                .hasSize(periods.size());
+        assertThat(database.aggregates.keySet()).isEqualTo(keys);
+        assertThat(TransactionSynchronizationManager.isSynchronizationActive()).isFalse();
+    }
+
+    /**
+     * Property 3: làm mới lỗi sau commit được đưa vào hàng chờ, làm mới lại sửa đúng tổng hợp
+     */
+    @Property(tries = 50)
+    void failedRefreshes_shouldBeQueuedAndRetried(
+            @ForAll @IntRange(min = 1, max = 30) int writes,
+            @ForAll Random random) {
+
+        FakeTenantDatabase database = new FakeTenantDatabase();
+        AttendanceAggregateServiceImpl service = createService(database);
+
+        Set<String> failedKeys = new HashSet<>();
+        for (int i = 0; i < writes; i++) {
+            Long employeeId = 1L + random.nextInt(5);
+            LocalDate workDate = FIRST_DAY.plusDays(random.nextInt(DAYS));
+            AttendanceRecordEntity record = randomRecord(employeeId, workDate, random);
+            database.failRefreshes = random.nextBoolean();
+            if (database.failRefreshes) {
+                failedKeys.add(FakeTenantDatabase.key(employeeId, YearMonth.from(workDate)));
+            }
+
+            inTransaction(true, () -> {
+                database.upsert(record);
+                service.refresh(employeeId, workDate);
+            });
+        }
+        database.failRefreshes = false;
+
+        assertThat(database.pending.keySet()).isEqualTo(failedKeys);
+        assertThat(service.retryPendingRefreshes()).isEqualTo(failedKeys.size());
+        assertThat(database.pending).isEmpty();
+
+        for (AttendanceRecordEntity record : database.records) {
+            YearMonth period = YearMonth.from(record.getWorkDate());
+            AttendanceMonthlyAggregateEntity aggregate = database.aggregates.get(
+                    FakeTenantDatabase.key(record.getEmployeeId(), period));
+            List<AttendanceRecordEntity> records = database.records.stream()
+                    .filter(r -> r.getEmployeeId().equals(record.getEmployeeId())
+                            && YearMonth.from(r.getWorkDate()).equals(period))
+                    .toList();
+            assertThat(attendanceMapper.toSummaryResponse(record.getEmployeeId(), null, period, aggregate))
+                    .isEqualTo(attendanceMapper.toSummaryResponse(record.getEmployeeId(), null, period, records));
+        }
+    }
+
+    private static AttendanceRecordEntity randomRecord(Long employeeId, LocalDate workDate, Random random) {
+        AttendanceStatus[] statuses = AttendanceStatus.values();
+        AttendanceRecordEntity record = new AttendanceRecordEntity();
+        record.setEmployeeId(employeeId);
+        record.setWorkDate(workDate);
+        record.setStatus(statuses[random.nextInt(statuses.length)]);
+        record.setWorkingMinutes(randomMinutes(random, 600));
+        record.setOvertimeMinutes(randomMinutes(random, 180));
+        record.setLateMinutes(randomMinutes(random, 60));
+        record.setEarlyLeaveMinutes(randomMinutes(random, 60));
+        record.setTotalBreakMinutes(randomMinutes(random, 90));
+        return record;
+    }
+
+    private static Integer randomMinutes(Random random, int max) {
+        // Khoảng 1/4 giá trị là null hoặc 0 (bản ghi chưa tính/không có phút)
+        int value = random.nextInt(max + 1) - max / 4;
+        if (value < 0) {
+            return value % 2 == 0 ? null : Integer.valueOf(0);
+        }
+        return value;
+    }
+
+    private static int count(List<AttendanceRecordEntity> records, Predicate<AttendanceRecordEntity> predicate) {
+        return (int) records.stream().filter(predicate).count();
+    }
+
+    /**
+     * Chạy work trong transaction giả lập, gọi các synchronization giống transaction manager
+     */
+    private static void inTransaction(boolean commit, Runnable work) {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            work.run();
+            List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+            if (commit) {
+                synchronizations.forEach(TransactionSynchronization::afterCommit);
+            }
+            int status = commit ? TransactionSynchronization.STATUS_COMMITTED
+                    : TransactionSynchronization.STATUS_ROLLED_BACK;
+            synchronizations.forEach(synchronization -> synchronization.afterCompletion(status));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private AttendanceAggregateServiceImpl createService(FakeTenantDatabase database) {
+        AttendanceAggregateServiceImpl service = new AttendanceAggregateServiceImpl(
+                database, mock(PlatformTransactionManager.class));
+        ReflectionTestUtils.setField(service, "retryBatchSize", 1000);
+        ReflectionTestUtils.invokeMethod(service, "init");
+        return service;
+    }
+
+    /**
+     * JdbcTemplate giả lập attendance_records, attendance_monthly_aggregates và hàng chờ làm mới,
+     * nhận diện câu lệnh theo SQL
+     */
+    private static final class FakeTenantDatabase extends JdbcTemplate {
+        private final List<AttendanceRecordEntity> records = new ArrayList<>();
+        private final Map<String, AttendanceMonthlyAggregateEntity> aggregates = new HashMap<>();
+        // Hàng chờ làm mới: khóa nhân viên-tháng -> marked_at
+        private final Map<String, Timestamp> pending = new TreeMap<>();
+        private final List<String> statements = new ArrayList<>();
+        // Làm mới tổng hợp thất bại (mô phỏng lỗi DB sau commit)
+        private boolean failRefreshes;
+        private long clock;
+
+        private static String key(Long employeeId, YearMonth period) {
+            return employeeId + ":" + period;
+        }
+
+        private void upsert(AttendanceRecordEntity record) {
+            records.removeIf(r -> r.getEmployeeId().equals(record.getEmployeeId())
+                    && r.getWorkDate().equals(record.getWorkDate()));
+            records.add(record);
+        }
+
+        @Override
+        public int update(PreparedStatementCreator psc) {
+            Statement statement = Statement.create(psc);
+            statements.add(statement.sql);
+            if (statement.sql.contains("INSERT INTO attendance_aggregate_refresh_queue")) {
+                YearMonth period = YearMonth.of((Integer) statement.params.get(1), (Integer) statement.params.get(2));
+                Timestamp markedAt = new Timestamp(++clock);
+                for (Object employeeId : statement.array(3)) {
+                    pending.put(key((Long) employeeId, period), markedAt);
+                }
+                return statement.array(3).length;
+            }
+            if (statement.sql.contains("DELETE FROM attendance_aggregate_refresh_queue")) {
+                YearMonth period = YearMonth.of((Integer) statement.params.get(1), (Integer) statement.params.get(2));
+                Timestamp lastMarkedAt = (Timestamp) statement.params.get(4);
+                int deleted = 0;
+                for (Object employeeId : statement.array(3)) {
+                    String key = key((Long) employeeId, period);
+                    if (pending.containsKey(key) && !pending.get(key).after(lastMarkedAt)) {
+                        pending.remove(key);
+                        deleted++;
+                    }
+                }
+                return deleted;
+            }
+            if (!statement.sql.contains("INSERT INTO attendance_monthly_aggregates")) {
+                throw new IllegalStateException("SQL không được giả lập: " + statement.sql);
+            }
+            if (failRefreshes) {
+                throw new IllegalStateException("Mất kết nối DB");
+            }
+            int year = (Integer) statement.params.get(1);
+            int month = (Integer) statement.params.get(2);
+            int inserted = 0;
+            for (Object employeeId : statement.array(3)) {
+                String key = key((Long) employeeId, YearMonth.of(year, month));
+                if (!aggregates.containsKey(key)) {
+                    AttendanceMonthlyAggregateEntity aggregate = new AttendanceMonthlyAggregateEntity();
+                    aggregate.setEmployeeId((Long) employeeId);
+                    aggregate.setYear(year);
+                    aggregate.setMonth(month);
+                    aggregates.put(key, aggregate);
+                    inserted++;
+                }
+            }
+            return inserted;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> List<T> query(PreparedStatementCreator psc, RowMapper<T> rowMapper) {
+            Statement statement = Statement.create(psc);
+            statements.add(statement.sql);
+            if (statement.sql.contains("FOR UPDATE")) {
+                return (List<T>) List.of(statement.array(3));
+            }
+            if (statement.sql.contains("FROM attendance_records")) {
+                Set<Object> employeeIds = Set.of(statement.array(1));
+                LocalDate from = ((Date) statement.params.get(2)).toLocalDate();
+                LocalDate to = ((Date) statement.params.get(3)).toLocalDate();
+                return (List<T>) records.stream()
+                        .filter(r -> employeeIds.contains(r.getEmployeeId())
+                                && !r.getWorkDate().isBefore(from) && !r.getWorkDate().isAfter(to))
+                        .toList();
+            }
+            throw new IllegalStateException("SQL không được giả lập: " + statement.sql);
+        }
+
+        @Override
+        public void query(String sql, RowCallbackHandler rch, Object... args) {
+            statements.add(sql);
+            if (!sql.contains("FROM attendance_aggregate_refresh_queue")) {
+                throw new IllegalStateException("SQL không được giả lập: " + sql);
+            }
+            int limit = (Integer) args[0];
+            pending.entrySet().stream().limit(limit).forEach(entry -> {
+                String[] parts = entry.getKey().split(":");
+                YearMonth period = YearMonth.parse(parts[1]);
+                Map<String, Object> row = Map.of(
+                        "employee_id", Long.valueOf(parts[0]),
+                        "year", period.getYear(),
+                        "month", period.getMonthValue(),
+                        "marked_at", entry.getValue());
+                try {
+                    rch.processRow((ResultSet) Proxy.newProxyInstance(
+                            ResultSet.class.getClassLoader(), new Class<?>[] {ResultSet.class},
+                            (proxy, method, methodArgs) -> row.get((String) methodArgs[0])));
+                } catch (SQLException e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+        }
+
+        @Override
+        public <T> int[][] batchUpdate(String sql, Collection<T> batchArgs, int batchSize,
+                ParameterizedPreparedStatementSetter<T> pss) {
+            statements.add(sql);
+            if (!sql.contains("UPDATE attendance_monthly_aggregates")) {
+                throw new IllegalStateException("SQL không được giả lập: " + sql);
+            }
+            for (T item : batchArgs) {
+                Statement statement = new Statement(sql);
+                try {
+                    pss.setValues(statement.proxy(), item);
+                } catch (SQLException e) {
+                    throw new IllegalStateException(e);
+                }
+                Map<Integer, Object> p = statement.params;
+                AttendanceMonthlyAggregateEntity aggregate = aggregates.get(
+                        key((Long) p.get(14), YearMonth.of((Integer) p.get(15), (Integer) p.get(16))));
+                aggregate.setRecordCount((Integer) p.get(1));
+                aggregate.setPresentDays((Integer) p.get(2));
+                aggregate.setLateDays((Integer) p.get(3));
+                aggregate.setAbsentDays((Integer) p.get(4));
+                aggregate.setLeaveDays((Integer) p.get(5));
+                aggregate.setHolidayDays((Integer) p.get(6));
+                aggregate.setLateCount((Integer) p.get(7));
+                aggregate.setTotalLateMinutes((Integer) p.get(8));
+                aggregate.setEarlyLeaveCount((Integer) p.get(9));
+                aggregate.setTotalEarlyLeaveMinutes((Integer) p.get(10));
+                aggregate.setTotalWorkingMinutes((Integer) p.get(11));
+                aggregate.setTotalOvertimeMinutes((Integer) p.get(12));
+                aggregate.setTotalBreakMinutes((Integer) p.get(13));
+            }
+            return new int[][] {};
+        }
+    }
+
+    /**
+     * Câu lệnh đã chuẩn bị: SQL và tham số được gán (mảng giữ nguyên phần tử)
+     */
+    private static final class Statement {
+        private final String sql;
+        private final Map<Integer, Object> params = new HashMap<>();
+
+        private Statement(String sql) {
+            this.sql = sql;
+        }
+
+        private static Statement create(PreparedStatementCreator psc) {
+            Statement[] created = new Statement[1];
+            Connection connection = (Connection) Proxy.newProxyInstance(
+                    Connection.class.getClassLoader(), new Class<?>[] {Connection.class},
+                    (proxy, method, args) -> switch (method.getName()) {
+                        case "prepareStatement" -> {
+                            created[0] = new Statement((String) args[0]);
+                            yield created[0].proxy();
+                        }
+                        case "createArrayOf" -> Proxy.newProxyInstance(
+                                Array.class.getClassLoader(), new Class<?>[] {Array.class},
+                                (arrayProxy, arrayMethod, arrayArgs) ->
+                                        "getArray".equals(arrayMethod.getName()) ? args[1] : null);
+                        default -> null;
+                    });
+            try {
+                psc.createPreparedStatement(connection);
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+            return created[0];
+        }
+
+        private PreparedStatement proxy() {
+            return (PreparedStatement) Proxy.newProxyInstance(
+                    PreparedStatement.class.getClassLoader(), new Class<?>[] {PreparedStatement.class},
+                    (proxy, method, args) -> {
+                        if (method.getName().startsWith("set") && args != null && args.length >= 2
+                                && args[0] instanceof Integer index) {
+                            params.put(index, "setNull".equals(method.getName()) ? null : args[1]);
+                        }
+                        return method.getReturnType() == boolean.class ? false
+                                : method.getReturnType() == int.class ? 0 : null;
+                    });
+        }
+
+        private Object[] array(int index) {
+            try {
+                return (Object[]) ((Array) params.get(index)).getArray();
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
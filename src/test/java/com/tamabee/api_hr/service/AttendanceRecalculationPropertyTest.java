@@ -0,0 +1,322 @@
+package com.tamabee.api_hr.service;
+
+import com.tamabee.api_hr.dto.config.AttendanceConfig;
+import com.tamabee.api_hr.dto.config.BreakConfig;
+import com.tamabee.api_hr.dto.config.RoundingConfig;
+import com.tamabee.api_hr.entity.attendance.AttendanceRecordEntity;
+import com.tamabee.api_hr.exception.ConflictException;
+import com.tamabee.api_hr.service.calculator.interfaces.IAttendanceRecordCalculator;
+import com.tamabee.api_hr.service.calculator.interfaces.ITimeRoundingCalculator;
+import com.tamabee.api_hr.service.company.impl.AttendanceBatchSupport;
+import com.tamabee.api_hr.service.company.impl.AttendanceRecalculationBatchProcessor;
+import com.tamabee.api_hr.service.company.impl.AttendanceRecalculationBatchProcessor.Chunk;
+import com.tamabee.api_hr.service.company.interfaces.IAttendanceAggregateService;
+import com.tamabee.api_hr.service.company.interfaces.IPresenceService;
+import com.tamabee.api_hr.service.company.interfaces.IWorkScheduleService;
+import net.jqwik.api.*;
+import net.jqwik.api.constraints.*;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.reflect.Proxy;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Property-based tests cho xử lý batch của job tính lại chấm công.
+ *
+ * Property: Batch chỉ ghi bản ghi thay đổi và không ghi đè chấm công đồng thời
+ * - For any tập bản ghi và kích thước batch, duyệt keyset SHALL xử lý mỗi bản ghi đúng một lần
+ * - Bản ghi có kết quả thay đổi SHALL được ghi theo cấu hình hiện tại, trừ khi updated_at đã đổi kể từ lúc đọc
+ * (bản ghi đó SHALL được giữ nguyên và tính là bỏ qua)
+ * - Tổng hợp tháng SHALL chỉ được làm mới cho bản ghi đã ghi
+ * - Checkpoint của worker đã mất chunk SHALL bị từ chối
+ */
+class AttendanceRecalculationPropertyTest {
+
+    private static final LocalDate CHUNK_FROM = LocalDate.of(2025, 1, 1);
+    private static final LocalDate CHUNK_TO = LocalDate.of(2025, 2, 28);
+    private static final int DAYS = 59;
+
+    private static final AttendanceConfig CONFIG = AttendanceConfig.builder()
+            .enableRounding(true)
+            .checkInRounding(new RoundingConfig())
+            .build();
+
+    /**
+     * Property 1: bản ghi thay đổi được ghi, bản ghi bị sửa đồng thời được bỏ qua, tổng hợp chỉ làm mới
+     * cho bản ghi đã ghi
+     */
+    @Property(tries = 100)
+    void batches_shouldWriteChangedRecordsAndSkipConcurrentlyModified(
+            @ForAll @IntRange(min = 0, max = 40) int recordCount,
+            @ForAll @IntRange(min = 1, max = 10) int batchSize,
+            @ForAll Random random) {
+
+        FakeTenantDatabase database = new FakeTenantDatabase();
+        for (int i = 0; i < recordCount; i++) {
+            database.add(randomRecord(i + 1L, random), random.nextInt(4) == 0);
+        }
+        IAttendanceAggregateService aggregateService = mock(IAttendanceAggregateService.class);
+        Map<YearMonth, Set<Long>> refreshed = new HashMap<>();
+        doAnswer(invocation -> {
+            Collection<Long> employeeIds = invocation.getArgument(0);
+            refreshed.computeIfAbsent(invocation.getArgument(1), period -> new HashSet<>()).addAll(employeeIds);
+            return null;
+        }).when(aggregateService).refresh(anyCollection(), any(YearMonth.class));
+        AttendanceRecalculationBatchProcessor processor = createProcessor(database, aggregateService, batchSize);
+
+        Chunk chunk = new Chunk(1L, 1L, CHUNK_FROM, CHUNK_TO, database.attempts, null, null);
+        int batches = 0;
+        while (chunk != null) {
+            chunk = processor.processBatch(chunk, CONFIG, new BreakConfig());
+            batches++;
+        }
+
+        // Mỗi bản ghi được đọc đúng một lần, batch cuối chưa đầy
+        assertThat(database.selected).hasSize(recordCount).doesNotHaveDuplicates();
+        assertThat(batches).isEqualTo(recordCount / batchSize + 1);
+
+        Map<YearMonth, Set<Long>> expectedRefreshed = new HashMap<>();
+        int updated = 0;
+        int skipped = 0;
+        for (AttendanceRecordEntity record : database.records) {
+            LocalDateTime expected = record.getOriginalCheckIn().withMinute(0);
+            boolean changed = !expected.equals(database.initialRoundedCheckIn.get(record.getId()));
+            if (!changed) {
+                assertThat(record.getRoundedCheckIn()).isEqualTo(expected);
+            } else if (database.concurrentlyModified.contains(record.getId())) {
+                // Giữ nguyên giá trị của lần chấm công/điều chỉnh đồng thời
+                assertThat(record.getRoundedCheckIn()).isEqualTo(database.initialRoundedCheckIn.get(record.getId()));
+                skipped++;
+            } else {
+                assertThat(record.getRoundedCheckIn()).isEqualTo(expected);
+                expectedRefreshed.computeIfAbsent(YearMonth.from(record.getWorkDate()), period -> new HashSet<>())
+                        .add(record.getEmployeeId());
+                updated++;
+            }
+        }
+        assertThat(refreshed).isEqualTo(expectedRefreshed);
+        assertThat(database.processedRecords).isEqualTo(recordCount);
+        assertThat(database.updatedRecords).isEqualTo(updated);
+        assertThat(database.skippedRecords).isEqualTo(skipped);
+        assertThat(database.status).isEqualTo("COMPLETED");
+    }
+
+    /**
+     * Property 2: worker giữ token cũ (chunk đã bị nhận lại) không ghi được checkpoint
+     */
+    @Property(tries = 50)
+    void processBatch_shouldRejectStaleCheckpoint(
+            @ForAll @IntRange(min = 1, max = 20) int recordCount,
+            @ForAll @IntRange(min = 1, max = 5) int reclaims,
+            @ForAll Random random) {
+
+        FakeTenantDatabase database = new FakeTenantDatabase();
+        for (int i = 0; i < recordCount; i++) {
+            database.add(randomRecord(i + 1L, random), false);
+        }
+        AttendanceRecalculationBatchProcessor processor = createProcessor(
+                database, mock(IAttendanceAggregateService.class), 10);
+
+        Chunk stale = new Chunk(1L, 1L, CHUNK_FROM, CHUNK_TO, database.attempts, null, null);
+        database.attempts += reclaims;
+
+        assertThatThrownBy(() -> processor.processBatch(stale, CONFIG, new BreakConfig()))
+                .isInstanceOf(ConflictException.class);
+        assertThat(database.processedRecords).isZero();
+        assertThat(database.status).isEqualTo("RUNNING");
+    }
+
+    private static AttendanceRecordEntity randomRecord(Long id, Random random) {
+        AttendanceRecordEntity record = new AttendanceRecordEntity();
+        record.setId(id);
+        record.setEmployeeId(1L + random.nextInt(5));
+        record.setWorkDate(CHUNK_FROM.plusDays(random.nextInt(DAYS)));
+        LocalDateTime checkIn = record.getWorkDate().atTime(8, random.nextInt(60));
+        record.setOriginalCheckIn(checkIn);
+        // Một nửa đã làm tròn theo cấu hình hiện tại (không thay đổi)
+        record.setRoundedCheckIn(random.nextBoolean() ? checkIn.withMinute(0) : checkIn);
+        record.setUpdatedAt(checkIn.plusHours(1));
+        return record;
+    }
+
+    private AttendanceRecalculationBatchProcessor createProcessor(FakeTenantDatabase database,
+            IAttendanceAggregateService aggregateService, int batchSize) {
+        ITimeRoundingCalculator timeRoundingCalculator = mock(ITimeRoundingCalculator.class);
+        when(timeRoundingCalculator.roundTime(any(), any()))
+                .thenAnswer(invocation -> invocation.<LocalDateTime>getArgument(0).withMinute(0));
+        IWorkScheduleService workScheduleService = mock(IWorkScheduleService.class);
+        when(workScheduleService.getEffectiveSchedule(any(), any())).thenReturn(null);
+
+        AttendanceBatchSupport attendanceBatchSupport = new AttendanceBatchSupport(
+                aggregateService, mock(IPresenceService.class), database);
+        AttendanceRecalculationBatchProcessor processor = new AttendanceRecalculationBatchProcessor(
+                workScheduleService, timeRoundingCalculator, mock(IAttendanceRecordCalculator.class),
+                attendanceBatchSupport, database);
+        ReflectionTestUtils.setField(processor, "batchSize", batchSize);
+        ReflectionTestUtils.setField(processor, "lockTimeoutMs", 2000L);
+        return processor;
+    }
+
+    /**
+     * JdbcTemplate giả lập attendance_records và một chunk của job tính lại, nhận diện câu lệnh theo SQL
+     */
+    private static final class FakeTenantDatabase extends JdbcTemplate {
+        private final List<AttendanceRecordEntity> records = new ArrayList<>();
+        private final Map<Long, LocalDateTime> initialRoundedCheckIn = new HashMap<>();
+        // Bản ghi được check-out/điều chỉnh giữa lúc batch đọc và lúc ghi
+        private final Set<Long> concurrentlyModified = new HashSet<>();
+        private final List<Long> selected = new ArrayList<>();
+        private int attempts = 1;
+        private String status = "RUNNING";
+        private int processedRecords;
+        private int updatedRecords;
+        private int skippedRecords;
+
+        private void add(AttendanceRecordEntity record, boolean modifiedConcurrently) {
+            records.add(record);
+            initialRoundedCheckIn.put(record.getId(), record.getRoundedCheckIn());
+            if (modifiedConcurrently) {
+                concurrentlyModified.add(record.getId());
+            }
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> T queryForObject(String sql, Class<T> requiredType, Object... args) {
+            if (!sql.contains("FROM attendance_recalculation_jobs")) {
+                throw new IllegalStateException("SQL không được giả lập: " + sql);
+            }
+            return (T) "RUNNING";
+        }
+
+        @Override
+        public void execute(String sql) {
+            if (!sql.startsWith("SET LOCAL lock_timeout")) {
+                throw new IllegalStateException("SQL không được giả lập: " + sql);
+            }
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> List<T> query(String sql, RowMapper<T> rowMapper, Object... args) {
+            if (!sql.contains("FROM attendance_records")) {
+                throw new IllegalStateException("SQL không được giả lập: " + sql);
+            }
+            LocalDate from = ((Date) args[0]).toLocalDate();
+            LocalDate to = ((Date) args[1]).toLocalDate();
+            LocalDate afterDate = ((Date) args[2]).toLocalDate();
+            long afterId = (Long) args[3];
+            int limit = (Integer) args[4];
+            List<AttendanceRecordEntity> batch = records.stream()
+                    .filter(r -> !r.getWorkDate().isBefore(from) && !r.getWorkDate().isAfter(to))
+                    .filter(r -> r.getWorkDate().isAfter(afterDate)
+                            || (r.getWorkDate().equals(afterDate) && r.getId() > afterId))
+                    .sorted(Comparator.comparing(AttendanceRecordEntity::getWorkDate)
+                            .thenComparing(AttendanceRecordEntity::getId))
+                    .limit(limit)
+                    .map(FakeTenantDatabase::copy)
+                    .toList();
+            batch.forEach(r -> selected.add(r.getId()));
+            return (List<T>) batch;
+        }
+
+        @Override
+        public <T> List<T> query(PreparedStatementCreator psc, RowMapper<T> rowMapper) {
+            // Không có giải lao
+            return List.of();
+        }
+
+        @Override
+        public <T> int[][] batchUpdate(String sql, Collection<T> batchArgs, int batchSize,
+                ParameterizedPreparedStatementSetter<T> pss) {
+            if (!sql.contains("UPDATE attendance_records")) {
+                throw new IllegalStateException("SQL không được giả lập: " + sql);
+            }
+            int[] counts = new int[batchArgs.size()];
+            int i = 0;
+            for (T item : batchArgs) {
+                Map<Integer, Object> params = new HashMap<>();
+                try {
+                    pss.setValues(statement(params), item);
+                } catch (SQLException e) {
+                    throw new IllegalStateException(e);
+                }
+                Long id = (Long) params.get(12);
+                AttendanceRecordEntity stored = records.stream()
+                        .filter(r -> r.getId().equals(id)).findFirst().orElseThrow();
+                if (concurrentlyModified.contains(id)) {
+                    // updated_at đã đổi do chấm công đồng thời
+                    stored.setUpdatedAt(stored.getUpdatedAt().plusMinutes(1));
+                }
+                LocalDateTime expectedUpdatedAt = ((Timestamp) params.get(14)).toLocalDateTime();
+                if (stored.getUpdatedAt().equals(expectedUpdatedAt)) {
+                    stored.setRoundedCheckIn(toLocalDateTime(params.get(1)));
+                    stored.setRoundedCheckOut(toLocalDateTime(params.get(2)));
+                    stored.setUpdatedAt(((Timestamp) params.get(11)).toLocalDateTime());
+                    counts[i] = 1;
+                }
+                i++;
+            }
+            return new int[][] {counts};
+        }
+
+        @Override
+        public int update(String sql, Object... args) {
+            if (!sql.contains("UPDATE attendance_recalculation_chunks")) {
+                throw new IllegalStateException("SQL không được giả lập: " + sql);
+            }
+            if ((Integer) args[10] != attempts || !"RUNNING".equals(status)) {
+                return 0;
+            }
+            processedRecords += (Integer) args[2];
+            updatedRecords += (Integer) args[3];
+            skippedRecords += (Integer) args[4];
+            status = (String) args[5];
+            return 1;
+        }
+
+        private static PreparedStatement statement(Map<Integer, Object> params) {
+            return (PreparedStatement) Proxy.newProxyInstance(
+                    PreparedStatement.class.getClassLoader(), new Class<?>[] {PreparedStatement.class},
+                    (proxy, method, args) -> {
+                        if (method.getName().startsWith("set") && args != null && args.length >= 2
+                                && args[0] instanceof Integer index) {
+                            params.put(index, "setNull".equals(method.getName()) ? null : args[1]);
+                        }
+                        return method.getReturnType() == boolean.class ? false
+                                : method.getReturnType() == int.class ? 0 : null;
+                    });
+        }
+
+        private static LocalDateTime toLocalDateTime(Object value) {
+            return value != null ? ((Timestamp) value).toLocalDateTime() : null;
+        }
+
+        private static AttendanceRecordEntity copy(AttendanceRecordEntity source) {
+            AttendanceRecordEntity copy = new AttendanceRecordEntity();
+            copy.setId(source.getId());
+            copy.setEmployeeId(source.getEmployeeId());
+            copy.setWorkDate(source.getWorkDate());
+            copy.setOriginalCheckIn(source.getOriginalCheckIn());
+            copy.setRoundedCheckIn(source.getRoundedCheckIn());
+            copy.setUpdatedAt(source.getUpdatedAt());
+            return copy;
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package com.tamabee.api_hr.service;
+
+import com.tamabee.api_hr.datasource.TenantContext;
+import com.tamabee.api_hr.dto.request.attendance.BatchPunchRequest;
+import com.tamabee.api_hr.dto.request.attendance.CheckInRequest;
+import com.tamabee.api_hr.dto.request.attendance.PunchEventRequest;
+import com.tamabee.api_hr.dto.response.attendance.AttendanceRecordResponse;
+import com.tamabee.api_hr.dto.response.attendance.PunchIngestionResult;
+import com.tamabee.api_hr.dto.result.PunchOutcome;
+import com.tamabee.api_hr.entity.attendance.AttendanceRecordEntity;
+import com.tamabee.api_hr.enums.ErrorCode;
+import com.tamabee.api_hr.exception.ConflictException;
+import com.tamabee.api_hr.mapper.company.AttendanceMapper;
+import com.tamabee.api_hr.repository.attendance.AttendanceRecordRepository;
+import com.tamabee.api_hr.repository.user.UserRepository;
+import com.tamabee.api_hr.service.company.impl.CheckInGroupCommitServiceImpl;
+import com.tamabee.api_hr.service.company.interfaces.IPunchIngestionService;
+import net.jqwik.api.*;
+import net.jqwik.api.constraints.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Property-based tests cho group commit check-in.
+ *
+ * Property: Mỗi check-in được commit đúng một lần và nhận đúng kết quả của mình
+ * - For any tập check-in đồng thời, mỗi request SHALL nhận id bản ghi của chính nó
+ * hoặc lỗi ALREADY_CHECKED_IN nếu nhân viên đã check-in trong batch trước/cùng batch
+ * - Mỗi batch SHALL không vượt quá max-batch-size và được ghi với tenant của request
+ * - Hàng đợi đủ max-batch-size SHALL được flush ngay, không chờ hết flush-interval-ms
+ */
+class CheckInGroupCommitPropertyTest {
+
+    private static final String TENANT = "acme";
+
+    @Property(tries = 30)
+    void concurrentCheckIns_shouldEachReceiveOwnOutcome(
+            @ForAll @Size(min = 1, max = 150) List<@LongRange(min = 1, max = 60) Long> employeeIds,
+            @ForAll @IntRange(min = 1, max = 40) int maxBatchSize) throws Exception {
+
+        RecordingIngestionService ingestion = new RecordingIngestionService();
+        CheckInGroupCommitServiceImpl service = createService(ingestion, maxBatchSize);
+
+        ExecutorService callers = Executors.newFixedThreadPool(32);
+        try {
+            List<Future<Object>> results = new ArrayList<>();
+            for (Long employeeId : employeeIds) {
+                results.add(callers.submit(() -> {
+                    TenantContext.setCurrentTenant(TENANT);
+                    try {
+                        return service.checkIn(employeeId, new CheckInRequest());
+                    } catch (ConflictException e) {
+                        return e;
+                    } finally {
+                        TenantContext.clear();
+                    }
+                }));
+            }
+
+            Map<Long, Integer> successes = new HashMap<>();
+            for (int i = 0; i < employeeIds.size(); i++) {
+                Object result = results.get(i).get(10, TimeUnit.SECONDS);
+                Long employeeId = employeeIds.get(i);
+                if (result instanceof AttendanceRecordResponse response) {
+                    assertThat(response.getId()).isEqualTo(employeeId * 10);
+                    successes.merge(employeeId, 1, Integer::sum);
+                } else {
+                    assertThat(((ConflictException) result).getErrorCode())
+                            .isEqualTo(ErrorCode.ALREADY_CHECKED_IN.getCode());
+                }
+            }
+
+            // Mỗi nhân viên check-in thành công đúng một lần, mọi check-in đều được commit
+            assertThat(successes.keySet()).containsExactlyInAnyOrderElementsOf(new HashSet<>(employeeIds));
+            assertThat(successes.values()).allMatch(count -> count == 1);
+            assertThat(ingestion.committed).isEqualTo(employeeIds.size());
+            assertThat(ingestion.batchSizes).allMatch(size -> size <= maxBatchSize);
+            assertThat(ingestion.wrongTenant).isFalse();
+        } finally {
+            callers.shutdownNow();
+            ReflectionTestUtils.invokeMethod(service, "stop");
+        }
+    }
+
+    /**
+     * Property 2: đủ max-batch-size thì flush ngay dù flush-interval-ms rất dài
+     */
+    @Property(tries = 20)
+    void fullQueue_shouldFlushWithoutWaitingForInterval(
+            @ForAll @IntRange(min = 1, max = 20) int maxBatchSize,
+            @ForAll @IntRange(min = 1, max = 3) int batches) throws Exception {
+
+        RecordingIngestionService ingestion = new RecordingIngestionService();
+        CheckInGroupCommitServiceImpl service = createService(ingestion, maxBatchSize, 60_000L);
+
+        int total = maxBatchSize * batches;
+        ExecutorService callers = Executors.newFixedThreadPool(total);
+        try {
+            List<Future<Object>> results = new ArrayList<>();
+            for (long employeeId = 1; employeeId <= total; employeeId++) {
+                long id = employeeId;
+                results.add(callers.submit(() -> {
+                    TenantContext.setCurrentTenant(TENANT);
+                    try {
+                        return service.checkIn(id, new CheckInRequest());
+                    } finally {
+                        TenantContext.clear();
+                    }
+                }));
+            }
+
+            // Hết hạn chờ trước flush-interval-ms nếu batch chỉ được ghi theo timer
+            for (Future<Object> result : results) {
+                assertThat(result.get(5, TimeUnit.SECONDS)).isInstanceOf(AttendanceRecordResponse.class);
+            }
+            assertThat(ingestion.committed).isEqualTo(total);
+            assertThat(ingestion.batchSizes).allMatch(size -> size <= maxBatchSize);
+        } finally {
+            callers.shutdownNow();
+            ReflectionTestUtils.invokeMethod(service, "stop");
+        }
+    }
+
+    private CheckInGroupCommitServiceImpl createService(IPunchIngestionService ingestion, int maxBatchSize) {
+        return createService(ingestion, maxBatchSize, 2L);
+    }
+
+    private CheckInGroupCommitServiceImpl createService(IPunchIngestionService ingestion, int maxBatchSize,
+            long flushIntervalMs) {
+        AttendanceRecordRepository recordRepository = mock(AttendanceRecordRepository.class);
+        UserRepository userRepository = mock(UserRepository.class);
+        AttendanceMapper mapper = mock(AttendanceMapper.class);
+
+        when(recordRepository.findById(any())).thenAnswer(invocation -> {
+            AttendanceRecordEntity entity = new AttendanceRecordEntity();
+            entity.setId(invocation.getArgument(0));
+            return Optional.of(entity);
+        });
+        when(userRepository.findById(any())).thenReturn(Optional.empty());
+        when(mapper.toResponse(any(AttendanceRecordEntity.class), any())).thenAnswer(invocation ->
+                AttendanceRecordResponse.builder()
+                        .id(((AttendanceRecordEntity) invocation.getArgument(0)).getId())
+                        .build());
+
+        CheckInGroupCommitServiceImpl service = new CheckInGroupCommitServiceImpl(
+                ingestion, recordRepository, userRepository, mapper);
+        ReflectionTestUtils.setField(service, "enabled", true);
+        ReflectionTestUtils.setField(service, "flushIntervalMs", flushIntervalMs);
+        ReflectionTestUtils.setField(service, "maxBatchSize", maxBatchSize);
+        ReflectionTestUtils.setField(service, "ackTimeoutMs", 10_000L);
+        ReflectionTestUtils.setField(service, "flushThreads", 2);
+        ReflectionTestUtils.invokeMethod(service, "start");
+        return service;
+    }
+
+    /**
+     * Ingestion giả lập: nhân viên đã check-in thì từ chối, còn lại trả id = employeeId * 10
+     */
+    private static final class RecordingIngestionService implements IPunchIngestionService {
+        private final Set<Long> checkedIn = ConcurrentHashMap.newKeySet();
+        private final List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+        private volatile int committed;
+        private volatile boolean wrongTenant;
+
+        @Override
+        public PunchIngestionResult ingest(BatchPunchRequest request) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public synchronized Map<String, PunchOutcome> ingestEvents(List<PunchEventRequest> events) {
+            if (!TENANT.equals(TenantContext.getCurrentTenant())) {
+                wrongTenant = true;
+            }
+            batchSizes.add(events.size());
+            Map<String, PunchOutcome> outcomes = new HashMap<>();
+            for (PunchEventRequest event : events) {
+                committed++;
+                outcomes.put(event.getIdempotencyKey(), checkedIn.add(event.getEmployeeId())
+                        ? PunchOutcome.builder().attendanceRecordId(event.getEmployeeId() * 10).build()
+                        : PunchOutcome.builder().error(ErrorCode.ALREADY_CHECKED_IN).build());
+            }
+            return outcomes;
+        }
+    }
+}
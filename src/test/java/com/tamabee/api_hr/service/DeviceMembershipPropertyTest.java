@@ -0,0 +1,58 @@
+package com.tamabee.api_hr.service;
+
+import com.tamabee.api_hr.service.company.cache.DeviceMembership;
+import net.jqwik.api.*;
+import net.jqwik.api.constraints.*;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Property-based tests cho tập thiết bị đã đăng ký.
+ *
+ * Property: Bloom filter không làm sai kết quả
+ * - For any tập thiết bị và ID bất kỳ, contains SHALL trả về true khi và chỉ khi ID thuộc tập
+ */
+class DeviceMembershipPropertyTest {
+
+    @Property(tries = 200)
+    void contains_shouldMatchSetMembership(
+            @ForAll @Size(max = 500) List<@AlphaChars @NumericChars @StringLength(min = 8, max = 40) String> registered,
+            @ForAll @Size(min = 1, max = 100) List<@AlphaChars @NumericChars @StringLength(min = 8, max = 40) String> probes) {
+
+        DeviceMembership membership = DeviceMembership.of(registered);
+        Set<String> expected = new HashSet<>(registered);
+        assertThat(membership.size()).isEqualTo(expected.size());
+        assertThat(membership.isEmpty()).isEqualTo(expected.isEmpty());
+
+        for (String deviceId : registered) {
+            assertThat(membership.contains(deviceId)).isTrue();
+        }
+        for (String deviceId : probes) {
+            assertThat(membership.contains(deviceId)).isEqualTo(expected.contains(deviceId));
+        }
+    }
+
+    @Example
+    void emptyMembership_shouldContainNothing() {
+        DeviceMembership membership = DeviceMembership.of(List.of());
+        assertThat(membership.isEmpty()).isTrue();
+        assertThat(membership.contains("device-0001")).isFalse();
+        assertThat(membership.contains(null)).isFalse();
+    }
+
+    @Example
+    void allRevoked_shouldStayRegistered() {
+        assertThat(DeviceMembership.of(List.of()).isEverRegistered()).isFalse();
+
+        DeviceMembership revoked = DeviceMembership.of(List.of(), true);
+        assertThat(revoked.isEmpty()).isTrue();
+        assertThat(revoked.isEverRegistered()).isTrue();
+        assertThat(revoked.contains("device-0001")).isFalse();
+
+        assertThat(DeviceMembership.of(List.of("device-0001")).isEverRegistered()).isTrue();
+    }
+}
@@ -0,0 +1,439 @@
+package com.tamabee.api_hr.service;
+
+import com.tamabee.api_hr.dto.config.AllowanceConfig;
+import com.tamabee.api_hr.dto.config.AllowanceRule;
+import com.tamabee.api_hr.dto.config.BreakConfig;
+import com.tamabee.api_hr.dto.config.DeductionConfig;
+import com.tamabee.api_hr.dto.config.DeductionRule;
+import com.tamabee.api_hr.dto.config.OvertimeConfig;
+import com.tamabee.api_hr.dto.config.PayrollConfig;
+import com.tamabee.api_hr.dto.result.AllowanceResult;
+import com.tamabee.api_hr.dto.result.AttendanceSummary;
+import com.tamabee.api_hr.dto.result.DailyOvertimeDetail;
+import com.tamabee.api_hr.dto.result.DeductionResult;
+import com.tamabee.api_hr.dto.result.EmployeeSalaryInfo;
+import com.tamabee.api_hr.dto.result.OvertimeResult;
+import com.tamabee.api_hr.enums.AllowanceType;
+import com.tamabee.api_hr.enums.BreakType;
+import com.tamabee.api_hr.enums.DeductionType;
+import com.tamabee.api_hr.enums.RoundingDirection;
+import com.tamabee.api_hr.enums.SalaryType;
+import com.tamabee.api_hr.service.calculator.FixedPointMoney;
+import com.tamabee.api_hr.service.calculator.LegalOvertimeRequirements;
+import com.tamabee.api_hr.service.calculator.impl.AllowanceCalculatorImpl;
+import com.tamabee.api_hr.service.calculator.impl.DeductionCalculatorImpl;
+import com.tamabee.api_hr.service.calculator.impl.OvertimeCalculatorImpl;
+import com.tamabee.api_hr.service.calculator.impl.PayrollCalculatorImpl;
+import net.jqwik.api.*;
+import net.jqwik.api.constraints.*;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Property-based tests cho fixed-point money trong calculator.
+ *
+ * Property: Fixed-point tương đương BigDecimal
+ * - For any input, kết quả fixed-point SHALL bằng đúng (cả giá trị lẫn scale)
+ * kết quả của công thức BigDecimal cũ với cùng RoundingMode
+ * - Input không biểu diễn được (scale > 4, tràn số) SHALL fallback về BigDecimal
+ */
+class FixedPointMoneyPropertyTest {
+
+    private final OvertimeCalculatorImpl overtimeCalculator = new OvertimeCalculatorImpl(
+            new LegalOvertimeRequirements());
+    private final AllowanceCalculatorImpl allowanceCalculator = new AllowanceCalculatorImpl();
+    private final DeductionCalculatorImpl deductionCalculator = new DeductionCalculatorImpl();
+    private final PayrollCalculatorImpl payrollCalculator = new PayrollCalculatorImpl(
+            overtimeCalculator, allowanceCalculator, deductionCalculator);
+
+    // ==================== Property 1: Phép chia long ====================
+
+    /**
+     * Property 1.1: divide làm tròn giống BigDecimal.divide(scale 0)
+     */
+    @Property(tries = 500)
+    void divide_shouldMatchBigDecimal(
+            @ForAll @LongRange(min = -1_000_000_000_000L, max = 1_000_000_000_000L) long dividend,
+            @ForAll @LongRange(min = -100_000_000L, max = 100_000_000L) long divisor,
+            @ForAll("supportedModes") RoundingMode mode) {
+
+        Assume.that(divisor != 0);
+
+        BigDecimal expected = BigDecimal.valueOf(dividend).divide(BigDecimal.valueOf(divisor), 0, mode);
+
+        assertThat(FixedPointMoney.divide(dividend, divisor, mode)).isEqualTo(expected.longValueExact());
+    }
+
+    /**
+     * Property 1.2: divide đúng tại điểm giữa (x.5) với số âm và số dương
+     */
+    @Property(tries = 200)
+    void divide_shouldMatchBigDecimalAtHalfway(
+            @ForAll @LongRange(min = -1_000_000L, max = 1_000_000L) long whole,
+            @ForAll("supportedModes") RoundingMode mode) {
+
+        long dividend = whole * 10 + (whole < 0 ? -5 : 5);
+        BigDecimal expected = BigDecimal.valueOf(dividend).divide(BigDecimal.TEN, 0, mode);
+
+        assertThat(FixedPointMoney.divide(dividend, 10, mode)).isEqualTo(expected.longValueExact());
+    }
+
+    // ==================== Property 2: Helper nhân/chia ====================
+
+    /**
+     * Property 2.1: multiplyToWhole = value × count làm tròn scale 0
+     */
+    @Property(tries = 500)
+    void multiplyToWhole_shouldMatchBigDecimal(
+            @ForAll("amounts") BigDecimal value,
+            @ForAll @IntRange(min = -100_000, max = 100_000) int count) {
+
+        BigDecimal expected = value.multiply(BigDecimal.valueOf(count)).setScale(0, RoundingMode.HALF_UP);
+
+        assertThat(FixedPointMoney.multiplyToWhole(value, count, RoundingMode.HALF_UP)).isEqualTo(expected);
+    }
+
+    /**
+     * Property 2.2: multiplyDivideToWhole = value × count / divisor làm tròn scale 0
+     */
+    @Property(tries = 500)
+    void multiplyDivideToWhole_shouldMatchBigDecimal(
+            @ForAll("amounts") BigDecimal value,
+            @ForAll @IntRange(min = 0, max = 31) int count,
+            @ForAll @IntRange(min = 1, max = 31) int divisor) {
+
+        BigDecimal expected = value.multiply(BigDecimal.valueOf(count))
+                .divide(BigDecimal.valueOf(divisor), 0, RoundingMode.HALF_UP);
+
+        assertThat(FixedPointMoney.multiplyDivideToWhole(value, count, divisor, RoundingMode.HALF_UP))
+                .isEqualTo(expected);
+    }
+
+    /**
+     * Property 2.3: multiplyDivideToWhole hai BigDecimal = a × b / divisor làm tròn scale 0
+     */
+    @Property(tries = 500)
+    void multiplyDivideDecimalToWhole_shouldMatchBigDecimal(
+            @ForAll("amounts") BigDecimal a,
+            @ForAll("percentages") BigDecimal b) {
+
+        BigDecimal expected = a.multiply(b).divide(BigDecimal.valueOf(100), 0, RoundingMode.HALF_UP);
+
+        assertThat(FixedPointMoney.multiplyDivideToWhole(a, b, 100, RoundingMode.HALF_UP)).isEqualTo(expected);
+    }
+
+    /**
+     * Property 2.4: Sum = chuỗi BigDecimal.add bắt đầu từ ZERO (giữ nguyên scale)
+     */
+    @Property(tries = 300)
+    void sum_shouldMatchBigDecimal(@ForAll("amountLists") List<BigDecimal> values) {
+        BigDecimal expected = BigDecimal.ZERO;
+        FixedPointMoney.Sum sum = FixedPointMoney.Sum.zero();
+        for (BigDecimal value : values) {
+            expected = expected.add(value);
+            sum.add(value);
+        }
+
+        assertThat(sum.toBigDecimal()).isEqualTo(expected);
+    }
+
+    /**
+     * Property 2.5: Sum.of giữ scale của giá trị đầu, subtractToWhole = subtract rồi làm tròn scale 0
+     */
+    @Property(tries = 300)
+    void sumSubtractToWhole_shouldMatchBigDecimal(
+            @ForAll("amounts") BigDecimal initial,
+            @ForAll("amountLists") List<BigDecimal> values,
+            @ForAll("amounts") BigDecimal subtrahend,
+            @ForAll("supportedModes") RoundingMode mode) {
+
+        BigDecimal expected = initial;
+        FixedPointMoney.Sum sum = FixedPointMoney.Sum.of(initial);
+        for (BigDecimal value : values) {
+            expected = expected.add(value);
+            sum.add(value);
+        }
+
+        assertThat(sum.toBigDecimal()).isEqualTo(expected);
+        assertThat(sum.subtractToWhole(FixedPointMoney.Sum.of(subtrahend), mode))
+                .isEqualTo(expected.subtract(subtrahend).setScale(0, mode));
+    }
+
+    // ==================== Property 3: Calculator ====================
+
+    /**
+     * Property 3.1: Tiền tăng ca giống công thức BigDecimal (rate/phút scale 4, làm tròn từng loại)
+     */
+    @Property(tries = 300)
+    void calculateOvertime_shouldMatchBigDecimalFormula(
+            @ForAll("amounts") BigDecimal hourlyRate,
+            @ForAll("multipliers") BigDecimal regularRate,
+            @ForAll("multipliers") BigDecimal nightRate,
+            @ForAll("multipliers") BigDecimal holidayRate,
+            @ForAll("multipliers") BigDecimal weekendRate,
+            @ForAll @IntRange(min = 0, max = 240) int regularMinutes,
+            @ForAll @IntRange(min = 0, max = 240) int nightMinutes,
+            @ForAll boolean holiday,
+            @ForAll boolean weekend) {
+
+        OvertimeConfig config = OvertimeConfig.builder()
+                .overtimeEnabled(true)
+                .regularOvertimeRate(regularRate)
+                .nightOvertimeRate(nightRate)
+                .holidayOvertimeRate(holidayRate)
+                .weekendOvertimeRate(weekendRate)
+                .maxOvertimeHoursPerDay(null)
+                .maxOvertimeHoursPerMonth(null)
+                .build();
+        List<DailyOvertimeDetail> details = List.of(DailyOvertimeDetail.builder()
+                .regularMinutes(regularMinutes)
+                .nightMinutes(nightMinutes)
+                .isHoliday(holiday)
+                .isWeekend(weekend)
+                .build());
+
+        OvertimeResult result = overtimeCalculator.calculateOvertime(details, config, hourlyRate);
+
+        BigDecimal minuteRate = hourlyRate.divide(BigDecimal.valueOf(60), 4, RoundingMode.HALF_UP);
+        BigDecimal regular = referencePay(result.getRegularOvertimeMinutes(), minuteRate, regularRate);
+        BigDecimal night = referencePay(result.getNightOvertimeMinutes(), minuteRate, nightRate);
+        BigDecimal holidayPay = referencePay(result.getHolidayOvertimeMinutes(), minuteRate, holidayRate);
+        BigDecimal weekendPay = referencePay(result.getWeekendOvertimeMinutes(), minuteRate, weekendRate);
+
+        assertThat(result.getRegularOvertimeAmount()).isEqualTo(regular);
+        assertThat(result.getNightOvertimeAmount()).isEqualTo(night);
+        assertThat(result.getHolidayOvertimeAmount()).isEqualTo(holidayPay);
+        assertThat(result.getWeekendOvertimeAmount()).isEqualTo(weekendPay);
+        assertThat(result.getTotalOvertimeAmount())
+                .isEqualTo(regular.add(night).add(holidayPay).add(weekendPay));
+    }
+
+    /**
+     * Property 3.2: Lương cơ bản các loại giống công thức BigDecimal
+     */
+    @Property(tries = 300)
+    void calculateBaseSalary_shouldMatchBigDecimalFormula(
+            @ForAll("amounts") BigDecimal rate,
+            @ForAll SalaryType salaryType,
+            @ForAll @IntRange(min = 0, max = 31) int workingDays,
+            @ForAll @IntRange(min = 0, max = 300) int workingHours,
+            @ForAll @IntRange(min = 0, max = 62) int shifts,
+            @ForAll @IntRange(min = 1, max = 31) int standardDays) {
+
+        EmployeeSalaryInfo salaryInfo = EmployeeSalaryInfo.builder()
+                .salaryType(salaryType)
+                .monthlySalary(rate)
+                .dailyRate(rate)
+                .hourlyRate(rate)
+                .shiftRate(rate)
+                .build();
+        AttendanceSummary attendance = AttendanceSummary.builder()
+                .workingDays(workingDays)
+                .workingHours(workingHours)
+                .numberOfShifts(shifts)
+                .build();
+        PayrollConfig config = PayrollConfig.builder().standardWorkingDaysPerMonth(standardDays).build();
+
+        BigDecimal expected = switch (salaryType) {
+            case MONTHLY -> rate.multiply(BigDecimal.valueOf(workingDays))
+                    .divide(BigDecimal.valueOf(standardDays), 0, RoundingMode.HALF_UP);
+            case DAILY -> rate.multiply(BigDecimal.valueOf(workingDays)).setScale(0, RoundingMode.HALF_UP);
+            case HOURLY -> rate.multiply(BigDecimal.valueOf(workingHours)).setScale(0, RoundingMode.HALF_UP);
+            case SHIFT_BASED -> rate.multiply(BigDecimal.valueOf(shifts)).setScale(0, RoundingMode.HALF_UP);
+        };
+
+        assertThat(payrollCalculator.calculateBaseSalary(salaryInfo, attendance, config)).isEqualTo(expected);
+    }
+
+    /**
+     * Property 3.3: Khấu trừ giờ nghỉ không lương giống công thức BigDecimal
+     */
+    @Property(tries = 300)
+    void calculateBreakDeduction_shouldMatchBigDecimalFormula(
+            @ForAll @IntRange(min = 1, max = 10_000) int breakMinutes,
+            @ForAll("amounts") BigDecimal hourlyRate) {
+
+        Assume.that(hourlyRate.signum() > 0);
+
+        BreakConfig breakConfig = BreakConfig.builder().breakType(BreakType.UNPAID).build();
+        BigDecimal expected = BigDecimal.valueOf(breakMinutes)
+                .divide(BigDecimal.valueOf(60), 4, RoundingMode.HALF_UP)
+                .multiply(hourlyRate)
+                .setScale(0, RoundingMode.HALF_UP);
+
+        assertThat(payrollCalculator.calculateBreakDeduction(breakMinutes, hourlyRate, breakConfig))
+                .isEqualTo(expected);
+    }
+
+    /**
+     * Property 3.4: Gross/net giống công thức BigDecimal (net làm tròn theo cấu hình)
+     */
+    @Property(tries = 300)
+    void calculateGrossAndNet_shouldMatchBigDecimalFormula(
+            @ForAll("amounts") BigDecimal baseSalary,
+            @ForAll("amounts") BigDecimal overtimePay,
+            @ForAll("amounts") BigDecimal allowances,
+            @ForAll("amounts") BigDecimal deductions,
+            @ForAll RoundingDirection rounding) {
+
+        PayrollConfig config = PayrollConfig.builder().salaryRounding(rounding).build();
+        BigDecimal expectedGross = baseSalary.add(overtimePay).add(allowances);
+        RoundingMode mode = switch (rounding) {
+            case UP -> RoundingMode.CEILING;
+            case DOWN -> RoundingMode.FLOOR;
+            case NEAREST -> RoundingMode.HALF_UP;
+        };
+        BigDecimal expectedNet = expectedGross.subtract(deductions).setScale(0, mode);
+
+        BigDecimal gross = payrollCalculator.calculateGrossSalary(baseSalary, overtimePay, allowances);
+
+        assertThat(gross).isEqualTo(expectedGross);
+        assertThat(payrollCalculator.calculateNetSalary(gross, deductions, config)).isEqualTo(expectedNet);
+    }
+
+    /**
+     * Property 3.5: Tổng phụ cấp giữ nguyên giá trị và scale như cộng BigDecimal
+     */
+    @Property(tries = 200)
+    void calculateAllowances_shouldMatchBigDecimalSum(
+            @ForAll("amountLists") List<BigDecimal> amounts,
+            @ForAll boolean taxable) {
+
+        List<AllowanceRule> rules = new ArrayList<>();
+        BigDecimal expectedTotal = BigDecimal.ZERO;
+        for (BigDecimal amount : amounts) {
+            rules.add(AllowanceRule.builder()
+                    .code("A" + rules.size())
+                    .type(AllowanceType.FIXED)
+                    .amount(amount)
+                    .taxable(taxable)
+                    .build());
+            expectedTotal = expectedTotal.add(amount);
+        }
+
+        AllowanceResult result = allowanceCalculator.calculateAllowances(
+                AllowanceConfig.builder().allowances(rules).build(), AttendanceSummary.builder().build());
+
+        assertThat(result.getTotalAllowances()).isEqualTo(expectedTotal);
+        assertThat(taxable ? result.getTaxableAllowances() : result.getNonTaxableAllowances())
+                .isEqualTo(expectedTotal);
+    }
+
+    /**
+     * Property 3.6: Phạt đi muộn/về sớm và khấu trừ phần trăm giống công thức BigDecimal
+     */
+    @Property(tries = 300)
+    void calculateDeductions_shouldMatchBigDecimalFormula(
+            @ForAll("amounts") BigDecimal penaltyPerMinute,
+            @ForAll @IntRange(min = 0, max = 3_000) int lateMinutes,
+            @ForAll @IntRange(min = 0, max = 3_000) int earlyMinutes,
+            @ForAll("amounts") BigDecimal grossSalary,
+            @ForAll("percentages") BigDecimal percentage,
+            @ForAll("amounts") BigDecimal fixedAmount) {
+
+        DeductionConfig config = DeductionConfig.builder()
+                .enableLatePenalty(true)
+                .enableEarlyLeavePenalty(true)
+                .latePenaltyPerMinute(penaltyPerMinute)
+                .earlyLeavePenaltyPerMinute(penaltyPerMinute)
+                .deductions(List.of(
+                        DeductionRule.builder().code("P").type(DeductionType.PERCENTAGE)
+                                .percentage(percentage).order(1).build(),
+                        DeductionRule.builder().code("F").type(DeductionType.FIXED)
+                                .amount(fixedAmount).order(2).build()))
+                .build();
+        AttendanceSummary attendance = AttendanceSummary.builder()
+                .totalLateMinutes(lateMinutes)
+                .totalEarlyLeaveMinutes(earlyMinutes)
+                .build();
+
+        DeductionResult result = deductionCalculator.calculateDeductions(config, attendance, grossSalary);
+
+        BigDecimal late = penaltyPerMinute.multiply(BigDecimal.valueOf(lateMinutes))
+                .setScale(0, RoundingMode.HALF_UP);
+        BigDecimal early = penaltyPerMinute.multiply(BigDecimal.valueOf(earlyMinutes))
+                .setScale(0, RoundingMode.HALF_UP);
+        BigDecimal percent = grossSalary.multiply(percentage)
+                .divide(BigDecimal.valueOf(100), 0, RoundingMode.HALF_UP);
+        BigDecimal expectedTotal = BigDecimal.ZERO;
+        for (BigDecimal amount : List.of(late, early, percent, fixedAmount)) {
+            if (amount.signum() > 0) {
+                expectedTotal = expectedTotal.add(amount);
+            }
+        }
+
+        assertThat(result.getLatePenalty()).isEqualTo(late);
+        assertThat(result.getEarlyLeavePenalty()).isEqualTo(early);
+        assertThat(result.getTotalDeductions()).isEqualTo(expectedTotal);
+        assertThat(payrollCalculator.calculatePenalties(config, attendance)).isEqualTo(late.add(early));
+    }
+
+    // ==================== Helpers ====================
+
+    private BigDecimal referencePay(int minutes, BigDecimal minuteRate, BigDecimal multiplier) {
+        if (minutes <= 0) {
+            return BigDecimal.ZERO.setScale(0, RoundingMode.HALF_UP);
+        }
+        return minuteRate.multiply(BigDecimal.valueOf(minutes)).multiply(multiplier)
+                .setScale(0, RoundingMode.HALF_UP);
+    }
+
+    // ==================== Arbitraries ====================
+
+    @Provide
+    Arbitrary<RoundingMode> supportedModes() {
+        return Arbitraries.of(RoundingMode.HALF_UP, RoundingMode.UP, RoundingMode.DOWN,
+                RoundingMode.CEILING, RoundingMode.FLOOR);
+    }
+
+    /**
+     * Số tiền: chủ yếu scale 0..4 (fast path), kèm scale 5..6, số rất lớn và
+     * scale âm để kiểm tra fallback BigDecimal
+     */
+    @Provide
+    Arbitrary<BigDecimal> amounts() {
+        Arbitrary<BigDecimal> representable = Combinators.combine(
+                Arbitraries.longs().between(-100_000_000_000L, 100_000_000_000L),
+                Arbitraries.integers().between(0, 4))
+                .as(BigDecimal::valueOf);
+        Arbitrary<BigDecimal> fineScale = Combinators.combine(
+                Arbitraries.longs().between(-10_000_000_000L, 10_000_000_000L),
+                Arbitraries.integers().between(5, 6))
+                .as(BigDecimal::valueOf);
+        Arbitrary<BigDecimal> huge = Arbitraries.longs().between(Long.MAX_VALUE / 4, Long.MAX_VALUE)
+                .map(BigDecimal::valueOf);
+        Arbitrary<BigDecimal> negativeScale = Arbitraries.longs().between(1, 1_000_000)
+                .map(v -> BigDecimal.valueOf(v, -2));
+        return Arbitraries.frequencyOf(
+                Tuple.of(8, representable),
+                Tuple.of(1, fineScale),
+                Tuple.of(1, huge),
+                Tuple.of(1, negativeScale));
+    }
+
+    @Provide
+    Arbitrary<BigDecimal> multipliers() {
+        return Combinators.combine(
+                Arbitraries.longs().between(100, 300),
+                Arbitraries.integers().between(2, 4))
+                .as((unscaled, scale) -> BigDecimal.valueOf(unscaled * (long) Math.pow(10, scale - 2), scale));
+    }
+
+    @Provide
+    Arbitrary<BigDecimal> percentages() {
+        return Combinators.combine(
+                Arbitraries.longs().between(0, 1_000_000),
+                Arbitraries.integers().between(0, 5))
+                .as(BigDecimal::valueOf);
+    }
+
+    @Provide
+    Arbitrary<List<BigDecimal>> amountLists() {
+        return amounts().list().ofMaxSize(20);
+    }
+}
@@ -0,0 +1,135 @@
+package com.tamabee.api_hr.service;
+
+import com.tamabee.api_hr.service.company.cache.GeoFenceIndex;
+import net.jqwik.api.*;
+import net.jqwik.api.constraints.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.LongFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Property-based tests cho chỉ mục geo-fence.
+ *
+ * Property: Tra cứu qua grid tương đương duyệt toàn bộ địa điểm
+ * - For any tập vùng tròn/đa giác (kể cả vùng lớn nằm ngoài grid) và điểm bất kỳ,
+ * findSiteId SHALL trả về một địa điểm chứa điểm khi và chỉ khi tồn tại địa điểm như vậy
+ */
+class GeoFenceIndexPropertyTest {
+
+    private static final double BASE_LAT = 35.68;
+    private static final double BASE_LNG = 139.76;
+
+    record Site(long id, double lat, double lng, double radius, double[] lats, double[] lngs) {
+
+        boolean isCircle() {
+            return lats == null;
+        }
+
+        boolean contains(double pointLat, double pointLng) {
+            if (isCircle()) {
+                return GeoFenceIndex.distanceMeters(lat, lng, pointLat, pointLng) <= radius;
+            }
+            boolean inside = false;
+            for (int i = 0, j = lats.length - 1; i < lats.length; j = i++) {
+                double crossLng = lngs[i] + (pointLat - lats[i]) * (lngs[j] - lngs[i]) / (lats[j] - lats[i]);
+                if ((lats[i] > pointLat) != (lats[j] > pointLat) && pointLng < crossLng) {
+                    inside = !inside;
+                }
+            }
+            return inside;
+        }
+    }
+
+    @Property(tries = 200)
+    void findSiteId_shouldMatchBruteForce(
+            @ForAll("sites") List<Site> sites,
+            @ForAll @Size(min = 1, max = 50) List<@DoubleRange(min = -0.3, max = 0.3) @Scale(6) Double> latOffsets,
+            @ForAll @DoubleRange(min = -0.3, max = 0.3) @Scale(6) double lngOffset) {
+
+        GeoFenceIndex.Builder builder = GeoFenceIndex.builder();
+        for (Site site : sites) {
+            if (site.isCircle()) {
+                builder.addCircle(site.id(), site.lat(), site.lng(), site.radius());
+            } else {
+                builder.addPolygon(site.id(), site.lats(), site.lngs());
+            }
+        }
+        GeoFenceIndex index = builder.build();
+        assertThat(index.size()).isEqualTo(sites.size());
+
+        for (double latOffset : latOffsets) {
+            double lat = BASE_LAT + latOffset;
+            double lng = BASE_LNG + lngOffset + latOffset / 3;
+            boolean expected = sites.stream().anyMatch(site -> site.contains(lat, lng));
+            Long found = index.findSiteId(lat, lng);
+
+            assertThat(found != null).isEqualTo(expected);
+            if (found != null) {
+                Site site = sites.stream().filter(s -> s.id() == found).findFirst().orElseThrow();
+                assertThat(site.contains(lat, lng)).isTrue();
+            }
+        }
+    }
+
+    @Example
+    void emptyIndex_shouldContainNothing() {
+        GeoFenceIndex index = GeoFenceIndex.builder().build();
+        assertThat(index.isEmpty()).isTrue();
+        assertThat(index.findSiteId(BASE_LAT, BASE_LNG)).isNull();
+    }
+
+    @Example
+    void sitesWithoutActiveFence_shouldStayConfigured() {
+        GeoFenceIndex unconfigured = GeoFenceIndex.builder().build();
+        assertThat(unconfigured.hasSitesConfigured()).isFalse();
+
+        GeoFenceIndex noneActive = GeoFenceIndex.builder().sitesConfigured(true).build();
+        assertThat(noneActive.isEmpty()).isTrue();
+        assertThat(noneActive.hasSitesConfigured()).isTrue();
+        assertThat(noneActive.findSiteId(BASE_LAT, BASE_LNG)).isNull();
+
+        GeoFenceIndex active = GeoFenceIndex.builder().addCircle(1L, BASE_LAT, BASE_LNG, 100).build();
+        assertThat(active.hasSitesConfigured()).isTrue();
+    }
+
+    @Provide
+    Arbitrary<List<Site>> sites() {
+        Arbitrary<LongFunction<Site>> circle = Combinators.combine(
+                Arbitraries.doubles().between(-0.2, 0.2).ofScale(6),
+                Arbitraries.doubles().between(-0.2, 0.2).ofScale(6),
+                Arbitraries.frequencyOf(
+                        Tuple.of(8, Arbitraries.doubles().between(20, 3_000).ofScale(1)),
+                        // Vùng lớn phủ quá nhiều ô → nằm ngoài grid
+                        Tuple.of(1, Arbitraries.doubles().between(30_000, 60_000).ofScale(1))))
+                .as((dLat, dLng, radius) -> id -> new Site(id, BASE_LAT + dLat, BASE_LNG + dLng, radius, null, null));
+
+        Arbitrary<LongFunction<Site>> polygon = Combinators.combine(
+                Arbitraries.doubles().between(-0.2, 0.2).ofScale(6),
+                Arbitraries.doubles().between(-0.2, 0.2).ofScale(6),
+                Arbitraries.doubles().between(0.0005, 0.05).ofScale(6).list().ofMinSize(3).ofMaxSize(10))
+                .as((dLat, dLng, radii) -> {
+                    // Đa giác hình sao quanh tâm: đỉnh theo góc tăng dần nên không tự cắt
+                    double[] lats = new double[radii.size()];
+                    double[] lngs = new double[radii.size()];
+                    for (int i = 0; i < radii.size(); i++) {
+                        double angle = 2 * Math.PI * i / radii.size();
+                        lats[i] = BASE_LAT + dLat + radii.get(i) * Math.sin(angle);
+                        lngs[i] = BASE_LNG + dLng + radii.get(i) * Math.cos(angle);
+                    }
+                    return id -> new Site(id, 0, 0, 0, lats, lngs);
+                });
+
+        return Arbitraries.oneOf(circle, polygon)
+                .list().ofMaxSize(40)
+                .map(factories -> {
+                    List<Site> result = new ArrayList<>();
+                    for (int i = 0; i < factories.size(); i++) {
+                        result.add(factories.get(i).apply(i + 1));
+                    }
+                    return result;
+                });
+    }
+}
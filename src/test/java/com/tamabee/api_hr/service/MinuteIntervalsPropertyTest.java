@@ -0,0 +1,304 @@
+package com.tamabee.api_hr.service;
+
+import com.tamabee.api_hr.dto.config.BreakConfig;
+import com.tamabee.api_hr.dto.config.OvertimeConfig;
+import com.tamabee.api_hr.dto.result.WorkingHoursResult;
+import com.tamabee.api_hr.entity.attendance.BreakRecordEntity;
+import com.tamabee.api_hr.enums.BreakType;
+import com.tamabee.api_hr.service.calculator.LegalBreakRequirements;
+import com.tamabee.api_hr.service.calculator.LegalOvertimeRequirements;
+import com.tamabee.api_hr.service.calculator.MinuteIntervals;
+import com.tamabee.api_hr.service.calculator.ShiftTimeline;
+import com.tamabee.api_hr.service.calculator.impl.BreakCalculatorImpl;
+import com.tamabee.api_hr.service.calculator.impl.OvertimeCalculatorImpl;
+import com.tamabee.api_hr.service.calculator.impl.WorkingHoursCalculatorImpl;
+import net.jqwik.api.*;
+import net.jqwik.api.constraints.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Property-based tests cho interval engine (MinuteIntervals/ShiftTimeline).
+ *
+ * Property: Interval engine tương đương oracle từng phút
+ * - For any danh sách khoảng, union/intersect/subtract/normalize SHALL cho đúng tập phút
+ * như phép toán trên mảng boolean từng phút
+ * - For any ca (nhiều ngày, tách ca, giải lao chồng/ngoài ca) và khung giờ đêm bất kỳ,
+ * phút làm/giải lao/đêm/tăng ca SHALL bằng kết quả đếm từng phút
+ */
+class MinuteIntervalsPropertyTest {
+
+    private static final LocalDateTime BASE_TIME = LocalDate.of(2025, 11, 1).atStartOfDay();
+    private static final int BASE = MinuteIntervals.toEpochMinute(BASE_TIME);
+
+    // Miền oracle: 4 ngày
+    private static final int DOMAIN = 4 * MinuteIntervals.MINUTES_PER_DAY;
+
+    private final OvertimeCalculatorImpl overtimeCalculator = new OvertimeCalculatorImpl(
+            new LegalOvertimeRequirements());
+    private final WorkingHoursCalculatorImpl workingHoursCalculator = new WorkingHoursCalculatorImpl(
+            new BreakCalculatorImpl(new LegalBreakRequirements()));
+
+    // ==================== Property 1: Phép toán tập hợp ====================
+
+    /**
+     * Property 1.1: normalize giữ nguyên tập phút và cho kết quả sắp xếp, không chồng lấn
+     */
+    @Property(tries = 300)
+    void normalize_shouldPreserveMinutesAndBeCanonical(@ForAll("intervals") List<int[]> raw) {
+        int[] list = toArray(raw);
+        int count = MinuteIntervals.normalize(list, raw.size());
+
+        assertThat(toMask(list, count)).isEqualTo(toMask(raw));
+        for (int i = 0; i < count; i++) {
+            assertThat(list[2 * i + 1]).isGreaterThan(list[2 * i]);
+            if (i > 0) {
+                assertThat(list[2 * i]).isGreaterThan(list[2 * i - 1]);
+            }
+        }
+    }
+
+    /**
+     * Property 1.2: union/intersect/subtract khớp phép toán boolean từng phút
+     */
+    @Property(tries = 300)
+    void setOperations_shouldMatchMinuteOracle(
+            @ForAll("intervals") List<int[]> rawA,
+            @ForAll("intervals") List<int[]> rawB) {
+
+        int[] a = toArray(rawA);
+        int aCount = MinuteIntervals.normalize(a, rawA.size());
+        int[] b = toArray(rawB);
+        int bCount = MinuteIntervals.normalize(b, rawB.size());
+        boolean[] maskA = toMask(rawA);
+        boolean[] maskB = toMask(rawB);
+
+        boolean[] expectedUnion = new boolean[DOMAIN];
+        boolean[] expectedIntersect = new boolean[DOMAIN];
+        boolean[] expectedSubtract = new boolean[DOMAIN];
+        int expectedIntersectLength = 0;
+        for (int m = 0; m < DOMAIN; m++) {
+            expectedUnion[m] = maskA[m] || maskB[m];
+            expectedIntersect[m] = maskA[m] && maskB[m];
+            expectedSubtract[m] = maskA[m] && !maskB[m];
+            if (expectedIntersect[m]) {
+                expectedIntersectLength++;
+            }
+        }
+
+        int[] out = new int[2 * (aCount + bCount)];
+        int n = MinuteIntervals.union(a, aCount, b, bCount, out);
+        assertThat(toMask(out, n)).isEqualTo(expectedUnion);
+
+        n = MinuteIntervals.intersect(a, aCount, b, bCount, out);
+        assertThat(toMask(out, n)).isEqualTo(expectedIntersect);
+        assertThat(MinuteIntervals.intersectionLength(a, aCount, b, bCount)).isEqualTo(expectedIntersectLength);
+
+        n = MinuteIntervals.subtract(a, aCount, b, bCount, out);
+        assertThat(toMask(out, n)).isEqualTo(expectedSubtract);
+    }
+
+    // ==================== Property 2: ShiftTimeline ====================
+
+    /**
+     * Property 2.1: Phút gross/giải lao/làm/đêm/tăng ca khớp oracle cho ca tách, nhiều ngày
+     */
+    @Property(tries = 300)
+    void shiftTimeline_shouldMatchMinuteOracle(
+            @ForAll("shifts") List<int[]> work,
+            @ForAll("intervals") List<int[]> breaks,
+            @ForAll @IntRange(min = 0, max = 95) int nightStartQuarter,
+            @ForAll @IntRange(min = 0, max = 95) int nightEndQuarter,
+            @ForAll @IntRange(min = 0, max = 1200) int threshold) {
+
+        LocalTime nightStart = LocalTime.MIDNIGHT.plusMinutes(nightStartQuarter * 15L);
+        LocalTime nightEnd = LocalTime.MIDNIGHT.plusMinutes(nightEndQuarter * 15L);
+
+        ShiftTimeline timeline = new ShiftTimeline();
+        work.forEach(w -> timeline.addWork(BASE + w[0], BASE + w[1]));
+        breaks.forEach(b -> timeline.addBreak(BASE + b[0], BASE + b[1]));
+        timeline.compute(nightStart, nightEnd, threshold);
+
+        boolean[] workMask = toMask(work);
+        boolean[] breakMask = toMask(breaks);
+        int gross = 0;
+        int breakMinutes = 0;
+        int worked = 0;
+        int night = 0;
+        int nightWorked = 0;
+        int overtime = 0;
+        int nightOvertime = 0;
+        for (int m = 0; m < DOMAIN; m++) {
+            if (!workMask[m]) {
+                continue;
+            }
+            boolean isNight = isNight(m, nightStart, nightEnd);
+            gross++;
+            if (isNight) {
+                night++;
+            }
+            if (breakMask[m]) {
+                breakMinutes++;
+                continue;
+            }
+            worked++;
+            if (isNight) {
+                nightWorked++;
+            }
+            if (worked > threshold) {
+                overtime++;
+                if (isNight) {
+                    nightOvertime++;
+                }
+            }
+        }
+
+        assertThat(timeline.getGrossMinutes()).isEqualTo(gross);
+        assertThat(timeline.getBreakMinutes()).isEqualTo(breakMinutes);
+        assertThat(timeline.getWorkedMinutes()).isEqualTo(worked);
+        assertThat(timeline.getNightMinutes()).isEqualTo(night);
+        assertThat(timeline.getNightWorkedMinutes()).isEqualTo(nightWorked);
+        assertThat(timeline.getOvertimeMinutes()).isEqualTo(overtime);
+        assertThat(timeline.getNightOvertimeMinutes()).isEqualTo(nightOvertime);
+    }
+
+    // ==================== Property 3: Calculator dùng engine ====================
+
+    /**
+     * Property 3.1: OvertimeCalculator.calculateNightMinutes = phút làm (trừ giải lao) trong giờ đêm 22:00-05:00
+     */
+    @Property(tries = 300)
+    void overtimeNightMinutes_shouldMatchMinuteOracle(
+            @ForAll @IntRange(min = 0, max = 1439) int start,
+            @ForAll @IntRange(min = 1, max = 2400) int length,
+            @ForAll("intervals") List<int[]> breaks) {
+
+        LocalDateTime checkIn = BASE_TIME.plusMinutes(start);
+        LocalDateTime checkOut = checkIn.plusMinutes(length);
+        List<BreakRecordEntity> breakRecords = new ArrayList<>();
+        for (int[] b : breaks) {
+            BreakRecordEntity record = new BreakRecordEntity();
+            record.setBreakStart(BASE_TIME.plusMinutes(b[0]));
+            record.setBreakEnd(BASE_TIME.plusMinutes(b[1]));
+            breakRecords.add(record);
+        }
+
+        int actual = overtimeCalculator.calculateNightMinutes(
+                checkIn, checkOut, breakRecords, OvertimeConfig.builder().build());
+
+        boolean[] breakMask = toMask(breaks);
+        LocalTime nightStart = LocalTime.of(22, 0);
+        LocalTime nightEnd = LocalTime.of(5, 0);
+        int expected = 0;
+        for (int m = start; m < start + length; m++) {
+            if (!breakMask[m] && isNight(m, nightStart, nightEnd)) {
+                expected++;
+            }
+        }
+        assertThat(actual).isEqualTo(expected);
+    }
+
+    /**
+     * Property 3.2: Ca qua đêm (checkOut trước checkIn theo giờ) được cộng 1 ngày,
+     * gross và night minutes khớp oracle
+     */
+    @Property(tries = 300)
+    void overnightWorkingHours_shouldMatchMinuteOracle(
+            @ForAll @IntRange(min = 960, max = 1439) int start,
+            @ForAll @IntRange(min = 0, max = 720) int end) {
+
+        LocalDateTime checkIn = BASE_TIME.plusMinutes(start);
+        LocalDateTime checkOut = BASE_TIME.plusMinutes(end);
+        BreakConfig config = BreakConfig.builder().breakType(BreakType.UNPAID).build();
+
+        WorkingHoursResult result = workingHoursCalculator.calculateWorkingHours(
+                checkIn, checkOut, List.of(), config, null);
+
+        int adjustedEnd = end + MinuteIntervals.MINUTES_PER_DAY;
+        int expectedNight = 0;
+        for (int m = start; m < adjustedEnd; m++) {
+            if (isNight(m, LocalTime.of(22, 0), LocalTime.of(5, 0))) {
+                expectedNight++;
+            }
+        }
+        assertThat(result.getGrossWorkingMinutes()).isEqualTo(adjustedEnd - start);
+        assertThat(result.getNightMinutes()).isEqualTo(expectedNight);
+    }
+
+    // ==================== Arbitraries ====================
+
+    /**
+     * 0-5 khoảng ngẫu nhiên trong 3 ngày đầu của miền (có thể rỗng, chồng lấn)
+     */
+    @Provide
+    Arbitrary<List<int[]>> intervals() {
+        Arbitrary<int[]> interval = Combinators.combine(
+                Arbitraries.integers().between(0, 3 * MinuteIntervals.MINUTES_PER_DAY),
+                Arbitraries.integers().between(0, 600))
+                .as((start, length) -> new int[] { start, start + length });
+        return interval.list().ofMinSize(0).ofMaxSize(5);
+    }
+
+    /**
+     * 1-3 đoạn làm việc (ca tách), mỗi đoạn tối đa 26 giờ
+     */
+    @Provide
+    Arbitrary<List<int[]>> shifts() {
+        Arbitrary<int[]> segment = Combinators.combine(
+                Arbitraries.integers().between(0, 2 * MinuteIntervals.MINUTES_PER_DAY),
+                Arbitraries.integers().between(1, 26 * 60))
+                .as((start, length) -> new int[] { start, start + length });
+        return segment.list().ofMinSize(1).ofMaxSize(3);
+    }
+
+    // ==================== Helpers ====================
+
+    /**
+     * Phút m (tính từ BASE) có nằm trong giờ đêm không
+     */
+    private boolean isNight(int m, LocalTime nightStart, LocalTime nightEnd) {
+        LocalTime time = BASE_TIME.plusMinutes(m).toLocalTime();
+        if (nightStart.equals(nightEnd)) {
+            return false;
+        }
+        if (nightStart.isBefore(nightEnd)) {
+            return !time.isBefore(nightStart) && time.isBefore(nightEnd);
+        }
+        return !time.isBefore(nightStart) || time.isBefore(nightEnd);
+    }
+
+    private int[] toArray(List<int[]> intervals) {
+        int[] result = new int[2 * intervals.size()];
+        for (int i = 0; i < intervals.size(); i++) {
+            result[2 * i] = intervals.get(i)[0];
+            result[2 * i + 1] = intervals.get(i)[1];
+        }
+        return result;
+    }
+
+    private boolean[] toMask(List<int[]> intervals) {
+        boolean[] mask = new boolean[DOMAIN];
+        for (int[] interval : intervals) {
+            for (int m = interval[0]; m < interval[1]; m++) {
+                mask[m] = true;
+            }
+        }
+        return mask;
+    }
+
+    private boolean[] toMask(int[] list, int count) {
+        boolean[] mask = new boolean[DOMAIN];
+        for (int i = 0; i < count; i++) {
+            for (int m = list[2 * i]; m < list[2 * i + 1]; m++) {
+                mask[m] = true;
+            }
+        }
+        return mask;
+    }
+}
@@ -0,0 +1,65 @@
+package com.tamabee.api_hr.service;
+
+import com.tamabee.api_hr.enums.PresenceStatus;
+import com.tamabee.api_hr.service.company.cache.PresenceBoard;
+import net.jqwik.api.*;
+import net.jqwik.api.constraints.*;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Property-based tests cho bảng hiện diện.
+ *
+ * Property: Bộ đếm khớp trạng thái từng nhân viên
+ * - For any chuỗi cập nhật trạng thái (kể cả lặp lại và xóa), counts() SHALL bằng số nhân viên
+ * theo từng trạng thái và apply SHALL trả về true khi và chỉ khi trạng thái thay đổi
+ */
+class PresenceBoardPropertyTest {
+
+    record Update(long employeeId, PresenceStatus status, boolean late) {
+    }
+
+    record State(PresenceStatus status, boolean late) {
+    }
+
+    @Property(tries = 200)
+    void counts_shouldMatchPerEmployeeState(@ForAll("updates") @Size(max = 200) List<Update> updates) {
+        PresenceBoard board = new PresenceBoard(LocalDate.now());
+        Map<Long, State> expected = new HashMap<>();
+
+        for (Update update : updates) {
+            State next = update.status() != null ? new State(update.status(), update.late()) : null;
+            State previous = next != null ? expected.put(update.employeeId(), next) : expected.remove(update.employeeId());
+
+            boolean changed = board.apply(update.employeeId(), update.status(), update.late());
+            assertThat(changed).isEqualTo(!Objects.equals(previous, next));
+        }
+
+        PresenceBoard.Counts counts = board.counts();
+        assertThat(counts.checkedIn()).isEqualTo(count(expected, PresenceStatus.CHECKED_IN));
+        assertThat(counts.onBreak()).isEqualTo(count(expected, PresenceStatus.ON_BREAK));
+        assertThat(counts.checkedOut()).isEqualTo(count(expected, PresenceStatus.CHECKED_OUT));
+        assertThat(counts.late()).isEqualTo(expected.values().stream().filter(State::late).count());
+        assertThat(board.size()).isEqualTo(expected.size());
+    }
+
+    @Provide
+    Arbitrary<List<Update>> updates() {
+        return Combinators.combine(
+                Arbitraries.longs().between(1, 20),
+                Arbitraries.of(PresenceStatus.class).injectNull(0.15),
+                Arbitraries.of(true, false))
+                .as(Update::new)
+                .list();
+    }
+
+    private static long count(Map<Long, State> states, PresenceStatus status) {
+        return states.values().stream().filter(state -> state.status() == status).count();
+    }
+}
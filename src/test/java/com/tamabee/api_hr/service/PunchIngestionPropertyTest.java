@@ -0,0 +1,538 @@
+package com.tamabee.api_hr.service;
+
+import com.tamabee.api_hr.dto.config.AttendanceConfig;
+import com.tamabee.api_hr.dto.config.BreakConfig;
+import com.tamabee.api_hr.dto.request.attendance.BatchPunchRequest;
+import com.tamabee.api_hr.dto.request.attendance.PunchEventRequest;
+import com.tamabee.api_hr.dto.response.attendance.PunchIngestionResult;
+import com.tamabee.api_hr.entity.attendance.AttendanceRecordEntity;
+import com.tamabee.api_hr.entity.attendance.BreakRecordEntity;
+import com.tamabee.api_hr.entity.user.UserEntity;
+import com.tamabee.api_hr.enums.AttendanceStatus;
+import com.tamabee.api_hr.enums.ErrorCode;
+import com.tamabee.api_hr.enums.PunchType;
+import com.tamabee.api_hr.repository.user.UserRepository;
+import com.tamabee.api_hr.service.calculator.interfaces.IAttendanceRecordCalculator;
+import com.tamabee.api_hr.service.calculator.interfaces.ITimeRoundingCalculator;
+import com.tamabee.api_hr.service.company.impl.PunchIngestionServiceImpl;
+import com.tamabee.api_hr.service.company.interfaces.IAttendanceAggregateService;
+import com.tamabee.api_hr.service.company.interfaces.IAttendanceService;
+import com.tamabee.api_hr.service.company.interfaces.ICompanySettingsService;
+import com.tamabee.api_hr.service.company.interfaces.IPresenceService;
+import com.tamabee.api_hr.service.company.interfaces.IWorkScheduleService;
+import net.jqwik.api.*;
+import net.jqwik.api.constraints.*;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.reflect.Proxy;
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Property-based tests cho nhập punch hàng loạt.
+ *
+ * Property: Punch được áp dụng đúng một lần, theo thứ tự thời gian, lỗi không làm hỏng cả batch
+ * - For any batch gửi lại (cùng khóa idempotency), punch SHALL chỉ được áp dụng ở lần đầu
+ * - For any thứ tự gửi, punch của một nhân viên SHALL được áp dụng theo thời điểm punch
+ * - Punch không hợp lệ SHALL bị từ chối riêng lẻ, các punch còn lại vẫn được áp dụng
+ * - Check-in trực tiếp tạo bản ghi cùng ngày trong lúc batch đang xử lý SHALL không làm hỏng batch:
+ * check-in của batch bị từ chối, các punch còn lại áp dụng lên bản ghi đã có
+ */
+class PunchIngestionPropertyTest {
+
+    private static final LocalDate WORK_DATE = LocalDate.of(2025, 3, 10);
+
+    /**
+     * Property 1: gửi lại batch không áp dụng lần hai, khóa trùng trong cùng batch tính là trùng
+     */
+    @Property(tries = 50)
+    void replayedPunches_shouldBeAppliedOnce(
+            @ForAll @Size(min = 1, max = 15) Set<@LongRange(min = 1, max = 200) Long> employeeIds,
+            @ForAll @IntRange(min = 0, max = 10) int duplicates) {
+
+        FakeTenantDatabase database = new FakeTenantDatabase();
+        PunchIngestionServiceImpl service = createService(database, Set.of());
+
+        List<PunchEventRequest> events = new ArrayList<>();
+        employeeIds.forEach(employeeId -> events.addAll(fullDay(employeeId, 30)));
+        int unique = events.size();
+        for (int i = 0; i < duplicates; i++) {
+            events.add(events.get(i % unique));
+        }
+
+        PunchIngestionResult first = service.ingest(batch(events));
+        assertThat(first.getTotalReceived()).isEqualTo(events.size());
+        assertThat(first.getAppliedCount()).isEqualTo(unique);
+        assertThat(first.getDuplicateCount()).isEqualTo(duplicates);
+        assertThat(first.getRejectedCount()).isZero();
+
+        int records = database.records.size();
+        int breaks = database.breaks.size();
+        PunchIngestionResult replay = service.ingest(batch(events));
+        assertThat(replay.getAppliedCount()).isZero();
+        assertThat(replay.getDuplicateCount()).isEqualTo(events.size());
+        assertThat(database.records).hasSize(records);
+        assertThat(database.breaks).hasSize(breaks);
+    }
+
+    /**
+     * Property 2: thứ tự gửi không ảnh hưởng kết quả, punch được áp dụng theo thời điểm
+     */
+    @Property(tries = 100)
+    void shuffledPunches_shouldApplyInTimeOrder(
+            @ForAll @Size(min = 1, max = 10) Set<@LongRange(min = 1, max = 200) Long> employeeIds,
+            @ForAll @IntRange(min = 1, max = 120) int breakMinutes,
+            @ForAll Random random) {
+
+        FakeTenantDatabase database = new FakeTenantDatabase();
+        PunchIngestionServiceImpl service = createService(database, Set.of());
+
+        List<PunchEventRequest> events = new ArrayList<>();
+        employeeIds.forEach(employeeId -> events.addAll(fullDay(employeeId, breakMinutes)));
+        Collections.shuffle(events, random);
+
+        PunchIngestionResult result = service.ingest(batch(events));
+        assertThat(result.getRejectedCount()).isZero();
+        assertThat(result.getAppliedCount()).isEqualTo(events.size());
+        assertThat(result.getAffectedRecordCount()).isEqualTo(employeeIds.size());
+
+        for (Long employeeId : employeeIds) {
+            AttendanceRecordEntity record = database.record(employeeId, WORK_DATE);
+            assertThat(record.getOriginalCheckIn()).isEqualTo(WORK_DATE.atTime(9, 0));
+            assertThat(record.getOriginalCheckOut()).isEqualTo(WORK_DATE.atTime(18, 0));
+
+            List<BreakRecordEntity> breaks = database.breaksOf(record.getId());
+            assertThat(breaks).hasSize(1);
+            assertThat(breaks.get(0).getBreakStart()).isEqualTo(WORK_DATE.atTime(12, 0));
+            assertThat(breaks.get(0).getBreakEnd()).isEqualTo(WORK_DATE.atTime(12, 0).plusMinutes(breakMinutes));
+            assertThat(breaks.get(0).getActualBreakMinutes()).isEqualTo(breakMinutes);
+        }
+    }
+
+    /**
+     * Property 3: punch không hợp lệ bị từ chối với mã lỗi riêng, punch hợp lệ vẫn được ghi
+     */
+    @Property(tries = 50)
+    void invalidPunches_shouldBeRejectedIndividually(
+            @ForAll @Size(min = 1, max = 10) Set<@LongRange(min = 1, max = 200) Long> employeeIds,
+            @ForAll @LongRange(min = 1001, max = 1100) long inactiveEmployeeId,
+            @ForAll @LongRange(min = 2001, max = 2100) long notCheckedInEmployeeId,
+            @ForAll Random random) {
+
+        FakeTenantDatabase database = new FakeTenantDatabase();
+        PunchIngestionServiceImpl service = createService(database, Set.of(inactiveEmployeeId));
+
+        List<PunchEventRequest> events = new ArrayList<>();
+        employeeIds.forEach(employeeId -> events.addAll(fullDay(employeeId, 30)));
+        PunchEventRequest inactive = punch(inactiveEmployeeId, PunchType.CHECK_IN, WORK_DATE.atTime(9, 0));
+        PunchEventRequest notCheckedIn = punch(notCheckedInEmployeeId, PunchType.CHECK_OUT, WORK_DATE.atTime(18, 0));
+        PunchEventRequest future = punch(employeeIds.iterator().next(), PunchType.CHECK_IN,
+                LocalDateTime.now().plusDays(1));
+        events.addAll(List.of(inactive, notCheckedIn, future));
+        Collections.shuffle(events, random);
+
+        PunchIngestionResult result = service.ingest(batch(events));
+        assertThat(result.getAppliedCount()).isEqualTo(employeeIds.size() * 4);
+        assertThat(result.getRejectedCount()).isEqualTo(3);
+
+        Map<String, String> errors = new HashMap<>();
+        result.getRejectedPunches().forEach(rejected -> errors.put(rejected.getIdempotencyKey(), rejected.getErrorCode()));
+        assertThat(errors).containsEntry(inactive.getIdempotencyKey(), ErrorCode.USER_NOT_FOUND.getCode());
+        assertThat(errors).containsEntry(notCheckedIn.getIdempotencyKey(), ErrorCode.NOT_CHECKED_IN.getCode());
+        assertThat(errors).containsEntry(future.getIdempotencyKey(), ErrorCode.INVALID_ATTENDANCE_TIME.getCode());
+
+        for (Long employeeId : employeeIds) {
+            assertThat(database.record(employeeId, WORK_DATE).getOriginalCheckOut()).isNotNull();
+        }
+        assertThat(database.outcomes.get(inactive.getIdempotencyKey())).isEqualTo(ErrorCode.USER_NOT_FOUND.getCode());
+    }
+
+    /**
+     * Property 4: check-in trực tiếp tạo bản ghi trong lúc batch chạy, punch còn lại áp dụng lên bản ghi đó
+     */
+    @Property(tries = 50)
+    void concurrentCheckIn_shouldMergeIntoExistingRecord(
+            @ForAll @Size(min = 1, max = 10) Set<@LongRange(min = 1, max = 200) Long> employeeIds,
+            @ForAll @Size(min = 1, max = 10) Set<@LongRange(min = 1, max = 200) Long> racingIds) {
+
+        FakeTenantDatabase database = new FakeTenantDatabase();
+        PunchIngestionServiceImpl service = createService(database, Set.of());
+        Set<Long> allIds = new TreeSet<>(employeeIds);
+        allIds.addAll(racingIds);
+
+        // Bản ghi của check-in trực tiếp chỉ xuất hiện khi batch ghi bản ghi mới
+        Map<Long, Long> racingRecordIds = new HashMap<>();
+        for (Long employeeId : racingIds) {
+            AttendanceRecordEntity racing = new AttendanceRecordEntity();
+            racing.setEmployeeId(employeeId);
+            racing.setWorkDate(WORK_DATE);
+            racing.setOriginalCheckIn(WORK_DATE.atTime(8, 55));
+            racing.setRoundedCheckIn(WORK_DATE.atTime(8, 55));
+            racing.setStatus(AttendanceStatus.PRESENT);
+            database.racing.add(racing);
+        }
+
+        List<PunchEventRequest> events = new ArrayList<>();
+        allIds.forEach(employeeId -> events.addAll(fullDay(employeeId, 30)));
+
+        PunchIngestionResult result = service.ingest(batch(events));
+        assertThat(result.getRejectedCount()).isEqualTo(racingIds.size());
+        assertThat(result.getRejectedPunches()).allMatch(rejected ->
+                rejected.getPunchType() == PunchType.CHECK_IN
+                        && rejected.getErrorCode().equals(ErrorCode.ALREADY_CHECKED_IN.getCode())
+                        && racingIds.contains(rejected.getEmployeeId()));
+        assertThat(database.records).hasSize(allIds.size());
+        database.racing.forEach(racing -> racingRecordIds.put(racing.getEmployeeId(), racing.getId()));
+
+        for (Long employeeId : allIds) {
+            AttendanceRecordEntity record = database.record(employeeId, WORK_DATE);
+            LocalTime checkIn = racingIds.contains(employeeId) ? LocalTime.of(8, 55) : LocalTime.of(9, 0);
+            assertThat(record.getOriginalCheckIn()).isEqualTo(WORK_DATE.atTime(checkIn));
+            assertThat(record.getOriginalCheckOut()).isEqualTo(WORK_DATE.atTime(18, 0));
+            assertThat(database.breaksOf(record.getId())).hasSize(1);
+            if (racingIds.contains(employeeId)) {
+                assertThat(record.getId()).isEqualTo(racingRecordIds.get(employeeId));
+            }
+        }
+    }
+
+    // ==================== Helpers ====================
+
+    private static List<PunchEventRequest> fullDay(Long employeeId, int breakMinutes) {
+        LocalDateTime breakStart = WORK_DATE.atTime(12, 0);
+        return List.of(
+                punch(employeeId, PunchType.CHECK_IN, WORK_DATE.atTime(9, 0)),
+                punch(employeeId, PunchType.BREAK_START, breakStart),
+                punch(employeeId, PunchType.BREAK_END, breakStart.plusMinutes(breakMinutes)),
+                punch(employeeId, PunchType.CHECK_OUT, WORK_DATE.atTime(18, 0)));
+    }
+
+    private static PunchEventRequest punch(Long employeeId, PunchType type, LocalDateTime punchedAt) {
+        return PunchEventRequest.builder()
+                .idempotencyKey(employeeId + "-" + type + "-" + punchedAt)
+                .employeeId(employeeId)
+                .punchType(type)
+                .punchedAt(punchedAt)
+                .build();
+    }
+
+    private static BatchPunchRequest batch(List<PunchEventRequest> events) {
+        BatchPunchRequest request = new BatchPunchRequest();
+        request.setEvents(events);
+        return request;
+    }
+
+    private PunchIngestionServiceImpl createService(FakeTenantDatabase database, Set<Long> inactiveEmployeeIds) {
+        UserRepository userRepository = mock(UserRepository.class);
+        when(userRepository.findAllById(any())).thenAnswer(invocation -> {
+            List<UserEntity> users = new ArrayList<>();
+            for (Long id : (Iterable<Long>) invocation.getArgument(0)) {
+                UserEntity user = new UserEntity();
+                user.setId(id);
+                user.setDeleted(inactiveEmployeeIds.contains(id));
+                users.add(user);
+            }
+            return users;
+        });
+
+        ICompanySettingsService settingsService = mock(ICompanySettingsService.class);
+        when(settingsService.getAttendanceConfig()).thenReturn(AttendanceConfig.builder().build());
+        when(settingsService.getBreakConfig()).thenReturn(BreakConfig.builder().build());
+
+        PunchIngestionServiceImpl service = new PunchIngestionServiceImpl(
+                userRepository,
+                settingsService,
+                mock(IWorkScheduleService.class),
+                mock(IAttendanceService.class),
+                mock(ITimeRoundingCalculator.class),
+                mock(IAttendanceRecordCalculator.class),
+                mock(IAttendanceAggregateService.class),
+                mock(IPresenceService.class),
+                database);
+        ReflectionTestUtils.setField(service, "maxEvents", 10_000);
+        return service;
+    }
+
+    /**
+     * JdbcTemplate giả lập các bảng tenant dùng bởi nhập punch, nhận diện câu lệnh theo SQL
+     */
+    private static final class FakeTenantDatabase extends JdbcTemplate {
+        private final Set<String> claimedKeys = new HashSet<>();
+        private final Map<String, String> outcomes = new HashMap<>();
+        private final List<AttendanceRecordEntity> records = new ArrayList<>();
+        private final List<BreakRecordEntity> breaks = new ArrayList<>();
+        // Bản ghi do check-in trực tiếp commit trong lúc batch đang xử lý
+        private final List<AttendanceRecordEntity> racing = new ArrayList<>();
+        private long nextRecordId = 1;
+        private long nextBreakId = 1;
+
+        private AttendanceRecordEntity record(Long employeeId, LocalDate workDate) {
+            return records.stream()
+                    .filter(r -> r.getEmployeeId().equals(employeeId) && r.getWorkDate().equals(workDate))
+                    .findFirst()
+                    .orElseThrow();
+        }
+
+        private List<BreakRecordEntity> breaksOf(Long recordId) {
+            return breaks.stream().filter(b -> b.getAttendanceRecordId().equals(recordId)).toList();
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> List<T> query(PreparedStatementCreator psc, RowMapper<T> rowMapper) {
+            Statement statement = Statement.create(psc);
+            String sql = statement.sql;
+            if (sql.contains("INSERT INTO punch_events")) {
+                List<String> claimed = new ArrayList<>();
+                for (Object key : statement.array(1)) {
+                    if (claimedKeys.add((String) key)) {
+                        claimed.add((String) key);
+                    }
+                }
+                return (List<T>) claimed;
+            }
+            if (sql.contains("INSERT INTO attendance_records")) {
+                return (List<T>) insertRecords(statement);
+            }
+            if (sql.contains("JOIN unnest")) {
+                Object[] employeeIds = statement.array(1);
+                Object[] workDates = statement.array(2);
+                List<AttendanceRecordEntity> result = new ArrayList<>();
+                for (int i = 0; i < employeeIds.length; i++) {
+                    Long employeeId = (Long) employeeIds[i];
+                    LocalDate workDate = ((Date) workDates[i]).toLocalDate();
+                    records.stream()
+                            .filter(r -> r.getEmployeeId().equals(employeeId) && r.getWorkDate().equals(workDate))
+                            .forEach(r -> result.add(copy(r)));
+                }
+                return (List<T>) result;
+            }
+            if (sql.contains("FROM attendance_records")) {
+                Set<Object> employeeIds = Set.of(statement.array(1));
+                LocalDate from = ((Date) statement.params.get(2)).toLocalDate();
+                LocalDate to = ((Date) statement.params.get(3)).toLocalDate();
+                return (List<T>) records.stream()
+                        .filter(r -> employeeIds.contains(r.getEmployeeId())
+                                && !r.getWorkDate().isBefore(from) && !r.getWorkDate().isAfter(to))
+                        .map(FakeTenantDatabase::copy)
+                        .toList();
+            }
+            if (sql.contains("FROM break_records")) {
+                Set<Object> recordIds = Set.of(statement.array(1));
+                return (List<T>) breaks.stream()
+                        .filter(b -> recordIds.contains(b.getAttendanceRecordId()))
+                        .sorted(Comparator.comparing(BreakRecordEntity::getAttendanceRecordId)
+                                .thenComparing(BreakRecordEntity::getBreakNumber))
+                        .map(FakeTenantDatabase::copy)
+                        .toList();
+            }
+            throw new IllegalStateException("SQL không được giả lập: " + sql);
+        }
+
+        @Override
+        public int update(PreparedStatementCreator psc) {
+            Statement statement = Statement.create(psc);
+            if (!statement.sql.contains("UPDATE punch_events")) {
+                throw new IllegalStateException("SQL không được giả lập: " + statement.sql);
+            }
+            Object[] keys = statement.array(1);
+            Object[] errorCodes = statement.array(3);
+            for (int i = 0; i < keys.length; i++) {
+                outcomes.put((String) keys[i], (String) errorCodes[i]);
+            }
+            return keys.length;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> List<T> queryForList(String sql, Class<T> elementType, Object... args) {
+            List<Long> ids = new ArrayList<>();
+            for (int i = 0; i < (Integer) args[0]; i++) {
+                ids.add(nextRecordId++);
+            }
+            return (List<T>) ids;
+        }
+
+        @Override
+        public <T> int[][] batchUpdate(String sql, Collection<T> batchArgs, int batchSize,
+                ParameterizedPreparedStatementSetter<T> pss) {
+            for (T item : batchArgs) {
+                Statement statement = new Statement(sql);
+                try {
+                    pss.setValues(statement.proxy(), item);
+                } catch (SQLException e) {
+                    throw new IllegalStateException(e);
+                }
+                Map<Integer, Object> p = statement.params;
+                if (sql.contains("UPDATE attendance_records")) {
+                    AttendanceRecordEntity record = records.stream()
+                            .filter(r -> r.getId().equals(p.get(15)))
+                            .findFirst()
+                            .orElseThrow();
+                    record.setOriginalCheckOut(toLocalDateTime(p.get(1)));
+                    record.setRoundedCheckOut(toLocalDateTime(p.get(2)));
+                } else if (sql.contains("INSERT INTO break_records")) {
+                    BreakRecordEntity breakRecord = new BreakRecordEntity();
+                    breakRecord.setId(nextBreakId++);
+                    breakRecord.setAttendanceRecordId((Long) p.get(1));
+                    breakRecord.setEmployeeId((Long) p.get(2));
+                    breakRecord.setWorkDate(((Date) p.get(3)).toLocalDate());
+                    breakRecord.setBreakNumber((Integer) p.get(4));
+                    breakRecord.setBreakStart(toLocalDateTime(p.get(5)));
+                    breakRecord.setBreakEnd(toLocalDateTime(p.get(6)));
+                    breakRecord.setActualBreakMinutes((Integer) p.get(7));
+                    breakRecord.setEffectiveBreakMinutes((Integer) p.get(8));
+                    breaks.add(breakRecord);
+                } else if (sql.contains("UPDATE break_records")) {
+                    BreakRecordEntity breakRecord = breaks.stream()
+                            .filter(b -> b.getId().equals(p.get(5)))
+                            .findFirst()
+                            .orElseThrow();
+                    breakRecord.setBreakEnd(toLocalDateTime(p.get(1)));
+                    breakRecord.setActualBreakMinutes((Integer) p.get(2));
+                    breakRecord.setEffectiveBreakMinutes((Integer) p.get(3));
+                } else {
+                    throw new IllegalStateException("SQL không được giả lập: " + sql);
+                }
+            }
+            return new int[][] {};
+        }
+
+        private List<Long> insertRecords(Statement statement) {
+            // Check-in trực tiếp commit trước khi câu INSERT của batch chạy
+            for (AttendanceRecordEntity record : racing) {
+                record.setId(nextRecordId++);
+                records.add(copy(record));
+            }
+
+            Object[] ids = statement.array(3);
+            Object[] employeeIds = statement.array(4);
+            Object[] workDates = statement.array(5);
+            Object[] originalCheckIns = statement.array(6);
+            Object[] originalCheckOuts = statement.array(7);
+            List<Long> inserted = new ArrayList<>();
+            for (int i = 0; i < ids.length; i++) {
+                Long employeeId = (Long) employeeIds[i];
+                LocalDate workDate = ((Date) workDates[i]).toLocalDate();
+                boolean exists = records.stream()
+                        .anyMatch(r -> r.getEmployeeId().equals(employeeId) && r.getWorkDate().equals(workDate));
+                if (exists) {
+                    continue;
+                }
+                AttendanceRecordEntity record = new AttendanceRecordEntity();
+                record.setId((Long) ids[i]);
+                record.setEmployeeId(employeeId);
+                record.setWorkDate(workDate);
+                record.setOriginalCheckIn(toLocalDateTime(originalCheckIns[i]));
+                record.setOriginalCheckOut(toLocalDateTime(originalCheckOuts[i]));
+                record.setStatus(AttendanceStatus.PRESENT);
+                records.add(record);
+                inserted.add(record.getId());
+            }
+            return inserted;
+        }
+
+        private static LocalDateTime toLocalDateTime(Object value) {
+            return value != null ? ((Timestamp) value).toLocalDateTime() : null;
+        }
+
+        private static AttendanceRecordEntity copy(AttendanceRecordEntity source) {
+            AttendanceRecordEntity copy = new AttendanceRecordEntity();
+            copy.setId(source.getId());
+            copy.setEmployeeId(source.getEmployeeId());
+            copy.setWorkDate(source.getWorkDate());
+            copy.setOriginalCheckIn(source.getOriginalCheckIn());
+            copy.setOriginalCheckOut(source.getOriginalCheckOut());
+            copy.setRoundedCheckIn(source.getRoundedCheckIn());
+            copy.setRoundedCheckOut(source.getRoundedCheckOut());
+            copy.setStatus(source.getStatus());
+            return copy;
+        }
+
+        private static BreakRecordEntity copy(BreakRecordEntity source) {
+            BreakRecordEntity copy = new BreakRecordEntity();
+            copy.setId(source.getId());
+            copy.setAttendanceRecordId(source.getAttendanceRecordId());
+            copy.setEmployeeId(source.getEmployeeId());
+            copy.setWorkDate(source.getWorkDate());
+            copy.setBreakNumber(source.getBreakNumber());
+            copy.setBreakStart(source.getBreakStart());
+            copy.setBreakEnd(source.getBreakEnd());
+            copy.setActualBreakMinutes(source.getActualBreakMinutes());
+            copy.setEffectiveBreakMinutes(source.getEffectiveBreakMinutes());
+            return copy;
+        }
+    }
+
+    /**
+     * Câu lệnh đã chuẩn bị: SQL và tham số được gán (mảng giữ nguyên phần tử)
+     */
+    private static final class Statement {
+        private final String sql;
+        private final Map<Integer, Object> params = new HashMap<>();
+
+        private Statement(String sql) {
+            this.sql = sql;
+        }
+
+        private static Statement create(PreparedStatementCreator psc) {
+            Statement[] created = new Statement[1];
+            Connection connection = (Connection) Proxy.newProxyInstance(
+                    Connection.class.getClassLoader(), new Class<?>[] {Connection.class},
+                    (proxy, method, args) -> switch (method.getName()) {
+                        case "prepareStatement" -> {
+                            created[0] = new Statement((String) args[0]);
+                            yield created[0].proxy();
+                        }
+                        case "createArrayOf" -> Proxy.newProxyInstance(
+                                Array.class.getClassLoader(), new Class<?>[] {Array.class},
+                                (arrayProxy, arrayMethod, arrayArgs) ->
+                                        "getArray".equals(arrayMethod.getName()) ? args[1] : null);
+                        default -> null;
+                    });
+            try {
+                psc.createPreparedStatement(connection);
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+            return created[0];
+        }
+
+        private PreparedStatement proxy() {
+            return (PreparedStatement) Proxy.newProxyInstance(
+                    PreparedStatement.class.getClassLoader(), new Class<?>[] {PreparedStatement.class},
+                    (proxy, method, args) -> {
+                        if (method.getName().startsWith("set") && args != null && args.length >= 2
+                                && args[0] instanceof Integer index) {
+                            params.put(index, "setNull".equals(method.getName()) ? null : args[1]);
+                        }
+                        return method.getReturnType() == boolean.class ? false
+                                : method.getReturnType() == int.class ? 0 : null;
+                    });
+        }
+
+        private Object[] array(int index) {
+            try {
+                return (Object[]) ((Array) params.get(index)).getArray();
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,259 @@
+package com.tamabee.api_hr.service;
+
+import com.tamabee.api_hr.dto.config.AllowanceCondition;
+import com.tamabee.api_hr.dto.config.AllowanceConfig;
+import com.tamabee.api_hr.dto.config.AllowanceRule;
+import com.tamabee.api_hr.dto.config.DeductionConfig;
+import com.tamabee.api_hr.dto.config.DeductionRule;
+import com.tamabee.api_hr.dto.result.AllowanceItem;
+import com.tamabee.api_hr.dto.result.AllowanceResult;
+import com.tamabee.api_hr.dto.result.AttendanceSummary;
+import com.tamabee.api_hr.dto.result.DeductionItem;
+import com.tamabee.api_hr.dto.result.DeductionResult;
+import com.tamabee.api_hr.enums.AllowanceType;
+import com.tamabee.api_hr.enums.DeductionType;
+import com.tamabee.api_hr.service.calculator.impl.AllowanceCalculatorImpl;
+import com.tamabee.api_hr.service.calculator.impl.DeductionCalculatorImpl;
+import net.jqwik.api.*;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Property-based tests cho plan phụ cấp/khấu trừ đã biên dịch.
+ *
+ * Property: Plan biên dịch tương đương thông dịch rule trực tiếp
+ * - For any config và chuỗi nhân viên dùng chung config (plan được cache),
+ * item (thứ tự, số tiền, lý do không đủ điều kiện) và các tổng SHALL giống hệt
+ * kết quả thông dịch từng rule bằng BigDecimal
+ */
+class RulePlanPropertyTest {
+
+    private final AllowanceCalculatorImpl allowanceCalculator = new AllowanceCalculatorImpl();
+    private final DeductionCalculatorImpl deductionCalculator = new DeductionCalculatorImpl();
+
+    // ==================== Property 1: Phụ cấp ====================
+
+    /**
+     * Property 1.1: Phụ cấp (FIXED/CONDITIONAL, điều kiện ngẫu nhiên) giống thông dịch trực tiếp
+     */
+    @Property(tries = 200)
+    void allowancePlan_shouldMatchInterpreter(
+            @ForAll("allowanceRules") List<AllowanceRule> rules,
+            @ForAll("attendances") List<AttendanceSummary> attendances) {
+
+        AllowanceConfig config = AllowanceConfig.builder().allowances(rules).build();
+        for (AttendanceSummary attendance : attendances) {
+            AllowanceResult actual = allowanceCalculator.calculateAllowances(config, attendance);
+            AllowanceResult expected = referenceAllowances(rules, attendance);
+
+            assertThat(actual.getItems()).isEqualTo(expected.getItems());
+            assertThat(actual.getTotalAllowances()).isEqualTo(expected.getTotalAllowances());
+            assertThat(actual.getTaxableAllowances()).isEqualTo(expected.getTaxableAllowances());
+            assertThat(actual.getNonTaxableAllowances()).isEqualTo(expected.getNonTaxableAllowances());
+        }
+    }
+
+    // ==================== Property 2: Khấu trừ ====================
+
+    /**
+     * Property 2.1: Khấu trừ (phạt, FIXED, PERCENTAGE, order trùng/thiếu) giống thông dịch trực tiếp
+     */
+    @Property(tries = 200)
+    void deductionPlan_shouldMatchInterpreter(
+            @ForAll("deductionRules") List<DeductionRule> rules,
+            @ForAll boolean latePenalty,
+            @ForAll boolean earlyLeavePenalty,
+            @ForAll("attendances") List<AttendanceSummary> attendances) {
+
+        DeductionConfig config = DeductionConfig.builder()
+                .deductions(rules)
+                .enableLatePenalty(latePenalty)
+                .latePenaltyPerMinute(new BigDecimal("12.5"))
+                .enableEarlyLeavePenalty(earlyLeavePenalty)
+                .earlyLeavePenaltyPerMinute(new BigDecimal("20"))
+                .build();
+        BigDecimal grossSalary = BigDecimal.valueOf(250_000);
+        for (AttendanceSummary attendance : attendances) {
+            DeductionResult actual = deductionCalculator.calculateDeductions(config, attendance, grossSalary);
+            DeductionResult expected = referenceDeductions(config, attendance, grossSalary);
+
+            assertThat(actual.getItems()).isEqualTo(expected.getItems());
+            assertThat(actual.getTotalDeductions()).isEqualTo(expected.getTotalDeductions());
+            assertThat(actual.getLatePenalty()).isEqualTo(expected.getLatePenalty());
+            assertThat(actual.getEarlyLeavePenalty()).isEqualTo(expected.getEarlyLeavePenalty());
+        }
+    }
+
+    // ==================== Reference interpreter ====================
+
+    private AllowanceResult referenceAllowances(List<AllowanceRule> rules, AttendanceSummary attendance) {
+        List<AllowanceItem> items = new ArrayList<>();
+        BigDecimal total = BigDecimal.ZERO;
+        BigDecimal taxable = BigDecimal.ZERO;
+        BigDecimal nonTaxable = BigDecimal.ZERO;
+        for (AllowanceRule rule : rules) {
+            if (rule == null || rule.getAmount() == null) {
+                continue;
+            }
+            String reason = rule.getType() == AllowanceType.CONDITIONAL && rule.getCondition() != null
+                    ? referenceReason(rule.getCondition(), attendance)
+                    : null;
+            items.add(AllowanceItem.builder()
+                    .code(rule.getCode())
+                    .name(rule.getName())
+                    .type(rule.getType())
+                    .amount(reason == null ? rule.getAmount() : BigDecimal.ZERO)
+                    .taxable(rule.getTaxable())
+                    .ineligibleReason(reason)
+                    .build());
+            if (reason == null) {
+                total = total.add(rule.getAmount());
+                if (Boolean.TRUE.equals(rule.getTaxable())) {
+                    taxable = taxable.add(rule.getAmount());
+                } else {
+                    nonTaxable = nonTaxable.add(rule.getAmount());
+                }
+            }
+        }
+        return AllowanceResult.builder().items(items).totalAllowances(total)
+                .taxableAllowances(taxable).nonTaxableAllowances(nonTaxable).build();
+    }
+
+    private String referenceReason(AllowanceCondition condition, AttendanceSummary attendance) {
+        if (attendance == null) {
+            return "Không có dữ liệu chấm công";
+        }
+        if (condition.getMinWorkingDays() != null && attendance.getWorkingDays() < condition.getMinWorkingDays()) {
+            return String.format("Số ngày làm việc (%d) chưa đạt tối thiểu (%d)",
+                    attendance.getWorkingDays(), condition.getMinWorkingDays());
+        }
+        if (condition.getMinWorkingHours() != null && attendance.getWorkingHours() < condition.getMinWorkingHours()) {
+            return String.format("Số giờ làm việc (%d) chưa đạt tối thiểu (%d)",
+                    attendance.getWorkingHours(), condition.getMinWorkingHours());
+        }
+        if (Boolean.TRUE.equals(condition.getNoAbsence()) && attendance.getAbsenceDays() > 0) {
+            return String.format("Có %d ngày vắng mặt", attendance.getAbsenceDays());
+        }
+        if (Boolean.TRUE.equals(condition.getNoLateArrival()) && attendance.getLateCount() > 0) {
+            return String.format("Có %d lần đi muộn", attendance.getLateCount());
+        }
+        if (Boolean.TRUE.equals(condition.getNoEarlyLeave()) && attendance.getEarlyLeaveCount() > 0) {
+            return String.format("Có %d lần về sớm", attendance.getEarlyLeaveCount());
+        }
+        return null;
+    }
+
+    private DeductionResult referenceDeductions(
+            DeductionConfig config, AttendanceSummary attendance, BigDecimal grossSalary) {
+
+        List<DeductionItem> items = new ArrayList<>();
+        BigDecimal total = BigDecimal.ZERO;
+        BigDecimal late = BigDecimal.ZERO;
+        BigDecimal early = BigDecimal.ZERO;
+
+        if (config.getEnableLatePenalty() && attendance != null) {
+            late = config.getLatePenaltyPerMinute().multiply(BigDecimal.valueOf(attendance.getTotalLateMinutes()))
+                    .setScale(0, RoundingMode.HALF_UP);
+            if (late.signum() > 0) {
+                items.add(DeductionItem.builder().code("LATE_PENALTY").name("Phạt đi muộn")
+                        .type(DeductionType.FIXED).amount(late).order(0).build());
+                total = total.add(late);
+            }
+        }
+        if (config.getEnableEarlyLeavePenalty() && attendance != null) {
+            early = config.getEarlyLeavePenaltyPerMinute()
+                    .multiply(BigDecimal.valueOf(attendance.getTotalEarlyLeaveMinutes()))
+                    .setScale(0, RoundingMode.HALF_UP);
+            if (early.signum() > 0) {
+                items.add(DeductionItem.builder().code("EARLY_LEAVE_PENALTY").name("Phạt về sớm")
+                        .type(DeductionType.FIXED).amount(early).order(0).build());
+                total = total.add(early);
+            }
+        }
+
+        List<DeductionRule> sorted = config.getDeductions().stream()
+                .filter(rule -> rule != null)
+                .sorted(Comparator.comparingInt(rule -> rule.getOrder() != null ? rule.getOrder() : Integer.MAX_VALUE))
+                .toList();
+        for (DeductionRule rule : sorted) {
+            BigDecimal amount = BigDecimal.ZERO;
+            if (rule.getType() == DeductionType.FIXED && rule.getAmount() != null) {
+                amount = rule.getAmount();
+            } else if (rule.getType() == DeductionType.PERCENTAGE && rule.getPercentage() != null) {
+                amount = grossSalary.multiply(rule.getPercentage())
+                        .divide(BigDecimal.valueOf(100), 0, RoundingMode.HALF_UP);
+            }
+            if (amount.signum() > 0) {
+                items.add(DeductionItem.builder().code(rule.getCode()).name(rule.getName())
+                        .type(rule.getType()).amount(amount).order(rule.getOrder()).build());
+                total = total.add(amount);
+            }
+        }
+
+        return DeductionResult.builder().items(items).totalDeductions(total)
+                .latePenalty(late).earlyLeavePenalty(early).build();
+    }
+
+    // ==================== Arbitraries ====================
+
+    @Provide
+    Arbitrary<List<AllowanceRule>> allowanceRules() {
+        Arbitrary<AllowanceCondition> condition = Combinators.combine(
+                Arbitraries.integers().between(15, 23).injectNull(0.4),
+                Arbitraries.integers().between(120, 180).injectNull(0.6),
+                Arbitraries.of(true, false).injectNull(0.3),
+                Arbitraries.of(true, false).injectNull(0.3),
+                Arbitraries.of(true, false).injectNull(0.3))
+                .as((days, hours, noAbsence, noLate, noEarly) -> AllowanceCondition.builder()
+                        .minWorkingDays(days).minWorkingHours(hours)
+                        .noAbsence(noAbsence).noLateArrival(noLate).noEarlyLeave(noEarly).build());
+        Arbitrary<AllowanceRule> rule = Combinators.combine(
+                Arbitraries.strings().alpha().ofLength(3),
+                Arbitraries.of(AllowanceType.values()),
+                Combinators.combine(Arbitraries.longs().between(0, 5_000_000), Arbitraries.integers().between(0, 5))
+                        .as(BigDecimal::valueOf).injectNull(0.1),
+                Arbitraries.of(true, false).injectNull(0.2),
+                condition.injectNull(0.2))
+                .as((code, type, amount, taxable, cond) -> AllowanceRule.builder()
+                        .code(code).name(code).type(type).amount(amount).taxable(taxable).condition(cond).build());
+        return rule.injectNull(0.05).list().ofMaxSize(12);
+    }
+
+    @Provide
+    Arbitrary<List<DeductionRule>> deductionRules() {
+        Arbitrary<DeductionRule> rule = Combinators.combine(
+                Arbitraries.strings().alpha().ofLength(3),
+                Arbitraries.of(DeductionType.values()),
+                Combinators.combine(Arbitraries.longs().between(-1_000, 50_000), Arbitraries.integers().between(0, 2))
+                        .as(BigDecimal::valueOf).injectNull(0.1),
+                Combinators.combine(Arbitraries.longs().between(0, 2_000), Arbitraries.integers().between(0, 2))
+                        .as(BigDecimal::valueOf).injectNull(0.1),
+                Arbitraries.integers().between(0, 5).injectNull(0.2))
+                .as((code, type, amount, percentage, order) -> DeductionRule.builder()
+                        .code(code).name(code).type(type).amount(amount).percentage(percentage).order(order).build());
+        return rule.injectNull(0.05).list().ofMaxSize(10);
+    }
+
+    @Provide
+    Arbitrary<List<AttendanceSummary>> attendances() {
+        Arbitrary<AttendanceSummary> attendance = Combinators.combine(
+                Arbitraries.integers().between(10, 23),
+                Arbitraries.integers().between(80, 200),
+                Arbitraries.integers().between(0, 2),
+                Arbitraries.integers().between(0, 2),
+                Arbitraries.integers().between(0, 2),
+                Arbitraries.integers().between(0, 300),
+                Arbitraries.integers().between(0, 300))
+                .as((days, hours, absence, late, early, lateMinutes, earlyMinutes) -> AttendanceSummary.builder()
+                        .workingDays(days).workingHours(hours).absenceDays(absence)
+                        .lateCount(late).earlyLeaveCount(early)
+                        .totalLateMinutes(lateMinutes).totalEarlyLeaveMinutes(earlyMinutes).build());
+        return attendance.injectNull(0.05).list().ofMinSize(1).ofMaxSize(5);
+    }
+}
@@ -0,0 +1,102 @@
+package com.tamabee.api_hr.service;
+
+import com.tamabee.api_hr.service.company.cache.VersionedTenantCache;
+import net.jqwik.api.*;
+import net.jqwik.api.constraints.*;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests cho cache theo tenant có version.
+ *
+ * Property: Invalidate trong lúc load không để lại bản cũ
+ * - Load bắt đầu trước invalidate SHALL không được lưu vào cache
+ * - Các request cùng thiếu một khóa SHALL chờ chung một lần load
+ * - Invalidate tenant SHALL không ảnh hưởng tenant khác
+ */
+class VersionedTenantCachePropertyTest {
+
+    @Example
+    void loadStartedBeforeInvalidation_shouldNotBeStored() throws Exception {
+        VersionedTenantCache<Long, String> cache = new VersionedTenantCache<>(Duration.ofMinutes(10));
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch invalidated = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<String> staleLoad = executor.submit(() -> cache.get("acme", 1L, id -> {
+                loading.countDown();
+                await(invalidated);
+                return "old";
+            }));
+            await(loading);
+            cache.invalidate("acme", 1L);
+            invalidated.countDown();
+
+            assertThat(staleLoad.get(5, TimeUnit.SECONDS)).isEqualTo("old");
+            assertThat(cache.get("acme", 1L, id -> "new")).isEqualTo("new");
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Example
+    void concurrentMisses_shouldShareOneLoad() throws Exception {
+        VersionedTenantCache<Long, String> cache = new VersionedTenantCache<>(Duration.ofMinutes(10));
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            Future<?>[] futures = new Future<?>[8];
+            for (int i = 0; i < futures.length; i++) {
+                futures[i] = executor.submit(() -> cache.get("acme", 1L, id -> {
+                    loads.incrementAndGet();
+                    await(release);
+                    return "value";
+                }));
+            }
+            Thread.sleep(100);
+            release.countDown();
+            for (Future<?> future : futures) {
+                assertThat(future.get(5, TimeUnit.SECONDS)).isEqualTo("value");
+            }
+            assertThat(loads.get()).isEqualTo(1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Property(tries = 50)
+    void invalidateTenant_shouldOnlyAffectThatTenant(@ForAll @IntRange(min = 1, max = 20) int keys) {
+        VersionedTenantCache<Integer, String> cache = new VersionedTenantCache<>(Duration.ofMinutes(10));
+        for (int key = 0; key < keys; key++) {
+            cache.get("a", key, k -> "a" + k);
+            cache.get("b", key, k -> "b" + k);
+        }
+
+        cache.invalidateTenant("a");
+
+        for (int key = 0; key < keys; key++) {
+            assertThat(cache.get("a", key, k -> "reloaded")).isEqualTo("reloaded");
+            assertThat(cache.get("b", key, k -> "reloaded")).isEqualTo("b" + key);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            if (!latch.await(5, TimeUnit.SECONDS)) {
+                throw new IllegalStateException("Timeout");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
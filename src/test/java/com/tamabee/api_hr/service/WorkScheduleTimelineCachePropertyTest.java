@@ -0,0 +1,98 @@
+package com.tamabee.api_hr.service;
+
+import com.tamabee.api_hr.dto.response.schedule.WorkScheduleResponse;
+import com.tamabee.api_hr.service.company.cache.WorkScheduleTimelineCache;
+import com.tamabee.api_hr.service.company.cache.WorkScheduleTimelineCache.AssignmentInterval;
+import com.tamabee.api_hr.service.company.cache.WorkScheduleTimelineCache.EmployeeTimeline;
+import net.jqwik.api.*;
+import net.jqwik.api.constraints.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Property-based tests cho cache timeline lịch làm việc.
+ *
+ * Property: Resolve từ timeline tương đương truy vấn assignment
+ * - For any danh sách assignment và ngày, resolve SHALL trả về scheduleId của assignment có
+ * effectiveFrom lớn nhất còn hiệu lực tại ngày đó (giống ORDER BY effectiveFrom DESC của query)
+ * - Invalidate SHALL chỉ ảnh hưởng nhân viên/tenant được chỉ định
+ */
+class WorkScheduleTimelineCachePropertyTest {
+
+    private static final LocalDate BASE = LocalDate.of(2025, 1, 1);
+
+    /**
+     * Property 1: resolve giống lọc + sắp xếp effectiveFrom DESC
+     */
+    @Property(tries = 300)
+    void resolve_shouldMatchQuerySemantics(
+            @ForAll("assignments") List<AssignmentInterval> assignments,
+            @ForAll @IntRange(min = -10, max = 120) int dayOffset) {
+
+        LocalDate date = BASE.plusDays(dayOffset);
+        List<AssignmentInterval> sorted = assignments.stream()
+                .sorted(Comparator.comparing(AssignmentInterval::effectiveFrom).reversed())
+                .toList();
+
+        Long expected = sorted.stream()
+                .filter(a -> !a.effectiveFrom().isAfter(date)
+                        && (a.effectiveTo() == null || !a.effectiveTo().isBefore(date)))
+                .map(AssignmentInterval::scheduleId)
+                .findFirst()
+                .orElse(null);
+
+        assertThat(new EmployeeTimeline(sorted).resolve(date)).isEqualTo(expected);
+    }
+
+    /**
+     * Property 2: invalidate nhân viên chỉ load lại nhân viên đó, invalidate tenant không ảnh hưởng tenant khác
+     */
+    @Property(tries = 50)
+    void invalidate_shouldOnlyAffectTarget(
+            @ForAll @LongRange(min = 1, max = 1000) long employeeId,
+            @ForAll @LongRange(min = 1001, max = 2000) long otherEmployeeId) {
+
+        WorkScheduleTimelineCache cache = new WorkScheduleTimelineCache();
+        ReflectionTestUtils.setField(cache, "ttlSeconds", 600L);
+        ReflectionTestUtils.invokeMethod(cache, "init");
+        AtomicInteger loads = new AtomicInteger();
+        EmployeeTimeline empty = new EmployeeTimeline(List.of());
+
+        cache.getTimeline("acme", employeeId, id -> { loads.incrementAndGet(); return empty; });
+        cache.getTimeline("acme", otherEmployeeId, id -> { loads.incrementAndGet(); return empty; });
+        cache.getTimeline("other", employeeId, id -> { loads.incrementAndGet(); return empty; });
+        cache.getDefaultSchedule("acme", () -> { loads.incrementAndGet(); return new WorkScheduleResponse(); });
+        assertThat(loads).hasValue(4);
+
+        cache.invalidateEmployee("acme", employeeId);
+        cache.getTimeline("acme", employeeId, id -> { loads.incrementAndGet(); return empty; });
+        cache.getTimeline("acme", otherEmployeeId, id -> { loads.incrementAndGet(); return empty; });
+        cache.getDefaultSchedule("acme", () -> { loads.incrementAndGet(); return null; });
+        assertThat(loads).hasValue(5);
+
+        cache.invalidateTenant("acme");
+        cache.getTimeline("acme", otherEmployeeId, id -> { loads.incrementAndGet(); return empty; });
+        cache.getTimeline("other", employeeId, id -> { loads.incrementAndGet(); return empty; });
+        assertThat(loads).hasValue(6);
+    }
+
+    @Provide
+    Arbitrary<List<AssignmentInterval>> assignments() {
+        Arbitrary<AssignmentInterval> assignment = Combinators.combine(
+                Arbitraries.integers().between(0, 100),
+                Arbitraries.integers().between(0, 60).injectNull(0.3),
+                Arbitraries.longs().between(1, 20))
+                .as((from, length, scheduleId) -> new AssignmentInterval(
+                        BASE.plusDays(from),
+                        length != null ? BASE.plusDays(from + length) : null,
+                        scheduleId));
+        // Mỗi nhân viên không có hai assignment cùng effectiveFrom (đã chặn overlap khi gán)
+        return assignment.list().ofMaxSize(6).uniqueElements(AssignmentInterval::effectiveFrom);
+    }
+}
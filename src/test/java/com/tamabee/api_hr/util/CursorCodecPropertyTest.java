@@ -0,0 +1,48 @@
+package com.tamabee.api_hr.util;
+
+import com.tamabee.api_hr.exception.BadRequestException;
+import net.jqwik.api.*;
+import net.jqwik.api.constraints.*;
+import net.jqwik.time.api.constraints.DateTimeRange;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Property-based tests cho con trỏ phân trang keyset.
+ *
+ * Property: Con trỏ giải mã lại đúng khóa đã mã hóa
+ * - For any thời điểm và id, decode(encode(...)) SHALL trả về cùng thời điểm và id
+ * - Con trỏ của scope khác hoặc chuỗi rác SHALL bị từ chối bằng BadRequestException
+ */
+class CursorCodecPropertyTest {
+
+    @Property(tries = 200)
+    void decode_shouldRoundTripEncodedKey(
+            @ForAll @DateTimeRange(min = "2000-01-01T00:00:00", max = "2100-12-31T23:59:59") LocalDateTime sortValue,
+            @ForAll @Positive long id) {
+
+        String cursor = CursorCodec.encode("audit", sortValue, id);
+        CursorCodec.Key key = CursorCodec.decode("audit", cursor);
+
+        assertThat(key.dateTimeValue()).isEqualTo(sortValue);
+        assertThat(key.id()).isEqualTo(id);
+        assertThatThrownBy(() -> CursorCodec.decode("attendance", cursor))
+                .isInstanceOf(BadRequestException.class);
+    }
+
+    @Property(tries = 200)
+    void decode_shouldRejectGarbage(@ForAll @StringLength(min = 1, max = 60) String cursor) {
+        Assume.that(!cursor.isBlank());
+        assertThatThrownBy(() -> CursorCodec.decode("audit", cursor))
+                .isInstanceOf(BadRequestException.class);
+    }
+
+    @Example
+    void blankCursor_shouldMeanFirstPage() {
+        assertThat(CursorCodec.decode("audit", null)).isNull();
+        assertThat(CursorCodec.decode("audit", " ")).isNull();
+    }
+}
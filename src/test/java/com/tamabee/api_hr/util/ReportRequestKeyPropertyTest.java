@@ -0,0 +1,79 @@
+package com.tamabee.api_hr.util;
+
+import com.tamabee.api_hr.dto.request.report.ReportQuery;
+import com.tamabee.api_hr.enums.ExportFormat;
+import com.tamabee.api_hr.enums.ReportType;
+import net.jqwik.api.*;
+import net.jqwik.api.constraints.*;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Property-based tests cho khóa gộp yêu cầu xuất báo cáo.
+ *
+ * Property: Yêu cầu giống nhau cho cùng khóa
+ * - For any danh sách lọc, đổi thứ tự hoặc thêm phần tử trùng SHALL không đổi khóa
+ * - Danh sách rỗng SHALL tương đương không lọc, ngôn ngữ rỗng SHALL tương đương "vi"
+ * - Khác tenant, định dạng hoặc ngôn ngữ SHALL cho khóa khác
+ */
+class ReportRequestKeyPropertyTest {
+
+    private static final LocalDate START = LocalDate.of(2025, 1, 1);
+    private static final LocalDate END = LocalDate.of(2025, 1, 31);
+
+    @Property(tries = 200)
+    void key_shouldIgnoreOrderAndDuplicates(
+            @ForAll @Size(max = 20) List<@Positive Long> employeeIds,
+            @ForAll @Size(max = 10) List<@Positive Long> shiftTemplateIds,
+            @ForAll long seed) {
+
+        List<Long> shuffled = new ArrayList<>(employeeIds);
+        shuffled.addAll(employeeIds);
+        Collections.shuffle(shuffled, new Random(seed));
+        List<Long> shuffledTemplates = new ArrayList<>(shiftTemplateIds);
+        Collections.shuffle(shuffledTemplates, new Random(seed + 1));
+
+        String key = key("acme", ExportFormat.CSV, "vi", query(employeeIds, shiftTemplateIds));
+        String other = key("acme", ExportFormat.CSV, "vi", query(shuffled, shuffledTemplates));
+
+        assertThat(other).isEqualTo(key).hasSize(64);
+    }
+
+    @Property(tries = 100)
+    void key_shouldSeparateTenantFormatAndLanguage(@ForAll @Size(max = 10) List<@Positive Long> employeeIds) {
+        ReportQuery query = query(employeeIds, null);
+        String key = key("acme", ExportFormat.CSV, "vi", query);
+
+        assertThat(key("other", ExportFormat.CSV, "vi", query)).isNotEqualTo(key);
+        assertThat(key("acme", ExportFormat.PDF, "vi", query)).isNotEqualTo(key);
+        assertThat(key("acme", ExportFormat.CSV, "ja", query)).isNotEqualTo(key);
+    }
+
+    @Example
+    void emptyFiltersAndLanguage_shouldMatchDefaults() {
+        String key = key("acme", ExportFormat.CSV, "vi", query(null, null));
+
+        assertThat(key("acme", ExportFormat.CSV, null, query(List.of(), List.of()))).isEqualTo(key);
+        assertThat(key("acme", ExportFormat.CSV, " VI ", query(null, null))).isEqualTo(key);
+    }
+
+    private static ReportQuery query(List<Long> employeeIds, List<Long> shiftTemplateIds) {
+        return ReportQuery.builder()
+                .startDate(START)
+                .endDate(END)
+                .employeeIds(employeeIds)
+                .shiftTemplateIds(shiftTemplateIds)
+                .build();
+    }
+
+    private static String key(String tenant, ExportFormat format, String language, ReportQuery query) {
+        return ReportRequestKey.of(tenant, ReportType.ATTENDANCE_SUMMARY, format, language,
+                ReportRequestKey.normalizeQuery(query));
+    }
+}